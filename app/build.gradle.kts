@@ -63,6 +63,10 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // Tests JVM: android.util.Log y demás stubs devuelven valores por defecto
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -96,6 +100,7 @@ dependencies {
     annotationProcessor(libs.glide.compiler)
 
     testImplementation(libs.junit)
+    testImplementation(libs.org.json)  // FirebaseQueueManagerTest persiste la cola como JSON
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
 }
@@ -4,6 +4,8 @@ package com.secret.blackholeglow;
 import android.content.Context;
 import android.opengl.GLES30;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 /**
  * Base para todos los programas GLSL:
  *  - Compila y linka shaders desde assets.
@@ -33,7 +35,7 @@ public abstract class BaseShaderProgram {
 
     /** Activa este programa (glUseProgram). */
     public void useProgram() {
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
     }
 
     /**
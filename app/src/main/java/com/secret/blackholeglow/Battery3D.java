@@ -4,7 +4,6 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.graphics.Bitmap;
 import android.graphics.BlurMaskFilter;
 import android.graphics.Canvas;
 import android.graphics.Color;
@@ -13,10 +12,15 @@ import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Shader;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.os.BatteryManager;
 import android.util.Log;
 
+import com.secret.blackholeglow.gl3.DirtyRectTexture;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -122,7 +126,6 @@ public class Battery3D implements SceneObject {
 
     private FloatBuffer vertexBuffer;
     private FloatBuffer texCoordBuffer;
-    private int textureId = -1;
 
     // ═══════════════════════════════════════════════════════════════
     // POSICIÓN Y TAMAÑO
@@ -146,11 +149,19 @@ public class Battery3D implements SceneObject {
     private int glowColor;
     private int coreColor;
 
-    // Bitmap para textura
+    // Textura del reactor: storage fijo, solo se re-sube la región que cambia
     private static final int TEX_WIDTH = 256;
     private static final int TEX_HEIGHT = 128;
-    private Bitmap bitmap;
-    private Canvas canvas;
+    private static final float TEX_PADDING = 8f;
+    private static final float INNER_INSET = 6f;
+    private DirtyRectTexture hudTexture;
+
+    // Porcentaje: atlas SDF compartido (el bitmap solo tiene el reactor)
+    private static final float TEXT_SIZE_PX = 28f;
+    private final TextMesh percentMesh =
+            new TextMesh(SdfFont.get(SdfFont.Face.SANS_BOLD, SdfFont.SizeClass.UI), 4);
+    private final StringBuilder percentText = new StringBuilder(4);
+    private boolean textDirty = true;
 
     // Context y BroadcastReceiver
     private Context context;
@@ -164,7 +175,6 @@ public class Battery3D implements SceneObject {
     private Paint cachedFillPaint;
     private Paint cachedHighlightPaint;
     private Paint cachedCorePaint;
-    private Paint cachedTextPaint;
     private Paint cachedBoltPaint;
     private final RectF cachedOuterRect = new RectF();
     private final RectF cachedInnerRect = new RectF();
@@ -425,8 +435,7 @@ public class Battery3D implements SceneObject {
     }
 
     private void createBitmap() {
-        bitmap = Bitmap.createBitmap(TEX_WIDTH, TEX_HEIGHT, Bitmap.Config.ARGB_8888);
-        canvas = new Canvas(bitmap);
+        hudTexture = new DirtyRectTexture(TAG, TEX_WIDTH, TEX_HEIGHT, 0);
         initPaintCaches();
     }
 
@@ -463,13 +472,8 @@ public class Battery3D implements SceneObject {
         cachedCorePaint.setAlpha(150);
         cachedCorePaint.setMaskFilter(new BlurMaskFilter(8, BlurMaskFilter.Blur.NORMAL));
 
-        // 7. Texto de porcentaje
-        cachedTextPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        cachedTextPaint.setColor(Color.WHITE);
-        cachedTextPaint.setTextSize(28f);
-        cachedTextPaint.setTextAlign(Paint.Align.CENTER);
-        cachedTextPaint.setFakeBoldText(true);
-        cachedTextPaint.setShadowLayer(4, 0, 0, Color.BLACK);
+        // 7. Texto de porcentaje → TextMesh (sombra negra = outline SDF)
+        percentMesh.setOutline(Color.BLACK, 0.08f);
 
         // 8. Rayo de carga
         cachedBoltPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -485,11 +489,17 @@ public class Battery3D implements SceneObject {
     // ═══════════════════════════════════════════════════════════════
 
     private void updateTexture() {
-        if (!needsUpdate && textureId != -1) return;
-        needsUpdate = false;
+        if (needsUpdate) {
+            needsUpdate = false;
+            // Nivel/carga solo cambian el interior del reactor (barra, núcleo, rayo);
+            // el marco y el glow exterior no se vuelven a subir
+            int inset = (int) (TEX_PADDING + INNER_INSET);
+            hudTexture.invalidate(inset, inset, TEX_WIDTH - inset, TEX_HEIGHT - inset);
+        }
+        if (!hudTexture.shouldRepaint()) return;
 
-        // Limpiar canvas
-        bitmap.eraseColor(Color.TRANSPARENT);
+        // Canvas recortado y limpio en la región sucia
+        Canvas canvas = hudTexture.beginRepaint();
 
         int levelColor = getColorForLevel(batteryLevel);
         float fillPercent = batteryLevel / 100f;
@@ -498,7 +508,7 @@ public class Battery3D implements SceneObject {
         // DIBUJAR REACTOR/ORBE (usando Paint cacheados)
         // ═══════════════════════════════════════════════════════════
 
-        float padding = 8f;
+        float padding = TEX_PADDING;
         float left = padding;
         float top = padding;
         float right = TEX_WIDTH - padding;
@@ -507,7 +517,7 @@ public class Battery3D implements SceneObject {
 
         // ⚡ Reutilizar RectF cacheados
         cachedOuterRect.set(left, top, right, bottom);
-        cachedInnerRect.set(left + 6, top + 6, right - 6, bottom - 6);
+        cachedInnerRect.set(left + INNER_INSET, top + INNER_INSET, right - INNER_INSET, bottom - INNER_INSET);
 
         // 1. GLOW EXTERIOR
         cachedGlowPaint.setColor(glowColor);
@@ -565,28 +575,11 @@ public class Battery3D implements SceneObject {
             canvas.drawText("\u26A1", cachedInnerRect.centerX(), cachedInnerRect.centerY() + 14, cachedBoltPaint);
         }
 
-        // 8. TEXTO DE PORCENTAJE
-        String percentText = batteryLevel + "%";
-        float textX = cachedInnerRect.centerX();
-        float textY = cachedInnerRect.centerY() + 10;
-        canvas.drawText(percentText, textX, textY, cachedTextPaint);
-
-        // Subir textura a GPU
-        if (textureId == -1) {
-            int[] textures = new int[1];
-            GLES30.glGenTextures(1, textures, 0);
-            textureId = textures[0];
-
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        } else {
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        }
+        // 8. TEXTO DE PORCENTAJE → percentMesh (sin rasterizar texto aquí)
+        textDirty = true;
 
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        // Subir solo la región sucia (glTexSubImage2D sobre storage inmutable)
+        hudTexture.endRepaint();
     }
 
     // drawChargingBolt eliminado - ahora inline en updateTexture() usando cachedBoltPaint
@@ -632,15 +625,15 @@ public class Battery3D implements SceneObject {
 
         updateTexture();
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Blending
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, hudTexture.getTextureId());
         GLES30.glUniform1i(uTextureLoc, 0);
 
         // Uniforms
@@ -657,11 +650,30 @@ public class Battery3D implements SceneObject {
         GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
 
         // Draw
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         // Cleanup
         GLES30.glDisableVertexAttribArray(aPositionLoc);
         GLES30.glDisableVertexAttribArray(aTexCoordLoc);
+
+        // Porcentaje encima del reactor (un draw call, atlas compartido)
+        if (textDirty || percentMesh.needsRebuild()) {
+            rebuildPercentText();
+        }
+        SdfTextRenderer.get().draw(percentMesh, 1.0f);
+    }
+
+    /**
+     * Reescribe los quads del porcentaje (solo cuando cambia el nivel o la posición).
+     */
+    private void rebuildPercentText() {
+        percentText.setLength(0);
+        percentText.append(batteryLevel).append('%');
+
+        percentMesh.clear();
+        percentMesh.add(percentText, x, y, height * TEXT_SIZE_PX / TEX_HEIGHT,
+                TextMesh.ALIGN_CENTER, width, Color.WHITE);
+        textDirty = false;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -672,12 +684,14 @@ public class Battery3D implements SceneObject {
         this.x = x;
         this.y = y;
         setupBuffers();
+        textDirty = true;
     }
 
     public void setSize(float width, float height) {
         this.width = width;
         this.height = height;
         setupBuffers();
+        textDirty = true;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -694,20 +708,14 @@ public class Battery3D implements SceneObject {
     public void dispose() {
         unregisterBatteryReceiver();
 
-        if (textureId != -1) {
-            int[] textures = { textureId };
-            GLES30.glDeleteTextures(1, textures, 0);
-            textureId = -1;
-        }
-
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
         }
 
-        if (bitmap != null) {
-            bitmap.recycle();
-            bitmap = null;
+        if (hudTexture != null) {
+            hudTexture.release();
+            hudTexture = null;
         }
 
         Log.d(TAG, "✓ Battery3D liberado");
@@ -1,29 +1,23 @@
 package com.secret.blackholeglow;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.BlurMaskFilter;
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Typeface;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-import java.nio.ShortBuffer;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
+
 import java.util.Calendar;
 
 /**
- * Clock3D — Glyph Atlas Edition
+ * Clock3D — Shared SDF Atlas Edition
  *
- * Pre-renders all digit/symbol glyphs into ONE texture atlas at init time.
- * Each frame only updates UV coordinates — zero Bitmap allocations, zero GL uploads.
+ * Glyphs come from the app-wide SDF atlas (SdfFont), so the clock owns no
+ * texture. Quads are rebuilt only when the time string changes — zero Bitmap
+ * allocations, zero GL uploads. Glow is computed from the distance field.
  *
- * Characters in atlas: "0123456789:. AMP" (16 glyphs)
  * Max display length: 16 characters (e.g. "12:34:56.789 AM")
  */
 public class Clock3D implements SceneObject {
@@ -55,41 +49,16 @@ public class Clock3D implements SceneObject {
     private static final int COLOR_ZELDA_PRIMARY = 0xFF4CAF50;
     private static final int COLOR_ZELDA_GLOW = 0xFF8BC34A;
 
-    // ═══════════════════════════════════════════════════════════════
-    // ATLAS CONSTANTS
-    // ═══════════════════════════════════════════════════════════════
-    private static final String ATLAS_CHARS = "0123456789:. AMP";
-    private static final int GLYPH_COUNT = ATLAS_CHARS.length(); // 16
     private static final int MAX_DISPLAY_CHARS = 16;
 
-    // ═══════════════════════════════════════════════════════════════
-    // OPENGL
-    // ═══════════════════════════════════════════════════════════════
-    private int programId;
-    private int aPositionLoc;
-    private int aTexCoordLoc;
-    private int uTextureLoc;
-    private int uAlphaLoc;
-    private int uGlowIntensityLoc;
-
-    // Per-glyph quad buffers (pre-allocated, rewritten each frame)
-    private final float[] vertexData = new float[MAX_DISPLAY_CHARS * 8];  // 4 verts * 2 coords
-    private final float[] texCoordData = new float[MAX_DISPLAY_CHARS * 8];
-    private FloatBuffer vertexBuffer;
-    private FloatBuffer texCoordBuffer;
-    private ShortBuffer indexBuffer;
+    // Tamaño del em relativo a textSize (72px ≈ 0.1 NDC, como el atlas anterior)
+    private static final float NDC_PER_TEXT_PX = 0.1f / 72f;
+    private static final float GLOW_WIDTH_EM = 0.12f;
 
     // ═══════════════════════════════════════════════════════════════
-    // ATLAS TEXTURA
+    // TEXTO (atlas SDF compartido)
     // ═══════════════════════════════════════════════════════════════
-    private int atlasTextureId = -1;
-    private boolean atlasNeedsRebuild = true;
-
-    // UV mapping: for each glyph index, store u0 and u1
-    private final float[] glyphU0 = new float[GLYPH_COUNT];
-    private final float[] glyphU1 = new float[GLYPH_COUNT];
-    // Per-glyph normalized width (relative to cell width, for proportional spacing)
-    private final float[] glyphWidthRatio = new float[GLYPH_COUNT];
+    private final TextMesh mesh;
 
     // ═══════════════════════════════════════════════════════════════
     // POSICIÓN Y TAMAÑO (NDC: -1 a 1)
@@ -100,8 +69,6 @@ public class Clock3D implements SceneObject {
     // ═══════════════════════════════════════════════════════════════
     // ESTILO
     // ═══════════════════════════════════════════════════════════════
-    private Paint textPaint;
-    private Paint glowPaint;
     private int primaryColor;
     private int glowColor;
     private float textSize = 72f;
@@ -122,34 +89,6 @@ public class Clock3D implements SceneObject {
     private int prevTimeCharCount = 0;
     private final Calendar calendarInstance = Calendar.getInstance();
 
-    // Display state
-    private int displayCharCount = 0;
-
-    // ═══════════════════════════════════════════════════════════════
-    // SHADERS
-    // ═══════════════════════════════════════════════════════════════
-    private final String vertexShader =
-        "attribute vec2 a_Position;\n" +
-        "attribute vec2 a_TexCoord;\n" +
-        "varying vec2 v_TexCoord;\n" +
-        "void main() {\n" +
-        "    v_TexCoord = a_TexCoord;\n" +
-        "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
-        "}\n";
-
-    private final String fragmentShader =
-        "precision mediump float;\n" +
-        "varying vec2 v_TexCoord;\n" +
-        "uniform sampler2D u_Texture;\n" +
-        "uniform float u_Alpha;\n" +
-        "uniform float u_GlowIntensity;\n" +
-        "void main() {\n" +
-        "    vec4 texColor = texture2D(u_Texture, v_TexCoord);\n" +
-        "    float brightness = 1.0 + (u_GlowIntensity * 0.3);\n" +
-        "    vec3 finalColor = texColor.rgb * brightness;\n" +
-        "    gl_FragColor = vec4(finalColor, texColor.a * u_Alpha);\n" +
-        "}\n";
-
     // ═══════════════════════════════════════════════════════════════
     // CONSTRUCTOR
     // ═══════════════════════════════════════════════════════════════
@@ -161,11 +100,11 @@ public class Clock3D implements SceneObject {
         this.height = 0.2f;
 
         applyTheme(theme);
-        initShader();
-        setupPaints();
-        allocateBuffers();
+        mesh = new TextMesh(SdfFont.get(SdfFont.Face.SANS_LIGHT_BOLD, SdfFont.SizeClass.DISPLAY),
+                MAX_DISPLAY_CHARS);
+        applyGlow();
 
-        Log.d(TAG, "Clock3D created (glyph atlas mode)");
+        Log.d(TAG, "Clock3D created (shared SDF atlas)");
     }
 
     public Clock3D(Context context) {
@@ -212,176 +151,19 @@ public class Clock3D implements SceneObject {
 
     public void setTheme(int theme) {
         applyTheme(theme);
-        if (textPaint != null) textPaint.setColor(primaryColor);
-        if (glowPaint != null) glowPaint.setColor(glowColor);
-        atlasNeedsRebuild = true;
+        applyGlow();
+        positionDirty = true;
     }
 
     public void setColors(int primary, int glow) {
         this.primaryColor = primary;
         this.glowColor = glow;
-        if (textPaint != null) textPaint.setColor(primary);
-        if (glowPaint != null) glowPaint.setColor(glow);
-        atlasNeedsRebuild = true;
-    }
-
-    // ═══════════════════════════════════════════════════════════════
-    // INIT OPENGL
-    // ═══════════════════════════════════════════════════════════════
-
-    private void initShader() {
-        programId = ShaderUtils.createProgram(vertexShader, fragmentShader);
-        if (programId == 0) {
-            Log.e(TAG, "Error creating clock shader");
-            return;
-        }
-        aPositionLoc = GLES30.glGetAttribLocation(programId, "a_Position");
-        aTexCoordLoc = GLES30.glGetAttribLocation(programId, "a_TexCoord");
-        uTextureLoc = GLES30.glGetUniformLocation(programId, "u_Texture");
-        uAlphaLoc = GLES30.glGetUniformLocation(programId, "u_Alpha");
-        uGlowIntensityLoc = GLES30.glGetUniformLocation(programId, "u_GlowIntensity");
-    }
-
-    private void setupPaints() {
-        textPaint = new Paint();
-        textPaint.setColor(primaryColor);
-        textPaint.setTextSize(textSize);
-        textPaint.setAntiAlias(true);
-        textPaint.setTypeface(Typeface.create("sans-serif-light", Typeface.BOLD));
-        textPaint.setTextAlign(Paint.Align.CENTER);
-
-        glowPaint = new Paint();
-        glowPaint.setColor(glowColor);
-        glowPaint.setTextSize(textSize);
-        glowPaint.setAntiAlias(true);
-        glowPaint.setTypeface(Typeface.create("sans-serif-light", Typeface.BOLD));
-        glowPaint.setTextAlign(Paint.Align.CENTER);
-        glowPaint.setMaskFilter(new BlurMaskFilter(15f, BlurMaskFilter.Blur.NORMAL));
-    }
-
-    private void allocateBuffers() {
-        // Vertex buffer: MAX_DISPLAY_CHARS quads * 4 verts * 2 floats
-        ByteBuffer vbb = ByteBuffer.allocateDirect(MAX_DISPLAY_CHARS * 8 * 4);
-        vbb.order(ByteOrder.nativeOrder());
-        vertexBuffer = vbb.asFloatBuffer();
-
-        // TexCoord buffer: same size
-        ByteBuffer tbb = ByteBuffer.allocateDirect(MAX_DISPLAY_CHARS * 8 * 4);
-        tbb.order(ByteOrder.nativeOrder());
-        texCoordBuffer = tbb.asFloatBuffer();
-
-        // Index buffer: MAX_DISPLAY_CHARS quads * 6 indices (two triangles per quad)
-        short[] indices = new short[MAX_DISPLAY_CHARS * 6];
-        for (int i = 0; i < MAX_DISPLAY_CHARS; i++) {
-            int vi = i * 4;
-            int ii = i * 6;
-            indices[ii]     = (short) vi;
-            indices[ii + 1] = (short) (vi + 1);
-            indices[ii + 2] = (short) (vi + 2);
-            indices[ii + 3] = (short) (vi + 2);
-            indices[ii + 4] = (short) (vi + 1);
-            indices[ii + 5] = (short) (vi + 3);
-        }
-        ByteBuffer ibb = ByteBuffer.allocateDirect(indices.length * 2);
-        ibb.order(ByteOrder.nativeOrder());
-        indexBuffer = ibb.asShortBuffer();
-        indexBuffer.put(indices);
-        indexBuffer.position(0);
-    }
-
-    // ═══════════════════════════════════════════════════════════════
-    // GLYPH ATLAS — built once, rebuilt only on theme/size change
-    // ═══════════════════════════════════════════════════════════════
-
-    private void buildAtlas() {
-        int glyphPadding = 20; // padding around each glyph for glow bleed
-
-        // Measure each glyph to find cell dimensions
-        Paint.FontMetrics fm = textPaint.getFontMetrics();
-        float maxGlyphWidth = 0;
-        float[] measuredWidths = new float[GLYPH_COUNT];
-        for (int i = 0; i < GLYPH_COUNT; i++) {
-            char c = ATLAS_CHARS.charAt(i);
-            measuredWidths[i] = textPaint.measureText(String.valueOf(c));
-            if (measuredWidths[i] > maxGlyphWidth) {
-                maxGlyphWidth = measuredWidths[i];
-            }
-        }
-
-        int cellWidth = (int)(maxGlyphWidth + glyphPadding * 2);
-        int cellHeight = (int)((fm.descent - fm.ascent) + glyphPadding * 2);
-
-        // Atlas dimensions (single row)
-        int atlasWidth = nextPowerOfTwo(cellWidth * GLYPH_COUNT);
-        int atlasHeight = nextPowerOfTwo(cellHeight);
-
-        Bitmap atlas = Bitmap.createBitmap(atlasWidth, atlasHeight, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(atlas);
-        canvas.drawColor(Color.TRANSPARENT);
-
-        float textY = glyphPadding - fm.ascent;
-
-        for (int i = 0; i < GLYPH_COUNT; i++) {
-            char c = ATLAS_CHARS.charAt(i);
-            String s = String.valueOf(c);
-
-            float cellX = i * cellWidth;
-            float drawX = cellX + cellWidth / 2f;
-
-            // Draw glow layer
-            canvas.drawText(s, drawX, textY, glowPaint);
-            // Draw sharp text layer
-            canvas.drawText(s, drawX, textY, textPaint);
-
-            // Store UV coordinates (normalized)
-            glyphU0[i] = cellX / (float) atlasWidth;
-            glyphU1[i] = (cellX + cellWidth) / (float) atlasWidth;
-            glyphWidthRatio[i] = measuredWidths[i] / maxGlyphWidth;
-        }
-
-        // Upload to GPU
-        if (atlasTextureId == -1) {
-            int[] textures = new int[1];
-            GLES30.glGenTextures(1, textures, 0);
-            atlasTextureId = textures[0];
-        }
-
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, atlasTextureId);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, atlas, 0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
-
-        atlas.recycle();
-        atlasNeedsRebuild = false;
-        positionDirty = true; // need to recalculate quad positions with new glyph metrics
-
-        Log.d(TAG, "Glyph atlas built: " + atlasWidth + "x" + atlasHeight
-                + " (" + GLYPH_COUNT + " glyphs, cell=" + cellWidth + "x" + cellHeight + ")");
+        applyGlow();
+        positionDirty = true;
     }
 
-    private static int glyphIndex(char c) {
-        switch (c) {
-            case '0': return 0;
-            case '1': return 1;
-            case '2': return 2;
-            case '3': return 3;
-            case '4': return 4;
-            case '5': return 5;
-            case '6': return 6;
-            case '7': return 7;
-            case '8': return 8;
-            case '9': return 9;
-            case ':': return 10;
-            case '.': return 11;
-            case ' ': return 12;
-            case 'A': return 13;
-            case 'M': return 14;
-            case 'P': return 15;
-            default:  return 12; // space for unknown
-        }
+    private void applyGlow() {
+        mesh.setGlow(glowColor, GLOW_WIDTH_EM);
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -447,72 +229,15 @@ public class Clock3D implements SceneObject {
     }
 
     // ═══════════════════════════════════════════════════════════════
-    // QUAD GEOMETRY — rebuild positions + UVs into pre-allocated arrays
+    // QUAD GEOMETRY — rewrite the shared-atlas quads (no allocations)
     // ═══════════════════════════════════════════════════════════════
 
     private void rebuildQuads() {
-        if (timeCharCount == 0) return;
-
-        // Calculate total width of displayed string in NDC
-        // Each glyph gets a proportional slice of the total width
-        float charSlotWidth = width / timeCharCount;
-        float halfH = height / 2f;
-
-        float cursorX = x - width / 2f;
-
-        displayCharCount = timeCharCount;
-
-        for (int i = 0; i < displayCharCount; i++) {
-            int gi = glyphIndex(timeChars[i]);
-
-            float left = cursorX;
-            float right = cursorX + charSlotWidth;
-            float bottom = y - halfH;
-            float top = y + halfH;
-
-            int vi = i * 8;
-            // Bottom-left
-            vertexData[vi]     = left;
-            vertexData[vi + 1] = bottom;
-            // Bottom-right
-            vertexData[vi + 2] = right;
-            vertexData[vi + 3] = bottom;
-            // Top-left
-            vertexData[vi + 4] = left;
-            vertexData[vi + 5] = top;
-            // Top-right
-            vertexData[vi + 6] = right;
-            vertexData[vi + 7] = top;
-
-            // UV coords for this glyph in atlas
-            float u0 = glyphU0[gi];
-            float u1 = glyphU1[gi];
-            int ti = i * 8;
-            // Bottom-left
-            texCoordData[ti]     = u0;
-            texCoordData[ti + 1] = 1.0f;
-            // Bottom-right
-            texCoordData[ti + 2] = u1;
-            texCoordData[ti + 3] = 1.0f;
-            // Top-left
-            texCoordData[ti + 4] = u0;
-            texCoordData[ti + 5] = 0.0f;
-            // Top-right
-            texCoordData[ti + 6] = u1;
-            texCoordData[ti + 7] = 0.0f;
-
-            cursorX += charSlotWidth;
+        mesh.clear();
+        if (timeCharCount > 0) {
+            mesh.add(timeChars, timeCharCount, x, y, textSize * NDC_PER_TEXT_PX,
+                    TextMesh.ALIGN_CENTER, width, primaryColor);
         }
-
-        // Bulk copy to NIO buffers
-        vertexBuffer.position(0);
-        vertexBuffer.put(vertexData, 0, displayCharCount * 8);
-        vertexBuffer.position(0);
-
-        texCoordBuffer.position(0);
-        texCoordBuffer.put(texCoordData, 0, displayCharCount * 8);
-        texCoordBuffer.position(0);
-
         positionDirty = false;
     }
 
@@ -531,8 +256,8 @@ public class Clock3D implements SceneObject {
         }
         glowIntensity = 0.7f + 0.3f * (float) Math.sin(glowPulse);
 
-        // Only rebuild quads if time string changed or position moved
-        if (timeChanged() || positionDirty) {
+        // Only rebuild quads if time string changed, position moved or aspect changed
+        if (timeChanged() || positionDirty || mesh.needsRebuild()) {
             rebuildQuads();
         }
     }
@@ -542,42 +267,13 @@ public class Clock3D implements SceneObject {
 
     @Override
     public void draw() {
-        if (programId == 0 || !visible || displayCharCount == 0) return;
-
-        // Build atlas on first draw (needs GL context)
-        if (atlasNeedsRebuild) {
-            buildAtlas();
-            rebuildQuads();
-        }
-
-        if (atlasTextureId == -1) return;
+        if (!visible) return;
 
-        GLES30.glUseProgram(programId);
+        // Glow pulse: only the glow strength changes per frame
+        mesh.setGlowAlpha(glowIntensity);
+        SdfTextRenderer.get().draw(mesh, 1.0f);
 
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, atlasTextureId);
-        GLES30.glUniform1i(uTextureLoc, 0);
-        GLES30.glUniform1f(uAlphaLoc, 1.0f);
-        GLES30.glUniform1f(uGlowIntensityLoc, glowIntensity);
-
-        GLES30.glEnableVertexAttribArray(aPositionLoc);
-        GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-
-        GLES30.glEnableVertexAttribArray(aTexCoordLoc);
-        GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
-
-        // Draw all character quads in one call
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, displayCharCount * 6,
-                GLES30.GL_UNSIGNED_SHORT, indexBuffer);
-
-        GLES30.glDisableVertexAttribArray(aPositionLoc);
-        GLES30.glDisableVertexAttribArray(aTexCoordLoc);
-
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -602,11 +298,7 @@ public class Clock3D implements SceneObject {
 
     public void setTextSize(float size) {
         this.textSize = size;
-        if (textPaint != null) {
-            textPaint.setTextSize(size);
-            glowPaint.setTextSize(size);
-        }
-        atlasNeedsRebuild = true;
+        positionDirty = true;
     }
 
     public void setPosition(float x, float y) {
@@ -616,27 +308,8 @@ public class Clock3D implements SceneObject {
     }
 
     public void dispose() {
-        if (atlasTextureId != -1) {
-            int[] textures = {atlasTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
-            atlasTextureId = -1;
-        }
-        if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
-            programId = 0;
-        }
+        // Atlas y shader son compartidos (SdfFont / SdfTextRenderer): nada que borrar
+        mesh.release();
         Log.d(TAG, "Clock3D resources released");
     }
-
-    // ═══════════════════════════════════════════════════════════════
-    // UTILITY
-    // ═══════════════════════════════════════════════════════════════
-
-    private static int nextPowerOfTwo(int value) {
-        int result = 1;
-        while (result < value) {
-            result *= 2;
-        }
-        return result;
-    }
 }
@@ -7,6 +7,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.File;
@@ -259,8 +260,8 @@ public class DeLorean3D implements SceneObject, CameraAware {
             return;
         }
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
@@ -348,7 +349,7 @@ public class DeLorean3D implements SceneObject, CameraAware {
     public void draw() {
         if (vertexBuffer == null || indexBuffer == null) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Model matrix con posición, rotación y escala
         Matrix.setIdentityM(modelMatrix, 0);
@@ -372,8 +373,8 @@ public class DeLorean3D implements SceneObject, CameraAware {
         GLES30.glUniform1f(uTimeHandle, time);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vertices
@@ -388,7 +389,7 @@ public class DeLorean3D implements SceneObject, CameraAware {
 
         // Draw
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
@@ -598,13 +599,13 @@ public class DeLorean3D implements SceneObject, CameraAware {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         // 🔧 FIX: Liberar textura
         if (textureId != 0) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = 0;
         }
         // Imprimir valores finales al liberar
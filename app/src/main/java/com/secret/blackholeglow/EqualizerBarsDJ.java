@@ -5,6 +5,7 @@ import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.systems.AspectRatioManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -572,7 +573,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "❌ Error linkeando programa: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             GLES30.glDeleteShader(vertexShader);
             GLES30.glDeleteShader(fragmentShader);
             return;
@@ -1097,11 +1098,11 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
     public void draw() {
         if (!initialized || !enabled) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Matriz ortográfica
         Matrix.orthoM(projectionMatrix, 0,
@@ -1135,7 +1136,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
             drawPeakSparks();
         }
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 
     private void drawBuffers(FloatBuffer vBuffer, FloatBuffer cBuffer) {
@@ -1150,7 +1151,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         for (int i = 0; i < NUM_BARS; i++) {
             // En modo reducido, dibujar solo barras pares (mitad de draw calls)
             if (reducedMode && (i % 2 != 0)) continue;
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, i * 4, 4);
+            GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, i * 4, 4);
         }
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -1448,11 +1449,11 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         if (lightningCount == 0) return;
 
         // Asegurar que el shader y matriz estén activos
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
         GLES30.glUniformMatrix4fv(uMVPMatrixHandle, 1, false, projectionMatrix, 0);
 
         // Usar blending aditivo para que los rayos brillen intensamente
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
 
         // Dibujar cada rayo como una serie de quads conectados (línea delgada)
         float lineThickness = 0.003f;  // Grosor del rayo (más fino)
@@ -1532,7 +1533,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
             GLES30.glVertexAttribPointer(aColorHandle, 4, GLES30.GL_FLOAT, false, 0, lightningColorBuffer);
 
             for (int s = 0; s < LIGHTNING_SEGMENTS; s++) {
-                GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
+                GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
             }
 
             GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -1588,7 +1589,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
             GLES30.glVertexAttribPointer(aColorHandle, 4, GLES30.GL_FLOAT, false, 0, lightningColorBuffer);
 
             for (int s = 0; s < LIGHTNING_SEGMENTS; s++) {
-                GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
+                GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
             }
 
             GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -1596,7 +1597,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         }
 
         // Restaurar blending normal
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     // ════════════════════════════════════════════════════════════════════════
@@ -1615,11 +1616,11 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         if (activeWaves == 0) return;
 
         // Asegurar shader y matriz activos
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
         GLES30.glUniformMatrix4fv(uMVPMatrixHandle, 1, false, projectionMatrix, 0);
 
         // Usar blending aditivo para ondas brillantes
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
 
         // Centro de las ondas (base de las barras)
         float centerX = 0f;
@@ -1702,7 +1703,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
 
             // Dibujar cada segmento como triangle strip
             for (int s = 0; s < numSegments; s++) {
-                GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
+                GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
             }
 
             GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -1710,7 +1711,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         }
 
         // Restaurar blending normal
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     // ════════════════════════════════════════════════════════════════════════
@@ -1725,11 +1726,11 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         if (sparkCount == 0) return;
 
         // Asegurar shader y matriz activos
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
         GLES30.glUniformMatrix4fv(uMVPMatrixHandle, 1, false, projectionMatrix, 0);
 
         // Usar blending aditivo para chispas brillantes
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
 
         float sparkThickness = 0.002f;  // Grosor de la chispa (muy fina)
 
@@ -1839,7 +1840,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
             GLES30.glVertexAttribPointer(aColorHandle, 4, GLES30.GL_FLOAT, false, 0, sparkColorBuffer);
 
             for (int s = 0; s < numSegments; s++) {
-                GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
+                GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, s * 4, 4);
             }
 
             GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -1847,7 +1848,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
         }
 
         // Restaurar blending normal
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     /**
@@ -1856,7 +1857,7 @@ public class EqualizerBarsDJ implements SceneObject, AspectRatioManager.AspectRa
     public void release() {
         // 🧠 FIX MEMORY LEAK: Liberar shader program de GPU
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
 
@@ -4,12 +4,12 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.IOException;
@@ -275,14 +275,14 @@ public class GamingController3D implements SceneObject {
             GLES30.glGenTextures(1, textures, 0);
             textureId = textures[0];
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-            GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
 
             bitmap.recycle();
             Log.d(TAG, "✅ Textura cargada: " + textureId);
@@ -310,7 +310,7 @@ public class GamingController3D implements SceneObject {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Error linking: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -390,7 +390,7 @@ public class GamingController3D implements SceneObject {
     public void draw() {
         if (!visible || !modelLoaded || shaderProgram == 0 || vertexBuffer == null) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Construir matriz de modelo - usar worldX/worldY (computadas desde NDC)
         Matrix.setIdentityM(modelMatrix, 0);
@@ -410,8 +410,8 @@ public class GamingController3D implements SceneObject {
         GLES30.glUniform1f(uGlowHandle, glowIntensity);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vértices
@@ -425,18 +425,18 @@ public class GamingController3D implements SceneObject {
         GLES30.glVertexAttribPointer(aTexCoordHandle, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
 
         // Configurar OpenGL
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDepthFunc(GLES30.GL_LESS);
-        GLES30.glDisable(GLES30.GL_CULL_FACE);  // Ver ambos lados
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().depthFunc(GLES30.GL_LESS);
+        GLStateManager.get().disable(GLES30.GL_CULL_FACE);  // Ver ambos lados
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
-        GLES30.glEnable(GLES30.GL_CULL_FACE);
+        GLStateManager.get().enable(GLES30.GL_CULL_FACE);
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -501,11 +501,11 @@ public class GamingController3D implements SceneObject {
     public void release() {
         if (textureId != 0) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = 0;
         }
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         Log.d(TAG, "🧹 GamingController3D recursos liberados");
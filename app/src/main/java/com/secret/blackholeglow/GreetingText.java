@@ -1,35 +1,28 @@
 package com.secret.blackholeglow;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Typeface;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseUser;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
 import java.util.Calendar;
 
 /**
  * GreetingText - Saludo personalizado que aparece ocasionalmente
  * Muestra "Buenos días/tardes/noches: [nombre de usuario]"
+ * Texto desde el atlas SDF compartido: cambiar el saludo no sube texturas.
  */
 public class GreetingText implements SceneObject {
     private static final String TAG = "GreetingText";
 
     private final Context context;
-    private int programId;
-    private int textureId;
-    private FloatBuffer vertexBuffer;
-    private FloatBuffer texCoordBuffer;
+    private final TextMesh mesh =
+            new TextMesh(SdfFont.get(SdfFont.Face.SANS_BOLD, SdfFont.SizeClass.DISPLAY), 48);
 
     // Estado de visibilidad
     private float alpha = 0f;  // 0 = invisible, 1 = visible
@@ -62,85 +55,11 @@ public class GreetingText implements SceneObject {
 
     public GreetingText(Context context) {
         this.context = context;
-        initShader();
-        setupGeometry();
+        // Cyan brillante con sombra suave para legibilidad (glow negro)
+        mesh.setGlow(Color.BLACK, 0.15f);
         getUserName();
         updateGreetingText();
-        createTextTexture();
-    }
-
-    private void initShader() {
-        String vertexShader =
-            "attribute vec2 a_Position;\n" +
-            "attribute vec2 a_TexCoord;\n" +
-            "varying vec2 v_TexCoord;\n" +
-            "void main() {\n" +
-            "    v_TexCoord = a_TexCoord;\n" +
-            "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
-            "}\n";
-
-        String fragmentShader =
-            "#ifdef GL_ES\n" +
-            "precision mediump float;\n" +
-            "#endif\n" +
-            "varying vec2 v_TexCoord;\n" +
-            "uniform sampler2D u_Texture;\n" +
-            "uniform float u_Alpha;\n" +
-            "void main() {\n" +
-            "    vec4 texColor = texture2D(u_Texture, v_TexCoord);\n" +
-            "    gl_FragColor = vec4(texColor.rgb, texColor.a * u_Alpha);\n" +
-            "}\n";
-
-        int vShader = ShaderUtils.compileShader(GLES30.GL_VERTEX_SHADER, vertexShader);
-        int fShader = ShaderUtils.compileShader(GLES30.GL_FRAGMENT_SHADER, fragmentShader);
-
-        programId = GLES30.glCreateProgram();
-        GLES30.glAttachShader(programId, vShader);
-        GLES30.glAttachShader(programId, fShader);
-        GLES30.glLinkProgram(programId);
-
-        int[] linkStatus = new int[1];
-        GLES30.glGetProgramiv(programId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-        if (linkStatus[0] == 0) {
-            Log.e(TAG, "Shader link failed: " + GLES30.glGetProgramInfoLog(programId));
-        }
-
-        GLES30.glDeleteShader(vShader);
-        GLES30.glDeleteShader(fShader);
-    }
-
-    private void setupGeometry() {
-        // Convertir coordenadas 0-1 a NDC (-1 a 1)
-        float ndcX = x * 2.0f - 1.0f;
-        float ndcY = y * 2.0f - 1.0f;
-        float ndcW = width * 2.0f;
-        float ndcH = height * 2.0f;
-
-        float[] vertices = {
-            ndcX, ndcY,               // Bottom-left
-            ndcX + ndcW, ndcY,        // Bottom-right
-            ndcX, ndcY + ndcH,        // Top-left
-            ndcX + ndcW, ndcY + ndcH  // Top-right
-        };
-
-        float[] texCoords = {
-            0.0f, 1.0f,  // Bottom-left
-            1.0f, 1.0f,  // Bottom-right
-            0.0f, 0.0f,  // Top-left
-            1.0f, 0.0f   // Top-right
-        };
-
-        ByteBuffer vbb = ByteBuffer.allocateDirect(vertices.length * 4);
-        vbb.order(ByteOrder.nativeOrder());
-        vertexBuffer = vbb.asFloatBuffer();
-        vertexBuffer.put(vertices);
-        vertexBuffer.position(0);
-
-        ByteBuffer tbb = ByteBuffer.allocateDirect(texCoords.length * 4);
-        tbb.order(ByteOrder.nativeOrder());
-        texCoordBuffer = tbb.asFloatBuffer();
-        texCoordBuffer.put(texCoords);
-        texCoordBuffer.position(0);
+        rebuildText();
     }
 
     private void getUserName() {
@@ -166,58 +85,25 @@ public class GreetingText implements SceneObject {
             emoji = "🌙";
         }
 
-        // Formato más elegante con emojis
+        // Los emojis no están en el atlas: TextMesh dibuja esta línea con Canvas
         greetingText = emoji + " " + greeting + ", " + userName + " " + emoji;
         Log.d(TAG, "👋 Saludo: " + greetingText);
     }
 
-    private void createTextTexture() {
-        // Crear bitmap con el texto
-        int textureWidth = 1024;
-        int textureHeight = 256;
-
-        Bitmap bitmap = Bitmap.createBitmap(textureWidth, textureHeight, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-
-        // Fondo transparente
-        canvas.drawColor(Color.TRANSPARENT);
-
-        // Configurar paint para el texto
-        Paint paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setTextSize(64);  // Tamaño más pequeño para que quepa mejor
-        paint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        paint.setTextAlign(Paint.Align.CENTER);  // Centrar texto
-
-        // Sombra suave para legibilidad
-        paint.setShadowLayer(12f, 2f, 2f, Color.BLACK);
-
-        // Color cyan brillante (más moderno que dorado)
-        paint.setColor(Color.rgb(0, 230, 255));  // Cyan brillante
-
-        // Centrar texto verticalmente
-        Paint.FontMetrics fm = paint.getFontMetrics();
-        float y = (textureHeight / 2f) - ((fm.descent + fm.ascent) / 2f);
-
-        // Dibujar texto centrado
-        canvas.drawText(greetingText, textureWidth / 2f, y, paint);
-
-        // Crear textura OpenGL
-        int[] textures = new int[1];
-        GLES30.glGenTextures(1, textures, 0);
-        textureId = textures[0];
-
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-
-        bitmap.recycle();
+    /**
+     * Reescribe los quads del saludo (mismo rectángulo que la textura anterior).
+     */
+    private void rebuildText() {
+        // Coordenadas 0-1 → NDC
+        float ndcX = x * 2.0f - 1.0f;
+        float ndcY = y * 2.0f - 1.0f;
+        float ndcW = width * 2.0f;
+        float ndcH = height * 2.0f;
 
-        Log.d(TAG, "✓ Textura de saludo creada");
+        // 64px de fuente en una textura de 256px de alto
+        mesh.clear();
+        mesh.add(greetingText, ndcX + ndcW / 2f, ndcY + ndcH / 2f, ndcH * 0.25f,
+                TextMesh.ALIGN_CENTER, ndcW, Color.rgb(0, 230, 255));
     }
 
     @Override
@@ -231,7 +117,7 @@ public class GreetingText implements SceneObject {
                     displayTimer = 0f;
                     currentState = State.FADING_IN;
                     updateGreetingText();  // Actualizar saludo según hora actual
-                    createTextTexture();   // Recrear textura con nuevo texto
+                    rebuildText();         // Solo vértices, sin textura nueva
                 }
                 break;
 
@@ -269,40 +155,11 @@ public class GreetingText implements SceneObject {
     public void draw() {
         if (alpha <= 0.001f) return;  // No dibujar si invisible
 
-        GLES30.glUseProgram(programId);
-
-        // Desactivar depth test para UI
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-
-        // Bind texture
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-
-        // Set uniforms
-        int uTextureLoc = GLES30.glGetUniformLocation(programId, "u_Texture");
-        int uAlphaLoc = GLES30.glGetUniformLocation(programId, "u_Alpha");
-        GLES30.glUniform1i(uTextureLoc, 0);
-        GLES30.glUniform1f(uAlphaLoc, alpha);
-
-        // Set attributes
-        int aPosLoc = GLES30.glGetAttribLocation(programId, "a_Position");
-        int aTexLoc = GLES30.glGetAttribLocation(programId, "a_TexCoord");
-
-        GLES30.glEnableVertexAttribArray(aPosLoc);
-        GLES30.glVertexAttribPointer(aPosLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-
-        GLES30.glEnableVertexAttribArray(aTexLoc);
-        GLES30.glVertexAttribPointer(aTexLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
-
-        // Draw
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-
-        // Cleanup
-        GLES30.glDisableVertexAttribArray(aPosLoc);
-        GLES30.glDisableVertexAttribArray(aTexLoc);
+        if (mesh.needsRebuild()) {
+            rebuildText();
+        }
+        SdfTextRenderer.get().draw(mesh, alpha);
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 }
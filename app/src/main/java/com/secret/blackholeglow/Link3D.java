@@ -4,10 +4,10 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
@@ -256,7 +256,7 @@ public class Link3D implements SceneObject {
         GLES30.glGenTextures(1, textureIds, 0);
         textureId = textureIds[0];
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
 
         // Configurar filtrado
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
@@ -264,8 +264,8 @@ public class Link3D implements SceneObject {
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
 
         bitmap.recycle();
 
@@ -336,7 +336,7 @@ public class Link3D implements SceneObject {
         }
 
         // Usar shader
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Construir model matrix
         Matrix.setIdentityM(modelMatrix, 0);
@@ -351,8 +351,8 @@ public class Link3D implements SceneObject {
         GLES30.glUniformMatrix4fv(uMVPMatrixHandle, 1, false, mvpMatrix, 0);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vertices
@@ -364,7 +364,7 @@ public class Link3D implements SceneObject {
         GLES30.glVertexAttribPointer(aTexCoordHandle, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
 
         // Dibujar
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         // Limpiar
         GLES30.glDisableVertexAttribArray(aPositionHandle);
@@ -511,11 +511,11 @@ public class Link3D implements SceneObject {
 
     public void dispose() {
         if (textureId > 0) {
-            GLES30.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             textureId = -1;
         }
         if (shaderProgram > 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = -1;
         }
         modelLoaded = false;
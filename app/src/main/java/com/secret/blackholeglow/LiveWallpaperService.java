@@ -2,7 +2,6 @@
 package com.secret.blackholeglow;
 
 import android.content.BroadcastReceiver;
-import android.content.ComponentCallbacks2;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.Build;
@@ -16,6 +15,7 @@ import android.content.Context;
 import android.opengl.GLSurfaceView;
 
 
+import com.secret.blackholeglow.diagnostic.TraceRecorder;
 import com.secret.blackholeglow.core.WallpaperDirector;
 // 🔧 FIX ANR: Sistemas de monetización REMOVIDOS del WallpaperService
 // Se inicializan en MainActivity donde realmente se necesitan
@@ -34,9 +34,6 @@ import com.secret.blackholeglow.core.WallpaperDirector;
 public class LiveWallpaperService extends WallpaperService {
     private static final String TAG = "LiveWallpaperService";
 
-    // Referencia al engine activo para delegar onTrimMemory
-    private GLWallpaperEngine activeEngine;
-
     // ═══════════════════════════════════════════════════════════════
     // 🔒 ESTADO ATÓMICO - Previene condiciones de carrera
     // ═══════════════════════════════════════════════════════════════
@@ -49,32 +46,14 @@ public class LiveWallpaperService extends WallpaperService {
     @Override
     public Engine onCreateEngine() {
         Log.d(TAG, "onCreateEngine llamado");
-        activeEngine = new GLWallpaperEngine(this);
-        return activeEngine;
-    }
-
-    /**
-     * 🧠 onTrimMemory - Android nos pide liberar memoria
-     *
-     * Niveles relevantes:
-     * - TRIM_MEMORY_RUNNING_MODERATE (5): Sistema bajo de memoria
-     * - TRIM_MEMORY_RUNNING_CRITICAL (15): Siguiente paso es OOM kill
-     * - TRIM_MEMORY_UI_HIDDEN (20): UI oculta
-     * - TRIM_MEMORY_MODERATE (60): Proceso en background
-     * - TRIM_MEMORY_COMPLETE (80): Proceso será killeado pronto
-     */
-    @Override
-    public void onTrimMemory(int level) {
-        super.onTrimMemory(level);
-
-        // 🔧 FIX: Was TRIM_MEMORY_MODERATE (60), which blocked WallpaperDirector's
-        // level 5/10/15 handlers from ever executing. Changed to RUNNING_MODERATE (5)
-        // so progressive memory release works as designed.
-        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
-            Log.w(TAG, "⚠️ onTrimMemory level=" + level + " - delegando a Engine");
-            if (activeEngine != null) {
-                activeEngine.handleTrimMemory(level);
-            }
+        TraceRecorder.beginStartup(this);
+        TraceRecorder.begin("onCreateEngine");
+        try {
+            // 🧠 La presión de memoria (onTrimMemory) la atiende solo el MemoryGovernor,
+            // registrado en el contexto de la app por WallpaperDirector
+            return new GLWallpaperEngine(this);
+        } finally {
+            TraceRecorder.end();
         }
     }
 
@@ -237,6 +216,7 @@ public class LiveWallpaperService extends WallpaperService {
         }
 
         private void initializeGL() {
+            TraceRecorder.begin("initializeGL");
             try {
                 String nombreWallpaper = wallpaperPrefs.getSelectedWallpaperSync();
                 Log.d(TAG, "🎬 Escena seleccionada: " + nombreWallpaper);
@@ -274,6 +254,8 @@ public class LiveWallpaperService extends WallpaperService {
 
             } catch (Exception e) {
                 Log.e(TAG, "Error inicializando renderer", e);
+            } finally {
+                TraceRecorder.end();
             }
         }
 
@@ -422,30 +404,35 @@ public class LiveWallpaperService extends WallpaperService {
         public void onSurfaceCreated(SurfaceHolder holder) {
             super.onSurfaceCreated(holder);
             Log.d(TAG, "📐 Surface CREATED");
-
-            // 🎬 Detectar si es preview del sistema AHORA (seguro de llamar después de attach)
+            TraceRecorder.mark("surface_created");
+            TraceRecorder.begin("Engine.onSurfaceCreated");
             try {
-                boolean isSystemPreview = isPreview();
-                Log.d(TAG, "🎬 isPreview() = " + isSystemPreview);
-
-                if (isSystemPreview && wallpaperDirector != null) {
-                    Log.d(TAG, "🎬 MODO PREVIEW DEL SISTEMA - Activando wallpaper directo");
-                    wallpaperDirector.setPreviewMode(true);
-                    isSystemPreviewMode = true;
-                    // 🔧 FIX GL FREEZE: Ya es CONTINUOUSLY permanente, solo asegurar estado
-                    synchronized (stateLock) {
-                        currentState = RenderState.RUNNING;
+                // 🎬 Detectar si es preview del sistema AHORA (seguro de llamar después de attach)
+                try {
+                    boolean isSystemPreview = isPreview();
+                    Log.d(TAG, "🎬 isPreview() = " + isSystemPreview);
+
+                    if (isSystemPreview && wallpaperDirector != null) {
+                        Log.d(TAG, "🎬 MODO PREVIEW DEL SISTEMA - Activando wallpaper directo");
+                        wallpaperDirector.setPreviewMode(true);
+                        isSystemPreviewMode = true;
+                        // 🔧 FIX GL FREEZE: Ya es CONTINUOUSLY permanente, solo asegurar estado
+                        synchronized (stateLock) {
+                            currentState = RenderState.RUNNING;
+                        }
                     }
+                } catch (Exception e) {
+                    Log.w(TAG, "No se pudo determinar isPreview: " + e.getMessage());
                 }
-            } catch (Exception e) {
-                Log.w(TAG, "No se pudo determinar isPreview: " + e.getMessage());
-            }
 
-            synchronized (stateLock) {
-                surfaceExists = true;
-                if (glSurfaceView != null) {
-                    glSurfaceView.surfaceCreated(holder);
+                synchronized (stateLock) {
+                    surfaceExists = true;
+                    if (glSurfaceView != null) {
+                        glSurfaceView.surfaceCreated(holder);
+                    }
                 }
+            } finally {
+                TraceRecorder.end();
             }
         }
 
@@ -483,17 +470,6 @@ public class LiveWallpaperService extends WallpaperService {
             super.onSurfaceDestroyed(holder);
         }
 
-        // ═══════════════════════════════════════════════════════════════
-        // 🧠 MEMORY PRESSURE - Delegado desde el Service
-        // ═══════════════════════════════════════════════════════════════
-
-        void handleTrimMemory(int level) {
-            Log.w(TAG, "🧠 Engine handleTrimMemory level=" + level);
-            if (wallpaperDirector != null) {
-                wallpaperDirector.onTrimMemory(level);
-            }
-        }
-
         // ═══════════════════════════════════════════════════════════════
         // 🧹 CLEANUP
         // ═══════════════════════════════════════════════════════════════
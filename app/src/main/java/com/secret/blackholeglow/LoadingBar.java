@@ -4,11 +4,9 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
-import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Typeface;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import java.nio.ByteBuffer;
@@ -16,6 +14,8 @@ import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
 
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.gl3.DirtyRectTexture;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 /**
  * ╔═══════════════════════════════════════════════════════════════════╗
@@ -79,9 +79,7 @@ public class LoadingBar implements SceneObject {
     // TEXTO "Loading..." animado
     // ═══════════════════════════════════════════════════════════════════════════
     private int textShaderProgram = 0;
-    private int textTextureId = 0;
-    private Bitmap textBitmap;
-    private Canvas textCanvas;
+    private DirtyRectTexture textTexture;   // Storage fijo + sub-updates por línea
     private Paint titlePaint;       // Nombre del wallpaper (grande)
     private Paint titleGlowPaint;    // Glow del titulo
     private Paint textPaint;         // "Cargando..." (mediano)
@@ -99,6 +97,12 @@ public class LoadingBar implements SceneObject {
 
     private static final int TEXT_TEX_WIDTH = 512;   // Mas ancho para nombres largos
     private static final int TEXT_TEX_HEIGHT = 140;  // 3 lineas: nombre + cargando + motivacional
+    // Franjas verticales de cada línea (incluyen el blur del glow)
+    private static final int TITLE_BAND_TOP = 0, TITLE_BAND_BOTTOM = 70;
+    private static final int STATUS_BAND_TOP = 50, STATUS_BAND_BOTTOM = 102;
+    private static final int PERCENT_BAND_TOP = 100, PERCENT_BAND_BOTTOM = 140;
+    // Con progreso muy rápido se acumulan cambios y se sube como mucho cada 100ms
+    private static final long TEXT_UPLOAD_INTERVAL_MS = 100;
     private int currentDots = 0;           // 0, 1, 2, 3 para "Loading", "Loading.", "Loading..", "Loading..."
     private float dotAnimTimer = 0f;
     private static final float DOT_ANIM_SPEED = 0.4f;  // segundos por punto
@@ -225,7 +229,7 @@ public class LoadingBar implements SceneObject {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Error linkeando programa: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -251,9 +255,8 @@ public class LoadingBar implements SceneObject {
     }
 
     private void initTextOpenGL() {
-        // Crear bitmap y canvas para el texto
-        textBitmap = Bitmap.createBitmap(TEXT_TEX_WIDTH, TEXT_TEX_HEIGHT, Bitmap.Config.ARGB_8888);
-        textCanvas = new Canvas(textBitmap);
+        // Textura de texto: se pinta con Canvas y se suben solo las líneas que cambian
+        textTexture = new DirtyRectTexture(TAG, TEXT_TEX_WIDTH, TEXT_TEX_HEIGHT, TEXT_UPLOAD_INTERVAL_MS);
 
         // === TITULO: Nombre del wallpaper (grande, bold) ===
         titlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
@@ -308,21 +311,11 @@ public class LoadingBar implements SceneObject {
         bb.order(ByteOrder.nativeOrder());
         textVertexBuffer = bb.asFloatBuffer();
 
-        // Crear textura
-        int[] textures = new int[1];
-        GLES30.glGenTextures(1, textures, 0);
-        textTextureId = textures[0];
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textTextureId);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-
         // Eliminar shaders
         GLES30.glDeleteShader(vs);
         GLES30.glDeleteShader(fs);
 
-        // Renderizar texto inicial
+        // Renderizar texto inicial (storage + subida completa)
         updateTextTexture();
 
         Log.d(TAG, "✓ LoadingBar texto inicializado");
@@ -428,19 +421,19 @@ public class LoadingBar implements SceneObject {
             GLES30.glGenTextures(1, textures, 0);
             bgTextureId = textures[0];
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
 
             // 🛡️ Verificar que la textura se subió correctamente a GPU
             int glError = GLES30.glGetError();
             if (glError != GLES30.GL_NO_ERROR) {
                 Log.e(TAG, "❌ Error GPU cargando textura de fondo: 0x" + Integer.toHexString(glError));
-                GLES30.glDeleteTextures(1, textures, 0);
+                GLStateManager.get().deleteTextures(1, textures, 0);
                 bgTextureId = 0;
             } else {
                 Log.d(TAG, "✅ Fondo cargado: textureId=" + bgTextureId);
@@ -465,7 +458,7 @@ public class LoadingBar implements SceneObject {
     private void drawBackground() {
         if (!backgroundLoaded || bgShaderProgram == 0 || bgTextureId == 0) return;
 
-        GLES30.glUseProgram(bgShaderProgram);
+        GLStateManager.get().useProgram(bgShaderProgram);
 
         // 🎨 Pixelación: progreso 0% → 40px (muy pixelado), 100% → 1px (nítido)
         // Curva cuadrática para que se aclare más rápido al final
@@ -481,8 +474,8 @@ public class LoadingBar implements SceneObject {
         GLES30.glUniform1f(bgUPixelSizeLoc, pixelSize);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
         GLES30.glUniform1i(bgUTextureLoc, 0);
 
         // Vertex attributes
@@ -495,19 +488,37 @@ public class LoadingBar implements SceneObject {
         GLES30.glVertexAttribPointer(bgATexCoordLoc, 2, GLES30.GL_FLOAT, false, 16, bgVertexBuffer);
 
         // Dibujar fullscreen quad
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(bgAPositionLoc);
         GLES30.glDisableVertexAttribArray(bgATexCoordLoc);
     }
 
     /**
-     * Actualiza la textura del texto con nombre del wallpaper y "Cargando..."
+     * Marca todo el texto como sucio (tema nuevo / primera vez)
      */
     private void updateTextTexture() {
-        if (textBitmap == null || textCanvas == null) return;
+        if (textTexture != null) textTexture.invalidateAll();
+    }
+
+    /**
+     * Marca solo las líneas de estado y porcentaje (puntos, recurso, progreso)
+     */
+    private void invalidateStatusText() {
+        if (textTexture == null) return;
+        textTexture.invalidate(0, STATUS_BAND_TOP, TEXT_TEX_WIDTH, STATUS_BAND_BOTTOM);
+        textTexture.invalidate(0, PERCENT_BAND_TOP, TEXT_TEX_WIDTH, PERCENT_BAND_BOTTOM);
+    }
 
-        textBitmap.eraseColor(Color.TRANSPARENT);
+    /**
+     * Repinta la región sucia acumulada y la sube (una vez por frame como máximo,
+     * respetando el throttle). El Canvas llega recortado: se pintan las 3 líneas
+     * y solo la parte sucia cambia.
+     */
+    private void refreshTextTexture() {
+        if (textTexture == null || !textTexture.shouldRepaint()) return;
+
+        Canvas textCanvas = textTexture.beginRepaint();
 
         // Construir puntos animados
         StringBuilder dots = new StringBuilder();
@@ -555,9 +566,8 @@ public class LoadingBar implements SceneObject {
             textCanvas.drawText(motivational, centerX, line3Y, reassuringPaint);
         }
 
-        // Subir textura a GPU
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textTextureId);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, textBitmap, 0);
+        // Subir solo la región sucia
+        textTexture.endRepaint();
     }
 
     private int compileShader(int type, String source) {
@@ -600,7 +610,7 @@ public class LoadingBar implements SceneObject {
             if (dotAnimTimer >= DOT_ANIM_SPEED) {
                 dotAnimTimer = 0f;
                 currentDots = (currentDots + 1) % 4;  // 0, 1, 2, 3, 0, 1, 2, 3...
-                updateTextTexture();  // Actualiza puntos y porcentaje
+                invalidateStatusText();  // Actualiza puntos y porcentaje
             }
         }
 
@@ -651,16 +661,17 @@ public class LoadingBar implements SceneObject {
         GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
 
         // Dibujar
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
     }
 
     /**
      * Dibuja el texto "Loading..." encima de la barra de progreso
      */
     private void drawText() {
-        if (textShaderProgram == 0 || textTextureId == 0) return;
+        refreshTextTexture();
+        if (textShaderProgram == 0 || textTexture == null || textTexture.getTextureId() == 0) return;
 
-        GLES30.glUseProgram(textShaderProgram);
+        GLStateManager.get().useProgram(textShaderProgram);
 
         // Posición del texto (encima de la barra)
         float textY = barY + 0.06f;   // Un poco arriba de la barra
@@ -685,8 +696,8 @@ public class LoadingBar implements SceneObject {
         textVertexBuffer.position(0);
 
         // Activar textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textTexture.getTextureId());
         GLES30.glUniform1i(textUTextureLoc, 0);
         GLES30.glUniform1f(textUAlphaLoc, alpha);
 
@@ -700,7 +711,7 @@ public class LoadingBar implements SceneObject {
         GLES30.glVertexAttribPointer(textATexCoordLoc, 2, GLES30.GL_FLOAT, false, 16, textVertexBuffer);
 
         // Dibujar
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(textAPositionLoc);
         GLES30.glDisableVertexAttribArray(textATexCoordLoc);
@@ -791,7 +802,7 @@ public class LoadingBar implements SceneObject {
         dotAnimTimer = 0f;
         currentDots = 0;
         currentResourceName = null;
-        updateTextTexture();
+        invalidateStatusText();
     }
 
     /**
@@ -811,7 +822,7 @@ public class LoadingBar implements SceneObject {
      */
     public void setResourceName(String name) {
         this.currentResourceName = name;
-        updateTextTexture();
+        invalidateStatusText();
     }
 
     /**
@@ -854,30 +865,25 @@ public class LoadingBar implements SceneObject {
      */
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (textShaderProgram != 0) {
-            GLES30.glDeleteProgram(textShaderProgram);
+            GLStateManager.get().deleteProgram(textShaderProgram);
             textShaderProgram = 0;
         }
-        if (textTextureId != 0) {
-            int[] textures = {textTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
-            textTextureId = 0;
-        }
-        if (textBitmap != null) {
-            textBitmap.recycle();
-            textBitmap = null;
+        if (textTexture != null) {
+            textTexture.release();
+            textTexture = null;
         }
         // 🖼️ Liberar recursos del fondo
         if (bgShaderProgram != 0) {
-            GLES30.glDeleteProgram(bgShaderProgram);
+            GLStateManager.get().deleteProgram(bgShaderProgram);
             bgShaderProgram = 0;
         }
         if (bgTextureId != 0) {
             int[] textures = {bgTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             bgTextureId = 0;
         }
         backgroundLoaded = false;
@@ -4,6 +4,8 @@ import android.content.Context;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -245,12 +247,12 @@ public class MusicStars implements SceneObject {
     public void draw() {
         if (programId == 0) return;
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Estados OpenGL
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
 
         // Tiempo global
         GLES30.glUniform1f(uTimeLoc, time);
@@ -276,14 +278,14 @@ public class MusicStars implements SceneObject {
             GLES30.glVertexAttribPointer(aColorLoc, 4, GLES30.GL_FLOAT, false, 0, colorBuffer);
 
             // Dibujar
-            GLES30.glDrawArrays(GLES30.GL_POINTS, 0, 1);
+            GLStateManager.get().drawArrays(GLES30.GL_POINTS, 0, 1);
         }
 
         GLES30.glDisableVertexAttribArray(aPositionLoc);
         GLES30.glDisableVertexAttribArray(aColorLoc);
 
         // Restaurar estados
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 }
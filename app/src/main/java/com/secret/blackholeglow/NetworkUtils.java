@@ -71,6 +71,23 @@ public class NetworkUtils {
         }
     }
 
+    /**
+     * 💸 Verifica si la red activa es medida (datos móviles, hotspot, etc.)
+     * Usado por el prefetch especulativo para no gastar datos del usuario.
+     *
+     * @return true si es medida o no se puede determinar (conservador)
+     */
+    public static boolean isMeteredNetwork(Context context) {
+        if (context == null) return true;
+        try {
+            ConnectivityManager cm =
+                (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+            return cm == null || cm.isActiveNetworkMetered();
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
     /**
      * 📊 Obtiene el tipo de red actual (para debug)
      */
@@ -3,6 +3,8 @@ package com.secret.blackholeglow;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -297,7 +299,7 @@ public class PlayPauseButton implements SceneObject {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Error linking: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -361,9 +363,9 @@ public class PlayPauseButton implements SceneObject {
         if (!isVisible || !shadersCompiled || shaderProgram == 0) return;
         if (fadeAlpha <= 0.01f) return;
 
-        GLES30.glUseProgram(shaderProgram);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().useProgram(shaderProgram);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         vertexBuffer.position(0);
         GLES30.glEnableVertexAttribArray(aPositionLoc);
@@ -377,11 +379,11 @@ public class PlayPauseButton implements SceneObject {
         GLES30.glUniform1f(uAspectLoc, aspectRatio);
         GLES30.glUniform1f(uAlphaLoc, fadeAlpha);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         // Limpiar estado GL
         GLES30.glDisableVertexAttribArray(aPositionLoc);
-        GLES30.glUseProgram(0);
+        GLStateManager.get().useProgram(0);
     }
 
     public boolean isInside(float touchX, float touchY) {
@@ -4,9 +4,10 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -82,7 +83,7 @@ public class ShaderUtils {
         GLES30.glGetProgramiv(prog, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Error linking program: " + GLES30.glGetProgramInfoLog(prog));
-            GLES30.glDeleteProgram(prog);
+            GLStateManager.get().deleteProgram(prog);
             return 0;
         }
 
@@ -151,7 +152,7 @@ public class ShaderUtils {
         );
         if (bmp == null) {
             // 🔧 FIX: Limpiar texture ID antes de lanzar excepción
-            GLES30.glDeleteTextures(1, handle, 0);
+            GLStateManager.get().deleteTextures(1, handle, 0);
             Log.e(TAG, "No se pudo decodificar recurso: " + resourceId);
             throw new RuntimeException(
                     "No se pudo decodificar recurso: " + resourceId);
@@ -171,12 +172,12 @@ public class ShaderUtils {
         }
 
         // Bind y subir a GPU
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, handle[0]);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bmp, 0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, handle[0]);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bmp, 0);
         bmp.recycle();
 
         // Generar mipmaps
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
 
         // Filtros: LINEAR con mipmaps
         GLES30.glTexParameteri(
@@ -1,41 +1,31 @@
 package com.secret.blackholeglow;
 
 import android.content.Context;
-import android.graphics.Bitmap;
-import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.Typeface;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
 
 /**
  * 📊 RENDERIZADOR DE TEXTO SIMPLE PARA OpenGL
  *
- * Dibuja texto usando un bitmap generado dinámicamente
+ * Dibuja texto desde el atlas SDF compartido (SdfFont):
+ * cambiar el texto solo reescribe vértices, sin Bitmap ni texImage2D.
  * Perfecto para mostrar estadísticas y contadores
  */
 public class SimpleTextRenderer implements SceneObject {
     private static final String TAG = "depurar";
 
-    // OpenGL
-    private int programId;
-    private int aPositionLoc;
-    private int aTexCoordLoc;
-    private int uTextureLoc;
-    private int uAlphaLoc;
+    private static final int MAX_GLYPHS = 64;
+    // El texto ocupaba ~65% del alto del bitmap (28px + márgenes)
+    private static final float TEXT_HEIGHT_RATIO = 0.65f;
 
-    // Geometría
-    private FloatBuffer vertexBuffer;
-    private FloatBuffer texCoordBuffer;
-
-    // Textura del texto
-    private int textureId = -1;
+    // Malla de texto (atlas y shader compartidos)
+    private final TextMesh mesh;
     private String currentText = "";
     private boolean needsUpdate = true;
 
@@ -43,29 +33,7 @@ public class SimpleTextRenderer implements SceneObject {
     private float x, y, width, height;
 
     // Estilo del texto
-    private Paint textPaint;
     private int textColor = Color.WHITE;
-    private float textSize = 28f;  // Tamaño más pequeño para UI compacta
-
-    // Shader simple
-    private final String vertexShader =
-        "attribute vec2 a_Position;\n" +
-        "attribute vec2 a_TexCoord;\n" +
-        "varying vec2 v_TexCoord;\n" +
-        "void main() {\n" +
-        "    v_TexCoord = a_TexCoord;\n" +
-        "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
-        "}\n";
-
-    private final String fragmentShader =
-        "precision mediump float;\n" +
-        "varying vec2 v_TexCoord;\n" +
-        "uniform sampler2D u_Texture;\n" +
-        "uniform float u_Alpha;\n" +
-        "void main() {\n" +
-        "    vec4 texColor = texture2D(u_Texture, v_TexCoord);\n" +
-        "    gl_FragColor = vec4(texColor.rgb, texColor.a * u_Alpha);\n" +
-        "}\n";
 
     /**
      * Constructor
@@ -80,68 +48,11 @@ public class SimpleTextRenderer implements SceneObject {
         this.width = width;
         this.height = height;
 
-        initShader();
-        setupBuffers();
-        setupPaint();
+        mesh = new TextMesh(SdfFont.get(SdfFont.Face.SANS_BOLD, SdfFont.SizeClass.UI), MAX_GLYPHS);
 
         Log.d(TAG, "✓ SimpleTextRenderer creado - pos: (" + x + ", " + y + ")");
     }
 
-    private void initShader() {
-        programId = ShaderUtils.createProgram(vertexShader, fragmentShader);
-
-        if (programId == 0) {
-            Log.e(TAG, "✗ Error creando shader de texto");
-            return;
-        }
-
-        aPositionLoc = GLES30.glGetAttribLocation(programId, "a_Position");
-        aTexCoordLoc = GLES30.glGetAttribLocation(programId, "a_TexCoord");
-        uTextureLoc = GLES30.glGetUniformLocation(programId, "u_Texture");
-        uAlphaLoc = GLES30.glGetUniformLocation(programId, "u_Alpha");
-
-        Log.d(TAG, "✓ Shader de texto inicializado - programId: " + programId);
-    }
-
-    private void setupBuffers() {
-        // Vértices del quad (rectángulo)
-        float[] vertices = {
-            x,         y,          // Bottom-left
-            x + width, y,          // Bottom-right
-            x,         y + height, // Top-left
-            x + width, y + height  // Top-right
-        };
-
-        ByteBuffer vbb = ByteBuffer.allocateDirect(vertices.length * 4);
-        vbb.order(ByteOrder.nativeOrder());
-        vertexBuffer = vbb.asFloatBuffer();
-        vertexBuffer.put(vertices);
-        vertexBuffer.position(0);
-
-        // Coordenadas de textura (UV)
-        float[] texCoords = {
-            0.0f, 1.0f,  // Bottom-left
-            1.0f, 1.0f,  // Bottom-right
-            0.0f, 0.0f,  // Top-left
-            1.0f, 0.0f   // Top-right
-        };
-
-        ByteBuffer tbb = ByteBuffer.allocateDirect(texCoords.length * 4);
-        tbb.order(ByteOrder.nativeOrder());
-        texCoordBuffer = tbb.asFloatBuffer();
-        texCoordBuffer.put(texCoords);
-        texCoordBuffer.position(0);
-    }
-
-    private void setupPaint() {
-        textPaint = new Paint();
-        textPaint.setColor(textColor);
-        textPaint.setTextSize(textSize);
-        textPaint.setAntiAlias(true);
-        textPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        textPaint.setTextAlign(Paint.Align.CENTER);
-    }
-
     /**
      * Actualiza el texto a mostrar
      */
@@ -157,56 +68,19 @@ public class SimpleTextRenderer implements SceneObject {
      */
     public void setColor(int color) {
         this.textColor = color;
-        textPaint.setColor(color);
         needsUpdate = true;
     }
 
     /**
-     * Genera la textura del texto desde un Bitmap
+     * Reescribe los quads del texto centrado en el rectángulo
      */
-    private void updateTexture() {
-        if (currentText.isEmpty()) {
-            return;
+    private void updateMesh() {
+        mesh.clear();
+        if (!currentText.isEmpty()) {
+            mesh.add(currentText, x + width / 2f, y + height / 2f, height * TEXT_HEIGHT_RATIO,
+                    TextMesh.ALIGN_CENTER, width, textColor);
         }
-
-        // Medir el texto
-        Paint.FontMetrics fm = textPaint.getFontMetrics();
-        float textWidth = textPaint.measureText(currentText);
-        float textHeight = fm.descent - fm.ascent;
-
-        // Crear bitmap con el texto
-        int bitmapWidth = (int)(textWidth + 20);
-        int bitmapHeight = (int)(textHeight + 10);
-
-        Bitmap bitmap = Bitmap.createBitmap(bitmapWidth, bitmapHeight, Bitmap.Config.ARGB_8888);
-        Canvas canvas = new Canvas(bitmap);
-        canvas.drawColor(Color.TRANSPARENT);
-
-        // Dibujar el texto centrado
-        float textX = bitmapWidth / 2f;
-        float textY = bitmapHeight / 2f - (fm.ascent + fm.descent) / 2f;
-        canvas.drawText(currentText, textX, textY, textPaint);
-
-        // Crear/actualizar textura OpenGL
-        if (textureId == -1) {
-            int[] textures = new int[1];
-            GLES30.glGenTextures(1, textures, 0);
-            textureId = textures[0];
-        }
-
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-
-        bitmap.recycle();
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
-
         needsUpdate = false;
-        Log.d(TAG, "✓ Textura de texto actualizada: \"" + currentText + "\"");
     }
 
     @Override
@@ -216,47 +90,18 @@ public class SimpleTextRenderer implements SceneObject {
 
     @Override
     public void draw() {
-        if (programId == 0 || currentText.isEmpty()) {
+        if (currentText.isEmpty()) {
             return;
         }
 
-        // Actualizar textura si es necesario
-        if (needsUpdate) {
-            updateTexture();
+        // Actualizar malla si es necesario
+        if (needsUpdate || mesh.needsRebuild()) {
+            updateMesh();
         }
 
-        if (textureId == -1) {
-            return;
-        }
-
-        GLES30.glUseProgram(programId);
-
-        // Desactivar depth test para UI 2D
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-
-        // Bind textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glUniform1i(uTextureLoc, 0);
-        GLES30.glUniform1f(uAlphaLoc, 1.0f);
-
-        // Configurar atributos
-        GLES30.glEnableVertexAttribArray(aPositionLoc);
-        GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-
-        GLES30.glEnableVertexAttribArray(aTexCoordLoc);
-        GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
-
-        // Dibujar
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-
-        // Limpiar
-        GLES30.glDisableVertexAttribArray(aPositionLoc);
-        GLES30.glDisableVertexAttribArray(aTexCoordLoc);
+        SdfTextRenderer.get().draw(mesh, 1.0f);
 
         // Restaurar estados
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 }
@@ -8,11 +8,14 @@ import android.graphics.LinearGradient;
 import android.graphics.Paint;
 import android.graphics.RectF;
 import android.graphics.Shader;
-import android.graphics.Typeface;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -28,6 +31,9 @@ import java.nio.FloatBuffer;
  * - Auto-ajuste del tamaño de texto según longitud
  * - Efecto de glow/resplandor
  * - Animación de fade in/out
+ *
+ * El panel de fondo se rasteriza una sola vez; el texto sale del atlas SDF
+ * compartido, así que un mensaje nuevo solo reescribe vértices.
  */
 public class SongMessageRenderer implements SceneObject {
     private static final String TAG = "SongMessage";
@@ -48,11 +54,19 @@ public class SongMessageRenderer implements SceneObject {
     private FloatBuffer vertexBuffer;
     private FloatBuffer texCoordBuffer;
 
-    // Textura
+    // Textura del panel de fondo (independiente del texto: se sube una vez)
     private int textureId = -1;
     private String currentText = "";
     private boolean needsUpdate = false;
 
+    // Texto: atlas SDF compartido, hasta 3 líneas
+    private static final int MAX_LINES = 3;
+    private static final int MAX_GLYPHS = 160;
+    private final TextMesh textMesh =
+            new TextMesh(SdfFont.get(SdfFont.Face.SANS_BOLD, SdfFont.SizeClass.UI), MAX_GLYPHS);
+    private final int[] lineStarts = new int[MAX_LINES];
+    private final int[] lineEnds = new int[MAX_LINES];
+
     // Posición (NDC)
     private float x = 0.0f;
     private float y = 0.60f;  // Arriba de la pantalla
@@ -105,6 +119,8 @@ public class SongMessageRenderer implements SceneObject {
         this.context = context;
         initShader();
         setupBuffers();
+        // Sombra rosa del texto anterior → glow SDF
+        textMesh.setGlow(Color.argb(200, 255, 100, 255), 0.1f);
         Log.d(TAG, "🎵 SongMessageRenderer inicializado");
     }
 
@@ -182,17 +198,25 @@ public class SongMessageRenderer implements SceneObject {
     }
 
     /**
-     * 🎨 Genera la textura con el texto estilizado
+     * 🎨 Sube el panel de fondo (una vez) y reescribe los quads del texto
      */
     private void updateTexture() {
-        if (!needsUpdate || currentText.isEmpty()) return;
+        if (textureId == -1) {
+            createBackgroundTexture();
+        }
+        if ((!needsUpdate && !textMesh.needsRebuild()) || currentText.isEmpty()) return;
         needsUpdate = false;
+        rebuildText();
+    }
 
-        // Crear bitmap
+    /**
+     * Fondo semi-transparente con bordes redondeados y borde en gradiente.
+     * No depende del mensaje, así que nunca se vuelve a rasterizar.
+     */
+    private void createBackgroundTexture() {
         Bitmap bitmap = Bitmap.createBitmap(TEX_WIDTH, TEX_HEIGHT, Bitmap.Config.ARGB_8888);
         Canvas canvas = new Canvas(bitmap);
 
-        // Fondo transparente con bordes redondeados y gradiente
         Paint bgPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
         bgPaint.setShader(new LinearGradient(
             0, 0, TEX_WIDTH, 0,
@@ -220,55 +244,41 @@ public class SongMessageRenderer implements SceneObject {
         ));
         canvas.drawRoundRect(bgRect, 30, 30, borderPaint);
 
-        // Configurar texto
-        Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
-        textPaint.setTypeface(Typeface.create(Typeface.DEFAULT, Typeface.BOLD));
-        textPaint.setTextAlign(Paint.Align.CENTER);
-
-        // Auto-ajustar tamaño según longitud del texto
-        float textSize = calculateTextSize(currentText);
-        textPaint.setTextSize(textSize);
-
-        // Gradiente de colores para el texto
-        textPaint.setShader(new LinearGradient(
-            50, 0, TEX_WIDTH - 50, 0,
-            gradientColors,
-            null,
-            Shader.TileMode.CLAMP
-        ));
-
-        // Sombra para efecto glow
-        textPaint.setShadowLayer(4f, 0, 0, Color.argb(200, 255, 100, 255));
+        int[] texIds = new int[1];
+        GLES30.glGenTextures(1, texIds, 0);
+        textureId = texIds[0];
 
-        // Dividir texto en líneas si es necesario
-        String[] lines = wrapText(currentText, textPaint, TEX_WIDTH - 40);
-
-        // Dibujar cada línea centrada
-        float lineHeight = textSize * 1.3f;
-        float totalHeight = lines.length * lineHeight;
-        float startY = (TEX_HEIGHT - totalHeight) / 2 + textSize;
-
-        for (int i = 0; i < lines.length; i++) {
-            canvas.drawText(lines[i], TEX_WIDTH / 2f, startY + (i * lineHeight), textPaint);
-        }
-
-        // Subir textura a OpenGL
-        if (textureId == -1) {
-            int[] texIds = new int[1];
-            GLES30.glGenTextures(1, texIds, 0);
-            textureId = texIds[0];
-        }
-
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
 
         bitmap.recycle();
     }
 
+    /**
+     * ✍️ Reescribe los quads del mensaje (hasta 3 líneas centradas con gradiente)
+     */
+    private void rebuildText() {
+        // Tamaño en px sobre la textura de 128px de alto → em en NDC
+        float size = height * calculateTextSize(currentText) / TEX_HEIGHT;
+        // 20px de margen a cada lado en la textura de 512px
+        float maxWidth = width * (TEX_WIDTH - 40) / TEX_WIDTH;
+
+        int lines = wrapText(currentText, size, maxWidth);
+
+        float lineHeight = size * 1.3f;
+        float firstY = y + (lines - 1) * lineHeight / 2f;
+
+        textMesh.clear();
+        for (int i = 0; i < lines; i++) {
+            textMesh.add(currentText, lineStarts[i], lineEnds[i], x, firstY - i * lineHeight,
+                    size, TextMesh.ALIGN_CENTER, maxWidth, gradientColors);
+        }
+    }
+
     /**
      * 📏 Calcula el tamaño del texto según la longitud
      */
@@ -282,44 +292,42 @@ public class SongMessageRenderer implements SceneObject {
     }
 
     /**
-     * 📐 Divide el texto en líneas que quepan
+     * 📐 Divide el texto en líneas que quepan (por palabras, sin crear Strings).
+     * Los rangos quedan en lineStarts/lineEnds; máximo 3 líneas y la última
+     * se encoge con maxWidth si sobra texto.
+     *
+     * @return número de líneas
      */
-    private String[] wrapText(String text, Paint paint, float maxWidth) {
-        if (paint.measureText(text) <= maxWidth) {
-            return new String[]{text};
-        }
-
-        // Dividir por palabras
-        String[] words = text.split(" ");
-        StringBuilder currentLine = new StringBuilder();
-        java.util.List<String> lines = new java.util.ArrayList<>();
-
-        for (String word : words) {
-            String testLine = currentLine.length() == 0 ? word : currentLine + " " + word;
-            if (paint.measureText(testLine) <= maxWidth) {
-                currentLine = new StringBuilder(testLine);
-            } else {
-                if (currentLine.length() > 0) {
-                    lines.add(currentLine.toString());
+    private int wrapText(String text, float size, float maxWidth) {
+        int length = text.length();
+        int lines = 0;
+        int lineStart = 0;
+
+        while (lineStart < length && lines < MAX_LINES) {
+            // Saltar espacios al inicio de la línea
+            while (lineStart < length && text.charAt(lineStart) == ' ') lineStart++;
+            if (lineStart >= length) break;
+
+            int lineEnd = lineStart;
+            int scan = lineStart;
+            boolean lastLine = lines == MAX_LINES - 1;
+            while (scan < length) {
+                int wordEnd = text.indexOf(' ', scan);
+                if (wordEnd < 0) wordEnd = length;
+                if (!lastLine && lineEnd > lineStart
+                        && textMesh.measure(text, lineStart, wordEnd, size) > maxWidth) {
+                    break;
                 }
-                currentLine = new StringBuilder(word);
+                lineEnd = wordEnd;
+                scan = wordEnd + 1;
             }
-        }
 
-        if (currentLine.length() > 0) {
-            lines.add(currentLine.toString());
+            lineStarts[lines] = lineStart;
+            lineEnds[lines] = lineEnd;
+            lines++;
+            lineStart = lineEnd;
         }
-
-        // Máximo 3 líneas
-        if (lines.size() > 3) {
-            lines = lines.subList(0, 3);
-            String lastLine = lines.get(2);
-            if (lastLine.length() > 3) {
-                lines.set(2, lastLine.substring(0, lastLine.length() - 3) + "...");
-            }
-        }
-
-        return lines.toArray(new String[0]);
+        return lines;
     }
 
     @Override
@@ -350,15 +358,15 @@ public class SongMessageRenderer implements SceneObject {
 
         if (textureId == -1) return;
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Habilitar blending
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureLoc, 0);
 
         // Uniforms
@@ -374,11 +382,15 @@ public class SongMessageRenderer implements SceneObject {
         GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
 
         // Dibujar
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         // Limpiar
         GLES30.glDisableVertexAttribArray(aPositionLoc);
         GLES30.glDisableVertexAttribArray(aTexCoordLoc);
+
+        // Texto encima del panel (mismo pulso de brillo vía glow)
+        textMesh.setGlowAlpha((200f / 255f) * (1.0f + 0.1f * (float) Math.sin(time * 3.0f)));
+        SdfTextRenderer.get().draw(textMesh, alpha);
     }
 
     public boolean isVisible() {
@@ -386,13 +398,14 @@ public class SongMessageRenderer implements SceneObject {
     }
 
     public void cleanup() {
+        textMesh.release();
         if (textureId != -1) {
             int[] texIds = {textureId};
-            GLES30.glDeleteTextures(1, texIds, 0);
+            GLStateManager.get().deleteTextures(1, texIds, 0);
             textureId = -1;
         }
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
         }
     }
@@ -5,15 +5,19 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.core.MemoryGovernor;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Gestor de texturas que permite cargar cualquier recurso
@@ -35,6 +39,12 @@ public class TextureManager implements TextureLoader {
     private final Map<String, Integer> fileTextureCache = new HashMap<>();
     private boolean initialized = false;
 
+    // 🏷️ Propietarios de file textures (escenas) + bytes estimados en GPU.
+    // Permite liberar solo las texturas de una escena (warm cache de SceneFactory).
+    private final Map<String, Set<String>> fileTextureOwners = new HashMap<>();
+    private final Map<String, Long> fileTextureBytes = new HashMap<>();
+    private String currentOwner = null;
+
     // Memory tier configuration
     private MemoryTier memoryTier = MemoryTier.MEDIUM;
     private int maxTextureDimension = 1536;
@@ -88,12 +98,14 @@ public class TextureManager implements TextureLoader {
             fallbackTextureId = textureIds[0];
 
             if (fallbackTextureId != 0) {
-                GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, fallbackTextureId);
+                GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, fallbackTextureId);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_NEAREST);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_NEAREST);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_REPEAT);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_REPEAT);
-                GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, fallbackBitmap, 0);
+                String previousOwner = GpuMemoryRegistry.get().pushOwner("TextureManager");
+                GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, fallbackBitmap, 0);
+                GpuMemoryRegistry.get().popOwner(previousOwner);
                 Log.d("TextureManager", "🛡️ Textura de fallback creada (ID=" + fallbackTextureId + ")");
             }
 
@@ -123,12 +135,19 @@ public class TextureManager implements TextureLoader {
 
         Integer texId = textureCache.get(resourceId);
         if (texId == null) {
-            // Carga bajo demanda con inSampleSize según tier de memoria
+            // Carga bajo demanda con inSampleSize según tier de memoria (+ mip bias por presión)
+            int sampleSize = defaultInSampleSize << MemoryGovernor.get().getDegradation().textureMipBias;
             try {
-                texId = ShaderUtils.loadTexture(context, resourceId, defaultInSampleSize);
+                // Cache propio (vive entre escenas): no se cuenta como de la escena
+                String previousOwner = GpuMemoryRegistry.get().pushOwner("TextureManager");
+                try {
+                    texId = ShaderUtils.loadTexture(context, resourceId, sampleSize);
+                } finally {
+                    GpuMemoryRegistry.get().popOwner(previousOwner);
+                }
                 textureCache.put(resourceId, texId);
                 Log.d("TextureManager", "Textura cargada y cacheada: resId="
-                        + resourceId + " → texId=" + texId + " (inSampleSize=" + defaultInSampleSize + ")");
+                        + resourceId + " → texId=" + texId + " (inSampleSize=" + sampleSize + ")");
             } catch (RuntimeException e) {
                 Log.e("TextureManager", "Error cargando textura resId=" + resourceId, e);
                 return 0;
@@ -152,7 +171,7 @@ public class TextureManager implements TextureLoader {
             int texId = entry.getValue();
             if (texId != 0) {
                 int[] textures = {texId};
-                GLES30.glDeleteTextures(1, textures, 0);
+                GLStateManager.get().deleteTextures(1, textures, 0);
             }
         }
 
@@ -161,17 +180,19 @@ public class TextureManager implements TextureLoader {
             int texId = entry.getValue();
             if (texId != 0) {
                 int[] textures = {texId};
-                GLES30.glDeleteTextures(1, textures, 0);
+                GLStateManager.get().deleteTextures(1, textures, 0);
             }
         }
 
         textureCache.clear();
         fileTextureCache.clear();
+        fileTextureOwners.clear();
+        fileTextureBytes.clear();
 
         // 🛡️ Liberar textura de fallback
         if (fallbackTextureId != 0) {
             int[] textures = {fallbackTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             fallbackTextureId = 0;
             Log.d("TextureManager", "🛡️ Textura de fallback liberada");
         }
@@ -201,6 +222,7 @@ public class TextureManager implements TextureLoader {
         // Verificar cache primero
         Integer cached = fileTextureCache.get(filePath);
         if (cached != null && cached != 0) {
+            addOwner(filePath);
             return cached;
         }
 
@@ -237,6 +259,11 @@ public class TextureManager implements TextureLoader {
                 }
             }
 
+            // 🧠 Mip bias del MemoryGovernor: bajo presión se sube a 1/2 o 1/4.
+            // Solo afecta a esta carga; al recargar la escena sin presión vuelve a tamaño completo.
+            int mipBias = MemoryGovernor.get().getDegradation().textureMipBias;
+            inSampleSize <<= mipBias;
+
             // 🔧 FIX MEMORY: Prefer RGB_565 (16-bit, 2 bytes/pixel) over ARGB_8888 (32-bit, 4 bytes/pixel).
             // For a 1024x1024 texture: 4 MB → 2 MB on GPU. Halves memory for opaque images.
             // The decoder automatically upgrades to ARGB_8888 if the image has an alpha channel (PNG with transparency).
@@ -249,7 +276,8 @@ public class TextureManager implements TextureLoader {
             if (inSampleSize > 1) {
                 Log.d("TextureManager", "File texture downscaled: " + origWidth + "x" + origHeight
                         + " → " + (bitmap != null ? bitmap.getWidth() + "x" + bitmap.getHeight() : "null")
-                        + " (inSampleSize=" + inSampleSize + ", maxDim=" + maxTextureDimension + ")");
+                        + " (inSampleSize=" + inSampleSize + ", maxDim=" + maxTextureDimension
+                        + ", mipBias=" + mipBias + ")");
             }
 
             if (bitmap == null) {
@@ -268,7 +296,7 @@ public class TextureManager implements TextureLoader {
                 return 0;
             }
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texId);
 
             // Configurar parámetros de textura
             // 🧠 Sin mipmaps: file textures son fondos full-screen, no se escalan
@@ -279,13 +307,22 @@ public class TextureManager implements TextureLoader {
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
             // Subir bitmap a GPU (sin glGenerateMipmap)
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            // Dueño TextureManager: se comparte entre escenas y la libera SceneFactory
+            String previousOwner = GpuMemoryRegistry.get().pushOwner("TextureManager");
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GpuMemoryRegistry.get().popOwner(previousOwner);
+
+            // Bytes en GPU (RGB_565 = 2 bytes/pixel, ARGB_8888 = 4)
+            long bytes = (long) bitmap.getWidth() * bitmap.getHeight()
+                    * (bitmap.getConfig() == Bitmap.Config.RGB_565 ? 2 : 4);
 
             // Liberar bitmap (ya está en GPU)
             bitmap.recycle();
 
             // Cachear
             fileTextureCache.put(filePath, texId);
+            fileTextureBytes.put(filePath, bytes);
+            addOwner(filePath);
             Log.d("TextureManager", "Textura cargada desde archivo: " + filePath + " → texId=" + texId);
 
             return texId;
@@ -310,14 +347,135 @@ public class TextureManager implements TextureLoader {
             Integer texId = fileTextureCache.remove(key);
             if (texId != null && texId != 0) {
                 int[] textures = {texId};
-                GLES30.glDeleteTextures(1, textures, 0);
+                GLStateManager.get().deleteTextures(1, textures, 0);
                 count++;
             }
         }
 
+        fileTextureOwners.clear();
+        fileTextureBytes.clear();
+
         Log.d("TextureManager", "🧠 " + count + " file textures released (resource textures kept)");
     }
 
+    /**
+     * 🧠 Libera las file textures que no usa {@code keepOwner} (MemoryGovernor HIGH+).
+     * Reversible: son caché, la próxima petición las vuelve a cargar de disco.
+     * Llamar después de desalojar las escenas aparcadas, que aún podrían tenerlas.
+     */
+    public void releaseFileTexturesExcept(String keepOwner) {
+        if (fileTextureCache.isEmpty()) return;
+
+        int count = 0;
+        List<String> keys = new ArrayList<>(fileTextureCache.keySet());
+        for (String key : keys) {
+            Set<String> owners = fileTextureOwners.get(key);
+            if (keepOwner != null && owners != null && owners.contains(keepOwner)) continue;
+
+            fileTextureOwners.remove(key);
+            fileTextureBytes.remove(key);
+            Integer texId = fileTextureCache.remove(key);
+            if (texId != null && texId != 0) {
+                int[] textures = {texId};
+                GLStateManager.get().deleteTextures(1, textures, 0);
+                count++;
+            }
+        }
+
+        Log.d("TextureManager", "🧠 " + count + " file textures idle liberadas (se conserva " + keepOwner + ")");
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 🏷️ PROPIETARIOS DE FILE TEXTURES (por escena)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Establece a quién se atribuyen las file textures cargadas de aquí en adelante.
+     * SceneFactory lo llama con el nombre de la escena antes de crearla/reanudarla.
+     */
+    public void setTextureOwner(String owner) {
+        this.currentOwner = owner;
+    }
+
+    private void addOwner(String filePath) {
+        if (currentOwner == null) return;
+        Set<String> owners = fileTextureOwners.get(filePath);
+        if (owners == null) {
+            owners = new HashSet<>();
+            fileTextureOwners.put(filePath, owners);
+        }
+        owners.add(currentOwner);
+    }
+
+    /**
+     * Libera las file textures de un propietario. Las texturas compartidas con
+     * otro propietario (ej: escena aparcada) se conservan hasta que nadie las use.
+     */
+    public void releaseFileTexturesOwnedBy(String owner) {
+        if (owner == null || fileTextureOwners.isEmpty()) return;
+
+        int count = 0;
+        List<String> paths = new ArrayList<>(fileTextureOwners.keySet());
+        for (String path : paths) {
+            Set<String> owners = fileTextureOwners.get(path);
+            if (owners == null || !owners.remove(owner) || !owners.isEmpty()) continue;
+
+            fileTextureOwners.remove(path);
+            fileTextureBytes.remove(path);
+            Integer texId = fileTextureCache.remove(path);
+            if (texId != null && texId != 0) {
+                int[] textures = {texId};
+                GLStateManager.get().deleteTextures(1, textures, 0);
+                count++;
+            }
+        }
+
+        Log.d("TextureManager", "🏷️ " + count + " file textures released for " + owner);
+    }
+
+    /**
+     * Libera las file textures sin propietario (cargadas con owner null, fuera de
+     * una escena). Ninguna escena aparcada las referencia: sus texturas siempre
+     * se cargan con el nombre de la escena como owner.
+     */
+    public void releaseUnownedFileTextures() {
+        if (fileTextureCache.isEmpty()) return;
+
+        int count = 0;
+        List<String> keys = new ArrayList<>(fileTextureCache.keySet());
+        for (String key : keys) {
+            Set<String> owners = fileTextureOwners.get(key);
+            if (owners != null && !owners.isEmpty()) continue;
+
+            fileTextureOwners.remove(key);
+            fileTextureBytes.remove(key);
+            Integer texId = fileTextureCache.remove(key);
+            if (texId != null && texId != 0) {
+                int[] textures = {texId};
+                GLStateManager.get().deleteTextures(1, textures, 0);
+                count++;
+            }
+        }
+
+        if (count > 0) {
+            Log.d("TextureManager", "🏷️ " + count + " file textures sin dueño liberadas");
+        }
+    }
+
+    /**
+     * Bytes estimados en GPU de las file textures que usa un propietario.
+     */
+    public long getFileTextureBytesOwnedBy(String owner) {
+        long total = 0;
+        for (Map.Entry<String, Set<String>> entry : fileTextureOwners.entrySet()) {
+            if (entry.getValue().contains(owner)) {
+                Long bytes = fileTextureBytes.get(entry.getKey());
+                if (bytes != null) total += bytes;
+            }
+        }
+        return total;
+    }
+
     /**
      * 🧠 Getters for memory tier configuration
      */
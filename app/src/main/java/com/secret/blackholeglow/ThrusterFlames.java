@@ -6,6 +6,7 @@ import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -288,14 +289,14 @@ public class ThrusterFlames implements SceneObject, CameraAware {
     public void draw() {
         if (shaderProgram == 0 || camera == null || alpha <= 0.01f) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Habilitar blending aditivo para efecto de fuego
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);  // Additive
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);  // Additive
 
         // Deshabilitar depth write para transparencia
-        GLES30.glDepthMask(false);
+        GLStateManager.get().depthMask(false);
 
         // Matriz de modelo
         Matrix.setIdentityM(modelMatrix, 0);
@@ -380,8 +381,8 @@ public class ThrusterFlames implements SceneObject, CameraAware {
         GLES30.glUniform1f(uAlphaHandle, alpha);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vértices
@@ -393,15 +394,15 @@ public class ThrusterFlames implements SceneObject, CameraAware {
         GLES30.glVertexAttribPointer(aTexCoordHandle, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
 
         // Dibujar quad
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
 
         // Limpiar
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
 
         // Restaurar estado
-        GLES30.glDepthMask(true);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().depthMask(true);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -519,7 +520,7 @@ public class ThrusterFlames implements SceneObject, CameraAware {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         Log.d(TAG, "🗑️ ThrusterFlames liberado");
@@ -7,6 +7,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.IOException;
@@ -256,8 +257,8 @@ public class TravelingShip implements SceneObject, CameraAware {
 
         // 🚀 MIPMAPS para mejor rendimiento (GROK SUGGESTION)
         // GPU usa textura de menor resolución cuando nave está lejos
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
@@ -562,7 +563,7 @@ public class TravelingShip implements SceneObject, CameraAware {
     public void draw() {
         if (shaderProgram == 0 || camera == null || vertexBuffer == null) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Construir matriz de modelo
         Matrix.setIdentityM(modelMatrix, 0);
@@ -586,8 +587,8 @@ public class TravelingShip implements SceneObject, CameraAware {
         GLES30.glUniform1f(uEngineGlowHandle, engineGlow);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vértices
@@ -599,7 +600,7 @@ public class TravelingShip implements SceneObject, CameraAware {
         GLES30.glVertexAttribPointer(aTexCoordHandle, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
 
         // Dibujar
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
@@ -717,7 +718,7 @@ public class TravelingShip implements SceneObject, CameraAware {
     public void release() {
         // 🗑️ Liberar shader program
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
 
@@ -729,7 +730,7 @@ public class TravelingShip implements SceneObject, CameraAware {
         // 🖼️ Liberar textura
         if (textureId != 0) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = 0;
         }
 
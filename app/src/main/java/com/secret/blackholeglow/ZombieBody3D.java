@@ -7,6 +7,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.IOException;
@@ -288,8 +289,8 @@ public class ZombieBody3D implements SceneObject {
             return;
         }
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
@@ -365,7 +366,7 @@ public class ZombieBody3D implements SceneObject {
             return;
         }
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // 🧟 Cálculo de efectos orgánicos
         float swing = (float) Math.sin(swingPhase) * SWING_ANGLE;
@@ -395,8 +396,8 @@ public class ZombieBody3D implements SceneObject {
         GLES30.glUniform1f(uTimeHandle, time);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vertices
@@ -411,7 +412,7 @@ public class ZombieBody3D implements SceneObject {
 
         // Draw
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
@@ -520,12 +521,12 @@ public class ZombieBody3D implements SceneObject {
 
     public void dispose() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (textureId != 0) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = 0;
         }
         Log.d(TAG, "🧟 ZombieBody3D disposed");
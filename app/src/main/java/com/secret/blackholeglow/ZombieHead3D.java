@@ -11,6 +11,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.IOException;
@@ -429,8 +430,8 @@ public class ZombieHead3D implements SceneObject, CameraAware, SensorEventListen
             return;
         }
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
@@ -529,7 +530,7 @@ public class ZombieHead3D implements SceneObject, CameraAware, SensorEventListen
             return;
         }
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Calcular balanceo suave (animación automática)
         float swingX = (float) Math.sin(swingPhase) * SWING_ANGLE_X;
@@ -559,8 +560,8 @@ public class ZombieHead3D implements SceneObject, CameraAware, SensorEventListen
         GLES30.glUniform1f(uTimeHandle, time);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(uTextureHandle, 0);
 
         // Vertices
@@ -575,7 +576,7 @@ public class ZombieHead3D implements SceneObject, CameraAware, SensorEventListen
 
         // Draw
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionHandle);
         GLES30.glDisableVertexAttribArray(aTexCoordHandle);
@@ -752,12 +753,12 @@ public class ZombieHead3D implements SceneObject, CameraAware, SensorEventListen
         }
 
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (textureId != 0) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = 0;
         }
         Log.d(TAG, "🧟 ZombieHead3D disposed");
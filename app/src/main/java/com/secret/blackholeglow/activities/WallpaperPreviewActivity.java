@@ -43,6 +43,7 @@ import com.secret.blackholeglow.systems.AdsManager;
 import com.secret.blackholeglow.systems.EventBus;
 import com.secret.blackholeglow.core.PreFlightCheck;
 import com.secret.blackholeglow.core.ResourcePreloader;
+import com.secret.blackholeglow.core.ScenePrefetcher;
 import com.secret.blackholeglow.systems.WallpaperNotificationManager;
 import com.secret.blackholeglow.video.VideoDownloadManager;
 
@@ -701,6 +702,10 @@ public class WallpaperPreviewActivity extends AppCompatActivity {
     @Override
     protected void onResume() {
         super.onResume();
+        // 📥 El usuario está mirando este wallpaper: adelantar la descarga de sus recursos
+        if (!waitingForWallpaperResult) {
+            ScenePrefetcher.get(this).onSceneFocused(nombre_wallpaper);
+        }
         if (waitingForWallpaperResult) {
             waitingForWallpaperResult = false;
             if (isOurWallpaperActive()) {
@@ -886,6 +891,11 @@ public class WallpaperPreviewActivity extends AppCompatActivity {
     protected void onDestroy() {
         super.onDestroy();
 
+        // 📥 Si el usuario salió sin instalar, cancelar el prefetch de este wallpaper
+        if (isFinishing() && !waitingForWallpaperResult) {
+            ScenePrefetcher.get(this).onSceneUnfocused(nombre_wallpaper);
+        }
+
         // Reciclar bitmap para liberar memoria
         if (previewBitmap != null && !previewBitmap.isRecycled()) {
             previewBitmap.recycle();
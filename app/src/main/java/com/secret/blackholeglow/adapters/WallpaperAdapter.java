@@ -28,6 +28,7 @@ import com.secret.blackholeglow.activities.WallpaperPreviewActivity;
 import com.secret.blackholeglow.WallpaperPreferences;
 import com.secret.blackholeglow.ui.GradientTextView;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.download.DownloadScheduler;
 import com.secret.blackholeglow.core.SceneRequirements;
 import com.secret.blackholeglow.core.PreFlightCheck;
 import android.app.AlertDialog;
@@ -169,6 +170,15 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
         notifyDataSetChanged();
     }
 
+    /**
+     * Item en la posición dada, o null si está fuera de rango.
+     * Usado por el fragment para saber qué wallpaper está centrado (prefetch).
+     */
+    public WallpaperItem getItemAt(int position) {
+        if (position < 0 || position >= wallpapers.size()) return null;
+        return wallpapers.get(position);
+    }
+
     /**
      * ╔═════════════════════════════════╗
      * ║  📐 onCreateViewHolder           ║
@@ -663,21 +673,30 @@ public class WallpaperAdapter extends RecyclerView.Adapter<WallpaperAdapter.Wall
             downloadingPreviews.add(remoteFile);
         }
 
-        new Thread(() -> {
-            try {
-                ImageDownloadManager downloader = ImageDownloadManager.getInstance(context);
-                boolean ok = downloader.downloadImageSync(remoteFile, null);
-                if (ok) {
-                    lazyHandler.post(() -> notifyDataSetChanged());
-                }
-            } catch (Exception e) {
-                Log.w("WallpaperAdapter", "Preview download failed: " + remoteFile);
-            } finally {
-                synchronized (downloadingPreviews) {
-                    downloadingPreviews.remove(remoteFile);
-                }
-            }
-        }, "PreviewDL").start();
+        // 🖼️ Prioridad PREVIEW: nunca le quita ancho de banda a una instalación en curso
+        ImageDownloadManager downloader = ImageDownloadManager.getInstance(context);
+        downloader.downloadResource(remoteFile, DownloadScheduler.Priority.PREVIEW,
+                new ImageDownloadManager.DownloadCallback() {
+                    @Override
+                    public void onProgress(int percent, long downloadedBytes, long totalBytes) {
+                    }
+
+                    @Override
+                    public void onComplete(String filePath) {
+                        synchronized (downloadingPreviews) {
+                            downloadingPreviews.remove(remoteFile);
+                        }
+                        lazyHandler.post(() -> notifyDataSetChanged());
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        Log.w("WallpaperAdapter", "Preview download failed: " + remoteFile);
+                        synchronized (downloadingPreviews) {
+                            downloadingPreviews.remove(remoteFile);
+                        }
+                    }
+                });
     }
 
     /**
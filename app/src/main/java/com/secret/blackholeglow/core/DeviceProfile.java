@@ -126,4 +126,56 @@ public class DeviceProfile {
     public int getDefaultInSampleSize() {
         return defaultInSampleSize;
     }
+
+    /**
+     * Presupuesto de memoria GPU para escenas aparcadas en el warm cache de SceneFactory.
+     * LOW = 0 (deshabilitado): en <4 GB no conviene retener una segunda escena.
+     */
+    public long getWarmSceneBudgetBytes() {
+        switch (memoryTier) {
+            case HIGH:
+                return 160L * 1024 * 1024;
+            case MEDIUM:
+                return 64L * 1024 * 1024;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * ¿Suspender el decoder de video en la pausa (resume rápido) en vez de liberarlo?
+     * LOW = no: retener codec + Surface (~40-60 MB) mientras la pantalla está apagada no compensa.
+     */
+    public boolean shouldSuspendVideoOnPause() {
+        return memoryTier != MemoryTier.LOW;
+    }
+
+    /**
+     * Presupuesto de memoria propia (GPU registrada + heap nativo) para MemoryGovernor.
+     * Por encima de este total el gobernador degrada aunque el sistema no haya avisado.
+     */
+    public long getProcessMemoryBudgetBytes() {
+        switch (memoryTier) {
+            case HIGH:
+                return 512L * 1024 * 1024;
+            case MEDIUM:
+                return 320L * 1024 * 1024;
+            default:
+                return 192L * 1024 * 1024;
+        }
+    }
+
+    /**
+     * Lectura en vivo de ActivityManager.MemoryInfo (availMem, threshold, lowMemory).
+     * @return false si ActivityManager no esta disponible
+     */
+    public boolean readMemoryInfo(ActivityManager.MemoryInfo out) {
+        if (activityManager == null) return false;
+        try {
+            activityManager.getMemoryInfo(out);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
 }
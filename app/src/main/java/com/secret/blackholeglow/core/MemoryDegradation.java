@@ -0,0 +1,82 @@
+package com.secret.blackholeglow.core;
+
+/**
+ * Etapa de degradacion que el MemoryGovernor pide a los sistemas y escenas.
+ * Inmutable: cada etapa es una instancia fija de STAGES, comparables por identidad.
+ *
+ * Todas las medidas son reversibles: al volver a NONE cada sistema restaura su calidad.
+ *
+ *   Etapa 0 NONE      → calidad completa
+ *   Etapa 1 ELEVATED  → texturas nuevas a 1/2, menos particulas
+ *   Etapa 2 HIGH      → + render targets a 1/2 de escala, file textures ajenas
+ *                        a la escena activa liberadas (se recargan al pedirlas)
+ *   Etapa 3 CRITICAL  → texturas a 1/4, particulas minimas, video y
+ *                        ecualizador (MusicVisualizer) suspendidos
+ */
+public final class MemoryDegradation {
+
+    public static final int STAGE_NONE = 0;
+    public static final int STAGE_ELEVATED = 1;
+    public static final int STAGE_HIGH = 2;
+    public static final int STAGE_CRITICAL = 3;
+
+    private static final MemoryDegradation[] STAGES = {
+            new MemoryDegradation(STAGE_NONE, "NONE", MemoryPressureLevel.NORMAL, 0, 1f, 1f, false, false, false),
+            new MemoryDegradation(STAGE_ELEVATED, "ELEVATED", MemoryPressureLevel.WARNING, 1, 1f, 0.75f, false, false, false),
+            new MemoryDegradation(STAGE_HIGH, "HIGH", MemoryPressureLevel.WARNING, 1, 0.5f, 0.5f, false, true, false),
+            new MemoryDegradation(STAGE_CRITICAL, "CRITICAL", MemoryPressureLevel.CRITICAL, 2, 0.5f, 0.25f, true, true, true)
+    };
+
+    public static final MemoryDegradation NONE = STAGES[STAGE_NONE];
+
+    /** 0..3, mayor = mas agresivo */
+    public final int stage;
+    public final String name;
+    /** Nivel grueso para las escenas que solo entienden NORMAL/WARNING/CRITICAL */
+    public final MemoryPressureLevel level;
+    /** Potencia de 2 extra de inSampleSize para texturas subidas en esta etapa */
+    public final int textureMipBias;
+    /** Multiplicador de RenderTargetPool.acquire(scale, ...) */
+    public final float renderTargetScale;
+    /** Fraccion del maximo de particulas que se permite emitir */
+    public final float particleScale;
+    /** Suspender el decoder de video (el ultimo frame queda visible) */
+    public final boolean suspendVideo;
+    /** Liberar file textures que la escena activa no usa (caché, se recargan bajo demanda) */
+    public final boolean releaseIdleTextures;
+    /** Soltar la sesión de audio del MusicVisualizer (se reinicializa al bajar de etapa) */
+    public final boolean suspendVisualizer;
+
+    private MemoryDegradation(int stage, String name, MemoryPressureLevel level, int textureMipBias,
+                              float renderTargetScale, float particleScale, boolean suspendVideo,
+                              boolean releaseIdleTextures, boolean suspendVisualizer) {
+        this.stage = stage;
+        this.name = name;
+        this.level = level;
+        this.textureMipBias = textureMipBias;
+        this.renderTargetScale = renderTargetScale;
+        this.particleScale = particleScale;
+        this.suspendVideo = suspendVideo;
+        this.releaseIdleTextures = releaseIdleTextures;
+        this.suspendVisualizer = suspendVisualizer;
+    }
+
+    public static MemoryDegradation forStage(int stage) {
+        if (stage < STAGE_NONE) stage = STAGE_NONE;
+        if (stage > STAGE_CRITICAL) stage = STAGE_CRITICAL;
+        return STAGES[stage];
+    }
+
+    /** Limita un maximo de particulas a esta etapa (nunca menos de 1) */
+    public int scaleParticles(int maxParticles) {
+        return Math.max(1, Math.round(maxParticles * particleScale));
+    }
+
+    @Override
+    public String toString() {
+        return name + "(mip+" + textureMipBias + ", rt x" + renderTargetScale
+                + ", part x" + particleScale + (suspendVideo ? ", video off" : "")
+                + (releaseIdleTextures ? ", idle tex off" : "")
+                + (suspendVisualizer ? ", eq off" : "") + ")";
+    }
+}
@@ -0,0 +1,312 @@
+package com.secret.blackholeglow.core;
+
+import android.app.ActivityManager;
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.content.res.Configuration;
+import android.os.Debug;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.secret.blackholeglow.TextureManager.MemoryTier;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ 🧠 MemoryGovernor - Presión de memoria por eventos + presupuesto  ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  Reemplaza el polling de SceneHealthMonitor. Combina tres señales║
+ * ║  y se queda con la más grave:                                    ║
+ * ║   • ComponentCallbacks2.onTrimMemory / onLowMemory (sistema)     ║
+ * ║   • ActivityManager.MemoryInfo (availMem, lowMemory) al evaluar  ║
+ * ║   • Memoria propia: GPU registrada + heap nativo vs presupuesto  ║
+ * ║  La etapa resultante (MemoryDegradation) sube de inmediato y     ║
+ * ║  baja de a un escalón tras RECOVERY_STEP_MS sin nuevas señales.  ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Sin polling en NORMAL: solo se re-evalúa por eventos (trim, escena
+ * cargada) y, mientras hay degradación, para intentar recuperarse.
+ * Las evaluaciones corren en el main looper; los listeners también.
+ *
+ * Un listener por director (preview del sistema + home pueden convivir):
+ * los callbacks del sistema se registran con el primero y se desregistran
+ * cuando se va el último.
+ *
+ * USO:
+ *   MemoryGovernor.get().start(context, listener);
+ *   MemoryGovernor.get().onSceneLoaded();     // tras crear una escena (cualquier hilo)
+ *   MemoryGovernor.get().getDegradation();    // lectura desde cualquier hilo
+ *   MemoryGovernor.get().stop(listener);
+ */
+public class MemoryGovernor implements ComponentCallbacks2 {
+    private static final String TAG = "MemoryGovernor";
+
+    private static MemoryGovernor instance;
+
+    // Una señal de trim sigue vigente este tiempo aunque no se repita
+    private static final long TRIM_HOLD_MS = 30000;
+    // Espera entre escalones de recuperación (bajar etapa)
+    private static final long RECOVERY_STEP_MS = 8000;
+
+    // Umbrales del presupuesto propio (fracción de DeviceProfile.getProcessMemoryBudgetBytes)
+    private static final float BUDGET_ELEVATED = 0.75f;
+    private static final float BUDGET_HIGH = 0.9f;
+
+    public interface Listener {
+        /** Main thread. Aplicar en el GL thread lo que toque GL. */
+        void onDegradationChanged(MemoryDegradation degradation);
+    }
+
+    private Context appContext;
+    private Handler handler;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean running = false;
+
+    private volatile MemoryDegradation current = MemoryDegradation.NONE;
+
+    // Última señal de trim y cuándo llegó
+    private int trimStage = MemoryDegradation.STAGE_NONE;
+    private long trimAtMs = 0;
+    private long lastEscalationMs = 0;
+
+    // Última evaluación (diagnóstico)
+    private volatile long lastOwnBytes = 0;
+    private volatile long lastAvailMB = -1;
+
+    private final ActivityManager.MemoryInfo memInfo = new ActivityManager.MemoryInfo();
+
+    private MemoryGovernor() {}
+
+    public static synchronized MemoryGovernor get() {
+        if (instance == null) {
+            instance = new MemoryGovernor();
+        }
+        return instance;
+    }
+
+    /**
+     * Añade el listener. El primero registra los callbacks del sistema y evalúa una vez;
+     * los siguientes (u otro start() del mismo) solo se suman.
+     */
+    public synchronized void start(Context context, Listener listener) {
+        if (!listeners.contains(listener)) {
+            listeners.add(listener);
+        }
+        if (running) return;
+
+        appContext = context.getApplicationContext();
+        handler = new Handler(Looper.getMainLooper());
+        running = true;
+        current = MemoryDegradation.NONE;
+        trimStage = MemoryDegradation.STAGE_NONE;
+        trimAtMs = 0;
+
+        appContext.registerComponentCallbacks(this);
+        Log.d(TAG, "MemoryGovernor iniciado (presupuesto propio "
+                + (DeviceProfile.get().getProcessMemoryBudgetBytes() / (1024 * 1024)) + " MB)");
+        handler.post(evaluateRunnable);
+    }
+
+    /**
+     * Quita el listener. Con el último se desregistran los callbacks y la etapa
+     * vuelve a NONE sin notificar: quien se va también deja de aplicar degradación.
+     */
+    public synchronized void stop(Listener listener) {
+        listeners.remove(listener);
+        if (!listeners.isEmpty() || !running) return;
+
+        if (appContext != null) {
+            appContext.unregisterComponentCallbacks(this);
+        }
+        running = false;
+        if (handler != null) {
+            handler.removeCallbacks(evaluateRunnable);
+        }
+        current = MemoryDegradation.NONE;
+        Log.d(TAG, "MemoryGovernor detenido");
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // API PUBLICA
+    // ═══════════════════════════════════════════════════════════════
+
+    public MemoryDegradation getDegradation() {
+        return current;
+    }
+
+    public MemoryPressureLevel getCurrentLevel() {
+        return current.level;
+    }
+
+    /** GPU registrada + heap nativo en la última evaluación */
+    public long getLastOwnBytes() {
+        return lastOwnBytes;
+    }
+
+    public long getLastAvailableRamMB() {
+        return lastAvailMB;
+    }
+
+    /**
+     * Una escena acaba de subir sus recursos: re-evaluar el presupuesto propio.
+     * Seguro desde cualquier hilo (la evaluación se hace en el main looper).
+     */
+    public void onSceneLoaded() {
+        Handler h = handler;
+        if (running && h != null) {
+            h.post(evaluateRunnable);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // ComponentCallbacks2
+    // ═══════════════════════════════════════════════════════════════
+
+    @Override
+    public void onTrimMemory(int level) {
+        int stage = stageForTrimLevel(level);
+        Log.d(TAG, "onTrimMemory level=" + level + " → etapa " + stage);
+        if (stage == MemoryDegradation.STAGE_NONE) return;
+        trimStage = Math.max(stage, trimStageIfFresh());
+        trimAtMs = SystemClock.elapsedRealtime();
+        evaluate();
+    }
+
+    @Override
+    public void onLowMemory() {
+        Log.w(TAG, "onLowMemory → etapa CRITICAL");
+        trimStage = MemoryDegradation.STAGE_CRITICAL;
+        trimAtMs = SystemClock.elapsedRealtime();
+        evaluate();
+    }
+
+    @Override
+    public void onConfigurationChanged(Configuration newConfig) {
+        // Sin efecto en memoria
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // EVALUACION
+    // ═══════════════════════════════════════════════════════════════
+
+    private final Runnable evaluateRunnable = this::evaluate;
+
+    private void evaluate() {
+        if (!running) return;
+
+        int target = Math.max(trimStageIfFresh(), Math.max(stageForSystemMemory(), stageForOwnMemory()));
+        MemoryDegradation old = current;
+        long now = SystemClock.elapsedRealtime();
+
+        int next;
+        if (target > old.stage) {
+            // Subir: de inmediato y directo a la etapa pedida
+            next = target;
+            lastEscalationMs = now;
+        } else if (target < old.stage && now - lastEscalationMs >= RECOVERY_STEP_MS) {
+            // Bajar: un escalón por vez para no oscilar
+            next = old.stage - 1;
+            lastEscalationMs = now;
+        } else {
+            next = old.stage;
+        }
+
+        if (next != old.stage) {
+            current = MemoryDegradation.forStage(next);
+            Log.d(TAG, "Degradación: " + old + " -> " + current
+                    + " (disponible " + lastAvailMB + " MB, propia "
+                    + (lastOwnBytes / (1024 * 1024)) + " MB)");
+            for (Listener listener : listeners) {
+                listener.onDegradationChanged(current);
+            }
+        }
+
+        // Solo mientras hay degradación: volver a mirar para recuperar calidad
+        handler.removeCallbacks(evaluateRunnable);
+        if (current.stage > MemoryDegradation.STAGE_NONE) {
+            handler.postDelayed(evaluateRunnable, RECOVERY_STEP_MS);
+        }
+    }
+
+    private int trimStageIfFresh() {
+        if (trimAtMs == 0) return MemoryDegradation.STAGE_NONE;
+        if (SystemClock.elapsedRealtime() - trimAtMs > TRIM_HOLD_MS) {
+            trimStage = MemoryDegradation.STAGE_NONE;
+            trimAtMs = 0;
+        }
+        return trimStage;
+    }
+
+    /**
+     * TRIM_MEMORY_* → etapa. UI_HIDDEN no es presión (el wallpaper no tiene UI propia).
+     */
+    private static int stageForTrimLevel(int level) {
+        if (level >= TRIM_MEMORY_MODERATE) return MemoryDegradation.STAGE_CRITICAL;
+        if (level >= TRIM_MEMORY_BACKGROUND) return MemoryDegradation.STAGE_HIGH;
+        if (level == TRIM_MEMORY_UI_HIDDEN) return MemoryDegradation.STAGE_NONE;
+        if (level >= TRIM_MEMORY_RUNNING_CRITICAL) return MemoryDegradation.STAGE_CRITICAL;
+        if (level >= TRIM_MEMORY_RUNNING_LOW) return MemoryDegradation.STAGE_HIGH;
+        if (level >= TRIM_MEMORY_RUNNING_MODERATE) return MemoryDegradation.STAGE_ELEVATED;
+        return MemoryDegradation.STAGE_NONE;
+    }
+
+    /**
+     * RAM disponible del sistema con los umbrales tier-aware de siempre
+     * más un escalón ELEVATED antes de WARNING. lowMemory del sistema = CRITICAL.
+     *
+     * LOW:    ELEVATED <300MB, HIGH <200MB, CRITICAL <100MB
+     * MEDIUM: ELEVATED <450MB, HIGH <300MB, CRITICAL <150MB
+     * HIGH:   ELEVATED <600MB, HIGH <400MB, CRITICAL <200MB
+     */
+    private int stageForSystemMemory() {
+        if (!DeviceProfile.get().readMemoryInfo(memInfo)) {
+            lastAvailMB = -1;
+            return MemoryDegradation.STAGE_NONE;
+        }
+        long availMB = memInfo.availMem / (1024L * 1024L);
+        lastAvailMB = availMB;
+        if (memInfo.lowMemory) return MemoryDegradation.STAGE_CRITICAL;
+
+        MemoryTier tier = DeviceProfile.get().getMemoryTier();
+        long warningThreshold;
+        long criticalThreshold;
+        switch (tier) {
+            case LOW:
+                warningThreshold = 200;
+                criticalThreshold = 100;
+                break;
+            case HIGH:
+                warningThreshold = 400;
+                criticalThreshold = 200;
+                break;
+            default: // MEDIUM
+                warningThreshold = 300;
+                criticalThreshold = 150;
+                break;
+        }
+
+        if (availMB < criticalThreshold) return MemoryDegradation.STAGE_CRITICAL;
+        if (availMB < warningThreshold) return MemoryDegradation.STAGE_HIGH;
+        if (availMB < warningThreshold * 3 / 2) return MemoryDegradation.STAGE_ELEVATED;
+        return MemoryDegradation.STAGE_NONE;
+    }
+
+    /**
+     * Memoria propia: lo que el proceso tiene en GPU (todos los contextos) más el heap nativo
+     * (bitmaps, buffers directos, codec). Pasarse del presupuesto es CRITICAL.
+     */
+    private int stageForOwnMemory() {
+        long own = GpuMemoryRegistry.getProcessLiveBytes() + Debug.getNativeHeapAllocatedSize();
+        lastOwnBytes = own;
+        long budget = DeviceProfile.get().getProcessMemoryBudgetBytes();
+        if (own > budget) return MemoryDegradation.STAGE_CRITICAL;
+        if (own > budget * BUDGET_HIGH) return MemoryDegradation.STAGE_HIGH;
+        if (own > budget * BUDGET_ELEVATED) return MemoryDegradation.STAGE_ELEVATED;
+        return MemoryDegradation.STAGE_NONE;
+    }
+}
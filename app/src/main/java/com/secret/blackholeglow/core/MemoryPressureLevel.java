@@ -2,7 +2,7 @@ package com.secret.blackholeglow.core;
 
 /**
  * Niveles de presion de memoria para el sistema adaptativo de escenas.
- * Compartido por SceneHealthMonitor y las escenas que reaccionan a memoria.
+ * Nivel grueso de MemoryDegradation, para las escenas que reaccionan a memoria.
  */
 public enum MemoryPressureLevel {
     NORMAL,     // Memoria suficiente - calidad completa
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import com.secret.blackholeglow.GamingController3D;
@@ -15,6 +14,7 @@ import com.secret.blackholeglow.WallpaperPreferences;
 import com.secret.blackholeglow.effects.PixelationTransition;
 import com.secret.blackholeglow.effects.ProceduralPanelBackground;
 import com.secret.blackholeglow.models.WallpaperItem;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.systems.WallpaperCatalog;
 
 import java.nio.ByteBuffer;
@@ -191,7 +191,7 @@ public class PanelModeRenderer {
         // Liberar textura anterior si existe
         if (bgTextureId != 0) {
             int[] textures = {bgTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             bgTextureId = 0;
         }
 
@@ -243,13 +243,13 @@ public class PanelModeRenderer {
             GLES30.glGenTextures(1, textures, 0);
             bgTextureId = textures[0];
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
             bitmap.recycle();
 
             Log.d(TAG, "✅ Fondo cargado: textureId=" + bgTextureId);
@@ -342,13 +342,13 @@ public class PanelModeRenderer {
     private void drawBackground() {
         if (!backgroundLoaded || bgShaderProgram == 0 || bgTextureId == 0) return;
 
-        GLES30.glUseProgram(bgShaderProgram);
+        GLStateManager.get().useProgram(bgShaderProgram);
 
         GLES30.glUniform1f(bgUAlphaLoc, backgroundAlpha);
         GLES30.glUniform1f(bgUDarkenLoc, bgDarkenAmount);
 
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, bgTextureId);
         GLES30.glUniform1i(bgUTextureLoc, 0);
 
         GLES30.glEnableVertexAttribArray(bgAPositionLoc);
@@ -359,7 +359,7 @@ public class PanelModeRenderer {
         bgVertexBuffer.position(2);
         GLES30.glVertexAttribPointer(bgATexCoordLoc, 2, GLES30.GL_FLOAT, false, 16, bgVertexBuffer);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(bgAPositionLoc);
         GLES30.glDisableVertexAttribArray(bgATexCoordLoc);
@@ -368,15 +368,15 @@ public class PanelModeRenderer {
     public void drawPanelMode() {
         // Pixelation transition overrides everything
         if (isTransitioning && pixelTransition != null && pixelTransition.isActive()) {
-            GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-            GLES30.glDisable(GLES30.GL_BLEND);
+            GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().disable(GLES30.GL_BLEND);
             pixelTransition.draw();
             return;
         }
 
         // 1. Dibujar fondo
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDisable(GLES30.GL_BLEND);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_BLEND);
 
         if (useProceduralBackground && proceduralBg != null) {
             proceduralBg.draw();
@@ -385,32 +385,32 @@ public class PanelModeRenderer {
         }
 
         // 2. Dibujar UI encima del fondo
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         if (controller != null) {
             controller.draw();
         }
 
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
         if (orbixGreeting != null) {
             orbixGreeting.draw();
         }
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 
     public void drawLoadingMode() {
         // Continue drawing pixelation if active
         if (isTransitioning && pixelTransition != null && pixelTransition.isActive()) {
-            GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-            GLES30.glDisable(GLES30.GL_BLEND);
+            GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().disable(GLES30.GL_BLEND);
             pixelTransition.draw();
             return;
         }
 
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
 
         if (orbixGreeting != null) {
             orbixGreeting.draw();
@@ -419,16 +419,16 @@ public class PanelModeRenderer {
             loadingBar.draw();
         }
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
     }
 
     public void drawWallpaperOverlay() {
         // Draw controller on top of wallpaper scene (back-to-panel button)
         if (controller != null) {
             GLES30.glClear(GLES30.GL_DEPTH_BUFFER_BIT);
-            GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-            GLES30.glEnable(GLES30.GL_BLEND);
-            GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+            GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().enable(GLES30.GL_BLEND);
+            GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
             controller.draw();
         }
     }
@@ -450,18 +450,18 @@ public class PanelModeRenderer {
         if (pixelTransition != null && screenWidth > 0 && screenHeight > 0) {
             if (pixelTransition.beginCapture()) {
                 // Draw current panel contents into FBO
-                GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-                GLES30.glDisable(GLES30.GL_BLEND);
+                GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+                GLStateManager.get().disable(GLES30.GL_BLEND);
                 if (useProceduralBackground && proceduralBg != null) {
                     proceduralBg.draw();
                 } else {
                     drawBackground();
                 }
-                GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-                GLES30.glEnable(GLES30.GL_BLEND);
-                GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+                GLStateManager.get().enable(GLES30.GL_BLEND);
+                GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
                 if (controller != null) controller.draw();
-                GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+                GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
                 if (orbixGreeting != null) orbixGreeting.draw();
 
                 // End capture and start animation
@@ -528,7 +528,7 @@ public class PanelModeRenderer {
         // Liberar textura de fondo (~5-10 MB GPU)
         if (bgTextureId != 0) {
             int[] textures = {bgTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             bgTextureId = 0;
             Log.d(TAG, "  ✓ Textura de fondo liberada");
         }
@@ -741,13 +741,13 @@ public class PanelModeRenderer {
         // Liberar textura de fondo
         if (bgTextureId != 0) {
             int[] textures = {bgTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             bgTextureId = 0;
         }
 
         // Liberar shader
         if (bgShaderProgram != 0) {
-            GLES30.glDeleteProgram(bgShaderProgram);
+            GLStateManager.get().deleteProgram(bgShaderProgram);
             bgShaderProgram = 0;
         }
 
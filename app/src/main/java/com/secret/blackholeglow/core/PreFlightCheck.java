@@ -9,6 +9,7 @@ import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
 import com.secret.blackholeglow.models.SceneWeight;
 import com.secret.blackholeglow.models.WallpaperItem;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
 import com.secret.blackholeglow.systems.WallpaperCatalog;
 import com.secret.blackholeglow.video.VideoDownloadManager;
 
@@ -101,12 +102,19 @@ public class PreFlightCheck {
         long start = System.currentTimeMillis();
         List<Issue> issues = new ArrayList<>();
 
-        // Obtener info de la escena del catalogo
-        WallpaperItem item = WallpaperCatalog.get().getBySceneName(sceneName);
-        SceneWeight weight = item != null ? item.getSceneWeight() : SceneWeight.MEDIUM;
+        // Huella GPU medida la última vez que corrió la escena (-1 = nunca).
+        // Si existe manda sobre el SceneWeight escrito a mano en el catálogo.
+        long measuredBytes = GpuMemoryRegistry.getSavedSceneFootprint(context, sceneName);
+        SceneWeight weight;
+        if (measuredBytes > 0) {
+            weight = SceneWeight.fromGpuBytes(measuredBytes);
+        } else {
+            WallpaperItem item = WallpaperCatalog.get().getBySceneName(sceneName);
+            weight = item != null ? item.getSceneWeight() : SceneWeight.MEDIUM;
+        }
 
         // 1. RAM disponible
-        checkRam(issues, weight);
+        checkRam(issues, weight, measuredBytes);
 
         // 2. Recursos descargados
         checkResources(context, issues, sceneName);
@@ -141,9 +149,10 @@ public class PreFlightCheck {
 
     /**
      * Check 1: RAM disponible.
-     * Umbrales dependen del peso de la escena.
+     * Con huella medida los umbrales salen de ella (la GPU comparte RAM y
+     * cada textura pasa antes por un Bitmap decodificado); si no, del peso.
      */
-    private static void checkRam(List<Issue> issues, SceneWeight weight) {
+    private static void checkRam(List<Issue> issues, SceneWeight weight, long measuredBytes) {
         DeviceProfile dp = DeviceProfile.get();
         long availMB = dp.getAvailableRamMB();
         if (availMB < 0) return; // No se pudo leer
@@ -151,19 +160,25 @@ public class PreFlightCheck {
         long blockingThreshold;
         long warningThreshold;
 
-        switch (weight) {
-            case HEAVY:
-                blockingThreshold = 150;
-                warningThreshold = 250;
-                break;
-            case MEDIUM:
-                blockingThreshold = 100;
-                warningThreshold = 180;
-                break;
-            default: // LIGHT
-                blockingThreshold = 50;
-                warningThreshold = 100;
-                break;
+        if (measuredBytes > 0) {
+            long gpuMB = measuredBytes / (1024L * 1024L);
+            blockingThreshold = 50 + gpuMB * 2;
+            warningThreshold = 100 + gpuMB * 3;
+        } else {
+            switch (weight) {
+                case HEAVY:
+                    blockingThreshold = 150;
+                    warningThreshold = 250;
+                    break;
+                case MEDIUM:
+                    blockingThreshold = 100;
+                    warningThreshold = 180;
+                    break;
+                default: // LIGHT
+                    blockingThreshold = 50;
+                    warningThreshold = 100;
+                    break;
+            }
         }
 
         if (availMB < blockingThreshold) {
@@ -8,6 +8,7 @@ import android.os.HandlerThread;
 import android.util.Log;
 
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.download.DiskCacheIndex;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
 import com.secret.blackholeglow.video.VideoDownloadManager;
@@ -271,70 +272,61 @@ public class ResourcePreloader {
     }
 
     // ═══════════════════════════════════════════════════════════════════════
-    // 🧹 LIMPIEZA DE RECURSOS - Solo mantiene panel + escena actual
+    // 🧹 LIMPIEZA DE RECURSOS - Pins + expulsión LRU (DiskCacheIndex)
     // ═══════════════════════════════════════════════════════════════════════
 
     /**
-     * 🧹 Limpia recursos de escenas anteriores DESPUÉS de una instalación exitosa.
-     * Se ejecuta en un hilo de fondo para no bloquear la UI.
-     * Solo mantiene: recursos del panel + recursos de la escena instalada.
+     * 🧹 Tras una instalación exitosa: fija los recursos del panel y de la escena
+     * instalada y pide un recorte LRU del cache en background.
+     * Las escenas anteriores ya no se borran en bloque: siguen en disco mientras
+     * quepan en el presupuesto, así volver a un favorito no re-descarga nada.
      *
      * @param installedScene El sceneName del wallpaper recién instalado
      */
     public void cleanupAfterInstallation(String installedScene) {
-        new Thread(() -> {
-            try {
-                Log.d(TAG, "🧹 Limpieza post-instalación para: " + installedScene);
-                cleanupOtherSceneResources(installedScene);
-            } catch (Exception e) {
-                Log.w(TAG, "Error en limpieza post-instalación: " + e.getMessage());
-            }
-        }, "ResourceCleanup").start();
+        try {
+            Log.d(TAG, "🧹 Limpieza post-instalación para: " + installedScene);
+            pinSceneResources(installedScene);
+            DiskCacheIndex.getInstance(context).scheduleTrim();
+        } catch (Exception e) {
+            Log.w(TAG, "Error en limpieza post-instalación: " + e.getMessage());
+        }
     }
 
     /**
-     * Elimina recursos de escenas anteriores, manteniendo solo:
+     * Fija (nunca expulsables) los recursos que siguen en uso:
      * - Recursos del Panel (Gaming Controller, texturas LikeButton)
-     * - Recursos de la escena actual
-     *
-     * Esto evita que el almacenamiento se llene con videos de todas las escenas.
+     * - Recursos de la escena instalada
+     * - Recursos del wallpaper que sigue corriendo hasta ser reemplazado
      */
-    private void cleanupOtherSceneResources(String newScene) {
-        Log.d(TAG, "🧹 Limpiando recursos de escenas anteriores...");
-
+    private void pinSceneResources(String newScene) {
         // 🔧 FIX CRASH: Arrays.asList() retorna lista de tamaño fijo que NO soporta addAll().
         // Envolver en new ArrayList<>() para hacerla mutable.
-        List<String> sceneVideos = new ArrayList<>(getSceneVideos(newScene));
-        List<String> sceneImages = new ArrayList<>(getSceneImages(newScene));
-        List<String> sceneModels = new ArrayList<>(getSceneModels(newScene));
+        List<String> sceneFiles = new ArrayList<>(getSceneVideos(newScene));
+        sceneFiles.addAll(getSceneImages(newScene));
+        sceneFiles.addAll(getSceneModels(newScene));
 
         // 🔧 FIX FREEZE: También mantener recursos del wallpaper ACTUALMENTE CORRIENDO
         // El wallpaper activo sigue necesitando sus recursos hasta que sea reemplazado
         if (activeSceneToProtect != null && !activeSceneToProtect.equals(newScene)) {
             Log.d(TAG, "🛡️ Manteniendo recursos del wallpaper activo: " + activeSceneToProtect);
-            sceneVideos.addAll(getSceneVideos(activeSceneToProtect));
-            sceneImages.addAll(getSceneImages(activeSceneToProtect));
-            sceneModels.addAll(getSceneModels(activeSceneToProtect));
+            sceneFiles.addAll(getSceneVideos(activeSceneToProtect));
+            sceneFiles.addAll(getSceneImages(activeSceneToProtect));
+            sceneFiles.addAll(getSceneModels(activeSceneToProtect));
         }
 
-        // Combinar con recursos del panel (siempre se mantienen)
-        List<String> keepVideos = new ArrayList<>(sceneVideos);
-
-        List<String> keepImages = new ArrayList<>(PanelResources.IMAGES);
-        keepImages.addAll(sceneImages);
+        // Recursos del panel (siempre se mantienen)
+        List<String> panelFiles = new ArrayList<>(PanelResources.IMAGES);
+        panelFiles.addAll(PanelResources.MODELS);
 
-        List<String> keepModels = new ArrayList<>(PanelResources.MODELS);
-        keepModels.addAll(sceneModels);
+        DiskCacheIndex index = DiskCacheIndex.getInstance(context);
+        index.setPinned(DiskCacheIndex.PIN_PANEL, panelFiles);
+        index.setPinned(DiskCacheIndex.PIN_ACTIVE_SCENE, sceneFiles);
 
-        // Ejecutar limpieza
-        long freedVideos = VideoDownloadManager.getInstance(context).deleteAllExcept(keepVideos);
-        long freedImages = ImageDownloadManager.getInstance(context).deleteAllExcept(keepImages);
-        long freedModels = ModelDownloadManager.getInstance(context).deleteAllExcept(keepModels);
-
-        long totalFreed = freedVideos + freedImages + freedModels;
-        if (totalFreed > 0) {
-            Log.d(TAG, "🧹 Total liberado: " + (totalFreed / 1024 / 1024) + " MB");
-        }
+        // Registrar los tres managers en el índice para que el recorte vea todo el cache
+        VideoDownloadManager.getInstance(context);
+        ImageDownloadManager.getInstance(context);
+        ModelDownloadManager.getInstance(context);
     }
 
     /**
@@ -1063,6 +1055,9 @@ public class ResourcePreloader {
             }
         }
 
+        // 📥 Detener el prefetch especulativo: suelta los .part para reanudarlos aquí
+        ScenePrefetcher.get(context).cancelAll();
+
         isCancelled = false;
         completedTasks = 0;
         currentTaskIndex = 0;
@@ -30,12 +30,21 @@ import com.secret.blackholeglow.scenes.GatitoDJScene;
 import com.secret.blackholeglow.scenes.PixelCityScene;
 import com.secret.blackholeglow.scenes.DynamicImageScene;
 import com.secret.blackholeglow.scenes.DynamicVideoScene;
+import com.secret.blackholeglow.models.SceneWeight;
+import com.secret.blackholeglow.models.WallpaperItem;
 import com.secret.blackholeglow.systems.EventBus;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
 import com.secret.blackholeglow.systems.ResourceManager;
+import com.secret.blackholeglow.systems.WallpaperCatalog;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * ╔══════════════════════════════════════════════════════════════════╗
@@ -48,6 +57,7 @@ import java.util.Set;
  * ║  • Inyectar dependencias a escenas                               ║
  * ║  • Destruir escenas                                              ║
  * ║  • Gestionar el ciclo de vida de escenas                         ║
+ * ║  • Warm cache: aparcar la escena anterior (pausada, con GPU)     ║
  * ╚══════════════════════════════════════════════════════════════════╝
  */
 public class SceneFactory {
@@ -57,7 +67,8 @@ public class SceneFactory {
     // 📚 REGISTRO DE ESCENAS
     // ═══════════════════════════════════════════════════════════════
 
-    private final Map<String, Class<? extends WallpaperScene>> registeredScenes = new HashMap<>();
+    // Suppliers (method refs): ninguna clase de escena se carga hasta que se instancia
+    private final Map<String, SceneEntry> registeredScenes = new HashMap<>();
     private final String defaultSceneName = "PYRALIS";
 
     // Dependencias para inyectar
@@ -72,6 +83,77 @@ public class SceneFactory {
     private WallpaperScene currentScene;
     private String currentSceneName = "";
 
+    /**
+     * Entrada del registro: cómo construir la escena + metadata.
+     * La metadata sale del catálogo y de ResourcePreloader, no de la clase de la escena,
+     * así que consultarla no dispara class loading.
+     */
+    public static final class SceneEntry {
+        private final String name;
+        private final Supplier<WallpaperScene> supplier;
+
+        SceneEntry(String name, Supplier<WallpaperScene> supplier) {
+            this.name = name;
+            this.supplier = supplier;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** Peso de la escena según el catálogo (MEDIUM si no está catalogada) */
+        public SceneWeight getWeight() {
+            return weightOf(name);
+        }
+
+        public List<String> getRequiredVideos() {
+            return ResourcePreloader.getRequiredVideos(name);
+        }
+
+        public List<String> getRequiredImages() {
+            return ResourcePreloader.getRequiredImages(name);
+        }
+
+        public List<String> getRequiredModels() {
+            return ResourcePreloader.getRequiredModels(name);
+        }
+
+        WallpaperScene newInstance() {
+            return supplier.get();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 🔥 WARM CACHE (escenas aparcadas)
+    // ═══════════════════════════════════════════════════════════════
+
+    // Lo que GpuMemoryRegistry no ve (programas, buffers de salida del decoder de video),
+    // por peso: LIGHT sin video, MEDIUM/HEAVY con la cola de frames del decoder
+    private static final long UNMEASURED_LIGHT_BYTES = 4L * 1024 * 1024;
+    private static final long UNMEASURED_MEDIUM_BYTES = 16L * 1024 * 1024;
+    private static final long UNMEASURED_HEAVY_BYTES = 24L * 1024 * 1024;
+
+    /**
+     * Escena pausada con sus recursos GPU intactos.
+     */
+    private static class ParkedScene {
+        final WallpaperScene scene;
+        final String name;
+        final long bytes;
+
+        ParkedScene(WallpaperScene scene, String name, long bytes) {
+            this.scene = scene;
+            this.name = name;
+            this.bytes = bytes;
+        }
+    }
+
+    // Orden de acceso: el primero es el menos reciente (LRU). Solo GL thread.
+    private final LinkedHashMap<String, ParkedScene> parkedScenes =
+            new LinkedHashMap<>(4, 0.75f, true);
+    private boolean warmCacheEnabled = true;
+    private long warmCacheBytes = 0;
+
     public SceneFactory() {
         Log.d(TAG, "🎭 SceneFactory inicializado");
     }
@@ -82,6 +164,7 @@ public class SceneFactory {
 
     public void setContext(Context ctx) {
         this.context = ctx.getApplicationContext();
+        GpuMemoryRegistry.get().attachContext(this.context);
     }
 
     public void setTextureManager(TextureManager tm) {
@@ -100,7 +183,14 @@ public class SceneFactory {
         this.screenWidth = width;
         this.screenHeight = height;
         if (currentScene != null) {
-            currentScene.setScreenSize(width, height);
+            // Puede re-crear FBOs/texturas a la nueva resolución
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.setScreenSize(width, height);
+            } finally {
+                registry.exitScene();
+            }
         }
     }
 
@@ -110,10 +200,10 @@ public class SceneFactory {
 
     /**
      * Registra una escena con un nombre
+     * @param supplier Constructor de la escena (ej: GokuScene::new)
      */
-    public void registerScene(String name, Class<? extends WallpaperScene> sceneClass) {
-        registeredScenes.put(name, sceneClass);
-        Log.d(TAG, "📝 Escena registrada: " + name);
+    public void registerScene(String name, Supplier<WallpaperScene> supplier) {
+        registeredScenes.put(name, new SceneEntry(name, supplier));
     }
 
     /**
@@ -122,48 +212,48 @@ public class SceneFactory {
      */
     public void registerDefaultScenes() {
         // 🌊 Fondo del Mar: Video wallpaper alienígena con efectos shader
-        registerScene("ABYSSIA", OceanFloorScene.class);
+        registerScene("ABYSSIA", OceanFloorScene::new);
         // 🔥 Pyralis: Portal cósmico con nubes de fuego y nave Enterprise
-        registerScene("PYRALIS", LabScene.class);
+        registerScene("PYRALIS", LabScene::new);
         // 🐉 Dragon Ball: Goku Kamehameha con energía Ki
-        registerScene("GOKU", GokuScene.class);
+        registerScene("GOKU", GokuScene::new);
         // 🌳 Adventure Time: Parallax de Hora de Aventura
-        registerScene("ADVENTURE_TIME", AdventureTimeScene.class);
+        registerScene("ADVENTURE_TIME", AdventureTimeScene::new);
         // 🚗 Neon City: Synthwave DeLorean en carretera infinita
-        registerScene("NEON_CITY", NeonCityScene.class);
+        registerScene("NEON_CITY", NeonCityScene::new);
         // ⭐ Saint Seiya: Cosmos power con caballeros del zodiaco
-        registerScene("SAINT_SEIYA", SaintSeiyaScene.class);
-        registerScene("WALKING_DEAD", WalkingDeadScene.class);
+        registerScene("SAINT_SEIYA", SaintSeiyaScene::new);
+        registerScene("WALKING_DEAD", WalkingDeadScene::new);
         // 🗡️ Zelda BOTW: Parallax con giroscopio estilo Breath of the Wild
-        registerScene("ZELDA_BOTW", ZeldaParallaxScene.class);
+        registerScene("ZELDA_BOTW", ZeldaParallaxScene::new);
         // 🦸 Superman: Man of Steel volando épicamente
-        registerScene("SUPERMAN", SupermanScene.class);
+        registerScene("SUPERMAN", SupermanScene::new);
         // ⚔️ Attack on Titan: Eren Jaeger con el Titán Colosal
-        registerScene("AOT", AOTScene.class);
+        registerScene("AOT", AOTScene::new);
         // 🕷️ Spider: Black Spider Horror con ojos rojos brillantes
-        registerScene("SPIDER", SpiderScene.class);
+        registerScene("SPIDER", SpiderScene::new);
         // 🏛️ Lost Atlantis: Templo sumergido con energía mística
-        registerScene("LOST_ATLANTIS", LostAtlantisScene.class);
+        registerScene("LOST_ATLANTIS", LostAtlantisScene::new);
         // 🦁 The Human Predator: Guerrero prehistórico vs León gigante
-        registerScene("THE_HUMAN_PREDATOR", TheHumanPredatorScene.class);
+        registerScene("THE_HUMAN_PREDATOR", TheHumanPredatorScene::new);
         // 🌙 Moonlit Cat: Gato negro bajo la luna con cielo shader
-        registerScene("MOONLIT_CAT", MoonlitCatScene.class);
+        registerScene("MOONLIT_CAT", MoonlitCatScene::new);
         // 💜 Frieza Death Beam: Frieza Final Form con Death Beam
-        registerScene("FRIEZA_DEATHBEAM", FriezaDeathBeamScene.class);
+        registerScene("FRIEZA_DEATHBEAM", FriezaDeathBeamScene::new);
         // 🥊 Ken: Side-scrolling pixel art fighter con parallax
-        registerScene("KEN", KenScene.class);
+        registerScene("KEN", KenScene::new);
         // 🦂 Scorpion: Mortal Kombat fire ninja
-        registerScene("SCORPION", ScorpionScene.class);
+        registerScene("SCORPION", ScorpionScene::new);
         // 🚂 Tren Nocturno: Pixel art night train
-        registerScene("TREN_NOCTURNO", TrenNocturnoScene.class);
+        registerScene("TREN_NOCTURNO", TrenNocturnoScene::new);
         // 👁️ The Eye: Mysterious iris
-        registerScene("THE_EYE", TheEyeScene.class);
+        registerScene("THE_EYE", TheEyeScene::new);
         // 🐱 Gatito: Cute cat animation
-        registerScene("GATITO", GatitoScene.class);
+        registerScene("GATITO", GatitoScene::new);
         // 🎧 Gatito DJ: Dancing DJ cat
-        registerScene("GATITO_DJ", GatitoDJScene.class);
+        registerScene("GATITO_DJ", GatitoDJScene::new);
         // 🏙️ Pixel City: Retro pixel art city
-        registerScene("PIXEL_CITY", PixelCityScene.class);
+        registerScene("PIXEL_CITY", PixelCityScene::new);
 
         Log.d(TAG, "🎭 " + registeredScenes.size() + " escenas registradas");
     }
@@ -178,6 +268,13 @@ public class SceneFactory {
         return registeredScenes.containsKey(name);
     }
 
+    /**
+     * Entrada del registro (metadata sin cargar la clase), o null
+     */
+    public SceneEntry getSceneEntry(String name) {
+        return registeredScenes.get(name);
+    }
+
     /**
      * Obtiene los nombres de todas las escenas registradas
      */
@@ -206,44 +303,61 @@ public class SceneFactory {
             return currentScene;
         }
 
+        // 🔥 ¿Está aparcada? Solo hay que reanudarla
+        ParkedScene parked = parkedScenes.remove(sceneName);
+        if (parked != null) {
+            return unparkScene(parked);
+        }
+
         Log.d(TAG, "╔════════════════════════════════════════╗");
         Log.d(TAG, "║   🏭 CREANDO ESCENA                    ║");
         Log.d(TAG, "║   " + sceneName);
         Log.d(TAG, "╚════════════════════════════════════════╝");
 
-        // Destruir escena actual
-        destroyCurrentScene();
+        // Aparcar (o destruir) escena actual
+        parkCurrentScene();
+
+        if (textureManager != null) {
+            textureManager.setTextureOwner(sceneName);
+        }
 
         // Dynamic scene handling: DYN_IMG_* and DYN_VID_* prefixes
         if (sceneName.startsWith("DYN_IMG_") || sceneName.startsWith("DYN_VID_")) {
             return createDynamicScene(sceneName);
         }
 
-        // Buscar clase de la escena
-        Class<? extends WallpaperScene> sceneClass = registeredScenes.get(sceneName);
-        if (sceneClass == null) {
+        // Buscar entrada de la escena
+        SceneEntry entry = registeredScenes.get(sceneName);
+        if (entry == null) {
             Log.e(TAG, "❌ Escena no registrada: " + sceneName);
             return null;
         }
 
         try {
-            // Crear instancia
-            WallpaperScene scene = sceneClass.getConstructor().newInstance();
+            // Crear instancia (primer uso = primera carga de la clase)
+            WallpaperScene scene = entry.newInstance();
 
             // Inyectar dependencias
             if (resourceManager != null) {
                 scene.setResourceManager(resourceManager);
             }
 
-            // Inicializar
-            scene.onCreate(context, textureManager, camera);
-            scene.setScreenSize(screenWidth, screenHeight);
+            // Inicializar (todo lo que asigne queda a nombre de la escena)
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(sceneName);
+            try {
+                scene.onCreate(context, textureManager, camera);
+                scene.setScreenSize(screenWidth, screenHeight);
+            } finally {
+                registry.exitScene();
+            }
 
             // Guardar referencia
             currentScene = scene;
             currentSceneName = sceneName;
 
             Log.d(TAG, "✅ Escena " + sceneName + " creada exitosamente");
+            saveFootprint(sceneName);
 
             // Publicar evento
             EventBus.get().publish(EventBus.SCENE_CHANGED,
@@ -279,13 +393,20 @@ public class SceneFactory {
             if (resourceManager != null) {
                 scene.setResourceManager(resourceManager);
             }
-            scene.onCreate(context, textureManager, camera);
-            scene.setScreenSize(screenWidth, screenHeight);
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(sceneName);
+            try {
+                scene.onCreate(context, textureManager, camera);
+                scene.setScreenSize(screenWidth, screenHeight);
+            } finally {
+                registry.exitScene();
+            }
 
             currentScene = scene;
             currentSceneName = sceneName;
 
             Log.d(TAG, "✅ Dynamic scene " + sceneName + " created");
+            saveFootprint(sceneName);
             EventBus.get().publish(EventBus.SCENE_CHANGED,
                 new EventBus.EventData().put("scene", sceneName));
 
@@ -303,18 +424,174 @@ public class SceneFactory {
     public void destroyCurrentScene() {
         if (currentScene != null) {
             Log.d(TAG, "🗑️ Destruyendo escena: " + currentSceneName);
-            currentScene.onDestroy();
+            String destroyedName = currentSceneName;
+            saveFootprint(destroyedName);
+
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(destroyedName);
+            try {
+                currentScene.onDestroy();
+            } finally {
+                registry.exitScene();
+            }
             currentScene = null;
             currentSceneName = "";
 
             // 🧠 Liberar texturas de archivo (Supabase downloads) inmediatamente.
             // Las texturas de recursos (drawable) se mantienen en caché.
+            // Si hay escenas aparcadas, solo las de esta escena y las sin dueño
+            // (las de las aparcadas siempre tienen dueño y siguen en uso).
             if (textureManager != null) {
-                textureManager.releaseFileTextures();
+                if (parkedScenes.isEmpty()) {
+                    textureManager.releaseFileTextures();
+                } else {
+                    textureManager.releaseFileTexturesOwnedBy(destroyedName);
+                    textureManager.releaseUnownedFileTextures();
+                }
+                // Lo que se cargue hasta la próxima escena no es de la destruida
+                textureManager.setTextureOwner(null);
             }
+
+            // 💧 Lo que siga vivo a nombre de la escena es una fuga
+            registry.reportLeaks(destroyedName);
         }
     }
 
+    // ═══════════════════════════════════════════════════════════════
+    // 🔥 WARM CACHE
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Habilita/deshabilita el warm cache. Al deshabilitar se destruyen las aparcadas.
+     */
+    public void setWarmCacheEnabled(boolean enabled) {
+        this.warmCacheEnabled = enabled;
+        if (!enabled) {
+            evictWarmScenes();
+        }
+    }
+
+    /**
+     * Aparca la escena actual (pausada, con recursos GPU) en vez de destruirla.
+     * Si el warm cache está deshabilitado o la escena no cabe en el presupuesto
+     * de DeviceProfile, se destruye como antes. Llamar desde el GL thread.
+     */
+    public void parkCurrentScene() {
+        if (currentScene == null) return;
+
+        long budget = warmCacheEnabled ? DeviceProfile.get().getWarmSceneBudgetBytes() : 0;
+        long bytes = estimateSceneBytes(currentSceneName);
+        if (bytes > budget) {
+            destroyCurrentScene();
+            return;
+        }
+
+        saveFootprint(currentSceneName);
+        if (!currentScene.isPaused()) {
+            pauseCurrentScene();
+        }
+        parkedScenes.put(currentSceneName, new ParkedScene(currentScene, currentSceneName, bytes));
+        warmCacheBytes += bytes;
+        Log.d(TAG, "🔥 Escena aparcada: " + currentSceneName + " (" + (bytes / 1024 / 1024) + " MB)");
+
+        currentScene = null;
+        currentSceneName = "";
+
+        // LRU: sacar las menos recientes hasta caber en el presupuesto
+        Iterator<ParkedScene> it = parkedScenes.values().iterator();
+        while (warmCacheBytes > budget && it.hasNext()) {
+            ParkedScene oldest = it.next();
+            it.remove();
+            destroyParkedScene(oldest);
+        }
+    }
+
+    /**
+     * Destruye todas las escenas aparcadas (presión de memoria, release).
+     * Llamar desde el GL thread.
+     */
+    public void evictWarmScenes() {
+        if (parkedScenes.isEmpty()) return;
+
+        Log.d(TAG, "🔥 Evictando " + parkedScenes.size() + " escenas aparcadas");
+        List<ParkedScene> evicted = new ArrayList<>(parkedScenes.values());
+        parkedScenes.clear();
+        for (ParkedScene parked : evicted) {
+            destroyParkedScene(parked);
+        }
+    }
+
+    private WallpaperScene unparkScene(ParkedScene parked) {
+        warmCacheBytes -= parked.bytes;
+        parkCurrentScene();
+
+        if (textureManager != null) {
+            textureManager.setTextureOwner(parked.name);
+        }
+
+        // Queda pausada: el director la reanuda igual que una escena recién creada
+        currentScene = parked.scene;
+        currentSceneName = parked.name;
+        setScreenSize(screenWidth, screenHeight);
+
+        Log.d(TAG, "🔥 Escena reanudada desde warm cache: " + parked.name);
+        EventBus.get().publish(EventBus.SCENE_CHANGED,
+            new EventBus.EventData().put("scene", parked.name));
+
+        return currentScene;
+    }
+
+    private void destroyParkedScene(ParkedScene parked) {
+        warmCacheBytes -= parked.bytes;
+        Log.d(TAG, "🗑️ Destruyendo escena aparcada: " + parked.name);
+        GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+        registry.enterScene(parked.name);
+        try {
+            parked.scene.onDestroy();
+        } catch (Exception e) {
+            Log.e(TAG, "Error destruyendo escena aparcada: " + e.getMessage());
+        } finally {
+            registry.exitScene();
+        }
+        if (textureManager != null) {
+            textureManager.releaseFileTexturesOwnedBy(parked.name);
+        }
+        registry.reportLeaks(parked.name);
+    }
+
+    /**
+     * Bytes GPU de la escena: medidos por GpuMemoryRegistry + baseline de lo no medido.
+     */
+    private long estimateSceneBytes(String sceneName) {
+        return measureSceneBytes(sceneName) + unmeasuredBaseline(weightOf(sceneName));
+    }
+
+    private static long unmeasuredBaseline(SceneWeight weight) {
+        switch (weight) {
+            case LIGHT:
+                return UNMEASURED_LIGHT_BYTES;
+            case HEAVY:
+                return UNMEASURED_HEAVY_BYTES;
+            default:
+                return UNMEASURED_MEDIUM_BYTES;
+        }
+    }
+
+    /**
+     * Bytes GPU medidos: lo asignado a nombre de la escena + sus file textures
+     * (esas son de TextureManager porque se comparten entre escenas).
+     */
+    private long measureSceneBytes(String sceneName) {
+        long textures = textureManager != null
+                ? textureManager.getFileTextureBytesOwnedBy(sceneName) : 0;
+        return textures + GpuMemoryRegistry.get().getSceneBytes(sceneName);
+    }
+
+    /** Huella medida → PreFlightCheck la usa la próxima vez en vez de SceneWeight */
+    private void saveFootprint(String sceneName) {
+        GpuMemoryRegistry.get().saveSceneFootprint(sceneName, measureSceneBytes(sceneName));
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // ⏯️ CICLO DE VIDA
     // ═══════════════════════════════════════════════════════════════
@@ -324,7 +601,13 @@ public class SceneFactory {
      */
     public void pauseCurrentScene() {
         if (currentScene != null) {
-            currentScene.onPause();
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.onPause();
+            } finally {
+                registry.exitScene();
+            }
         }
     }
 
@@ -333,7 +616,13 @@ public class SceneFactory {
      */
     public void resumeCurrentScene() {
         if (currentScene != null) {
-            currentScene.onResume();
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.onResume();
+            } finally {
+                registry.exitScene();
+            }
         }
     }
 
@@ -342,7 +631,13 @@ public class SceneFactory {
      */
     public void updateCurrentScene(float deltaTime) {
         if (currentScene != null) {
-            currentScene.update(deltaTime);
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.update(deltaTime);
+            } finally {
+                registry.exitScene();
+            }
         }
     }
 
@@ -350,8 +645,38 @@ public class SceneFactory {
      * Dibuja la escena actual
      */
     public void drawCurrentScene() {
+        drawCurrentScene(false);
+    }
+
+    /**
+     * 📉 Dibuja la escena sin su UI (deferUI = true) o completa.
+     * Con la escena en un target reducido, la UI se dibuja luego con drawCurrentSceneUI().
+     */
+    public void drawCurrentScene(boolean deferUI) {
+        if (currentScene != null) {
+            currentScene.setUIDeferred(deferUI);
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.draw();
+            } finally {
+                registry.exitScene();
+            }
+        }
+    }
+
+    /**
+     * Dibuja la UI de la escena actual (reloj, batería) a resolución nativa
+     */
+    public void drawCurrentSceneUI() {
         if (currentScene != null) {
-            currentScene.draw();
+            GpuMemoryRegistry registry = GpuMemoryRegistry.get();
+            registry.enterScene(currentSceneName);
+            try {
+                currentScene.drawUI();
+            } finally {
+                registry.exitScene();
+            }
         }
     }
 
@@ -365,6 +690,12 @@ public class SceneFactory {
         return false;
     }
 
+    private static SceneWeight weightOf(String sceneName) {
+        WallpaperItem item = WallpaperCatalog.get().getBySceneName(sceneName);
+        return item != null && item.getSceneWeight() != null
+                ? item.getSceneWeight() : SceneWeight.MEDIUM;
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // 📊 GETTERS
     // ═══════════════════════════════════════════════════════════════
@@ -392,5 +723,23 @@ public class SceneFactory {
     public String getDefaultSceneName() {
         return defaultSceneName;
     }
+
+    /**
+     * Bytes GPU estimados que retienen todas las escenas aparcadas.
+     */
+    public long getWarmCacheBytes() {
+        return warmCacheBytes;
+    }
+
+    /**
+     * Bytes por escena aparcada (copia, de menos a más reciente).
+     */
+    public Map<String, Long> getParkedSceneBytes() {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (ParkedScene parked : parkedScenes.values()) {
+            result.put(parked.name, parked.bytes);
+        }
+        return result;
+    }
 }
 
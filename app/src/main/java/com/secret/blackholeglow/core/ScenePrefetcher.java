@@ -0,0 +1,272 @@
+package com.secret.blackholeglow.core;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.StatFs;
+import android.util.Log;
+
+import com.secret.blackholeglow.NetworkUtils;
+import com.secret.blackholeglow.download.AbstractDownloadManager;
+import com.secret.blackholeglow.download.DiskCacheIndex;
+import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.video.VideoDownloadManager;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * ScenePrefetcher - Descarga especulativa del wallpaper que el usuario está mirando.
+ *
+ * Cuando un item del catálogo queda centrado (o abierto en el preview) durante
+ * DWELL_DELAY_MS, empieza a bajar sus recursos en un hilo de baja prioridad.
+ * Si el usuario se mueve a otro item, se cancela y el archivo parcial (.part)
+ * queda en disco: la descarga real de ResourcePreloader reanuda desde ahí.
+ *
+ * Cada archivo pasa por DownloadScheduler con prioridad PREFETCH: cede ante
+ * cualquier descarga FOREGROUND (se pausa y reanuda sola) y el scheduler
+ * aplica la política de red medida (solo archivos pequeños, nunca videos).
+ *
+ * POLÍTICAS:
+ * - Presupuesto de disco: máximo PREFETCH_BUDGET_BYTES entre parciales y
+ *   archivos completados por prefetch que siguen siendo especulativos (en
+ *   disco y sin usar: lo que el LRU borró o la escena activa fijó ya no cuenta)
+ * - Espacio libre mínimo: nunca deja el disco por debajo de MIN_FREE_DISK_BYTES
+ *
+ * USO:
+ *   ScenePrefetcher.get(context).onSceneFocused("GOKU");   // item centrado
+ *   ScenePrefetcher.get(context).onSceneUnfocused("GOKU"); // scroll fuera
+ *   ScenePrefetcher.get(context).cancelAll();             // empieza la carga real
+ */
+public class ScenePrefetcher {
+    private static final String TAG = "ScenePrefetcher";
+
+    private static final long DWELL_DELAY_MS = 800;                          // Tiempo mirando un item antes de prefetch
+    private static final long PREFETCH_BUDGET_BYTES = 150L * 1024 * 1024;    // 150 MB de prefetch especulativo
+    private static final long MIN_FREE_DISK_BYTES = 500L * 1024 * 1024;      // Nunca bajar de 500 MB libres
+
+    private static volatile ScenePrefetcher instance;
+
+    private final Context context;
+    private final Handler mainHandler;
+    private final Handler workerHandler;
+
+    // Estado de foco (main thread; cancelAll() también puede llegar desde el GL thread)
+    private volatile String focusedScene = null;
+    private volatile Runnable pendingDwell = null;
+    private volatile PrefetchJob currentJob = null;
+
+    // Archivos completados por prefetch, aún no usados por el usuario (solo worker thread)
+    private final List<PrefetchItem> completed = new ArrayList<>();
+
+    /**
+     * Trabajo de prefetch de una escena. Es su propia señal de cancelación.
+     */
+    private static class PrefetchJob implements AbstractDownloadManager.CancelSignal {
+        final String sceneName;
+        volatile boolean cancelled = false;
+
+        PrefetchJob(String sceneName) {
+            this.sceneName = sceneName;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+
+    /**
+     * Recurso individual a prefetchear con su manager correspondiente.
+     */
+    private static class PrefetchItem {
+        final AbstractDownloadManager manager;
+        final String fileName;
+
+        PrefetchItem(AbstractDownloadManager manager, String fileName) {
+            this.manager = manager;
+            this.fileName = fileName;
+        }
+    }
+
+    private ScenePrefetcher(Context context) {
+        this.context = context.getApplicationContext();
+        this.mainHandler = new Handler(Looper.getMainLooper());
+        HandlerThread thread = new HandlerThread("ScenePrefetcher", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        this.workerHandler = new Handler(thread.getLooper());
+    }
+
+    public static ScenePrefetcher get(Context context) {
+        if (instance == null) {
+            synchronized (ScenePrefetcher.class) {
+                if (instance == null) {
+                    instance = new ScenePrefetcher(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // API PUBLICA (main thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * El usuario está mirando esta escena (item centrado o preview abierto).
+     * Tras DWELL_DELAY_MS sin cambios, inicia el prefetch.
+     */
+    public void onSceneFocused(String sceneName) {
+        if (sceneName == null) return;
+        if (sceneName.equals(focusedScene)) return;
+
+        cancelAll();
+        focusedScene = sceneName;
+
+        pendingDwell = () -> {
+            pendingDwell = null;
+            startJob(sceneName);
+        };
+        mainHandler.postDelayed(pendingDwell, DWELL_DELAY_MS);
+    }
+
+    /**
+     * La escena salió de foco (scroll fuera, activity cerrada).
+     */
+    public void onSceneUnfocused(String sceneName) {
+        if (sceneName != null && sceneName.equals(focusedScene)) {
+            cancelAll();
+        }
+    }
+
+    /**
+     * Cancela el dwell pendiente y el prefetch en curso.
+     * Llamar antes de que empiece la descarga real para liberar los archivos.
+     */
+    public void cancelAll() {
+        Runnable dwell = pendingDwell;
+        if (dwell != null) {
+            mainHandler.removeCallbacks(dwell);
+            pendingDwell = null;
+        }
+        PrefetchJob job = currentJob;
+        if (job != null) {
+            job.cancelled = true;
+            currentJob = null;
+            Log.d(TAG, "📥 Prefetch cancelado: " + job.sceneName);
+        }
+        focusedScene = null;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // TRABAJO EN BACKGROUND
+    // ═══════════════════════════════════════════════════════════════
+
+    private void startJob(String sceneName) {
+        PrefetchJob job = new PrefetchJob(sceneName);
+        currentJob = job;
+        workerHandler.post(() -> runJob(job));
+    }
+
+    private void runJob(PrefetchJob job) {
+        if (job.cancelled) return;
+
+        if (!NetworkUtils.isNetworkAvailable(context)) {
+            Log.d(TAG, "📥 Sin red, prefetch omitido: " + job.sceneName);
+            return;
+        }
+
+        List<PrefetchItem> items = buildItems(job.sceneName);
+        Log.d(TAG, "📥 Prefetch " + job.sceneName + ": " + items.size() + " recursos");
+
+        for (PrefetchItem item : items) {
+            if (job.cancelled) return;
+            if (item.manager.isResourceAvailable(item.fileName)) continue;
+
+            long remoteSize = item.manager.getRemoteSize(item.fileName);
+            long remaining = remoteSize > 0
+                    ? remoteSize - item.manager.getPartialBytes(item.fileName)
+                    : 0;
+
+            // 💾 Presupuesto de disco
+            if (!fitsDiskBudget(remaining)) {
+                Log.d(TAG, "💾 Fuera de presupuesto, prefetch detenido en: " + item.fileName);
+                return;
+            }
+
+            // 💸 Red medida y prioridades: las decide DownloadScheduler
+            if (item.manager.prefetchResourceSync(item.fileName, job)) {
+                completed.add(item);
+            }
+        }
+
+        if (!job.cancelled) {
+            Log.d(TAG, "📥 Prefetch terminado: " + job.sceneName);
+        }
+    }
+
+    /**
+     * Ordena los recursos de menor a mayor costo: modelos e imágenes primero
+     * (ahorran más tiempo de carga por byte), videos al final.
+     */
+    private List<PrefetchItem> buildItems(String sceneName) {
+        List<PrefetchItem> items = new ArrayList<>();
+        ModelDownloadManager models = ModelDownloadManager.getInstance(context);
+        for (String file : ResourcePreloader.getRequiredModels(sceneName)) {
+            items.add(new PrefetchItem(models, file));
+        }
+        ImageDownloadManager images = ImageDownloadManager.getInstance(context);
+        for (String file : ResourcePreloader.getRequiredImages(sceneName)) {
+            items.add(new PrefetchItem(images, file));
+        }
+        VideoDownloadManager videos = VideoDownloadManager.getInstance(context);
+        for (String file : ResourcePreloader.getRequiredVideos(sceneName)) {
+            items.add(new PrefetchItem(videos, file));
+        }
+        return items;
+    }
+
+    /**
+     * Verifica que el siguiente archivo quepa en el presupuesto del prefetch
+     * y que el disco conserve espacio libre suficiente.
+     */
+    private boolean fitsDiskBudget(long nextBytes) {
+        long partialBytes = VideoDownloadManager.getInstance(context).getTotalPartialBytes()
+                + ImageDownloadManager.getInstance(context).getTotalPartialBytes()
+                + ModelDownloadManager.getInstance(context).getTotalPartialBytes();
+        if (speculativeBytes() + partialBytes + nextBytes > PREFETCH_BUDGET_BYTES) {
+            return false;
+        }
+        try {
+            StatFs stat = new StatFs(context.getFilesDir().getAbsolutePath());
+            return stat.getAvailableBytes() - nextBytes > MIN_FREE_DISK_BYTES;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Bytes en disco de lo completado por prefetch que sigue sin usarse. Sale de
+     * la cuenta lo que DiskCacheIndex expulsó y lo que quedó fijado por la escena
+     * activa (el usuario lo instaló: ya no es especulativo).
+     */
+    private long speculativeBytes() {
+        DiskCacheIndex index = DiskCacheIndex.getInstance(context);
+        long total = 0;
+        for (Iterator<PrefetchItem> it = completed.iterator(); it.hasNext(); ) {
+            PrefetchItem item = it.next();
+            File file = new File(item.manager.getResourceDirectory(), item.fileName);
+            if (!file.exists() || index.isPinned(item.fileName)) {
+                it.remove();
+                continue;
+            }
+            total += file.length();
+        }
+        return total;
+    }
+}
@@ -7,15 +7,19 @@ import android.opengl.Matrix;
 import android.util.Log;
 import android.view.MotionEvent;
 
+import com.secret.blackholeglow.BackgroundWorker;
 import com.secret.blackholeglow.CameraController;
 import com.secret.blackholeglow.MusicVisualizer;
 import com.secret.blackholeglow.TextureManager;
+import com.secret.blackholeglow.diagnostic.TraceRecorder;
 import com.secret.blackholeglow.sharing.LikeButton;
 import com.secret.blackholeglow.scenes.WallpaperScene;
 import com.secret.blackholeglow.systems.AspectRatioManager;
 import com.secret.blackholeglow.systems.EventBus;
 import com.secret.blackholeglow.systems.FirebaseQueueManager;
 import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+import com.secret.blackholeglow.systems.RenderContext;
 import com.secret.blackholeglow.systems.ResourceManager;
 import com.secret.blackholeglow.systems.ScreenEffectsManager;
 import com.secret.blackholeglow.systems.ScreenManager;
@@ -26,7 +30,10 @@ import com.secret.blackholeglow.models.WallpaperItem;
 import com.secret.blackholeglow.systems.UIController;
 import com.secret.blackholeglow.gl3.MatrixPool;
 import com.secret.blackholeglow.effects.BloomEffect;
+import com.secret.blackholeglow.effects.DynamicResolutionController;
+import com.secret.blackholeglow.effects.RenderGraph;
 import com.secret.blackholeglow.systems.WallpaperNotificationManager;
+import com.secret.blackholeglow.text.SdfFont;
 
 import javax.microedition.khronos.egl.EGLConfig;
 import javax.microedition.khronos.opengles.GL10;
@@ -51,6 +58,9 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     private SongSharingController songSharing;
     private TouchRouter touchRouter;
 
+    // 🎬 Estado GL de NUESTRO contexto EGL (cada engine tiene el suyo)
+    private final RenderContext renderContext = new RenderContext();
+
     // SISTEMAS COMPARTIDOS
     private CameraController camera;
     private ResourceManager resources;
@@ -60,6 +70,16 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     private EventBus eventBus;
     private FirebaseQueueManager firebaseQueue;
     private BloomEffect bloomEffect;
+    // 🧩 Post-processing declarativo: targets del pool + composite/overlays fusionados
+    private final RenderGraph renderGraph = new RenderGraph(renderContext.getRenderTargets());
+    // 📉 Escala de la escena según el tiempo de frame medido (UI siempre nativa)
+    private final DynamicResolutionController dynamicResolution = new DynamicResolutionController();
+    private boolean sceneOffscreen = false;
+    private final RenderGraph.Pass scenePass = (input, output) -> {
+        dynamicResolution.beginScene();
+        sceneFactory.drawCurrentScene(sceneOffscreen);
+        dynamicResolution.endScene();
+    };
     private ResourcePreloader resourcePreloader;
 
     // ESTADO
@@ -77,7 +97,21 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     private volatile boolean pendingSceneDestroy = false;
     private volatile boolean pendingReturnToPanel = false;
     private volatile boolean pendingSceneAutoLoad = false;  // 🔧 FIX FREEZE: Auto-cargar nueva escena después de destruir
-    private volatile boolean pendingFileTextureRelease = false;  // 🧠 Release file textures on GL thread
+    private volatile boolean pendingWarmCacheEviction = false;   // 🔥 Evict parked scenes on GL thread
+    private volatile MemoryDegradation pendingDegradation = null;  // 🧠 Etapa del MemoryGovernor a aplicar en GL thread
+    private volatile boolean visualizerSuspendedForMemory = false;  // 🧠 MemoryGovernor CRITICAL soltó el ecualizador
+
+    // 🧠 Nuestro listener del MemoryGovernor (compartido con otros engines): main thread,
+    // solo deja la etapa pendiente para onDrawFrame
+    private final MemoryGovernor.Listener memoryListener = degradation -> {
+        // 🔥 WARNING+: soltar escenas aparcadas antes de degradar la activa
+        if (degradation.level != MemoryPressureLevel.NORMAL) {
+            pendingWarmCacheEviction = true;
+        }
+        pendingDegradation = degradation;
+    };
+
+    private static final long FIREBASE_QUEUE_INIT_DELAY_MS = 3000;  // ⏳ Fuera del camino del primer frame
     private final Object pendingFlagsLock = new Object();  // 🔧 Lock for atomic multi-flag reads/writes
     private int resourceCheckRetries = 0;  // 🛡️ Contador de reintentos para verificación de recursos
     private static final int MAX_RESOURCE_CHECK_RETRIES = 300;  // ~10 segundos a 30fps
@@ -110,32 +144,62 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     @Override
     public void onSurfaceCreated(GL10 gl, EGLConfig config) {
         Log.d(TAG, "onSurfaceCreated START");
-
-        // 🎮 GLStateManager: Actor especializado en configuracion de OpenGL
-        GLStateManager.get().initialize();
-
-        initializeSharedSystems();
-        initializeActors();
-        wireActors();
-
-        // 🔧 FIX ANR: NO cargar escena en onSurfaceCreated (es muy pesado y causa ANR)
-        // En su lugar, marcar para cargar en el primer frame de onDrawFrame()
-        // donde tenemos más control sobre el timing y podemos mostrar loading
-        if (pendingSceneName != null && !pendingSceneName.isEmpty()) {
-            if (modeController.isPreviewMode()) {
-                // 🎬 Preview del sistema: auto-cargar escena directamente (sin panel)
-                Log.d(TAG, "🎬 PREVIEW: Auto-cargando escena: " + pendingSceneName);
-                pendingSceneAutoLoad = true;
-                modeController.goDirectToWallpaper();
-            } else {
-                // 🎮 Modo normal: mostrar PANEL DE CONTROL - usuario presiona PLAY
-                Log.d(TAG, "🎮 PANEL: Esperando PLAY para escena: " + pendingSceneName);
-                pendingSceneAutoLoad = false;
-                // Se queda en PANEL_MODE por defecto
+        TraceRecorder.mark("gl_surface_created");
+        TraceRecorder.begin("Director.onSurfaceCreated");
+        try {
+            // 🎬 Los get() por-contexto de este GL thread resuelven nuestro estado
+            renderContext.bind();
+
+            // 🎮 GLStateManager: Actor especializado en configuracion de OpenGL
+            // (contexto nuevo: initialize() olvida todo el cache)
+            GLStateManager.get().initialize();
+
+            // 🧱 Contexto GL nuevo: los FBOs del pool anterior ya no existen
+            renderContext.getRenderTargets().invalidate();
+            GpuMemoryRegistry.get().invalidate();
+            renderGraph.invalidate();
+            dynamicResolution.invalidate();
+            renderContext.getSdfTextures().invalidate();
+            renderContext.getTextRenderer().invalidate();
+            renderContext.getSpriteBatch().invalidate();
+
+            TraceRecorder.begin("initializeSharedSystems");
+            try {
+                initializeSharedSystems();
+            } finally {
+                TraceRecorder.end();
+            }
+            TraceRecorder.mark("shared_systems");
+            TraceRecorder.begin("initializeActors");
+            try {
+                initializeActors();
+                wireActors();
+            } finally {
+                TraceRecorder.end();
+            }
+            TraceRecorder.mark("actors");
+
+            // 🔧 FIX ANR: NO cargar escena en onSurfaceCreated (es muy pesado y causa ANR)
+            // En su lugar, marcar para cargar en el primer frame de onDrawFrame()
+            // donde tenemos más control sobre el timing y podemos mostrar loading
+            if (pendingSceneName != null && !pendingSceneName.isEmpty()) {
+                if (modeController.isPreviewMode()) {
+                    // 🎬 Preview del sistema: auto-cargar escena directamente (sin panel)
+                    Log.d(TAG, "🎬 PREVIEW: Auto-cargando escena: " + pendingSceneName);
+                    pendingSceneAutoLoad = true;
+                    modeController.goDirectToWallpaper();
+                } else {
+                    // 🎮 Modo normal: mostrar PANEL DE CONTROL - usuario presiona PLAY
+                    Log.d(TAG, "🎮 PANEL: Esperando PLAY para escena: " + pendingSceneName);
+                    pendingSceneAutoLoad = false;
+                    // Se queda en PANEL_MODE por defecto
+                }
             }
-        }
 
-        initialized = true;
+            initialized = true;
+        } finally {
+            TraceRecorder.end();
+        }
         Log.d(TAG, "onSurfaceCreated END");
     }
 
@@ -159,7 +223,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         if (panelRenderer != null) panelRenderer.setScreenSize(width, height);
         if (sceneFactory != null) sceneFactory.setScreenSize(width, height);
         if (touchRouter != null) touchRouter.setScreenSize(width, height);
-        if (bloomEffect != null) bloomEffect.resize(width, height);
+        renderGraph.setScreenSize(width, height);
         UIController.get().setScreenSize(width, height);
     }
 
@@ -170,6 +234,8 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
 
     @Override
     public void onDrawFrame(GL10 gl) {
+        TraceRecorder.onFrameStart();
+
         // Reset pools de matrices para evitar allocations en draw
         MatrixPool.reset();
 
@@ -196,20 +262,21 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
             if (doReturnToPanel) pendingReturnToPanel = false;
         }
 
-        if (paused && !doDestroy && !pendingSceneAutoLoad) {
+        if (paused && !doDestroy && !pendingSceneAutoLoad && !pendingWarmCacheEviction) {
             try { Thread.sleep(100); } catch (InterruptedException ignored) {}
             return;
         }
 
         // 🔧 FIX MEMORY LEAK: Procesar destrucción de escenas pendientes EN el GL thread
         // Esto garantiza que glDeleteTextures/glDeleteProgram funcionen correctamente
+        // 🔥 Warm cache: la escena se aparca pausada si cabe en el presupuesto de GPU
         if (doDestroy) {
             Log.d(TAG, "🗑️ [GL Thread] Destruyendo escena pendiente...");
             try {
                 if (sceneFactory != null) {
-                    sceneFactory.destroyCurrentScene();
+                    sceneFactory.parkCurrentScene();
                 }
-                Log.d(TAG, "✅ [GL Thread] Escena destruida - memoria GPU liberada");
+                Log.d(TAG, "✅ [GL Thread] Escena aparcada/destruida");
             } catch (Exception e) {
                 Log.e(TAG, "❌ Error destruyendo escena: " + e.getMessage(), e);
             }
@@ -224,15 +291,21 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
             }
         }
 
-        // 🧠 Process pending file texture release on GL thread (from onTrimMemory)
-        if (pendingFileTextureRelease) {
-            pendingFileTextureRelease = false;
-            if (textureManager != null) {
-                textureManager.releaseFileTextures();
-                Log.d(TAG, "🧠 [GL Thread] File textures released due to memory pressure");
+        // 🔥 Evict parked scenes on GL thread (MemoryGovernor WARNING+)
+        if (pendingWarmCacheEviction) {
+            pendingWarmCacheEviction = false;
+            if (sceneFactory != null) {
+                sceneFactory.evictWarmScenes();
             }
         }
 
+        // 🧠 Nueva etapa del MemoryGovernor: render targets, texturas, ecualizador y escena (GL thread)
+        MemoryDegradation degradation = pendingDegradation;
+        if (degradation != null) {
+            pendingDegradation = null;
+            applyDegradation(degradation);
+        }
+
         // 🔧 FIX ANR: Auto-cargar escena pendiente (después de destrucción O en primera carga)
         // Esto se ejecuta en onDrawFrame() en lugar de onSurfaceCreated() para evitar ANR
         if (pendingSceneAutoLoad) {
@@ -270,6 +343,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
                 resourceCheckRetries = 0;
                 Log.d(TAG, "🎬 [GL Thread] Auto-cargando escena: " + pendingSceneName);
 
+                ensureWallpaperSystems();
                 sceneFactory.createScene(pendingSceneName);
 
                 // 🛡️ GUARD: Si createScene falló, volver al panel sin crash
@@ -299,7 +373,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
                 }
 
                 // 🎵 Reconectar MusicVisualizer si no está activo
-                if (musicVisualizer != null) {
+                if (musicVisualizer != null && !visualizerSuspendedForMemory) {
                     if (!musicVisualizer.isEnabled() || !musicVisualizer.isReceivingAudio()) {
                         Log.d(TAG, "🎵 [GL Thread] Reanudando MusicVisualizer post-autoload");
                         musicVisualizer.resume();
@@ -350,16 +424,19 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
 
             // 🔴 STOP BUTTON: Dibujar como LO ÚLTIMO ABSOLUTO (solo en WALLPAPER_MODE)
             if (mode == RenderModeController.RenderMode.WALLPAPER_MODE) {
-                GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-                GLES30.glDisable(GLES30.GL_CULL_FACE);
-                GLES30.glEnable(GLES30.GL_BLEND);
-                GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-                GLES30.glViewport(0, 0, screenWidth, screenHeight);
+                GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+                GLStateManager.get().disable(GLES30.GL_CULL_FACE);
+                GLStateManager.get().enable(GLES30.GL_BLEND);
+                GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                GLStateManager.get().viewport(0, 0, screenWidth, screenHeight);
             }
 
             // Reset error counter on successful frame
             consecutiveErrors = 0;
 
+            // 🧱 Liberar render targets que llevan tiempo sin usarse
+            renderContext.getRenderTargets().endFrame();
+
         } catch (Exception e) {
             handleRenderError(e);
         }
@@ -425,7 +502,8 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     private void forceReturnToPanel() {
         try {
             Log.d(TAG, "Forzando retorno seguro al panel...");
-            SceneHealthMonitor.get().stop();
+            MemoryGovernor.get().stop(memoryListener);
+            pendingDegradation = MemoryDegradation.NONE;
 
             // Destruir escena actual
             if (sceneFactory != null) {
@@ -454,7 +532,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         if (musicVisualizer != null) {
             // 🔧 AUTO-RECOVERY: Si estamos renderizando pero el visualizer está pausado,
             // reanudarlo automáticamente (fix para callbacks desordenados de Android)
-            if (!musicVisualizer.isEnabled()) {
+            if (!musicVisualizer.isEnabled() && !visualizerSuspendedForMemory) {
                 Log.d(TAG, "🔧 Auto-recovery: MusicVisualizer pausado durante render, reanudando...");
                 musicVisualizer.resume();
             }
@@ -474,35 +552,56 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     }
 
     private void drawWallpaperMode() {
-        // ✨ Bloom: DESHABILITADO TEMPORALMENTE para debug
-        // if (bloomEffect != null && bloomEffect.isEnabled()) {
-        //     bloomEffect.beginCapture();
-        // }
+        // 🧩 Frame declarativo: el graph asigna targets y fusiona composite + overlays
+        RenderGraph graph = renderGraph;
+        graph.begin();
+        boolean bloomOn = bloomEffect != null && bloomEffect.isEnabled();
+        float sceneScale = dynamicResolution.getScale();
+        sceneOffscreen = bloomOn || sceneScale < 1f;
+        if (sceneOffscreen) {
+            // Escena a target (reducido si la GPU no da abasto) → composite re-escala a pantalla
+            RenderGraph.Resource scene = graph.create("scene", sceneScale, GLES30.GL_RGBA8, true);
+            graph.addPass("scene", null, scene, scenePass);
+            RenderGraph.Resource bloom = null;
+            if (bloomOn) {
+                bloom = graph.create("bloom", BloomEffect.OUTPUT_SCALE,
+                        bloomEffect.getOutputFormat(), false);
+                graph.addPass("bloom", scene, bloom, bloomEffect);
+            }
+            graph.addComposite(scene, bloom, bloomOn ? bloomEffect.getIntensity() : 0f,
+                    dynamicResolution.getSharpness());
+        } else {
+            // Sin post-processing: escena directo a pantalla (sin FBO)
+            sceneScale = 1f;
+            graph.addPass("scene", null, null, scenePass);
+        }
+        dynamicResolution.onSceneScale(sceneScale);
+        if (screenEffects != null) graph.addOverlays(screenEffects.getOverlays());
+        graph.execute();
 
-        // Dibujar escena 3D
-        sceneFactory.drawCurrentScene();
-        if (screenEffects != null) screenEffects.draw();
+        // Reloj/batería a resolución nativa, encima del upscale
+        if (sceneOffscreen) {
+            sceneFactory.drawCurrentSceneUI();
+        }
 
-        // ✨ Bloom: DESHABILITADO TEMPORALMENTE
-        // if (bloomEffect != null && bloomEffect.isEnabled()) {
-        //     bloomEffect.endCaptureAndApply();
-        // }
+        GLStateManager glState = GLStateManager.get();
+        dynamicResolution.update(glState.getFrameWorkMs(), glState.getFrameBudgetMs());
 
         // Song sharing UI
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
         songSharing.draw(identityMatrix, totalTime);
 
         // UI overlay
-        GLES30.glDisable(GLES30.GL_CULL_FACE);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-        GLES30.glViewport(0, 0, screenWidth, screenHeight);
+        GLStateManager.get().disable(GLES30.GL_CULL_FACE);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().viewport(0, 0, screenWidth, screenHeight);
 
         panelRenderer.drawWallpaperOverlay();
 
         // Restaurar estado
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_CULL_FACE);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_CULL_FACE);
     }
 
     private void checkLoadingComplete() {
@@ -545,8 +644,15 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         }
 
         Log.d(TAG, "Carga completada - activando wallpaper");
+        ensureWallpaperSystems();
         sceneFactory.createScene(pendingSceneName);
 
+        // 🔥 Escena recuperada del warm cache: viene pausada, reanudarla
+        WallpaperScene warmScene = sceneFactory.getCurrentScene();
+        if (warmScene != null && warmScene.isPaused()) {
+            sceneFactory.resumeCurrentScene();
+        }
+
         // 🛡️ GUARD: Si createScene falló, volver al panel sin crash
         if (!sceneFactory.hasCurrentScene()) {
             Log.e(TAG, "❌ Scene creation failed (loading): " + pendingSceneName);
@@ -577,7 +683,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
 
         // 🎵 Solo reconectar MusicVisualizer si NO está funcionando
         // ⚠️ Reconectar puede pausar Spotify, así que evitarlo si ya funciona
-        if (musicVisualizer != null) {
+        if (musicVisualizer != null && !visualizerSuspendedForMemory) {
             if (musicVisualizer.isEnabled() && musicVisualizer.isReceivingAudio()) {
                 Log.d(TAG, "🎵 MusicVisualizer ya funcionando, sin reconectar");
             } else {
@@ -664,7 +770,8 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         // Reset auto-start para que funcione de nuevo al volver al panel
         panelAutoStartTimer = 0f;
         panelAutoStartFired = false;
-        SceneHealthMonitor.get().stop();
+        MemoryGovernor.get().stop(memoryListener);
+        pendingDegradation = MemoryDegradation.NONE;
         if (modeController.stopWallpaper()) {
             // 🔧 FIX RACE CONDITION: Write both flags atomically so GL thread
             // always sees them together (avoids destroy without return → black screen)
@@ -682,37 +789,72 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         // 🧠 DeviceProfile: singleton central de deteccion de RAM (debe ser primero)
         DeviceProfile.init(context);
 
+        // 🔤 Atlas SDF de texto: se generan/cargan del disco en el worker
+        SdfFont.preload(context);
+
         camera = new CameraController();
         camera.setMode(CameraController.CameraMode.PERSPECTIVE_3_4);
         resources = ResourceManager.get();
         resources.init(context);
         textureManager = new TextureManager(context);
+        TraceRecorder.begin("TextureManager.initialize");
         textureManager.initialize();
+        TraceRecorder.end();
         // 🧠 Propagate memory tier to ResourceManager
         resources.setInSampleSize(textureManager.getDefaultInSampleSize());
         Log.d(TAG, "🧠 Memory tier: " + textureManager.getMemoryTier()
                 + ", maxDim=" + textureManager.getMaxTextureDimension());
-        // 🎵 Usar constructor con Context para habilitar auto-resume de música
-        musicVisualizer = new MusicVisualizer(context);
-        musicVisualizer.initialize();
-        screenEffects = new ScreenEffectsManager();
-        // TODO: BloomEffect deshabilitado temporalmente para debugging
-        // bloomEffect = new BloomEffect();
+        // ✨ Bloom según tier: en LOW no hay bloom (escena directo a pantalla, sin FBO extra);
+        // en MEDIUM/HIGH la profundidad de pirámide y el formato salen de Quality.forTier.
+        // Contexto GL nuevo → instancia nueva (los programas/VAO anteriores murieron con él).
+        TextureManager.MemoryTier tier = DeviceProfile.get().getMemoryTier();
+        if (tier == TextureManager.MemoryTier.LOW) {
+            bloomEffect = null;
+        } else {
+            bloomEffect = new BloomEffect(BloomEffect.Quality.forTier(tier));
+            bloomEffect.setEnabled(true);
+        }
 
         // 💥 Suscribir a eventos de efectos de pantalla via EventBus
         subscribeToScreenEffectEvents();
 
-        // Inicializar FirebaseQueueManager para batching de operaciones
-        try {
-            firebaseQueue = FirebaseQueueManager.getInstance(context);
-            Log.d(TAG, "FirebaseQueueManager inicializado");
-        } catch (Exception e) {
-            Log.w(TAG, "FirebaseQueueManager no disponible: " + e.getMessage());
-        }
+        // ⏳ LAZY: MusicVisualizer y ScreenEffectsManager solo se usan en WALLPAPER_MODE
+        // → ensureWallpaperSystems(). FirebaseQueueManager (Firestore + prefs) se inicializa
+        // en background tras el primer frame para reenviar ops pendientes de la sesión anterior.
+        BackgroundWorker.postDelayed(() -> FirebaseQueueManager.getInstance(context),
+                FIREBASE_QUEUE_INIT_DELAY_MS);
 
         Log.d(TAG, "Sistemas compartidos OK");
     }
 
+    /**
+     * ⏳ Crea los sistemas que solo necesita WALLPAPER_MODE.
+     * Se llama en el GL thread justo antes de crear la escena, no en el arranque,
+     * para que el primer frame (panel) no pague Visualizer ni shaders de efectos.
+     */
+    private void ensureWallpaperSystems() {
+        if (musicVisualizer == null) {
+            // 🎵 Usar constructor con Context para habilitar auto-resume de música
+            musicVisualizer = new MusicVisualizer(context);
+            musicVisualizer.initialize();
+            Log.d(TAG, "⏳ MusicVisualizer inicializado (lazy)");
+        }
+        if (screenEffects == null) {
+            screenEffects = new ScreenEffectsManager();
+            Log.d(TAG, "⏳ ScreenEffectsManager inicializado (lazy)");
+        }
+    }
+
+    /**
+     * FirebaseQueueManager si alguien ya lo creó (no fuerza su inicialización).
+     */
+    private FirebaseQueueManager peekFirebaseQueue() {
+        if (firebaseQueue == null) {
+            firebaseQueue = FirebaseQueueManager.peekInstance();
+        }
+        return firebaseQueue;
+    }
+
     private void initializeActors() {
         Log.d(TAG, "Inicializando 5 actores...");
         modeController = new RenderModeController();
@@ -721,7 +863,9 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
             modeController.setPreviewMode(true);
         }
         panelRenderer = new PanelModeRenderer(context);
+        TraceRecorder.begin("PanelModeRenderer.initialize");
         panelRenderer.initialize();
+        TraceRecorder.end();
 
         sceneFactory = new SceneFactory();
         sceneFactory.setContext(context);
@@ -820,8 +964,9 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
 
         // Flush Firebase queue al pausar para guardar datos pendientes
         try {
-            if (firebaseQueue != null) {
-                firebaseQueue.forceFlush();
+            FirebaseQueueManager queue = peekFirebaseQueue();
+            if (queue != null) {
+                queue.forceFlush();
             }
         } catch (Exception e) {
             Log.w(TAG, "Error en forceFlush durante pause: " + e.getMessage());
@@ -872,7 +1017,7 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
 
         // 🎵 Reanudar MusicVisualizer - SIEMPRE reconectar para evitar estados inválidos
         // después de ciclos rápidos de pause/resume del sistema Android
-        if (musicVisualizer != null) {
+        if (musicVisualizer != null && !visualizerSuspendedForMemory) {
             // SIMPLIFICADO: siempre llamar resume() que maneja reconexión automática si falla
             musicVisualizer.resume();
             Log.d(TAG, "🎵 MusicVisualizer estado después de resume: enabled=" + musicVisualizer.isEnabled());
@@ -923,78 +1068,61 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
         }
     }
 
-    /**
-     * 🧠 onTrimMemory - Responde a presión de memoria del sistema
-     * Libera recursos no esenciales para evitar OOM kill.
-     *
-     * @param level Nivel de presión de memoria (ComponentCallbacks2.TRIM_MEMORY_*)
-     */
-    public void onTrimMemory(int level) {
-        Log.w(TAG, "⚠️ onTrimMemory level=" + level);
-
-        // 🔧 FIX: Respuesta progresiva a presión de memoria
-        // Level 5 (RUNNING_MODERATE): Liberar ecualizador
-        if (level >= 5) {
-            if (musicVisualizer != null && !paused) {
-                musicVisualizer.release();
-                Log.d(TAG, "🎵 MusicVisualizer liberado (level=" + level + ")");
-            }
-        }
-
-        // Level 10 (RUNNING_LOW): Liberar texturas no usadas
-        if (level >= 10) {
-            if (resources != null) {
-                resources.releaseSceneResources();
-                Log.d(TAG, "📦 ResourceManager scene resources released (level=" + level + ")");
-            }
-            // 🧠 Schedule file texture release on GL thread
-            pendingFileTextureRelease = true;
-            Log.d(TAG, "🧠 File texture release scheduled (level=" + level + ")");
-        }
-
-        // Level 15 (RUNNING_CRITICAL): Forzar GC y log de emergencia
-        if (level >= 15) {
-            Log.e(TAG, "🚨 CRITICAL memory pressure (level=" + level + ")");
-            System.gc();
-        }
-    }
-
     public void release() {
         Log.d(TAG, "Liberando WallpaperDirector...");
         // NOTA: release() se llama durante la destrucción del servicio.
         // Aunque esto no es en el GL thread, el proceso terminará pronto
         // y todos los recursos GPU se liberarán con el contexto GL.
         // El fix de memory leak principal es para scene switches en runtime.
-        if (sceneFactory != null) sceneFactory.destroyCurrentScene();
+        // 🎬 Lo que se libere aquí es de NUESTRO contexto, no del de otro engine
+        renderContext.bind();
+        try {
+            releaseResources();
+        } finally {
+            renderContext.dispose();
+        }
+        initialized = false;
+        Log.d(TAG, "WallpaperDirector liberado");
+    }
+
+    private void releaseResources() {
+        if (sceneFactory != null) {
+            sceneFactory.evictWarmScenes();
+            sceneFactory.destroyCurrentScene();
+        }
         if (songSharing != null) songSharing.release();
         if (musicVisualizer != null) musicVisualizer.release();
         if (resources != null) resources.release();
         if (screenEffects != null) screenEffects.release();
         if (bloomEffect != null) bloomEffect.release();
+        renderGraph.release();
+        dynamicResolution.release();
+        renderContext.getRenderTargets().releaseAll();
+        renderContext.getTextRenderer().release();
+        renderContext.getSdfTextures().release();
+        renderContext.getSpriteBatch().release();
 
         // Flush final y liberar FirebaseQueueManager
+        peekFirebaseQueue();
         if (firebaseQueue != null) {
             firebaseQueue.forceFlush();
             firebaseQueue.release();
             firebaseQueue = null;
         }
 
-        SceneHealthMonitor.reset();
+        MemoryGovernor.get().stop(memoryListener);
         DeviceProfile.reset();
         ResourceManager.reset();
         UIController.reset();
         EventBus.reset();
-        GLStateManager.reset();
         ScreenManager.reset();
         AspectRatioManager.reset();
-        initialized = false;
-        Log.d(TAG, "WallpaperDirector liberado");
     }
 
     // GETTERS
     public boolean isInitialized() { return initialized; }
     public boolean isPaused() { return paused; }
-    public float getCurrentFPS() { return GLStateManager.get().getFPS(); }
+    public float getCurrentFPS() { return renderContext.getGLState().getFPS(); }
     public CameraController getCamera() { return camera; }
     public int getScreenWidth() { return screenWidth; }
     public int getScreenHeight() { return screenHeight; }
@@ -1059,15 +1187,47 @@ public class WallpaperDirector implements GLSurfaceView.Renderer {
     }
 
     /**
-     * Inicia el monitor de memoria adaptativo para la escena activa.
-     * El listener propaga cambios de nivel a la escena actual.
+     * Inicia el MemoryGovernor para la escena activa (GL thread, tras crearla).
+     * El listener corre en main thread: solo deja la etapa pendiente para onDrawFrame.
      */
     private void startMemoryMonitor() {
-        SceneHealthMonitor.get().start(level -> {
-            WallpaperScene scene = sceneFactory != null ? sceneFactory.getCurrentScene() : null;
-            if (scene != null) {
-                scene.onMemoryPressure(level);
+        MemoryGovernor governor = MemoryGovernor.get();
+        governor.start(context, memoryListener);
+        // La escena nueva arranca en la etapa vigente; su carga puede cambiarla
+        applyDegradation(governor.getDegradation());
+        governor.onSceneLoaded();
+    }
+
+    /**
+     * Aplica una etapa de degradacion (GL thread). Reversible: NONE restaura todo.
+     */
+    private void applyDegradation(MemoryDegradation degradation) {
+        renderContext.getRenderTargets().setMemoryScale(degradation.renderTargetScale);
+
+        // 📦 File textures que la escena activa no usa: caché, se recargan al pedirlas
+        if (degradation.releaseIdleTextures && textureManager != null && sceneFactory != null) {
+            textureManager.releaseFileTexturesExcept(sceneFactory.getCurrentSceneName());
+        }
+
+        // 🎵 Ecualizador: se suelta la sesión de audio y se reinicializa al bajar de etapa
+        if (musicVisualizer != null) {
+            if (degradation.suspendVisualizer && !visualizerSuspendedForMemory) {
+                visualizerSuspendedForMemory = true;
+                musicVisualizer.release();
+                musicVisualizer.resetLevels();
+                Log.d(TAG, "🎵 MusicVisualizer suspendido (" + degradation.name + ")");
+            } else if (!degradation.suspendVisualizer && visualizerSuspendedForMemory) {
+                visualizerSuspendedForMemory = false;
+                if (!paused) {
+                    musicVisualizer.resume();
+                }
+                Log.d(TAG, "🎵 MusicVisualizer restaurado (" + degradation.name + ")");
             }
-        });
+        }
+
+        WallpaperScene scene = sceneFactory != null ? sceneFactory.getCurrentScene() : null;
+        if (scene != null) {
+            scene.onMemoryPressure(degradation);
+        }
     }
 }
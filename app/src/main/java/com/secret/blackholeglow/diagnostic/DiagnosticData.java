@@ -5,12 +5,23 @@ import android.content.Context;
 import com.secret.blackholeglow.TextureManager.MemoryTier;
 import com.secret.blackholeglow.WallpaperPreferences;
 import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.core.MemoryDegradation;
+import com.secret.blackholeglow.core.MemoryGovernor;
+import com.secret.blackholeglow.download.DiskCacheIndex;
+import com.secret.blackholeglow.download.DownloadScheduler;
+import com.secret.blackholeglow.gl3.DirtyRectTexture;
+import com.secret.blackholeglow.effects.DynamicResolutionController;
+import com.secret.blackholeglow.effects.RenderTargetPool;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
 import com.secret.blackholeglow.models.SceneWeight;
 import com.secret.blackholeglow.models.WallpaperItem;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+import com.secret.blackholeglow.systems.RenderContext;
 import com.secret.blackholeglow.systems.WallpaperCatalog;
 import com.secret.blackholeglow.video.VideoDownloadManager;
+import com.secret.blackholeglow.video.VideoResumeStats;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +41,46 @@ public class DiagnosticData {
     public int maxTextureDim;
     public int inSampleSize;
 
+    // Render targets de post-processing (RenderTargetPool)
+    public long renderTargetBytes;
+    public long renderTargetPeakBytes;
+    public int renderTargetCount;
+
+    // Resolución dinámica de la escena
+    public float renderScale;
+    public float sceneGpuMs;
+    public boolean gpuTimerAvailable;
+
+    // Texturas HUD (sub-updates por rect sucio)
+    public long hudUploadCount;
+    public long hudUploadBytes;
+    public long hudFullUploadBytes;
+    public long hudLastUploadBytes;
+
+    // Cache de estado GL (último frame)
+    public int glStateChanges;
+    public int glStateSkipped;
+    public int glDrawCalls;
+    public int glTriangles;
+
+    // Memoria GPU medida (GpuMemoryRegistry, vivo)
+    public long gpuTextureBytes;
+    public int gpuTextureCount;
+    public long gpuBufferBytes;
+    public int gpuBufferCount;
+    public long gpuRenderbufferBytes;
+    public int gpuFramebufferCount;
+    public int gpuLeakCount;
+    public long gpuLeakBytes;
+
+    // MemoryGovernor (etapa de degradación vigente + memoria propia vs presupuesto)
+    public String memoryStage;
+    public float memoryRenderScale;
+    public float memoryParticleScale;
+    public int memoryMipBias;
+    public long memoryOwnBytes;
+    public long memoryBudgetBytes;
+
     // Almacenamiento
     public long imageCacheBytes;
     public int imageCacheCount;
@@ -37,6 +88,22 @@ public class DiagnosticData {
     public int videoCacheCount;
     public long modelCacheBytes;
     public int modelCacheCount;
+    // Cache de disco LRU (DiskCacheIndex)
+    public long diskCacheBudgetBytes;
+    public int diskCacheEvictedCount;
+    public long diskCacheEvictedBytes;
+    // Cola de descargas (DownloadScheduler)
+    public int downloadsRunning;
+    public int downloadsQueued;
+    public int downloadsDeduped;
+    public int downloadsPreempted;
+    public boolean downloadsMetered;
+
+    // Video: tiempo hasta el primer frame al reanudar (promedio, ms)
+    public long videoResumeSuspendMs;
+    public long videoResumeSuspendCount;
+    public long videoResumeReleaseMs;
+    public long videoResumeReleaseCount;
 
     // Wallpaper activo
     public String activeWallpaperName;
@@ -93,6 +160,47 @@ public class DiagnosticData {
         d.maxTextureDim = profile.getMaxTextureDimension();
         d.inSampleSize = profile.getDefaultInSampleSize();
 
+        // Un pool por contexto GL (preview + home): se suman
+        for (RenderContext context : RenderContext.live()) {
+            RenderTargetPool rtPool = context.getRenderTargets();
+            d.renderTargetBytes += rtPool.getMemoryBytes();
+            d.renderTargetPeakBytes += rtPool.getPeakMemoryBytes();
+            d.renderTargetCount += rtPool.getTargetCount();
+        }
+        d.renderScale = DynamicResolutionController.getActiveScale();
+        d.sceneGpuMs = DynamicResolutionController.getLastGpuMs();
+        d.gpuTimerAvailable = DynamicResolutionController.isGpuTimerAvailable();
+        d.hudUploadCount = DirtyRectTexture.getUploadCount();
+        d.hudUploadBytes = DirtyRectTexture.getUploadBytes();
+        d.hudFullUploadBytes = DirtyRectTexture.getFullUploadBytes();
+        d.hudLastUploadBytes = DirtyRectTexture.getLastUploadBytes();
+        d.glStateChanges = GLStateManager.getLastStateChanges();
+        d.glStateSkipped = GLStateManager.getLastStateSkipped();
+        d.glDrawCalls = GLStateManager.getLastDrawCalls();
+        d.glTriangles = GLStateManager.getLastTriangles();
+
+        // Un registro por contexto GL (preview + home): se suman
+        for (RenderContext context : RenderContext.live()) {
+            GpuMemoryRegistry gpu = context.getGpuMemory();
+            d.gpuTextureBytes += gpu.getLiveBytes(GpuMemoryRegistry.Category.TEXTURE);
+            d.gpuTextureCount += gpu.getLiveCount(GpuMemoryRegistry.Category.TEXTURE);
+            d.gpuBufferBytes += gpu.getLiveBytes(GpuMemoryRegistry.Category.BUFFER);
+            d.gpuBufferCount += gpu.getLiveCount(GpuMemoryRegistry.Category.BUFFER);
+            d.gpuRenderbufferBytes += gpu.getLiveBytes(GpuMemoryRegistry.Category.RENDERBUFFER);
+            d.gpuFramebufferCount += gpu.getLiveCount(GpuMemoryRegistry.Category.FRAMEBUFFER);
+            d.gpuLeakCount += gpu.getLeakedCount();
+            d.gpuLeakBytes += gpu.getLeakedBytes();
+        }
+
+        MemoryGovernor governor = MemoryGovernor.get();
+        MemoryDegradation degradation = governor.getDegradation();
+        d.memoryStage = degradation.name;
+        d.memoryRenderScale = degradation.renderTargetScale;
+        d.memoryParticleScale = degradation.particleScale;
+        d.memoryMipBias = degradation.textureMipBias;
+        d.memoryOwnBytes = governor.getLastOwnBytes();
+        d.memoryBudgetBytes = profile.getProcessMemoryBudgetBytes();
+
         // --- Almacenamiento ---
         ImageDownloadManager imgMgr = ImageDownloadManager.getInstance(context);
         VideoDownloadManager vidMgr = VideoDownloadManager.getInstance(context);
@@ -105,6 +213,24 @@ public class DiagnosticData {
         d.modelCacheBytes = mdlMgr.getCacheSize();
         d.modelCacheCount = mdlMgr.getCachedModelCount();
 
+        DiskCacheIndex cacheIndex = DiskCacheIndex.getInstance(context);
+        d.diskCacheBudgetBytes = cacheIndex.getBudgetBytes(d.getTotalCacheBytes());
+        d.diskCacheEvictedCount = cacheIndex.getEvictedCountSession();
+        d.diskCacheEvictedBytes = cacheIndex.getEvictedBytesSession();
+
+        DownloadScheduler scheduler = DownloadScheduler.getInstance(context);
+        d.downloadsRunning = scheduler.getRunningCount();
+        d.downloadsQueued = scheduler.getQueuedCount();
+        d.downloadsDeduped = scheduler.getDedupedCount();
+        d.downloadsPreempted = scheduler.getPreemptedCount();
+        d.downloadsMetered = scheduler.isMeteredNetwork();
+
+        // --- Video resume (TTFF) ---
+        d.videoResumeSuspendMs = VideoResumeStats.getAverageMs(VideoResumeStats.Path.SUSPEND);
+        d.videoResumeSuspendCount = VideoResumeStats.getCount(VideoResumeStats.Path.SUSPEND);
+        d.videoResumeReleaseMs = VideoResumeStats.getAverageMs(VideoResumeStats.Path.RELEASE);
+        d.videoResumeReleaseCount = VideoResumeStats.getCount(VideoResumeStats.Path.RELEASE);
+
         // --- Wallpaper activo ---
         String selected = WallpaperPreferences.getInstance(context).getSelectedWallpaperSync();
         d.activeWallpaperName = selected;
@@ -0,0 +1,337 @@
+package com.secret.blackholeglow.diagnostic;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import com.secret.blackholeglow.BackgroundWorker;
+import com.secret.blackholeglow.BuildConfig;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║                        TraceRecorder                             ║
+ * ║     Spans con timestamps en ns + medición del arranque en frío   ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • Ring buffer sin locks: cada evento reserva una secuencia con  ║
+ * ║    AtomicLong.getAndIncrement(); al llenarse pisa los más viejos ║
+ * ║  • Anidación por hilo con eventos B/E (formato Chrome trace)     ║
+ * ║  • Reenvía a android.os.Trace (visible en Perfetto/systrace)     ║
+ * ║  • dump() → JSON compatible con ui.perfetto.dev y chrome://tracing║
+ * ║  • Deshabilitado: una lectura de boolean por llamada             ║
+ * ║                                                                  ║
+ * ║  Arranque: onCreateEngine → primer frame presentado, con hitos   ║
+ * ║  (mark) que también quedan como eventos instantáneos del trace.  ║
+ * ║  "Presentado" = inicio del 2º onDrawFrame: GLSurfaceView hace    ║
+ * ║  eglSwapBuffers del 1º frame entre ambas llamadas.               ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * USO:
+ *   TraceRecorder.begin("initializeActors");
+ *   try { ... } finally { TraceRecorder.end(); }
+ *
+ *   TraceRecorder.begin("setupScene", getName());  // con argumento, sin concatenar
+ *
+ *   TraceRecorder.beginStartup(context);           // onCreateEngine
+ *   TraceRecorder.mark("shared_systems");          // hitos
+ *   TraceRecorder.onFrameStart();                  // inicio de onDrawFrame
+ */
+public final class TraceRecorder {
+    private static final String TAG = "TraceRecorder";
+
+    private static final int CAPACITY = 4096;             // Potencia de 2 (índice = seq & MASK)
+    private static final int MASK = CAPACITY - 1;
+    private static final byte PHASE_BEGIN = 'B';
+    private static final byte PHASE_END = 'E';
+    private static final byte PHASE_INSTANT = 'i';
+
+    // Habilitado por defecto en debug; en release solo con setEnabled(true)
+    private static volatile boolean enabled = BuildConfig.DEBUG;
+
+    // Ring de eventos (structure of arrays, preasignado)
+    private static final String[] names = new String[CAPACITY];
+    private static final String[] args = new String[CAPACITY];
+    private static final long[] timestamps = new long[CAPACITY];
+    private static final int[] tids = new int[CAPACITY];
+    private static final byte[] phases = new byte[CAPACITY];
+    // seq + 1 del evento escrito por completo en el slot (0 = vacío o a medio escribir)
+    private static final AtomicLongArray published = new AtomicLongArray(CAPACITY);
+    private static final AtomicLong cursor = new AtomicLong(0);
+
+    // tid → nombre de hilo (metadata "M" del JSON); se llena una vez por hilo
+    private static final Map<Integer, String> threadNames = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Integer> threadTid = new ThreadLocal<Integer>() {
+        @Override
+        protected Integer initialValue() {
+            int tid = Process.myTid();
+            threadNames.put(tid, Thread.currentThread().getName());
+            return tid;
+        }
+    };
+
+    // Arranque en frío (se mide aunque el trace esté deshabilitado: es un log por arranque)
+    private static final int MAX_MARKS = 16;
+    private static final String[] markNames = new String[MAX_MARKS];
+    private static final long[] markTimes = new long[MAX_MARKS];
+    private static int markCount = 0;
+    private static long startupStartMs = 0;
+    private static int startupFrames = 0;
+    private static volatile boolean startupFinished = true;
+    private static Context appContext;
+
+    private TraceRecorder() {}
+
+    public static void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 📍 SPANS
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Abre un span en el hilo actual. Cerrar con end() en el mismo hilo.
+     */
+    public static void begin(String name) {
+        if (!enabled) return;
+        record(PHASE_BEGIN, name, null);
+    }
+
+    /**
+     * Abre un span con un argumento (ej: nombre de escena) sin concatenar strings.
+     */
+    public static void begin(String name, String arg) {
+        if (!enabled) return;
+        record(PHASE_BEGIN, name, arg);
+    }
+
+    /**
+     * Cierra el span más reciente del hilo actual.
+     */
+    public static void end() {
+        if (!enabled) return;
+        record(PHASE_END, null, null);
+    }
+
+    private static void record(byte phase, String name, String arg) {
+        if (phase == PHASE_BEGIN) {
+            Trace.beginSection(name);
+        } else if (phase == PHASE_END) {
+            Trace.endSection();
+        }
+
+        long seq = cursor.getAndIncrement();
+        int slot = (int) (seq & MASK);
+        int tid = threadTid.get();
+
+        published.set(slot, 0);               // dump() ignora el slot mientras se reescribe
+        timestamps[slot] = System.nanoTime();
+        tids[slot] = tid;
+        phases[slot] = phase;
+        names[slot] = name;
+        args[slot] = arg;
+        published.lazySet(slot, seq + 1);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // ⏱️ ARRANQUE EN FRÍO
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Inicia una medición nueva (onCreateEngine). Descarta una anterior sin terminar.
+     */
+    public static synchronized void beginStartup(Context context) {
+        appContext = context.getApplicationContext();
+        startupStartMs = SystemClock.elapsedRealtime();
+        startupFrames = 0;
+        markCount = 0;
+        startupFinished = false;
+        Log.d(TAG, "⏱️ Arranque iniciado");
+    }
+
+    /**
+     * Registra un hito del arranque (tiempo desde beginStartup) y, si el trace
+     * está habilitado, un evento instantáneo en el hilo actual.
+     */
+    public static void mark(String name) {
+        if (enabled) record(PHASE_INSTANT, name, null);
+        if (startupFinished) return;
+        synchronized (TraceRecorder.class) {
+            addStartupMark(name);
+        }
+    }
+
+    /**
+     * Llamar al inicio de cada onDrawFrame. Tras el segundo frame cierra la medición.
+     * Coste en estado estable: una lectura de boolean.
+     */
+    public static void onFrameStart() {
+        if (startupFinished) return;
+        synchronized (TraceRecorder.class) {
+            if (startupFinished) return;
+            startupFrames++;
+            if (startupFrames == 1) {
+                mark("first_frame_start");
+            } else {
+                mark("first_frame_presented");
+                finishStartup();
+            }
+        }
+    }
+
+    private static void addStartupMark(String name) {
+        if (startupFinished || markCount >= MAX_MARKS) return;
+        markNames[markCount] = name;
+        markTimes[markCount] = SystemClock.elapsedRealtime() - startupStartMs;
+        markCount++;
+    }
+
+    private static void finishStartup() {
+        startupFinished = true;
+        long total = SystemClock.elapsedRealtime() - startupStartMs;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("⏱️ Cold start: ").append(total).append(" ms (onCreateEngine → primer frame)");
+        long prev = 0;
+        for (int i = 0; i < markCount; i++) {
+            sb.append("\n   ").append(markNames[i]).append(": +").append(markTimes[i])
+              .append(" ms (Δ").append(markTimes[i] - prev).append(")");
+            prev = markTimes[i];
+        }
+        Log.i(TAG, sb.toString());
+
+        // 📈 Volcar spans del arranque fuera del GL thread
+        if (enabled && appContext != null) {
+            Context ctx = appContext;
+            BackgroundWorker.post(() -> dump(ctx));
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 💾 EXPORT
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Vuelca los eventos del ring (los últimos CAPACITY) a files/traces/trace-<timestamp>.json.
+     * Abrir en ui.perfetto.dev o chrome://tracing.
+     * @return Archivo escrito, o null si no hay eventos o falló
+     */
+    public static File dump(Context context) {
+        long end = cursor.get();
+        long start = Math.max(0, end - CAPACITY);
+        if (end == start) return null;
+
+        File dir = new File(context.getFilesDir(), "traces");
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.w(TAG, "No se pudo crear " + dir);
+            return null;
+        }
+        File file = new File(dir, "trace-" + System.currentTimeMillis() + ".json");
+
+        int pid = Process.myPid();
+        int written = 0;
+        // Profundidad por hilo: un E cuyo B ya se pisó en el ring no se exporta
+        Map<Integer, Integer> depths = new HashMap<>();
+        try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
+            out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+            boolean first = true;
+
+            for (Map.Entry<Integer, String> t : threadNames.entrySet()) {
+                if (!first) out.write(',');
+                first = false;
+                out.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + pid
+                        + ",\"tid\":" + t.getKey() + ",\"args\":{\"name\":\""
+                        + escape(t.getValue()) + "\"}}");
+            }
+
+            for (long seq = start; seq < end; seq++) {
+                int slot = (int) (seq & MASK);
+                if (published.get(slot) != seq + 1) continue;  // Sin escribir o ya pisado
+                byte phase = phases[slot];
+                int tid = tids[slot];
+                long ts = timestamps[slot];
+                String name = names[slot];
+                String arg = args[slot];
+                if (published.get(slot) != seq + 1) continue;  // Pisado mientras se leía
+
+                Integer depth = depths.get(tid);
+                int d = depth != null ? depth : 0;
+                if (phase == PHASE_BEGIN) {
+                    depths.put(tid, d + 1);
+                } else if (phase == PHASE_END) {
+                    if (d == 0) continue;
+                    depths.put(tid, d - 1);
+                }
+
+                if (!first) out.write(',');
+                first = false;
+                out.write("{\"ph\":\"" + (char) phase + "\"");
+                if (name != null) {
+                    out.write(",\"name\":\"" + escape(name) + "\"");
+                }
+                if (phase == PHASE_INSTANT) {
+                    out.write(",\"s\":\"t\"");
+                }
+                // Chrome trace usa microsegundos (admite decimales)
+                out.write(",\"ts\":" + (ts / 1000L) + "." + String.format(Locale.US, "%03d", ts % 1000L));
+                out.write(",\"pid\":" + pid + ",\"tid\":" + tid);
+                if (arg != null) {
+                    out.write(",\"args\":{\"detail\":\"" + escape(arg) + "\"}");
+                }
+                out.write('}');
+                written++;
+            }
+            out.write("]}");
+        } catch (IOException e) {
+            Log.e(TAG, "Error escribiendo trace: " + e.getMessage());
+            return null;
+        }
+
+        Log.i(TAG, "📈 Trace escrito: " + file.getAbsolutePath() + " (" + written + " eventos, "
+                + start + " pisados por el ring)");
+        return file;
+    }
+
+    /**
+     * Descarta los eventos grabados. Solo llamar cuando no haya spans abiertos.
+     */
+    public static void reset() {
+        for (int i = 0; i < CAPACITY; i++) {
+            published.set(i, 0);
+            names[i] = null;
+            args[i] = null;
+        }
+        cursor.set(0);
+    }
+
+    private static String escape(String s) {
+        StringBuilder sb = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(' ');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
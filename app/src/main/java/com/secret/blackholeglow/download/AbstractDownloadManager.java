@@ -10,12 +10,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * ============================================================================
@@ -29,6 +24,12 @@ import java.util.concurrent.TimeUnit;
  *   - Verificar versiones para auto-actualización
  *   - Reportar progreso de descarga
  *   - Gestionar limpieza de cache
+ *   - Reanudar descargas parciales (.part) dejadas por el prefetch especulativo
+ *   - Bajar archivos grandes en rangos paralelos (ChunkedDownloader) si el servidor acepta Range
+ *   - Registrar uso y descargas en DiskCacheIndex (expulsión LRU con presupuesto global)
+ *
+ * Las transferencias no corren en un executor propio: pasan por el
+ * DownloadScheduler común (prioridades, límite global, deduplicación).
  *
  * SUBCLASES:
  *   - VideoDownloadManager  (videos .mp4)
@@ -51,6 +52,8 @@ public abstract class AbstractDownloadManager {
     protected static final int MAX_RETRY_ATTEMPTS = 3;         // 🛡️ Reintentos automáticos
     protected static final long RETRY_BASE_DELAY_MS = 2000;    // 🛡️ Delay base entre reintentos (2s, 4s, 8s)
     protected static final String VERSION_PREFIX = "v_";
+    protected static final String PARTIAL_SUFFIX = ".part";     // 📥 Descarga parcial reanudable (prefetch)
+    private static final String PARTIAL_PREFIX = "part_";       // Versión|ETag con que se escribió el .part
     protected static final String USER_AGENT = "Mozilla/5.0 (Linux; Android 10) BlackHoleGlow/1.0";
 
     // =========================================================================
@@ -58,11 +61,20 @@ public abstract class AbstractDownloadManager {
     // =========================================================================
     protected final Context context;
     protected final File resourceDir;
-    protected final ExecutorService executor;
     protected final SharedPreferences versionPrefs;
+    protected final DiskCacheIndex cacheIndex;
+    protected final DownloadScheduler scheduler;
 
     private volatile boolean isShutdown = false;
 
+    // 🔒 Un lock por archivo: prefetch y descarga real nunca escriben el mismo .part a la vez
+    private final java.util.concurrent.ConcurrentHashMap<String, ReentrantLock> fileLocks =
+            new java.util.concurrent.ConcurrentHashMap<>();
+
+    // ⛔ Archivos cuya última descarga la rechazó el servidor (4xx): no es un fallo de red
+    private final java.util.Set<String> rejectedDownloads =
+            java.util.concurrent.ConcurrentHashMap.newKeySet();
+
     // =========================================================================
     // MÉTODOS ABSTRACTOS - Implementar en subclases
     // =========================================================================
@@ -98,8 +110,10 @@ public abstract class AbstractDownloadManager {
         if (!resourceDir.exists()) {
             resourceDir.mkdirs();
         }
-        this.executor = Executors.newSingleThreadExecutor();
         this.versionPrefs = context.getSharedPreferences(getPreferencesName(), Context.MODE_PRIVATE);
+        this.cacheIndex = DiskCacheIndex.getInstance(context);
+        cacheIndex.register(this);
+        this.scheduler = DownloadScheduler.getInstance(context);
         // 🛡️ Limpiar temporales huérfanos de descargas interrumpidas (apagón, crash, etc.)
         cleanOrphanedTempFiles();
         Log.d(getTag(), getResourceTypeName() + " storage dir: " + resourceDir.getAbsolutePath());
@@ -156,6 +170,7 @@ public abstract class AbstractDownloadManager {
         if (!isResourceAvailable(fileName)) {
             return null;
         }
+        cacheIndex.touch(this, fileName);
         return new File(resourceDir, fileName).getAbsolutePath();
     }
 
@@ -164,9 +179,18 @@ public abstract class AbstractDownloadManager {
     // =========================================================================
 
     /**
-     * Descarga un recurso en background.
+     * Descarga un recurso en background con prioridad FOREGROUND.
      */
     public void downloadResource(String fileName, DownloadCallback callback) {
+        downloadResource(fileName, DownloadScheduler.Priority.FOREGROUND, callback);
+    }
+
+    /**
+     * Descarga un recurso en background vía DownloadScheduler.
+     * El callback llega desde un hilo del scheduler.
+     */
+    public void downloadResource(String fileName, DownloadScheduler.Priority priority,
+                                 DownloadCallback callback) {
         if (isShutdown) {
             Log.w(getTag(), "Manager cerrado, no se puede descargar: " + fileName);
             if (callback != null) {
@@ -184,58 +208,181 @@ public abstract class AbstractDownloadManager {
             return;
         }
 
-        executor.execute(() -> {
+        scheduler.submit(this, fileName, priority, callback);
+    }
+
+    // =========================================================================
+    // DESCARGA SÍNCRONA
+    // =========================================================================
+
+    /**
+     * Descarga un recurso de forma SÍNCRONA (bloquea el thread) con prioridad FOREGROUND.
+     * Usar solo desde background threads como ResourcePreloader.
+     *
+     * @return true si la descarga fue exitosa o el recurso ya existía
+     */
+    public boolean downloadResourceSync(String fileName, SyncProgressCallback callback) {
+        return downloadResourceSync(fileName, callback, DownloadScheduler.Priority.FOREGROUND);
+    }
+
+    /**
+     * Descarga SÍNCRONA con la prioridad indicada: el hilo espera su turno en
+     * DownloadScheduler (o el resultado de otra descarga del mismo archivo).
+     */
+    public boolean downloadResourceSync(String fileName, SyncProgressCallback callback,
+                                        DownloadScheduler.Priority priority) {
+        // Si ya existe, retornar éxito
+        if (isResourceAvailable(fileName)) {
+            Log.d(getTag(), getResourceTypeName() + " ya disponible: " + fileName);
+            return true;
+        }
+
+        if (getRemoteUrl(fileName) == null) {
+            Log.e(getTag(), getResourceTypeName() + " no configurado: " + fileName);
+            return false;
+        }
+
+        return scheduler.runSync(this, fileName, priority, callback, null);
+    }
+
+    /**
+     * Transferencia completa ejecutada por DownloadScheduler (hilo del pool).
+     * 🛡️ Retry con exponential backoff (2s, 4s, 8s).
+     */
+    boolean runScheduledDownload(String fileName, ChunkedDownloader.ProgressListener listener) {
+        if (isResourceAvailable(fileName)) {
+            return true;
+        }
+        String remoteUrl = getRemoteUrl(fileName);
+        if (remoteUrl == null) {
+            return false;
+        }
+
+        rejectedDownloads.remove(fileName);
+        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
             try {
-                downloadInternal(fileName, remoteUrl, callback);
-            } catch (IOException e) {
-                Log.e(getTag(), "Error de red descargando " + fileName + ": " + e.getMessage());
-                if (callback != null) {
-                    callback.onError("Error de red: " + e.getMessage());
+                downloadSyncInternal(fileName, remoteUrl, listener);
+                saveVersion(fileName);
+                return true;
+            } catch (HttpStatusException e) {
+                if (e.isClientError()) {
+                    // 4xx: reintentar la misma URL no sirve
+                    Log.e(getTag(), "❌ Servidor rechazó " + fileName + ": " + e.getMessage());
+                    rejectedDownloads.add(fileName);
+                    return false;
                 }
+                if (!backOffBeforeRetry(fileName, attempt, e)) return false;
+            } catch (IOException e) {
+                if (!backOffBeforeRetry(fileName, attempt, e)) return false;
             } catch (Exception e) {
                 Log.e(getTag(), "Error inesperado descargando " + fileName, e);
-                if (callback != null) {
-                    callback.onError("Error inesperado: " + e.getMessage());
-                }
+                return false;
             }
-        });
+        }
+
+        Log.e(getTag(), "❌ Descarga falló después de " + MAX_RETRY_ATTEMPTS + " intentos: " + fileName);
+        return false;
     }
 
     /**
-     * Lógica interna de descarga (Template Method).
+     * Espera el backoff del intento (2s, 4s, 8s).
+     * @return false si el hilo fue interrumpido: abandonar la descarga
      */
-    private void downloadInternal(String fileName, String urlStr, DownloadCallback callback)
-            throws IOException {
-        Log.d(getTag(), "Descargando: " + urlStr);
+    private boolean backOffBeforeRetry(String fileName, int attempt, IOException e) {
+        Log.e(getTag(), "❌ Intento " + attempt + "/" + MAX_RETRY_ATTEMPTS +
+                " falló para " + fileName + ": " + e.getMessage());
+        if (attempt < MAX_RETRY_ATTEMPTS) {
+            long delay = RETRY_BASE_DELAY_MS * (1L << (attempt - 1)); // 2s, 4s, 8s
+            Log.d(getTag(), "🔄 Reintentando en " + (delay / 1000) + "s...");
+            try { Thread.sleep(delay); } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * true si la última descarga de este archivo falló porque el servidor la
+     * rechazó (4xx). Los fallos de red/timeout/5xx devuelven false.
+     */
+    protected boolean wasRejectedByServer(String fileName) {
+        return rejectedDownloads.contains(fileName);
+    }
+
+    private void downloadSyncInternal(String fileName, String urlStr,
+                                      ChunkedDownloader.ProgressListener listener) throws IOException {
+        // 🔒 Si el prefetch está escribiendo este archivo, esperar a que suelte el lock
+        ReentrantLock lock = getFileLock(fileName);
+        lock.lock();
+        try {
+            // Otra descarga del mismo archivo terminó mientras esperábamos el lock
+            // (p. ej. un runSync anidado que el scheduler corrió en línea).
+            // La versión vieja ya la borró isResourceAvailable antes de llegar aquí.
+            if (new File(resourceDir, fileName).exists()) {
+                Log.d(getTag(), "Ya descargado mientras esperaba: " + fileName);
+                return;
+            }
+            downloadSyncLocked(fileName, urlStr, listener);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void downloadSyncLocked(String fileName, String urlStr,
+                                    ChunkedDownloader.ProgressListener listener) throws IOException {
+        Log.d(getTag(), "Descargando (sync): " + urlStr);
 
         File tempFile = new File(resourceDir, fileName + ".tmp");
         File finalFile = new File(resourceDir, fileName);
 
+        // 📥 Adoptar descarga parcial del prefetch (si existe) para reanudar con Range
+        String partialEtag = getPartialEtag(fileName);
+        long resumeFrom = adoptPartialFile(fileName, tempFile);
+
         HttpURLConnection connection = null;
         InputStream input = null;
         FileOutputStream output = null;
 
         try {
+            // ⚡ Sin parcial que reanudar: archivo grande en partes paralelas
+            if (resumeFrom == 0 && tryChunkedDownload(fileName, urlStr, tempFile, listener)) {
+                promoteToFinal(fileName, tempFile, finalFile);
+                Log.d(getTag(), "✅ Descarga multi-parte sync completada: " + fileName
+                        + " (" + formatSize(finalFile.length()) + ")");
+                return;
+            }
+
             URL url = new URL(urlStr);
             connection = (HttpURLConnection) url.openConnection();
             connection.setConnectTimeout(CONNECTION_TIMEOUT_MS);
             connection.setReadTimeout(READ_TIMEOUT_MS);
             connection.setRequestProperty("User-Agent", USER_AGENT);
+            if (resumeFrom > 0) {
+                connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+                // Si el archivo cambió en el servidor, responde 200 con el archivo completo
+                if (partialEtag != null) connection.setRequestProperty("If-Range", partialEtag);
+            }
             connection.connect();
 
             int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new IOException("HTTP error: " + responseCode);
+            boolean resumed = resumeFrom > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+            if (responseCode != HttpURLConnection.HTTP_OK && !resumed) {
+                throw new HttpStatusException(responseCode);
+            }
+            if (resumed) {
+                Log.d(getTag(), "📥 Reanudando desde " + formatSize(resumeFrom) + ": " + fileName);
             }
 
-            long totalBytes = connection.getContentLength();
-            Log.d(getTag(), "Tamaño total: " + formatSize(totalBytes));
-
+            long offset = resumed ? resumeFrom : 0;
+            long contentLength = connection.getContentLengthLong();
+            long totalBytes = contentLength > 0 ? contentLength + offset : -1;
             input = connection.getInputStream();
-            output = new FileOutputStream(tempFile);
+            // Servidor sin soporte de Range (200) → reescribir desde cero
+            output = new FileOutputStream(tempFile, resumed);
 
             byte[] buffer = new byte[BUFFER_SIZE];
-            long downloadedBytes = 0;
+            long downloadedBytes = offset;
             int bytesRead;
             int lastProgress = 0;
 
@@ -243,56 +390,25 @@ public abstract class AbstractDownloadManager {
                 output.write(buffer, 0, bytesRead);
                 downloadedBytes += bytesRead;
 
-                if (totalBytes > 0 && callback != null) {
+                if (totalBytes > 0 && listener != null) {
                     int progress = (int) (downloadedBytes * 100 / totalBytes);
                     if (progress != lastProgress) {
                         lastProgress = progress;
-                        callback.onProgress(progress, downloadedBytes, totalBytes);
+                        listener.onProgress(downloadedBytes, totalBytes);
                     }
                 }
             }
 
-            // CRÍTICO: flush + sync para garantizar escritura a disco
+            // CRÍTICO: flush + sync
             output.flush();
             output.getFD().sync();
             output.close();
             output = null;
 
-            // 🛡️ Verificar tamaño antes de promover archivo temporal
-            long expectedSize = getExpectedSize(fileName);
-            long actualSize = tempFile.length();
-            if (expectedSize > 0 && actualSize < expectedSize * 0.95) {
-                throw new IOException("Descarga incompleta: " + actualSize + "/" + expectedSize +
-                        " bytes (" + (actualSize * 100 / expectedSize) + "%)");
-            }
-
-            // 🛡️ Renombrar a archivo final con fallback a copy+delete
-            if (finalFile.exists()) {
-                finalFile.delete();
-            }
-            if (!tempFile.renameTo(finalFile)) {
-                // Fallback: copy + delete (rename falla en algunos filesystems)
-                Log.w(getTag(), "rename() falló, intentando copy+delete...");
-                copyFile(tempFile, finalFile);
-                tempFile.delete();
-            }
-
-            // 🛡️ Verificación final: archivo existe, tiene contenido, tamaño correcto
-            if (!finalFile.exists() || finalFile.length() == 0) {
-                throw new IOException("Archivo no disponible después de guardar");
-            }
-            if (expectedSize > 0 && finalFile.length() < expectedSize * 0.95) {
-                finalFile.delete();
-                throw new IOException("Archivo corrupto post-rename: " + finalFile.length() + "/" + expectedSize);
-            }
-
-            // Guardar versión
-            saveVersion(fileName);
+            promoteToFinal(fileName, tempFile, finalFile);
 
-            Log.d(getTag(), "✅ Descarga completada: " + fileName + " (" + formatSize(finalFile.length()) + ")");
-            if (callback != null) {
-                callback.onComplete(finalFile.getAbsolutePath());
-            }
+            Log.d(getTag(), "✅ Descarga sync completada: " + fileName +
+                    " (" + formatSize(finalFile.length()) + ")");
 
         } finally {
             closeQuietly(output);
@@ -303,61 +419,71 @@ public abstract class AbstractDownloadManager {
     }
 
     // =========================================================================
-    // DESCARGA SÍNCRONA
+    // PREFETCH ESPECULATIVO (baja prioridad, cancelable, reanudable)
     // =========================================================================
 
     /**
-     * Descarga un recurso de forma SÍNCRONA (bloquea el thread).
-     * Usar solo desde background threads como ResourcePreloader.
+     * Descarga un recurso en modo prefetch: un solo intento, cancelable entre
+     * bloques y escribiendo a un archivo {@code .part} que sobrevive a la
+     * cancelación. Si la descarga real llega después, reanuda desde ese .part
+     * con un request Range en vez de empezar de cero.
      *
-     * @return true si la descarga fue exitosa o el recurso ya existía
+     * Corre con prioridad PREFETCH en DownloadScheduler: cede ante cualquier
+     * descarga FOREGROUND y respeta la política de red medida.
+     * Si otra descarga ya tiene el lock del archivo, no espera: retorna false.
+     *
+     * @return true solo si el recurso quedó completo y promovido
      */
-    public boolean downloadResourceSync(String fileName, SyncProgressCallback callback) {
-        // Si ya existe, retornar éxito
+    public boolean prefetchResourceSync(String fileName, CancelSignal signal) {
+        if (isShutdown || isResourceAvailable(fileName)) {
+            return !isShutdown;
+        }
+
+        if (getRemoteUrl(fileName) == null) {
+            return false;
+        }
+
+        return scheduler.runSync(this, fileName, DownloadScheduler.Priority.PREFETCH, null, signal);
+    }
+
+    /**
+     * Prefetch ejecutado por DownloadScheduler; la señal cubre tanto la
+     * cancelación del dueño como la pausa por un FOREGROUND.
+     */
+    boolean runScheduledPrefetch(String fileName, CancelSignal signal) {
         if (isResourceAvailable(fileName)) {
-            Log.d(getTag(), getResourceTypeName() + " ya disponible: " + fileName);
             return true;
         }
-
         String remoteUrl = getRemoteUrl(fileName);
         if (remoteUrl == null) {
-            Log.e(getTag(), getResourceTypeName() + " no configurado: " + fileName);
             return false;
         }
 
-        // 🛡️ Retry con exponential backoff (2s, 4s, 8s)
-        for (int attempt = 1; attempt <= MAX_RETRY_ATTEMPTS; attempt++) {
-            try {
-                downloadSyncInternal(fileName, remoteUrl, callback);
-                saveVersion(fileName);
-                return true;
-            } catch (IOException e) {
-                Log.e(getTag(), "❌ Intento " + attempt + "/" + MAX_RETRY_ATTEMPTS +
-                        " falló para " + fileName + ": " + e.getMessage());
-                if (attempt < MAX_RETRY_ATTEMPTS) {
-                    long delay = RETRY_BASE_DELAY_MS * (1L << (attempt - 1)); // 2s, 4s, 8s
-                    Log.d(getTag(), "🔄 Reintentando en " + (delay / 1000) + "s...");
-                    try { Thread.sleep(delay); } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return false;
-                    }
-                }
-            } catch (Exception e) {
-                Log.e(getTag(), "Error inesperado descargando " + fileName, e);
-                return false;
-            }
+        ReentrantLock lock = getFileLock(fileName);
+        if (!lock.tryLock()) {
+            Log.d(getTag(), "📥 Prefetch omitido (descarga en curso): " + fileName);
+            return false;
+        }
+        try {
+            return prefetchLocked(fileName, remoteUrl, signal);
+        } catch (IOException e) {
+            // El .part se conserva: la descarga real reanudará desde ahí
+            Log.w(getTag(), "📥 Prefetch interrumpido " + fileName + ": " + e.getMessage());
+            return false;
+        } finally {
+            lock.unlock();
         }
-
-        Log.e(getTag(), "❌ Descarga falló después de " + MAX_RETRY_ATTEMPTS + " intentos: " + fileName);
-        return false;
     }
 
-    private void downloadSyncInternal(String fileName, String urlStr, SyncProgressCallback callback)
+    private boolean prefetchLocked(String fileName, String urlStr, CancelSignal signal)
             throws IOException {
-        Log.d(getTag(), "Descargando (sync): " + urlStr);
-
-        File tempFile = new File(resourceDir, fileName + ".tmp");
+        File partFile = new File(resourceDir, fileName + PARTIAL_SUFFIX);
         File finalFile = new File(resourceDir, fileName);
+        if (partFile.exists() && !isPartialCurrent(fileName)) {
+            discardPartial(fileName, partFile);
+        }
+        long resumeFrom = partFile.exists() ? partFile.length() : 0;
+        String partialEtag = resumeFrom > 0 ? getPartialEtag(fileName) : null;
 
         HttpURLConnection connection = null;
         InputStream input = null;
@@ -369,79 +495,86 @@ public abstract class AbstractDownloadManager {
             connection.setConnectTimeout(CONNECTION_TIMEOUT_MS);
             connection.setReadTimeout(READ_TIMEOUT_MS);
             connection.setRequestProperty("User-Agent", USER_AGENT);
+            if (resumeFrom > 0) {
+                connection.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+                if (partialEtag != null) connection.setRequestProperty("If-Range", partialEtag);
+            }
             connection.connect();
 
             int responseCode = connection.getResponseCode();
-            if (responseCode != HttpURLConnection.HTTP_OK) {
-                throw new IOException("HTTP error: " + responseCode);
+            boolean resumed = resumeFrom > 0 && responseCode == HttpURLConnection.HTTP_PARTIAL;
+            if (responseCode != HttpURLConnection.HTTP_OK && !resumed) {
+                throw new HttpStatusException(responseCode);
+            }
+            if (!resumed) {
+                // .part nuevo (o el servidor ignoró el Range): registrar de qué versión es
+                savePartialIdentity(fileName, connection.getHeaderField("ETag"));
             }
 
-            long totalBytes = connection.getContentLength();
             input = connection.getInputStream();
-            output = new FileOutputStream(tempFile);
+            output = new FileOutputStream(partFile, resumed);
 
             byte[] buffer = new byte[BUFFER_SIZE];
-            long downloadedBytes = 0;
             int bytesRead;
-            int lastProgress = 0;
-
             while ((bytesRead = input.read(buffer)) != -1) {
                 output.write(buffer, 0, bytesRead);
-                downloadedBytes += bytesRead;
-
-                if (totalBytes > 0 && callback != null) {
-                    int progress = (int) (downloadedBytes * 100 / totalBytes);
-                    if (progress != lastProgress) {
-                        lastProgress = progress;
-                        callback.onProgress(progress);
-                    }
+                if (signal != null && signal.isCancelled()) {
+                    output.flush();
+                    Log.d(getTag(), "📥 Prefetch cancelado, parcial conservado: " + fileName +
+                            " (" + formatSize(partFile.length()) + ")");
+                    return false;
                 }
             }
 
-            // CRÍTICO: flush + sync
             output.flush();
             output.getFD().sync();
             output.close();
             output = null;
 
-            // 🛡️ Verificar tamaño antes de promover
-            long expectedSize = getExpectedSize(fileName);
-            long actualSize = tempFile.length();
-            if (expectedSize > 0 && actualSize < expectedSize * 0.95) {
-                throw new IOException("Descarga incompleta: " + actualSize + "/" + expectedSize +
-                        " bytes (" + (actualSize * 100 / expectedSize) + "%)");
-            }
-
-            // 🛡️ Renombrar con fallback a copy+delete
-            if (finalFile.exists()) {
-                finalFile.delete();
-            }
-            if (!tempFile.renameTo(finalFile)) {
-                Log.w(getTag(), "rename() falló, intentando copy+delete...");
-                copyFile(tempFile, finalFile);
-                tempFile.delete();
-            }
-
-            // 🛡️ Verificación final post-rename
-            if (!finalFile.exists() || finalFile.length() == 0) {
-                throw new IOException("Archivo no disponible después de guardar");
-            }
-            if (expectedSize > 0 && finalFile.length() < expectedSize * 0.95) {
-                finalFile.delete();
-                throw new IOException("Archivo corrupto post-rename: " + finalFile.length() + "/" + expectedSize);
+            try {
+                promoteToFinal(fileName, partFile, finalFile);
+            } catch (IOException e) {
+                // Parcial completo pero inválido: no sirve para reanudar
+                partFile.delete();
+                throw e;
             }
-
-            Log.d(getTag(), "✅ Descarga sync completada: " + fileName +
-                    " (" + formatSize(finalFile.length()) + ")");
+            saveVersion(fileName);
+            versionPrefs.edit().remove(PARTIAL_PREFIX + fileName).apply();
+            Log.d(getTag(), "📥 Prefetch completado: " + fileName + " (" + formatSize(finalFile.length()) + ")");
+            return true;
 
         } finally {
             closeQuietly(output);
             closeQuietly(input);
             if (connection != null) connection.disconnect();
-            if (tempFile.exists()) tempFile.delete();
         }
     }
 
+    /** Bytes ya descargados por el prefetch para este archivo (0 si no hay parcial). */
+    public long getPartialBytes(String fileName) {
+        File partFile = new File(resourceDir, fileName + PARTIAL_SUFFIX);
+        return partFile.exists() ? partFile.length() : 0;
+    }
+
+    /** Suma de todos los archivos .part del directorio (presupuesto de disco del prefetch). */
+    public long getTotalPartialBytes() {
+        long size = 0;
+        File[] files = resourceDir.listFiles();
+        if (files != null) {
+            for (File f : files) {
+                if (f.getName().endsWith(PARTIAL_SUFFIX)) {
+                    size += f.length();
+                }
+            }
+        }
+        return size;
+    }
+
+    /** Tamaño remoto esperado del recurso según su Config (0 si se desconoce). */
+    public long getRemoteSize(String fileName) {
+        return getExpectedSize(fileName);
+    }
+
     // =========================================================================
     // GESTIÓN DE CACHE
     // =========================================================================
@@ -451,16 +584,52 @@ public abstract class AbstractDownloadManager {
         return resourceDir;
     }
 
-    /** Elimina un recurso del storage y su versión. */
+    /** Elimina un recurso del storage (final + .part del prefetch) y sus versiones. */
     public void deleteResource(String fileName) {
         File file = new File(resourceDir, fileName);
         if (file.exists()) {
             file.delete();
         }
-        versionPrefs.edit().remove(VERSION_PREFIX + fileName).apply();
+        // Sin esto una reanudación posterior validaría contra metadatos viejos
+        File partial = new File(resourceDir, fileName + PARTIAL_SUFFIX);
+        if (partial.exists()) {
+            partial.delete();
+        }
+        versionPrefs.edit()
+                .remove(VERSION_PREFIX + fileName)
+                .remove(PARTIAL_PREFIX + fileName)
+                .apply();
+        cacheIndex.forget(this, fileName);
         Log.d(getTag(), "Eliminado: " + fileName);
     }
 
+    /**
+     * 🗑️ Expulsión LRU desde DiskCacheIndex: borra archivo final + .part y su versión.
+     * Si el recurso se está descargando (lock tomado) no se toca.
+     *
+     * @return bytes liberados, 0 si estaba ocupado o no existía
+     */
+    long evictResource(String fileName) {
+        ReentrantLock lock = getFileLock(fileName);
+        if (!lock.tryLock()) return 0;
+        try {
+            long freed = 0;
+            File file = new File(resourceDir, fileName);
+            long size = file.length();
+            if (file.exists() && file.delete()) freed += size;
+            File partial = new File(resourceDir, fileName + PARTIAL_SUFFIX);
+            size = partial.length();
+            if (partial.exists() && partial.delete()) freed += size;
+            versionPrefs.edit()
+                    .remove(VERSION_PREFIX + fileName)
+                    .remove(PARTIAL_PREFIX + fileName)
+                    .apply();
+            return freed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /** Elimina todos los recursos del cache y sus versiones. */
     public void clearCache() {
         File[] files = resourceDir.listFiles();
@@ -491,72 +660,20 @@ public abstract class AbstractDownloadManager {
         return files != null ? files.length : 0;
     }
 
-    /**
-     * Elimina todos los recursos EXCEPTO los especificados.
-     * Usado para limpiar recursos de escenas anteriores al cambiar de wallpaper.
-     *
-     * @param keepFiles Lista de nombres de archivo a mantener
-     * @return Cantidad de bytes liberados
-     */
-    public long deleteAllExcept(List<String> keepFiles) {
-        long freedBytes = 0;
-        File[] files = resourceDir.listFiles();
-
-        if (files == null || files.length == 0) {
-            Log.d(getTag(), "No hay recursos para limpiar");
-            return 0;
-        }
-
-        Set<String> keepSet = new HashSet<>(keepFiles);
-        int deletedCount = 0;
-
-        for (File file : files) {
-            String fileName = file.getName();
-            // Ignorar archivos temporales
-            if (fileName.endsWith(".tmp")) {
-                file.delete();
-                continue;
-            }
-
-            // Si NO está en la lista de mantener, eliminar
-            if (!keepSet.contains(fileName)) {
-                long fileSize = file.length();
-                if (file.delete()) {
-                    freedBytes += fileSize;
-                    deletedCount++;
-                    versionPrefs.edit().remove(VERSION_PREFIX + fileName).apply();
-                    Log.d(getTag(), "Eliminado: " + fileName + " (" + formatSize(fileSize) + ")");
-                }
-            }
-        }
-
-        Log.d(getTag(), "Limpieza completada: " + deletedCount + " archivos eliminados, " +
-                   formatSize(freedBytes) + " liberados");
-        return freedBytes;
-    }
-
     // =========================================================================
     // SHUTDOWN - Liberar recursos
     // =========================================================================
 
     /**
-     * Cierra el ExecutorService y libera recursos.
+     * Rechaza nuevas descargas y descarta las que este manager tenga en cola
+     * en el DownloadScheduler (las que ya corren terminan solas).
      * Llamar cuando la app se cierre o el manager ya no sea necesario.
      */
     public void shutdown() {
         if (isShutdown) return;
         isShutdown = true;
 
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
-                executor.shutdownNow();
-                Log.w(getTag(), "Executor forzado a cerrar");
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            Thread.currentThread().interrupt();
-        }
+        scheduler.cancelQueued(this);
         Log.d(getTag(), "Manager cerrado correctamente");
     }
 
@@ -569,6 +686,118 @@ public abstract class AbstractDownloadManager {
         // ⚡ FIX ANR: apply() en vez de commit() - no bloquea el thread
         versionPrefs.edit().putInt(VERSION_PREFIX + fileName, version).apply();
         Log.d(getTag(), "Versión " + version + " guardada para: " + fileName);
+        // Recurso nuevo en disco: cuenta como uso y puede pasar el presupuesto
+        cacheIndex.onResourceStored(this, fileName);
+    }
+
+    /**
+     * ⚡ Intenta la descarga multi-parte si el recurso es grande según su Config.
+     * @return false si no aplica (archivo chico o servidor sin Range): usar stream único
+     */
+    private boolean tryChunkedDownload(String fileName, String urlStr, File tempFile,
+                                       ChunkedDownloader.ProgressListener listener) throws IOException {
+        if (getExpectedSize(fileName) < ChunkedDownloader.MIN_CHUNKED_BYTES) {
+            return false;
+        }
+        return ChunkedDownloader.download(urlStr, tempFile, listener, getTag());
+    }
+
+    private ReentrantLock getFileLock(String fileName) {
+        ReentrantLock lock = fileLocks.get(fileName);
+        if (lock == null) {
+            ReentrantLock created = new ReentrantLock();
+            lock = fileLocks.putIfAbsent(fileName, created);
+            if (lock == null) lock = created;
+        }
+        return lock;
+    }
+
+    /**
+     * 📥 Convierte el .part dejado por el prefetch en el .tmp de la descarga real.
+     * @return bytes ya descargados (offset para el header Range), 0 si no hay parcial
+     */
+    private long adoptPartialFile(String fileName, File tempFile) {
+        File partFile = new File(resourceDir, fileName + PARTIAL_SUFFIX);
+        if (!partFile.exists() || partFile.length() == 0) {
+            return 0;
+        }
+        if (!isPartialCurrent(fileName)) {
+            discardPartial(fileName, partFile);
+            return 0;
+        }
+        versionPrefs.edit().remove(PARTIAL_PREFIX + fileName).apply();
+        if (tempFile.exists()) {
+            tempFile.delete();
+        }
+        if (!partFile.renameTo(tempFile)) {
+            Log.w(getTag(), "No se pudo adoptar parcial, descarga completa: " + fileName);
+            partFile.delete();
+            return 0;
+        }
+        return tempFile.length();
+    }
+
+    /**
+     * 📥 Registra con qué versión del recurso (y ETag del servidor) se empezó el .part.
+     */
+    private void savePartialIdentity(String fileName, String etag) {
+        String identity = getResourceVersion(fileName) + "|" + (etag != null ? etag : "");
+        versionPrefs.edit().putString(PARTIAL_PREFIX + fileName, identity).apply();
+    }
+
+    /**
+     * true si el .part se escribió para la versión actual del recurso.
+     * Un .part sin identidad (o de otra versión) no se puede reanudar.
+     */
+    private boolean isPartialCurrent(String fileName) {
+        String identity = versionPrefs.getString(PARTIAL_PREFIX + fileName, null);
+        if (identity == null) return false;
+        int sep = identity.indexOf('|');
+        return sep > 0 && identity.substring(0, sep).equals(String.valueOf(getResourceVersion(fileName)));
+    }
+
+    /** ETag con que se escribió el .part (para If-Range), o null si el servidor no lo mandó. */
+    private String getPartialEtag(String fileName) {
+        String identity = versionPrefs.getString(PARTIAL_PREFIX + fileName, null);
+        if (identity == null) return null;
+        int sep = identity.indexOf('|');
+        return sep >= 0 && sep < identity.length() - 1 ? identity.substring(sep + 1) : null;
+    }
+
+    private void discardPartial(String fileName, File partFile) {
+        Log.w(getTag(), "📥 Parcial de otra versión descartado: " + fileName);
+        partFile.delete();
+        versionPrefs.edit().remove(PARTIAL_PREFIX + fileName).apply();
+    }
+
+    /**
+     * 🛡️ Verifica tamaño y promueve un archivo descargado a su nombre final
+     * (rename con fallback a copy+delete).
+     */
+    private void promoteToFinal(String fileName, File source, File finalFile) throws IOException {
+        long expectedSize = getExpectedSize(fileName);
+        long actualSize = source.length();
+        if (expectedSize > 0 && actualSize < expectedSize * 0.95) {
+            throw new IOException("Descarga incompleta: " + actualSize + "/" + expectedSize +
+                    " bytes (" + (actualSize * 100 / expectedSize) + "%)");
+        }
+
+        if (finalFile.exists()) {
+            finalFile.delete();
+        }
+        if (!source.renameTo(finalFile)) {
+            Log.w(getTag(), "rename() falló, intentando copy+delete...");
+            copyFile(source, finalFile);
+            source.delete();
+        }
+
+        if (!finalFile.exists() || finalFile.length() == 0) {
+            throw new IOException("Archivo no disponible después de guardar");
+        }
+        if (expectedSize > 0 && finalFile.length() < expectedSize * 0.95) {
+            finalFile.delete();
+            throw new IOException("Archivo corrupto post-rename: " + finalFile.length() + "/" + expectedSize);
+        }
     }
 
     /**
@@ -644,4 +873,9 @@ public abstract class AbstractDownloadManager {
     public interface SyncProgressCallback {
         void onProgress(int percent);
     }
+
+    /** Señal de cancelación consultada entre bloques durante un prefetch. */
+    public interface CancelSignal {
+        boolean isCancelled();
+    }
 }
@@ -0,0 +1,270 @@
+package com.secret.blackholeglow.download;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ============================================================================
+ *                          ChunkedDownloader
+ *        Descarga multi-parte (HTTP Range) para archivos grandes
+ * ============================================================================
+ *
+ * En redes móviles con mucha latencia un solo stream TCP no llena el enlace:
+ * un video de 40 MB queda limitado por la ventana de un único socket.
+ * Aquí el archivo se parte en hasta MAX_PARTS rangos que se bajan en paralelo
+ * y se escriben con FileChannel.write(buffer, posición) sobre un archivo ya
+ * dimensionado a su tamaño final.
+ *
+ * FLUJO:
+ *   1. Sondeo con "Range: bytes=0-0": 206 + Content-Range → tamaño total.
+ *      Sin Range (200, sin Accept-Ranges, sin total) → retorna false y el
+ *      llamador sigue con su stream único de siempre.
+ *   2. setLength(total) y reparto en partes de al menos MIN_PART_BYTES.
+ *   3. Cada parte reintenta por su cuenta (backoff 2s, 4s...) desde el último
+ *      byte escrito; si una agota sus intentos, se cancelan las demás.
+ *   4. Progreso agregado de todas las partes; force() antes de retornar.
+ *
+ * Conexiones: los streams se cierran sin disconnect() cuando la parte termina
+ * bien, para que HttpURLConnection devuelva el socket al pool keep-alive y
+ * el siguiente rango (o el siguiente archivo) lo reutilice.
+ *
+ * ============================================================================
+ */
+final class ChunkedDownloader {
+
+    static final long MIN_CHUNKED_BYTES = 8L * 1024 * 1024;   // Por debajo, el sondeo no compensa
+    private static final int MAX_PARTS = 4;
+    private static final long MIN_PART_BYTES = 2L * 1024 * 1024;
+    private static final int PART_BUFFER_SIZE = 128 * 1024;   // Buffer directo por parte
+
+    private static final AtomicInteger threadCount = new AtomicInteger();
+    private static final ExecutorService partExecutor = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "ChunkPart-" + threadCount.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** Progreso agregado (se llama desde los hilos de las partes, serializado). */
+    interface ProgressListener {
+        void onProgress(long downloadedBytes, long totalBytes);
+    }
+
+    private ChunkedDownloader() {}
+
+    /**
+     * Descarga urlStr en dest usando rangos paralelos.
+     *
+     * @return false si el servidor no soporta Range (dest no se tocó): usar stream único
+     * @throws IOException si alguna parte falló tras sus reintentos
+     */
+    static boolean download(String urlStr, File dest, ProgressListener listener, String logTag)
+            throws IOException {
+        long total = probeTotalLength(urlStr);
+        if (total < MIN_CHUNKED_BYTES) {
+            if (total < 0) Log.d(logTag, "Sin soporte de Range, stream único: " + urlStr);
+            return false;
+        }
+
+        int parts = (int) Math.max(1, Math.min(MAX_PARTS, total / MIN_PART_BYTES));
+        long partSize = (total + parts - 1) / parts;
+        Log.d(logTag, "⚡ Descarga en " + parts + " partes de ~" + (partSize / 1024) + " KB ("
+                + (total / 1024) + " KB)");
+
+        AtomicLong downloaded = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        Object progressLock = new Object();
+        int[] lastPercent = {-1};
+
+        RandomAccessFile raf = new RandomAccessFile(dest, "rw");
+        try {
+            raf.setLength(total);
+            FileChannel channel = raf.getChannel();
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < parts; i++) {
+                long start = i * partSize;
+                long end = Math.min(total, start + partSize) - 1;
+                futures.add(partExecutor.submit(() -> {
+                    downloadPart(urlStr, channel, start, end, failed, bytes -> {
+                        long now = downloaded.addAndGet(bytes);
+                        if (listener == null) return;
+                        synchronized (progressLock) {
+                            int percent = (int) (now * 100 / total);
+                            if (percent != lastPercent[0]) {
+                                lastPercent[0] = percent;
+                                listener.onProgress(now, total);
+                            }
+                        }
+                    }, logTag);
+                    return null;
+                }));
+            }
+
+            IOException firstError = null;
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    failed.set(true);
+                    if (firstError == null) {
+                        Throwable cause = e.getCause();
+                        firstError = cause instanceof IOException
+                                ? (IOException) cause : new IOException(cause);
+                    }
+                } catch (InterruptedException e) {
+                    failed.set(true);
+                    Thread.currentThread().interrupt();
+                    if (firstError == null) firstError = new IOException("Descarga interrumpida");
+                }
+            }
+            if (firstError != null) throw firstError;
+
+            if (downloaded.get() != total) {
+                throw new IOException("Partes incompletas: " + downloaded.get() + "/" + total);
+            }
+            channel.force(true);
+            return true;
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Sondeo de 1 byte: tamaño total si el servidor sirve rangos, -1 si no.
+     */
+    private static long probeTotalLength(String urlStr) throws IOException {
+        HttpURLConnection connection = openRange(urlStr, 0, 0);
+        int code = connection.getResponseCode();
+        String acceptRanges = connection.getHeaderField("Accept-Ranges");
+        String contentRange = connection.getHeaderField("Content-Range");
+        if (code != HttpURLConnection.HTTP_PARTIAL) {
+            // 200 = el cuerpo es el archivo entero: cortar en vez de leerlo
+            connection.disconnect();
+            return -1;
+        }
+        drainAndClose(connection);
+
+        if (contentRange == null || "none".equalsIgnoreCase(acceptRanges)) {
+            return -1;
+        }
+        // "bytes 0-0/12345"
+        int slash = contentRange.lastIndexOf('/');
+        if (slash < 0 || contentRange.endsWith("*")) return -1;
+        try {
+            return Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private interface BytesWritten {
+        void onBytes(long bytes);
+    }
+
+    /**
+     * Baja [start, end] reintentando desde el último byte escrito.
+     */
+    private static void downloadPart(String urlStr, FileChannel channel, long start, long end,
+                                     AtomicBoolean failed, BytesWritten written, String logTag)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(PART_BUFFER_SIZE);
+        long position = start;
+
+        for (int attempt = 1; ; attempt++) {
+            if (failed.get()) throw new IOException("Cancelada: otra parte falló");
+
+            HttpURLConnection connection = null;
+            try {
+                connection = openRange(urlStr, position, end);
+                int code = connection.getResponseCode();
+                if (code != HttpURLConnection.HTTP_PARTIAL) {
+                    throw new IOException("HTTP " + code + " en rango " + position + "-" + end);
+                }
+
+                InputStream input = connection.getInputStream();
+                ReadableByteChannel source = Channels.newChannel(input);
+                while (position <= end) {
+                    if (failed.get()) throw new IOException("Cancelada: otra parte falló");
+                    buffer.clear();
+                    int limit = (int) Math.min(buffer.capacity(), end - position + 1);
+                    buffer.limit(limit);
+                    int read = source.read(buffer);
+                    if (read < 0) break;
+                    buffer.flip();
+                    while (buffer.hasRemaining()) {
+                        int n = channel.write(buffer, position);
+                        position += n;
+                        written.onBytes(n);
+                    }
+                }
+                if (position <= end) {
+                    throw new IOException("Rango cortado en " + position + "/" + end);
+                }
+
+                // Stream consumido entero: cerrar sin disconnect() → socket al pool keep-alive
+                input.close();
+                connection = null;
+                return;
+            } catch (IOException e) {
+                if (connection != null) connection.disconnect();
+                if (failed.get() || attempt >= AbstractDownloadManager.MAX_RETRY_ATTEMPTS) {
+                    failed.set(true);
+                    throw e;
+                }
+                long delay = AbstractDownloadManager.RETRY_BASE_DELAY_MS * (1L << (attempt - 1));
+                Log.w(logTag, "🔄 Parte " + start + "-" + end + " reintento " + attempt + " desde "
+                        + position + " en " + (delay / 1000) + "s: " + e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    failed.set(true);
+                    throw new IOException("Descarga interrumpida");
+                }
+            }
+        }
+    }
+
+    private static HttpURLConnection openRange(String urlStr, long start, long end) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(urlStr).openConnection();
+        connection.setConnectTimeout(AbstractDownloadManager.CONNECTION_TIMEOUT_MS);
+        connection.setReadTimeout(AbstractDownloadManager.READ_TIMEOUT_MS);
+        connection.setRequestProperty("User-Agent", AbstractDownloadManager.USER_AGENT);
+        connection.setRequestProperty("Range", "bytes=" + start + "-" + end);
+        connection.connect();
+        return connection;
+    }
+
+    /** Lee el byte del sondeo y cierra sin disconnect() para reutilizar el socket. */
+    private static void drainAndClose(HttpURLConnection connection) {
+        try {
+            InputStream input = connection.getInputStream();
+            byte[] skip = new byte[16];
+            while (input.read(skip) != -1) {
+                // descartar
+            }
+            input.close();
+        } catch (IOException e) {
+            connection.disconnect();
+        }
+    }
+}
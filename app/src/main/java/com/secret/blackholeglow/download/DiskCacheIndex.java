@@ -0,0 +1,357 @@
+package com.secret.blackholeglow.download;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.StatFs;
+import android.util.Log;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * ============================================================================
+ *                           DiskCacheIndex
+ *        Índice LRU común a todos los AbstractDownloadManager
+ * ============================================================================
+ *
+ * Reemplaza el "borrar todo menos la escena instalada" por un cache acotado:
+ * los recursos de varias escenas conviven en disco y solo se expulsan los
+ * menos usados cuando el total supera el presupuesto.
+ *
+ * QUÉ GUARDA (SharedPreferences "disk_cache_index"):
+ *   - lru_<dir>/<archivo>  → último uso (ms). Sin entrada: lastModified()
+ *   - pin_<dueño>          → nombres fijados (escena activa, panel)
+ *   - budget_override      → presupuesto fijo en bytes (0 = automático)
+ * El tamaño no se guarda: se lee del archivo al recortar, nunca queda desfasado.
+ *
+ * Nunca se expulsa lo fijado ni lo usado en los últimos RECENT_GRACE_MS
+ * (una instalación en curso aún no ha fijado sus recursos).
+ *
+ * PRESUPUESTO (automático):
+ *   BUDGET_FRACTION de (espacio libre + cache actual) vía StatFs, acotado a
+ *   [MIN_BUDGET_BYTES, MAX_BUDGET_BYTES], y nunca deja el disco por debajo
+ *   de MIN_FREE_DISK_BYTES mientras haya algo no fijado que expulsar.
+ *
+ * HILOS: touch/pin desde cualquier hilo; el recorte corre en su propio
+ * executor y varias peticiones seguidas se agrupan en una sola pasada.
+ *
+ * USO:
+ *   DiskCacheIndex.getInstance(context).setPinned("active_scene", files);
+ *   DiskCacheIndex.getInstance(context).scheduleTrim();
+ *
+ * ============================================================================
+ */
+public class DiskCacheIndex {
+
+    private static final String TAG = "DiskCacheIndex";
+    private static final String PREFS_NAME = "disk_cache_index";
+    private static final String LRU_PREFIX = "lru_";
+    private static final String PIN_PREFIX = "pin_";
+    private static final String KEY_BUDGET_OVERRIDE = "budget_override";
+
+    // Dueños de pins usados por la app
+    public static final String PIN_ACTIVE_SCENE = "active_scene";
+    public static final String PIN_PANEL = "panel";
+
+    private static final float BUDGET_FRACTION = 0.2f;                      // 20% del disco utilizable
+    private static final long MIN_BUDGET_BYTES = 200L * 1024 * 1024;        // Siempre caben 2-3 escenas
+    private static final long MAX_BUDGET_BYTES = 2048L * 1024 * 1024;       // Tope aunque sobre disco
+    private static final long MIN_FREE_DISK_BYTES = 500L * 1024 * 1024;     // Igual que ScenePrefetcher
+    private static final long TOUCH_PERSIST_INTERVAL_MS = 60_000;           // Evita escribir prefs en cada acceso
+    private static final long RECENT_GRACE_MS = 10 * 60_000;                // Recién bajado/usado: instalación en curso
+
+    private static volatile DiskCacheIndex instance;
+    private static final Object LOCK = new Object();
+
+    private final Context context;
+    private final SharedPreferences prefs;
+    private final ExecutorService executor;
+    private final AtomicBoolean trimScheduled = new AtomicBoolean(false);
+
+    private final List<AbstractDownloadManager> managers = new CopyOnWriteArrayList<>();
+    private final Map<String, Long> lastUsed = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> pins = new HashMap<>();  // Sincronizado con pins
+
+    // Diagnóstico (expulsiones de este proceso)
+    private volatile long evictedBytesSession = 0;
+    private volatile int evictedCountSession = 0;
+
+    /**
+     * Entrada del recorte: un recurso (archivo final y/o .part) de un manager.
+     */
+    private static class Entry {
+        final AbstractDownloadManager manager;
+        final String fileName;
+        long bytes;
+        long lastUsedMs;
+
+        Entry(AbstractDownloadManager manager, String fileName) {
+            this.manager = manager;
+            this.fileName = fileName;
+        }
+    }
+
+    // =========================================================================
+    // SINGLETON
+    // =========================================================================
+
+    private DiskCacheIndex(Context context) {
+        this.context = context.getApplicationContext();
+        this.prefs = this.context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "DiskCacheTrim"));
+        loadPins();
+    }
+
+    public static DiskCacheIndex getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LOCK) {
+                if (instance == null) {
+                    instance = new DiskCacheIndex(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /** Llamado por AbstractDownloadManager al construirse. */
+    void register(AbstractDownloadManager manager) {
+        if (!managers.contains(manager)) {
+            managers.add(manager);
+        }
+    }
+
+    // =========================================================================
+    // USO Y PINS
+    // =========================================================================
+
+    /**
+     * Marca un recurso como usado ahora. Barato: solo persiste si el último
+     * uso guardado tiene más de TOUCH_PERSIST_INTERVAL_MS.
+     */
+    void touch(AbstractDownloadManager manager, String fileName) {
+        String key = key(manager, fileName);
+        long now = System.currentTimeMillis();
+        Long previous = lastUsed.get(key);
+        if (previous == null) {
+            previous = prefs.getLong(LRU_PREFIX + key, 0);
+        }
+        lastUsed.put(key, now);
+        if (now - previous >= TOUCH_PERSIST_INTERVAL_MS) {
+            prefs.edit().putLong(LRU_PREFIX + key, now).apply();
+        }
+    }
+
+    /** Un recurso terminó de descargarse: cuenta como uso y puede exceder el presupuesto. */
+    void onResourceStored(AbstractDownloadManager manager, String fileName) {
+        String key = key(manager, fileName);
+        long now = System.currentTimeMillis();
+        lastUsed.put(key, now);
+        prefs.edit().putLong(LRU_PREFIX + key, now).apply();
+        scheduleTrim();
+    }
+
+    /** Un recurso se borró por otra vía (versión nueva, deleteResource...). */
+    void forget(AbstractDownloadManager manager, String fileName) {
+        String key = key(manager, fileName);
+        lastUsed.remove(key);
+        prefs.edit().remove(LRU_PREFIX + key).apply();
+    }
+
+    /**
+     * Reemplaza el conjunto fijado por un dueño. Los fijados nunca se expulsan.
+     * Se persiste: sigue vigente en el proceso del wallpaper y tras reiniciar.
+     */
+    public void setPinned(String owner, Collection<String> fileNames) {
+        Set<String> set = new HashSet<>(fileNames);
+        synchronized (pins) {
+            pins.put(owner, set);
+        }
+        prefs.edit().putStringSet(PIN_PREFIX + owner, set).apply();
+        Log.d(TAG, "📌 " + owner + ": " + set.size() + " recursos fijados");
+    }
+
+    public boolean isPinned(String fileName) {
+        synchronized (pins) {
+            for (Set<String> set : pins.values()) {
+                if (set.contains(fileName)) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Presupuesto fijo en bytes; 0 vuelve al automático por StatFs. */
+    public void setBudgetOverride(long bytes) {
+        prefs.edit().putLong(KEY_BUDGET_OVERRIDE, Math.max(0, bytes)).apply();
+        scheduleTrim();
+    }
+
+    // =========================================================================
+    // RECORTE LRU
+    // =========================================================================
+
+    /**
+     * Pide un recorte en background. Si ya hay uno pendiente, no encola otro.
+     */
+    public void scheduleTrim() {
+        if (!trimScheduled.compareAndSet(false, true)) return;
+        executor.execute(() -> {
+            trimScheduled.set(false);
+            try {
+                trim();
+            } catch (Exception e) {
+                Log.w(TAG, "Error recortando cache: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Expulsa los recursos no fijados menos usados hasta quedar bajo presupuesto.
+     * Los que se estén descargando en este momento se saltan (lock del manager).
+     */
+    private void trim() {
+        List<Entry> entries = collectEntries();
+        long total = 0;
+        for (Entry e : entries) total += e.bytes;
+
+        long budget = getBudgetBytes(total);
+        if (total <= budget) {
+            Log.d(TAG, "Cache " + formatSize(total) + " / " + formatSize(budget) + " - nada que expulsar");
+            return;
+        }
+
+        // Menos usado primero
+        Collections.sort(entries, (a, b) -> Long.compare(a.lastUsedMs, b.lastUsedMs));
+
+        long freed = 0;
+        int count = 0;
+        long graceLimit = System.currentTimeMillis() - RECENT_GRACE_MS;
+        for (Entry e : entries) {
+            if (total - freed <= budget) break;
+            if (e.lastUsedMs > graceLimit) break;  // Ordenadas: el resto es aún más reciente
+            if (isPinned(e.fileName)) continue;
+            long bytes = e.manager.evictResource(e.fileName);
+            if (bytes > 0) {
+                freed += bytes;
+                count++;
+                forget(e.manager, e.fileName);
+                Log.d(TAG, "🗑️ Expulsado " + e.fileName + " (" + formatSize(bytes) + ")");
+            }
+        }
+
+        evictedBytesSession += freed;
+        evictedCountSession += count;
+        Log.d(TAG, "Cache " + formatSize(total) + " → " + formatSize(total - freed)
+                + " (presupuesto " + formatSize(budget) + ", " + count + " expulsados)");
+    }
+
+    private List<Entry> collectEntries() {
+        List<Entry> result = new ArrayList<>();
+        for (AbstractDownloadManager manager : managers) {
+            File[] files = manager.getResourceDirectory().listFiles();
+            if (files == null) continue;
+
+            // .part y final del mismo recurso cuentan como una sola entrada
+            Map<String, Entry> byName = new HashMap<>();
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(".tmp")) continue;  // Descarga en curso
+                String baseName = name.endsWith(AbstractDownloadManager.PARTIAL_SUFFIX)
+                        ? name.substring(0, name.length() - AbstractDownloadManager.PARTIAL_SUFFIX.length())
+                        : name;
+
+                Entry entry = byName.get(baseName);
+                if (entry == null) {
+                    entry = new Entry(manager, baseName);
+                    entry.lastUsedMs = getLastUsed(manager, baseName, file.lastModified());
+                    byName.put(baseName, entry);
+                    result.add(entry);
+                }
+                entry.bytes += file.length();
+            }
+        }
+        return result;
+    }
+
+    private long getLastUsed(AbstractDownloadManager manager, String fileName, long fallback) {
+        String key = key(manager, fileName);
+        Long inMemory = lastUsed.get(key);
+        if (inMemory != null) return inMemory;
+        long stored = prefs.getLong(LRU_PREFIX + key, 0);
+        return stored > 0 ? stored : fallback;
+    }
+
+    /**
+     * Presupuesto vigente para un cache que ocupa cachedBytes (hace I/O: StatFs).
+     */
+    public long getBudgetBytes(long cachedBytes) {
+        long override = prefs.getLong(KEY_BUDGET_OVERRIDE, 0);
+        if (override > 0) return override;
+
+        long available;
+        try {
+            StatFs stat = new StatFs(context.getFilesDir().getAbsolutePath());
+            available = stat.getAvailableBytes();
+        } catch (Exception e) {
+            return MIN_BUDGET_BYTES;
+        }
+
+        long budget = (long) ((available + cachedBytes) * BUDGET_FRACTION);
+        budget = Math.max(MIN_BUDGET_BYTES, Math.min(MAX_BUDGET_BYTES, budget));
+
+        // Disco casi lleno: devolver al menos lo que falta para MIN_FREE_DISK_BYTES
+        if (available < MIN_FREE_DISK_BYTES) {
+            budget = Math.min(budget, Math.max(0, cachedBytes - (MIN_FREE_DISK_BYTES - available)));
+        }
+        return budget;
+    }
+
+    // =========================================================================
+    // DIAGNÓSTICO
+    // =========================================================================
+
+    public long getEvictedBytesSession() {
+        return evictedBytesSession;
+    }
+
+    public int getEvictedCountSession() {
+        return evictedCountSession;
+    }
+
+    // =========================================================================
+    // UTILIDADES PRIVADAS
+    // =========================================================================
+
+    private void loadPins() {
+        for (Map.Entry<String, ?> e : prefs.getAll().entrySet()) {
+            if (e.getKey().startsWith(PIN_PREFIX) && e.getValue() instanceof Set) {
+                Set<String> set = new HashSet<>();
+                for (Object o : (Set<?>) e.getValue()) {
+                    set.add(String.valueOf(o));
+                }
+                pins.put(e.getKey().substring(PIN_PREFIX.length()), set);
+            }
+        }
+    }
+
+    private static String key(AbstractDownloadManager manager, String fileName) {
+        return manager.getDirectoryName() + "/" + fileName;
+    }
+
+    private static String formatSize(long bytes) {
+        if (bytes < 1024) return bytes + " B";
+        if (bytes < 1024 * 1024) return (bytes / 1024) + " KB";
+        return (bytes / 1024 / 1024) + " MB";
+    }
+}
@@ -0,0 +1,592 @@
+package com.secret.blackholeglow.download;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.secret.blackholeglow.NetworkUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ============================================================================
+ *                          DownloadScheduler
+ *       Cola única de descargas para todos los AbstractDownloadManager
+ * ============================================================================
+ *
+ * Antes cada manager (video, imagen, modelo) tenía su propio executor, el
+ * adapter del catálogo lanzaba hilos sueltos para los previews y el prefetch
+ * tenía su HandlerThread: una miniatura, un prefetch y la escena que el
+ * usuario está esperando competían por el mismo ancho de banda.
+ *
+ * PRIORIDADES (menor ordinal = más urgente):
+ *   FOREGROUND → el usuario espera (instalación, escena cargando, splash)
+ *   PREVIEW    → miniaturas visibles del catálogo
+ *   PREFETCH   → especulativo: escribe .part, cancelable y reanudable
+ *
+ * REGLAS DE DESPACHO:
+ *   - Todas las clases comparten el límite global (Wi-Fi 3, red medida 2).
+ *   - FOREGROUND toma el primer lugar libre: se despacha antes que cualquier
+ *     PREVIEW o PREFETCH en cola.
+ *   - Con algún FOREGROUND activo o en cola: PREVIEW de a uno, PREFETCH nada.
+ *   - Al llegar un FOREGROUND se pausan los PREFETCH en curso: cortan en el
+ *     siguiente bloque, el .part queda en disco y vuelven a la cola.
+ *
+ * DEDUPLICACIÓN: una sola transferencia por (directorio, archivo). Un pedido
+ * repetido se suma como oyente y, si es más urgente, sube la prioridad del
+ * trabajo en cola. Un prefetch de un archivo que ya se descarga completo
+ * simplemente espera ese resultado; si la descarga completa llega después,
+ * reemplaza al prefetch y hereda sus callbacks. Un runSync anidado (desde un
+ * hilo del pool) no espera ni pasa por el límite: toma el trabajo en cola del
+ * mismo archivo o corre en línea (ver runNested).
+ *
+ * RED MEDIDA: PREFETCH solo para archivos de tamaño conocido menor a
+ * METERED_MAX_PREFETCH_BYTES; PREVIEW de a uno.
+ *
+ * USO (desde los managers, no directamente):
+ *   scheduler.submit(manager, "goku.png", Priority.PREVIEW, callback);
+ *   scheduler.runSync(manager, "goku.mp4", Priority.FOREGROUND, progress, null);
+ *
+ * ============================================================================
+ */
+public class DownloadScheduler {
+
+    private static final String TAG = "DownloadScheduler";
+
+    private static final int MAX_CONCURRENT_WIFI = 3;
+    private static final int MAX_CONCURRENT_METERED = 2;
+    private static final long METERED_MAX_PREFETCH_BYTES = 2L * 1024 * 1024;  // En datos móviles: solo <2 MB
+    private static final long NETWORK_RECHECK_MS = 5000;                      // Cache de isMeteredNetwork
+    private static final long OWNER_POLL_MS = 250;                            // Revisión de cancelación del dueño
+
+    /** Clases de prioridad, de más a menos urgente. */
+    public enum Priority {
+        FOREGROUND,
+        PREVIEW,
+        PREFETCH
+    }
+
+    private static volatile DownloadScheduler instance;
+    private static final Object LOCK = new Object();
+
+    // Marca los hilos del pool: una descarga sync anidada corre en línea (ver runNested)
+    private static final ThreadLocal<Boolean> IN_WORKER = new ThreadLocal<>();
+
+    private final Context context;
+    private final ExecutorService workers;
+
+    // Estado de la cola (sincronizado con this)
+    private final List<Job> queue = new ArrayList<>();
+    private final List<Job> running = new ArrayList<>();
+    private final Map<String, Job> activeJobs = new HashMap<>();
+    private final int[] runningByPriority = new int[Priority.values().length];
+    private long nextSeq = 0;
+
+    // Red (cacheada NETWORK_RECHECK_MS)
+    private boolean metered = false;
+    private long meteredCheckedAt = -NETWORK_RECHECK_MS;
+
+    // Diagnóstico
+    private volatile int dedupedCount = 0;
+    private volatile int preemptedCount = 0;
+    private final AtomicInteger meteredSkippedCount = new AtomicInteger();  // Se cuenta fuera del lock
+
+    /**
+     * Una transferencia (completa o prefetch) de un archivo de un manager.
+     * Es su propia señal de cancelación para el prefetch.
+     */
+    private static final class Job implements AbstractDownloadManager.CancelSignal {
+        final String key;
+        final AbstractDownloadManager manager;
+        final String fileName;
+        final boolean prefetch;
+        Priority priority;
+        Priority runningPriority;
+        long seq;
+
+        final List<AbstractDownloadManager.DownloadCallback> callbacks = new CopyOnWriteArrayList<>();
+        final List<AbstractDownloadManager.SyncProgressCallback> progressCallbacks = new CopyOnWriteArrayList<>();
+        final List<AbstractDownloadManager.CancelSignal> owners = new CopyOnWriteArrayList<>();
+
+        volatile boolean preempted = false;   // Pausado por un FOREGROUND: vuelve a la cola
+        volatile boolean abandoned = false;   // Ningún dueño lo quiere ya
+        boolean started = false;
+        boolean finished = false;
+        boolean result = false;
+
+        Job(String key, AbstractDownloadManager manager, String fileName, Priority priority) {
+            this.key = key;
+            this.manager = manager;
+            this.fileName = fileName;
+            this.priority = priority;
+            this.prefetch = priority == Priority.PREFETCH;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            if (preempted || abandoned) return true;
+            if (owners.isEmpty()) return false;
+            for (AbstractDownloadManager.CancelSignal owner : owners) {
+                if (!owner.isCancelled()) return false;
+            }
+            return true;
+        }
+
+        void publishProgress(long done, long total) {
+            if (total <= 0) return;
+            int percent = (int) (done * 100 / total);
+            for (AbstractDownloadManager.DownloadCallback cb : callbacks) {
+                cb.onProgress(percent, done, total);
+            }
+            for (AbstractDownloadManager.SyncProgressCallback cb : progressCallbacks) {
+                cb.onProgress(percent);
+            }
+        }
+    }
+
+    // =========================================================================
+    // SINGLETON
+    // =========================================================================
+
+    private DownloadScheduler(Context context) {
+        this.context = context.getApplicationContext();
+        AtomicInteger threadCount = new AtomicInteger();
+        // Pool sin tope propio: el límite lo aplica dispatch() según la clase
+        this.workers = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(() -> {
+                IN_WORKER.set(Boolean.TRUE);
+                r.run();
+            }, "DownloadWorker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public static DownloadScheduler getInstance(Context context) {
+        if (instance == null) {
+            synchronized (LOCK) {
+                if (instance == null) {
+                    instance = new DownloadScheduler(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // =========================================================================
+    // API (usada por AbstractDownloadManager)
+    // =========================================================================
+
+    /**
+     * Encola una descarga asíncrona. El callback se llama desde un hilo del pool.
+     */
+    void submit(AbstractDownloadManager manager, String fileName, Priority priority,
+                AbstractDownloadManager.DownloadCallback callback) {
+        if (rejectedByNetworkPolicy(manager, fileName, priority)) {
+            if (callback != null) callback.onError("Omitido en red medida: " + fileName);
+            return;
+        }
+        synchronized (this) {
+            Job job = obtainJob(manager, fileName, priority);
+            if (callback != null) job.callbacks.add(callback);
+            dispatch();
+        }
+    }
+
+    /**
+     * Descarga bloqueando al llamador hasta que la transferencia (propia o
+     * compartida con otro pedido del mismo archivo) termine.
+     *
+     * @param owner solo PREFETCH: si se cancela, el llamador deja de esperar
+     *              y el trabajo se abandona cuando nadie más lo quiere
+     * @return true si el recurso quedó disponible
+     */
+    boolean runSync(AbstractDownloadManager manager, String fileName, Priority priority,
+                    AbstractDownloadManager.SyncProgressCallback progress,
+                    AbstractDownloadManager.CancelSignal owner) {
+        if (rejectedByNetworkPolicy(manager, fileName, priority)) {
+            return false;
+        }
+
+        // Ya en un hilo del pool (callback que descarga otra cosa): en línea
+        if (Boolean.TRUE.equals(IN_WORKER.get())) {
+            return runNested(manager, fileName, priority, progress, owner);
+        }
+
+        synchronized (this) {
+            Job job = obtainJob(manager, fileName, priority);
+            if (progress != null) job.progressCallbacks.add(progress);
+            if (owner != null && job.prefetch) job.owners.add(owner);
+            dispatch();
+
+            try {
+                while (!job.finished) {
+                    if (owner != null && owner.isCancelled()) {
+                        releaseOwner(job, owner, progress);
+                        return false;
+                    }
+                    wait(owner != null ? OWNER_POLL_MS : 0);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                releaseOwner(job, owner, progress);
+                return false;
+            }
+            return job.result;
+        }
+    }
+
+    /**
+     * runSync desde un hilo del pool. Guarda contra deadlock deliberada: nunca
+     * espera a otro trabajo (con todos los hilos esperando trabajos en cola,
+     * ninguno podría empezar) y por eso no pasa por el límite global; ya
+     * ocupa un hilo del pool. Sí se deduplica antes de correr:
+     *   - Trabajo del mismo archivo todavía en cola: se toma y corre aquí,
+     *     sus callbacks reciben el resultado y no se descarga dos veces.
+     *   - Trabajo del mismo archivo ya corriendo: se corre en línea; el lock
+     *     por archivo del manager lo serializa y, al tomarlo, ve el archivo listo.
+     */
+    private boolean runNested(AbstractDownloadManager manager, String fileName, Priority priority,
+                              AbstractDownloadManager.SyncProgressCallback progress,
+                              AbstractDownloadManager.CancelSignal owner) {
+        String key = manager.getDirectoryName() + "/" + fileName;
+        boolean wantsPrefetch = priority == Priority.PREFETCH;
+
+        Job claimed = null;
+        synchronized (this) {
+            Job existing = activeJobs.get(key);
+            if (existing != null && !existing.started && (!existing.prefetch || wantsPrefetch)) {
+                queue.remove(existing);
+                existing.started = true;   // Fuera de running: no cuenta para el límite
+                dedupedCount++;
+                if (progress != null) existing.progressCallbacks.add(progress);
+                if (owner != null && existing.prefetch) existing.owners.add(owner);
+                claimed = existing;
+            }
+        }
+
+        if (claimed == null) {
+            return wantsPrefetch
+                    ? manager.runScheduledPrefetch(fileName, owner)
+                    : manager.runScheduledDownload(fileName, (done, total) -> {
+                        if (progress != null && total > 0) progress.onProgress((int) (done * 100 / total));
+                    });
+        }
+
+        Log.d(TAG, "↪️ Pedido anidado toma el trabajo en cola: " + key);
+        boolean ok;
+        try {
+            ok = claimed.prefetch
+                    ? claimed.manager.runScheduledPrefetch(fileName, claimed)
+                    : claimed.manager.runScheduledDownload(fileName, claimed::publishProgress);
+        } catch (Exception e) {
+            Log.e(TAG, "Error inesperado en " + key, e);
+            ok = false;
+        }
+        synchronized (this) {
+            finishLocked(claimed, ok);
+            dispatch();
+        }
+        deliver(claimed, ok);
+        return ok;
+    }
+
+    /**
+     * Manager cerrado: descarta sus trabajos en cola (los que corren terminan solos).
+     */
+    void cancelQueued(AbstractDownloadManager manager) {
+        List<Job> dropped = new ArrayList<>();
+        synchronized (this) {
+            for (Iterator<Job> it = queue.iterator(); it.hasNext(); ) {
+                Job job = it.next();
+                if (job.manager == manager) {
+                    it.remove();
+                    activeJobs.remove(job.key);
+                    job.finished = true;
+                    job.result = false;
+                    dropped.add(job);
+                }
+            }
+            notifyAll();
+        }
+        for (Job job : dropped) {
+            for (AbstractDownloadManager.DownloadCallback cb : job.callbacks) {
+                cb.onError("Download manager cerrado");
+            }
+        }
+    }
+
+    // =========================================================================
+    // DIAGNÓSTICO
+    // =========================================================================
+
+    public synchronized int getRunningCount() {
+        return running.size();
+    }
+
+    public synchronized int getQueuedCount() {
+        return queue.size();
+    }
+
+    /** Pedidos que se sumaron a una transferencia ya existente */
+    public int getDedupedCount() {
+        return dedupedCount;
+    }
+
+    /** Prefetch pausados por la llegada de un FOREGROUND */
+    public int getPreemptedCount() {
+        return preemptedCount;
+    }
+
+    /** Prefetch descartados por la política de red medida */
+    public int getMeteredSkippedCount() {
+        return meteredSkippedCount.get();
+    }
+
+    public synchronized boolean isMeteredNetwork() {
+        return metered;
+    }
+
+    // =========================================================================
+    // COLA Y DESPACHO (con this tomado)
+    // =========================================================================
+
+    /**
+     * Devuelve el trabajo activo para este archivo o crea uno nuevo.
+     * Un pedido completo nunca se suma a un prefetch: lo pausa y crea el suyo
+     * (la descarga completa adopta el .part al tomar el lock del archivo).
+     */
+    private Job obtainJob(AbstractDownloadManager manager, String fileName, Priority priority) {
+        String key = manager.getDirectoryName() + "/" + fileName;
+        boolean wantsPrefetch = priority == Priority.PREFETCH;
+
+        Job existing = activeJobs.get(key);
+        if (existing != null && (!existing.prefetch || wantsPrefetch)) {
+            dedupedCount++;
+            if (priority.ordinal() < existing.priority.ordinal()) {
+                Log.d(TAG, "⬆️ " + key + ": " + existing.priority + " → " + priority);
+                existing.priority = priority;
+            }
+            if (priority == Priority.FOREGROUND) {
+                preemptPrefetches();
+            }
+            return existing;
+        }
+
+        Job job = new Job(key, manager, fileName, priority);
+        job.seq = nextSeq++;
+        if (existing != null) {
+            // Prefetch del mismo archivo: lo reemplaza la descarga completa,
+            // que también entrega el resultado a los callbacks del prefetch
+            existing.preempted = true;
+            queue.remove(existing);
+            job.callbacks.addAll(existing.callbacks);
+            existing.callbacks.clear();
+        }
+        activeJobs.put(key, job);
+        queue.add(job);
+        if (existing != null && !existing.started) {
+            finishLocked(existing, false);
+        }
+        if (priority == Priority.FOREGROUND) {
+            preemptPrefetches();
+        }
+        return job;
+    }
+
+    private void preemptPrefetches() {
+        for (Job job : running) {
+            if (job.prefetch && !job.preempted) {
+                job.preempted = true;
+                preemptedCount++;
+                Log.d(TAG, "⏸️ Prefetch pausado por descarga prioritaria: " + job.key);
+            }
+        }
+    }
+
+    private void dispatch() {
+        int limit = isMeteredLocked() ? MAX_CONCURRENT_METERED : MAX_CONCURRENT_WIFI;
+        while (true) {
+            Job next = null;
+            for (Job job : queue) {
+                if (!canStart(job, limit)) continue;
+                if (next == null
+                        || job.priority.ordinal() < next.priority.ordinal()
+                        || (job.priority == next.priority && job.seq < next.seq)) {
+                    next = job;
+                }
+            }
+            if (next == null) return;
+
+            queue.remove(next);
+            running.add(next);
+            next.started = true;
+            next.runningPriority = next.priority;
+            runningByPriority[next.runningPriority.ordinal()]++;
+            Job job = next;
+            workers.execute(() -> runJob(job));
+        }
+    }
+
+    private boolean canStart(Job job, int limit) {
+        switch (job.priority) {
+            case FOREGROUND:
+                return running.size() < limit;
+            case PREVIEW:
+                if (running.size() >= limit) return false;
+                if (foregroundPending() || metered) {
+                    return runningByPriority[Priority.PREVIEW.ordinal()] < 1;
+                }
+                return true;
+            default: // PREFETCH: de a uno y solo sin nada más urgente
+                return running.size() < limit
+                        && !foregroundPending()
+                        && runningByPriority[Priority.PREFETCH.ordinal()] < 1;
+        }
+    }
+
+    private boolean foregroundPending() {
+        if (runningByPriority[Priority.FOREGROUND.ordinal()] > 0) return true;
+        for (Job job : queue) {
+            if (job.priority == Priority.FOREGROUND) return true;
+        }
+        return false;
+    }
+
+    // =========================================================================
+    // EJECUCIÓN (hilo del pool)
+    // =========================================================================
+
+    private void runJob(Job job) {
+        Process.setThreadPriority(job.prefetch
+                ? Process.THREAD_PRIORITY_BACKGROUND
+                : Process.THREAD_PRIORITY_DEFAULT);
+
+        boolean ok;
+        try {
+            ok = job.prefetch
+                    ? job.manager.runScheduledPrefetch(job.fileName, job)
+                    : job.manager.runScheduledDownload(job.fileName, job::publishProgress);
+        } catch (Exception e) {
+            Log.e(TAG, "Error inesperado en " + job.key, e);
+            ok = false;
+        }
+
+        boolean completed;
+        synchronized (this) {
+            running.remove(job);
+            runningByPriority[job.runningPriority.ordinal()]--;
+            completed = ok || !requeueIfPreempted(job);
+            if (completed) {
+                finishLocked(job, ok);
+            }
+            dispatch();
+        }
+        if (completed) {
+            deliver(job, ok);
+        }
+    }
+
+    /**
+     * Prefetch pausado (no cancelado por su dueño): vuelve a la cola con su .part.
+     */
+    private boolean requeueIfPreempted(Job job) {
+        if (!job.preempted || job.abandoned || activeJobs.get(job.key) != job) return false;
+        for (AbstractDownloadManager.CancelSignal owner : job.owners) {
+            if (!owner.isCancelled()) {
+                job.preempted = false;
+                job.started = false;
+                queue.add(job);
+                Log.d(TAG, "▶️ Prefetch en cola de nuevo: " + job.key);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void finishLocked(Job job, boolean ok) {
+        job.finished = true;
+        job.result = ok;
+        if (activeJobs.get(job.key) == job) {
+            activeJobs.remove(job.key);
+        }
+        notifyAll();
+    }
+
+    private void deliver(Job job, boolean ok) {
+        String path = new File(job.manager.getResourceDirectory(), job.fileName).getAbsolutePath();
+        for (AbstractDownloadManager.DownloadCallback cb : job.callbacks) {
+            try {
+                if (ok) {
+                    cb.onComplete(path);
+                } else {
+                    cb.onError("Descarga falló: " + job.fileName);
+                }
+            } catch (Exception e) {
+                Log.e(TAG, "Error en callback de " + job.key, e);
+            }
+        }
+    }
+
+    /**
+     * El llamador de runSync deja de esperar. Un prefetch sin dueños se abandona.
+     */
+    private void releaseOwner(Job job, AbstractDownloadManager.CancelSignal owner,
+                              AbstractDownloadManager.SyncProgressCallback progress) {
+        if (progress != null) job.progressCallbacks.remove(progress);
+        if (owner == null || !job.prefetch || job.finished) return;
+        job.owners.remove(owner);
+        if (!job.owners.isEmpty()) return;
+
+        job.abandoned = true;
+        if (queue.remove(job)) {
+            finishLocked(job, false);
+        }
+    }
+
+    // =========================================================================
+    // POLÍTICA DE RED
+    // =========================================================================
+
+    private boolean rejectedByNetworkPolicy(AbstractDownloadManager manager, String fileName,
+                                            Priority priority) {
+        if (priority != Priority.PREFETCH) return false;
+        boolean isMetered;
+        synchronized (this) {
+            isMetered = isMeteredLocked();
+        }
+        if (!isMetered) return false;
+
+        long size = manager.getRemoteSize(fileName);
+        if (size <= 0 || size > METERED_MAX_PREFETCH_BYTES) {
+            meteredSkippedCount.incrementAndGet();
+            Log.d(TAG, "💸 Red medida, prefetch omitido: " + fileName);
+            return true;
+        }
+        return false;
+    }
+
+    private boolean isMeteredLocked() {
+        long now = SystemClock.elapsedRealtime();
+        if (now - meteredCheckedAt >= NETWORK_RECHECK_MS) {
+            meteredCheckedAt = now;
+            boolean nowMetered = NetworkUtils.isMeteredNetwork(context);
+            if (nowMetered != metered) {
+                Log.d(TAG, "📡 Red " + (nowMetered ? "medida" : "sin medir")
+                        + ": límite " + (nowMetered ? MAX_CONCURRENT_METERED : MAX_CONCURRENT_WIFI));
+            }
+            metered = nowMetered;
+        }
+        return metered;
+    }
+}
@@ -0,0 +1,27 @@
+package com.secret.blackholeglow.download;
+
+import java.io.IOException;
+
+/**
+ * Respuesta HTTP inesperada. Un 4xx (404, 403, 410...) no se arregla
+ * reintentando: el recurso en esa URL no está disponible para este cliente.
+ * Cualquier otro código (5xx, etc.) se trata como fallo transitorio.
+ */
+public class HttpStatusException extends IOException {
+
+    private final int statusCode;
+
+    public HttpStatusException(int statusCode) {
+        super("HTTP error: " + statusCode);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /** true si el servidor rechazó la petición (4xx): reintentar no sirve. */
+    public boolean isClientError() {
+        return statusCode >= 400 && statusCode < 500;
+    }
+}
@@ -3,6 +3,10 @@ package com.secret.blackholeglow.effects;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.TextureManager.MemoryTier;
+import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -12,61 +16,93 @@ import java.nio.FloatBuffer;
  * ║   ✨ BloomEffect - Post-Processing Bloom con OpenGL ES 3.0              ║
  * ╠══════════════════════════════════════════════════════════════════════════╣
  * ║                                                                          ║
- * ║   Pipeline:                                                              ║
- * ║   1. Renderizar escena a FBO principal                                   ║
- * ║   2. Extraer pixeles brillantes (bright pass)                            ║
- * ║   3. Aplicar blur gaussiano horizontal                                   ║
- * ║   4. Aplicar blur gaussiano vertical                                     ║
- * ║   5. Combinar escena original + bloom                                    ║
+ * ║   Pase del RenderGraph: entrada = escena, salida = bloom a 1/2.          ║
+ * ║   El composite (escena + bloom) lo hace el graph, fusionado con los      ║
+ * ║   overlays de pantalla en un solo shader.                                ║
+ * ║                                                                          ║
+ * ║   Pipeline (dual-filter / Kawase dual, pirámide de mips):                ║
+ * ║   1. Prefiltro: bright pass + primer downsample (1/2 = salida)           ║
+ * ║   2. Downsample progresivo: 1/4, 1/8, 1/16...  (5 taps por píxel)        ║
+ * ║   3. Upsample + suma (blend aditivo) de vuelta hasta 1/2 (8 taps)        ║
+ * ║                                                                          ║
+ * ║   Cada nivel duplica el radio del glow con muy pocos texel fetches:      ║
+ * ║   un glow mucho más ancho que 2 pasadas gaussianas de 9 taps a 1/4.      ║
+ * ║   Los niveles intermedios salen de RenderTargetPool y vuelven al         ║
+ * ║   terminar el pase.                                                      ║
+ * ║                                                                          ║
+ * ║   Calidad (según DeviceProfile):                                         ║
+ * ║   LOW    → sin bloom (WallpaperDirector no lo crea)                      ║
+ * ║   MEDIUM → 4 niveles, RGB10_A2                                           ║
+ * ║   HIGH   → 5 niveles, RGBA16F (si el driver lo soporta) o RGB10_A2       ║
  * ║                                                                          ║
  * ╚══════════════════════════════════════════════════════════════════════════╝
  */
-public class BloomEffect {
+public class BloomEffect implements RenderGraph.Pass {
     private static final String TAG = "BloomEffect";
 
     // Configuración
     private static final float BLOOM_THRESHOLD = 0.7f;   // Umbral de brillo
     private static final float BLOOM_INTENSITY = 0.8f;   // Intensidad del bloom
-    private static final int BLUR_PASSES = 2;            // Número de pasadas de blur
 
-    // Dimensiones (reducidas para blur = mejor performance)
-    private int screenWidth = 1;
-    private int screenHeight = 1;
-    private int bloomWidth = 1;
-    private int bloomHeight = 1;
-    private static final int BLOOM_SCALE = 4;  // Bloom a 1/4 de resolución
+    /** Resolución de la salida (mip[0]) respecto a la pantalla */
+    public static final float OUTPUT_SCALE = 0.5f;
+
+    /**
+     * Nivel de calidad: profundidad de la pirámide y formato interno de los mips.
+     */
+    public enum Quality {
+        LOW(3, GLES30.GL_RGBA8),
+        MEDIUM(4, GLES30.GL_RGB10_A2),
+        HIGH(5, GLES30.GL_RGBA16F);
+
+        public final int levels;
+        public final int internalFormat;
 
-    // FBOs
-    private int[] sceneFBO = new int[1];
-    private int[] sceneTexture = new int[1];
-    private int[] sceneDepth = new int[1];
+        Quality(int levels, int internalFormat) {
+            this.levels = levels;
+            this.internalFormat = internalFormat;
+        }
 
-    private int[] brightFBO = new int[1];
-    private int[] brightTexture = new int[1];
+        public static Quality forTier(MemoryTier tier) {
+            switch (tier) {
+                case HIGH:
+                    return HIGH;
+                case MEDIUM:
+                    return MEDIUM;
+                default:
+                    return LOW;
+            }
+        }
+    }
 
-    private int[] blurFBO = new int[2];      // Ping-pong buffers
-    private int[] blurTexture = new int[2];
+    private static final int MAX_LEVELS = 5;
+
+    private Quality quality;
+    private int mipFormat = GLES30.GL_RGBA8;   // Formato real (tras verificar soporte)
+    private boolean formatResolved = false;
+
+    // mip[0] = salida del pase (1/2), mip[1] = 1/4, ... (del pool)
+    private final RenderTarget[] mips = new RenderTarget[MAX_LEVELS];
 
     // Shaders
-    private int brightPassProgram;
-    private int blurProgram;
-    private int compositeProgram;
+    private int prefilterProgram;
+    private int downsampleProgram;
+    private int upsampleProgram;
 
     // Quad para fullscreen pass
     private FloatBuffer quadBuffer;
     private int quadVAO;
     private int quadVBO;
 
-    // Uniform locations
-    private int uBrightThreshold;
-    private int uBlurHorizontal;
-    private int uBlurTexelSize;
-    private int uCompositeBloomIntensity;
+    // Uniform locations (cacheadas en initialize, nunca por frame)
+    private int uPrefilterThreshold;
+    private int uPrefilterHalfTexel;
+    private int uDownHalfTexel;
+    private int uUpHalfTexel;
 
     // Estado
     private boolean initialized = false;
-    private boolean enabled = false;  // DESHABILITADO por defecto hasta pruebas
-    private boolean capturing = false;
+    private boolean enabled = false;  // WallpaperDirector lo habilita según DeviceProfile
 
     // ═══════════════════════════════════════════════════════════════════════════
     // SHADERS GLSL ES 3.0
@@ -82,63 +118,65 @@ public class BloomEffect {
         "    gl_Position = vec4(aPosition, 0.0, 1.0);\n" +
         "}\n";
 
-    // Bright Pass: Extrae solo los píxeles brillantes
-    private static final String BRIGHT_PASS_FRAGMENT =
+    // Downsample dual-filter: centro x4 + 4 diagonales a medio texel (5 fetches)
+    private static final String DOWNSAMPLE_BODY =
+        "vec3 downsample(sampler2D tex, vec2 uv, vec2 halfTexel) {\n" +
+        "    vec3 sum = texture(tex, uv).rgb * 4.0;\n" +
+        "    sum += texture(tex, uv - halfTexel).rgb;\n" +
+        "    sum += texture(tex, uv + halfTexel).rgb;\n" +
+        "    sum += texture(tex, uv + vec2(halfTexel.x, -halfTexel.y)).rgb;\n" +
+        "    sum += texture(tex, uv - vec2(halfTexel.x, -halfTexel.y)).rgb;\n" +
+        "    return sum * 0.125;\n" +
+        "}\n";
+
+    // Prefiltro: primer downsample + bright pass (extrae solo los píxeles brillantes)
+    private static final String PREFILTER_FRAGMENT =
         "#version 300 es\n" +
         "precision mediump float;\n" +
         "in vec2 vTexCoord;\n" +
         "out vec4 fragColor;\n" +
         "uniform sampler2D uScene;\n" +
         "uniform float uThreshold;\n" +
+        "uniform vec2 uHalfTexel;\n" +
+        DOWNSAMPLE_BODY +
         "void main() {\n" +
-        "    vec4 color = texture(uScene, vTexCoord);\n" +
-        "    float brightness = dot(color.rgb, vec3(0.2126, 0.7152, 0.0722));\n" +
-        "    if (brightness > uThreshold) {\n" +
-        "        fragColor = vec4(color.rgb * (brightness - uThreshold), 1.0);\n" +
-        "    } else {\n" +
-        "        fragColor = vec4(0.0);\n" +
-        "    }\n" +
+        "    vec3 color = downsample(uScene, vTexCoord, uHalfTexel);\n" +
+        "    float brightness = dot(color, vec3(0.2126, 0.7152, 0.0722));\n" +
+        "    float weight = max(brightness - uThreshold, 0.0);\n" +
+        "    fragColor = vec4(color * weight, 1.0);\n" +
         "}\n";
 
-    // Blur Gaussiano (9 taps)
-    private static final String BLUR_FRAGMENT =
+    private static final String DOWNSAMPLE_FRAGMENT =
         "#version 300 es\n" +
         "precision mediump float;\n" +
         "in vec2 vTexCoord;\n" +
         "out vec4 fragColor;\n" +
         "uniform sampler2D uTexture;\n" +
-        "uniform bool uHorizontal;\n" +
-        "uniform vec2 uTexelSize;\n" +
-        "\n" +
-        "const float weights[5] = float[](0.227027, 0.1945946, 0.1216216, 0.054054, 0.016216);\n" +
-        "\n" +
+        "uniform vec2 uHalfTexel;\n" +
+        DOWNSAMPLE_BODY +
         "void main() {\n" +
-        "    vec3 result = texture(uTexture, vTexCoord).rgb * weights[0];\n" +
-        "    vec2 offset = uHorizontal ? vec2(uTexelSize.x, 0.0) : vec2(0.0, uTexelSize.y);\n" +
-        "    \n" +
-        "    for (int i = 1; i < 5; i++) {\n" +
-        "        result += texture(uTexture, vTexCoord + offset * float(i)).rgb * weights[i];\n" +
-        "        result += texture(uTexture, vTexCoord - offset * float(i)).rgb * weights[i];\n" +
-        "    }\n" +
-        "    fragColor = vec4(result, 1.0);\n" +
+        "    fragColor = vec4(downsample(uTexture, vTexCoord, uHalfTexel), 1.0);\n" +
         "}\n";
 
-    // Composite: Combina escena original + bloom
-    private static final String COMPOSITE_FRAGMENT =
+    // Upsample dual-filter: anillo de 8 taps (tienda de campaña), se suma al nivel destino
+    private static final String UPSAMPLE_FRAGMENT =
         "#version 300 es\n" +
         "precision mediump float;\n" +
         "in vec2 vTexCoord;\n" +
         "out vec4 fragColor;\n" +
-        "uniform sampler2D uScene;\n" +
-        "uniform sampler2D uBloom;\n" +
-        "uniform float uBloomIntensity;\n" +
+        "uniform sampler2D uTexture;\n" +
+        "uniform vec2 uHalfTexel;\n" +
         "void main() {\n" +
-        "    vec3 scene = texture(uScene, vTexCoord).rgb;\n" +
-        "    vec3 bloom = texture(uBloom, vTexCoord).rgb;\n" +
-        "    vec3 result = scene + bloom * uBloomIntensity;\n" +
-        "    // Tone mapping simple para evitar saturación\n" +
-        "    result = result / (result + vec3(1.0));\n" +
-        "    fragColor = vec4(result, 1.0);\n" +
+        "    vec2 h = uHalfTexel;\n" +
+        "    vec3 sum = texture(uTexture, vTexCoord + vec2(-h.x * 2.0, 0.0)).rgb;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(-h.x, h.y)).rgb * 2.0;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(0.0, h.y * 2.0)).rgb;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(h.x, h.y)).rgb * 2.0;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(h.x * 2.0, 0.0)).rgb;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(h.x, -h.y)).rgb * 2.0;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(0.0, -h.y * 2.0)).rgb;\n" +
+        "    sum += texture(uTexture, vTexCoord + vec2(-h.x, -h.y)).rgb * 2.0;\n" +
+        "    fragColor = vec4(sum / 12.0, 1.0);\n" +
         "}\n";
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -146,7 +184,12 @@ public class BloomEffect {
     // ═══════════════════════════════════════════════════════════════════════════
 
     public BloomEffect() {
-        Log.d(TAG, "✨ Creando BloomEffect...");
+        this(Quality.forTier(DeviceProfile.get().getMemoryTier()));
+    }
+
+    public BloomEffect(Quality quality) {
+        Log.d(TAG, "✨ Creando BloomEffect (calidad " + quality + ")...");
+        this.quality = quality;
         initQuadBuffer();
     }
 
@@ -168,110 +211,59 @@ public class BloomEffect {
         quadBuffer.position(0);
     }
 
-    public void initialize(int width, int height) {
-        if (width <= 0 || height <= 0) return;
-
-        Log.d(TAG, "✨ Inicializando BloomEffect: " + width + "x" + height);
+    /**
+     * Compila shaders y cachea uniforms. GL thread; se llama solo en el primer uso.
+     */
+    public void initialize() {
+        if (initialized) return;
 
-        screenWidth = width;
-        screenHeight = height;
-        bloomWidth = Math.max(1, width / BLOOM_SCALE);
-        bloomHeight = Math.max(1, height / BLOOM_SCALE);
+        Log.d(TAG, "✨ Inicializando BloomEffect");
 
         // Compilar shaders
-        brightPassProgram = compileProgram(FULLSCREEN_VERTEX, BRIGHT_PASS_FRAGMENT);
-        blurProgram = compileProgram(FULLSCREEN_VERTEX, BLUR_FRAGMENT);
-        compositeProgram = compileProgram(FULLSCREEN_VERTEX, COMPOSITE_FRAGMENT);
+        prefilterProgram = compileProgram(FULLSCREEN_VERTEX, PREFILTER_FRAGMENT);
+        downsampleProgram = compileProgram(FULLSCREEN_VERTEX, DOWNSAMPLE_FRAGMENT);
+        upsampleProgram = compileProgram(FULLSCREEN_VERTEX, UPSAMPLE_FRAGMENT);
 
-        if (brightPassProgram == 0 || blurProgram == 0 || compositeProgram == 0) {
+        if (prefilterProgram == 0 || downsampleProgram == 0 || upsampleProgram == 0) {
             Log.e(TAG, "✗ Error compilando shaders de bloom");
             enabled = false;
             return;
         }
 
-        // Obtener uniform locations
-        uBrightThreshold = GLES30.glGetUniformLocation(brightPassProgram, "uThreshold");
-        uBlurHorizontal = GLES30.glGetUniformLocation(blurProgram, "uHorizontal");
-        uBlurTexelSize = GLES30.glGetUniformLocation(blurProgram, "uTexelSize");
-        uCompositeBloomIntensity = GLES30.glGetUniformLocation(compositeProgram, "uBloomIntensity");
+        // Obtener uniform locations y fijar samplers (una sola vez)
+        uPrefilterThreshold = GLES30.glGetUniformLocation(prefilterProgram, "uThreshold");
+        uPrefilterHalfTexel = GLES30.glGetUniformLocation(prefilterProgram, "uHalfTexel");
+        uDownHalfTexel = GLES30.glGetUniformLocation(downsampleProgram, "uHalfTexel");
+        uUpHalfTexel = GLES30.glGetUniformLocation(upsampleProgram, "uHalfTexel");
+
+        GLStateManager.get().useProgram(prefilterProgram);
+        GLES30.glUniform1i(GLES30.glGetUniformLocation(prefilterProgram, "uScene"), 0);
+        GLES30.glUniform1f(uPrefilterThreshold, BLOOM_THRESHOLD);
+        GLStateManager.get().useProgram(downsampleProgram);
+        GLES30.glUniform1i(GLES30.glGetUniformLocation(downsampleProgram, "uTexture"), 0);
+        GLStateManager.get().useProgram(upsampleProgram);
+        GLES30.glUniform1i(GLES30.glGetUniformLocation(upsampleProgram, "uTexture"), 0);
+        GLStateManager.get().useProgram(0);
 
-        // Crear FBOs
-        createSceneFBO();
-        createBloomFBOs();
         createQuadVAO();
 
         initialized = true;
-        Log.d(TAG, "✓ BloomEffect inicializado (bloom: " + bloomWidth + "x" + bloomHeight + ")");
+        Log.d(TAG, "✓ BloomEffect inicializado (" + quality.levels + " niveles, " +
+            RenderTarget.formatName(getOutputFormat()) + ")");
     }
 
-    private void createSceneFBO() {
-        // FBO para capturar la escena completa
-        GLES30.glGenFramebuffers(1, sceneFBO, 0);
-        GLES30.glGenTextures(1, sceneTexture, 0);
-        GLES30.glGenRenderbuffers(1, sceneDepth, 0);
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, sceneFBO[0]);
-
-        // Textura de color
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, sceneTexture[0]);
-        GLES30.glTexImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_RGBA8,
-            screenWidth, screenHeight, 0, GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, null);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glFramebufferTexture2D(GLES30.GL_FRAMEBUFFER, GLES30.GL_COLOR_ATTACHMENT0,
-            GLES30.GL_TEXTURE_2D, sceneTexture[0], 0);
-
-        // Renderbuffer de profundidad
-        GLES30.glBindRenderbuffer(GLES30.GL_RENDERBUFFER, sceneDepth[0]);
-        GLES30.glRenderbufferStorage(GLES30.GL_RENDERBUFFER, GLES30.GL_DEPTH_COMPONENT16,
-            screenWidth, screenHeight);
-        GLES30.glFramebufferRenderbuffer(GLES30.GL_FRAMEBUFFER, GLES30.GL_DEPTH_ATTACHMENT,
-            GLES30.GL_RENDERBUFFER, sceneDepth[0]);
-
-        int status = GLES30.glCheckFramebufferStatus(GLES30.GL_FRAMEBUFFER);
-        if (status != GLES30.GL_FRAMEBUFFER_COMPLETE) {
-            Log.e(TAG, "✗ Scene FBO incompleto: " + status);
+    /**
+     * RGBA16F solo es renderizable con EXT_color_buffer_half_float/float;
+     * si no, RGB10_A2 (renderizable en todo GLES 3.0).
+     */
+    private static int resolveMipFormat(int requested) {
+        if (requested != GLES30.GL_RGBA16F) return requested;
+        String extensions = GLES30.glGetString(GLES30.GL_EXTENSIONS);
+        if (extensions != null && (extensions.contains("GL_EXT_color_buffer_half_float")
+                || extensions.contains("GL_EXT_color_buffer_float"))) {
+            return GLES30.GL_RGBA16F;
         }
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
-    }
-
-    private void createBloomFBOs() {
-        // FBO para bright pass
-        GLES30.glGenFramebuffers(1, brightFBO, 0);
-        GLES30.glGenTextures(1, brightTexture, 0);
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, brightFBO[0]);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, brightTexture[0]);
-        GLES30.glTexImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_RGBA8,
-            bloomWidth, bloomHeight, 0, GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, null);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glFramebufferTexture2D(GLES30.GL_FRAMEBUFFER, GLES30.GL_COLOR_ATTACHMENT0,
-            GLES30.GL_TEXTURE_2D, brightTexture[0], 0);
-
-        // FBOs ping-pong para blur
-        GLES30.glGenFramebuffers(2, blurFBO, 0);
-        GLES30.glGenTextures(2, blurTexture, 0);
-
-        for (int i = 0; i < 2; i++) {
-            GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, blurFBO[i]);
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, blurTexture[i]);
-            GLES30.glTexImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_RGBA8,
-                bloomWidth, bloomHeight, 0, GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, null);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-            GLES30.glFramebufferTexture2D(GLES30.GL_FRAMEBUFFER, GLES30.GL_COLOR_ATTACHMENT0,
-                GLES30.GL_TEXTURE_2D, blurTexture[i], 0);
-        }
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
+        return GLES30.GL_RGB10_A2;
     }
 
     private void createQuadVAO() {
@@ -284,111 +276,101 @@ public class BloomEffect {
         quadVAO = vao[0];
         quadVBO = vbo[0];
 
-        GLES30.glBindVertexArray(quadVAO);
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, quadVBO);
-        GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER, quadBuffer.capacity() * 4, quadBuffer, GLES30.GL_STATIC_DRAW);
+        GLStateManager.get().bindVertexArray(quadVAO);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, quadVBO);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, quadBuffer.capacity() * 4, quadBuffer, GLES30.GL_STATIC_DRAW);
 
         GLES30.glEnableVertexAttribArray(0);
         GLES30.glVertexAttribPointer(0, 2, GLES30.GL_FLOAT, false, 0, 0);
 
-        GLES30.glBindVertexArray(0);
+        GLStateManager.get().bindVertexArray(0);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
-    // CAPTURA Y APLICACIÓN DEL BLOOM
+    // PASE DEL RENDER GRAPH
     // ═══════════════════════════════════════════════════════════════════════════
 
     /**
-     * Comienza a capturar la escena al FBO
-     * Llamar ANTES de dibujar la escena
+     * Formato de la salida (y de toda la pirámide). GL thread.
      */
-    public void beginCapture() {
-        if (!initialized || !enabled) return;
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, sceneFBO[0]);
-        GLES30.glViewport(0, 0, screenWidth, screenHeight);
-        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
-        capturing = true;
+    public int getOutputFormat() {
+        if (!formatResolved) {
+            mipFormat = resolveMipFormat(quality.internalFormat);
+            formatResolved = true;
+        }
+        return mipFormat;
     }
 
     /**
-     * Termina la captura y aplica el efecto bloom
-     * Llamar DESPUÉS de dibujar la escena
+     * scene → output (mip[0], 1/2). Los niveles 1..n se piden al pool y se devuelven al final.
      */
-    public void endCaptureAndApply() {
-        if (!initialized || !enabled || !capturing) {
-            GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
-            return;
+    @Override
+    public void execute(RenderTarget scene, RenderTarget output) {
+        if (!initialized) initialize();
+        if (!initialized || scene == null || output == null) return;
+
+        RenderTargetPool pool = RenderTargetPool.get();
+        int format = getOutputFormat();
+
+        // Pirámide: 1/2 (salida), 1/4, 1/8... (se corta antes si el nivel queda < 2px)
+        mips[0] = output;
+        int levelCount = 1;
+        for (int i = 1; i < quality.levels; i++) {
+            int w = output.width >> i;
+            int h = output.height >> i;
+            if (w < 2 || h < 2) break;
+            RenderTarget rt = pool.acquire(w, h, format, false);
+            if (rt == null) break;
+            mips[i] = rt;
+            levelCount++;
         }
 
-        capturing = false;
-
-        // Guardar estado
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDisable(GLES30.GL_BLEND);
-
-        // 1. Bright Pass: Extraer píxeles brillantes
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, brightFBO[0]);
-        GLES30.glViewport(0, 0, bloomWidth, bloomHeight);
-        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
-
-        GLES30.glUseProgram(brightPassProgram);
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, sceneTexture[0]);
-        GLES30.glUniform1i(GLES30.glGetUniformLocation(brightPassProgram, "uScene"), 0);
-        GLES30.glUniform1f(uBrightThreshold, BLOOM_THRESHOLD);
-        drawFullscreenQuad();
-
-        // 2. Blur Gaussiano (ping-pong)
-        boolean horizontal = true;
-        int inputTexture = brightTexture[0];
-
-        GLES30.glUseProgram(blurProgram);
-        GLES30.glUniform1i(GLES30.glGetUniformLocation(blurProgram, "uTexture"), 0);
-        GLES30.glUniform2f(uBlurTexelSize, 1.0f / bloomWidth, 1.0f / bloomHeight);
-
-        for (int i = 0; i < BLUR_PASSES * 2; i++) {
-            int targetFBO = blurFBO[horizontal ? 0 : 1];
-
-            GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, targetFBO);
-            GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT);
-
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, inputTexture);
-            GLES30.glUniform1i(uBlurHorizontal, horizontal ? 1 : 0);
-            drawFullscreenQuad();
-
-            inputTexture = blurTexture[horizontal ? 0 : 1];
-            horizontal = !horizontal;
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_BLEND);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindVertexArray(quadVAO);
+
+        // 1. Prefiltro: escena → mip[0] (1/2) solo con lo brillante
+        GLStateManager.get().useProgram(prefilterProgram);
+        GLES30.glUniform2f(uPrefilterHalfTexel, 0.5f / scene.width, 0.5f / scene.height);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, scene.getTexture());
+        renderTo(mips[0]);
+
+        // 2. Downsample: mip[i-1] → mip[i]
+        GLStateManager.get().useProgram(downsampleProgram);
+        for (int i = 1; i < levelCount; i++) {
+            GLES30.glUniform2f(uDownHalfTexel, 0.5f / mips[i - 1].width, 0.5f / mips[i - 1].height);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, mips[i - 1].getTexture());
+            renderTo(mips[i]);
         }
 
-        // 3. Composite: Combinar escena + bloom
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
-        GLES30.glViewport(0, 0, screenWidth, screenHeight);
-        GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
-
-        GLES30.glUseProgram(compositeProgram);
-
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, sceneTexture[0]);
-        GLES30.glUniform1i(GLES30.glGetUniformLocation(compositeProgram, "uScene"), 0);
-
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE1);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, inputTexture);  // Último resultado del blur
-        GLES30.glUniform1i(GLES30.glGetUniformLocation(compositeProgram, "uBloom"), 1);
-
-        GLES30.glUniform1f(uCompositeBloomIntensity, BLOOM_INTENSITY);
-        drawFullscreenQuad();
+        // 3. Upsample + suma: mip[i] se agrega encima de mip[i-1] (blend aditivo)
+        GLStateManager.get().useProgram(upsampleProgram);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_ONE, GLES30.GL_ONE);
+        for (int i = levelCount - 1; i > 0; i--) {
+            GLES30.glUniform2f(uUpHalfTexel, 0.5f / mips[i].width, 0.5f / mips[i].height);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, mips[i].getTexture());
+            renderTo(mips[i - 1]);
+        }
 
         // Restaurar estado
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().bindVertexArray(0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, 0);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+
+        // Niveles intermedios de vuelta al pool (mip[0] es del graph)
+        for (int i = 1; i < levelCount; i++) {
+            pool.release(mips[i]);
+            mips[i] = null;
+        }
+        mips[0] = null;
     }
 
-    private void drawFullscreenQuad() {
-        GLES30.glBindVertexArray(quadVAO);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLES, 0, 6);
-        GLES30.glBindVertexArray(0);
+    private void renderTo(RenderTarget target) {
+        target.bind();
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLES, 0, 6);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -414,7 +396,7 @@ public class BloomEffect {
         GLES30.glGetProgramiv(program, GLES30.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Link error: " + GLES30.glGetProgramInfoLog(program));
-            GLES30.glDeleteProgram(program);
+            GLStateManager.get().deleteProgram(program);
             return 0;
         }
 
@@ -439,11 +421,22 @@ public class BloomEffect {
         return shader;
     }
 
-    public void resize(int width, int height) {
-        if (width == screenWidth && height == screenHeight) return;
+    /**
+     * Cambia la calidad (profundidad de pirámide y formato). Aplica desde el siguiente frame.
+     */
+    public void setQuality(Quality quality) {
+        if (quality == this.quality) return;
+        this.quality = quality;
+        formatResolved = false;
+        Log.d(TAG, "Bloom calidad: " + quality);
+    }
+
+    public Quality getQuality() {
+        return quality;
+    }
 
-        release();
-        initialize(width, height);
+    public float getIntensity() {
+        return BLOOM_INTENSITY;
     }
 
     public void setEnabled(boolean enabled) {
@@ -452,7 +445,7 @@ public class BloomEffect {
     }
 
     public boolean isEnabled() {
-        return enabled && initialized;
+        return enabled;
     }
 
     public void release() {
@@ -460,27 +453,16 @@ public class BloomEffect {
 
         Log.d(TAG, "Liberando BloomEffect...");
 
-        // Eliminar FBOs
-        GLES30.glDeleteFramebuffers(1, sceneFBO, 0);
-        GLES30.glDeleteTextures(1, sceneTexture, 0);
-        GLES30.glDeleteRenderbuffers(1, sceneDepth, 0);
-
-        GLES30.glDeleteFramebuffers(1, brightFBO, 0);
-        GLES30.glDeleteTextures(1, brightTexture, 0);
-
-        GLES30.glDeleteFramebuffers(2, blurFBO, 0);
-        GLES30.glDeleteTextures(2, blurTexture, 0);
-
         // Eliminar VAO/VBO
         int[] vaoArr = {quadVAO};
         int[] vboArr = {quadVBO};
-        GLES30.glDeleteVertexArrays(1, vaoArr, 0);
-        GLES30.glDeleteBuffers(1, vboArr, 0);
+        GLStateManager.get().deleteVertexArrays(1, vaoArr, 0);
+        GLStateManager.get().deleteBuffers(1, vboArr, 0);
 
         // Eliminar programas
-        if (brightPassProgram != 0) GLES30.glDeleteProgram(brightPassProgram);
-        if (blurProgram != 0) GLES30.glDeleteProgram(blurProgram);
-        if (compositeProgram != 0) GLES30.glDeleteProgram(compositeProgram);
+        if (prefilterProgram != 0) GLStateManager.get().deleteProgram(prefilterProgram);
+        if (downsampleProgram != 0) GLStateManager.get().deleteProgram(downsampleProgram);
+        if (upsampleProgram != 0) GLStateManager.get().deleteProgram(upsampleProgram);
 
         initialized = false;
     }
@@ -0,0 +1,262 @@
+package com.secret.blackholeglow.effects;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ 📉 DynamicResolutionController - Escala de render adaptativa     ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • La escena se dibuja a scale x pantalla (0.5 - 1.0, pasos 0.1) ║
+ * ║    y el composite del RenderGraph la re-escala con sharpening    ║
+ * ║  • Medición: tiempo GPU de la escena (EXT_disjoint_timer_query)  ║
+ * ║    o, si no hay extensión, tiempo de trabajo de GLStateManager   ║
+ * ║  • Baja rápido (proporcional al exceso), sube de a un paso y     ║
+ * ║    solo si el costo estimado del paso siguiente cabe             ║
+ * ║  • Con scale 1.0 no hay FBO: la escena va directo a pantalla     ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Solo GL thread. getActiveScale() se puede leer desde cualquier hilo
+ * (DiagnosticData, shaders que usan gl_FragCoord).
+ */
+public final class DynamicResolutionController {
+    private static final String TAG = "DynamicResolution";
+
+    // Escala en décimas: 5 = 0.5 ... 10 = 1.0 (pocos tamaños distintos en el pool)
+    private static final int MIN_LEVEL = 5;
+    private static final int MAX_LEVEL = 10;
+
+    private static final int EVAL_FRAMES = 30;            // ~1s a 30 FPS
+    private static final float GPU_BUDGET_FRACTION = 0.8f; // Margen para UI, composite y swap
+    private static final float UPSCALE_HEADROOM = 0.9f;    // El paso siguiente debe caber con 10% libre
+    private static final float SMOOTHING = 0.2f;
+    private static final float SHARPEN_STRENGTH = 0.5f;
+
+    // Escala usada por la escena en el frame actual (1.0 = nativa)
+    private static volatile float activeScale = 1f;
+    private static volatile float lastGpuMs = -1f;
+    private static volatile boolean gpuTimerAvailable = false;
+
+    private final GpuTimer gpuTimer = new GpuTimer();
+
+    private boolean enabled = true;
+    private int level = MAX_LEVEL;
+    private float smoothedMs = 0f;
+    private int framesSinceEval = 0;
+
+    // ═══════════════════════════════════════════════════════════════
+    // API
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Escala para la escena de este frame */
+    public float getScale() {
+        return enabled ? level / 10f : 1f;
+    }
+
+    /** Cantidad de sharpening para el upscale (0 si la escala es nativa) */
+    public float getSharpness() {
+        return getScale() < 1f ? SHARPEN_STRENGTH : 0f;
+    }
+
+    public void setEnabled(boolean enabled) {
+        if (this.enabled == enabled) return;
+        this.enabled = enabled;
+        level = MAX_LEVEL;
+        smoothedMs = 0f;
+        framesSinceEval = 0;
+        Log.d(TAG, "📉 Resolución dinámica " + (enabled ? "habilitada" : "deshabilitada"));
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra la escala con la que se dibujó la escena este frame.
+     */
+    public void onSceneScale(float scale) {
+        activeScale = scale;
+    }
+
+    /** Llamar justo antes de dibujar la escena */
+    public void beginScene() {
+        gpuTimer.begin();
+    }
+
+    /** Llamar justo después de dibujar la escena */
+    public void endScene() {
+        gpuTimer.end();
+    }
+
+    /**
+     * Fin de frame: recoge la medición y ajusta la escala cada EVAL_FRAMES frames.
+     *
+     * @param frameWorkMs Tiempo de trabajo del frame (GLStateManager.getFrameWorkMs)
+     * @param budgetMs    Presupuesto por frame (GLStateManager.getFrameBudgetMs)
+     */
+    public void update(float frameWorkMs, float budgetMs) {
+        if (!enabled) return;
+
+        float sample;
+        float budget;
+        float gpuMs = gpuTimer.poll();
+        if (gpuMs >= 0f) {
+            lastGpuMs = gpuMs;
+            sample = gpuMs;
+            budget = budgetMs * GPU_BUDGET_FRACTION;
+        } else if (!gpuTimer.isSupported()) {
+            sample = frameWorkMs;
+            budget = budgetMs;
+        } else {
+            return;  // Query todavía en vuelo
+        }
+        if (sample <= 0f) return;
+
+        smoothedMs = smoothedMs == 0f ? sample : smoothedMs + (sample - smoothedMs) * SMOOTHING;
+        if (++framesSinceEval < EVAL_FRAMES) return;
+        framesSinceEval = 0;
+
+        int newLevel = level;
+        if (smoothedMs > budget && level > MIN_LEVEL) {
+            // Costo ∝ píxeles ∝ scale²: bajar directo a la escala que cabe
+            float target = (level / 10f) * (float) Math.sqrt(budget / smoothedMs);
+            newLevel = Math.max(MIN_LEVEL, Math.min(level - 1, (int) Math.floor(target * 10f)));
+        } else if (level < MAX_LEVEL) {
+            float growth = ((level + 1) / (float) level) * ((level + 1) / (float) level);
+            if (smoothedMs * growth < budget * UPSCALE_HEADROOM) {
+                newLevel = level + 1;
+            }
+        }
+
+        if (newLevel != level) {
+            Log.d(TAG, String.format("📉 Escala %.1f → %.1f (%.1f ms, presupuesto %.1f ms, %s)",
+                    level / 10f, newLevel / 10f, smoothedMs, budget,
+                    gpuMs >= 0f ? "GPU" : "frame"));
+            // La medición siguiente refleja la nueva escala: reescalar el promedio
+            float ratio = (newLevel / (float) level);
+            smoothedMs *= ratio * ratio;
+            level = newLevel;
+        }
+    }
+
+    /** Contexto GL nuevo: las queries viejas ya no existen */
+    public void invalidate() {
+        gpuTimer.invalidate();
+    }
+
+    public void release() {
+        gpuTimer.release();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // DIAGNÓSTICO
+    // ═══════════════════════════════════════════════════════════════
+
+    public static float getActiveScale() {
+        return activeScale;
+    }
+
+    /** Último tiempo GPU medido de la escena en ms (-1 si no hay medición) */
+    public static float getLastGpuMs() {
+        return lastGpuMs;
+    }
+
+    public static boolean isGpuTimerAvailable() {
+        return gpuTimerAvailable;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // GPU TIMER (EXT_disjoint_timer_query)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Ring de queries TIME_ELAPSED: se leen frames después, sin bloquear.
+     */
+    private static final class GpuTimer {
+        private static final int GL_TIME_ELAPSED_EXT = 0x88BF;
+        private static final int GL_GPU_DISJOINT_EXT = 0x8FBB;
+        private static final int QUERY_COUNT = 4;
+
+        private final int[] queries = new int[QUERY_COUNT];
+        private final boolean[] pending = new boolean[QUERY_COUNT];
+        private final int[] result = new int[1];
+        private int writeIndex = 0;
+        private int readIndex = 0;
+        private boolean running = false;
+        private boolean checked = false;
+        private boolean supported = false;
+
+        boolean isSupported() {
+            ensureChecked();
+            return supported;
+        }
+
+        private void ensureChecked() {
+            if (checked) return;
+            checked = true;
+            String extensions = GLES30.glGetString(GLES30.GL_EXTENSIONS);
+            supported = extensions != null && extensions.contains("GL_EXT_disjoint_timer_query");
+            if (supported) {
+                GLES30.glGenQueries(QUERY_COUNT, queries, 0);
+            }
+            gpuTimerAvailable = supported;
+            Log.d(TAG, "⏱️ GPU timer: " + (supported ? "EXT_disjoint_timer_query" : "no disponible"));
+        }
+
+        void begin() {
+            ensureChecked();
+            if (!supported || running) return;
+            if (pending[writeIndex]) return;  // Ring lleno: este frame no se mide
+            GLES30.glBeginQuery(GL_TIME_ELAPSED_EXT, queries[writeIndex]);
+            running = true;
+        }
+
+        void end() {
+            if (!running) return;
+            GLES30.glEndQuery(GL_TIME_ELAPSED_EXT);
+            pending[writeIndex] = true;
+            writeIndex = (writeIndex + 1) % QUERY_COUNT;
+            running = false;
+        }
+
+        /**
+         * @return ms de la medición más reciente disponible, o -1 si no hay
+         */
+        float poll() {
+            if (!supported) return -1f;
+            long latestNs = -1;
+            while (pending[readIndex]) {
+                GLES30.glGetQueryObjectuiv(queries[readIndex], GLES30.GL_QUERY_RESULT_AVAILABLE, result, 0);
+                if (result[0] == 0) break;
+                GLES30.glGetQueryObjectuiv(queries[readIndex], GLES30.GL_QUERY_RESULT, result, 0);
+                latestNs = result[0] & 0xFFFFFFFFL;
+                pending[readIndex] = false;
+                readIndex = (readIndex + 1) % QUERY_COUNT;
+            }
+            if (latestNs < 0) return -1f;
+
+            // Disjoint (cambio de frecuencia, preempción): la medición no es confiable
+            GLES30.glGetIntegerv(GL_GPU_DISJOINT_EXT, result, 0);
+            if (result[0] != 0) return -1f;
+            return latestNs / 1_000_000f;
+        }
+
+        void invalidate() {
+            for (int i = 0; i < QUERY_COUNT; i++) {
+                queries[i] = 0;
+                pending[i] = false;
+            }
+            writeIndex = 0;
+            readIndex = 0;
+            running = false;
+            checked = false;
+        }
+
+        void release() {
+            if (supported && checked) {
+                GLES30.glDeleteQueries(QUERY_COUNT, queries, 0);
+            }
+            invalidate();
+        }
+    }
+}
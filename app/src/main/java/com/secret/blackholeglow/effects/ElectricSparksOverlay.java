@@ -3,6 +3,8 @@ package com.secret.blackholeglow.effects;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -249,10 +251,10 @@ public class ElectricSparksOverlay {
         if (shaderProgram == 0 || activeSparks.isEmpty()) return;
 
         // Save GL state
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);  // Additive blending
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);  // Additive blending
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Set common uniforms
         GLES30.glUniform1f(uTimeLocation, globalTime);
@@ -269,13 +271,13 @@ public class ElectricSparksOverlay {
             GLES30.glUniform1f(uLifetimeLocation, spark.getAlpha());
             GLES30.glUniform1f(uSeedLocation, spark.seed);
 
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+            GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
         }
 
         GLES30.glDisableVertexAttribArray(posAttrib);
 
         // Restore blend mode
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     public void setScreenSize(int width, int height) {
@@ -285,7 +287,7 @@ public class ElectricSparksOverlay {
 
     public synchronized void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         activeSparks.clear();
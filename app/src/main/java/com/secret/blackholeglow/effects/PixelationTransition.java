@@ -3,6 +3,8 @@ package com.secret.blackholeglow.effects;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -11,6 +13,8 @@ import java.nio.FloatBuffer;
  * Efecto de pixeleo al presionar el Xbox controller.
  * Captura el frame actual a un FBO, luego renderiza con pixeles
  * que crecen progresivamente hasta fade a negro.
+ * The capture target is borrowed from RenderTargetPool and returned when the
+ * transition ends, so it shares memory with the other post-processing passes.
  */
 public class PixelationTransition {
     private static final String TAG = "PixelationTransition";
@@ -18,10 +22,8 @@ public class PixelationTransition {
     private static final float DURATION = 0.8f; // seconds
     private static final float MAX_PIXEL_SIZE = 64.0f;
 
-    // FBO for frame capture
-    private int[] fbo = new int[1];
-    private int[] fboTexture = new int[1];
-    private boolean fboCreated = false;
+    // Pooled FBO for frame capture
+    private RenderTarget captureTarget;
 
     // Shader
     private int shaderProgram = 0;
@@ -89,7 +91,7 @@ public class PixelationTransition {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Link error: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -139,45 +141,8 @@ public class PixelationTransition {
         this.screenWidth = width;
         this.screenHeight = height;
 
-        // Recreate FBO if size changed
-        if (fboCreated) {
-            releaseFBO();
-        }
-    }
-
-    /**
-     * Creates the FBO for capturing. Call on GL thread.
-     */
-    private boolean createFBO() {
-        if (screenWidth <= 0 || screenHeight <= 0) return false;
-
-        GLES30.glGenFramebuffers(1, fbo, 0);
-        GLES30.glGenTextures(1, fboTexture, 0);
-
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, fboTexture[0]);
-        GLES30.glTexImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_RGBA8,
-                screenWidth, screenHeight, 0, GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, null);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
-        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, fbo[0]);
-        GLES30.glFramebufferTexture2D(GLES30.GL_FRAMEBUFFER, GLES30.GL_COLOR_ATTACHMENT0,
-                GLES30.GL_TEXTURE_2D, fboTexture[0], 0);
-
-        int status = GLES30.glCheckFramebufferStatus(GLES30.GL_FRAMEBUFFER);
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
-
-        if (status != GLES30.GL_FRAMEBUFFER_COMPLETE) {
-            Log.e(TAG, "FBO incomplete: " + status);
-            releaseFBO();
-            return false;
-        }
-
-        fboCreated = true;
-        Log.d(TAG, "FBO created: " + screenWidth + "x" + screenHeight);
-        return true;
+        // Drop the capture if size changed (pool recreates targets at the new size)
+        releaseFBO();
     }
 
     /**
@@ -187,12 +152,14 @@ public class PixelationTransition {
     public boolean beginCapture() {
         if (!initialized || shaderProgram == 0) return false;
 
-        if (!fboCreated) {
-            if (!createFBO()) return false;
+        if (captureTarget == null) {
+            RenderTargetPool pool = RenderTargetPool.get();
+            captureTarget = pool.acquire(screenWidth, screenHeight, GLES30.GL_RGBA8, false);
+            if (captureTarget == null) return false;
+            Log.d(TAG, "Capture target: " + captureTarget);
         }
 
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, fbo[0]);
-        GLES30.glViewport(0, 0, screenWidth, screenHeight);
+        captureTarget.bind();
         GLES30.glClearColor(0f, 0f, 0f, 1f);
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
         return true;
@@ -202,7 +169,7 @@ public class PixelationTransition {
      * Ends FBO capture and starts the pixelation animation.
      */
     public void endCaptureAndStart(Runnable onCompleteCallback) {
-        GLES30.glBindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
+        GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
         this.onComplete = onCompleteCallback;
         this.progress = 0f;
         this.active = true;
@@ -220,7 +187,7 @@ public class PixelationTransition {
             progress = 1.0f;
             active = false;
 
-            // Release FBO immediately after transition
+            // Return the capture target to the pool right after the transition
             releaseFBO();
 
             if (onComplete != null) {
@@ -235,7 +202,7 @@ public class PixelationTransition {
      * Draws the pixelation effect. Call during draw phase.
      */
     public void draw() {
-        if (!active || !fboCreated || shaderProgram == 0) return;
+        if (!active || captureTarget == null || shaderProgram == 0) return;
 
         // easeInQuad: t^2
         float eased = progress * progress;
@@ -249,12 +216,12 @@ public class PixelationTransition {
             fade = 1.0f;
         }
 
-        GLES30.glUseProgram(shaderProgram);
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDisable(GLES30.GL_BLEND);
+        GLStateManager.get().useProgram(shaderProgram);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_BLEND);
 
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, fboTexture[0]);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, captureTarget.getTexture());
         GLES30.glUniform1i(uTextureLoc, 0);
 
         GLES30.glUniform1f(uPixelSizeLoc, pixelSize);
@@ -265,11 +232,11 @@ public class PixelationTransition {
         GLES30.glEnableVertexAttribArray(aPositionLoc);
         GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(aPositionLoc);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
-        GLES30.glUseProgram(0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, 0);
+        GLStateManager.get().useProgram(0);
     }
 
     public boolean isActive() {
@@ -277,21 +244,16 @@ public class PixelationTransition {
     }
 
     private void releaseFBO() {
-        if (fboTexture[0] != 0) {
-            GLES30.glDeleteTextures(1, fboTexture, 0);
-            fboTexture[0] = 0;
-        }
-        if (fbo[0] != 0) {
-            GLES30.glDeleteFramebuffers(1, fbo, 0);
-            fbo[0] = 0;
+        if (captureTarget != null) {
+            RenderTargetPool.get().release(captureTarget);
+            captureTarget = null;
         }
-        fboCreated = false;
     }
 
     public void release() {
         releaseFBO();
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         active = false;
@@ -4,6 +4,7 @@ import android.opengl.GLES30;
 import android.util.Log;
 
 import com.secret.blackholeglow.SceneObject;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -126,7 +127,7 @@ public class ProceduralPanelBackground implements SceneObject {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "Link error: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -188,7 +189,7 @@ public class ProceduralPanelBackground implements SceneObject {
     public void draw() {
         if (!initialized || shaderProgram == 0) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         GLES30.glUniform1f(uTimeLoc, time);
         GLES30.glUniform2f(uResolutionLoc, screenWidth, screenHeight);
@@ -197,15 +198,15 @@ public class ProceduralPanelBackground implements SceneObject {
         GLES30.glEnableVertexAttribArray(aPositionLoc);
         GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(aPositionLoc);
-        GLES30.glUseProgram(0);
+        GLStateManager.get().useProgram(0);
     }
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         initialized = false;
@@ -0,0 +1,571 @@
+package com.secret.blackholeglow.effects;
+
+import android.opengl.GLES30;
+import android.util.Log;
+import android.util.SparseArray;
+
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════════════╗
+ * ║   🧩 RenderGraph - Frame de post-processing declarativo                  ║
+ * ╠══════════════════════════════════════════════════════════════════════════╣
+ * ║                                                                          ║
+ * ║   Cada frame se describe, no se ejecuta a mano:                          ║
+ * ║                                                                          ║
+ * ║     graph.begin();                                                       ║
+ * ║     Resource scene = graph.create("scene", 1f, GL_RGBA8, true);          ║
+ * ║     Resource bloom = graph.create("bloom", 0.5f, fmt, false);            ║
+ * ║     graph.addPass("scene", null, scene, scenePass);                      ║
+ * ║     graph.addPass("bloom", scene, bloom, bloomEffect);                   ║
+ * ║     graph.addComposite(scene, bloom, intensity, sharpness);              ║
+ * ║     graph.addOverlays(screenEffects.getOverlays());                      ║
+ * ║     graph.execute();                                                     ║
+ * ║                                                                          ║
+ * ║   • Los Resource son virtuales: el target real sale de RenderTargetPool  ║
+ * ║     justo antes del primer pase que lo escribe y vuelve al pool tras     ║
+ * ║     su última lectura → targets con vidas disjuntas se reutilizan        ║
+ * ║   • Composite (escena + bloom) y overlays (grietas, flash...) se         ║
+ * ║     fusionan en UN solo shader full-screen, generado y cacheado por      ║
+ * ║     combinación de overlays activos                                      ║
+ * ║   • Si la escena está a menor resolución, el composite la re-escala      ║
+ * ║     con un sharpening de 5 taps limitado al rango local (sin halos)      ║
+ * ║   • Sin composite, los overlays activos van en un único pase blend       ║
+ * ║                                                                          ║
+ * ║   Solo GL thread. Sin allocations por frame (nodos reciclados).          ║
+ * ╚══════════════════════════════════════════════════════════════════════════╝
+ */
+public final class RenderGraph {
+    private static final String TAG = "RenderGraph";
+
+    /**
+     * Cuerpo de un pase. El target de salida ya está bindeado (y limpio si es
+     * offscreen); output == null significa la pantalla.
+     */
+    public interface Pass {
+        void execute(RenderTarget input, RenderTarget output);
+    }
+
+    /**
+     * Target virtual del frame: solo descripción + vida (primer/último pase).
+     */
+    public static final class Resource {
+        String name;
+        float scale;
+        int format;
+        boolean depth;
+        int lastRead;
+        RenderTarget target;
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private static final class Node {
+        String name;
+        Resource input;
+        Resource output;
+        Pass body;
+        boolean composite;
+    }
+
+    // Máximo de overlays distintos que el graph puede fusionar (bits de la key del shader)
+    private static final int MAX_OVERLAYS = 8;
+
+    private final RenderTargetPool pool;
+
+    // Nodos y recursos reciclados entre frames
+    private final List<Node> nodes = new ArrayList<>();
+    private final List<Resource> resources = new ArrayList<>();
+    private int nodeCount = 0;
+    private int resourceCount = 0;
+
+    // Composite del frame
+    private Resource compositeScene;
+    private Resource compositeBloom;
+    private float bloomIntensity;
+    private float sharpness;
+
+    // Overlays conocidos por nombre de función (bit = índice) y activos este frame
+    private final List<String> knownOverlays = new ArrayList<>();
+    private final ScreenOverlay[] frameOverlays = new ScreenOverlay[MAX_OVERLAYS];
+    private int frameOverlayCount = 0;
+
+    // Shaders fusionados por combinación
+    private final SparseArray<CompositeProgram> programs = new SparseArray<>();
+
+    private FloatBuffer quadBuffer;
+    private int quadVAO;
+    private int quadVBO;
+
+    private int screenWidth = 1;
+    private int screenHeight = 1;
+
+    /**
+     * @param pool pool del contexto GL donde se ejecuta el graph (el del director)
+     */
+    public RenderGraph(RenderTargetPool pool) {
+        this.pool = pool;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // DECLARACIÓN DEL FRAME
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    public void begin() {
+        // Si el frame anterior abortó (excepción), devolver lo que quedó tomado
+        for (int i = 0; i < resourceCount; i++) {
+            Resource r = resources.get(i);
+            if (r.target != null) {
+                pool.release(r.target);
+                r.target = null;
+            }
+        }
+        nodeCount = 0;
+        resourceCount = 0;
+        compositeScene = null;
+        compositeBloom = null;
+        frameOverlayCount = 0;
+    }
+
+    /**
+     * Declara un target del frame a una fracción de la pantalla.
+     */
+    public Resource create(String name, float scale, int format, boolean depth) {
+        Resource r;
+        if (resourceCount < resources.size()) {
+            r = resources.get(resourceCount);
+        } else {
+            r = new Resource();
+            resources.add(r);
+        }
+        resourceCount++;
+        r.name = name;
+        r.scale = scale;
+        r.format = format;
+        r.depth = depth;
+        r.lastRead = -1;
+        r.target = null;
+        return r;
+    }
+
+    /**
+     * Declara un pase. input puede ser null; output null = pantalla.
+     */
+    public void addPass(String name, Resource input, Resource output, Pass body) {
+        Node n = nextNode();
+        n.name = name;
+        n.input = input;
+        n.output = output;
+        n.body = body;
+        n.composite = false;
+        if (input != null) input.lastRead = nodeCount - 1;
+    }
+
+    /**
+     * Pase final a pantalla: escena (re-escalada) + bloom (opcional) + overlays fusionados.
+     *
+     * @param sharpness Sharpening del upscale (0 = solo bilinear)
+     */
+    public void addComposite(Resource scene, Resource bloom, float bloomIntensity, float sharpness) {
+        Node n = nextNode();
+        n.name = "composite";
+        n.input = scene;
+        n.output = null;
+        n.body = null;
+        n.composite = true;
+        compositeScene = scene;
+        compositeBloom = bloom;
+        this.bloomIntensity = bloomIntensity;
+        this.sharpness = sharpness;
+        scene.lastRead = nodeCount - 1;
+        if (bloom != null) bloom.lastRead = nodeCount - 1;
+    }
+
+    /**
+     * Overlays full-screen de este frame (solo se usan los activos).
+     */
+    public void addOverlays(ScreenOverlay[] overlays) {
+        for (ScreenOverlay overlay : overlays) {
+            if (overlay.isActive() && frameOverlayCount < MAX_OVERLAYS
+                    && overlayBit(overlay) < MAX_OVERLAYS) {
+                frameOverlays[frameOverlayCount++] = overlay;
+            }
+        }
+    }
+
+    private Node nextNode() {
+        Node n;
+        if (nodeCount < nodes.size()) {
+            n = nodes.get(nodeCount);
+        } else {
+            n = new Node();
+            nodes.add(n);
+        }
+        nodeCount++;
+        return n;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // EJECUCIÓN
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    public void execute() {
+        boolean hasComposite = compositeScene != null;
+
+        for (int i = 0; i < nodeCount; i++) {
+            Node n = nodes.get(i);
+
+            // Salida: target del pool (offscreen) o pantalla
+            RenderTarget out = null;
+            if (n.output != null) {
+                if (n.output.target == null) {
+                    n.output.target = pool.acquire(n.output.scale, n.output.format, n.output.depth);
+                    if (n.output.target == null) {
+                        Log.e(TAG, "✗ Sin target para " + n.output.name + ", pase " + n.name + " omitido");
+                        continue;
+                    }
+                }
+                out = n.output.target;
+                out.bind();
+                GLES30.glClear(n.output.depth
+                        ? GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT
+                        : GLES30.GL_COLOR_BUFFER_BIT);
+            } else {
+                GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
+                GLStateManager.get().viewport(0, 0, screenWidth, screenHeight);
+            }
+
+            if (n.composite) {
+                drawFused(true);
+            } else {
+                RenderTarget in = n.input != null ? n.input.target : null;
+                n.body.execute(in, out);
+            }
+
+            // Devolver al pool lo que ya nadie va a leer
+            releaseIfDone(n.input, i);
+            if (n.composite) releaseIfDone(compositeBloom, i);
+            releaseIfDone(n.output, i);
+        }
+
+        // Sin composite: overlays en un único pase blend sobre la pantalla
+        if (!hasComposite && frameOverlayCount > 0) {
+            GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
+            GLStateManager.get().viewport(0, 0, screenWidth, screenHeight);
+            drawFused(false);
+        }
+    }
+
+    private void releaseIfDone(Resource r, int passIndex) {
+        if (r != null && r.target != null && r.lastRead <= passIndex) {
+            pool.release(r.target);
+            r.target = null;
+        }
+    }
+
+    private void drawFused(boolean withScene) {
+        boolean withBloom = withScene && compositeBloom != null && compositeBloom.target != null;
+        if (withScene && compositeScene.target == null) return;
+
+        int overlayMask = 0;
+        for (int i = 0; i < frameOverlayCount; i++) {
+            overlayMask |= 1 << overlayBit(frameOverlays[i]);
+        }
+        if (!withScene && overlayMask == 0) return;
+
+        boolean withSharpen = withScene && sharpness > 0f;
+
+        int key = (overlayMask << 3) | (withSharpen ? 4 : 0) | (withBloom ? 2 : 0) | (withScene ? 1 : 0);
+        CompositeProgram program = programs.get(key);
+        if (program == null) {
+            program = buildProgram(withScene, withBloom, withSharpen, overlayMask,
+                    frameOverlays, frameOverlayCount);
+            programs.put(key, program);
+        }
+        if (program.id == 0) return;
+
+        ensureQuad();
+
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        if (withScene) {
+            GLStateManager.get().disable(GLES30.GL_BLEND);
+        } else {
+            // El shader devuelve color premultiplicado
+            GLStateManager.get().enable(GLES30.GL_BLEND);
+            GLStateManager.get().blendFunc(GLES30.GL_ONE, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        }
+
+        GLStateManager.get().useProgram(program.id);
+        if (withScene) {
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, compositeScene.target.getTexture());
+        }
+        if (withSharpen) {
+            GLES30.glUniform2f(program.uSceneTexel,
+                    1f / compositeScene.target.width, 1f / compositeScene.target.height);
+            GLES30.glUniform1f(program.uSharpness, sharpness);
+        }
+        if (withBloom) {
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE1);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, compositeBloom.target.getTexture());
+            GLES30.glUniform1f(program.uBloomIntensity, bloomIntensity);
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        }
+        for (int i = 0; i < frameOverlayCount; i++) {
+            ScreenOverlay overlay = frameOverlays[i];
+            overlay.applyUniforms(program.overlayLocations[overlayBit(overlay)]);
+        }
+
+        GLStateManager.get().bindVertexArray(quadVAO);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().bindVertexArray(0);
+
+        // Restaurar estado
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    private int overlayBit(ScreenOverlay overlay) {
+        String name = overlay.getFunctionName();
+        int index = knownOverlays.indexOf(name);
+        if (index < 0) {
+            knownOverlays.add(name);
+            index = knownOverlays.size() - 1;
+        }
+        return index;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // SHADER FUSIONADO
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    private static final class CompositeProgram {
+        int id;
+        int uBloomIntensity = -1;
+        int uSceneTexel = -1;
+        int uSharpness = -1;
+        final int[][] overlayLocations = new int[MAX_OVERLAYS][];
+    }
+
+    private static final String VERTEX_SHADER =
+        "#version 300 es\n" +
+        "layout(location = 0) in vec2 aPosition;\n" +
+        "out vec2 vTexCoord;\n" +
+        "void main() {\n" +
+        "    vTexCoord = aPosition * 0.5 + 0.5;\n" +
+        "    gl_Position = vec4(aPosition, 0.0, 1.0);\n" +
+        "}\n";
+
+    private CompositeProgram buildProgram(boolean withScene, boolean withBloom, boolean withSharpen,
+                                          int overlayMask,
+                                          ScreenOverlay[] overlays, int overlayCount) {
+        StringBuilder fs = new StringBuilder(2048);
+        fs.append("#version 300 es\n")
+          .append("precision mediump float;\n")
+          .append("in vec2 vTexCoord;\n")
+          .append("out vec4 fragColor;\n");
+        if (withScene) fs.append("uniform sampler2D uScene;\n");
+        if (withSharpen) fs.append("uniform vec2 uSceneTexel;\nuniform float uSharpness;\n");
+        if (withBloom) fs.append("uniform sampler2D uBloom;\nuniform float uBloomIntensity;\n");
+        for (int i = 0; i < overlayCount; i++) {
+            fs.append(overlays[i].getGlslSource());
+        }
+
+        // Color premultiplicado acumulado: cada overlay va "encima" del anterior
+        fs.append("void main() {\n")
+          .append("    vec2 uv = vTexCoord;\n")
+          .append("    vec3 color = vec3(0.0);\n")
+          .append("    float alpha = 0.0;\n")
+          .append("    vec4 o;\n");
+        if (withSharpen) {
+            // Unsharp mask en cruz, limitado al min/max local para no generar halos
+            fs.append("    vec3 c = texture(uScene, uv).rgb;\n")
+              .append("    vec3 n = texture(uScene, uv + vec2(0.0, uSceneTexel.y)).rgb;\n")
+              .append("    vec3 s = texture(uScene, uv - vec2(0.0, uSceneTexel.y)).rgb;\n")
+              .append("    vec3 e = texture(uScene, uv + vec2(uSceneTexel.x, 0.0)).rgb;\n")
+              .append("    vec3 w = texture(uScene, uv - vec2(uSceneTexel.x, 0.0)).rgb;\n")
+              .append("    vec3 mn = min(c, min(min(n, s), min(e, w)));\n")
+              .append("    vec3 mx = max(c, max(max(n, s), max(e, w)));\n")
+              .append("    color = clamp(c + (c * 4.0 - n - s - e - w) * (uSharpness * 0.25), mn, mx);\n")
+              .append("    alpha = 1.0;\n");
+        } else if (withScene) {
+            fs.append("    color = texture(uScene, uv).rgb;\n")
+              .append("    alpha = 1.0;\n");
+        }
+        if (withBloom) {
+            fs.append("    color += texture(uBloom, uv).rgb * uBloomIntensity;\n")
+              .append("    // Tone mapping simple para evitar saturación\n")
+              .append("    color = color / (color + vec3(1.0));\n");
+        }
+        for (int i = 0; i < overlayCount; i++) {
+            fs.append("    o = ").append(overlays[i].getFunctionName()).append("(uv);\n")
+              .append("    color = o.rgb * o.a + color * (1.0 - o.a);\n")
+              .append("    alpha = o.a + alpha * (1.0 - o.a);\n");
+        }
+        fs.append("    fragColor = vec4(color, alpha);\n")
+          .append("}\n");
+
+        CompositeProgram program = new CompositeProgram();
+        program.id = compileProgram(VERTEX_SHADER, fs.toString());
+        if (program.id == 0) return program;
+
+        GLStateManager.get().useProgram(program.id);
+        if (withScene) GLES30.glUniform1i(GLES30.glGetUniformLocation(program.id, "uScene"), 0);
+        if (withBloom) {
+            GLES30.glUniform1i(GLES30.glGetUniformLocation(program.id, "uBloom"), 1);
+            program.uBloomIntensity = GLES30.glGetUniformLocation(program.id, "uBloomIntensity");
+        }
+        if (withSharpen) {
+            program.uSceneTexel = GLES30.glGetUniformLocation(program.id, "uSceneTexel");
+            program.uSharpness = GLES30.glGetUniformLocation(program.id, "uSharpness");
+        }
+        for (int i = 0; i < overlayCount; i++) {
+            String[] names = overlays[i].getUniformNames();
+            int[] locations = new int[names.length];
+            for (int u = 0; u < names.length; u++) {
+                locations[u] = GLES30.glGetUniformLocation(program.id, names[u]);
+            }
+            program.overlayLocations[overlayBit(overlays[i])] = locations;
+        }
+        GLStateManager.get().useProgram(0);
+
+        Log.d(TAG, "🧩 Shader fusionado: escena=" + withScene + " bloom=" + withBloom +
+                " sharpen=" + withSharpen +
+                " overlays=" + Integer.bitCount(overlayMask));
+        return program;
+    }
+
+    private int compileProgram(String vertexSrc, String fragmentSrc) {
+        int vs = compileShader(GLES30.GL_VERTEX_SHADER, vertexSrc);
+        int fs = compileShader(GLES30.GL_FRAGMENT_SHADER, fragmentSrc);
+        if (vs == 0 || fs == 0) {
+            if (vs != 0) GLES30.glDeleteShader(vs);
+            if (fs != 0) GLES30.glDeleteShader(fs);
+            return 0;
+        }
+
+        int program = GLES30.glCreateProgram();
+        GLES30.glAttachShader(program, vs);
+        GLES30.glAttachShader(program, fs);
+        GLES30.glLinkProgram(program);
+        GLES30.glDeleteShader(vs);
+        GLES30.glDeleteShader(fs);
+
+        int[] linkStatus = new int[1];
+        GLES30.glGetProgramiv(program, GLES30.GL_LINK_STATUS, linkStatus, 0);
+        if (linkStatus[0] == 0) {
+            Log.e(TAG, "✗ Link error: " + GLES30.glGetProgramInfoLog(program));
+            GLStateManager.get().deleteProgram(program);
+            return 0;
+        }
+        return program;
+    }
+
+    private int compileShader(int type, String source) {
+        int shader = GLES30.glCreateShader(type);
+        GLES30.glShaderSource(shader, source);
+        GLES30.glCompileShader(shader);
+
+        int[] compiled = new int[1];
+        GLES30.glGetShaderiv(shader, GLES30.GL_COMPILE_STATUS, compiled, 0);
+        if (compiled[0] == 0) {
+            Log.e(TAG, "✗ Shader error: " + GLES30.glGetShaderInfoLog(shader));
+            GLES30.glDeleteShader(shader);
+            return 0;
+        }
+        return shader;
+    }
+
+    private void ensureQuad() {
+        if (quadVAO != 0) return;
+
+        float[] vertices = {
+            -1f, -1f,
+             1f, -1f,
+            -1f,  1f,
+             1f,  1f
+        };
+        ByteBuffer bb = ByteBuffer.allocateDirect(vertices.length * 4);
+        bb.order(ByteOrder.nativeOrder());
+        quadBuffer = bb.asFloatBuffer();
+        quadBuffer.put(vertices);
+        quadBuffer.position(0);
+
+        int[] ids = new int[1];
+        GLES30.glGenVertexArrays(1, ids, 0);
+        quadVAO = ids[0];
+        GLES30.glGenBuffers(1, ids, 0);
+        quadVBO = ids[0];
+
+        String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+        GLStateManager.get().bindVertexArray(quadVAO);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, quadVBO);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, vertices.length * 4, quadBuffer, GLES30.GL_STATIC_DRAW);
+        GpuMemoryRegistry.get().popOwner(previousOwner);
+        GLES30.glEnableVertexAttribArray(0);
+        GLES30.glVertexAttribPointer(0, 2, GLES30.GL_FLOAT, false, 0, 0);
+        GLStateManager.get().bindVertexArray(0);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // TAMAÑO Y RECURSOS
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    /**
+     * Redimensiona todos los targets de post-processing a la vez (vía pool).
+     */
+    public void setScreenSize(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        screenWidth = width;
+        screenHeight = height;
+        pool.setScreenSize(width, height);
+    }
+
+    /** Memoria de render targets compartidos (todos los efectos), en bytes */
+    public long getRenderTargetMemoryBytes() {
+        return pool.getMemoryBytes();
+    }
+
+    /**
+     * Contexto GL nuevo: los programas y el VAO ya no existen (no se borran).
+     */
+    public void invalidate() {
+        for (int i = 0; i < resourceCount; i++) {
+            resources.get(i).target = null;
+        }
+        nodeCount = 0;
+        resourceCount = 0;
+        programs.clear();
+        quadVAO = 0;
+        quadVBO = 0;
+    }
+
+    public void release() {
+        begin();
+        for (int i = 0; i < programs.size(); i++) {
+            int id = programs.valueAt(i).id;
+            if (id != 0) GLStateManager.get().deleteProgram(id);
+        }
+        programs.clear();
+        if (quadVAO != 0) {
+            int[] ids = {quadVAO};
+            GLStateManager.get().deleteVertexArrays(1, ids, 0);
+            ids[0] = quadVBO;
+            GLStateManager.get().deleteBuffers(1, ids, 0);
+            quadVAO = 0;
+            quadVBO = 0;
+        }
+        Log.d(TAG, "🧩 RenderGraph liberado");
+    }
+}
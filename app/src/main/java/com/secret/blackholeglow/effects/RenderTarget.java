@@ -0,0 +1,143 @@
+package com.secret.blackholeglow.effects;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+import com.secret.blackholeglow.systems.GLStateManager;
+
+/**
+ * RenderTarget - FBO + textura de color (+ depth opcional) del RenderTargetPool
+ *
+ * No se crea directamente: RenderTargetPool.acquire() / release().
+ */
+public final class RenderTarget {
+    private static final String TAG = "RenderTarget";
+
+    public final int width;
+    public final int height;
+    public final int format;      // GL_RGBA8, GL_RGB10_A2, GL_RGBA16F
+    public final boolean depth;   // DEPTH_COMPONENT16 adjunto
+
+    int fbo;
+    int texture;
+    int depthBuffer;
+
+    // Estado del pool
+    boolean inUse;
+    long lastUsedFrame;
+    int generation;   // Cambia con setScreenSize: los de otra generación se borran al liberarse
+
+    RenderTarget(int width, int height, int format, boolean depth) {
+        this.width = width;
+        this.height = height;
+        this.format = format;
+        this.depth = depth;
+    }
+
+    public int getFramebuffer() {
+        return fbo;
+    }
+
+    public int getTexture() {
+        return texture;
+    }
+
+    /**
+     * Bindea el FBO y ajusta el viewport a su tamaño.
+     */
+    public void bind() {
+        GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, fbo);
+        GLStateManager.get().viewport(0, 0, width, height);
+    }
+
+    boolean matches(int width, int height, int format, boolean depth) {
+        return this.width == width && this.height == height
+                && this.format == format && this.depth == depth;
+    }
+
+    long getMemoryBytes() {
+        return getMemoryBytes(width, height, format, depth);
+    }
+
+    static long getMemoryBytes(int width, int height, int format, boolean depth) {
+        int bpp = format == GLES30.GL_RGBA16F ? 8 : 4;
+        return (long) width * height * (bpp + (depth ? 2 : 0));
+    }
+
+    boolean create() {
+        int[] ids = new int[1];
+
+        GLES30.glGenTextures(1, ids, 0);
+        texture = ids[0];
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texture);
+        GLStateManager.get().texStorage2D(GLES30.GL_TEXTURE_2D, 1, format, width, height);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
+
+        GLStateManager.get().genFramebuffers(1, ids, 0);
+        fbo = ids[0];
+        GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, fbo);
+        GLES30.glFramebufferTexture2D(GLES30.GL_FRAMEBUFFER, GLES30.GL_COLOR_ATTACHMENT0,
+                GLES30.GL_TEXTURE_2D, texture, 0);
+
+        if (depth) {
+            GLES30.glGenRenderbuffers(1, ids, 0);
+            depthBuffer = ids[0];
+            GLStateManager.get().bindRenderbuffer(GLES30.GL_RENDERBUFFER, depthBuffer);
+            GLStateManager.get().renderbufferStorage(GLES30.GL_RENDERBUFFER, GLES30.GL_DEPTH_COMPONENT16,
+                    width, height);
+            GLES30.glFramebufferRenderbuffer(GLES30.GL_FRAMEBUFFER, GLES30.GL_DEPTH_ATTACHMENT,
+                    GLES30.GL_RENDERBUFFER, depthBuffer);
+        }
+
+        int status = GLES30.glCheckFramebufferStatus(GLES30.GL_FRAMEBUFFER);
+        GLStateManager.get().bindFramebuffer(GLES30.GL_FRAMEBUFFER, 0);
+        if (status != GLES30.GL_FRAMEBUFFER_COMPLETE) {
+            Log.e(TAG, "✗ FBO incompleto " + this + ": " + status);
+            delete();
+            return false;
+        }
+        return true;
+    }
+
+    void delete() {
+        int[] ids = new int[1];
+        if (texture != 0) {
+            ids[0] = texture;
+            GLStateManager.get().deleteTextures(1, ids, 0);
+            texture = 0;
+        }
+        if (depthBuffer != 0) {
+            ids[0] = depthBuffer;
+            GLStateManager.get().deleteRenderbuffers(1, ids, 0);
+            depthBuffer = 0;
+        }
+        if (fbo != 0) {
+            ids[0] = fbo;
+            GLStateManager.get().deleteFramebuffers(1, ids, 0);
+            fbo = 0;
+        }
+    }
+
+    /** El contexto GL murió: los IDs ya no son válidos, no se borran */
+    void forget() {
+        texture = 0;
+        depthBuffer = 0;
+        fbo = 0;
+    }
+
+    @Override
+    public String toString() {
+        return width + "x" + height + " " + formatName(format) + (depth ? "+D16" : "");
+    }
+
+    static String formatName(int format) {
+        switch (format) {
+            case GLES30.GL_RGBA16F: return "RGBA16F";
+            case GLES30.GL_RGB10_A2: return "RGB10_A2";
+            default: return "RGBA8";
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.secret.blackholeglow.effects;
+
+import android.util.Log;
+
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+import com.secret.blackholeglow.systems.RenderContext;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ 🧱 RenderTargetPool - FBOs compartidos para post-processing      ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • Bloom, PixelationTransition y RenderGraph piden targets aquí  ║
+ * ║    en vez de crear cada uno sus propios FBOs                     ║
+ * ║  • acquire() reutiliza un target libre del mismo tamaño/formato  ║
+ * ║  • Targets libres sin uso por IDLE_FRAMES frames se destruyen    ║
+ * ║  • setScreenSize() invalida todos los tamaños a la vez           ║
+ * ║  • setMemoryScale() reduce los targets relativos (MemoryGovernor)║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Uno por contexto GL (RenderContext): los ids de FBO y textura solo
+ * existen en el contexto que los creó. Solo GL thread. La memoria total
+ * se puede leer desde cualquier hilo (DiagnosticData).
+ *
+ * USO:
+ *   RenderTarget rt = RenderTargetPool.get().acquire(0.5f, GLES30.GL_RGBA8, false);
+ *   rt.bind(); ... dibujar ...
+ *   RenderTargetPool.get().release(rt);
+ */
+public final class RenderTargetPool {
+    private static final String TAG = "RenderTargetPool";
+
+    // ~5s a 60fps: cubre pausas cortas entre efectos sin retener memoria
+    private static final long IDLE_FRAMES = 300;
+
+    /** Pool del contexto GL del hilo actual (ver RenderContext) */
+    public static RenderTargetPool get() {
+        return RenderContext.current().getRenderTargets();
+    }
+
+    private final List<RenderTarget> targets = new ArrayList<>();
+    private int screenWidth = 1;
+    private int screenHeight = 1;
+    // Multiplicador de acquire(scale, ...) impuesto por presión de memoria
+    private float memoryScale = 1f;
+    private int generation = 0;
+    private long frame = 0;
+
+    private volatile long allocatedBytes = 0;
+    private volatile long peakBytes = 0;
+    private volatile int targetCount = 0;
+
+    /** Lo crea RenderContext; el resto usa get() */
+    public RenderTargetPool() {}
+
+    // ═══════════════════════════════════════════════════════════════
+    // ACQUIRE / RELEASE
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Target a una fracción de la pantalla (scale 1.0 = resolución completa).
+     */
+    public RenderTarget acquire(float scale, int format, boolean depth) {
+        float s = scale * memoryScale;
+        return acquire(scaled(screenWidth, s), scaled(screenHeight, s), format, depth);
+    }
+
+    /**
+     * Target de tamaño exacto. Devuelve null si el FBO no se pudo crear.
+     */
+    public RenderTarget acquire(int width, int height, int format, boolean depth) {
+        for (RenderTarget rt : targets) {
+            if (!rt.inUse && rt.generation == generation && rt.matches(width, height, format, depth)) {
+                rt.inUse = true;
+                return rt;
+            }
+        }
+
+        // Los targets son del pool, aunque se pidan dentro de una escena
+        String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+        RenderTarget rt = new RenderTarget(width, height, format, depth);
+        boolean created = rt.create();
+        GpuMemoryRegistry.get().popOwner(previousOwner);
+        if (!created) return null;
+        rt.inUse = true;
+        rt.generation = generation;
+        targets.add(rt);
+        updateStats();
+        Log.d(TAG, "🧱 Nuevo target " + rt + " (total " + (allocatedBytes / 1024) + " KB)");
+        return rt;
+    }
+
+    public void release(RenderTarget rt) {
+        if (rt == null || !rt.inUse) return;
+        rt.inUse = false;
+        rt.lastUsedFrame = frame;
+        if (rt.generation != generation) {
+            // Tamaño de pantalla anterior: ya no sirve a nadie
+            rt.delete();
+            targets.remove(rt);
+            updateStats();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CICLO DE VIDA
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Cambia el tamaño base. Los libres se destruyen ya; los ocupados al liberarse.
+     */
+    public void setScreenSize(int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        if (width == screenWidth && height == screenHeight) return;
+        screenWidth = width;
+        screenHeight = height;
+        generation++;
+        trim();
+        Log.d(TAG, "📐 Pool → " + width + "x" + height);
+    }
+
+    /**
+     * Escala extra para los targets relativos a pantalla (1.0 = sin reducción).
+     * Mismo efecto que un cambio de tamaño: los libres se destruyen ya, los ocupados al liberarse.
+     * Los targets de tamaño exacto no cambian (quien los pide decide).
+     */
+    public void setMemoryScale(float scale) {
+        if (scale <= 0f || scale == memoryScale) return;
+        memoryScale = scale;
+        generation++;
+        trim();
+        Log.d(TAG, "🧠 Escala por memoria → x" + scale);
+    }
+
+    public float getMemoryScale() {
+        return memoryScale;
+    }
+
+    public int getScreenWidth() {
+        return screenWidth;
+    }
+
+    public int getScreenHeight() {
+        return screenHeight;
+    }
+
+    /**
+     * Fin de frame: destruye targets libres sin uso reciente.
+     */
+    public void endFrame() {
+        frame++;
+        if (targets.isEmpty()) return;
+        boolean changed = false;
+        Iterator<RenderTarget> it = targets.iterator();
+        while (it.hasNext()) {
+            RenderTarget rt = it.next();
+            if (!rt.inUse && frame - rt.lastUsedFrame > IDLE_FRAMES) {
+                rt.delete();
+                it.remove();
+                changed = true;
+            }
+        }
+        if (changed) updateStats();
+    }
+
+    /**
+     * Destruye todos los targets libres (presión de memoria, cambio de tamaño).
+     */
+    public void trim() {
+        Iterator<RenderTarget> it = targets.iterator();
+        while (it.hasNext()) {
+            RenderTarget rt = it.next();
+            if (!rt.inUse) {
+                rt.delete();
+                it.remove();
+            }
+        }
+        updateStats();
+    }
+
+    /**
+     * Contexto GL nuevo (onSurfaceCreated): los IDs viejos ya no existen.
+     */
+    public void invalidate() {
+        for (RenderTarget rt : targets) {
+            rt.forget();
+        }
+        targets.clear();
+        generation++;
+        updateStats();
+    }
+
+    public void releaseAll() {
+        for (RenderTarget rt : targets) {
+            rt.delete();
+        }
+        targets.clear();
+        updateStats();
+        Log.d(TAG, "🧱 Pool liberado");
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // DIAGNÓSTICO
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Memoria GPU de todos los targets vivos (libres + ocupados), en bytes */
+    public long getMemoryBytes() {
+        return allocatedBytes;
+    }
+
+    public long getPeakMemoryBytes() {
+        return peakBytes;
+    }
+
+    public int getTargetCount() {
+        return targetCount;
+    }
+
+    private void updateStats() {
+        long total = 0;
+        for (RenderTarget rt : targets) {
+            total += rt.getMemoryBytes();
+        }
+        allocatedBytes = total;
+        targetCount = targets.size();
+        if (total > peakBytes) peakBytes = total;
+    }
+
+    static int scaled(int size, float scale) {
+        return Math.max(1, Math.round(size * scale));
+    }
+}
@@ -0,0 +1,29 @@
+package com.secret.blackholeglow.effects;
+
+/**
+ * ScreenOverlay - Efecto full-screen que RenderGraph puede fusionar en un solo shader
+ *
+ * En vez de dibujar su propio quad con blending, cada overlay aporta una
+ * función GLSL pura (sin samplers) que devuelve color + alpha para un uv.
+ * RenderGraph concatena los overlays activos dentro del pase de composite
+ * (o de un único pase blend sobre la pantalla si no hay composite).
+ *
+ * Los nombres de funciones, helpers y uniforms deben ser únicos entre overlays.
+ */
+public interface ScreenOverlay {
+
+    /** Declaraciones GLSL: uniforms + helpers + la función principal */
+    String getGlslSource();
+
+    /** Nombre de la función principal: vec4 nombre(vec2 uv), alpha NO premultiplicado */
+    String getFunctionName();
+
+    /** Uniforms que usa la función, en el orden en que applyUniforms() los recibe */
+    String[] getUniformNames();
+
+    /** Si devuelve false este frame, el overlay se omite del shader */
+    boolean isActive();
+
+    /** Sube los valores de este frame (locations ya cacheadas por RenderGraph) */
+    void applyUniforms(int[] locations);
+}
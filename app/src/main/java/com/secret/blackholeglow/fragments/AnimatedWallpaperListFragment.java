@@ -28,6 +28,7 @@ import com.secret.blackholeglow.systems.WallpaperCatalog;
 import com.secret.blackholeglow.systems.WallpaperNotificationManager;
 import com.secret.blackholeglow.video.VideoDownloadManager;
 import com.secret.blackholeglow.core.PanelResources;
+import com.secret.blackholeglow.core.ScenePrefetcher;
 
 import android.content.res.ColorStateList;
 import android.graphics.Color;
@@ -119,6 +120,16 @@ public class AnimatedWallpaperListFragment extends Fragment {
         recyclerView.setRecycledViewPool(viewPool);
         recyclerView.setNestedScrollingEnabled(true);
 
+        // 📥 Prefetch especulativo del wallpaper centrado (cancelado al hacer scroll fuera)
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrollStateChanged(@NonNull RecyclerView rv, int newState) {
+                if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+                    prefetchCenteredItem();
+                }
+            }
+        });
+
         SubscriptionManager.init(requireContext());
         // Load dynamic wallpapers from cache (offline-safe)
         WallpaperCatalog.get().loadDynamicEntries(requireContext());
@@ -151,6 +162,41 @@ public class AnimatedWallpaperListFragment extends Fragment {
         return view;
     }
 
+    /**
+     * 📥 Notifica al ScenePrefetcher qué wallpaper quedó centrado en pantalla.
+     * Si el item cambió, el prefetch anterior se cancela (parcial conservado).
+     */
+    private void prefetchCenteredItem() {
+        if (recyclerViewRef == null || adapter == null || !isAdded()) return;
+        RecyclerView.LayoutManager lm = recyclerViewRef.getLayoutManager();
+        if (!(lm instanceof LinearLayoutManager)) return;
+
+        LinearLayoutManager layoutManager = (LinearLayoutManager) lm;
+        int first = layoutManager.findFirstVisibleItemPosition();
+        int last = layoutManager.findLastVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) return;
+
+        // El item cuyo centro está más cerca del centro del RecyclerView
+        int centerY = recyclerViewRef.getHeight() / 2;
+        int bestPosition = first;
+        int bestDistance = Integer.MAX_VALUE;
+        for (int i = first; i <= last; i++) {
+            View child = layoutManager.findViewByPosition(i);
+            if (child == null) continue;
+            int childCenter = (child.getTop() + child.getBottom()) / 2;
+            int distance = Math.abs(childCenter - centerY);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                bestPosition = i;
+            }
+        }
+
+        WallpaperItem item = adapter.getItemAt(bestPosition);
+        if (item != null && item.isAvailable()) {
+            ScenePrefetcher.get(requireContext()).onSceneFocused(item.getSceneName());
+        }
+    }
+
     /**
      * Creates category filter chips from available categories.
      * Only categories with at least 1 wallpaper are shown.
@@ -432,9 +478,19 @@ public class AnimatedWallpaperListFragment extends Fragment {
         boolean execute();
     }
 
+    @Override
+    public void onPause() {
+        super.onPause();
+        // 📥 Fuera de pantalla: no seguir bajando especulativamente
+        ScenePrefetcher.get(requireContext()).cancelAll();
+    }
+
     @Override
     public void onResume() {
         super.onResume();
+        if (recyclerViewRef != null) {
+            recyclerViewRef.post(this::prefetchCenteredItem);
+        }
         // Verificar qué wallpaper está activo en el sistema y actualizar badge
         if (adapter != null && isAdded()) {
             try {
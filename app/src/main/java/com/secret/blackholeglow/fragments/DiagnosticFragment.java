@@ -126,13 +126,56 @@ public class DiagnosticFragment extends Fragment {
 
         // Textura
         ((TextView) root.findViewById(R.id.diag_texture_info)).setText(
-                String.format(Locale.US, "Max textura: %dpx | inSampleSize: %d",
-                        d.maxTextureDim, d.inSampleSize));
+                String.format(Locale.US, "Max textura: %dpx | inSampleSize: %d | RT: %.1f MB (%d, pico %.1f MB)",
+                        d.maxTextureDim, d.inSampleSize,
+                        d.renderTargetBytes / (1024f * 1024f), d.renderTargetCount,
+                        d.renderTargetPeakBytes / (1024f * 1024f)));
+
+        // TTFF del video al reanudar (suspendido vs liberado)
+        ((TextView) root.findViewById(R.id.diag_video_resume_info)).setText(
+                String.format(Locale.US, "Video resume: suspend %d ms (%d) | release %d ms (%d)",
+                        d.videoResumeSuspendMs, d.videoResumeSuspendCount,
+                        d.videoResumeReleaseMs, d.videoResumeReleaseCount));
+
+        // Escala de render de la escena (resolución dinámica)
+        String gpuInfo = d.gpuTimerAvailable && d.sceneGpuMs >= 0
+                ? String.format(Locale.US, "GPU escena %.1f ms", d.sceneGpuMs)
+                : "sin timer GPU";
+        ((TextView) root.findViewById(R.id.diag_render_scale_info)).setText(
+                String.format(Locale.US, "Escala de render: %d%% | %s",
+                        Math.round(d.renderScale * 100), gpuInfo));
+        ((TextView) root.findViewById(R.id.diag_hud_texture_info)).setText(
+                String.format(Locale.US, "Texturas HUD: %d subidas · %d KB (vs %d KB completas) · última %d KB",
+                        d.hudUploadCount, d.hudUploadBytes / 1024,
+                        d.hudFullUploadBytes / 1024, d.hudLastUploadBytes / 1024));
+        ((TextView) root.findViewById(R.id.diag_gl_state_info)).setText(
+                String.format(Locale.US, "Estado GL/frame: %d cambios · %d omitidos · %d draws · %d tris",
+                        d.glStateChanges, d.glStateSkipped, d.glDrawCalls, d.glTriangles));
+        ((TextView) root.findViewById(R.id.diag_gpu_memory_info)).setText(
+                String.format(Locale.US, "Memoria GPU: texturas %.1f MB (%d) · buffers %d KB (%d) · "
+                                + "renderbuffers %.1f MB · %d FBOs · fugas %d (%d KB)",
+                        d.gpuTextureBytes / (1024f * 1024f), d.gpuTextureCount,
+                        d.gpuBufferBytes / 1024, d.gpuBufferCount,
+                        d.gpuRenderbufferBytes / (1024f * 1024f), d.gpuFramebufferCount,
+                        d.gpuLeakCount, d.gpuLeakBytes / 1024));
+        ((TextView) root.findViewById(R.id.diag_memory_governor_info)).setText(
+                String.format(Locale.US, "Gobernador memoria: %s · RT x%.2f · partículas x%.2f · mip +%d · "
+                                + "propia %d / %d MB",
+                        d.memoryStage, d.memoryRenderScale, d.memoryParticleScale, d.memoryMipBias,
+                        d.memoryOwnBytes / (1024 * 1024), d.memoryBudgetBytes / (1024 * 1024)));
 
         // ═══ TARJETA 2: ALMACENAMIENTO ═══
         long totalMB = d.getTotalCacheBytes() / (1024 * 1024);
         ((TextView) root.findViewById(R.id.diag_storage_total)).setText(
                 String.format(Locale.US, "%.1f MB total", d.getTotalCacheBytes() / (1024f * 1024f)));
+        ((TextView) root.findViewById(R.id.diag_disk_cache_info)).setText(
+                String.format(Locale.US, "Presupuesto LRU %d MB · %d expulsados (%d MB)",
+                        d.diskCacheBudgetBytes / (1024 * 1024),
+                        d.diskCacheEvictedCount, d.diskCacheEvictedBytes / (1024 * 1024)));
+        ((TextView) root.findViewById(R.id.diag_download_scheduler_info)).setText(
+                String.format(Locale.US, "Descargas %d activas · %d en cola · %d unificadas · %d prefetch pausados%s",
+                        d.downloadsRunning, d.downloadsQueued, d.downloadsDeduped,
+                        d.downloadsPreempted, d.downloadsMetered ? " · red medida" : ""));
 
         fillStorageRow(root, R.id.diag_images_info, R.id.diag_images_bar,
                 "Images", d.imageCacheCount, d.imageCacheBytes, d.getTotalCacheBytes());
@@ -0,0 +1,231 @@
+package com.secret.blackholeglow.gl3;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.PorterDuff;
+import android.opengl.GLES30;
+import android.util.Log;
+
+import com.secret.blackholeglow.systems.GLStateManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════╗
+ * ║   🧩 DirtyRectTexture - Textura Canvas con sub-updates            ║
+ * ╚═══════════════════════════════════════════════════════════════════╝
+ *
+ * Para HUDs que se pintan con Canvas (batería, pantalla de carga).
+ *
+ * - Storage inmutable reservado UNA vez (glTexStorage2D): nunca más
+ *   texImage2D, así que el driver no re-aloca ni se sincroniza.
+ * - Los cambios se acumulan como un rectángulo sucio (unión). Varias
+ *   invalidaciones en el mismo frame → una sola subida.
+ * - El consumidor repinta solo dentro del rect (clip) y se sube solo
+ *   ese rect con glTexSubImage2D + UNPACK_ROW_LENGTH/SKIP_*.
+ * - Throttle opcional: con cambios muy seguidos se espera al intervalo
+ *   mínimo y se sube todo lo acumulado de una vez.
+ *
+ * Uso (GL thread):
+ *   tex.invalidate(l, t, r, b);
+ *   if (tex.shouldRepaint()) {
+ *       Canvas c = tex.beginRepaint();
+ *       ...pintar todo (el clip descarta lo que quede fuera)...
+ *       tex.endRepaint();
+ *   }
+ *   GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, tex.getTextureId());
+ */
+public final class DirtyRectTexture {
+    private static final String TAG = "DirtyRectTexture";
+
+    // 📊 Estadísticas globales (diagnóstico)
+    private static volatile long statUploadCount = 0;
+    private static volatile long statUploadBytes = 0;
+    private static volatile long statFullBytes = 0;       // lo que habrían costado subidas completas
+    private static volatile long statLastUploadBytes = 0;
+
+    private final String name;
+    private final int width;
+    private final int height;
+    private final long minUploadIntervalMs;
+
+    private final Bitmap bitmap;
+    private final Canvas canvas;
+    private final ByteBuffer pixels;
+
+    private int textureId = 0;
+    private long lastUploadTime = 0;
+
+    // Rect sucio pendiente (vacío si left >= right)
+    private int dirtyLeft, dirtyTop, dirtyRight, dirtyBottom;
+    private boolean repainting = false;
+
+    /**
+     * @param minUploadIntervalMs separación mínima entre subidas (0 = sin throttle)
+     */
+    public DirtyRectTexture(String name, int width, int height, long minUploadIntervalMs) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.minUploadIntervalMs = minUploadIntervalMs;
+
+        bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        canvas = new Canvas(bitmap);
+        pixels = ByteBuffer.allocateDirect(width * height * 4);
+        pixels.order(ByteOrder.nativeOrder());
+        invalidateAll();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INVALIDACIÓN
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Marca una región como sucia (se une con lo pendiente) */
+    public void invalidate(int left, int top, int right, int bottom) {
+        left = Math.max(0, left);
+        top = Math.max(0, top);
+        right = Math.min(width, right);
+        bottom = Math.min(height, bottom);
+        if (left >= right || top >= bottom) return;
+
+        if (!isDirty()) {
+            dirtyLeft = left;
+            dirtyTop = top;
+            dirtyRight = right;
+            dirtyBottom = bottom;
+        } else {
+            dirtyLeft = Math.min(dirtyLeft, left);
+            dirtyTop = Math.min(dirtyTop, top);
+            dirtyRight = Math.max(dirtyRight, right);
+            dirtyBottom = Math.max(dirtyBottom, bottom);
+        }
+    }
+
+    public void invalidateAll() {
+        invalidate(0, 0, width, height);
+    }
+
+    public boolean isDirty() {
+        return dirtyLeft < dirtyRight && dirtyTop < dirtyBottom;
+    }
+
+    /**
+     * ¿Toca repintar+subir este frame? Sin storage todavía siempre sí;
+     * si no, respeta el intervalo mínimo (los cambios siguen acumulándose).
+     */
+    public boolean shouldRepaint() {
+        if (!isDirty()) return false;
+        if (textureId == 0 || minUploadIntervalMs <= 0) return true;
+        return System.currentTimeMillis() - lastUploadTime >= minUploadIntervalMs;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // REPINTADO + SUBIDA
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Limpia el rect sucio y devuelve el Canvas recortado a él.
+     * El consumidor pinta todo su contenido; solo el rect cambia.
+     */
+    public Canvas beginRepaint() {
+        if (textureId == 0) {
+            invalidateAll();   // Storage nuevo: hay que llenarlo entero
+        }
+        repainting = true;
+        canvas.save();
+        canvas.clipRect(dirtyLeft, dirtyTop, dirtyRight, dirtyBottom);
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        return canvas;
+    }
+
+    /** Cierra el repintado y sube solo el rect sucio */
+    public void endRepaint() {
+        if (!repainting) return;
+        repainting = false;
+        canvas.restore();
+
+        if (textureId == 0) {
+            createStorage();
+        } else {
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        }
+
+        int w = dirtyRight - dirtyLeft;
+        int h = dirtyBottom - dirtyTop;
+
+        pixels.position(0);
+        bitmap.copyPixelsToBuffer(pixels);
+        pixels.position(0);
+
+        // Sub-rect directo desde el buffer completo (ES 3.0 unpack params)
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_ROW_LENGTH, width);
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_SKIP_PIXELS, dirtyLeft);
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_SKIP_ROWS, dirtyTop);
+        GLES30.glTexSubImage2D(GLES30.GL_TEXTURE_2D, 0, dirtyLeft, dirtyTop, w, h,
+                GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, pixels);
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_ROW_LENGTH, 0);
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_SKIP_PIXELS, 0);
+        GLES30.glPixelStorei(GLES30.GL_UNPACK_SKIP_ROWS, 0);
+
+        long bytes = (long) w * h * 4;
+        statUploadCount++;
+        statUploadBytes += bytes;
+        statFullBytes += (long) width * height * 4;
+        statLastUploadBytes = bytes;
+
+        lastUploadTime = System.currentTimeMillis();
+        dirtyLeft = dirtyTop = dirtyRight = dirtyBottom = 0;
+    }
+
+    private void createStorage() {
+        int[] textures = new int[1];
+        GLES30.glGenTextures(1, textures, 0);
+        textureId = textures[0];
+
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().texStorage2D(GLES30.GL_TEXTURE_2D, 1, GLES30.GL_RGBA8, width, height);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
+        Log.d(TAG, "🧩 " + name + ": storage " + width + "x" + height + " (inmutable)");
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CICLO DE VIDA
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Id GL (0 hasta la primera subida) */
+    public int getTextureId() {
+        return textureId;
+    }
+
+    public int getWidth() { return width; }
+    public int getHeight() { return height; }
+
+    /** Contexto GL nuevo: la textura anterior ya no existe */
+    public void invalidateContext() {
+        textureId = 0;
+        invalidateAll();
+    }
+
+    public void release() {
+        if (textureId != 0) {
+            int[] textures = { textureId };
+            GLStateManager.get().deleteTextures(1, textures, 0);
+            textureId = 0;
+        }
+        bitmap.recycle();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // DIAGNÓSTICO
+    // ═══════════════════════════════════════════════════════════════
+
+    public static long getUploadCount() { return statUploadCount; }
+    public static long getUploadBytes() { return statUploadBytes; }
+    public static long getFullUploadBytes() { return statFullBytes; }
+    public static long getLastUploadBytes() { return statLastUploadBytes; }
+}
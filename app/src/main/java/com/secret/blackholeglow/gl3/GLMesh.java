@@ -3,6 +3,8 @@ package com.secret.blackholeglow.gl3;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -66,14 +68,14 @@ public class GLMesh {
      * Después de bind(), el estado de atributos queda configurado
      */
     public void bind() {
-        GLES30.glBindVertexArray(vaoId);
+        GLStateManager.get().bindVertexArray(vaoId);
     }
 
     /**
      * Desvincula el mesh (desactiva VAO)
      */
     public void unbind() {
-        GLES30.glBindVertexArray(0);
+        GLStateManager.get().bindVertexArray(0);
     }
 
     /**
@@ -81,9 +83,9 @@ public class GLMesh {
      */
     public void draw() {
         if (hasIndices) {
-            GLES30.glDrawElements(drawMode, indexCount, GLES30.GL_UNSIGNED_SHORT, 0);
+            GLStateManager.get().drawElements(drawMode, indexCount, GLES30.GL_UNSIGNED_SHORT, 0);
         } else {
-            GLES30.glDrawArrays(drawMode, 0, vertexCount);
+            GLStateManager.get().drawArrays(drawMode, 0, vertexCount);
         }
     }
 
@@ -93,10 +95,10 @@ public class GLMesh {
      */
     public void drawInstanced(int instances) {
         if (hasIndices) {
-            GLES30.glDrawElementsInstanced(drawMode, indexCount,
+            GLStateManager.get().drawElementsInstanced(drawMode, indexCount,
                     GLES30.GL_UNSIGNED_SHORT, 0, instances);
         } else {
-            GLES30.glDrawArraysInstanced(drawMode, 0, vertexCount, instances);
+            GLStateManager.get().drawArraysInstanced(drawMode, 0, vertexCount, instances);
         }
     }
 
@@ -114,9 +116,9 @@ public class GLMesh {
         instanceCount = data.length / floatsPerInstance;
 
         FloatBuffer buffer = createFloatBuffer(data);
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
         GLES30.glBufferSubData(GLES30.GL_ARRAY_BUFFER, 0, data.length * 4, buffer);
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
     }
 
     /**
@@ -145,22 +147,22 @@ public class GLMesh {
      */
     public void dispose() {
         if (vaoId != 0) {
-            GLES30.glDeleteVertexArrays(1, new int[]{vaoId}, 0);
+            GLStateManager.get().deleteVertexArrays(1, new int[]{vaoId}, 0);
             vaoId = 0;
         }
 
         if (vboIds != null) {
-            GLES30.glDeleteBuffers(vboIds.length, vboIds, 0);
+            GLStateManager.get().deleteBuffers(vboIds.length, vboIds, 0);
             vboIds = null;
         }
 
         if (eboId != 0) {
-            GLES30.glDeleteBuffers(1, new int[]{eboId}, 0);
+            GLStateManager.get().deleteBuffers(1, new int[]{eboId}, 0);
             eboId = 0;
         }
 
         if (instanceVboId != 0) {
-            GLES30.glDeleteBuffers(1, new int[]{instanceVboId}, 0);
+            GLStateManager.get().deleteBuffers(1, new int[]{instanceVboId}, 0);
             instanceVboId = 0;
         }
 
@@ -269,7 +271,7 @@ public class GLMesh {
             int[] vaoArray = new int[1];
             GLES30.glGenVertexArrays(1, vaoArray, 0);
             mesh.vaoId = vaoArray[0];
-            GLES30.glBindVertexArray(mesh.vaoId);
+            GLStateManager.get().bindVertexArray(mesh.vaoId);
 
             Log.d(TAG, "VAO creado: " + mesh.vaoId);
 
@@ -281,11 +283,11 @@ public class GLMesh {
                 VertexAttribute attr = attributes.get(i);
 
                 // Bind VBO
-                GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, mesh.vboIds[i]);
+                GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, mesh.vboIds[i]);
 
                 // Subir datos a GPU
                 FloatBuffer buffer = createFloatBuffer(attr.data);
-                GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER,
+                GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER,
                         attr.data.length * 4, buffer, GLES30.GL_STATIC_DRAW);
 
                 // Configurar atributo
@@ -314,9 +316,9 @@ public class GLMesh {
                 GLES30.glGenBuffers(1, eboArray, 0);
                 mesh.eboId = eboArray[0];
 
-                GLES30.glBindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, mesh.eboId);
+                GLStateManager.get().bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, mesh.eboId);
                 ShortBuffer indexBuffer = createShortBuffer(indices);
-                GLES30.glBufferData(GLES30.GL_ELEMENT_ARRAY_BUFFER,
+                GLStateManager.get().bufferData(GLES30.GL_ELEMENT_ARRAY_BUFFER,
                         indices.length * 2, indexBuffer, GLES30.GL_STATIC_DRAW);
 
                 mesh.indexCount = indices.length;
@@ -333,8 +335,8 @@ public class GLMesh {
 
                 int bufferSize = instanceAttr.maxInstances * instanceAttr.floatsPerInstance * 4;
 
-                GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, mesh.instanceVboId);
-                GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER, bufferSize, null, GLES30.GL_DYNAMIC_DRAW);
+                GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, mesh.instanceVboId);
+                GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, bufferSize, null, GLES30.GL_DYNAMIC_DRAW);
 
                 // Configurar atributos de instancia
                 // Por ejemplo, si floatsPerInstance=7 (pos3 + color4), usamos 2 atributos
@@ -375,9 +377,9 @@ public class GLMesh {
             }
 
             // Unbind VAO
-            GLES30.glBindVertexArray(0);
-            GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
-            GLES30.glBindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, 0);
+            GLStateManager.get().bindVertexArray(0);
+            GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+            GLStateManager.get().bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, 0);
 
             Log.d(TAG, "═══ GLMesh construido exitosamente ═══");
             Log.d(TAG, "VAO=" + mesh.vaoId + ", VBOs=" + attributes.size() +
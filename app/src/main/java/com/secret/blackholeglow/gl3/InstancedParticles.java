@@ -6,6 +6,8 @@ import android.util.Log;
 
 import com.secret.blackholeglow.SceneObject;
 import com.secret.blackholeglow.TimeManager;
+import com.secret.blackholeglow.core.MemoryGovernor;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -107,7 +109,7 @@ public class InstancedParticles implements SceneObject {
         int[] vaoArray = new int[1];
         GLES30.glGenVertexArrays(1, vaoArray, 0);
         vaoId = vaoArray[0];
-        GLES30.glBindVertexArray(vaoId);
+        GLStateManager.get().bindVertexArray(vaoId);
 
         // ═══ CREAR QUAD VBO (geometría compartida) ═══
         float[] quadVertices = {
@@ -127,8 +129,8 @@ public class InstancedParticles implements SceneObject {
 
         // Subir datos del quad
         FloatBuffer quadBuffer = createFloatBuffer(quadVertices);
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, quadVboId);
-        GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER,
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, quadVboId);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER,
                 quadVertices.length * 4, quadBuffer, GLES30.GL_STATIC_DRAW);
 
         // Configurar atributos del quad (location 0 = position, 1 = texcoord)
@@ -143,8 +145,8 @@ public class InstancedParticles implements SceneObject {
         GLES30.glEnableVertexAttribArray(1);
 
         // ═══ CREAR INSTANCE VBO ═══
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
-        GLES30.glBufferData(GLES30.GL_ARRAY_BUFFER,
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER,
                 maxParticles * 8 * 4, null, GLES30.GL_DYNAMIC_DRAW);
 
         // Configurar atributos de instancia
@@ -166,8 +168,8 @@ public class InstancedParticles implements SceneObject {
         GLES30.glVertexAttribDivisor(4, 1);
 
         // Unbind
-        GLES30.glBindVertexArray(0);
-        GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindVertexArray(0);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
 
         // ═══ CREAR SHADER ═══
         shader = new ShaderProgram3(context,
@@ -219,11 +221,19 @@ public class InstancedParticles implements SceneObject {
      * Emite una explosión de partículas
      */
     public void burst(int count) {
-        for (int i = 0; i < count && activeParticles < maxParticles; i++) {
+        int cap = particleCap();
+        for (int i = 0; i < count && activeParticles < cap; i++) {
             spawnParticle();
         }
     }
 
+    /**
+     * Máximo efectivo: maxParticles reducido por la etapa del MemoryGovernor
+     */
+    private int particleCap() {
+        return MemoryGovernor.get().getDegradation().scaleParticles(maxParticles);
+    }
+
     /**
      * Establece la matriz View-Projection
      */
@@ -234,8 +244,10 @@ public class InstancedParticles implements SceneObject {
     @Override
     public void update(float deltaTime) {
         // ═══ EMITIR NUEVAS PARTÍCULAS ═══
+        // Bajo presión de memoria se emiten menos; las vivas terminan su vida normal
+        int cap = particleCap();
         emissionAccum += emissionRate * deltaTime;
-        while (emissionAccum >= 1f && activeParticles < maxParticles) {
+        while (emissionAccum >= 1f && activeParticles < cap) {
             spawnParticle();
             emissionAccum -= 1f;
         }
@@ -281,10 +293,10 @@ public class InstancedParticles implements SceneObject {
             particleBuffer.put(particleData, 0, activeParticles * 8);
             particleBuffer.position(0);
 
-            GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
+            GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, instanceVboId);
             GLES30.glBufferSubData(GLES30.GL_ARRAY_BUFFER, 0,
                     activeParticles * 8 * 4, particleBuffer);
-            GLES30.glBindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+            GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
         }
     }
 
@@ -294,12 +306,15 @@ public class InstancedParticles implements SceneObject {
             return;
         }
 
+        // Estado vía cache: lo que ya esté puesto no llega al driver
+        GLStateManager glState = GLStateManager.get();
+
         // Configurar blending para partículas aditivas
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+        glState.enable(GLES30.GL_BLEND);
+        glState.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
 
         // Desactivar depth write (partículas no bloquean otras partículas)
-        GLES30.glDepthMask(false);
+        glState.depthMask(false);
 
         // Usar shader
         shader.use();
@@ -307,13 +322,13 @@ public class InstancedParticles implements SceneObject {
         shader.setUniform("u_Time", TimeManager.getTime());
 
         // Bind VAO y dibujar instanciado
-        GLES30.glBindVertexArray(vaoId);
-        GLES30.glDrawArraysInstanced(GLES30.GL_TRIANGLES, 0, 6, activeParticles);
-        GLES30.glBindVertexArray(0);
+        glState.bindVertexArray(vaoId);
+        glState.drawArraysInstanced(GLES30.GL_TRIANGLES, 0, 6, activeParticles);
+        glState.bindVertexArray(0);
 
-        // Restaurar estado
-        GLES30.glDepthMask(true);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        // Restaurar estado (si el siguiente draw pide lo mismo, se omite)
+        glState.depthMask(true);
+        glState.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     private void spawnParticle() {
@@ -372,13 +387,13 @@ public class InstancedParticles implements SceneObject {
      */
     public void dispose() {
         if (vaoId != 0) {
-            GLES30.glDeleteVertexArrays(1, new int[]{vaoId}, 0);
+            GLStateManager.get().deleteVertexArrays(1, new int[]{vaoId}, 0);
         }
         if (quadVboId != 0) {
-            GLES30.glDeleteBuffers(1, new int[]{quadVboId}, 0);
+            GLStateManager.get().deleteBuffers(1, new int[]{quadVboId}, 0);
         }
         if (instanceVboId != 0) {
-            GLES30.glDeleteBuffers(1, new int[]{instanceVboId}, 0);
+            GLStateManager.get().deleteBuffers(1, new int[]{instanceVboId}, 0);
         }
         if (shader != null) {
             shader.dispose();
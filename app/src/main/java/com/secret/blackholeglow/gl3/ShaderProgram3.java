@@ -4,6 +4,8 @@ import android.content.Context;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
@@ -80,7 +82,7 @@ public class ShaderProgram3 {
      * Usa este programa de shaders
      */
     public void use() {
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
     }
 
     /**
@@ -228,7 +230,7 @@ public class ShaderProgram3 {
      */
     public void dispose() {
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
             uniformCache.clear();
             attributeCache.clear();
@@ -301,7 +303,7 @@ public class ShaderProgram3 {
         if (linkStatus[0] == 0) {
             String error = GLES30.glGetProgramInfoLog(program);
             Log.e(TAG, "Error linkeando programa: " + error);
-            GLES30.glDeleteProgram(program);
+            GLStateManager.get().deleteProgram(program);
             GLES30.glDeleteShader(vertexShader);
             GLES30.glDeleteShader(fragmentShader);
             return 0;
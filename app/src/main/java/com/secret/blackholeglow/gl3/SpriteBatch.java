@@ -0,0 +1,582 @@
+package com.secret.blackholeglow.gl3;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+import com.secret.blackholeglow.ShaderUtils;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+import com.secret.blackholeglow.systems.RenderContext;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Arrays;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════╗
+ * ║   🧱 SpriteBatch - Batcher 2D compartido (quads en NDC)           ║
+ * ╚═══════════════════════════════════════════════════════════════════╝
+ *
+ * Reemplaza el patrón "un programa + un glDrawArrays(STRIP, 0, 4) por quad".
+ *
+ * - Un solo programa y un VBO de streaming (orphan + upload por flush).
+ * - Vértice de 28 bytes: pos(2f) + uv(2f) + color(4ub) + tint(4ub) + params(4ub).
+ * - Hasta 4 texturas por draw call (slot por vértice): sprite sheets y
+ *   atlas funcionan con UVs de sub-región, texturas distintas no cortan.
+ * - Al hacer flush se ordena por (capa, blend, textura); dentro de la
+ *   misma textura se conserva el orden de envío. Lo que se solapa y
+ *   necesita orden debe ir en capas distintas (setLayer).
+ * - Se corta un draw call solo al cambiar de blend o al llenar los 4 slots.
+ *
+ * Estilo tipo "pincel": setColor / setTint / setAlphaClip / setBlend /
+ * setLayer afectan a los sprites siguientes hasta begin().
+ *
+ * Uno por contexto EGL (RenderContext): programa, VAO/VBO e ids de
+ * textura no se comparten entre engines.
+ *
+ * Uso (GL thread):
+ *   SpriteBatch batch = SpriteBatch.get();
+ *   batch.begin();
+ *   batch.setLayer(0);
+ *   batch.drawQuad(bgTex, -1f, -1f, 1f, 1f, 0f, 0f, 1f, 1f);
+ *   batch.setLayer(1);
+ *   batch.drawSprite(tex, cx, cy, hw, hh, angle, u0, v0, u1, v1);
+ *   batch.end();
+ */
+public final class SpriteBatch {
+    private static final String TAG = "SpriteBatch";
+
+    // ═══════════════════════════════════════════════════════════════
+    // MODOS DE BLEND
+    // ═══════════════════════════════════════════════════════════════
+    public static final int BLEND_ALPHA = 0;          // SRC_ALPHA, ONE_MINUS_SRC_ALPHA
+    public static final int BLEND_ADDITIVE = 1;       // SRC_ALPHA, ONE
+    public static final int BLEND_PREMULTIPLIED = 2;  // ONE, ONE_MINUS_SRC_ALPHA
+
+    public static final int MAX_LAYER = 127;
+
+    // ═══════════════════════════════════════════════════════════════
+    // CAPACIDAD
+    // ═══════════════════════════════════════════════════════════════
+    private static final int MAX_SPRITES = 1024;
+    private static final int TEXTURE_SLOTS = 4;
+    private static final int MAX_RANGES = 32;
+
+    private static final int INTS_PER_VERTEX = 7;
+    private static final int INTS_PER_SPRITE = INTS_PER_VERTEX * 4;
+    private static final int STRIDE_BYTES = INTS_PER_VERTEX * 4;
+
+    private static final String VERTEX_SHADER =
+        "#version 300 es\n" +
+        "in vec2 a_Position;\n" +
+        "in vec2 a_TexCoord;\n" +
+        "in vec4 a_Color;\n" +
+        "in vec4 a_Tint;\n" +
+        "in vec4 a_Params;\n" +   // x = slot, y = alpha clip (0-255)
+        "out vec2 v_TexCoord;\n" +
+        "out vec4 v_Color;\n" +
+        "out vec4 v_Tint;\n" +
+        "out float v_Clip;\n" +
+        "flat out int v_Slot;\n" +
+        "void main() {\n" +
+        "    v_TexCoord = a_TexCoord;\n" +
+        "    v_Color = a_Color;\n" +
+        "    v_Tint = a_Tint;\n" +
+        "    v_Clip = a_Params.y / 255.0;\n" +
+        "    v_Slot = int(a_Params.x + 0.5);\n" +
+        "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#version 300 es\n" +
+        "precision mediump float;\n" +
+        "in vec2 v_TexCoord;\n" +
+        "in vec4 v_Color;\n" +
+        "in vec4 v_Tint;\n" +
+        "in float v_Clip;\n" +
+        "flat in int v_Slot;\n" +
+        "uniform sampler2D u_Tex0;\n" +
+        "uniform sampler2D u_Tex1;\n" +
+        "uniform sampler2D u_Tex2;\n" +
+        "uniform sampler2D u_Tex3;\n" +
+        "out vec4 fragColor;\n" +
+        "void main() {\n" +
+        "    vec4 c;\n" +
+        "    if (v_Slot == 0) c = texture(u_Tex0, v_TexCoord);\n" +
+        "    else if (v_Slot == 1) c = texture(u_Tex1, v_TexCoord);\n" +
+        "    else if (v_Slot == 2) c = texture(u_Tex2, v_TexCoord);\n" +
+        "    else c = texture(u_Tex3, v_TexCoord);\n" +
+        "    if (c.a < v_Clip) discard;\n" +
+        "    c.rgb = mix(c.rgb, v_Tint.rgb, v_Tint.a);\n" +
+        "    fragColor = c * v_Color;\n" +
+        "}\n";
+
+    // ═══════════════════════════════════════════════════════════════
+    // GL
+    // ═══════════════════════════════════════════════════════════════
+    private int programId = 0;
+    private int aPositionLoc, aTexCoordLoc, aColorLoc, aTintLoc, aParamsLoc;
+    private final int[] uTexLocs = new int[TEXTURE_SLOTS];
+    private int vboId = 0;
+    private int iboId = 0;
+    private int softDotTexture = 0;
+    private boolean failed = false;
+
+    // ═══════════════════════════════════════════════════════════════
+    // STAGING (CPU)
+    // ═══════════════════════════════════════════════════════════════
+    private final boolean littleEndian = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
+    private final int[] records = new int[MAX_SPRITES * INTS_PER_SPRITE];
+    private final int[] spriteTextures = new int[MAX_SPRITES];
+    private final long[] sortKeys = new long[MAX_SPRITES];
+    private int spriteCount = 0;
+
+    private final ByteBuffer vertexBytes;
+    private final IntBuffer vertexInts;
+    private final ShortBuffer indexData;
+
+    // Rangos de draw call del flush actual
+    private final int[] rangeFirst = new int[MAX_RANGES];
+    private final int[] rangeCount = new int[MAX_RANGES];
+    private final int[] rangeBlend = new int[MAX_RANGES];
+    private final int[] rangeSlots = new int[MAX_RANGES];
+    private final int[] rangeTextures = new int[MAX_RANGES * TEXTURE_SLOTS];
+
+    // ═══════════════════════════════════════════════════════════════
+    // PINCEL
+    // ═══════════════════════════════════════════════════════════════
+    private int layer = 0;
+    private int blend = BLEND_ALPHA;
+    private int color;    // RGBA empaquetado en orden de vértice
+    private int tint;
+    private int clip;     // 0-255
+
+    // 📊 Estadísticas del último flush
+    private int lastDrawCalls = 0;
+    private int lastSprites = 0;
+
+    /** Lo crea RenderContext; desde el GL thread se usa get() */
+    public SpriteBatch() {
+        vertexBytes = ByteBuffer.allocateDirect(MAX_SPRITES * 4 * STRIDE_BYTES);
+        vertexBytes.order(ByteOrder.nativeOrder());
+        vertexInts = vertexBytes.asIntBuffer();
+
+        short[] indices = new short[MAX_SPRITES * 6];
+        for (int i = 0; i < MAX_SPRITES; i++) {
+            int vi = i * 4;
+            int ii = i * 6;
+            indices[ii]     = (short) vi;
+            indices[ii + 1] = (short) (vi + 1);
+            indices[ii + 2] = (short) (vi + 2);
+            indices[ii + 3] = (short) (vi + 2);
+            indices[ii + 4] = (short) (vi + 1);
+            indices[ii + 5] = (short) (vi + 3);
+        }
+        ByteBuffer ibb = ByteBuffer.allocateDirect(indices.length * 2);
+        ibb.order(ByteOrder.nativeOrder());
+        indexData = ibb.asShortBuffer();
+        indexData.put(indices);
+        indexData.position(0);
+
+        resetStyle();
+    }
+
+    /** Batch del contexto GL enlazado al hilo actual */
+    public static SpriteBatch get() {
+        return RenderContext.current().getSpriteBatch();
+    }
+
+    private boolean ensureGL() {
+        if (programId != 0) return true;
+        if (failed) return false;
+
+        programId = ShaderUtils.createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (programId == 0) {
+            Log.e(TAG, "✗ Error creando shader del sprite batch");
+            failed = true;
+            return false;
+        }
+
+        aPositionLoc = GLES30.glGetAttribLocation(programId, "a_Position");
+        aTexCoordLoc = GLES30.glGetAttribLocation(programId, "a_TexCoord");
+        aColorLoc = GLES30.glGetAttribLocation(programId, "a_Color");
+        aTintLoc = GLES30.glGetAttribLocation(programId, "a_Tint");
+        aParamsLoc = GLES30.glGetAttribLocation(programId, "a_Params");
+        for (int i = 0; i < TEXTURE_SLOTS; i++) {
+            uTexLocs[i] = GLES30.glGetUniformLocation(programId, "u_Tex" + i);
+        }
+
+        int[] buffers = new int[2];
+        GLES30.glGenBuffers(2, buffers, 0);
+        vboId = buffers[0];
+        iboId = buffers[1];
+
+        // Compartido: aunque se inicialice dentro de una escena no es suyo
+        String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, vboId);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, vertexBytes.capacity(), null, GLES30.GL_STREAM_DRAW);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+
+        GLStateManager.get().bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, iboId);
+        GLStateManager.get().bufferData(GLES30.GL_ELEMENT_ARRAY_BUFFER, indexData.capacity() * 2, indexData,
+                GLES30.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GpuMemoryRegistry.get().popOwner(previousOwner);
+
+        Log.d(TAG, "✓ Sprite batch inicializado (" + MAX_SPRITES + " sprites, "
+                + TEXTURE_SLOTS + " slots)");
+        return true;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // PASADA
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Empieza una pasada: dibuja lo que quedara pendiente y resetea el pincel */
+    public void begin() {
+        if (spriteCount > 0) flush();
+        resetStyle();
+    }
+
+    /** Dibuja todo lo acumulado */
+    public void end() {
+        flush();
+    }
+
+    public void resetStyle() {
+        layer = 0;
+        blend = BLEND_ALPHA;
+        color = pack(255, 255, 255, 255);
+        tint = 0;
+        clip = 0;
+    }
+
+    public void setLayer(int layer) {
+        this.layer = Math.max(0, Math.min(MAX_LAYER, layer));
+    }
+
+    public void setBlend(int blend) {
+        this.blend = blend;
+    }
+
+    /** Color multiplicador (incluye alpha) */
+    public void setColor(float r, float g, float b, float a) {
+        color = pack(toByte(r), toByte(g), toByte(b), toByte(a));
+    }
+
+    /** Reemplaza el RGB de la textura por (r,g,b) en proporción amount (0 = sin tinte) */
+    public void setTint(float r, float g, float b, float amount) {
+        tint = pack(toByte(r), toByte(g), toByte(b), toByte(amount));
+    }
+
+    /** Descarta fragmentos con alpha de textura menor que threshold */
+    public void setAlphaClip(float threshold) {
+        clip = toByte(threshold);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SPRITES
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Quad alineado a ejes en NDC. (u0,v0) es la esquina superior izquierda
+     * de la región de textura y (u1,v1) la inferior derecha (convención Bitmap).
+     */
+    public void drawQuad(int texture, float left, float bottom, float right, float top,
+                         float u0, float v0, float u1, float v1) {
+        int base = reserve(texture);
+        if (base < 0) return;
+        int[] r = records;
+        writeVertex(r, base, left, bottom, u0, v1);
+        writeVertex(r, base + INTS_PER_VERTEX, right, bottom, u1, v1);
+        writeVertex(r, base + INTS_PER_VERTEX * 2, left, top, u0, v0);
+        writeVertex(r, base + INTS_PER_VERTEX * 3, right, top, u1, v0);
+    }
+
+    /**
+     * Sprite centrado en (cx,cy) con semi-extensiones y rotación (radianes)
+     * en NDC. Misma convención de UV que drawQuad.
+     */
+    public void drawSprite(int texture, float cx, float cy, float halfW, float halfH, float rotation,
+                           float u0, float v0, float u1, float v1) {
+        if (rotation == 0f) {
+            drawQuad(texture, cx - halfW, cy - halfH, cx + halfW, cy + halfH, u0, v0, u1, v1);
+            return;
+        }
+        int base = reserve(texture);
+        if (base < 0) return;
+
+        float c = (float) Math.cos(rotation);
+        float s = (float) Math.sin(rotation);
+        float wx = halfW * c, wy = halfW * s;    // eje X rotado
+        float hx = -halfH * s, hy = halfH * c;   // eje Y rotado
+
+        int[] r = records;
+        writeVertex(r, base, cx - wx - hx, cy - wy - hy, u0, v1);
+        writeVertex(r, base + INTS_PER_VERTEX, cx + wx - hx, cy + wy - hy, u1, v1);
+        writeVertex(r, base + INTS_PER_VERTEX * 2, cx - wx + hx, cy - wy + hy, u0, v0);
+        writeVertex(r, base + INTS_PER_VERTEX * 3, cx + wx + hx, cy + wy + hy, u1, v0);
+    }
+
+    private int reserve(int texture) {
+        if (texture <= 0) return -1;
+        if (spriteCount == MAX_SPRITES) flush();
+
+        int index = spriteCount++;
+        spriteTextures[index] = texture;
+        sortKeys[index] = ((long) layer << 56)
+                | ((long) (blend & 0xF) << 52)
+                | ((long) (texture & 0xFFFFFF) << 28)
+                | index;
+        return index * INTS_PER_SPRITE;
+    }
+
+    private void writeVertex(int[] r, int o, float x, float y, float u, float v) {
+        r[o]     = Float.floatToRawIntBits(x);
+        r[o + 1] = Float.floatToRawIntBits(y);
+        r[o + 2] = Float.floatToRawIntBits(u);
+        r[o + 3] = Float.floatToRawIntBits(v);
+        r[o + 4] = color;
+        r[o + 5] = tint;
+        r[o + 6] = clip;   // se empaqueta con el slot en flush
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // FLUSH
+    // ═══════════════════════════════════════════════════════════════
+
+    private void flush() {
+        if (spriteCount == 0) return;
+        if (!ensureGL()) {
+            spriteCount = 0;
+            return;
+        }
+
+        Arrays.sort(sortKeys, 0, spriteCount);
+
+        // Construir el stream ordenado y partirlo en rangos (blend + 4 slots)
+        vertexInts.clear();
+        int ranges = 0;
+        int slotsUsed = 0;
+        int currentBlend = -1;
+        int drawCalls = 0;
+        int sprites = spriteCount;
+
+        for (int i = 0; i < spriteCount; i++) {
+            int index = (int) (sortKeys[i] & 0xFFFFFFFL);
+            int spriteBlend = (int) ((sortKeys[i] >>> 52) & 0xF);
+            int texture = spriteTextures[index];
+
+            int slot = -1;
+            if (ranges > 0 && spriteBlend == currentBlend) {
+                int t = (ranges - 1) * TEXTURE_SLOTS;
+                for (int s = 0; s < slotsUsed; s++) {
+                    if (rangeTextures[t + s] == texture) {
+                        slot = s;
+                        break;
+                    }
+                }
+                if (slot < 0 && slotsUsed < TEXTURE_SLOTS) {
+                    slot = slotsUsed++;
+                    rangeTextures[t + slot] = texture;
+                    rangeSlots[ranges - 1] = slotsUsed;
+                }
+            }
+
+            if (slot < 0) {
+                // Rango nuevo: cambio de blend o slots llenos
+                if (ranges == MAX_RANGES) {
+                    drawCalls += drawRanges(ranges);
+                    vertexInts.clear();
+                    ranges = 0;
+                }
+                rangeFirst[ranges] = vertexInts.position() / INTS_PER_SPRITE;
+                rangeCount[ranges] = 0;
+                rangeBlend[ranges] = spriteBlend;
+                rangeTextures[ranges * TEXTURE_SLOTS] = texture;
+                rangeSlots[ranges] = 1;
+                ranges++;
+                currentBlend = spriteBlend;
+                slotsUsed = 1;
+                slot = 0;
+            }
+
+            int base = index * INTS_PER_SPRITE;
+            for (int v = 0; v < 4; v++) {
+                int p = base + v * INTS_PER_VERTEX + 6;
+                records[p] = pack(slot, records[p], 0, 0);
+            }
+            vertexInts.put(records, base, INTS_PER_SPRITE);
+            rangeCount[ranges - 1]++;
+        }
+
+        drawCalls += drawRanges(ranges);
+        spriteCount = 0;
+        lastDrawCalls = drawCalls;
+        lastSprites = sprites;
+    }
+
+    private int drawRanges(int ranges) {
+        if (ranges == 0) return 0;
+        int ints = vertexInts.position();
+        GLStateManager glState = GLStateManager.get();
+
+        glState.useProgram(programId);
+        glState.bindBuffer(GLES30.GL_ARRAY_BUFFER, vboId);
+        // Orphan + upload: el driver no espera a que termine el frame anterior
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, vertexBytes.capacity(), null, GLES30.GL_STREAM_DRAW);
+        vertexBytes.position(0);
+        GLES30.glBufferSubData(GLES30.GL_ARRAY_BUFFER, 0, ints * 4, vertexBytes);
+        glState.bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, iboId);
+
+        GLES30.glEnableVertexAttribArray(aPositionLoc);
+        GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, STRIDE_BYTES, 0);
+        GLES30.glEnableVertexAttribArray(aTexCoordLoc);
+        GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, STRIDE_BYTES, 8);
+        GLES30.glEnableVertexAttribArray(aColorLoc);
+        GLES30.glVertexAttribPointer(aColorLoc, 4, GLES30.GL_UNSIGNED_BYTE, true, STRIDE_BYTES, 16);
+        GLES30.glEnableVertexAttribArray(aTintLoc);
+        GLES30.glVertexAttribPointer(aTintLoc, 4, GLES30.GL_UNSIGNED_BYTE, true, STRIDE_BYTES, 20);
+        GLES30.glEnableVertexAttribArray(aParamsLoc);
+        GLES30.glVertexAttribPointer(aParamsLoc, 4, GLES30.GL_UNSIGNED_BYTE, false, STRIDE_BYTES, 24);
+
+        for (int i = 0; i < TEXTURE_SLOTS; i++) {
+            GLES30.glUniform1i(uTexLocs[i], i);
+        }
+
+        glState.enable(GLES30.GL_BLEND);
+        int boundBlend = -1;
+        for (int r = 0; r < ranges; r++) {
+            if (rangeBlend[r] != boundBlend) {
+                boundBlend = rangeBlend[r];
+                applyBlend(boundBlend);
+            }
+            int t = r * TEXTURE_SLOTS;
+            for (int s = 0; s < TEXTURE_SLOTS; s++) {
+                // Slots sin usar repiten la primera textura (sampler siempre válido)
+                int texture = s < rangeSlots[r] ? rangeTextures[t + s] : rangeTextures[t];
+                glState.activeTexture(GLES30.GL_TEXTURE0 + s);
+                glState.bindTexture(GLES30.GL_TEXTURE_2D, texture);
+            }
+            glState.drawElements(GLES30.GL_TRIANGLES, rangeCount[r] * 6,
+                    GLES30.GL_UNSIGNED_SHORT, rangeFirst[r] * 6 * 2);
+        }
+
+        GLES30.glDisableVertexAttribArray(aPositionLoc);
+        GLES30.glDisableVertexAttribArray(aTexCoordLoc);
+        GLES30.glDisableVertexAttribArray(aColorLoc);
+        GLES30.glDisableVertexAttribArray(aTintLoc);
+        GLES30.glDisableVertexAttribArray(aParamsLoc);
+        glState.bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+        glState.bindBuffer(GLES30.GL_ELEMENT_ARRAY_BUFFER, 0);
+        glState.activeTexture(GLES30.GL_TEXTURE0);
+
+        // Restaurar blend estándar que esperan los demás SceneObjects
+        glState.blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        return ranges;
+    }
+
+    private static void applyBlend(int blend) {
+        switch (blend) {
+            case BLEND_ADDITIVE:
+                GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+                break;
+            case BLEND_PREMULTIPLIED:
+                GLStateManager.get().blendFunc(GLES30.GL_ONE, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+            case BLEND_ALPHA:
+            default:
+                GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // TEXTURA INTEGRADA: punto suave (partículas sin textura propia)
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Disco blanco con borde suave (alpha = smoothstep(0.5, 0.2, dist)) */
+    public int getSoftDotTexture() {
+        if (softDotTexture != 0) return softDotTexture;
+
+        final int size = 32;
+        ByteBuffer pixels = ByteBuffer.allocateDirect(size * size * 4);
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                float dx = (x + 0.5f) / size - 0.5f;
+                float dy = (y + 0.5f) / size - 0.5f;
+                float dist = (float) Math.sqrt(dx * dx + dy * dy);
+                float t = Math.max(0f, Math.min(1f, (0.5f - dist) / 0.3f));
+                int a = (int) (t * t * (3f - 2f * t) * 255f);
+                pixels.put((byte) 255).put((byte) 255).put((byte) 255).put((byte) a);
+            }
+        }
+        pixels.position(0);
+
+        int[] tex = new int[1];
+        GLES30.glGenTextures(1, tex, 0);
+        softDotTexture = tex[0];
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, softDotTexture);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
+        String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_RGBA, size, size, 0,
+                GLES30.GL_RGBA, GLES30.GL_UNSIGNED_BYTE, pixels);
+        GpuMemoryRegistry.get().popOwner(previousOwner);
+        return softDotTexture;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // UTILIDADES
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Empaqueta 4 bytes para que queden en memoria en el orden b0, b1, b2, b3 */
+    private int pack(int b0, int b1, int b2, int b3) {
+        if (littleEndian) {
+            return b0 | (b1 << 8) | (b2 << 16) | (b3 << 24);
+        }
+        return (b0 << 24) | (b1 << 16) | (b2 << 8) | b3;
+    }
+
+    private static int toByte(float v) {
+        return Math.max(0, Math.min(255, Math.round(v * 255f)));
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CICLO DE VIDA
+    // ═══════════════════════════════════════════════════════════════
+
+    public int getLastDrawCalls() { return lastDrawCalls; }
+    public int getLastSpriteCount() { return lastSprites; }
+
+    /** Contexto GL nuevo: programa, buffers y textura viejos ya no existen */
+    public void invalidate() {
+        programId = 0;
+        vboId = 0;
+        iboId = 0;
+        softDotTexture = 0;
+        failed = false;
+        spriteCount = 0;
+    }
+
+    public void release() {
+        if (programId != 0) {
+            GLStateManager.get().deleteProgram(programId);
+            programId = 0;
+        }
+        if (vboId != 0) {
+            GLStateManager.get().deleteBuffers(2, new int[]{ vboId, iboId }, 0);
+            vboId = 0;
+            iboId = 0;
+        }
+        if (softDotTexture != 0) {
+            GLStateManager.get().deleteTextures(1, new int[]{ softDotTexture }, 0);
+            softDotTexture = 0;
+        }
+        spriteCount = 0;
+    }
+}
@@ -7,5 +7,16 @@ package com.secret.blackholeglow.models;
 public enum SceneWeight {
     LIGHT,   // Imagen estática o shader simple (<20 MB GPU)
     MEDIUM,  // Video background o modelos simples (20-50 MB GPU)
-    HEAVY    // Modelos 3D + texturas + video (>50 MB GPU)
+    HEAVY;   // Modelos 3D + texturas + video (>50 MB GPU)
+
+    /**
+     * Peso equivalente a una huella GPU medida (GpuMemoryRegistry),
+     * con los mismos cortes que documenta cada valor.
+     */
+    public static SceneWeight fromGpuBytes(long bytes) {
+        long mb = bytes / (1024L * 1024L);
+        if (mb < 20) return LIGHT;
+        if (mb <= 50) return MEDIUM;
+        return HEAVY;
+    }
 }
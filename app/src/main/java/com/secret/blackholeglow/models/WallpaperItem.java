@@ -47,6 +47,7 @@ public class WallpaperItem {
     private final SceneWeight sceneWeight; // Peso de recursos de la escena
     private final String remotePreviewFile; // Archivo de preview remoto (null = usar drawable local)
     private final WallpaperCategory category; // Categoria para filtrado en UI
+    private final int sortOrder;         // Orden entre destacados (menor primero, 0 = catálogo local)
 
     // ═══════════════════════════════════════════════════════════════
     // CONSTRUCTORES
@@ -81,6 +82,23 @@ public class WallpaperItem {
             SceneWeight sceneWeight,
             String remotePreviewFile,
             WallpaperCategory category
+    ) {
+        this(nombre, descripcion, resourceIdPreview, sceneName, tier, badge, glowColor, isFeatured, sceneWeight, remotePreviewFile, category, 0);
+    }
+
+    private WallpaperItem(
+            String nombre,
+            String descripcion,
+            int resourceIdPreview,
+            String sceneName,
+            WallpaperTier tier,
+            String badge,
+            int glowColor,
+            boolean isFeatured,
+            SceneWeight sceneWeight,
+            String remotePreviewFile,
+            WallpaperCategory category,
+            int sortOrder
     ) {
         this.nombre = nombre;
         this.descripcion = descripcion;
@@ -93,6 +111,7 @@ public class WallpaperItem {
         this.sceneWeight = sceneWeight;
         this.remotePreviewFile = remotePreviewFile;
         this.category = category;
+        this.sortOrder = sortOrder;
     }
 
     /**
@@ -137,6 +156,7 @@ public class WallpaperItem {
         private SceneWeight sceneWeight = SceneWeight.MEDIUM;
         private String remotePreviewFile = null;
         private WallpaperCategory category = WallpaperCategory.MISC;
+        private int sortOrder = 0;
 
         public Builder(String nombre) {
             this.nombre = nombre;
@@ -193,10 +213,16 @@ public class WallpaperItem {
             return this;
         }
 
+        public Builder sortOrder(int sortOrder) {
+            this.sortOrder = sortOrder;
+            return this;
+        }
+
         public WallpaperItem build() {
             return new WallpaperItem(
                     nombre, descripcion, resourceIdPreview,
-                    sceneName, tier, badge, glowColor, isFeatured, sceneWeight, remotePreviewFile, category
+                    sceneName, tier, badge, glowColor, isFeatured, sceneWeight, remotePreviewFile, category,
+                    sortOrder
             );
         }
     }
@@ -283,6 +309,11 @@ public class WallpaperItem {
         return category != null ? category : WallpaperCategory.MISC;
     }
 
+    /** Orden entre destacados (menor primero; los del catálogo local usan 0) */
+    public int getSortOrder() {
+        return sortOrder;
+    }
+
     /** Verifica si tiene preview remoto */
     public boolean hasRemotePreview() {
         return remotePreviewFile != null && !remotePreviewFile.isEmpty();
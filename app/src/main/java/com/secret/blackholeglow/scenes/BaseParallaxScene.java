@@ -3,7 +3,6 @@ package com.secret.blackholeglow.scenes;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import com.secret.blackholeglow.Battery3D;
@@ -13,6 +12,7 @@ import com.secret.blackholeglow.GyroscopeManager;
 import com.secret.blackholeglow.R;
 import com.secret.blackholeglow.core.MemoryPressureLevel;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.io.File;
 import java.nio.ByteBuffer;
@@ -213,9 +213,9 @@ import java.nio.FloatBuffer;
  * ║  │      @Override                                                               │    ║
  * ║  │      protected void drawSceneSpecific() {                                    │    ║
  * ║  │          if (link3D != null) {                                               │    ║
- * ║  │              GLES30.glEnable(GLES30.GL_DEPTH_TEST);                          │    ║
+ * ║  │              GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);              │    ║
  * ║  │              link3D.draw();                                                  │    ║
- * ║  │              GLES30.glDisable(GLES30.GL_DEPTH_TEST);                         │    ║
+ * ║  │              GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);             │    ║
  * ║  │          }                                                                   │    ║
  * ║  │      }                                                                       │    ║
  * ║  │                                                                              │    ║
@@ -266,6 +266,7 @@ import java.nio.FloatBuffer;
  * ║  │       │                                                                     │     ║
  * ║  │       ├──► Crear giroscopio                                                 │     ║
  * ║  │       ├──► Crear shaders (depth + simple)                                   │     ║
+ * ║  │       ├──► Crear shader compuesto (todas las capas en 1 pasada)             │     ║
  * ║  │       ├──► Crear buffers del quad                                           │     ║
  * ║  │       ├──► Cargar texturas de capas                                         │     ║
  * ║  │       ├──► Crear UI (ecualizador, reloj, batería)                           │     ║
@@ -280,7 +281,7 @@ import java.nio.FloatBuffer;
  * ║  │   draw()                                                                    │     ║
  * ║  │       │                                                                     │     ║
  * ║  │       ├──► Clear con color de fondo                                         │     ║
- * ║  │       ├──► Dibujar capas (depth o estáticas)                                │     ║
+ * ║  │       ├──► Dibujar capas (1 pasada compuesta, o por capa si no caben)       │     ║
  * ║  │       ├──► drawSceneSpecific() ← HOOK para objetos 3D                       │     ║
  * ║  │       └──► Dibujar UI                                                       │     ║
  * ║  │                                                                             │     ║
@@ -427,6 +428,26 @@ public abstract class BaseParallaxScene extends WallpaperScene {
     private int simplePosLoc, simpleTexCoordLoc;
     private int simpleTextureLoc, simpleOffsetLoc, simpleAlphaLoc;
 
+    /**
+     * Shader compuesto: todas las capas (color + depth) en una pasada.
+     * Se genera para las capas cargadas de la escena (sin ramas por capa).
+     * -1 = no disponible → camino por capa (drawLayerWithDepth / drawLayerStatic).
+     */
+    private static final int MAX_COMPOSITE_LAYERS = 6;
+    private int compositeShaderProgram = -1;
+    private int compositePosLoc, compositeTexCoordLoc;
+    private int compositeOffsetLoc, compositeCoverRectLoc, compositeBackgroundLoc;
+    private int compositeLayerCount = 0;
+    private final int[] compositeColorTex = new int[MAX_COMPOSITE_LAYERS];
+    private final int[] compositeDepthTex = new int[MAX_COMPOSITE_LAYERS];
+    private final int[] compositeColorLocs = new int[MAX_COMPOSITE_LAYERS];
+    private final int[] compositeDepthLocs = new int[MAX_COMPOSITE_LAYERS];
+    private final int[] compositeParamsLocs = new int[MAX_COMPOSITE_LAYERS];
+    private final float[] compositeParams = new float[MAX_COMPOSITE_LAYERS * 2];  // depthScale, alpha
+
+    /** UV visibles del modo cover (uMin, vMin, uMax, vMax) */
+    private final float[] coverRect = { 0f, 0f, 1f, 1f };
+
     // ═══════════════════════════════════════════════════════════════════════════════════
     // ⚠️ NO BORRAR POR FAVOR - BUFFERS DEL QUAD FULLSCREEN
     // ═══════════════════════════════════════════════════════════════════════════════════
@@ -593,9 +614,9 @@ public abstract class BaseParallaxScene extends WallpaperScene {
      * ║  @Override                                                                     ║
      * ║  protected void drawSceneSpecific() {                                          ║
      * ║      if (link3D != null) {                                                     ║
-     * ║          GLES30.glEnable(GLES30.GL_DEPTH_TEST);                                ║
+     * ║          GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);                    ║
      * ║          link3D.draw();                                                        ║
-     * ║          GLES30.glDisable(GLES30.GL_DEPTH_TEST);                               ║
+     * ║          GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);                   ║
      * ║      }                                                                         ║
      * ║  }                                                                             ║
      * ║                                                                                ║
@@ -728,6 +749,16 @@ public abstract class BaseParallaxScene extends WallpaperScene {
     protected float getBatteryX() { return 0.81f; }
     protected float getBatteryY() { return -0.34f; }
 
+    /**
+     * Composición en una sola pasada (default: true)
+     * Todas las capas se mezclan en un fragment shader: cada píxel se escribe
+     * una vez en lugar de una vez por capa. Si el dispositivo no tiene
+     * unidades de textura suficientes se usa el camino por capa.
+     */
+    protected boolean useSinglePassCompositing() {
+        return true;
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════════════
     //
     //                    📖 IMPLEMENTACIÓN DEL CICLO DE VIDA
@@ -774,6 +805,7 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         layers = getLayers();
         if (layers != null) {
             loadLayerTextures();
+            createCompositeShader();
         }
 
         // ═══════════════════════════════════════════════════════════════════════
@@ -886,6 +918,127 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         Log.d(TAG, "✅ Simple Shader creado");
     }
 
+    /**
+     * Shader compuesto de una pasada.
+     *
+     * Replica exactamente el camino por capa: cada capa con depth desplaza
+     * su UV según el depth map; cada capa estática se desplaza entera (fuera
+     * de su rect no aporta nada). Luego "alpha over" en orden, empezando
+     * por el color de fondo, igual que el blend SRC_ALPHA/ONE_MINUS_SRC_ALPHA.
+     * Se genera desenrollado para las capas cargadas (los samplers no se
+     * pueden indexar con variables en GLSL ES 3.0).
+     */
+    private void createCompositeShader() {
+        compositeLayerCount = 0;
+        if (!useSinglePassCompositing()) return;
+
+        int count = 0;
+        int units = 0;
+        for (ParallaxLayer layer : layers) {
+            if (layer.colorTextureId <= 0) continue;
+            count++;
+            units += layer.hasDepthMap() ? 2 : 1;
+        }
+        if (count == 0) return;
+
+        int[] maxUnits = new int[1];
+        GLES30.glGetIntegerv(GLES30.GL_MAX_TEXTURE_IMAGE_UNITS, maxUnits, 0);
+        if (count > MAX_COMPOSITE_LAYERS || units > maxUnits[0]) {
+            Log.d(TAG, "🧩 Composición por capa: " + count + " capas / " + units +
+                  " unidades (máx " + maxUnits[0] + ")");
+            return;
+        }
+
+        String vertexShader =
+            "#version 300 es\n" +
+            "in vec4 a_Position;\n" +
+            "in vec2 a_TexCoord;\n" +
+            "out vec2 v_TexCoord;\n" +
+            "void main() {\n" +
+            "    gl_Position = a_Position;\n" +
+            "    v_TexCoord = a_TexCoord;\n" +
+            "}\n";
+
+        StringBuilder fs = new StringBuilder();
+        fs.append("#version 300 es\n")
+          .append("precision mediump float;\n")
+          .append("in vec2 v_TexCoord;\n")
+          .append("out vec4 fragColor;\n")
+          .append("uniform vec2 u_Offset;\n")
+          .append("uniform vec4 u_CoverRect;\n")
+          .append("uniform vec4 u_Background;\n");
+        int index = 0;
+        for (ParallaxLayer layer : layers) {
+            if (layer.colorTextureId <= 0) continue;
+            fs.append("uniform sampler2D u_Color").append(index).append(";\n");
+            if (layer.hasDepthMap()) {
+                fs.append("uniform sampler2D u_Depth").append(index).append(";\n");
+            }
+            fs.append("uniform vec2 u_Params").append(index).append(";\n");  // depthScale, alpha
+            index++;
+        }
+        fs.append("void main() {\n")
+          .append("    vec4 dst = u_Background;\n")
+          .append("    vec2 coverUV = mix(u_CoverRect.xy, u_CoverRect.zw, v_TexCoord);\n")
+          .append("    vec2 uv;\n")
+          .append("    vec4 c;\n");
+        index = 0;
+        for (ParallaxLayer layer : layers) {
+            if (layer.colorTextureId <= 0) continue;
+            String i = String.valueOf(index);
+            if (layer.hasDepthMap()) {
+                fs.append("    uv = ").append(layer.useCoverMode ? "coverUV" : "v_TexCoord").append(";\n")
+                  .append("    uv = clamp(uv + u_Offset * texture(u_Depth").append(i)
+                  .append(", uv).r * u_Params").append(i).append(".x, 0.005, 0.995);\n")
+                  .append("    c = texture(u_Color").append(i).append(", uv);\n");
+            } else {
+                // Quad desplazado en NDC → UV desplazado (V invertida)
+                fs.append("    uv = v_TexCoord - u_Offset * u_Params").append(i)
+                  .append(".x * vec2(0.5, -0.5);\n")
+                  .append("    c = texture(u_Color").append(i).append(", uv);\n")
+                  .append("    c.a *= step(0.0, uv.x) * step(uv.x, 1.0) * step(0.0, uv.y) * step(uv.y, 1.0);\n");
+            }
+            fs.append("    c.a *= u_Params").append(i).append(".y;\n")
+              .append("    dst = vec4(mix(dst.rgb, c.rgb, c.a), c.a * c.a + dst.a * (1.0 - c.a));\n");
+            index++;
+        }
+        fs.append("    fragColor = dst;\n")
+          .append("}\n");
+
+        int program = createProgram(vertexShader, fs.toString());
+        int[] linked = new int[1];
+        GLES30.glGetProgramiv(program, GLES30.GL_LINK_STATUS, linked, 0);
+        if (linked[0] == 0) {
+            Log.e(TAG, "❌ Shader compuesto no enlazó, usando camino por capa: " +
+                  GLES30.glGetProgramInfoLog(program));
+            GLStateManager.get().deleteProgram(program);
+            return;
+        }
+
+        compositeShaderProgram = program;
+        compositePosLoc = GLES30.glGetAttribLocation(program, "a_Position");
+        compositeTexCoordLoc = GLES30.glGetAttribLocation(program, "a_TexCoord");
+        compositeOffsetLoc = GLES30.glGetUniformLocation(program, "u_Offset");
+        compositeCoverRectLoc = GLES30.glGetUniformLocation(program, "u_CoverRect");
+        compositeBackgroundLoc = GLES30.glGetUniformLocation(program, "u_Background");
+
+        index = 0;
+        for (ParallaxLayer layer : layers) {
+            if (layer.colorTextureId <= 0) continue;
+            compositeColorTex[index] = layer.colorTextureId;
+            compositeDepthTex[index] = layer.hasDepthMap() ? layer.depthTextureId : 0;
+            compositeColorLocs[index] = GLES30.glGetUniformLocation(program, "u_Color" + index);
+            compositeDepthLocs[index] = GLES30.glGetUniformLocation(program, "u_Depth" + index);
+            compositeParamsLocs[index] = GLES30.glGetUniformLocation(program, "u_Params" + index);
+            compositeParams[index * 2] = layer.depthScale;
+            compositeParams[index * 2 + 1] = layer.alpha;
+            index++;
+        }
+        compositeLayerCount = index;
+
+        Log.d(TAG, "✅ Shader compuesto creado: " + count + " capas, " + units + " unidades, 1 pasada");
+    }
+
     /**
      * ⚠️ NO BORRAR POR FAVOR - BUFFERS DEL QUAD
      */
@@ -1006,13 +1159,13 @@ public abstract class BaseParallaxScene extends WallpaperScene {
             GLES30.glGenTextures(1, textureIds, 0);
             int textureId = textureIds[0];
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
             bitmap.recycle();
 
             Log.d(TAG, "✅ " + name + " (ID:" + textureId + ")");
@@ -1120,12 +1273,14 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
 
         // Configurar para 2D
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-
-        // Dibujar capas
-        if (layers != null) {
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+
+        // Dibujar capas: una pasada si hay shader compuesto, si no una por capa
+        if (compositeShaderProgram > 0 && compositeLayerCount > 0) {
+            drawLayersComposite(bg);
+        } else if (layers != null) {
             for (ParallaxLayer layer : layers) {
                 if (layer.colorTextureId > 0) {
                     if (layer.hasDepthMap()) {
@@ -1141,32 +1296,77 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         drawSceneSpecific();
 
         // Dibujar UI
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
         if (equalizerDJ != null) equalizerDJ.draw();
+        if (!uiDeferred) drawUI();
+
+        super.draw();
+    }
+
+    @Override
+    public void drawUI() {
         if (clock != null) clock.draw();
         if (battery != null) battery.draw();
+    }
 
-        super.draw();
+    /**
+     * Todas las capas en un draw call fullscreen (sin blend: el shader ya
+     * compone sobre el color de fondo, cada píxel se escribe una vez).
+     */
+    private void drawLayersComposite(float[] bg) {
+        GLStateManager.get().useProgram(compositeShaderProgram);
+        GLStateManager.get().disable(GLES30.GL_BLEND);
+
+        GLES30.glUniform2f(compositeOffsetLoc, offsetX, offsetY);
+        GLES30.glUniform4fv(compositeCoverRectLoc, 1, coverRect, 0);
+        GLES30.glUniform4f(compositeBackgroundLoc, bg[0], bg[1], bg[2], bg[3]);
+
+        int unit = 0;
+        for (int i = 0; i < compositeLayerCount; i++) {
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0 + unit);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, compositeColorTex[i]);
+            GLES30.glUniform1i(compositeColorLocs[i], unit++);
+            if (compositeDepthTex[i] > 0) {
+                GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0 + unit);
+                GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, compositeDepthTex[i]);
+                GLES30.glUniform1i(compositeDepthLocs[i], unit++);
+            }
+            GLES30.glUniform2fv(compositeParamsLocs[i], 1, compositeParams, i * 2);
+        }
+
+        GLES30.glEnableVertexAttribArray(compositePosLoc);
+        GLES30.glVertexAttribPointer(compositePosLoc, 2, GLES30.GL_FLOAT, false, 0, quadVertexBuffer);
+        GLES30.glEnableVertexAttribArray(compositeTexCoordLoc);
+        GLES30.glVertexAttribPointer(compositeTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, quadTexCoordBuffer);
+
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+
+        GLES30.glDisableVertexAttribArray(compositePosLoc);
+        GLES30.glDisableVertexAttribArray(compositeTexCoordLoc);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+
+        // El resto de la escena espera blend activo
+        GLStateManager.get().enable(GLES30.GL_BLEND);
     }
 
     /**
      * ⚠️ NO BORRAR POR FAVOR - DIBUJA CAPA CON DEPTH MAP
      */
     private void drawLayerWithDepth(ParallaxLayer layer) {
-        GLES30.glUseProgram(depthShaderProgram);
+        GLStateManager.get().useProgram(depthShaderProgram);
 
         GLES30.glUniform2f(depthOffsetLoc, offsetX, offsetY);
         GLES30.glUniform1f(depthScaleLoc, layer.depthScale);
         GLES30.glUniform1f(depthAlphaLoc, layer.alpha);
 
         // Texture unit 0: Color
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, layer.colorTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, layer.colorTextureId);
         GLES30.glUniform1i(depthTextureLoc, 0);
 
         // Texture unit 1: Depth map
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE1);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, layer.depthTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE1);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, layer.depthTextureId);
         GLES30.glUniform1i(depthMapLoc, 1);
 
         // Vertices
@@ -1178,7 +1378,7 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         GLES30.glEnableVertexAttribArray(depthTexCoordLoc);
         GLES30.glVertexAttribPointer(depthTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(depthPosLoc);
         GLES30.glDisableVertexAttribArray(depthTexCoordLoc);
@@ -1188,13 +1388,13 @@ public abstract class BaseParallaxScene extends WallpaperScene {
      * ⚠️ NO BORRAR POR FAVOR - DIBUJA CAPA ESTÁTICA
      */
     private void drawLayerStatic(ParallaxLayer layer) {
-        GLES30.glUseProgram(simpleShaderProgram);
+        GLStateManager.get().useProgram(simpleShaderProgram);
 
         GLES30.glUniform2f(simpleOffsetLoc, offsetX * layer.depthScale, offsetY * layer.depthScale);
         GLES30.glUniform1f(simpleAlphaLoc, layer.alpha);
 
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, layer.colorTextureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, layer.colorTextureId);
         GLES30.glUniform1i(simpleTextureLoc, 0);
 
         GLES30.glEnableVertexAttribArray(simplePosLoc);
@@ -1203,7 +1403,7 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         GLES30.glEnableVertexAttribArray(simpleTexCoordLoc);
         GLES30.glVertexAttribPointer(simpleTexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, quadTexCoordBuffer);
 
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES30.glDisableVertexAttribArray(simplePosLoc);
         GLES30.glDisableVertexAttribArray(simpleTexCoordLoc);
@@ -1241,10 +1441,10 @@ public abstract class BaseParallaxScene extends WallpaperScene {
         if (layers != null) {
             for (ParallaxLayer layer : layers) {
                 if (layer.colorTextureId > 0) {
-                    GLES30.glDeleteTextures(1, new int[]{layer.colorTextureId}, 0);
+                    GLStateManager.get().deleteTextures(1, new int[]{layer.colorTextureId}, 0);
                 }
                 if (layer.depthTextureId > 0) {
-                    GLES30.glDeleteTextures(1, new int[]{layer.depthTextureId}, 0);
+                    GLStateManager.get().deleteTextures(1, new int[]{layer.depthTextureId}, 0);
                 }
             }
             layers = null;
@@ -1252,13 +1452,18 @@ public abstract class BaseParallaxScene extends WallpaperScene {
 
         // Liberar shaders
         if (depthShaderProgram > 0) {
-            GLES30.glDeleteProgram(depthShaderProgram);
+            GLStateManager.get().deleteProgram(depthShaderProgram);
             depthShaderProgram = -1;
         }
         if (simpleShaderProgram > 0) {
-            GLES30.glDeleteProgram(simpleShaderProgram);
+            GLStateManager.get().deleteProgram(simpleShaderProgram);
             simpleShaderProgram = -1;
         }
+        if (compositeShaderProgram > 0) {
+            GLStateManager.get().deleteProgram(compositeShaderProgram);
+            compositeShaderProgram = -1;
+        }
+        compositeLayerCount = 0;
 
         // Liberar giroscopio
         if (gyroscope != null) {
@@ -1330,6 +1535,11 @@ public abstract class BaseParallaxScene extends WallpaperScene {
 
         quadTexCoordBufferCover.clear();
         quadTexCoordBufferCover.put(texCoords).position(0);
+
+        coverRect[0] = uMin;
+        coverRect[1] = vMin;
+        coverRect[2] = uMax;
+        coverRect[3] = vMax;
     }
 
     // ═══════════════════════════════════════════════════════════════════════════════════
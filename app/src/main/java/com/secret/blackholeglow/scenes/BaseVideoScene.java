@@ -9,7 +9,11 @@ import com.secret.blackholeglow.CameraController;
 import com.secret.blackholeglow.Clock3D;
 import com.secret.blackholeglow.EqualizerBarsDJ;
 import com.secret.blackholeglow.TextureManager;
+import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.core.MemoryDegradation;
+import com.secret.blackholeglow.core.MemoryGovernor;
 import com.secret.blackholeglow.core.MemoryPressureLevel;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.video.MediaCodecVideoRenderer;
 import com.secret.blackholeglow.video.VideoDownloadManager;
 
@@ -195,6 +199,9 @@ public abstract class BaseVideoScene extends WallpaperScene {
     /** Flag para saber si la escena está activa */
     private boolean sceneIsActive = true;
 
+    /** Video suspendido por el MemoryGovernor (etapa CRITICAL): sin auto-recovery */
+    private boolean videoSuspendedForMemory = false;
+
     /** 🔧 FIX FREEZE: Timer para logging de estado de carga del video */
     private float videoLoadingLogTimer = 0f;
     private static final float VIDEO_LOADING_LOG_INTERVAL = 1.0f;
@@ -498,7 +505,7 @@ public abstract class BaseVideoScene extends WallpaperScene {
         videoCheckTimer += deltaTime;
         if (videoCheckTimer >= VIDEO_CHECK_INTERVAL) {
             videoCheckTimer = 0f;
-            if (videoBackground != null && !videoBackground.isPlaying()) {
+            if (videoBackground != null && !videoSuspendedForMemory && !videoBackground.isPlaying()) {
                 // 🔄 Auto-recovery: Si el video se detuvo, intentar reanudar
                 // Primero intenta resume() simple (decoder thread parado pero Surface existe)
                 // Si Surface fue liberada por releaseForPause(), resume() no hará nada
@@ -537,7 +544,7 @@ public abstract class BaseVideoScene extends WallpaperScene {
             GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
 
             // 1. Video de fondo (sin depth test para cubrir toda la pantalla)
-            GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
             if (videoBackground != null) {
                 // 🔧 FIX FREEZE: El video.draw() retorna inmediatamente si no hay frames
                 // Esto permite que el reloj y batería sigan animándose mientras carga
@@ -553,9 +560,9 @@ public abstract class BaseVideoScene extends WallpaperScene {
             }
 
             // 2. Objetos 3D específicos de la escena (con depth test y blending)
-            GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-            GLES30.glEnable(GLES30.GL_BLEND);
-            GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+            GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().enable(GLES30.GL_BLEND);
+            GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
             // Hook para dibujar objetos específicos de la subclase
             try {
@@ -571,17 +578,7 @@ public abstract class BaseVideoScene extends WallpaperScene {
                 Log.e(TAG, "⚠️ Error dibujando ecualizador: " + e.getMessage());
             }
 
-            try {
-                if (clock != null) clock.draw();
-            } catch (Exception e) {
-                Log.e(TAG, "⚠️ Error dibujando reloj: " + e.getMessage());
-            }
-
-            try {
-                if (battery != null) battery.draw();
-            } catch (Exception e) {
-                Log.e(TAG, "⚠️ Error dibujando batería: " + e.getMessage());
-            }
+            if (!uiDeferred) drawUI();
 
             super.draw();
         } catch (Exception e) {
@@ -594,6 +591,24 @@ public abstract class BaseVideoScene extends WallpaperScene {
         }
     }
 
+    /**
+     * Reloj y batería (a resolución nativa si el director los dibuja aparte)
+     */
+    @Override
+    public void drawUI() {
+        try {
+            if (clock != null) clock.draw();
+        } catch (Exception e) {
+            Log.e(TAG, "⚠️ Error dibujando reloj: " + e.getMessage());
+        }
+
+        try {
+            if (battery != null) battery.draw();
+        } catch (Exception e) {
+            Log.e(TAG, "⚠️ Error dibujando batería: " + e.getMessage());
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // 📐 SCREEN SIZE
     // ═══════════════════════════════════════════════════════════════════════════
@@ -604,6 +619,9 @@ public abstract class BaseVideoScene extends WallpaperScene {
         if (equalizerDJ != null) {
             equalizerDJ.setScreenSize(width, height);
         }
+        if (videoBackground != null) {
+            videoBackground.setScreenSize(width, height);
+        }
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -633,10 +651,16 @@ public abstract class BaseVideoScene extends WallpaperScene {
         videoCheckTimer = 0f;
 
         if (videoBackground != null) {
-            // 🧹 OPTIMIZACIÓN MEMORIA: Liberar Surface/SurfaceTexture/Decoder completamente
-            // Ahorra ~40-60 MB de RAM cuando el wallpaper no es visible
-            videoBackground.releaseForPause();
-            Log.d(TAG, "⏸️🧹 " + getName() + " video LIBERADO (ahorro de memoria)");
+            if (shouldSuspendVideo()) {
+                // 💤 RESUME RÁPIDO: codec suspendido, último frame visible al desbloquear
+                videoBackground.suspend();
+                Log.d(TAG, "⏸️💤 " + getName() + " video SUSPENDIDO (resume rápido)");
+            } else {
+                // 🧹 OPTIMIZACIÓN MEMORIA: Liberar Surface/SurfaceTexture/Decoder completamente
+                // Ahorra ~40-60 MB de RAM cuando el wallpaper no es visible
+                videoBackground.releaseForPause();
+                Log.d(TAG, "⏸️🧹 " + getName() + " video LIBERADO (ahorro de memoria)");
+            }
         }
 
         // Hook para pausar recursos específicos de la subclase (ej: giroscopio)
@@ -649,7 +673,21 @@ public abstract class BaseVideoScene extends WallpaperScene {
         sceneIsActive = true;
         videoCheckTimer = 0f;
 
-        if (videoBackground != null) {
+        // Suspendido por memoria: sigue así hasta que el gobernador lo libere
+        if (!videoSuspendedForMemory) {
+            resumeVideo();
+        }
+
+        // Hook para reanudar recursos específicos de la subclase (ej: giroscopio)
+        onResumeSceneSpecific();
+    }
+
+    private void resumeVideo() {
+        if (videoBackground != null && videoBackground.isSuspended()) {
+            // 💤 Seek corto + start() del codec suspendido
+            videoBackground.resume();
+            Log.d(TAG, "▶️💤 " + getName() + " video REANUDADO desde suspensión");
+        } else if (videoBackground != null) {
             // 🔄 OPTIMIZACIÓN MEMORIA: Recrear recursos de video (reutiliza shader/buffers)
             boolean success = videoBackground.reinitializeAfterPause();
             if (success) {
@@ -659,9 +697,15 @@ public abstract class BaseVideoScene extends WallpaperScene {
                 videoBackground.initialize();
             }
         }
+    }
 
-        // Hook para reanudar recursos específicos de la subclase (ej: giroscopio)
-        onResumeSceneSpecific();
+    /**
+     * Suspender (resume rápido) solo si el dispositivo tiene RAM de sobra
+     * y no hay presión de memoria; si no, liberar todo.
+     */
+    private boolean shouldSuspendVideo() {
+        return DeviceProfile.get().shouldSuspendVideoOnPause()
+                && MemoryGovernor.get().getCurrentLevel() == MemoryPressureLevel.NORMAL;
     }
 
     /**
@@ -747,11 +791,36 @@ public abstract class BaseVideoScene extends WallpaperScene {
     // ADAPTIVE MEMORY SYSTEM
     // ═══════════════════════════════════════════════════════════════════════════
 
+    @Override
+    public void onMemoryPressure(MemoryDegradation degradation) {
+        super.onMemoryPressure(degradation);
+        if (videoBackground == null) return;
+
+        if (degradation.suspendVideo && !videoSuspendedForMemory) {
+            // 💤 Último frame visible, codec y extractor fuera (~40-60 MB)
+            videoSuspendedForMemory = true;
+            videoBackground.suspend();
+            videoBackground.trimSuspended();
+            Log.d(TAG, "⏸️🧠 " + getName() + " video SUSPENDIDO por memoria (" + degradation.name + ")");
+        } else if (!degradation.suspendVideo && videoSuspendedForMemory) {
+            videoSuspendedForMemory = false;
+            if (!isPaused) {
+                resumeVideo();
+            }
+            Log.d(TAG, "▶️🧠 " + getName() + " video restaurado (" + degradation.name + ")");
+        }
+    }
+
     @Override
     public void onMemoryPressure(MemoryPressureLevel level) {
         super.onMemoryPressure(level);
         Log.d(TAG, getName() + " memoria: " + level);
 
+        // 🧹 Un video suspendido retiene codec + buffers: soltarlos ante cualquier presión
+        if (level != MemoryPressureLevel.NORMAL && videoBackground != null) {
+            videoBackground.trimSuspended();
+        }
+
         switch (level) {
             case WARNING:
                 if (equalizerDJ != null) equalizerDJ.setReducedMode(true);
@@ -5,6 +5,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.EqualizerBarsDJ;
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.video.DeathBeamFX;
 import com.secret.blackholeglow.video.Frieza3D;
 import com.secret.blackholeglow.video.FriezaHalo3D;
@@ -173,9 +174,9 @@ public class FriezaDeathBeamScene extends BaseVideoScene {
         GLES20.glClear(GLES20.GL_DEPTH_BUFFER_BIT);
 
         // 3D scene con depth
-        GLES20.glEnable(GLES20.GL_DEPTH_TEST);
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
         if (frieza != null) frieza.draw();
         if (halo != null) halo.draw();
 
@@ -3,19 +3,17 @@ package com.secret.blackholeglow.scenes;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES20;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import com.secret.blackholeglow.Battery3D;
 import com.secret.blackholeglow.Clock3D;
 import com.secret.blackholeglow.EqualizerBarsDJ;
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.gl3.SpriteBatch;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.io.File;
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
 
 /**
  * KenScene - Side-scrolling pixel art fighter with parallax background.
@@ -29,26 +27,14 @@ import java.nio.FloatBuffer;
  * - Walk phase 1 (0-4s): walk cycle + scroll
  * - Hadouken (4-5.5s): hadouken animation + scroll paused
  * - Walk phase 2 (5.5-8s): walk cycle + scroll
+ *
+ * All layers go through the shared SpriteBatch: background, floor, ghosts,
+ * Ken and the projectile are one flush (1 draw call, 4 texture slots).
+ * UV scroll and calibration transforms are baked into the quads on the CPU.
  */
 public class KenScene extends WallpaperScene {
     private static final String TAG = "KenScene";
 
-    // ═══════════════════════════════════════════════════════════════
-    // SHADERS
-    // ═══════════════════════════════════════════════════════════════
-    private int scrollProgram;   // background & floor (UV scroll + repeat)
-    private int spriteProgram;   // character (sprite sheet + alpha clip)
-
-    // Scroll shader locations
-    private int scrollPosLoc, scrollUVLoc, scrollTexLoc, scrollOffsetLoc;
-    private int scrollCalPosLoc, scrollCalScaleLoc;
-
-    // Sprite shader locations
-    private int spritePosLoc, spriteUVLoc, spriteTexLoc;
-    private int spriteFrameOffsetLoc, spriteFrameSizeLoc;
-    private int spriteCalPosLoc, spriteCalScaleLoc;
-    private int spriteTintLoc, spriteAlphaLoc;
-
     // ═══════════════════════════════════════════════════════════════
     // TEXTURES
     // ═══════════════════════════════════════════════════════════════
@@ -59,11 +45,15 @@ public class KenScene extends WallpaperScene {
     private int projectileTextureId = -1;
 
     // ═══════════════════════════════════════════════════════════════
-    // QUAD BUFFERS
+    // QUADS (NDC, before calibration transform)
     // ═══════════════════════════════════════════════════════════════
-    private FloatBuffer bgVertBuf, bgUVBuf;
-    private FloatBuffer floorVertBuf, floorUVBuf;
-    private FloatBuffer charVertBuf, charUVBuf;
+    private static final int LAYER_BG = 0;
+    private static final int LAYER_FLOOR = 1;
+    private static final int LAYER_CHARACTER = 2;
+    private static final int LAYER_PROJECTILE = 3;
+
+    private static final float FLOOR_UV_REPEAT = 4f;  // 4x repeat horizontally
+    private float charLeft, charBottom, charRight, charTop;
 
     // ═══════════════════════════════════════════════════════════════
     // ANIMATION
@@ -103,8 +93,6 @@ public class KenScene extends WallpaperScene {
     private boolean projectileActive = false;
     private float projectileX = 0f;   // current X position in NDC
     private float projectileY = 0f;   // Y position (Ken's hands height)
-    private FloatBuffer projectileVertBuf;
-    private FloatBuffer projectileUVBuf;
 
     // ═══════════════════════════════════════════════════════════════
     // UI
@@ -170,132 +158,26 @@ public class KenScene extends WallpaperScene {
     protected void setupScene() {
         Log.d(TAG, "Setting up Ken scene...");
 
-        createScrollShader();
-        createSpriteShader();
-        createQuadBuffers();
+        createQuads();
         loadTextures();
         setupUI();
 
         Log.d(TAG, "Ken scene ready!");
     }
 
-    // --- Scroll shader: UV horizontal scroll with texture repeat ---
-    private void createScrollShader() {
-        String vs =
-            "attribute vec2 aPosition;\n" +
-            "attribute vec2 aTexCoord;\n" +
-            "uniform vec2 uCalPos;\n" +
-            "uniform float uCalScale;\n" +
-            "varying vec2 vUV;\n" +
-            "void main() {\n" +
-            "    vec2 pos = aPosition * uCalScale + uCalPos;\n" +
-            "    gl_Position = vec4(pos, 0.0, 1.0);\n" +
-            "    vUV = aTexCoord;\n" +
-            "}\n";
-
-        String fs =
-            "precision mediump float;\n" +
-            "uniform sampler2D uTexture;\n" +
-            "uniform float uScrollOffset;\n" +
-            "varying vec2 vUV;\n" +
-            "void main() {\n" +
-            "    vec2 uv = vUV;\n" +
-            "    uv.x = uv.x + uScrollOffset;\n" +
-            "    gl_FragColor = texture2D(uTexture, uv);\n" +
-            "}\n";
-
-        scrollProgram = buildProgram(vs, fs);
-        scrollPosLoc = GLES20.glGetAttribLocation(scrollProgram, "aPosition");
-        scrollUVLoc = GLES20.glGetAttribLocation(scrollProgram, "aTexCoord");
-        scrollTexLoc = GLES20.glGetUniformLocation(scrollProgram, "uTexture");
-        scrollOffsetLoc = GLES20.glGetUniformLocation(scrollProgram, "uScrollOffset");
-        scrollCalPosLoc = GLES20.glGetUniformLocation(scrollProgram, "uCalPos");
-        scrollCalScaleLoc = GLES20.glGetUniformLocation(scrollProgram, "uCalScale");
-    }
-
-    // --- Sprite shader: sprite sheet with alpha clip ---
-    private void createSpriteShader() {
-        String vs =
-            "attribute vec2 aPosition;\n" +
-            "attribute vec2 aTexCoord;\n" +
-            "uniform vec2 uCalPos;\n" +
-            "uniform float uCalScale;\n" +
-            "varying vec2 vUV;\n" +
-            "void main() {\n" +
-            "    vec2 pos = aPosition * uCalScale + uCalPos;\n" +
-            "    gl_Position = vec4(pos, 0.0, 1.0);\n" +
-            "    vUV = aTexCoord;\n" +
-            "}\n";
-
-        String fs =
-            "precision mediump float;\n" +
-            "uniform sampler2D uTexture;\n" +
-            "uniform vec2 uFrameOffset;\n" +
-            "uniform vec2 uFrameSize;\n" +
-            "uniform vec3 uTint;\n" +
-            "uniform float uAlpha;\n" +
-            "varying vec2 vUV;\n" +
-            "void main() {\n" +
-            "    vec2 uv = vUV * uFrameSize + uFrameOffset;\n" +
-            "    vec4 color = texture2D(uTexture, uv);\n" +
-            "    if (color.a < 0.3) discard;\n" +
-            "    color.rgb = mix(color.rgb, uTint, step(0.01, uTint.r + uTint.g + uTint.b));\n" +
-            "    color.a *= uAlpha;\n" +
-            "    gl_FragColor = color;\n" +
-            "}\n";
-
-        spriteProgram = buildProgram(vs, fs);
-        spritePosLoc = GLES20.glGetAttribLocation(spriteProgram, "aPosition");
-        spriteUVLoc = GLES20.glGetAttribLocation(spriteProgram, "aTexCoord");
-        spriteTexLoc = GLES20.glGetUniformLocation(spriteProgram, "uTexture");
-        spriteFrameOffsetLoc = GLES20.glGetUniformLocation(spriteProgram, "uFrameOffset");
-        spriteFrameSizeLoc = GLES20.glGetUniformLocation(spriteProgram, "uFrameSize");
-        spriteCalPosLoc = GLES20.glGetUniformLocation(spriteProgram, "uCalPos");
-        spriteCalScaleLoc = GLES20.glGetUniformLocation(spriteProgram, "uCalScale");
-        spriteTintLoc = GLES20.glGetUniformLocation(spriteProgram, "uTint");
-        spriteAlphaLoc = GLES20.glGetUniformLocation(spriteProgram, "uAlpha");
-    }
-
-    // --- Quad buffers ---
-    private void createQuadBuffers() {
+    // --- Quads ---
+    private void createQuads() {
         // Background: full screen, UV fills vertically (cover mode)
-        bgVertBuf = makeFloatBuffer(new float[]{
-            -1f, -1f,  1f, -1f,  -1f, 1f,  1f, 1f
-        });
         rebuildBgUV();
 
-        // Floor: bottom strip
-        floorVertBuf = makeFloatBuffer(new float[]{
-            -1f, -1f,  1f, -1f,  -1f, FLOOR_TOP,  1f, FLOOR_TOP
-        });
-        floorUVBuf = makeFloatBuffer(new float[]{
-            0f, 1f,  4f, 1f,  0f, 0f,  4f, 0f  // 4x repeat horizontally
-        });
-
         // Character: positioned above floor, centered
         float charAspect = 384f / 224f;  // frame aspect ratio
         float screenAspect = (float) screenWidth / screenHeight;
         float charW = CHAR_HEIGHT * charAspect / (screenAspect > 0 ? screenAspect * (16f / 9f) : 1f);
-        float charBottom = FLOOR_TOP - CHAR_HEIGHT * 0.55f;
-        float charTop = charBottom + CHAR_HEIGHT;
-        float charLeft = -charW * 0.5f;
-        float charRight = charW * 0.5f;
-
-        charVertBuf = makeFloatBuffer(new float[]{
-            charLeft, charBottom,  charRight, charBottom,
-            charLeft, charTop,     charRight, charTop
-        });
-        charUVBuf = makeFloatBuffer(new float[]{
-            0f, 1f,  1f, 1f,  0f, 0f,  1f, 0f
-        });
-
-        // Projectile: pre-allocate vertex buffer (updated each frame) + UV (static)
-        projectileVertBuf = makeFloatBuffer(new float[]{
-            0f, 0f,  0f, 0f,  0f, 0f,  0f, 0f  // placeholder, updated in drawProjectile
-        });
-        projectileUVBuf = makeFloatBuffer(new float[]{
-            0f, 1f,  1f, 1f,  0f, 0f,  1f, 0f
-        });
+        charBottom = FLOOR_TOP - CHAR_HEIGHT * 0.55f;
+        charTop = charBottom + CHAR_HEIGHT;
+        charLeft = -charW * 0.5f;
+        charRight = charW * 0.5f;
     }
 
     // --- Load textures from Supabase ---
@@ -343,13 +225,13 @@ public class KenScene extends WallpaperScene {
             GLES20.glGenTextures(1, texIds, 0);
             int texId = texIds[0];
 
-            GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texId);
+            GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, texId);
             GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
             GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_NEAREST);
             GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, wrapS);
             GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
 
-            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bmp, 0);
+            GLStateManager.get().texImage2D(GLES20.GL_TEXTURE_2D, 0, bmp, 0);
             bmp.recycle();
 
             return texId;
@@ -448,64 +330,61 @@ public class KenScene extends WallpaperScene {
         // Clear
         GLES20.glClearColor(0.02f, 0.02f, 0.08f, 1.0f);
         GLES20.glClear(GLES20.GL_COLOR_BUFFER_BIT | GLES20.GL_DEPTH_BUFFER_BIT);
-        GLES20.glDisable(GLES20.GL_DEPTH_TEST);
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().disable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
 
         // BG scrolls continuously to the left
         float bgOffset = scrollAccum * BG_SCROLL_SPEED + calBgOffX;
         float floorOffset = scrollAccum * FLOOR_SCROLL_SPEED;
 
-        // 1. Draw background (calBgOffY shifts quad, calBgScale scales quad)
-        drawScrollQuad(bgTextureId, bgVertBuf, bgUVBuf, bgOffset,
+        SpriteBatch batch = SpriteBatch.get();
+        batch.begin();
+
+        // 1. Background (calBgOffY shifts quad, calBgScale scales quad)
+        batch.setLayer(LAYER_BG);
+        addScrollQuad(batch, bgTextureId, -1f, -1f, 1f, 1f, bgOffset, bgUVWidth,
             0f, calBgOffY, calBgScale);
 
-        // 2. Draw floor
-        drawScrollQuad(floorTextureId, floorVertBuf, floorUVBuf, floorOffset,
+        // 2. Floor
+        batch.setLayer(LAYER_FLOOR);
+        addScrollQuad(batch, floorTextureId, -1f, -1f, 1f, FLOOR_TOP, floorOffset, FLOOR_UV_REPEAT,
             0f, calFloorOffY, calFloorScaleY);
 
-        // 3. Draw character
-        drawCharacter();
+        // 3. Character
+        batch.setLayer(LAYER_CHARACTER);
+        addCharacter(batch);
 
-        // 4. Draw projectile
+        // 4. Projectile
         if (projectileActive) {
-            drawProjectile();
+            batch.setLayer(LAYER_PROJECTILE);
+            addProjectile(batch);
         }
 
+        batch.end();
+
         // 5. Draw UI
-        GLES20.glEnable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES20.GL_DEPTH_TEST);
         if (equalizerDJ != null) equalizerDJ.draw();
-        if (clock != null) clock.draw();
-        if (battery != null) battery.draw();
+        if (!uiDeferred) drawUI();
 
         super.draw();
     }
 
-    private void drawScrollQuad(int texId, FloatBuffer verts, FloatBuffer uvs, float offset,
-                                float calX, float calY, float calScale) {
-        if (texId <= 0 || scrollProgram <= 0) return;
-
-        GLES20.glUseProgram(scrollProgram);
-
-        GLES20.glUniform2f(scrollCalPosLoc, calX, calY);
-        GLES20.glUniform1f(scrollCalScaleLoc, calScale);
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texId);
-        GLES20.glUniform1i(scrollTexLoc, 0);
-        GLES20.glUniform1f(scrollOffsetLoc, offset);
-
-        verts.position(0);
-        GLES20.glEnableVertexAttribArray(scrollPosLoc);
-        GLES20.glVertexAttribPointer(scrollPosLoc, 2, GLES20.GL_FLOAT, false, 0, verts);
-
-        uvs.position(0);
-        GLES20.glEnableVertexAttribArray(scrollUVLoc);
-        GLES20.glVertexAttribPointer(scrollUVLoc, 2, GLES20.GL_FLOAT, false, 0, uvs);
-
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+    @Override
+    public void drawUI() {
+        if (clock != null) clock.draw();
+        if (battery != null) battery.draw();
+    }
 
-        GLES20.glDisableVertexAttribArray(scrollPosLoc);
-        GLES20.glDisableVertexAttribArray(scrollUVLoc);
+    /** Scrolling layer: quad * calScale + calPos, UV window [offset, offset + uvWidth] */
+    private void addScrollQuad(SpriteBatch batch, int texId, float left, float bottom, float right, float top,
+                               float offset, float uvWidth, float calX, float calY, float calScale) {
+        if (texId <= 0) return;
+        batch.drawQuad(texId,
+            left * calScale + calX, bottom * calScale + calY,
+            right * calScale + calX, top * calScale + calY,
+            offset, 0f, offset + uvWidth, 1f);
     }
 
     // Afterimage ghost tints (dark blue → blue → purple) and alphas
@@ -518,9 +397,7 @@ public class KenScene extends WallpaperScene {
     private static final float[] GHOST_OFFSETS_X = {-0.09f, -0.06f, -0.03f};  // NDC offset behind Ken
 
 
-    private void drawCharacter() {
-        if (spriteProgram <= 0) return;
-
+    private void addCharacter(SpriteBatch batch) {
         boolean isHadouken = loopTime >= HADOUKEN_START && loopTime < HADOUKEN_END;
         int texId;
         int frameIndex;
@@ -539,93 +416,45 @@ public class KenScene extends WallpaperScene {
 
         float frameU = (frameIndex % SPRITE_COLS) / (float) SPRITE_COLS;
         float frameV = (frameIndex / SPRITE_COLS) / (float) SPRITE_ROWS;
-        float frameSizeU = 1f / SPRITE_COLS;
-        float frameSizeV = 1f / SPRITE_ROWS;
-
-        GLES20.glUseProgram(spriteProgram);
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, texId);
-        GLES20.glUniform1i(spriteTexLoc, 0);
-        GLES20.glUniform2f(spriteFrameOffsetLoc, frameU, frameV);
-        GLES20.glUniform2f(spriteFrameSizeLoc, frameSizeU, frameSizeV);
-
-        charVertBuf.position(0);
-        GLES20.glEnableVertexAttribArray(spritePosLoc);
-        GLES20.glVertexAttribPointer(spritePosLoc, 2, GLES20.GL_FLOAT, false, 0, charVertBuf);
-        charUVBuf.position(0);
-        GLES20.glEnableVertexAttribArray(spriteUVLoc);
-        GLES20.glVertexAttribPointer(spriteUVLoc, 2, GLES20.GL_FLOAT, false, 0, charUVBuf);
-
-        // Draw afterimage ghosts during hadouken
+        float frameU1 = frameU + 1f / SPRITE_COLS;
+        float frameV1 = frameV + 1f / SPRITE_ROWS;
+
+        float s = calKenScale;
+        float bottom = charBottom * s + calKenOffY;
+        float top = charTop * s + calKenOffY;
+        batch.setAlphaClip(0.3f);
+
+        // Afterimage ghosts during hadouken (same layer: submission order is kept)
         if (isHadouken) {
             for (int i = 0; i < GHOST_TINTS.length; i++) {
-                GLES20.glUniform2f(spriteCalPosLoc, calKenOffX + GHOST_OFFSETS_X[i], calKenOffY);
-                GLES20.glUniform1f(spriteCalScaleLoc, calKenScale);
-                GLES20.glUniform3f(spriteTintLoc, GHOST_TINTS[i][0], GHOST_TINTS[i][1], GHOST_TINTS[i][2]);
-                GLES20.glUniform1f(spriteAlphaLoc, GHOST_ALPHAS[i]);
-                GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+                float x = calKenOffX + GHOST_OFFSETS_X[i];
+                batch.setTint(GHOST_TINTS[i][0], GHOST_TINTS[i][1], GHOST_TINTS[i][2], 1f);
+                batch.setColor(1f, 1f, 1f, GHOST_ALPHAS[i]);
+                batch.drawQuad(texId, charLeft * s + x, bottom, charRight * s + x, top,
+                    frameU, frameV, frameU1, frameV1);
             }
         }
 
-        // Draw Ken (no tint, full alpha)
-        GLES20.glUniform2f(spriteCalPosLoc, calKenOffX, calKenOffY);
-        GLES20.glUniform1f(spriteCalScaleLoc, calKenScale);
-        GLES20.glUniform3f(spriteTintLoc, 0f, 0f, 0f);
-        GLES20.glUniform1f(spriteAlphaLoc, 1f);
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
-
-        GLES20.glDisableVertexAttribArray(spritePosLoc);
-        GLES20.glDisableVertexAttribArray(spriteUVLoc);
+        // Ken (no tint, full alpha)
+        batch.setTint(0f, 0f, 0f, 0f);
+        batch.setColor(1f, 1f, 1f, 1f);
+        batch.drawQuad(texId, charLeft * s + calKenOffX, bottom, charRight * s + calKenOffX, top,
+            frameU, frameV, frameU1, frameV1);
     }
 
     /**
-     * Draws the hadouken projectile as a simple textured quad.
-     * Uses the sprite shader with full-frame UV (no sprite sheet).
+     * Adds the hadouken projectile as a full-frame textured quad (already in NDC).
      */
-    private void drawProjectile() {
-        if (projectileTextureId <= 0 || spriteProgram <= 0) return;
+    private void addProjectile(SpriteBatch batch) {
+        if (projectileTextureId <= 0) return;
 
-        // Build quad at current projectile position
         float aspect = 600f / 342f;  // image aspect ratio
-        float h = PROJECTILE_HEIGHT;
-        float w = h * aspect * ((float) screenHeight / Math.max(screenWidth, 1));
-
-        float left = projectileX - w * 0.5f;
-        float right = projectileX + w * 0.5f;
-        float bottom = projectileY - h * 0.5f;
-        float top = projectileY + h * 0.5f;
-
-        projectileVertBuf.clear();
-        projectileVertBuf.put(new float[]{
-            left, bottom,  right, bottom,  left, top,  right, top
-        });
-
-        GLES20.glUseProgram(spriteProgram);
-
-        // No calibration offset — position already in NDC
-        GLES20.glUniform2f(spriteCalPosLoc, 0f, 0f);
-        GLES20.glUniform1f(spriteCalScaleLoc, 1f);
-        GLES20.glUniform3f(spriteTintLoc, 0f, 0f, 0f);
-        GLES20.glUniform1f(spriteAlphaLoc, 1f);
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, projectileTextureId);
-        GLES20.glUniform1i(spriteTexLoc, 0);
-        // Full image — offset 0,0, size 1,1
-        GLES20.glUniform2f(spriteFrameOffsetLoc, 0f, 0f);
-        GLES20.glUniform2f(spriteFrameSizeLoc, 1f, 1f);
-
-        projectileVertBuf.position(0);
-        GLES20.glEnableVertexAttribArray(spritePosLoc);
-        GLES20.glVertexAttribPointer(spritePosLoc, 2, GLES20.GL_FLOAT, false, 0, projectileVertBuf);
-
-        projectileUVBuf.position(0);
-        GLES20.glEnableVertexAttribArray(spriteUVLoc);
-        GLES20.glVertexAttribPointer(spriteUVLoc, 2, GLES20.GL_FLOAT, false, 0, projectileUVBuf);
-
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
-
-        GLES20.glDisableVertexAttribArray(spritePosLoc);
-        GLES20.glDisableVertexAttribArray(spriteUVLoc);
+        float halfH = PROJECTILE_HEIGHT * 0.5f;
+        float halfW = halfH * aspect * ((float) screenHeight / Math.max(screenWidth, 1));
+
+        batch.setAlphaClip(0.3f);
+        batch.drawSprite(projectileTextureId, projectileX, projectileY, halfW, halfH, 0f,
+            0f, 0f, 1f, 1f);
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -652,9 +481,6 @@ public class KenScene extends WallpaperScene {
             (float) screenWidth / screenHeight : 9f / 16f;
         // UV width = screen aspect / image aspect → ~0.32 for 9:16 on 16:9 image
         bgUVWidth = screenAspect / BG_IMAGE_ASPECT;
-        bgUVBuf = makeFloatBuffer(new float[]{
-            0f, 1f,  bgUVWidth, 1f,  0f, 0f,  bgUVWidth, 0f
-        });
     }
 
     private void rebuildCharQuad() {
@@ -663,15 +489,10 @@ public class KenScene extends WallpaperScene {
         // Character should be about 40% of screen height
         // Width = height * spriteAspect * (screenHeight/screenWidth) in NDC
         float charW = CHAR_HEIGHT * spriteAspect * (1f / screenAspect);
-        float charBottom = FLOOR_TOP - CHAR_HEIGHT * 0.5f;
-        float charTop = charBottom + CHAR_HEIGHT;
-        float charLeft = -charW * 0.5f;
-        float charRight = charW * 0.5f;
-
-        charVertBuf = makeFloatBuffer(new float[]{
-            charLeft, charBottom,  charRight, charBottom,
-            charLeft, charTop,     charRight, charTop
-        });
+        charBottom = FLOOR_TOP - CHAR_HEIGHT * 0.5f;
+        charTop = charBottom + CHAR_HEIGHT;
+        charLeft = -charW * 0.5f;
+        charRight = charW * 0.5f;
     }
 
     @Override
@@ -753,14 +574,10 @@ public class KenScene extends WallpaperScene {
         // Delete textures
         int[] texIds = { bgTextureId, floorTextureId, walkTextureId, hadoukenTextureId, projectileTextureId };
         for (int id : texIds) {
-            if (id > 0) GLES20.glDeleteTextures(1, new int[]{id}, 0);
+            if (id > 0) GLStateManager.get().deleteTextures(1, new int[]{id}, 0);
         }
         bgTextureId = floorTextureId = walkTextureId = hadoukenTextureId = projectileTextureId = -1;
 
-        // Delete shaders
-        if (scrollProgram > 0) { GLES20.glDeleteProgram(scrollProgram); scrollProgram = 0; }
-        if (spriteProgram > 0) { GLES20.glDeleteProgram(spriteProgram); spriteProgram = 0; }
-
         // Release UI
         if (equalizerDJ != null) { equalizerDJ.release(); equalizerDJ = null; }
         if (clock != null) { clock.dispose(); clock = null; }
@@ -768,52 +585,4 @@ public class KenScene extends WallpaperScene {
 
         Log.d(TAG, "Ken scene resources released");
     }
-
-    // ═══════════════════════════════════════════════════════════════
-    // UTILITIES
-    // ═══════════════════════════════════════════════════════════════
-
-    private FloatBuffer makeFloatBuffer(float[] data) {
-        FloatBuffer buf = ByteBuffer.allocateDirect(data.length * 4)
-            .order(ByteOrder.nativeOrder())
-            .asFloatBuffer();
-        buf.put(data).position(0);
-        return buf;
-    }
-
-    private int buildProgram(String vertexSrc, String fragmentSrc) {
-        int vs = compileShader(GLES20.GL_VERTEX_SHADER, vertexSrc);
-        int fs = compileShader(GLES20.GL_FRAGMENT_SHADER, fragmentSrc);
-        if (vs == 0 || fs == 0) return 0;
-
-        int prog = GLES20.glCreateProgram();
-        GLES20.glAttachShader(prog, vs);
-        GLES20.glAttachShader(prog, fs);
-        GLES20.glLinkProgram(prog);
-
-        int[] linked = new int[1];
-        GLES20.glGetProgramiv(prog, GLES20.GL_LINK_STATUS, linked, 0);
-        if (linked[0] == 0) {
-            Log.e(TAG, "Program link error: " + GLES20.glGetProgramInfoLog(prog));
-            GLES20.glDeleteProgram(prog);
-            return 0;
-        }
-        GLES20.glDeleteShader(vs);
-        GLES20.glDeleteShader(fs);
-        return prog;
-    }
-
-    private int compileShader(int type, String source) {
-        int s = GLES20.glCreateShader(type);
-        GLES20.glShaderSource(s, source);
-        GLES20.glCompileShader(s);
-        int[] compiled = new int[1];
-        GLES20.glGetShaderiv(s, GLES20.GL_COMPILE_STATUS, compiled, 0);
-        if (compiled[0] == 0) {
-            Log.e(TAG, "Shader compile error: " + GLES20.glGetShaderInfoLog(s));
-            GLES20.glDeleteShader(s);
-            return 0;
-        }
-        return s;
-    }
 }
@@ -5,6 +5,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.EqualizerBarsDJ;
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.video.BlackCat3D;
 import com.secret.blackholeglow.video.BrickWall3D;
 import com.secret.blackholeglow.video.BuildingsSilhouette2D;
@@ -261,7 +262,7 @@ public class MoonlitCatScene extends BaseVideoScene {
     protected void drawSceneSpecific() {
         // 1. Night sky (fullscreen shader - replaces video background)
         //    Draw WITHOUT depth test (fullscreen quad covers everything)
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
         if (nightSky != null) {
             nightSky.draw();
         }
@@ -273,9 +274,9 @@ public class MoonlitCatScene extends BaseVideoScene {
         }
 
         // 3. 3D models ON TOP of buildings, WITH depth test
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         if (wall != null) wall.draw();
         if (cat != null) cat.draw();
@@ -5,6 +5,7 @@ import android.util.Log;
 
 import com.secret.blackholeglow.EqualizerBarsDJ;
 import com.secret.blackholeglow.R;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.video.AbyssalLurker3D;
 import com.secret.blackholeglow.video.AbyssalLeviathan3D;
 import com.secret.blackholeglow.video.BubbleSystem;
@@ -271,7 +272,7 @@ public class OceanFloorScene extends BaseVideoScene {
         if (abyssalLurker != null) abyssalLurker.draw();        // Pequeño, frente
 
         // Deshabilitar depth test para burbujas (son 2D)
-        GLES20.glDisable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES20.GL_DEPTH_TEST);
 
         // 🫧 Burbujas
         if (bubbleSystem != null && screenHeight > 0) {
@@ -3,7 +3,6 @@ package com.secret.blackholeglow.scenes;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
@@ -11,7 +10,9 @@ import com.secret.blackholeglow.R;
 import com.secret.blackholeglow.Battery3D;
 import com.secret.blackholeglow.Clock3D;
 import com.secret.blackholeglow.EqualizerBarsDJ;
+import com.secret.blackholeglow.gl3.SpriteBatch;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -125,12 +126,7 @@ public class SaintSeiyaScene extends WallpaperScene {
     private float[] particleVY = new float[MAX_PARTICLES];
     private float[] particleLife = new float[MAX_PARTICLES];  // 0-1, cuando llega a 0 muere
     private float[] particleSize = new float[MAX_PARTICLES];
-    private int particleShader = -1;
-    private int particlePosLoc, particleColorLoc, particlePointSizeLoc;
-    // 🔧 FIX GC: Pre-allocated buffers for particle drawing (was allocating ~900 ByteBuffers/sec)
-    private final float[] particlePos = new float[2];
-    private final java.nio.FloatBuffer particleFB = java.nio.ByteBuffer.allocateDirect(8)
-            .order(java.nio.ByteOrder.nativeOrder()).asFloatBuffer();
+    // Se dibujan con el SpriteBatch compartido (punto suave integrado, 1 draw call)
     private java.util.Random random = new java.util.Random();
 
     @Override
@@ -425,37 +421,6 @@ public class SaintSeiyaScene extends WallpaperScene {
         fist2PosLoc = GLES30.glGetUniformLocation(meshShaderProgram, "uFist2Pos");
 
         Log.d(TAG, "✅ Shader 3D con DOS PUÑOS compilado (PODER + COSMOS)");
-
-        // ═══════════════════════════════════════════════════════════════════════
-        // ✨ SHADER DE PARTÍCULAS - Ultra simple
-        // ═══════════════════════════════════════════════════════════════════════
-        String particleVS =
-            "#version 300 es\n" +
-            "in vec2 aPosition;\n" +
-            "uniform float uPointSize;\n" +
-            "void main() {\n" +
-            "    gl_Position = vec4(aPosition, 0.0, 1.0);\n" +
-            "    gl_PointSize = uPointSize;\n" +
-            "}\n";
-
-        String particleFS =
-            "#version 300 es\n" +
-            "precision mediump float;\n" +
-            "uniform vec4 uColor;\n" +
-            "out vec4 fragColor;\n" +
-            "void main() {\n" +
-            "    vec2 center = gl_PointCoord - vec2(0.5);\n" +
-            "    float dist = length(center);\n" +
-            "    float alpha = smoothstep(0.5, 0.2, dist) * uColor.a;\n" +
-            "    fragColor = vec4(uColor.rgb, alpha);\n" +
-            "}\n";
-
-        particleShader = createProgram(particleVS, particleFS);
-        particlePosLoc = GLES30.glGetAttribLocation(particleShader, "aPosition");
-        particleColorLoc = GLES30.glGetUniformLocation(particleShader, "uColor");
-        particlePointSizeLoc = GLES30.glGetUniformLocation(particleShader, "uPointSize");
-
-        Log.d(TAG, "✅ Shader de partículas compilado");
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -463,7 +428,9 @@ public class SaintSeiyaScene extends WallpaperScene {
     // ═══════════════════════════════════════════════════════════════════════
 
     private void spawnParticles(float x, float y, int count) {
-        for (int i = 0; i < MAX_PARTICLES && count > 0; i++) {
+        // Bajo presión de memoria solo se usan los primeros slots (etapa del MemoryGovernor)
+        int limit = currentDegradation.scaleParticles(MAX_PARTICLES);
+        for (int i = 0; i < limit && count > 0; i++) {
             if (particleLife[i] <= 0) {
                 // Posición inicial (convertir UV a coordenadas normalizadas -1 a 1)
                 particleX[i] = x * 2f - 1f;
@@ -502,35 +469,26 @@ public class SaintSeiyaScene extends WallpaperScene {
     }
 
     private void drawParticles() {
-        if (particleShader <= 0) return;
-
-        GLES30.glUseProgram(particleShader);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);  // Additive
+        SpriteBatch batch = SpriteBatch.get();
+        int dot = batch.getSoftDotTexture();
 
-        GLES30.glEnableVertexAttribArray(particlePosLoc);
+        // Tamaño en píxeles → semi-extensión en NDC
+        float pxToNdcX = 1f / Math.max(1, screenWidth);
+        float pxToNdcY = 1f / Math.max(1, screenHeight);
 
+        batch.begin();
+        batch.setBlend(SpriteBatch.BLEND_ADDITIVE);
         for (int i = 0; i < MAX_PARTICLES; i++) {
             if (particleLife[i] > 0) {
-                particlePos[0] = particleX[i];
-                particlePos[1] = particleY[i];
-
                 // Color cyan brillante con fade
                 float alpha = particleLife[i];
-                GLES30.glUniform4f(particleColorLoc, 0.5f, 0.8f, 1.0f, alpha);
-                GLES30.glUniform1f(particlePointSizeLoc, particleSize[i] * alpha);
-
-                // 🔧 Reuse pre-allocated FloatBuffer (was: new ByteBuffer.allocateDirect per particle per frame)
-                particleFB.clear();
-                particleFB.put(particlePos).position(0);
-
-                GLES30.glVertexAttribPointer(particlePosLoc, 2, GLES30.GL_FLOAT, false, 0, particleFB);
-                GLES30.glDrawArrays(GLES30.GL_POINTS, 0, 1);
+                float size = particleSize[i] * alpha;
+                batch.setColor(0.5f, 0.8f, 1.0f, alpha);
+                batch.drawSprite(dot, particleX[i], particleY[i],
+                        size * pxToNdcX, size * pxToNdcY, 0f, 0f, 0f, 1f, 1f);
             }
         }
-
-        GLES30.glDisableVertexAttribArray(particlePosLoc);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        batch.end();
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -566,12 +524,12 @@ public class SaintSeiyaScene extends WallpaperScene {
                 GLES30.glGenTextures(1, textures, 0);
                 int texId = textures[0];
 
-                GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texId);
+                GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texId);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-                GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+                GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
 
                 Log.d(TAG, "📥 " + file.getName() + " (" + bitmap.getWidth() + "x" + bitmap.getHeight() + ")");
                 bitmap.recycle();
@@ -605,13 +563,12 @@ public class SaintSeiyaScene extends WallpaperScene {
 
     @Override
     protected void releaseSceneResources() {
-        if (texBackground > 0) GLES30.glDeleteTextures(1, new int[]{texBackground}, 0);
-        if (texBackgroundDepth > 0) GLES30.glDeleteTextures(1, new int[]{texBackgroundDepth}, 0);
-        if (texSeiya > 0) GLES30.glDeleteTextures(1, new int[]{texSeiya}, 0);
-        if (texSeiyaDepth > 0) GLES30.glDeleteTextures(1, new int[]{texSeiyaDepth}, 0);
+        if (texBackground > 0) GLStateManager.get().deleteTextures(1, new int[]{texBackground}, 0);
+        if (texBackgroundDepth > 0) GLStateManager.get().deleteTextures(1, new int[]{texBackgroundDepth}, 0);
+        if (texSeiya > 0) GLStateManager.get().deleteTextures(1, new int[]{texSeiya}, 0);
+        if (texSeiyaDepth > 0) GLStateManager.get().deleteTextures(1, new int[]{texSeiyaDepth}, 0);
 
-        if (meshShaderProgram > 0) GLES30.glDeleteProgram(meshShaderProgram);
-        if (particleShader > 0) GLES30.glDeleteProgram(particleShader);
+        if (meshShaderProgram > 0) GLStateManager.get().deleteProgram(meshShaderProgram);
 
         if (clock != null) clock.dispose();
         if (battery != null) battery.dispose();
@@ -664,13 +621,13 @@ public class SaintSeiyaScene extends WallpaperScene {
         if (isDisposed) return;
 
         GLES30.glClear(GLES30.GL_COLOR_BUFFER_BIT | GLES30.GL_DEPTH_BUFFER_BIT);
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDisable(GLES30.GL_CULL_FACE);
+        GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_CULL_FACE);
 
         // ═══════════════════════════════════════════════════════════════
         // CAPA 1: FONDO 3D (sin aura)
         // ═══════════════════════════════════════════════════════════════
-        GLES30.glDisable(GLES30.GL_BLEND);
+        GLStateManager.get().disable(GLES30.GL_BLEND);
         drawLayerWithAngles(texBackground, texBackgroundDepth,
                   BG_CAMERA_DISTANCE, BG_DEPTH_STRENGTH, bgAngleX, bgAngleY,
                   BG_SCALE, BG_HEAT_DISTORTION, 0.0f, 0.0f);  // Sin aura, sin puño
@@ -678,8 +635,8 @@ public class SaintSeiyaScene extends WallpaperScene {
         // ═══════════════════════════════════════════════════════════════
         // CAPA 2: SEIYA 3D (con AURA DE COSMOS!)
         // ═══════════════════════════════════════════════════════════════
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
         GLES30.glClear(GLES30.GL_DEPTH_BUFFER_BIT);
         drawLayerWithAngles(texSeiya, texSeiyaDepth,
                   SEIYA_CAMERA_DISTANCE, SEIYA_DEPTH_STRENGTH, cameraAngleX, cameraAngleY,
@@ -688,10 +645,9 @@ public class SaintSeiyaScene extends WallpaperScene {
         // ═══════════════════════════════════════════════════════════════
         // UI Elements
         // ═══════════════════════════════════════════════════════════════
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
         if (equalizerDJ != null) equalizerDJ.draw();
-        if (clock != null) clock.draw();
-        if (battery != null) battery.draw();
+        if (!uiDeferred) drawUI();
 
         // ✨ Partículas mágicas (encima de todo)
         drawParticles();
@@ -699,13 +655,19 @@ public class SaintSeiyaScene extends WallpaperScene {
         super.draw();
     }
 
+    @Override
+    public void drawUI() {
+        if (clock != null) clock.draw();
+        if (battery != null) battery.draw();
+    }
+
     private void drawLayerWithAngles(int texImage, int texDepth,
                           float cameraDistance, float depthStrength,
                           float angleX, float angleY,
                           float scale, float heatDistortion, float cosmosAura, float fistPower) {
         if (texImage <= 0 || meshShaderProgram <= 0) return;
 
-        GLES30.glUseProgram(meshShaderProgram);
+        GLStateManager.get().useProgram(meshShaderProgram);
 
         // Calcular MVP con parámetros específicos de esta capa
         float aspect = (float) screenWidth / screenHeight;
@@ -740,12 +702,12 @@ public class SaintSeiyaScene extends WallpaperScene {
         GLES30.glUniform2f(fist2PosLoc, fist2X, fist2Y);   // Puño COSMOS (aura)
 
         // Texturas
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texImage);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texImage);
         GLES30.glUniform1i(imageLoc, 0);
 
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE1);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texDepth > 0 ? texDepth : texImage);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE1);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texDepth > 0 ? texDepth : texImage);
         GLES30.glUniform1i(depthLoc, 1);
 
         // Dibujar mesh
@@ -758,7 +720,7 @@ public class SaintSeiyaScene extends WallpaperScene {
         GLES30.glVertexAttribPointer(texCoordLoc, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
 
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, INDEX_COUNT, GLES30.GL_UNSIGNED_SHORT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, INDEX_COUNT, GLES30.GL_UNSIGNED_SHORT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(positionLoc);
         GLES30.glDisableVertexAttribArray(texCoordLoc);
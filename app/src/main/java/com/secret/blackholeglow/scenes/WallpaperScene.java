@@ -7,7 +7,9 @@ import com.secret.blackholeglow.CameraAware;
 import com.secret.blackholeglow.CameraController;
 import com.secret.blackholeglow.SceneObject;
 import com.secret.blackholeglow.TextureManager;
+import com.secret.blackholeglow.core.MemoryDegradation;
 import com.secret.blackholeglow.core.MemoryPressureLevel;
+import com.secret.blackholeglow.diagnostic.TraceRecorder;
 import com.secret.blackholeglow.systems.EventBus;
 import com.secret.blackholeglow.systems.ResourceManager;
 
@@ -65,8 +67,12 @@ public abstract class WallpaperScene implements Disposable {
     protected boolean isPaused = true;
     protected boolean isDisposed = false;
 
-    // Nivel de presion de memoria actual
+    // Nivel de presion de memoria actual (y la etapa fina de la que sale)
     protected MemoryPressureLevel currentPressureLevel = MemoryPressureLevel.NORMAL;
+    protected MemoryDegradation currentDegradation = MemoryDegradation.NONE;
+
+    // UI (reloj, batería) dibujada aparte por el director a resolución nativa
+    protected boolean uiDeferred = false;
 
     // ═══════════════════════════════════════════════════════════════
     // DIMENSIONES DE PANTALLA
@@ -146,7 +152,12 @@ public abstract class WallpaperScene implements Disposable {
         this.isDisposed = false;
 
         // Llamar al setup especifico de la escena
-        setupScene();
+        TraceRecorder.begin("setupScene", getName());
+        try {
+            setupScene();
+        } finally {
+            TraceRecorder.end();
+        }
 
         // Asignar camara a todos los objetos
         assignCameraToObjects();
@@ -297,6 +308,21 @@ public abstract class WallpaperScene implements Disposable {
         }
     }
 
+    /**
+     * 📉 UI a resolución nativa: si es true, draw() omite la UI (reloj, batería)
+     * porque la escena va a un target reducido; el director llama drawUI()
+     * después del upscale.
+     */
+    public void setUIDeferred(boolean deferred) {
+        this.uiDeferred = deferred;
+    }
+
+    /**
+     * Dibuja la UI de la escena (reloj, batería). Por defecto no hay UI.
+     */
+    public void drawUI() {
+    }
+
     /**
      * Configura las dimensiones de pantalla.
      */
@@ -412,6 +438,19 @@ public abstract class WallpaperScene implements Disposable {
     // ADAPTIVE MEMORY SYSTEM
     // ═══════════════════════════════════════════════════════════════
 
+    /**
+     * Contrato completo del MemoryGovernor (GL thread): etapa con mip bias,
+     * escala de render targets, fraccion de particulas y video suspendido.
+     * Por defecto guarda la etapa y delega al nivel grueso; las escenas que
+     * quieran mas control hacen override de este (llamando a super).
+     */
+    public void onMemoryPressure(MemoryDegradation degradation) {
+        this.currentDegradation = degradation;
+        if (degradation.level != currentPressureLevel) {
+            onMemoryPressure(degradation.level);
+        }
+    }
+
     /**
      * Reacciona a cambios en la presion de memoria.
      * Las subclases override para degradar/restaurar calidad.
@@ -419,4 +458,8 @@ public abstract class WallpaperScene implements Disposable {
     public void onMemoryPressure(MemoryPressureLevel level) {
         this.currentPressureLevel = level;
     }
+
+    public MemoryDegradation getMemoryDegradation() {
+        return currentDegradation;
+    }
 }
@@ -7,6 +7,7 @@ import com.secret.blackholeglow.R;
 import com.secret.blackholeglow.Clock3D;
 import com.secret.blackholeglow.Link3D;
 import com.secret.blackholeglow.EqualizerBarsDJ;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 /**
  * ╔══════════════════════════════════════════════════════════════════════════════════════╗
@@ -292,10 +293,10 @@ public class ZeldaParallaxScene extends BaseParallaxScene {
     @Override
     protected void drawSceneSpecific() {
         if (link3D != null && useLink3D) {
-            GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-            GLES30.glDepthFunc(GLES30.GL_LEQUAL);
+            GLStateManager.get().enable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().depthFunc(GLES30.GL_LEQUAL);
             link3D.draw();
-            GLES30.glDisable(GLES30.GL_DEPTH_TEST);
+            GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
         }
     }
 
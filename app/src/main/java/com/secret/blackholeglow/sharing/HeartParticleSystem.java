@@ -3,6 +3,8 @@ package com.secret.blackholeglow.sharing;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -195,11 +197,11 @@ public class HeartParticleSystem {
     public void draw(float[] mvpMatrix) {
         if (!isInitialized || particles.isEmpty()) return;
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Habilitar blending
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Habilitar atributos UNA VEZ para todas las partículas
         GLES30.glEnableVertexAttribArray(positionHandle);
@@ -226,7 +228,7 @@ public class HeartParticleSystem {
             GLES30.glUniform4fv(colorHandle, 1, reusableColor, 0);
 
             // Dibujar corazón
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 34);
+            GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_FAN, 0, 34);
         }
 
         GLES30.glDisableVertexAttribArray(positionHandle);
@@ -254,7 +256,7 @@ public class HeartParticleSystem {
      */
     public void cleanup() {
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
         }
         particles.clear();
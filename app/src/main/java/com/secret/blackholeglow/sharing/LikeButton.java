@@ -4,15 +4,15 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
-import com.secret.blackholeglow.R;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.util.Arrays;
 
 /**
  * ╔══════════════════════════════════════════════════════════════════════════╗
@@ -26,6 +26,12 @@ import java.nio.FloatBuffer;
  * ║  • PYRALIS       - Orbe de fuego (textura) naranja                      ║
  * ║  • ADVENTURE_TIME - Gema de Ooo (procedural) verde esmeralda            ║
  * ║  • GOKU          - Esfera del Dragón (procedural) naranja con estrellas ║
+ * ╠══════════════════════════════════════════════════════════════════════════╣
+ * ║  ⚡ GEOMETRÍA PRE-HORNEADA                                                ║
+ * ║  • Todas las formas de todos los temas viven en UN VBO estático          ║
+ * ║  • Cada vértice lleva su "capa"; la animación (escala, rotación,         ║
+ * ║    color, pulso) son arrays de uniforms → draw() no aloca nada           ║
+ * ║  • Cada tema = 1-3 glDrawArrays (rellenos + líneas por grosor)           ║
  * ╚══════════════════════════════════════════════════════════════════════════╝
  */
 public class LikeButton {
@@ -45,10 +51,7 @@ public class LikeButton {
 
     private int programIdTexture;
     private int programIdColor;
-    private FloatBuffer quadBuffer;
-    private FloatBuffer heartBuffer;
-    private FloatBuffer gemBuffer;      // 💎 Gema de Ooo
-    private FloatBuffer sphereBuffer;   // 🟠 Esfera del Dragón
+    private final int[] vboHandle = new int[1];
     private boolean isInitialized = false;
 
     // Texturas solo para ABYSSIA y PYRALIS
@@ -86,8 +89,20 @@ public class LikeButton {
     private float[] zombieGlow = {0.2f, 1.0f, 0.3f};                  // Verde neón glow
     private float[] zombieVein = {0.6f, 0.0f, 0.0f, 0.8f};            // Venas rojas
 
+    // ⭐ Colores COSMOS (dorado/púrpura celestial)
+    private static final float[] cosmosGold = {1.0f, 0.84f, 0.0f};      // Dorado (#FFD700)
+    private static final float[] cosmosPurple = {0.58f, 0.44f, 0.86f}; // Púrpura (#9370DB)
+    private static final float[] cosmosGlow = {0.8f, 0.6f, 1.0f};       // Glow púrpura claro
+
+    // ⚔️ Constantes AOT
+    private static final float AOT_GLOW_SCALE_OUTER = 1.9f;
+    private static final float AOT_GLOW_SCALE_INNER = 1.5f;
+    private static final float AOT_BLOOD_PULSE_SPEED = 4.0f;  // Pulso rápido de sangre
+    private static final float[] aotHeartMain = {0.0f, 0.85f, 0.65f, 0.95f};  // Verde/Cyan (ojos de Eren)
+    private static final float[] aotGlow = {0.0f, 1.0f, 0.8f, 1.0f};          // Glow verde brillante
+    private static final float[] aotBlood = {0.85f, 0.15f, 0.15f, 0.8f};      // Rojo sangre
+
     // 🕷️ Colores para Spider (Rojo sangre → Negro → Púrpura oscuro)
-    private static final int SPIDER_GLOW_SEGMENTS = 32;
     private static final float SPIDER_GLOW_SCALE_OUTER = 2.0f;
     private static final float SPIDER_GLOW_SCALE_INNER = 1.5f;
     private static final float SPIDER_PULSE_SPEED = 3.5f;
@@ -105,25 +120,206 @@ public class LikeButton {
     private static final float[] spiderGlow = {1.0f, 0.15f, 0.15f, 1.0f};          // Glow rojo
     private static final float[] spiderDark = {0.1f, 0.02f, 0.05f, 0.9f};          // Negro/púrpura oscuro
     private static final float[] spiderWeb = {0.3f, 0.3f, 0.3f, 0.6f};             // Telaraña gris
-    private FloatBuffer spiderGlowBuffer;
-    private boolean spiderGlowBufferInitialized = false;
-    private FloatBuffer spiderWebBuffer;       // 🔧 FIX: Buffer cacheado para telaraña
-    private boolean spiderWebBufferInitialized = false;
 
-    private final float[] modelMatrix = new float[16];
-    private final float[] finalMatrix = new float[16];
-    private final float[] colorCache = new float[4];
-    // 🔧 FIX GC: Pre-computed circle geometry (was allocating float[68] + ByteBuffer per frame)
-    private final FloatBuffer circleBufferCached;
+    // ═══════════════════════════════════════════════════════════════════════════
+    // ⚡ CAPAS: cada vértice horneado pertenece a una capa; la capa decide
+    //    transform (centro, escala, rotación) y color vía uniforms por frame
+    // ═══════════════════════════════════════════════════════════════════════════
+    private static final int LAYER_GLOW_OUTER = 0;
+    private static final int LAYER_GLOW_INNER = 1;
+    private static final int LAYER_BODY = 2;
+    private static final int LAYER_DETAIL = 3;
+    private static final int LAYER_EXTRA = 4;
+    private static final int MAX_LAYERS = 5;
+
+    private static final int FLOATS_PER_VERTEX = 3;                  // x, y, capa
+    private static final int STRIDE_BYTES = FLOATS_PER_VERTEX * 4;
+
+    // Uniforms por capa (pre-alocados, se reescriben cada frame)
+    private final float[] layerXform = new float[MAX_LAYERS * 4];   // centroX, centroY, escala, rotación
+    private final float[] layerColor = new float[MAX_LAYERS * 4];
+    private float currentY;
+
+    // Estado del frame calculado por updateFrame() (lo consume el envío GL)
+    private float framePulse;
+    private float quadScale;
+    private float quadAlpha;
+
+    /**
+     * Rango de dibujo dentro del VBO horneado.
+     * Los glows van al principio de los rangos de relleno: en cooldown basta
+     * con saltar {@code cooldownSkip} vértices para ocultarlos.
+     */
+    private static final class DrawPass {
+        final int mode;
+        final int first;
+        final int count;
+        final int cooldownSkip;
+        final float lineWidth;
+        final boolean hideOnCooldown;
+
+        DrawPass(int mode, int first, int count, int cooldownSkip, float lineWidth, boolean hideOnCooldown) {
+            this.mode = mode;
+            this.first = first;
+            this.count = count;
+            this.cooldownSkip = cooldownSkip;
+            this.lineWidth = lineWidth;
+            this.hideOnCooldown = hideOnCooldown;
+        }
+    }
+
+    private static final float[] BAKED_VERTICES;
+    private static final DrawPass[][] THEME_PASSES = new DrawPass[Theme.values().length][];
+    private static final int QUAD_FIRST;
+    private static final int QUAD_COUNT = 6;
+
+    static {
+        GeometryBaker b = new GeometryBaker();
+        float[] circle32 = circleRing(32);
+        float[] sphere48 = circleRing(48);
+        float[] heart = heartRing();
+
+        // ❤️ DEFAULT: glows con forma de corazón + borde
+        int start = b.vertexCount();
+        b.fan(0f, -0.1f, heart, LAYER_GLOW_OUTER);
+        b.fan(0f, -0.1f, heart, LAYER_GLOW_INNER);
+        int glows = b.vertexCount() - start;
+        b.fan(0f, -0.1f, heart, LAYER_BODY);
+        DrawPass fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(heart, LAYER_DETAIL);
+        THEME_PASSES[Theme.DEFAULT.ordinal()] = new DrawPass[] {
+                fill, b.linePass(start, 3.0f, false) };
+
+        // 🥚🔥 ABYSSIA / PYRALIS: solo el glow circular; el resto es el quad texturizado
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        DrawPass texturedGlow = b.fillPass(start, b.vertexCount() - start);
+        THEME_PASSES[Theme.ABYSSIA.ordinal()] = new DrawPass[] { texturedGlow };
+        THEME_PASSES[Theme.PYRALIS.ordinal()] = new DrawPass[] { texturedGlow };
+
+        // 💎 ADVENTURE_TIME: gema + borde + destello vertical
+        float[] gem = gemRing();
+        start = b.vertexCount();
+        b.fan(0f, 0f, gem, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, gem, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, 0f, gem, LAYER_BODY);
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(gem, LAYER_DETAIL);
+        DrawPass gemBorder = b.linePass(start, 2.5f, false);
+        start = b.vertexCount();
+        b.segment(0.0f, 0.6f, 0.0f, -0.4f, LAYER_EXTRA);
+        THEME_PASSES[Theme.ADVENTURE_TIME.ordinal()] = new DrawPass[] {
+                fill, gemBorder, b.linePass(start, 2.0f, false) };
+
+        // 🟠 GOKU / SUPERMAN: esfera + 4 estrellas + borde dorado
+        start = b.vertexCount();
+        b.fan(0f, 0f, sphere48, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, sphere48, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, 0f, sphere48, LAYER_BODY);
+        // Estrellas en patrón de diamante, en espacio de la esfera (radio 0.15 * 0.7)
+        float[][] starPositions = { {0.0f, 0.35f}, {0.0f, -0.35f}, {-0.3f, 0.0f}, {0.3f, 0.0f} };
+        for (float[] pos : starPositions) {
+            b.fan(pos[0], pos[1], starRing(pos[0], pos[1], 0.105f), LAYER_DETAIL);
+        }
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(sphere48, LAYER_EXTRA);
+        DrawPass[] dragonBall = { fill, b.linePass(start, 2.0f, false) };
+        THEME_PASSES[Theme.GOKU.ordinal()] = dragonBall;
+        THEME_PASSES[Theme.SUPERMAN.ordinal()] = dragonBall;
+
+        // 🌅 SYNTHWAVE: dos semicírculos + scanlines, todo en un solo relleno
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, circle32, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, 0f, halfCircleRing(true), LAYER_BODY);
+        b.fan(0f, 0f, halfCircleRing(false), LAYER_DETAIL);
+        for (int i = 0; i < 5; i++) {
+            float lineY = -(0.1f + i * 0.15f);
+            b.rect(-0.95f, lineY - 0.04f, 0.95f, lineY + 0.04f, LAYER_EXTRA);
+        }
+        THEME_PASSES[Theme.SYNTHWAVE.ordinal()] = new DrawPass[] { b.fillPass(start, glows) };
+
+        // ⭐ COSMOS: estrella rotada + borde + núcleo (el núcleo va encima del borde)
+        float[] star = starRing(0f, 0f, 1.0f);
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, circle32, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, 0f, star, LAYER_BODY);
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(star, LAYER_DETAIL);
+        DrawPass cosmosBorder = b.linePass(start, 2.0f, false);
+        start = b.vertexCount();
+        b.fan(0f, 0f, circleRing(16), LAYER_EXTRA);
+        THEME_PASSES[Theme.COSMOS.ordinal()] = new DrawPass[] {
+                fill, cosmosBorder, b.fillPass(start, 0) };
+
+        // 🧟 WALKING_DEAD: corazón + venas
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, circle32, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, -0.1f, heart, LAYER_BODY);
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.segment(-0.3f, 0.2f, 0.0f, -0.4f, LAYER_DETAIL);
+        b.segment(0.3f, 0.2f, 0.0f, -0.3f, LAYER_DETAIL);
+        b.segment(0.0f, 0.3f, 0.15f, -0.2f, LAYER_DETAIL);
+        THEME_PASSES[Theme.WALKING_DEAD.ordinal()] = new DrawPass[] {
+                fill, b.linePass(start, 2.0f, true) };
+
+        // ⚔️ AOT: corazón + borde de sangre
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, circle32, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, -0.1f, heart, LAYER_BODY);
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(heart, LAYER_DETAIL);
+        THEME_PASSES[Theme.AOT.ordinal()] = new DrawPass[] {
+                fill, b.linePass(start, 3.0f, true) };
+
+        // 🕷️ SPIDER: corazón + borde oscuro + telaraña
+        start = b.vertexCount();
+        b.fan(0f, 0f, circle32, LAYER_GLOW_OUTER);
+        b.fan(0f, 0f, circle32, LAYER_GLOW_INNER);
+        glows = b.vertexCount() - start;
+        b.fan(0f, -0.1f, heart, LAYER_BODY);
+        fill = b.fillPass(start, glows);
+        start = b.vertexCount();
+        b.outline(heart, LAYER_DETAIL);
+        DrawPass spiderBorder = b.linePass(start, SPIDER_BORDER_WIDTH, true);
+        start = b.vertexCount();
+        b.segment(-SPIDER_WEB_DIAGONAL, -SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL, LAYER_EXTRA);
+        b.segment(-SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL, -SPIDER_WEB_DIAGONAL, LAYER_EXTRA);
+        b.segment(0.0f, -SPIDER_WEB_CROSS, 0.0f, SPIDER_WEB_CROSS, LAYER_EXTRA);
+        b.segment(-SPIDER_WEB_CROSS, 0.0f, SPIDER_WEB_CROSS, 0.0f, LAYER_EXTRA);
+        THEME_PASSES[Theme.SPIDER.ordinal()] = new DrawPass[] {
+                fill, spiderBorder, b.linePass(start, 1.0f, true) };
+
+        // Quad unitario para las texturas (UV se derivan de la posición en el shader)
+        QUAD_FIRST = b.vertexCount();
+        b.rect(-1.0f, -1.0f, 1.0f, 1.0f, LAYER_BODY);
+
+        BAKED_VERTICES = b.toArray();
+    }
 
     private static final String TEXTURE_VERTEX_SHADER =
-            "attribute vec4 a_Position;\n" +
-            "attribute vec2 a_TexCoord;\n" +
+            "attribute vec2 a_Position;\n" +
             "varying vec2 v_TexCoord;\n" +
             "uniform mat4 u_MVPMatrix;\n" +
+            "uniform vec3 u_Xform;\n" +   // centroX, centroY, escala
             "void main() {\n" +
-            "    gl_Position = u_MVPMatrix * a_Position;\n" +
-            "    v_TexCoord = a_TexCoord;\n" +
+            "    gl_Position = u_MVPMatrix * vec4(a_Position * u_Xform.z + u_Xform.xy, 0.0, 1.0);\n" +
+            "    v_TexCoord = vec2(a_Position.x * 0.5 + 0.5, 0.5 - a_Position.y * 0.5);\n" +
             "}";
 
     private static final String TEXTURE_FRAGMENT_SHADER =
@@ -140,42 +336,65 @@ public class LikeButton {
             "}";
 
     private static final String COLOR_VERTEX_SHADER =
-            "attribute vec4 a_Position;\n" +
+            "#version 300 es\n" +
+            "in vec2 a_Position;\n" +
+            "in float a_Layer;\n" +
             "uniform mat4 u_MVPMatrix;\n" +
+            "uniform vec4 u_Xform[" + MAX_LAYERS + "];\n" +   // centroX, centroY, escala, rotación
+            "uniform vec4 u_Colors[" + MAX_LAYERS + "];\n" +
+            "out vec4 v_Color;\n" +
             "void main() {\n" +
-            "    gl_Position = u_MVPMatrix * a_Position;\n" +
+            "    int layer = int(a_Layer + 0.5);\n" +
+            "    vec4 xf = u_Xform[layer];\n" +
+            "    float c = cos(xf.w);\n" +
+            "    float s = sin(xf.w);\n" +
+            "    vec2 p = vec2(a_Position.x * c - a_Position.y * s,\n" +
+            "                  a_Position.x * s + a_Position.y * c) * xf.z + xf.xy;\n" +
+            "    v_Color = u_Colors[layer];\n" +
+            "    gl_Position = u_MVPMatrix * vec4(p, 0.0, 1.0);\n" +
             "}";
 
     private static final String COLOR_FRAGMENT_SHADER =
+            "#version 300 es\n" +
             "precision mediump float;\n" +
-            "uniform vec4 u_Color;\n" +
+            "in vec4 v_Color;\n" +
+            "out vec4 fragColor;\n" +
             "void main() {\n" +
-            "    gl_FragColor = u_Color;\n" +
+            "    fragColor = v_Color;\n" +
             "}";
 
-    private int positionHandleTex, texCoordHandle, mvpMatrixHandleTex, textureHandle, alphaHandle, pulseHandle;
-    private int positionHandleColor, mvpMatrixHandleColor, colorHandle;
+    private int positionHandleTex, mvpMatrixHandleTex, xformHandleTex, textureHandle, alphaHandle, pulseHandle;
+    private int positionHandleColor, layerHandle, mvpMatrixHandleColor, xformHandle, colorHandle;
 
     public LikeButton(Context context) {
         this.context = context;
-        // Pre-compute circle geometry for drawCircle() (32 segments, never changes)
-        int segments = 32;
-        float[] circleVerts = new float[(segments + 2) * 2];
-        circleVerts[0] = 0f; circleVerts[1] = 0f;
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            circleVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            circleVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-        ByteBuffer bb = ByteBuffer.allocateDirect(circleVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        circleBufferCached = bb.asFloatBuffer();
-        circleBufferCached.put(circleVerts).position(0);
     }
 
     public void init() {
         if (isInitialized) return;
 
+        initProgramsAndGeometry();
+
+        // Cargar texturas (solo para ABYSSIA y PYRALIS)
+        loadTextures();
+
+        isInitialized = true;
+        Log.d(TAG, "LikeButton init (VBO horneado: " + (BAKED_VERTICES.length / FLOATS_PER_VERTEX) + " vértices)");
+    }
+
+    /**
+     * Igual que init() pero con las texturas ya subidas (sin ImageDownloadManager):
+     * permite llamar draw() en tests JVM, donde GLES30 devuelve valores por defecto.
+     */
+    void init(int abyssiaTexture, int fireOrbTexture) {
+        if (isInitialized) return;
+        initProgramsAndGeometry();
+        textureAbyssia = abyssiaTexture;
+        textureFireOrb = fireOrbTexture;
+        isInitialized = true;
+    }
+
+    private void initProgramsAndGeometry() {
         // Shader de texturas
         int vertexShaderTex = loadShader(GLES30.GL_VERTEX_SHADER, TEXTURE_VERTEX_SHADER);
         int fragmentShaderTex = loadShader(GLES30.GL_FRAGMENT_SHADER, TEXTURE_FRAGMENT_SHADER);
@@ -184,13 +403,13 @@ public class LikeButton {
         GLES30.glAttachShader(programIdTexture, fragmentShaderTex);
         GLES30.glLinkProgram(programIdTexture);
         positionHandleTex = GLES30.glGetAttribLocation(programIdTexture, "a_Position");
-        texCoordHandle = GLES30.glGetAttribLocation(programIdTexture, "a_TexCoord");
         mvpMatrixHandleTex = GLES30.glGetUniformLocation(programIdTexture, "u_MVPMatrix");
+        xformHandleTex = GLES30.glGetUniformLocation(programIdTexture, "u_Xform");
         textureHandle = GLES30.glGetUniformLocation(programIdTexture, "u_Texture");
         alphaHandle = GLES30.glGetUniformLocation(programIdTexture, "u_Alpha");
         pulseHandle = GLES30.glGetUniformLocation(programIdTexture, "u_Pulse");
 
-        // Shader de color sólido
+        // Shader de color por capas
         int vertexShaderCol = loadShader(GLES30.GL_VERTEX_SHADER, COLOR_VERTEX_SHADER);
         int fragmentShaderCol = loadShader(GLES30.GL_FRAGMENT_SHADER, COLOR_FRAGMENT_SHADER);
         programIdColor = GLES30.glCreateProgram();
@@ -198,97 +417,26 @@ public class LikeButton {
         GLES30.glAttachShader(programIdColor, fragmentShaderCol);
         GLES30.glLinkProgram(programIdColor);
         positionHandleColor = GLES30.glGetAttribLocation(programIdColor, "a_Position");
+        layerHandle = GLES30.glGetAttribLocation(programIdColor, "a_Layer");
         mvpMatrixHandleColor = GLES30.glGetUniformLocation(programIdColor, "u_MVPMatrix");
-        colorHandle = GLES30.glGetUniformLocation(programIdColor, "u_Color");
-
-        // Crear geometrías
-        createQuadGeometry();
-        createHeartGeometry();
-        createGemGeometry();      // 💎 Gema de Ooo
-        createSphereGeometry();   // 🟠 Esfera del Dragón
+        xformHandle = GLES30.glGetUniformLocation(programIdColor, "u_Xform");
+        colorHandle = GLES30.glGetUniformLocation(programIdColor, "u_Colors");
 
-        // Cargar texturas (solo para ABYSSIA y PYRALIS)
-        loadTextures();
-
-        isInitialized = true;
-        Log.d(TAG, "LikeButton init (con Gema y Dragon Ball procedurales)");
+        // Subir la geometría horneada de todos los temas (una sola vez)
+        uploadBakedGeometry();
     }
 
-    private void createQuadGeometry() {
-        float[] quadVertices = { -1.0f, -1.0f, 0.0f, 1.0f, 1.0f, -1.0f, 1.0f, 1.0f, -1.0f, 1.0f, 0.0f, 0.0f, 1.0f, 1.0f, 1.0f, 0.0f };
-        ByteBuffer bb = ByteBuffer.allocateDirect(quadVertices.length * 4);
+    private void uploadBakedGeometry() {
+        ByteBuffer bb = ByteBuffer.allocateDirect(BAKED_VERTICES.length * 4);
         bb.order(ByteOrder.nativeOrder());
-        quadBuffer = bb.asFloatBuffer();
-        quadBuffer.put(quadVertices);
-        quadBuffer.position(0);
-    }
-
-    private void createHeartGeometry() {
-        int segments = 64;
-        float[] vertices = new float[(segments + 2) * 2];
-        vertices[0] = 0f; vertices[1] = -0.1f;
-        for (int i = 0; i <= segments; i++) {
-            float t = (float) (2.0 * Math.PI * i / segments);
-            float hx = (float) (16.0 * Math.pow(Math.sin(t), 3));
-            float hy = (float) (13.0 * Math.cos(t) - 5.0 * Math.cos(2*t) - 2.0 * Math.cos(3*t) - Math.cos(4*t));
-            vertices[(i + 1) * 2] = hx / 17.0f;
-            vertices[(i + 1) * 2 + 1] = hy / 17.0f;
-        }
-        ByteBuffer bb = ByteBuffer.allocateDirect(vertices.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        heartBuffer = bb.asFloatBuffer();
-        heartBuffer.put(vertices);
-        heartBuffer.position(0);
-    }
-
-    /**
-     * 💎 Crea la geometría de la Gema de Ooo (hexágono con punta)
-     * Forma de diamante/cristal típico de Adventure Time
-     */
-    private void createGemGeometry() {
-        // Diamante de 6 puntas (forma de gema)
-        float[] vertices = {
-            // Centro
-            0.0f, 0.0f,
-            // Punta superior
-            0.0f, 1.0f,
-            // Esquina superior derecha
-            0.6f, 0.5f,
-            // Esquina inferior derecha
-            0.6f, -0.3f,
-            // Punta inferior
-            0.0f, -0.8f,
-            // Esquina inferior izquierda
-            -0.6f, -0.3f,
-            // Esquina superior izquierda
-            -0.6f, 0.5f,
-            // Cerrar (volver a punta superior)
-            0.0f, 1.0f
-        };
-        ByteBuffer bb = ByteBuffer.allocateDirect(vertices.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        gemBuffer = bb.asFloatBuffer();
-        gemBuffer.put(vertices);
-        gemBuffer.position(0);
-    }
-
-    /**
-     * 🟠 Crea la geometría de la Esfera del Dragón (círculo)
-     */
-    private void createSphereGeometry() {
-        int segments = 48;
-        float[] vertices = new float[(segments + 2) * 2];
-        vertices[0] = 0f; vertices[1] = 0f;  // Centro
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            vertices[(i + 1) * 2] = (float) Math.cos(angle);
-            vertices[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-        ByteBuffer bb = ByteBuffer.allocateDirect(vertices.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        sphereBuffer = bb.asFloatBuffer();
-        sphereBuffer.put(vertices);
-        sphereBuffer.position(0);
+        FloatBuffer vertices = bb.asFloatBuffer();
+        vertices.put(BAKED_VERTICES);
+        vertices.position(0);
+
+        GLES30.glGenBuffers(1, vboHandle, 0);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, vboHandle[0]);
+        GLStateManager.get().bufferData(GLES30.GL_ARRAY_BUFFER, BAKED_VERTICES.length * 4, vertices, GLES30.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
     }
 
     private void loadTextures() {
@@ -332,12 +480,12 @@ public class LikeButton {
             options.inJustDecodeBounds = false;
             Bitmap bitmap = BitmapFactory.decodeFile(filePath, options);
             if (bitmap != null) {
-                GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texHandle[0]);
+                GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texHandle[0]);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
                 GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-                GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+                GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
                 bitmap.recycle();
             }
         }
@@ -351,283 +499,188 @@ public class LikeButton {
 
     public void draw(float[] mvpMatrix, float time) {
         if (!isInitialized) return;
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        boolean textured = currentTheme == Theme.ABYSSIA || currentTheme == Theme.PYRALIS;
+        int textureId = (currentTheme == Theme.ABYSSIA) ? textureAbyssia : textureFireOrb;
+        if (textured && textureId <= 0) return;
+
+        // 1. Animación → uniforms por capa (CPU, sin GL)
+        updateFrame(time);
+
+        // 2. Rangos pre-horneados del tema (1-3 draw calls)
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, vboHandle[0]);
+        drawThemePasses(mvpMatrix, THEME_PASSES[currentTheme.ordinal()]);
+
+        // 3. Quad texturizado para ABYSSIA / PYRALIS
+        if (textured) {
+            drawTexturedQuad(mvpMatrix, textureId);
+        }
+        GLStateManager.get().bindBuffer(GLES30.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Calcula todo lo que cambia por frame: pulso, flotación, uniforms por capa
+     * y el transform del quad texturizado. Solo escribe en arrays/campos
+     * pre-alocados; no toca GL ni aloca (LikeButtonTest mide draw() completo).
+     */
+    void updateFrame(float time) {
         pulsePhase = time;
         float pulse = (float) Math.sin(pulsePhase * 2.5) * 0.5f + 0.5f;
+        framePulse = pulse;
         floatOffset = (float) Math.sin(pulsePhase * 1.5) * 0.01f;
+        currentY = y + floatOffset;
 
         switch (currentTheme) {
             case DEFAULT:
-                drawHeartProcedural(mvpMatrix, pulse);
+                updateHeartLayers(pulse);
                 break;
             case ABYSSIA:
             case PYRALIS:
-                drawTexturedButton(mvpMatrix, pulse);
+                updateTexturedGlowLayer(pulse);
                 break;
             case ADVENTURE_TIME:
-                drawGemProcedural(mvpMatrix, pulse);
+                updateGemLayers(pulse);
                 break;
             case GOKU:
-                drawDragonBallProcedural(mvpMatrix, pulse);
+            case SUPERMAN:
+                // 🦸 Superman usa estilo similar a Dragon Ball (energía heroica)
+                updateDragonBallLayers(pulse);
                 break;
             case SYNTHWAVE:
-                drawSynthwaveSunProcedural(mvpMatrix, pulse);
+                updateSynthwaveLayers(pulse);
                 break;
             case COSMOS:
-                drawCosmosStarProcedural(mvpMatrix, pulse);
+                updateCosmosLayers(pulse);
                 break;
             case WALKING_DEAD:
-                drawZombieHeartProcedural(mvpMatrix, pulse);
-                break;
-            case SUPERMAN:
-                // 🦸 Superman usa estilo similar a Dragon Ball (energía heroica)
-                drawDragonBallProcedural(mvpMatrix, pulse);
+                updateZombieLayers(pulse);
                 break;
             case AOT:
                 // ⚔️ Attack on Titan - Corazón con ojos verdes de Eren
-                drawAOTHeartProcedural(mvpMatrix, pulse);
+                updateAOTLayers(pulse);
                 break;
             case SPIDER:
                 // 🕷️ Black Spider - Corazón con ojos rojos brillantes
-                drawSpiderHeartProcedural(mvpMatrix, pulse);
+                updateSpiderLayers(pulse);
                 break;
         }
     }
 
+    private void drawThemePasses(float[] mvpMatrix, DrawPass[] passes) {
+        GLStateManager.get().useProgram(programIdColor);
+        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, mvpMatrix, 0);
+        GLES30.glUniform4fv(xformHandle, MAX_LAYERS, layerXform, 0);
+        GLES30.glUniform4fv(colorHandle, MAX_LAYERS, layerColor, 0);
+
+        GLES30.glEnableVertexAttribArray(positionHandleColor);
+        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, STRIDE_BYTES, 0);
+        GLES30.glEnableVertexAttribArray(layerHandle);
+        GLES30.glVertexAttribPointer(layerHandle, 1, GLES30.GL_FLOAT, false, STRIDE_BYTES, 8);
+
+        for (int i = 0; i < passes.length; i++) {
+            DrawPass pass = passes[i];
+            if (isOnCooldown && pass.hideOnCooldown) continue;
+            int skip = isOnCooldown ? pass.cooldownSkip : 0;
+            int count = pass.count - skip;
+            if (count <= 0) continue;
+            if (pass.mode == GLES30.GL_LINES) {
+                GLES30.glLineWidth(pass.lineWidth);
+            }
+            GLStateManager.get().drawArrays(pass.mode, pass.first + skip, count);
+        }
+
+        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        GLES30.glDisableVertexAttribArray(layerHandle);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════════
+    // UNIFORMS POR CAPA
+    // ═══════════════════════════════════════════════════════════════════════════
+
+    private void setLayer(int layer, float scale, float rotation) {
+        int i = layer * 4;
+        layerXform[i] = x;
+        layerXform[i + 1] = currentY;
+        layerXform[i + 2] = scale;
+        layerXform[i + 3] = rotation;
+    }
+
+    private void setLayerColor(int layer, float r, float g, float b, float a) {
+        int i = layer * 4;
+        layerColor[i] = r;
+        layerColor[i + 1] = g;
+        layerColor[i + 2] = b;
+        layerColor[i + 3] = a;
+    }
+
+    /** Glows exterior/interior con el mismo color y alphas distintos */
+    private void setGlowLayers(float scale, float outerScale, float innerScale, float[] color,
+                               float outerAlpha, float innerAlpha) {
+        setLayer(LAYER_GLOW_OUTER, scale * outerScale, 0f);
+        setLayer(LAYER_GLOW_INNER, scale * innerScale, 0f);
+        setLayerColor(LAYER_GLOW_OUTER, color[0], color[1], color[2], outerAlpha);
+        setLayerColor(LAYER_GLOW_INNER, color[0], color[1], color[2], innerAlpha);
+    }
+
+    private float bodyAlpha(float normalAlpha) {
+        return isOnCooldown ? 0.4f : (isPressed ? 1.0f : normalAlpha);
+    }
+
     // ═══════════════════════════════════════════════════════════════════════════
     // 💎 GEMA DE OOO - Adventure Time (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    private void drawGemProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
+    private void updateGemLayers(float pulse) {
         float scale = size * (1.0f + pulse * 0.15f);
-        float currentY = y + floatOffset;
 
         // Glow verde esmeralda
-        if (!isOnCooldown) {
-            drawGemGlow(mvpMatrix, scale * 1.6f, 0.15f, pulse);
-            drawGemGlow(mvpMatrix, scale * 1.3f, 0.25f, pulse);
-        }
-
-        // Gema principal
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
+        setGlowLayers(scale, 1.6f, 1.3f, gemGlow, 0.15f * pulse, 0.25f * pulse);
 
-        // Color de la gema (varía con pulse para efecto brillante)
+        // Gema principal (varía con pulse para efecto brillante)
         float brightness = 0.8f + pulse * 0.2f;
-        colorCache[0] = gemColorMain[0] * brightness;
-        colorCache[1] = gemColorMain[1] * brightness;
-        colorCache[2] = gemColorMain[2] * brightness;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.95f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        gemBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, gemBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 8);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, gemColorMain[0] * brightness, gemColorMain[1] * brightness,
+                gemColorMain[2] * brightness, bodyAlpha(0.95f));
 
         // Borde brillante
         float borderPulse = (float) (Math.sin(pulsePhase * 3.5) * 0.3 + 0.7);
-        colorCache[0] = gemColorHighlight[0] * borderPulse;
-        colorCache[1] = gemColorHighlight[1] * borderPulse;
-        colorCache[2] = gemColorHighlight[2] * borderPulse;
-        colorCache[3] = 1.0f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        GLES30.glLineWidth(2.5f);
-        GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, 7);
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, gemColorHighlight[0] * borderPulse, gemColorHighlight[1] * borderPulse,
+                gemColorHighlight[2] * borderPulse, 1.0f);
 
         // Destello interior (línea vertical brillante)
-        drawGemHighlight(mvpMatrix, scale * 0.6f, pulse);
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    private void drawGemGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        colorCache[0] = gemGlow[0];
-        colorCache[1] = gemGlow[1];
-        colorCache[2] = gemGlow[2];
-        colorCache[3] = alpha * pulse;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        gemBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, gemBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 8);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    private void drawGemHighlight(float[] mvpMatrix, float highlightSize, float pulse) {
-        // Línea de brillo vertical dentro de la gema
-        float[] highlight = { 0.0f, 0.6f, 0.0f, -0.4f };
-        ByteBuffer bb = ByteBuffer.allocateDirect(highlight.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer highlightBuffer = bb.asFloatBuffer();
-        highlightBuffer.put(highlight);
-        highlightBuffer.position(0);
-
-        float currentY = y + floatOffset;
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, highlightSize, highlightSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        colorCache[0] = 1.0f;
-        colorCache[1] = 1.0f;
-        colorCache[2] = 1.0f;
-        colorCache[3] = 0.4f + pulse * 0.3f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glLineWidth(2.0f);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, highlightBuffer);
-        GLES30.glDrawArrays(GLES30.GL_LINES, 0, 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        setLayer(LAYER_EXTRA, scale * 0.6f, 0f);
+        setLayerColor(LAYER_EXTRA, 1.0f, 1.0f, 1.0f, 0.4f + pulse * 0.3f);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
     // 🟠 ESFERA DEL DRAGÓN - Goku (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    private void drawDragonBallProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
+    private void updateDragonBallLayers(float pulse) {
         float scale = size * (1.0f + pulse * 0.12f);
-        float currentY = y + floatOffset;
 
         // Glow naranja/dorado
-        if (!isOnCooldown) {
-            drawDragonBallGlow(mvpMatrix, scale * 1.5f, 0.2f, pulse);
-            drawDragonBallGlow(mvpMatrix, scale * 1.25f, 0.3f, pulse);
-        }
+        setGlowLayers(scale, 1.5f, 1.25f, dragonBallGlow, 0.2f * pulse, 0.3f * pulse);
 
         // Esfera principal (naranja)
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
         float brightness = 0.85f + pulse * 0.15f;
-        colorCache[0] = dragonBallMain[0] * brightness;
-        colorCache[1] = dragonBallMain[1] * brightness;
-        colorCache[2] = dragonBallMain[2] * brightness;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.95f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, dragonBallMain[0] * brightness, dragonBallMain[1] * brightness,
+                dragonBallMain[2] * brightness, bodyAlpha(0.95f));
 
-        sphereBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, sphereBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 50);
+        // ⭐ 4 estrellas rojas (como la esfera de 4 estrellas de Goku)
+        float starBrightness = 0.9f + pulse * 0.1f;
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, starColor[0] * starBrightness, starColor[1] * starBrightness,
+                starColor[2] * starBrightness, isOnCooldown ? 0.3f : 0.95f);
 
         // Borde dorado brillante
         float borderPulse = (float) (Math.sin(pulsePhase * 3.0) * 0.3 + 0.7);
-        colorCache[0] = dragonBallHighlight[0] * borderPulse;
-        colorCache[1] = dragonBallHighlight[1] * borderPulse;
-        colorCache[2] = dragonBallHighlight[2] * borderPulse;
-        colorCache[3] = 0.9f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        GLES30.glLineWidth(2.0f);
-        GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, 49);
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-
-        // ⭐ Dibujar 4 estrellas (como la esfera de 4 estrellas de Goku)
-        drawDragonBallStars(mvpMatrix, scale * 0.7f, pulse);
-    }
-
-    private void drawDragonBallGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        colorCache[0] = dragonBallGlow[0];
-        colorCache[1] = dragonBallGlow[1];
-        colorCache[2] = dragonBallGlow[2];
-        colorCache[3] = alpha * pulse;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        sphereBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, sphereBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 50);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    /**
-     * ⭐ Dibuja las 4 estrellas rojas dentro de la esfera del dragón
-     * Disposición: una arriba, una abajo, dos a los lados
-     */
-    private void drawDragonBallStars(float[] mvpMatrix, float starScale, float pulse) {
-        // Posiciones de las 4 estrellas (patrón de diamante)
-        float[][] starPositions = {
-            { 0.0f,  0.35f},  // Arriba
-            { 0.0f, -0.35f},  // Abajo
-            {-0.3f,  0.0f},   // Izquierda
-            { 0.3f,  0.0f}    // Derecha
-        };
-
-        float currentY = y + floatOffset;
-        float starSize = 0.15f * starScale;
-
-        for (float[] pos : starPositions) {
-            drawSingleStar(mvpMatrix, x + pos[0] * size, currentY + pos[1] * size, starSize, pulse);
-        }
-    }
-
-    /**
-     * Dibuja una estrella de 5 puntas
-     */
-    private void drawSingleStar(float[] mvpMatrix, float starX, float starY, float starSize, float pulse) {
-        // Geometría de estrella de 5 puntas
-        int points = 5;
-        float[] starVerts = new float[(points * 2 + 2) * 2];
-        starVerts[0] = 0f; starVerts[1] = 0f;  // Centro
-
-        for (int i = 0; i <= points * 2; i++) {
-            float angle = (float) (Math.PI / 2 + 2.0 * Math.PI * i / (points * 2));
-            float radius = (i % 2 == 0) ? 1.0f : 0.4f;  // Puntas largas y cortas alternadas
-            starVerts[(i + 1) * 2] = (float) Math.cos(angle) * radius;
-            starVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle) * radius;
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(starVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer starBuffer = bb.asFloatBuffer();
-        starBuffer.put(starVerts);
-        starBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, starX, starY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, starSize, starSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Estrellas rojas con brillo
-        float starBrightness = 0.9f + pulse * 0.1f;
-        colorCache[0] = starColor[0] * starBrightness;
-        colorCache[1] = starColor[1] * starBrightness;
-        colorCache[2] = starColor[2] * starBrightness;
-        colorCache[3] = isOnCooldown ? 0.3f : 0.95f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, starBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, points * 2 + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        setLayer(LAYER_EXTRA, scale, 0f);
+        setLayerColor(LAYER_EXTRA, dragonBallHighlight[0] * borderPulse, dragonBallHighlight[1] * borderPulse,
+                dragonBallHighlight[2] * borderPulse, 0.9f);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -635,772 +688,320 @@ public class LikeButton {
     // ═══════════════════════════════════════════════════════════════════════════
 
     /**
-     * Dibuja el icónico sol synthwave con gradiente y líneas horizontales
+     * El icónico sol synthwave: semicírculo amarillo, semicírculo hot pink y
+     * líneas horizontales estilo retrowave.
      */
-    private void drawSynthwaveSunProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
+    private void updateSynthwaveLayers(float pulse) {
         float scale = size * (1.0f + pulse * 0.12f);
-        float currentY = y + floatOffset;
-
-        // 1. Glow magenta exterior
-        if (!isOnCooldown) {
-            drawSynthwaveGlow(mvpMatrix, scale * 1.8f, 0.15f, pulse);
-            drawSynthwaveGlow(mvpMatrix, scale * 1.4f, 0.25f, pulse);
-        }
-
-        // 2. Semicírculo superior (amarillo → naranja)
-        drawSynthwaveSunHalf(mvpMatrix, scale, currentY, true, pulse);
-
-        // 3. Semicírculo inferior (naranja → hot pink)
-        drawSynthwaveSunHalf(mvpMatrix, scale, currentY, false, pulse);
-
-        // 4. Líneas horizontales (scanlines estilo retrowave)
-        drawSynthwaveScanlines(mvpMatrix, scale, currentY, pulse);
-    }
-
-    private void drawSynthwaveGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-
-        // Crear círculo para glow
-        int segments = 32;
-        float[] glowVerts = new float[(segments + 2) * 2];
-        glowVerts[0] = 0f; glowVerts[1] = 0f;
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            glowVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            glowVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(glowVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer glowBuffer = bb.asFloatBuffer();
-        glowBuffer.put(glowVerts);
-        glowBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
 
         // Glow magenta pulsante
-        colorCache[0] = synthwaveGlow[0];
-        colorCache[1] = synthwaveGlow[1];
-        colorCache[2] = synthwaveGlow[2];
-        colorCache[3] = alpha * (0.8f + pulse * 0.2f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, glowBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, segments + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    private void drawSynthwaveSunHalf(float[] mvpMatrix, float scale, float currentY, boolean isTop, float pulse) {
-        // Semicírculo (mitad superior o inferior)
-        int segments = 20;
-        float[] halfVerts = new float[(segments + 2) * 2];
-        halfVerts[0] = 0f; halfVerts[1] = 0f;
-
-        float startAngle = isTop ? 0f : (float) Math.PI;
-        float endAngle = isTop ? (float) Math.PI : (float) (2 * Math.PI);
-
-        for (int i = 0; i <= segments; i++) {
-            float angle = startAngle + (endAngle - startAngle) * i / segments;
-            halfVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            halfVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(halfVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer halfBuffer = bb.asFloatBuffer();
-        halfBuffer.put(halfVerts);
-        halfBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
+        float glowPulse = 0.8f + pulse * 0.2f;
+        setGlowLayers(scale, 1.8f, 1.4f, synthwaveGlow, 0.15f * glowPulse, 0.25f * glowPulse);
 
         // Gradiente: amarillo arriba, hot pink abajo
         float brightness = 0.85f + pulse * 0.15f;
-        float[] color = isTop ? synthwaveSunTop : synthwaveSunBottom;
-        colorCache[0] = color[0] * brightness;
-        colorCache[1] = color[1] * brightness;
-        colorCache[2] = color[2] * brightness;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.95f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, halfBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, segments + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    private void drawSynthwaveScanlines(float[] mvpMatrix, float scale, float currentY, float pulse) {
-        // Líneas horizontales en la parte inferior del sol
-        int numLines = 5;
-        float lineHeight = 0.04f * scale;
-        float lineWidth = scale * 0.95f;
-
-        for (int i = 0; i < numLines; i++) {
-            float lineY = currentY - (0.1f + i * 0.15f) * scale;
-
-            // Cada línea es un rectángulo pequeño
-            float[] lineVerts = {
-                -lineWidth, lineY - lineHeight,
-                 lineWidth, lineY - lineHeight,
-                -lineWidth, lineY + lineHeight,
-                 lineWidth, lineY + lineHeight
-            };
-
-            ByteBuffer bb = ByteBuffer.allocateDirect(lineVerts.length * 4);
-            bb.order(ByteOrder.nativeOrder());
-            FloatBuffer lineBuffer = bb.asFloatBuffer();
-            lineBuffer.put(lineVerts);
-            lineBuffer.position(0);
-
-            android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-            android.opengl.Matrix.translateM(modelMatrix, 0, x, 0, 0);
-            android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-            GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-            // Líneas púrpura oscuro (como el fondo synthwave)
-            colorCache[0] = synthwaveLine[0];
-            colorCache[1] = synthwaveLine[1];
-            colorCache[2] = synthwaveLine[2];
-            colorCache[3] = isOnCooldown ? 0.3f : synthwaveLine[3];
-            GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-            GLES30.glEnableVertexAttribArray(positionHandleColor);
-            GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, lineBuffer);
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-            GLES30.glDisableVertexAttribArray(positionHandleColor);
-        }
+        float alpha = bodyAlpha(0.95f);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, synthwaveSunTop[0] * brightness, synthwaveSunTop[1] * brightness,
+                synthwaveSunTop[2] * brightness, alpha);
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, synthwaveSunBottom[0] * brightness, synthwaveSunBottom[1] * brightness,
+                synthwaveSunBottom[2] * brightness, alpha);
+
+        // Líneas púrpura oscuro (como el fondo synthwave)
+        setLayer(LAYER_EXTRA, scale, 0f);
+        setLayerColor(LAYER_EXTRA, synthwaveLine[0], synthwaveLine[1], synthwaveLine[2],
+                isOnCooldown ? 0.3f : synthwaveLine[3]);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
     // ⭐ COSMOS STAR - Saint Seiya (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    // Colores COSMOS (dorado/púrpura celestial)
-    private static final float[] cosmosGold = {1.0f, 0.84f, 0.0f};      // Dorado (#FFD700)
-    private static final float[] cosmosPurple = {0.58f, 0.44f, 0.86f}; // Púrpura (#9370DB)
-    private static final float[] cosmosGlow = {0.8f, 0.6f, 1.0f};       // Glow púrpura claro
-
-    private void drawCosmosStarProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
+    private void updateCosmosLayers(float pulse) {
         float scale = size * (1.0f + pulse * 0.15f);
-        float currentY = y + floatOffset;
-
-        // 1. Glow púrpura exterior
-        if (!isOnCooldown) {
-            drawCosmosGlow(mvpMatrix, scale * 2.0f, 0.12f, pulse);
-            drawCosmosGlow(mvpMatrix, scale * 1.5f, 0.25f, pulse);
-        }
-
-        // 2. Estrella de 5 puntas (pentagrama)
-        drawCosmosStar5Points(mvpMatrix, scale, currentY, pulse);
-
-        // 3. Centro brillante
-        drawCosmosCore(mvpMatrix, scale * 0.4f, currentY, pulse);
-    }
-
-    private void drawCosmosGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
 
-        // Círculo para glow
-        int segments = 32;
-        float[] glowVerts = new float[(segments + 2) * 2];
-        glowVerts[0] = 0f; glowVerts[1] = 0f;
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            glowVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            glowVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(glowVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer glowBuffer = bb.asFloatBuffer();
-        glowBuffer.put(glowVerts);
-        glowBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Glow púrpura pulsante
-        colorCache[0] = cosmosGlow[0];
-        colorCache[1] = cosmosGlow[1];
-        colorCache[2] = cosmosGlow[2];
-        colorCache[3] = alpha * (0.7f + pulse * 0.3f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, glowBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, segments + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
+        // 1. Glow púrpura pulsante
+        float glowPulse = 0.7f + pulse * 0.3f;
+        setGlowLayers(scale, 2.0f, 1.5f, cosmosGlow, 0.12f * glowPulse, 0.25f * glowPulse);
 
-    private void drawCosmosStar5Points(float[] mvpMatrix, float scale, float currentY, float pulse) {
-        // Estrella de 5 puntas (10 vértices + centro)
-        float[] starVerts = new float[22];  // (10 + 1) * 2
-        starVerts[0] = 0f; starVerts[1] = 0f;  // Centro
-
-        float outerRadius = 1.0f;
-        float innerRadius = 0.4f;
-
-        for (int i = 0; i < 10; i++) {
-            float angle = (float) (Math.PI / 2 + 2 * Math.PI * i / 10);  // Empezar desde arriba
-            float radius = (i % 2 == 0) ? outerRadius : innerRadius;
-            starVerts[(i + 1) * 2] = (float) (Math.cos(angle) * radius);
-            starVerts[(i + 1) * 2 + 1] = (float) (Math.sin(angle) * radius);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(starVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer starBuffer = bb.asFloatBuffer();
-        starBuffer.put(starVerts);
-        starBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        // Rotación sutil con el tiempo
+        // 2. Estrella de 5 puntas dorada con rotación sutil + borde púrpura
         float rotation = pulsePhase * 0.3f;
-        android.opengl.Matrix.rotateM(modelMatrix, 0, rotation * 57.3f, 0, 0, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Color dorado brillante
         float brightness = 0.85f + pulse * 0.15f;
-        colorCache[0] = cosmosGold[0] * brightness;
-        colorCache[1] = cosmosGold[1] * brightness;
-        colorCache[2] = cosmosGold[2] * brightness;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.95f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, starBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 11);
-
-        // Borde púrpura
-        colorCache[0] = cosmosPurple[0];
-        colorCache[1] = cosmosPurple[1];
-        colorCache[2] = cosmosPurple[2];
-        colorCache[3] = 0.8f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        GLES30.glLineWidth(2.0f);
-        GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, 10);
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
-
-    private void drawCosmosCore(float[] mvpMatrix, float coreSize, float currentY, float pulse) {
-        // Centro brillante blanco-dorado
-        int segments = 16;
-        float[] coreVerts = new float[(segments + 2) * 2];
-        coreVerts[0] = 0f; coreVerts[1] = 0f;
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            coreVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            coreVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(coreVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer coreBuffer = bb.asFloatBuffer();
-        coreBuffer.put(coreVerts);
-        coreBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, coreSize * (1.0f + pulse * 0.2f), coreSize * (1.0f + pulse * 0.2f), 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Blanco brillante con tinte dorado
-        colorCache[0] = 1.0f;
-        colorCache[1] = 0.95f;
-        colorCache[2] = 0.8f;
-        colorCache[3] = 0.9f + pulse * 0.1f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, coreBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, segments + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        setLayer(LAYER_BODY, scale, rotation);
+        setLayerColor(LAYER_BODY, cosmosGold[0] * brightness, cosmosGold[1] * brightness,
+                cosmosGold[2] * brightness, bodyAlpha(0.95f));
+        setLayer(LAYER_DETAIL, scale, rotation);
+        setLayerColor(LAYER_DETAIL, cosmosPurple[0], cosmosPurple[1], cosmosPurple[2], 0.8f);
+
+        // 3. Centro brillante blanco con tinte dorado
+        setLayer(LAYER_EXTRA, scale * 0.4f * (1.0f + pulse * 0.2f), 0f);
+        setLayerColor(LAYER_EXTRA, 1.0f, 0.95f, 0.8f, 0.9f + pulse * 0.1f);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
     // 🧟 CORAZÓN ZOMBIE - Walking Dead (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    private void drawZombieHeartProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
+    private void updateZombieLayers(float pulse) {
         float scale = size * (1.0f + pulse * 0.12f);
-        float currentY = y + floatOffset;
 
-        // 1. Glow verde tóxico exterior
-        if (!isOnCooldown) {
-            drawZombieGlow(mvpMatrix, scale * 1.8f, 0.15f, pulse);
-            drawZombieGlow(mvpMatrix, scale * 1.4f, 0.25f, pulse);
-        }
+        // 1. Glow verde tóxico pulsante
+        float glowPulse = 0.6f + pulse * 0.4f;
+        setGlowLayers(scale, 1.8f, 1.4f, zombieGlow, 0.15f * glowPulse, 0.25f * glowPulse);
 
-        // 2. Corazón principal (verde tóxico)
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Color del corazón zombie (varía con pulse)
+        // 2. Corazón principal (verde tóxico, varía con pulse)
         float decay = 0.7f + pulse * 0.3f;
-        colorCache[0] = zombieHeartMain[0] * decay;
-        colorCache[1] = zombieHeartMain[1] * decay;
-        colorCache[2] = zombieHeartMain[2] * decay;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.95f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        heartBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, heartBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, heartBuffer.capacity() / 2);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, zombieHeartMain[0] * decay, zombieHeartMain[1] * decay,
+                zombieHeartMain[2] * decay, bodyAlpha(0.95f));
 
         // 3. "Venas" rojas (líneas sangrientas)
-        if (!isOnCooldown) {
-            drawZombieVeins(mvpMatrix, scale * 0.7f, currentY, pulse);
-        }
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        setLayer(LAYER_DETAIL, scale * 0.7f, 0f);
+        setLayerColor(LAYER_DETAIL, zombieVein[0], zombieVein[1], zombieVein[2], 0.6f + pulse * 0.3f);
     }
 
-    private void drawZombieGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-
-        // Círculo para glow
-        int segments = 32;
-        float[] glowVerts = new float[(segments + 2) * 2];
-        glowVerts[0] = 0f; glowVerts[1] = 0f;
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (2.0 * Math.PI * i / segments);
-            glowVerts[(i + 1) * 2] = (float) Math.cos(angle);
-            glowVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-        }
-
-        ByteBuffer bb = ByteBuffer.allocateDirect(glowVerts.length * 4);
-        bb.order(ByteOrder.nativeOrder());
-        FloatBuffer glowBuffer = bb.asFloatBuffer();
-        glowBuffer.put(glowVerts);
-        glowBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Glow verde tóxico pulsante
-        colorCache[0] = zombieGlow[0];
-        colorCache[1] = zombieGlow[1];
-        colorCache[2] = zombieGlow[2];
-        colorCache[3] = alpha * (0.6f + pulse * 0.4f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, glowBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, segments + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
+    // ═══════════════════════════════════════════════════════════════════════════
+    // ⚔️ CORAZÓN AOT - Attack on Titan (Ojos verdes de Eren)
+    // ═══════════════════════════════════════════════════════════════════════════
 
-    private void drawZombieVeins(float[] mvpMatrix, float veinScale, float currentY, float pulse) {
-        // 3 líneas como "venas sangrientas"
-        GLES30.glLineWidth(2.0f);
+    private void updateAOTLayers(float pulse) {
+        float scale = size * (1.0f + pulse * 0.15f);
 
-        colorCache[0] = zombieVein[0];
-        colorCache[1] = zombieVein[1];
-        colorCache[2] = zombieVein[2];
-        colorCache[3] = 0.6f + pulse * 0.3f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
+        // 1. Glow verde cyan exterior (ojos de Eren brillando)
+        float glowPulse = 0.5f + pulse * 0.5f;
+        setGlowLayers(scale, AOT_GLOW_SCALE_OUTER, AOT_GLOW_SCALE_INNER, aotGlow,
+                0.12f * glowPulse, 0.22f * glowPulse);
 
-        float[][] veins = {
-            {-0.3f, 0.2f, 0.0f, -0.4f},
-            {0.3f, 0.2f, 0.0f, -0.3f},
-            {0.0f, 0.3f, 0.15f, -0.2f}
-        };
+        // 2. Corazón principal (brilla con pulse)
+        float intensity = 0.75f + pulse * 0.25f;
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, aotHeartMain[0] * intensity, aotHeartMain[1] * intensity,
+                aotHeartMain[2] * intensity, bodyAlpha(aotHeartMain[3]));
 
-        for (float[] vein : veins) {
-            float[] veinVerts = {vein[0], vein[1], vein[2], vein[3]};
-            ByteBuffer bb = ByteBuffer.allocateDirect(veinVerts.length * 4);
-            bb.order(ByteOrder.nativeOrder());
-            FloatBuffer veinBuffer = bb.asFloatBuffer();
-            veinBuffer.put(veinVerts);
-            veinBuffer.position(0);
-
-            android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-            android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-            android.opengl.Matrix.scaleM(modelMatrix, 0, veinScale, veinScale, 1);
-            android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-            GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-            GLES30.glEnableVertexAttribArray(positionHandleColor);
-            GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, veinBuffer);
-            GLES30.glDrawArrays(GLES30.GL_LINES, 0, 2);
-            GLES30.glDisableVertexAttribArray(positionHandleColor);
-        }
+        // 3. Borde rojo sangre (sangre de sacrificio)
+        float bloodPulse = (float) (Math.sin(pulsePhase * AOT_BLOOD_PULSE_SPEED) * 0.3 + 0.7);
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, aotBlood[0] * bloodPulse, aotBlood[1], aotBlood[2], aotBlood[3]);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
-    // ⚔️ CORAZÓN AOT - Attack on Titan (Ojos verdes de Eren)
+    // 🕷️ SPIDER HEART - Black Spider Horror (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    // Constantes AOT
-    private static final int AOT_GLOW_SEGMENTS = 32;
-    private static final float AOT_GLOW_SCALE_OUTER = 1.9f;
-    private static final float AOT_GLOW_SCALE_INNER = 1.5f;
-    private static final float AOT_BLOOD_PULSE_SPEED = 4.0f;  // Pulso rápido de sangre
-
-    // Colores AOT (con alpha)
-    private static final float[] aotHeartMain = {0.0f, 0.85f, 0.65f, 0.95f};  // Verde/Cyan (ojos de Eren)
-    private static final float[] aotGlow = {0.0f, 1.0f, 0.8f, 1.0f};          // Glow verde brillante
-    private static final float[] aotBlood = {0.85f, 0.15f, 0.15f, 0.8f};      // Rojo sangre
-
-    // Buffer reutilizable para AOT glow (evita memory leak)
-    private FloatBuffer aotGlowBuffer;
-    private boolean aotGlowBufferInitialized = false;
+    private void updateSpiderLayers(float pulse) {
+        float scale = size * (1.0f + pulse * SPIDER_PULSE_MULTIPLIER);
 
-    private void drawAOTHeartProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
-        float scale = size * (1.0f + pulse * 0.15f);
-        float currentY = y + floatOffset;
+        // 1. Glow rojo sangre (ojos de araña brillando en la oscuridad)
+        float glowPulse = 0.4f + pulse * 0.6f;
+        setGlowLayers(scale, SPIDER_GLOW_SCALE_OUTER, SPIDER_GLOW_SCALE_INNER, spiderGlow,
+                SPIDER_GLOW_ALPHA_OUTER * glowPulse, SPIDER_GLOW_ALPHA_INNER * glowPulse);
 
-        // 1. Glow verde cyan exterior (ojos de Eren)
-        if (!isOnCooldown) {
-            drawAOTGlow(mvpMatrix, scale * AOT_GLOW_SCALE_OUTER, 0.12f, pulse);
-            drawAOTGlow(mvpMatrix, scale * AOT_GLOW_SCALE_INNER, 0.22f, pulse);
-        }
+        // 2. Corazón principal - Rojo sangre (ojos de la araña)
+        float eyePulse = (float) (Math.sin(pulsePhase * SPIDER_PULSE_SPEED) * SPIDER_EYE_PULSE_AMP + SPIDER_EYE_PULSE_OFFSET);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, spiderHeartMain[0] * eyePulse, spiderHeartMain[1], spiderHeartMain[2],
+                bodyAlpha(spiderHeartMain[3]));
 
-        // 2. Corazón principal (verde/cyan como ojos de Eren)
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
+        // 3. Borde negro/púrpura oscuro (cuerpo de araña)
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, spiderDark[0], spiderDark[1], spiderDark[2], spiderDark[3]);
 
-        // Color del corazón AOT (brilla con pulse)
-        float intensity = 0.75f + pulse * 0.25f;
-        colorCache[0] = aotHeartMain[0] * intensity;
-        colorCache[1] = aotHeartMain[1] * intensity;
-        colorCache[2] = aotHeartMain[2] * intensity;
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : aotHeartMain[3]);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
+        // 4. Líneas de telaraña gris semi-transparente
+        float webPulse = (float) (Math.sin(pulsePhase * SPIDER_WEB_PULSE_SPEED) * 0.2 + 0.8);
+        setLayer(LAYER_EXTRA, scale * SPIDER_WEB_SCALE, 0f);
+        setLayerColor(LAYER_EXTRA, spiderWeb[0] * webPulse, spiderWeb[1] * webPulse, spiderWeb[2] * webPulse,
+                spiderWeb[3] * (0.3f + pulse * 0.3f));
+    }
 
-        heartBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, heartBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, heartBuffer.capacity() / 2);
+    // ═══════════════════════════════════════════════════════════════════════════
+    // TEXTURAS (ABYSSIA y PYRALIS)
+    // ═══════════════════════════════════════════════════════════════════════════
 
-        // 3. Borde rojo sangre (sangre de sacrificio)
-        if (!isOnCooldown) {
-            GLES30.glLineWidth(3.0f);
-            float bloodPulse = (float) (Math.sin(pulsePhase * AOT_BLOOD_PULSE_SPEED) * 0.3 + 0.7);
-            colorCache[0] = aotBlood[0] * bloodPulse;
-            colorCache[1] = aotBlood[1];
-            colorCache[2] = aotBlood[2];
-            colorCache[3] = aotBlood[3];
-            GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-            GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, heartBuffer.capacity() / 2 - 1);
+    private void updateTexturedGlowLayer(float pulse) {
+        float scale = size * (1.0f + pulse * 0.08f);
+        quadScale = scale;
+        quadAlpha = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.9f);
+        setLayer(LAYER_GLOW_OUTER, scale * 1.4f, 0f);
+        if (currentTheme == Theme.ABYSSIA) {
+            setLayerColor(LAYER_GLOW_OUTER, 0.4f, 0.8f, 1.0f, 0.25f * pulse);
+        } else {
+            setLayerColor(LAYER_GLOW_OUTER, 1.0f, 0.5f, 0.1f, 0.3f * pulse);
         }
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
     }
 
-    private void drawAOTGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-
-        // Inicializar buffer solo una vez (evita memory leak)
-        if (!aotGlowBufferInitialized) {
-            float[] glowVerts = new float[(AOT_GLOW_SEGMENTS + 2) * 2];
-            glowVerts[0] = 0f; glowVerts[1] = 0f;
-            for (int i = 0; i <= AOT_GLOW_SEGMENTS; i++) {
-                float angle = (float) (2.0 * Math.PI * i / AOT_GLOW_SEGMENTS);
-                glowVerts[(i + 1) * 2] = (float) Math.cos(angle);
-                glowVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-            }
-            ByteBuffer bb = ByteBuffer.allocateDirect(glowVerts.length * 4);
-            bb.order(ByteOrder.nativeOrder());
-            aotGlowBuffer = bb.asFloatBuffer();
-            aotGlowBuffer.put(glowVerts);
-            aotGlowBufferInitialized = true;
-        }
-        aotGlowBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Glow verde cyan pulsante (ojos de Eren brillando)
-        colorCache[0] = aotGlow[0];
-        colorCache[1] = aotGlow[1];
-        colorCache[2] = aotGlow[2];
-        colorCache[3] = alpha * (0.5f + pulse * 0.5f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, aotGlowBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, AOT_GLOW_SEGMENTS + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+    private void drawTexturedQuad(float[] mvpMatrix, int textureId) {
+        GLStateManager.get().useProgram(programIdTexture);
+        GLES30.glUniformMatrix4fv(mvpMatrixHandleTex, 1, false, mvpMatrix, 0);
+        GLES30.glUniform3f(xformHandleTex, x, currentY, quadScale);
+        GLES30.glUniform1f(alphaHandle, quadAlpha);
+        GLES30.glUniform1f(pulseHandle, framePulse);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLES30.glUniform1i(textureHandle, 0);
+        GLES30.glEnableVertexAttribArray(positionHandleTex);
+        GLES30.glVertexAttribPointer(positionHandleTex, 2, GLES30.GL_FLOAT, false, STRIDE_BYTES, 0);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLES, QUAD_FIRST, QUAD_COUNT);
+        GLES30.glDisableVertexAttribArray(positionHandleTex);
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
-    // 🕷️ SPIDER HEART - Black Spider Horror (Procedural)
+    // ❤️ CORAZÓN DEFAULT (Procedural)
     // ═══════════════════════════════════════════════════════════════════════════
 
-    private void drawSpiderHeartProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
-        float scale = size * (1.0f + pulse * SPIDER_PULSE_MULTIPLIER);
-        float currentY = y + floatOffset;
+    private void updateHeartLayers(float pulse) {
+        float scale = size * (1.0f + pulse * 0.12f);
 
-        // 1. Glow rojo sangre exterior (ojos de araña brillando)
-        if (!isOnCooldown) {
-            drawSpiderGlow(mvpMatrix, scale * SPIDER_GLOW_SCALE_OUTER, SPIDER_GLOW_ALPHA_OUTER, pulse);
-            drawSpiderGlow(mvpMatrix, scale * SPIDER_GLOW_SCALE_INNER, SPIDER_GLOW_ALPHA_INNER, pulse);
-        }
+        // Glow que alterna cyan ↔ rosa
+        float colorMix = (float) (Math.sin(pulsePhase * 2.5) * 0.5 + 0.5);
+        float r = glowCyan[0] * (1 - colorMix) + glowPink[0] * colorMix;
+        float g = glowCyan[1] * (1 - colorMix) + glowPink[1] * colorMix;
+        float b = glowCyan[2] * (1 - colorMix) + glowPink[2] * colorMix;
+        setLayer(LAYER_GLOW_OUTER, scale * 1.5f, 0f);
+        setLayer(LAYER_GLOW_INNER, scale * 1.3f, 0f);
+        setLayerColor(LAYER_GLOW_OUTER, r, g, b, 0.2f * 0.8f);
+        setLayerColor(LAYER_GLOW_INNER, r, g, b, 0.3f * 0.8f);
 
-        // 2. Corazón principal - Rojo sangre con borde negro
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
+        float[] color = isOnCooldown ? colorCooldown : (isPressed ? colorPressed : colorNormal);
+        setLayer(LAYER_BODY, scale, 0f);
+        setLayerColor(LAYER_BODY, color[0], color[1], color[2], color[3]);
 
-        // Color rojo sangre (ojos de la araña)
-        float eyePulse = (float) (Math.sin(pulsePhase * SPIDER_PULSE_SPEED) * SPIDER_EYE_PULSE_AMP + SPIDER_EYE_PULSE_OFFSET);
-        colorCache[0] = spiderHeartMain[0] * eyePulse;
-        colorCache[1] = spiderHeartMain[1];
-        colorCache[2] = spiderHeartMain[2];
-        colorCache[3] = isOnCooldown ? 0.4f : (isPressed ? 1.0f : spiderHeartMain[3]);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
+        float borderPulse = (float) (Math.sin(pulsePhase * 4.0) * 0.3 + 0.7);
+        setLayer(LAYER_DETAIL, scale, 0f);
+        setLayerColor(LAYER_DETAIL, glowCyan[0] * borderPulse + 0.3f, glowCyan[1] * borderPulse + 0.1f,
+                glowCyan[2] * borderPulse, 1.0f);
+    }
 
-        heartBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, heartBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, heartBuffer.capacity() / 2);
+    // ═══════════════════════════════════════════════════════════════════════════
+    // 🔨 HORNEADO DE GEOMETRÍA (una vez por proceso)
+    // ═══════════════════════════════════════════════════════════════════════════
 
-        // 3. Borde negro/púrpura oscuro (cuerpo de araña)
-        if (!isOnCooldown) {
-            GLES30.glLineWidth(SPIDER_BORDER_WIDTH);
-            colorCache[0] = spiderDark[0];
-            colorCache[1] = spiderDark[1];
-            colorCache[2] = spiderDark[2];
-            colorCache[3] = spiderDark[3];
-            GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-            GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, heartBuffer.capacity() / 2 - 1);
+    /** Anillo cerrado (el último punto repite el primero) de radio 1 */
+    private static float[] circleRing(int segments) {
+        float[] ring = new float[(segments + 1) * 2];
+        for (int i = 0; i <= segments; i++) {
+            float angle = (float) (2.0 * Math.PI * i / segments);
+            ring[i * 2] = (float) Math.cos(angle);
+            ring[i * 2 + 1] = (float) Math.sin(angle);
         }
+        return ring;
+    }
 
-        // 4. Líneas de telaraña sutiles (efecto decorativo)
-        if (!isOnCooldown) {
-            drawSpiderWebLines(mvpMatrix, scale * SPIDER_WEB_SCALE, pulse);
+    /** Semicírculo superior (0..π) o inferior (π..2π), 20 segmentos */
+    private static float[] halfCircleRing(boolean isTop) {
+        int segments = 20;
+        float startAngle = isTop ? 0f : (float) Math.PI;
+        float[] ring = new float[(segments + 1) * 2];
+        for (int i = 0; i <= segments; i++) {
+            float angle = startAngle + (float) Math.PI * i / segments;
+            ring[i * 2] = (float) Math.cos(angle);
+            ring[i * 2 + 1] = (float) Math.sin(angle);
         }
-
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        return ring;
     }
 
-    private void drawSpiderGlow(float[] mvpMatrix, float glowSize, float alpha, float pulse) {
-        float currentY = y + floatOffset;
-
-        // Inicializar buffer solo una vez (evita memory leak)
-        if (!spiderGlowBufferInitialized) {
-            float[] glowVerts = new float[(SPIDER_GLOW_SEGMENTS + 2) * 2];
-            glowVerts[0] = 0f; glowVerts[1] = 0f;
-            for (int i = 0; i <= SPIDER_GLOW_SEGMENTS; i++) {
-                float angle = (float) (2.0 * Math.PI * i / SPIDER_GLOW_SEGMENTS);
-                glowVerts[(i + 1) * 2] = (float) Math.cos(angle);
-                glowVerts[(i + 1) * 2 + 1] = (float) Math.sin(angle);
-            }
-            ByteBuffer bb = ByteBuffer.allocateDirect(glowVerts.length * 4);
-            bb.order(ByteOrder.nativeOrder());
-            spiderGlowBuffer = bb.asFloatBuffer();
-            spiderGlowBuffer.put(glowVerts);
-            spiderGlowBufferInitialized = true;
+    /** Corazón paramétrico clásico, 64 segmentos (centro del abanico en 0,-0.1) */
+    private static float[] heartRing() {
+        int segments = 64;
+        float[] ring = new float[(segments + 1) * 2];
+        for (int i = 0; i <= segments; i++) {
+            float t = (float) (2.0 * Math.PI * i / segments);
+            float hx = (float) (16.0 * Math.pow(Math.sin(t), 3));
+            float hy = (float) (13.0 * Math.cos(t) - 5.0 * Math.cos(2*t) - 2.0 * Math.cos(3*t) - Math.cos(4*t));
+            ring[i * 2] = hx / 17.0f;
+            ring[i * 2 + 1] = hy / 17.0f;
         }
-        spiderGlowBuffer.position(0);
-
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-
-        // Glow rojo pulsante (ojos de araña brillando en la oscuridad)
-        colorCache[0] = spiderGlow[0];
-        colorCache[1] = spiderGlow[1];
-        colorCache[2] = spiderGlow[2];
-        colorCache[3] = alpha * (0.4f + pulse * 0.6f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
+        return ring;
+    }
 
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, spiderGlowBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, SPIDER_GLOW_SEGMENTS + 2);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+    /** 💎 Gema de Ooo: diamante de 6 puntas típico de Adventure Time */
+    private static float[] gemRing() {
+        return new float[] {
+            0.0f, 1.0f,     // Punta superior
+            0.6f, 0.5f,     // Esquina superior derecha
+            0.6f, -0.3f,    // Esquina inferior derecha
+            0.0f, -0.8f,    // Punta inferior
+            -0.6f, -0.3f,   // Esquina inferior izquierda
+            -0.6f, 0.5f,    // Esquina superior izquierda
+            0.0f, 1.0f      // Cerrar
+        };
     }
 
-    private void drawSpiderWebLines(float[] mvpMatrix, float webSize, float pulse) {
-        float currentY = y + floatOffset;
-
-        // 🔧 FIX: Inicializar buffer solo una vez (evita memory leak)
-        if (!spiderWebBufferInitialized) {
-            float[] webLines = {
-                -SPIDER_WEB_DIAGONAL, -SPIDER_WEB_DIAGONAL,  SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL,   // Diagonal 1
-                -SPIDER_WEB_DIAGONAL, SPIDER_WEB_DIAGONAL,   SPIDER_WEB_DIAGONAL, -SPIDER_WEB_DIAGONAL,  // Diagonal 2
-                0.0f, -SPIDER_WEB_CROSS,   0.0f, SPIDER_WEB_CROSS,   // Vertical
-                -SPIDER_WEB_CROSS, 0.0f,   SPIDER_WEB_CROSS, 0.0f    // Horizontal
-            };
-            ByteBuffer bb = ByteBuffer.allocateDirect(webLines.length * 4);
-            bb.order(ByteOrder.nativeOrder());
-            spiderWebBuffer = bb.asFloatBuffer();
-            spiderWebBuffer.put(webLines);
-            spiderWebBufferInitialized = true;
+    /** Estrella de 5 puntas cerrada (puntas largas y cortas alternadas) */
+    private static float[] starRing(float cx, float cy, float radius) {
+        int points = 5;
+        float[] ring = new float[(points * 2 + 1) * 2];
+        for (int i = 0; i <= points * 2; i++) {
+            float angle = (float) (Math.PI / 2 + 2.0 * Math.PI * i / (points * 2));
+            float r = ((i % 2 == 0) ? 1.0f : 0.4f) * radius;
+            ring[i * 2] = cx + (float) Math.cos(angle) * r;
+            ring[i * 2 + 1] = cy + (float) Math.sin(angle) * r;
         }
-        spiderWebBuffer.position(0);
+        return ring;
+    }
 
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, webSize, webSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
+    /**
+     * Acumula vértices (x, y, capa). Los abanicos y contornos se convierten a
+     * GL_TRIANGLES / GL_LINES para poder concatenar varias formas en un solo draw.
+     */
+    private static final class GeometryBaker {
+        private float[] data = new float[4096];
+        private int floats = 0;
 
-        // Líneas de telaraña gris semi-transparente
-        float webPulse = (float) (Math.sin(pulsePhase * SPIDER_WEB_PULSE_SPEED) * 0.2 + 0.8);
-        colorCache[0] = spiderWeb[0] * webPulse;
-        colorCache[1] = spiderWeb[1] * webPulse;
-        colorCache[2] = spiderWeb[2] * webPulse;
-        colorCache[3] = spiderWeb[3] * (0.3f + pulse * 0.3f);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-
-        // Dibujar 4 líneas como telaraña
-        GLES30.glLineWidth(1.0f);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, spiderWebBuffer);
-        GLES30.glDrawArrays(GLES30.GL_LINES, 0, 8);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
+        int vertexCount() {
+            return floats / FLOATS_PER_VERTEX;
+        }
 
-    // ═══════════════════════════════════════════════════════════════════════════
-    // TEXTURAS (ABYSSIA y PYRALIS)
-    // ═══════════════════════════════════════════════════════════════════════════
+        void vertex(float px, float py, int layer) {
+            if (floats + FLOATS_PER_VERTEX > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            data[floats++] = px;
+            data[floats++] = py;
+            data[floats++] = layer;
+        }
 
-    private void drawTexturedButton(float[] mvpMatrix, float pulse) {
-        int textureId = (currentTheme == Theme.ABYSSIA) ? textureAbyssia : textureFireOrb;
-        if (textureId <= 0) return;
-        float alpha = isOnCooldown ? 0.4f : (isPressed ? 1.0f : 0.9f);
-        float scale = size * (1.0f + pulse * 0.08f);
-        float currentY = y + floatOffset;
-        drawGlow(mvpMatrix, scale * 1.4f, pulse);
-        GLES30.glUseProgram(programIdTexture);
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleTex, 1, false, finalMatrix, 0);
-        GLES30.glUniform1f(alphaHandle, alpha);
-        GLES30.glUniform1f(pulseHandle, pulse);
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
-        GLES30.glUniform1i(textureHandle, 0);
-        quadBuffer.position(0);
-        GLES30.glEnableVertexAttribArray(positionHandleTex);
-        GLES30.glVertexAttribPointer(positionHandleTex, 2, GLES30.GL_FLOAT, false, 16, quadBuffer);
-        quadBuffer.position(2);
-        GLES30.glEnableVertexAttribArray(texCoordHandle);
-        GLES30.glVertexAttribPointer(texCoordHandle, 2, GLES30.GL_FLOAT, false, 16, quadBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-        GLES30.glDisableVertexAttribArray(positionHandleTex);
-        GLES30.glDisableVertexAttribArray(texCoordHandle);
-    }
+        void fan(float cx, float cy, float[] ring, int layer) {
+            int n = ring.length / 2;
+            for (int i = 0; i < n - 1; i++) {
+                vertex(cx, cy, layer);
+                vertex(ring[i * 2], ring[i * 2 + 1], layer);
+                vertex(ring[i * 2 + 2], ring[i * 2 + 3], layer);
+            }
+        }
 
-    private void drawGlow(float[] mvpMatrix, float glowSize, float pulse) {
-        if (isOnCooldown) return;
-        GLES30.glUseProgram(programIdColor);
-        float currentY = y + floatOffset;
-        // 🔧 FIX GC: Reuse colorCache instead of allocating new float[] per frame
-        if (currentTheme == Theme.ABYSSIA) {
-            colorCache[0] = 0.4f; colorCache[1] = 0.8f; colorCache[2] = 1.0f; colorCache[3] = 0.25f * pulse;
-        } else {
-            colorCache[0] = 1.0f; colorCache[1] = 0.5f; colorCache[2] = 0.1f; colorCache[3] = 0.3f * pulse;
+        void outline(float[] ring, int layer) {
+            int n = ring.length / 2;
+            for (int i = 0; i < n - 1; i++) {
+                segment(ring[i * 2], ring[i * 2 + 1], ring[i * 2 + 2], ring[i * 2 + 3], layer);
+            }
         }
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        drawCircle();
-    }
 
-    private void drawCircle() {
-        // 🔧 FIX GC: Use pre-computed circle buffer (was allocating float[68] + ByteBuffer per frame)
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, circleBufferCached);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 34); // 32 segments + 2
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
+        void segment(float x0, float y0, float x1, float y1, int layer) {
+            vertex(x0, y0, layer);
+            vertex(x1, y1, layer);
+        }
 
-    // ═══════════════════════════════════════════════════════════════════════════
-    // CORAZÓN DEFAULT (Procedural)
-    // ═══════════════════════════════════════════════════════════════════════════
+        void rect(float x0, float y0, float x1, float y1, int layer) {
+            vertex(x0, y0, layer);
+            vertex(x1, y0, layer);
+            vertex(x0, y1, layer);
+            vertex(x0, y1, layer);
+            vertex(x1, y0, layer);
+            vertex(x1, y1, layer);
+        }
 
-    private void drawHeartProcedural(float[] mvpMatrix, float pulse) {
-        GLES30.glUseProgram(programIdColor);
-        float scale = size * (1.0f + pulse * 0.12f);
-        float currentY = y + floatOffset;
-        if (!isOnCooldown) {
-            drawHeartGlow(mvpMatrix, scale * 1.5f, 0.2f);
-            drawHeartGlow(mvpMatrix, scale * 1.3f, 0.3f);
+        DrawPass fillPass(int first, int cooldownSkip) {
+            return new DrawPass(GLES30.GL_TRIANGLES, first, vertexCount() - first, cooldownSkip, 0f, false);
         }
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, scale, scale, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-        float[] color = isOnCooldown ? colorCooldown : (isPressed ? colorPressed : colorNormal);
-        GLES30.glUniform4fv(colorHandle, 1, color, 0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, heartBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 66);
-        float borderPulse = (float) (Math.sin(pulsePhase * 4.0) * 0.3 + 0.7);
-        colorCache[0] = glowCyan[0] * borderPulse + 0.3f;
-        colorCache[1] = glowCyan[1] * borderPulse + 0.1f;
-        colorCache[2] = glowCyan[2] * borderPulse;
-        colorCache[3] = 1.0f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        GLES30.glLineWidth(3.0f);
-        GLES30.glDrawArrays(GLES30.GL_LINE_LOOP, 1, 65);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
-    }
 
-    private void drawHeartGlow(float[] mvpMatrix, float glowSize, float alpha) {
-        float currentY = y + floatOffset;
-        android.opengl.Matrix.setIdentityM(modelMatrix, 0);
-        android.opengl.Matrix.translateM(modelMatrix, 0, x, currentY, 0);
-        android.opengl.Matrix.scaleM(modelMatrix, 0, glowSize, glowSize, 1);
-        android.opengl.Matrix.multiplyMM(finalMatrix, 0, mvpMatrix, 0, modelMatrix, 0);
-        GLES30.glUniformMatrix4fv(mvpMatrixHandleColor, 1, false, finalMatrix, 0);
-        float colorMix = (float) (Math.sin(pulsePhase * 2.5) * 0.5 + 0.5);
-        colorCache[0] = glowCyan[0] * (1 - colorMix) + glowPink[0] * colorMix;
-        colorCache[1] = glowCyan[1] * (1 - colorMix) + glowPink[1] * colorMix;
-        colorCache[2] = glowCyan[2] * (1 - colorMix) + glowPink[2] * colorMix;
-        colorCache[3] = alpha * 0.8f;
-        GLES30.glUniform4fv(colorHandle, 1, colorCache, 0);
-        GLES30.glEnableVertexAttribArray(positionHandleColor);
-        GLES30.glVertexAttribPointer(positionHandleColor, 2, GLES30.GL_FLOAT, false, 0, heartBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 66);
-        GLES30.glDisableVertexAttribArray(positionHandleColor);
+        DrawPass linePass(int first, float lineWidth, boolean hideOnCooldown) {
+            return new DrawPass(GLES30.GL_LINES, first, vertexCount() - first, 0, lineWidth, hideOnCooldown);
+        }
+
+        float[] toArray() {
+            return Arrays.copyOf(data, floats);
+        }
     }
 
     // ═══════════════════════════════════════════════════════════════════════════
@@ -1429,10 +1030,14 @@ public class LikeButton {
     }
 
     public void cleanup() {
-        if (programIdTexture != 0) GLES30.glDeleteProgram(programIdTexture);
-        if (programIdColor != 0) GLES30.glDeleteProgram(programIdColor);
-        if (textureAbyssia > 0) GLES30.glDeleteTextures(1, new int[]{textureAbyssia}, 0);
-        if (textureFireOrb > 0) GLES30.glDeleteTextures(1, new int[]{textureFireOrb}, 0);
+        if (programIdTexture != 0) GLStateManager.get().deleteProgram(programIdTexture);
+        if (programIdColor != 0) GLStateManager.get().deleteProgram(programIdColor);
+        if (vboHandle[0] != 0) {
+            GLStateManager.get().deleteBuffers(1, vboHandle, 0);
+            vboHandle[0] = 0;
+        }
+        if (textureAbyssia > 0) GLStateManager.get().deleteTextures(1, new int[]{textureAbyssia}, 0);
+        if (textureFireOrb > 0) GLStateManager.get().deleteTextures(1, new int[]{textureFireOrb}, 0);
         isInitialized = false;
     }
 }
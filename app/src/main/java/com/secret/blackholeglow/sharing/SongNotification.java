@@ -4,6 +4,11 @@ import android.content.Context;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+import com.secret.blackholeglow.text.TextMesh;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -79,9 +84,13 @@ public class SongNotification {
     private int mvpMatrixHandle;
     private int colorHandle;
 
-    // Texto a mostrar (simplificado - en producción usaríamos SimpleTextRenderer)
+    // Texto a mostrar (atlas SDF compartido: cambiar de canción no sube texturas)
     private String displayUserName = "";
     private String displaySongTitle = "";
+    private TextMesh textMesh;
+    private boolean textDirty = true;
+    private static final int COLOR_USER = 0xFFFF64C8;   // Rosa
+    private static final int COLOR_TITLE = 0xFFFFFFFF;
 
     public SongNotification() {
         // Constructor vacío
@@ -110,6 +119,10 @@ public class SongNotification {
         // Crear geometría del rectángulo redondeado (simplificado como rectángulo)
         createRoundedRectGeometry();
 
+        // Usuario + título en una sola malla (un draw call)
+        textMesh = new TextMesh(SdfFont.get(SdfFont.Face.SANS_BOLD, SdfFont.SizeClass.UI), 96);
+        textMesh.setOutline(0xC0000000, 0.06f);
+
         isInitialized = true;
         Log.d(TAG, "🎵 SongNotification inicializado");
     }
@@ -150,6 +163,7 @@ public class SongNotification {
         currentSong = song;
         displayUserName = song.getUserName();
         displaySongTitle = song.getSongTitle();
+        textDirty = true;
         startTime = System.currentTimeMillis();
         isVisible = true;
         alpha = 0.1f;  // Empezar con algo de visibilidad
@@ -186,6 +200,7 @@ public class SongNotification {
             startTime = System.currentTimeMillis();
             displayUserName = currentSong.getUserName();
             displaySongTitle = currentSong.getSongTitle();
+            textDirty = true;
         }
     }
 
@@ -209,11 +224,11 @@ public class SongNotification {
 
         update();
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Habilitar blending para transparencia
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Calcular matriz de transformación (⚡ OPTIMIZADO: usar caches)
         android.opengl.Matrix.setIdentityM(modelMatrixCache, 0);
@@ -225,8 +240,27 @@ public class SongNotification {
         // Pasar matriz
         GLES30.glUniformMatrix4fv(mvpMatrixHandle, 1, false, finalMatrixCache, 0);
 
-        // NO dibujar nada - solo el texto (se dibuja desde SceneRenderer)
-        // El fondo y borde están ocultos para un look más limpio
+        // Solo el texto: el fondo y borde están ocultos para un look más limpio
+        if (textDirty || textMesh.needsRebuild()) {
+            rebuildText();
+        }
+        SdfTextRenderer.get().draw(textMesh, alpha);
+    }
+
+    /**
+     * ✍️ Reescribe los quads de usuario y título (solo al cambiar de canción)
+     */
+    private void rebuildText() {
+        textMesh.clear();
+        if (displayUserName != null && !displayUserName.isEmpty()) {
+            textMesh.add(displayUserName, x, y + height * 0.22f, height * 0.3f,
+                    TextMesh.ALIGN_CENTER, width, COLOR_USER);
+        }
+        if (displaySongTitle != null && !displaySongTitle.isEmpty()) {
+            textMesh.add(displaySongTitle, x, y - height * 0.2f, height * 0.38f,
+                    TextMesh.ALIGN_CENTER, width, COLOR_TITLE);
+        }
+        textDirty = false;
     }
 
     /**
@@ -259,7 +293,7 @@ public class SongNotification {
         // Dibujar el indicador
         GLES30.glEnableVertexAttribArray(positionHandle);
         GLES30.glVertexAttribPointer(positionHandle, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
         GLES30.glDisableVertexAttribArray(positionHandle);
     }
 
@@ -304,8 +338,11 @@ public class SongNotification {
      * 🗑️ Libera recursos
      */
     public void cleanup() {
+        if (textMesh != null) {
+            textMesh.release();
+        }
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
         }
         isInitialized = false;
@@ -11,11 +11,12 @@ import android.graphics.PorterDuffXfermode;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.os.Handler;
 import android.os.Looper;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.io.InputStream;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -300,7 +301,7 @@ public class UserAvatar {
         // Eliminar textura anterior
         if (textureId != -1) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
         }
 
         // Crear nueva textura
@@ -308,13 +309,13 @@ public class UserAvatar {
         GLES30.glGenTextures(1, textureIds, 0);
         textureId = textureIds[0];
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
 
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, pendingBitmap, 0);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, pendingBitmap, 0);
 
         pendingBitmap.recycle();
         pendingBitmap = null;
@@ -331,11 +332,11 @@ public class UserAvatar {
 
         if (textureId == -1) return;
 
-        GLES30.glUseProgram(programId);
+        GLStateManager.get().useProgram(programId);
 
         // Habilitar blending
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Matriz de transformación
         float[] modelMatrix = new float[16];
@@ -349,8 +350,8 @@ public class UserAvatar {
         GLES30.glUniformMatrix4fv(mvpMatrixHandle, 1, false, finalMatrix, 0);
 
         // Textura
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
         GLES30.glUniform1i(textureHandle, 0);
 
         // Vértices
@@ -361,7 +362,7 @@ public class UserAvatar {
         GLES30.glVertexAttribPointer(texCoordHandle, 2, GLES30.GL_FLOAT, false, 0, texCoordBuffer);
 
         // Dibujar
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_FAN, 0, 4);
 
         GLES30.glDisableVertexAttribArray(positionHandle);
         GLES30.glDisableVertexAttribArray(texCoordHandle);
@@ -398,11 +399,11 @@ public class UserAvatar {
     public void cleanup() {
         if (textureId != -1) {
             int[] textures = {textureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             textureId = -1;
         }
         if (programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             programId = 0;
         }
         executor.shutdown();
@@ -0,0 +1,34 @@
+package com.secret.blackholeglow.systems;
+
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueuedOperation;
+
+import java.util.List;
+
+/**
+ * BatchCommitter - Destino de los batches de FirebaseQueueManager
+ *
+ * La implementación real es FirestoreBatchCommitter (WriteBatch de Firestore).
+ * Un fake local permite probar la cola o medirla con miles de operaciones
+ * sin red: new FirebaseQueueManager(fake, dir, uidSupplier) en tests JVM
+ * (ver FirebaseQueueManagerTest), o setCommitter(fake) sobre el singleton.
+ */
+public interface BatchCommitter {
+
+    /**
+     * Resultado de un commit. Se puede invocar desde cualquier hilo,
+     * incluso de forma síncrona dentro de commit().
+     */
+    interface Callback {
+        /** La operación no se pudo preparar y quedó fuera del batch */
+        void onRejected(QueuedOperation op, String error);
+        /** El batch se escribió: todas las operaciones incluidas */
+        void onSuccess(List<QueuedOperation> committed);
+        /** El batch falló completo */
+        void onFailure(List<QueuedOperation> attempted, String error);
+    }
+
+    /**
+     * Prepara y envía las operaciones como un solo batch.
+     */
+    void commit(List<QueuedOperation> operations, Callback callback);
+}
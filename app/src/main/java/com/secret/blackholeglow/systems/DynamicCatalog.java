@@ -2,6 +2,8 @@ package com.secret.blackholeglow.systems;
 
 import android.content.Context;
 import android.content.SharedPreferences;
+import android.util.JsonReader;
+import android.util.JsonToken;
 import android.util.Log;
 
 import com.secret.blackholeglow.R;
@@ -12,13 +14,20 @@ import com.secret.blackholeglow.models.WallpaperItem;
 import com.secret.blackholeglow.models.WallpaperTier;
 import com.secret.blackholeglow.video.VideoConfig;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.StringReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -29,6 +38,11 @@ import java.util.List;
  * 1. Upload assets to Supabase
  * 2. Edit dynamic_catalog.json
  * 3. Wallpaper appears in app automatically
+ *
+ * Refresh is conditional (If-None-Match / If-Modified-Since): a 304 costs only
+ * the round trip. A 200 is parsed as a stream with JsonReader straight into
+ * DynamicEntry objects and saved as a compact binary file (dynamic_catalog.bin)
+ * that loads on cold start without any JSON parsing.
  */
 public class DynamicCatalog {
     private static final String TAG = "DynamicCatalog";
@@ -40,12 +54,19 @@ public class DynamicCatalog {
 
     private static final String CATALOG_URL = SUPABASE_IMAGES_URL + "dynamic_catalog.json";
     private static final String PREFS_NAME = "dynamic_catalog_cache";
-    private static final String KEY_JSON = "catalog_json";
+    private static final String KEY_JSON = "catalog_json";  // Legacy cache (migrated to binary)
     private static final String KEY_TIMESTAMP = "catalog_timestamp";
-    private static final long CACHE_TTL_MS = 6 * 60 * 60 * 1000; // 6 hours
+    private static final String KEY_ETAG = "catalog_etag";
+    private static final String KEY_LAST_MODIFIED = "catalog_last_modified";
+    private static final long CACHE_TTL_MS = 60 * 60 * 1000; // 1 hour (conditional refresh is cheap)
+
+    private static final String CACHE_FILE = "dynamic_catalog.bin";
+    private static final int CACHE_MAGIC = 0x44434231; // "DCB1"
+    private static final int CACHE_VERSION = 1;
+    private static final int MAX_CACHED_ENTRIES = 10_000;  // Anything above is a corrupt header
 
     private static DynamicCatalog instance;
-    private List<DynamicEntry> cachedEntries;
+    private volatile List<DynamicEntry> cachedEntries;
     private boolean resourcesRegistered = false;
 
     public static synchronized DynamicCatalog get() {
@@ -71,23 +92,71 @@ public class DynamicCatalog {
         public final int sortOrder;
         public final WallpaperCategory category;
 
-        DynamicEntry(JSONObject json) {
-            this.id = json.optString("id", "");
-            this.type = json.optString("type", "IMAGE");
-            this.name = json.optString("name", "Dynamic");
-            this.description = json.optString("description", "");
-            this.imageFile = json.optString("imageFile", null);
-            this.videoFile = json.optString("videoFile", null);
-            this.previewFile = json.optString("previewFile", null);
-            this.imageSize = json.optLong("imageSize", 0);
-            this.videoSize = json.optLong("videoSize", 0);
-            this.previewSize = json.optLong("previewSize", 0);
-            this.badge = json.optString("badge", null);
-            this.sortOrder = json.optInt("sortOrder", 99);
-            this.category = WallpaperCategory.fromString(json.optString("category", "MISC"));
-
-            // Parse hex color string like "#FF8800"
-            String colorStr = json.optString("glowColor", "#FFFFFF");
+        DynamicEntry(String id, String type, String name, String description,
+                     String imageFile, String videoFile, String previewFile,
+                     long imageSize, long videoSize, long previewSize,
+                     int glowColor, String badge, int sortOrder, WallpaperCategory category) {
+            this.id = id;
+            this.type = type;
+            this.name = name;
+            this.description = description;
+            this.imageFile = imageFile;
+            this.videoFile = videoFile;
+            this.previewFile = previewFile;
+            this.imageSize = imageSize;
+            this.videoSize = videoSize;
+            this.previewSize = previewSize;
+            this.glowColor = glowColor;
+            this.badge = badge;
+            this.sortOrder = sortOrder;
+            this.category = category;
+        }
+
+        /**
+         * Streams one catalog object. Unknown fields are skipped; missing ones keep defaults.
+         */
+        static DynamicEntry read(JsonReader reader) throws IOException {
+            String id = "", type = "IMAGE", name = "Dynamic", description = "";
+            String imageFile = null, videoFile = null, previewFile = null, badge = null;
+            long imageSize = 0, videoSize = 0, previewSize = 0;
+            int sortOrder = 99;
+            String category = "MISC";
+            String colorStr = "#FFFFFF";
+
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String field = reader.nextName();
+                if (reader.peek() == JsonToken.NULL) {
+                    reader.skipValue();
+                    continue;
+                }
+                switch (field) {
+                    case "id": id = reader.nextString(); break;
+                    case "type": type = reader.nextString(); break;
+                    case "name": name = reader.nextString(); break;
+                    case "description": description = reader.nextString(); break;
+                    case "imageFile": imageFile = reader.nextString(); break;
+                    case "videoFile": videoFile = reader.nextString(); break;
+                    case "previewFile": previewFile = reader.nextString(); break;
+                    case "imageSize": imageSize = reader.nextLong(); break;
+                    case "videoSize": videoSize = reader.nextLong(); break;
+                    case "previewSize": previewSize = reader.nextLong(); break;
+                    case "badge": badge = reader.nextString(); break;
+                    case "sortOrder": sortOrder = reader.nextInt(); break;
+                    case "category": category = reader.nextString(); break;
+                    case "glowColor": colorStr = reader.nextString(); break;
+                    default: reader.skipValue(); break;
+                }
+            }
+            reader.endObject();
+
+            return new DynamicEntry(id, type, name, description, imageFile, videoFile, previewFile,
+                    imageSize, videoSize, previewSize, parseColor(colorStr), badge, sortOrder,
+                    WallpaperCategory.fromString(category));
+        }
+
+        /** Parse hex color string like "#FF8800" */
+        private static int parseColor(String colorStr) {
             int parsed = 0xFFFFFFFF;
             try {
                 if (colorStr.startsWith("#")) {
@@ -96,7 +165,41 @@ public class DynamicCatalog {
             } catch (NumberFormatException e) {
                 Log.w(TAG, "Invalid glowColor: " + colorStr);
             }
-            this.glowColor = parsed;
+            return parsed;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeUTF(id);
+            out.writeUTF(type);
+            out.writeUTF(name);
+            out.writeUTF(description);
+            writeNullable(out, imageFile);
+            writeNullable(out, videoFile);
+            writeNullable(out, previewFile);
+            out.writeLong(imageSize);
+            out.writeLong(videoSize);
+            out.writeLong(previewSize);
+            out.writeInt(glowColor);
+            writeNullable(out, badge);
+            out.writeInt(sortOrder);
+            out.writeUTF(category.name());
+        }
+
+        static DynamicEntry readFrom(DataInputStream in) throws IOException {
+            return new DynamicEntry(in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                    readNullable(in), readNullable(in), readNullable(in),
+                    in.readLong(), in.readLong(), in.readLong(),
+                    in.readInt(), readNullable(in), in.readInt(),
+                    WallpaperCategory.fromString(in.readUTF()));
+        }
+
+        private static void writeNullable(DataOutputStream out, String value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) out.writeUTF(value);
+        }
+
+        private static String readNullable(DataInputStream in) throws IOException {
+            return in.readBoolean() ? in.readUTF() : null;
         }
 
         /** Scene name used in SceneFactory / WallpaperPreferences */
@@ -107,38 +210,51 @@ public class DynamicCatalog {
 
     /**
      * Refresh catalog from Supabase. Call from background thread.
+     * Conditional request: 304 Not Modified only bumps the timestamp.
      * @return true if new data was fetched
      */
     public boolean refresh(Context context) {
+        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        File cacheFile = getCacheFile(context);
+        HttpURLConnection conn = null;
         try {
-            HttpURLConnection conn = (HttpURLConnection) new URL(CATALOG_URL).openConnection();
+            conn = (HttpURLConnection) new URL(CATALOG_URL).openConnection();
             conn.setConnectTimeout(10_000);
             conn.setReadTimeout(10_000);
             conn.setRequestProperty("Cache-Control", "no-cache");
 
+            // Validators only make sense if we still have the data they describe
+            if (cacheFile.exists()) {
+                String etag = prefs.getString(KEY_ETAG, null);
+                String lastModified = prefs.getString(KEY_LAST_MODIFIED, null);
+                if (etag != null) conn.setRequestProperty("If-None-Match", etag);
+                if (lastModified != null) conn.setRequestProperty("If-Modified-Since", lastModified);
+            }
+
             int code = conn.getResponseCode();
+            if (code == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                prefs.edit().putLong(KEY_TIMESTAMP, System.currentTimeMillis()).apply();
+                Log.d(TAG, "Catalog not modified (304)");
+                return false;
+            }
             if (code != 200) {
                 Log.w(TAG, "HTTP " + code + " fetching catalog");
                 return false;
             }
 
-            StringBuilder sb = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    sb.append(line);
-                }
+            List<DynamicEntry> entries;
+            try (InputStream in = new BufferedInputStream(conn.getInputStream())) {
+                entries = parseJson(in);
             }
-
-            String json = sb.toString();
-            List<DynamicEntry> entries = parseJson(json);
             if (entries == null) return false;
 
             // Cache it
-            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            writeBinaryCache(cacheFile, entries);
             prefs.edit()
-                .putString(KEY_JSON, json)
+                .putString(KEY_ETAG, conn.getHeaderField("ETag"))
+                .putString(KEY_LAST_MODIFIED, conn.getHeaderField("Last-Modified"))
                 .putLong(KEY_TIMESTAMP, System.currentTimeMillis())
+                .remove(KEY_JSON)
                 .apply();
 
             cachedEntries = entries;
@@ -151,6 +267,8 @@ public class DynamicCatalog {
         } catch (Exception e) {
             Log.w(TAG, "Error refreshing catalog: " + e.getMessage());
             return false;
+        } finally {
+            if (conn != null) conn.disconnect();
         }
     }
 
@@ -163,15 +281,24 @@ public class DynamicCatalog {
             return cachedEntries;
         }
 
-        // Load from SharedPreferences
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        String json = prefs.getString(KEY_JSON, null);
-        if (json == null) return new ArrayList<>();
+        // Load from binary cache (no JSON parsing)
+        File cacheFile = getCacheFile(context);
+        List<DynamicEntry> entries = readBinaryCache(context, cacheFile);
 
-        cachedEntries = parseJson(json);
-        if (cachedEntries == null) {
-            cachedEntries = new ArrayList<>();
+        // Migrate legacy JSON cache from SharedPreferences (one time)
+        if (entries == null) {
+            SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+            String json = prefs.getString(KEY_JSON, null);
+            if (json != null) {
+                entries = parseJson(json);
+                if (entries != null) {
+                    writeBinaryCache(cacheFile, entries);
+                }
+                prefs.edit().remove(KEY_JSON).apply();
+            }
         }
+
+        cachedEntries = entries != null ? entries : new ArrayList<>();
         ensureResourcesRegistered();
         return cachedEntries;
     }
@@ -203,6 +330,7 @@ public class DynamicCatalog {
                 .weight(SceneWeight.LIGHT)
                 .remotePreview(entry.previewFile)
                 .category(entry.category)
+                .sortOrder(entry.sortOrder)
                 .featured()
                 .build());
         }
@@ -235,23 +363,113 @@ public class DynamicCatalog {
     // INTERNAL
     // =========================================================================
 
-    private List<DynamicEntry> parseJson(String json) {
-        try {
-            JSONObject root = new JSONObject(json);
-            JSONArray arr = root.optJSONArray("wallpapers");
-            if (arr == null) return null;
+    private List<DynamicEntry> parseJson(InputStream in) {
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            return readCatalog(reader);
+        } catch (Exception e) {
+            Log.e(TAG, "Error parsing catalog JSON: " + e.getMessage());
+            return null;
+        }
+    }
 
-            List<DynamicEntry> entries = new ArrayList<>();
-            for (int i = 0; i < arr.length(); i++) {
-                entries.add(new DynamicEntry(arr.getJSONObject(i)));
-            }
-            return entries;
+    private List<DynamicEntry> parseJson(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            return readCatalog(reader);
         } catch (Exception e) {
             Log.e(TAG, "Error parsing catalog JSON: " + e.getMessage());
             return null;
         }
     }
 
+    /**
+     * Streams { "wallpapers": [ {...}, ... ] } without building a DOM.
+     * @return null if there is no "wallpapers" array
+     */
+    private List<DynamicEntry> readCatalog(JsonReader reader) throws IOException {
+        List<DynamicEntry> entries = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if ("wallpapers".equals(reader.nextName()) && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                entries = new ArrayList<>();
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entries.add(DynamicEntry.read(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return entries;
+    }
+
+    private File getCacheFile(Context context) {
+        return new File(context.getFilesDir(), CACHE_FILE);
+    }
+
+    /**
+     * Writes entries to the binary cache (tmp + rename, so a crash never leaves half a file).
+     */
+    private void writeBinaryCache(File file, List<DynamicEntry> entries) {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeInt(entries.size());
+            for (DynamicEntry entry : entries) {
+                entry.writeTo(out);
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error writing catalog cache: " + e.getMessage());
+            tmp.delete();
+            return;
+        }
+        if (!tmp.renameTo(file)) {
+            Log.e(TAG, "Error replacing catalog cache");
+            tmp.delete();
+        }
+    }
+
+    /**
+     * @return cached entries, or null if missing/corrupt/other version
+     */
+    private List<DynamicEntry> readBinaryCache(Context context, File file) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() == CACHE_MAGIC && in.readInt() == CACHE_VERSION) {
+                int count = in.readInt();
+                if (count < 0 || count > MAX_CACHED_ENTRIES) {
+                    throw new IOException("Bad entry count " + count);
+                }
+                List<DynamicEntry> entries = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    entries.add(DynamicEntry.readFrom(in));
+                }
+                return entries;
+            }
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Catalog cache corrupt: " + e.getMessage());
+        }
+        discardCache(context, file);
+        return null;
+    }
+
+    /**
+     * Drops the cache and its validators: the next refresh is unconditional and
+     * isCacheStale() reports true, so callers refetch instead of trusting a 304.
+     */
+    private void discardCache(Context context, File file) {
+        file.delete();
+        context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE).edit()
+                .remove(KEY_ETAG)
+                .remove(KEY_LAST_MODIFIED)
+                .remove(KEY_TIMESTAMP)
+                .apply();
+    }
+
     private void ensureResourcesRegistered() {
         if (!resourcesRegistered) {
             registerResources();
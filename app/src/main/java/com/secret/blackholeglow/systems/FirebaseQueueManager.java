@@ -12,20 +12,23 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.firestore.FieldValue;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.WriteBatch;
 import com.secret.blackholeglow.NetworkUtils;
 
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * FirebaseQueueManager - Sistema de Cola para Operaciones Firebase
@@ -33,10 +36,10 @@ import java.util.concurrent.atomic.AtomicInteger;
  * RESPONSABILIDADES:
  * - Encolar operaciones Firebase localmente
  * - Ejecutar batch writes para reducir costos (hasta 80% menos)
- * - Manejar modo offline con persistencia local
+ * - Manejar modo offline con persistencia local (journal append-only, ver OperationJournal)
  * - Rate limiting real (servidor)
  * - Auto-retry con backoff exponencial
- * - Deduplicacion de operaciones identicas
+ * - Coalescing O(1) por documento + orden de flush por prioridad (OperationIndex)
  *
  * USO:
  * FirebaseQueueManager.getInstance(context)
@@ -53,7 +56,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 public class FirebaseQueueManager {
     private static final String TAG = "FirebaseQueue";
     private static final String PREFS_NAME = "firebase_queue_prefs";
-    private static final String KEY_PENDING_OPS = "pending_operations";
+    private static final String KEY_PENDING_OPS = "pending_operations";  // Formato viejo (migración)
+    private static final String JOURNAL_FILE = "firebase_queue.journal";
 
     // Configuracion de batching
     private static final int BATCH_SIZE_LIMIT = 50;           // Flush cuando hay 50 ops
@@ -67,13 +71,14 @@ public class FirebaseQueueManager {
 
     // Singleton
     private static FirebaseQueueManager instance;
-    private final Context context;
-    private final FirebaseFirestore db;
-    private final FirebaseAuth auth;
-    private final SharedPreferences prefs;
+    private final Context context;               // null en el constructor de tests
+    private final Supplier<String> uidSupplier;  // uid del usuario actual (o null)
+    private final SharedPreferences prefs;       // null en el constructor de tests
+    private final OperationJournal journal;
 
     // Cola de operaciones
-    private final CopyOnWriteArrayList<QueuedOperation> pendingQueue;
+    private final OperationIndex pendingQueue;
+    private BatchCommitter committer;
     private final AtomicBoolean isFlushing;
     private final AtomicInteger totalOperationsQueued;
     private final AtomicInteger totalOperationsFlushed;
@@ -132,6 +137,11 @@ public class FirebaseQueueManager {
         String userId;
         boolean merge;  // true = SetOptions.merge(), false = overwrite
 
+        // Estado en memoria de OperationIndex (no se persiste)
+        String key;
+        long sequence;
+        boolean inFlight;
+
         public QueuedOperation() {
             this.id = generateId();
             this.priority = Priority.NORMAL;
@@ -249,11 +259,33 @@ public class FirebaseQueueManager {
 
     // Constructor privado (Singleton)
     private FirebaseQueueManager(Context context) {
-        this.context = context.getApplicationContext();
-        this.db = FirebaseFirestore.getInstance();
-        this.auth = FirebaseAuth.getInstance();
-        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        this.pendingQueue = new CopyOnWriteArrayList<>();
+        this(context.getApplicationContext(),
+                context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE),
+                new FirestoreBatchCommitter(FirebaseFirestore.getInstance()),
+                context.getApplicationContext().getFilesDir(),
+                currentUid(FirebaseAuth.getInstance()));
+
+        // Iniciar background thread para auto-flush
+        startBackgroundFlush();
+    }
+
+    /**
+     * Constructor para tests en la JVM: sin Context, Firestore ni Auth.
+     * Sin Context no hay chequeo de red (siempre online) ni migración de prefs;
+     * sin background thread el flush y los reintentos se llaman a mano.
+     */
+    FirebaseQueueManager(BatchCommitter committer, File journalDir, Supplier<String> uidSupplier) {
+        this(null, null, committer, journalDir, uidSupplier);
+    }
+
+    private FirebaseQueueManager(Context context, SharedPreferences prefs, BatchCommitter committer,
+                                 File journalDir, Supplier<String> uidSupplier) {
+        this.context = context;
+        this.uidSupplier = uidSupplier;
+        this.prefs = prefs;
+        this.journal = new OperationJournal(new File(journalDir, JOURNAL_FILE));
+        this.pendingQueue = new OperationIndex();
+        this.committer = committer;
         this.isFlushing = new AtomicBoolean(false);
         this.totalOperationsQueued = new AtomicInteger(0);
         this.totalOperationsFlushed = new AtomicInteger(0);
@@ -262,12 +294,16 @@ public class FirebaseQueueManager {
         // Cargar operaciones pendientes del almacenamiento local
         loadPendingOperations();
 
-        // Iniciar background thread para auto-flush
-        startBackgroundFlush();
-
         Log.d(TAG, "FirebaseQueueManager inicializado con " + pendingQueue.size() + " ops pendientes");
     }
 
+    private static Supplier<String> currentUid(FirebaseAuth auth) {
+        return () -> {
+            FirebaseUser user = auth.getCurrentUser();
+            return user != null ? user.getUid() : null;
+        };
+    }
+
     public static synchronized FirebaseQueueManager getInstance(Context context) {
         if (instance == null) {
             instance = new FirebaseQueueManager(context);
@@ -275,6 +311,14 @@ public class FirebaseQueueManager {
         return instance;
     }
 
+    /**
+     * Instancia actual sin crearla (null si nadie la ha inicializado).
+     * Permite hacer flush en pause/release sin pagar Firestore + prefs en el arranque.
+     */
+    public static synchronized FirebaseQueueManager peekInstance() {
+        return instance;
+    }
+
     public static FirebaseQueueManager getInstance() {
         if (instance == null) {
             throw new IllegalStateException("FirebaseQueueManager no inicializado. Usa getInstance(Context) primero.");
@@ -288,23 +332,22 @@ public class FirebaseQueueManager {
     public QueuedOperation enqueue(QueuedOperation operation) {
         // Asignar userId si no tiene
         if (operation.userId == null) {
-            FirebaseUser user = auth.getCurrentUser();
-            if (user != null) {
-                operation.userId = user.getUid();
-            }
+            operation.userId = uidSupplier.get();
         }
 
         // Agregar timestamp del servidor a los datos
         operation.data.put("lastUpdate", FieldValue.serverTimestamp());
 
-        // Deduplicar: si existe una operacion identica pendiente, reemplazarla
-        deduplicateOperation(operation);
-
-        pendingQueue.add(operation);
+        // Coalescing: reemplaza (o combina con) la pendiente del mismo documento
+        QueuedOperation replaced = pendingQueue.put(operation);
+        if (replaced != null) {
+            journalAck(replaced);
+            Log.d(TAG, "Operacion coalescida: " + replaced.id + " → " + operation.id);
+        }
         totalOperationsQueued.incrementAndGet();
 
-        // Persistir localmente
-        savePendingOperations();
+        // Persistir localmente (un registro, no toda la cola)
+        journalEnqueue(operation);
 
         // Notificar listeners
         for (QueueListener listener : listeners) {
@@ -321,22 +364,6 @@ public class FirebaseQueueManager {
         return operation;
     }
 
-    /**
-     * Elimina operaciones duplicadas (mismo tipo, collection, documentId)
-     */
-    private void deduplicateOperation(QueuedOperation newOp) {
-        for (int i = pendingQueue.size() - 1; i >= 0; i--) {
-            QueuedOperation existing = pendingQueue.get(i);
-            if (existing.type == newOp.type &&
-                existing.collection != null && existing.collection.equals(newOp.collection) &&
-                existing.documentId != null && existing.documentId.equals(newOp.documentId)) {
-
-                pendingQueue.remove(i);
-                Log.d(TAG, "Operacion duplicada eliminada: " + existing.id);
-            }
-        }
-    }
-
     /**
      * Ejecuta flush de la cola
      */
@@ -353,19 +380,18 @@ public class FirebaseQueueManager {
         }
 
         // Verificar conectividad
-        if (!NetworkUtils.isNetworkAvailable(context)) {
+        if (context != null && !NetworkUtils.isNetworkAvailable(context)) {
             Log.w(TAG, "Sin conexion - operaciones guardadas localmente");
             isFlushing.set(false);
             return;
         }
 
-        // Ordenar por prioridad (mayor primero)
-        List<QueuedOperation> sortedOps = new ArrayList<>(pendingQueue);
-        sortedOps.sort((a, b) -> Integer.compare(b.priority.value, a.priority.value));
-
-        // Tomar hasta BATCH_SIZE_LIMIT operaciones
-        int batchSize = Math.min(sortedOps.size(), MAX_FIRESTORE_BATCH);
-        List<QueuedOperation> batch = sortedOps.subList(0, batchSize);
+        // Tomar hasta MAX_FIRESTORE_BATCH operaciones por prioridad (mayor primero)
+        List<QueuedOperation> batch = pendingQueue.pollBatch(MAX_FIRESTORE_BATCH);
+        if (batch.isEmpty()) {
+            isFlushing.set(false);
+            return;
+        }
 
         Log.d(TAG, "Iniciando flush de " + batch.size() + " operaciones");
 
@@ -379,49 +405,31 @@ public class FirebaseQueueManager {
     }
 
     /**
-     * Ejecuta batch write en Firestore
+     * Envía el batch al committer (Firestore o fake)
      */
     private void executeBatchWrite(List<QueuedOperation> operations) {
-        WriteBatch batch = db.batch();
-        List<QueuedOperation> processedOps = new ArrayList<>();
-
-        for (QueuedOperation op : operations) {
-            try {
-                if (op.documentId != null) {
-                    // Operacion con documento especifico
-                    if (op.merge) {
-                        batch.set(db.collection(op.collection).document(op.documentId),
-                                 op.data,
-                                 com.google.firebase.firestore.SetOptions.merge());
-                    } else {
-                        batch.set(db.collection(op.collection).document(op.documentId), op.data);
-                    }
-                } else {
-                    // Nuevo documento (auto-id)
-                    batch.set(db.collection(op.collection).document(), op.data);
-                }
-                processedOps.add(op);
-            } catch (Exception e) {
-                Log.e(TAG, "Error preparando operacion " + op.id + ": " + e.getMessage());
-                handleOperationFailure(op, e.getMessage());
+        committer.commit(operations, new BatchCommitter.Callback() {
+            @Override
+            public void onRejected(QueuedOperation op, String error) {
+                handleOperationFailure(op, error);
             }
-        }
 
-        // Ejecutar batch
-        batch.commit()
-            .addOnSuccessListener(aVoid -> {
+            @Override
+            public void onSuccess(List<QueuedOperation> processedOps) {
                 Log.d(TAG, "Batch completado exitosamente: " + processedOps.size() + " operaciones");
 
-                // Remover operaciones exitosas de la cola
+                // Remover operaciones exitosas de la cola (tombstone por cada una).
+                // Si otra operacion la reemplazo mientras estaba en vuelo, ese ack ya se escribio.
                 for (QueuedOperation op : processedOps) {
-                    pendingQueue.remove(op);
+                    if (pendingQueue.remove(op)) {
+                        journalAck(op);
+                    }
                 }
 
                 totalOperationsFlushed.addAndGet(processedOps.size());
                 lastFlushTime = System.currentTimeMillis();
 
-                // Persistir estado
-                savePendingOperations();
+                maybeCompactJournal();
 
                 // Notificar listeners
                 for (QueueListener listener : listeners) {
@@ -434,13 +442,15 @@ public class FirebaseQueueManager {
                 if (!pendingQueue.isEmpty()) {
                     scheduleNextFlush();
                 }
-            })
-            .addOnFailureListener(e -> {
-                Log.e(TAG, "Error en batch commit: " + e.getMessage());
+            }
+
+            @Override
+            public void onFailure(List<QueuedOperation> processedOps, String error) {
+                Log.e(TAG, "Error en batch commit: " + error);
 
                 // Manejar reintentos
                 for (QueuedOperation op : processedOps) {
-                    handleOperationFailure(op, e.getMessage());
+                    handleOperationFailure(op, error);
                 }
 
                 // Notificar listeners
@@ -452,19 +462,27 @@ public class FirebaseQueueManager {
 
                 // Programar reintento con backoff
                 scheduleRetry();
-            });
+            }
+        });
     }
 
     /**
      * Maneja fallo de una operacion
      */
     private void handleOperationFailure(QueuedOperation op, String error) {
+        // Reemplazada mientras estaba en vuelo: la version nueva sigue pendiente
+        if (!pendingQueue.isCurrent(op)) {
+            op.inFlight = false;
+            return;
+        }
+
         op.retryCount++;
         op.lastAttempt = System.currentTimeMillis();
 
         if (op.retryCount >= op.maxRetries) {
             Log.e(TAG, "Operacion " + op.id + " falló " + op.retryCount + " veces, descartando");
             pendingQueue.remove(op);
+            journalAck(op);
 
             // Notificar listeners
             for (QueueListener listener : listeners) {
@@ -472,9 +490,10 @@ public class FirebaseQueueManager {
             }
         } else {
             Log.w(TAG, "Operacion " + op.id + " falló (intento " + op.retryCount + "/" + op.maxRetries + ")");
+            // Re-registrar con el retryCount nuevo (reemplaza al registro anterior en el replay)
+            journalEnqueue(op);
+            pendingQueue.requeue(op);
         }
-
-        savePendingOperations();
     }
 
     /**
@@ -528,36 +547,102 @@ public class FirebaseQueueManager {
         Log.d(TAG, "Auto-flush iniciado (cada " + BATCH_TIME_LIMIT_MS/1000 + "s)");
     }
 
+    // =========================================================================
+    // PERSISTENCIA (journal append-only)
+    // =========================================================================
+
+    /**
+     * Agrega (o reemplaza) la operacion en el journal
+     */
+    private void journalEnqueue(QueuedOperation op) {
+        try {
+            journal.appendEnqueue(op.id, op.toJson().toString().getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException | IOException e) {
+            Log.e(TAG, "Error guardando operacion " + op.id + ": " + e.getMessage());
+        }
+    }
+
     /**
-     * Guarda operaciones pendientes en SharedPreferences
+     * Tombstone: la operacion ya no esta pendiente
      */
-    private void savePendingOperations() {
+    private void journalAck(QueuedOperation op) {
         try {
-            JSONArray jsonArray = new JSONArray();
-            for (QueuedOperation op : pendingQueue) {
-                jsonArray.put(op.toJson());
+            journal.appendAck(op.id);
+        } catch (IOException e) {
+            Log.e(TAG, "Error registrando ack " + op.id + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reescribe el journal solo con la cola viva si acumula demasiados registros muertos
+     */
+    private void maybeCompactJournal() {
+        if (journal.needsCompaction()) {
+            compactJournal();
+        }
+    }
+
+    private void compactJournal() {
+        try {
+            Map<String, byte[]> live = new LinkedHashMap<>();
+            for (QueuedOperation op : pendingQueue.snapshotById().values()) {
+                live.put(op.id, op.toJson().toString().getBytes(StandardCharsets.UTF_8));
             }
-            prefs.edit().putString(KEY_PENDING_OPS, jsonArray.toString()).apply();
-        } catch (JSONException e) {
-            Log.e(TAG, "Error guardando operaciones: " + e.getMessage());
+            journal.compact(live);
+            Log.d(TAG, "Journal compactado: " + live.size() + " ops, " + journal.sizeBytes() + " bytes");
+        } catch (JSONException | IOException e) {
+            Log.e(TAG, "Error compactando journal: " + e.getMessage());
         }
     }
 
     /**
-     * Carga operaciones pendientes desde SharedPreferences
+     * Reconstruye la cola desde el journal (y migra el formato viejo de SharedPreferences)
      */
     private void loadPendingOperations() {
-        String json = prefs.getString(KEY_PENDING_OPS, "[]");
+        try {
+            Map<String, byte[]> live = journal.replay();
+            for (byte[] payload : live.values()) {
+                try {
+                    String json = new String(payload, StandardCharsets.UTF_8);
+                    pendingQueue.put(QueuedOperation.fromJson(new JSONObject(json)));
+                } catch (JSONException e) {
+                    Log.e(TAG, "Operacion ilegible en journal: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Error leyendo journal, se reinicia vacío: " + e.getMessage());
+            try {
+                // Sin esto cada append fallaría y la cola dejaría de persistirse
+                journal.resetCorrupt();
+            } catch (IOException resetError) {
+                Log.e(TAG, "No se pudo reiniciar el journal: " + resetError.getMessage());
+            }
+        }
+
+        migrateLegacyPrefs();
+        Log.d(TAG, "Cargadas " + pendingQueue.size() + " operaciones pendientes");
+    }
+
+    /**
+     * Migra la cola guardada como JSONArray en SharedPreferences (versiones anteriores)
+     */
+    private void migrateLegacyPrefs() {
+        if (prefs == null) return;
+        String json = prefs.getString(KEY_PENDING_OPS, null);
+        if (json == null) return;
         try {
             JSONArray jsonArray = new JSONArray(json);
             for (int i = 0; i < jsonArray.length(); i++) {
                 QueuedOperation op = QueuedOperation.fromJson(jsonArray.getJSONObject(i));
-                pendingQueue.add(op);
+                QueuedOperation replaced = pendingQueue.put(op);
+                if (replaced != null) journalAck(replaced);
+                journalEnqueue(op);
             }
-            Log.d(TAG, "Cargadas " + pendingQueue.size() + " operaciones pendientes");
+            Log.d(TAG, "Migradas " + jsonArray.length() + " operaciones de SharedPreferences");
         } catch (JSONException e) {
-            Log.e(TAG, "Error cargando operaciones: " + e.getMessage());
+            Log.e(TAG, "Error migrando operaciones: " + e.getMessage());
         }
+        prefs.edit().remove(KEY_PENDING_OPS).apply();
     }
 
     // =========================================================================
@@ -663,6 +748,13 @@ public class FirebaseQueueManager {
         return pendingQueue.isEmpty() && !isFlushing.get();
     }
 
+    /**
+     * Reemplaza el destino de los batches (fake local para tests/benchmarks)
+     */
+    public void setCommitter(BatchCommitter committer) {
+        this.committer = committer;
+    }
+
     public void addListener(QueueListener listener) {
         if (!listeners.contains(listener)) {
             listeners.add(listener);
@@ -694,7 +786,7 @@ public class FirebaseQueueManager {
      */
     public void clearQueue() {
         pendingQueue.clear();
-        savePendingOperations();
+        compactJournal();
 
         for (QueueListener listener : listeners) {
             listener.onQueueCleared();
@@ -721,8 +813,11 @@ public class FirebaseQueueManager {
             backgroundThread = null;
         }
 
+        journal.close();
         listeners.clear();
-        instance = null;
+        synchronized (FirebaseQueueManager.class) {
+            if (instance == this) instance = null;  // Una instancia de tests no toca el singleton
+        }
         Log.d(TAG, "FirebaseQueueManager liberado");
     }
 }
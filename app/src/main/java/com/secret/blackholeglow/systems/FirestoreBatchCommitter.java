@@ -0,0 +1,55 @@
+package com.secret.blackholeglow.systems;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueuedOperation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FirestoreBatchCommitter - BatchCommitter real sobre WriteBatch de Firestore
+ */
+public class FirestoreBatchCommitter implements BatchCommitter {
+    private static final String TAG = "FirebaseQueue";
+
+    private final FirebaseFirestore db;
+
+    public FirestoreBatchCommitter(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    @Override
+    public void commit(List<QueuedOperation> operations, Callback callback) {
+        WriteBatch batch = db.batch();
+        List<QueuedOperation> included = new ArrayList<>(operations.size());
+
+        for (QueuedOperation op : operations) {
+            try {
+                if (op.documentId != null) {
+                    // Operacion con documento especifico
+                    if (op.merge) {
+                        batch.set(db.collection(op.collection).document(op.documentId),
+                                 op.data, SetOptions.merge());
+                    } else {
+                        batch.set(db.collection(op.collection).document(op.documentId), op.data);
+                    }
+                } else {
+                    // Nuevo documento (auto-id)
+                    batch.set(db.collection(op.collection).document(), op.data);
+                }
+                included.add(op);
+            } catch (Exception e) {
+                Log.e(TAG, "Error preparando operacion " + op.id + ": " + e.getMessage());
+                callback.onRejected(op, e.getMessage());
+            }
+        }
+
+        batch.commit()
+            .addOnSuccessListener(aVoid -> callback.onSuccess(included))
+            .addOnFailureListener(e -> callback.onFailure(included, e.getMessage()));
+    }
+}
@@ -1,8 +1,13 @@
 package com.secret.blackholeglow.systems;
 
+import android.graphics.Bitmap;
 import android.opengl.GLES30;
+import android.opengl.GLUtils;
 import android.util.Log;
 
+import java.nio.Buffer;
+import java.util.Arrays;
+
 /**
  * ╔══════════════════════════════════════════════════════════════════╗
  * ║                      GLStateManager                              ║
@@ -12,15 +17,16 @@ import android.util.Log;
  * ║                                                                  ║
  * ║  RESPONSABILIDADES:                                              ║
  * ║  • Configuracion inicial de OpenGL                               ║
- * ║  • Gestion de estados GL (depth, blend, cull)                    ║
+ * ║  • Cache de estado GL: omite llamadas que no cambian nada        ║
+ * ║  • Contadores por frame (cambios, omitidos, draws, triangulos)   ║
  * ║  • Tracking de FPS y rendimiento                                 ║
  * ║  • Clear de buffers                                              ║
  * ║  • Configuracion de viewport                                     ║
  * ║                                                                  ║
  * ║  PRINCIPIOS:                                                     ║
- * ║  • Maximo 10 metodos publicos                                    ║
  * ║  • Un solo proposito: estado de OpenGL                           ║
- * ║  • Sin dependencias de otros actores                             ║
+ * ║  • Un cache por contexto EGL (RenderContext), nunca compartido   ║
+ * ║  • API cacheada con las mismas firmas que GLES30                 ║
  * ╚══════════════════════════════════════════════════════════════════╝
  *
  * USO:
@@ -28,20 +34,32 @@ import android.util.Log;
  *   GLStateManager.get().beginFrame();
  *   // ... renderizado ...
  *   GLStateManager.get().endFrame();
+ *
+ * CACHE DE ESTADO:
+ *   Todo el arbol llama a GLStateManager.get().useProgram(...),
+ *   bindTexture(...), enable(...), blendFunc(...), drawArrays(...)...
+ *   en lugar de GLES30 directo. Si el valor pedido ya es el actual, la
+ *   llamada no llega al driver. Cubre programa, VAO, GL_ARRAY_BUFFER,
+ *   texturas 2D por unidad, blend (on/off + func), depth (test + mask),
+ *   cull face, viewport, depth func y GL_FRAMEBUFFER.
+ *
+ *   El cache solo es correcto si NADIE cambia ese estado por fuera:
+ *   - Es del contexto EGL del hilo: get() devuelve el del RenderContext
+ *     enlazado (cada engine tiene su GL thread y su contexto).
+ *   - Un contexto GL nuevo arranca en "desconocido" (initialize()).
+ *   - Los delete* tambien pasan por aqui: GL desenlaza lo borrado y el
+ *     id puede reciclarse, asi que el cache lo olvida.
  */
 public class GLStateManager {
     private static final String TAG = "GLStateManager";
 
     // ═══════════════════════════════════════════════════════════════
-    // SINGLETON
+    // POR CONTEXTO
     // ═══════════════════════════════════════════════════════════════
-    private static GLStateManager instance;
 
+    /** Estado del contexto GL del hilo actual (ver RenderContext) */
     public static GLStateManager get() {
-        if (instance == null) {
-            instance = new GLStateManager();
-        }
-        return instance;
+        return RenderContext.current().glState;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -54,12 +72,56 @@ public class GLStateManager {
     private float clearB = 0.05f;
     private float clearA = 1.0f;
 
-    // Estados actuales
-    private boolean depthTestEnabled = false;
-    private boolean blendEnabled = false;
-    private boolean cullFaceEnabled = false;
     private boolean initialized = false;
 
+    // ═══════════════════════════════════════════════════════════════
+    // 🗂️ CACHE DE ESTADO (-1 = desconocido → la siguiente llamada se emite)
+    // ═══════════════════════════════════════════════════════════════
+    private static final int UNKNOWN = -1;
+    private static final int MAX_CACHED_TEXTURE_UNITS = 32;
+
+    private int currentProgram = UNKNOWN;
+    private int currentVertexArray = UNKNOWN;
+    private int currentArrayBuffer = UNKNOWN;
+    private int activeTextureUnit = UNKNOWN;
+    private final int[] boundTextures2D = new int[MAX_CACHED_TEXTURE_UNITS];
+
+    // Capacidades como tri-estado: UNKNOWN / 0 / 1
+    private int depthTestState = UNKNOWN;
+    private int blendState = UNKNOWN;
+    private int cullFaceState = UNKNOWN;
+    private int depthMaskState = UNKNOWN;
+
+    private int blendSrc = UNKNOWN;
+    private int blendDst = UNKNOWN;
+    private int cullFaceMode = UNKNOWN;
+    private int depthFunc = UNKNOWN;
+    private int currentFramebuffer = UNKNOWN;
+    private int viewportX = UNKNOWN;
+    private int viewportY = UNKNOWN;
+    private int viewportWidth = UNKNOWN;
+    private int viewportHeight = UNKNOWN;
+
+    // Registro de memoria del mismo contexto (alimentado desde los wrappers)
+    private final GpuMemoryRegistry registry;
+
+    // Solo para contabilidad de memoria (no se omiten llamadas por ellos)
+    private int currentElementBuffer = UNKNOWN;   // Estado del VAO
+    private int currentRenderbuffer = UNKNOWN;
+
+    // 📊 Contadores del frame en curso
+    private int frameStateChanges = 0;
+    private int frameStateSkipped = 0;
+    private int frameDrawCalls = 0;
+    private int frameTriangles = 0;
+
+    // 📊 Ultimo frame completo de cualquier contexto (estaticos: diagnostico
+    // lee desde otro hilo sin contexto propio)
+    private static volatile int lastStateChanges = 0;
+    private static volatile int lastStateSkipped = 0;
+    private static volatile int lastDrawCalls = 0;
+    private static volatile int lastTriangles = 0;
+
     // FPS Tracking
     private long lastFrameTime = System.nanoTime();
     private int frameCount = 0;
@@ -67,6 +129,10 @@ public class GLStateManager {
     private float currentFPS = 0f;
     private float deltaTime = 0f;
 
+    // Tiempo de trabajo por frame (intervalo sin el sleep del limitador), suavizado
+    private float frameWorkMs = 0f;
+    private static final float FRAME_WORK_SMOOTHING = 0.1f;
+
     // ═══════════════════════════════════════════════════════════════
     // 🔋 FPS LIMITER - Ahorro de batería para live wallpapers
     // ═══════════════════════════════════════════════════════════════
@@ -74,7 +140,9 @@ public class GLStateManager {
     private static final long TARGET_FRAME_TIME_NS = 1_000_000_000L / TARGET_FPS;  // ~33.3ms
     private boolean fpsLimitEnabled = true;
 
-    private GLStateManager() {
+    GLStateManager(GpuMemoryRegistry registry) {
+        this.registry = registry;
+        invalidateStateCache();
         Log.d(TAG, "╔════════════════════════════════════════╗");
         Log.d(TAG, "║   🎮 GLStateManager Creado             ║");
         Log.d(TAG, "╚════════════════════════════════════════╝");
@@ -91,21 +159,24 @@ public class GLStateManager {
     public void initialize() {
         Log.d(TAG, "Inicializando OpenGL ES 3.0...");
 
+        // Contexto nuevo: nada de lo cacheado sigue siendo cierto
+        invalidateStateCache();
+        // Unidad activa conocida desde el inicio (la contabilidad de
+        // memoria necesita saber que textura esta enlazada)
+        activeTexture(GLES30.GL_TEXTURE0);
+
         // Depth Test: Necesario para renderizado 3D correcto
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-        GLES30.glDepthFunc(GLES30.GL_LESS);
-        depthTestEnabled = true;
+        enable(GLES30.GL_DEPTH_TEST);
+        depthFunc(GLES30.GL_LESS);
 
         // Blending: Para transparencias y efectos
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
-        blendEnabled = true;
+        enable(GLES30.GL_BLEND);
+        blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
 
         // Face Culling: Optimizacion (no dibujar caras traseras)
-        GLES30.glEnable(GLES30.GL_CULL_FACE);
-        GLES30.glCullFace(GLES30.GL_BACK);
+        enable(GLES30.GL_CULL_FACE);
+        cullFace(GLES30.GL_BACK);
         GLES30.glFrontFace(GLES30.GL_CCW);
-        cullFaceEnabled = true;
 
         // Clear color
         GLES30.glClearColor(clearR, clearG, clearB, clearA);
@@ -134,7 +205,7 @@ public class GLStateManager {
      * Llamar en onSurfaceChanged
      */
     public void setViewport(int width, int height) {
-        GLES30.glViewport(0, 0, width, height);
+        viewport(0, 0, width, height);
         Log.d(TAG, "Viewport: " + width + "x" + height);
     }
 
@@ -149,12 +220,14 @@ public class GLStateManager {
      */
     public float beginFrame() {
         // 🔋 FPS LIMITER: Esperar si el frame fue demasiado rápido
+        long sleptNs = 0;
         if (fpsLimitEnabled) {
             long now = System.nanoTime();
             long elapsed = now - lastFrameTime;
             long sleepTime = TARGET_FRAME_TIME_NS - elapsed;
 
             if (sleepTime > 1_000_000) {  // Solo si hay más de 1ms que esperar
+                sleptNs = sleepTime;
                 try {
                     Thread.sleep(sleepTime / 1_000_000, (int)(sleepTime % 1_000_000));
                 } catch (InterruptedException e) {
@@ -165,12 +238,30 @@ public class GLStateManager {
 
         // Calcular delta time
         long now = System.nanoTime();
-        deltaTime = (now - lastFrameTime) / 1_000_000_000f;
+        long intervalNs = now - lastFrameTime;
+        deltaTime = intervalNs / 1_000_000_000f;
         lastFrameTime = now;
 
+        // Trabajo real del frame anterior (CPU + espera de swap si la GPU va atrasada)
+        float workMs = Math.max(0, intervalNs - sleptNs) / 1_000_000f;
+        if (workMs < 100f) {  // Ignorar pausas / vuelta de background
+            frameWorkMs = frameWorkMs == 0f ? workMs
+                    : frameWorkMs + (workMs - frameWorkMs) * FRAME_WORK_SMOOTHING;
+        }
+
         // Clamp para evitar saltos grandes (ej: al volver de pausa)
         deltaTime = Math.min(deltaTime, 0.1f);
 
+        // 📊 Cerrar contadores del frame anterior
+        lastStateChanges = frameStateChanges;
+        lastStateSkipped = frameStateSkipped;
+        lastDrawCalls = frameDrawCalls;
+        lastTriangles = frameTriangles;
+        frameStateChanges = 0;
+        frameStateSkipped = 0;
+        frameDrawCalls = 0;
+        frameTriangles = 0;
+
         // FPS tracking
         frameCount++;
         fpsTimer += deltaTime;
@@ -223,13 +314,10 @@ public class GLStateManager {
      * Usar false para UI 2D, true para objetos 3D
      */
     public void setDepthTest(boolean enabled) {
-        if (depthTestEnabled != enabled) {
-            if (enabled) {
-                GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-            } else {
-                GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-            }
-            depthTestEnabled = enabled;
+        if (enabled) {
+            enable(GLES30.GL_DEPTH_TEST);
+        } else {
+            disable(GLES30.GL_DEPTH_TEST);
         }
     }
 
@@ -237,7 +325,7 @@ public class GLStateManager {
      * Habilita/deshabilita escritura en depth buffer
      */
     public void setDepthMask(boolean enabled) {
-        GLES30.glDepthMask(enabled);
+        depthMask(enabled);
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -248,13 +336,10 @@ public class GLStateManager {
      * Habilita/deshabilita blending
      */
     public void setBlending(boolean enabled) {
-        if (blendEnabled != enabled) {
-            if (enabled) {
-                GLES30.glEnable(GLES30.GL_BLEND);
-            } else {
-                GLES30.glDisable(GLES30.GL_BLEND);
-            }
-            blendEnabled = enabled;
+        if (enabled) {
+            enable(GLES30.GL_BLEND);
+        } else {
+            disable(GLES30.GL_BLEND);
         }
     }
 
@@ -266,20 +351,430 @@ public class GLStateManager {
         switch (mode) {
             case "additive":
                 // Efectos de luz, particulas brillantes
-                GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
+                blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE);
                 break;
             case "multiply":
                 // Sombras, efectos oscuros
-                GLES30.glBlendFunc(GLES30.GL_DST_COLOR, GLES30.GL_ZERO);
+                blendFunc(GLES30.GL_DST_COLOR, GLES30.GL_ZERO);
                 break;
             case "alpha":
             default:
                 // Standard alpha blending
-                GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+                break;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 🗂️ API CACHEADA (mismas firmas que GLES30, sin el prefijo gl)
+    // ═══════════════════════════════════════════════════════════════
+
+    public void useProgram(int program) {
+        if (program == currentProgram) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glUseProgram(program);
+        currentProgram = program;
+        frameStateChanges++;
+    }
+
+    public void bindVertexArray(int vertexArray) {
+        if (vertexArray == currentVertexArray) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glBindVertexArray(vertexArray);
+        currentVertexArray = vertexArray;
+        currentElementBuffer = UNKNOWN;   // El IBO enlazado es el del VAO
+        frameStateChanges++;
+    }
+
+    /** Solo GL_ARRAY_BUFFER se cachea; el resto (IBO, UBO...) es estado del VAO o raro */
+    public void bindBuffer(int target, int buffer) {
+        if (target != GLES30.GL_ARRAY_BUFFER) {
+            GLES30.glBindBuffer(target, buffer);
+            if (target == GLES30.GL_ELEMENT_ARRAY_BUFFER) {
+                currentElementBuffer = buffer;
+            }
+            frameStateChanges++;
+            return;
+        }
+        if (buffer == currentArrayBuffer) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glBindBuffer(target, buffer);
+        currentArrayBuffer = buffer;
+        frameStateChanges++;
+    }
+
+    public void activeTexture(int texture) {
+        int unit = texture - GLES30.GL_TEXTURE0;
+        if (unit == activeTextureUnit) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glActiveTexture(texture);
+        activeTextureUnit = unit;
+        frameStateChanges++;
+    }
+
+    /**
+     * Se cachea GL_TEXTURE_2D por unidad. Otros targets (EXTERNAL_OES del
+     * video, que SurfaceTexture re-enlaza por su cuenta) pasan directo.
+     */
+    public void bindTexture(int target, int texture) {
+        int unit = activeTextureUnit;
+        boolean cacheable = target == GLES30.GL_TEXTURE_2D
+                && unit >= 0 && unit < MAX_CACHED_TEXTURE_UNITS;
+        if (cacheable && boundTextures2D[unit] == texture) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glBindTexture(target, texture);
+        if (cacheable) {
+            boundTextures2D[unit] = texture;
+        }
+        frameStateChanges++;
+    }
+
+    public void enable(int cap) {
+        setCapability(cap, true);
+    }
+
+    public void disable(int cap) {
+        setCapability(cap, false);
+    }
+
+    private void setCapability(int cap, boolean enabled) {
+        int wanted = enabled ? 1 : 0;
+        int current;
+        switch (cap) {
+            case GLES30.GL_BLEND:      current = blendState; break;
+            case GLES30.GL_DEPTH_TEST: current = depthTestState; break;
+            case GLES30.GL_CULL_FACE:  current = cullFaceState; break;
+            default:                   current = UNKNOWN; break;
+        }
+        if (current == wanted) {
+            frameStateSkipped++;
+            return;
+        }
+        if (enabled) {
+            GLES30.glEnable(cap);
+        } else {
+            GLES30.glDisable(cap);
+        }
+        switch (cap) {
+            case GLES30.GL_BLEND:      blendState = wanted; break;
+            case GLES30.GL_DEPTH_TEST: depthTestState = wanted; break;
+            case GLES30.GL_CULL_FACE:  cullFaceState = wanted; break;
+        }
+        frameStateChanges++;
+    }
+
+    public void blendFunc(int src, int dst) {
+        if (src == blendSrc && dst == blendDst) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glBlendFunc(src, dst);
+        blendSrc = src;
+        blendDst = dst;
+        frameStateChanges++;
+    }
+
+    public void depthFunc(int func) {
+        if (func == depthFunc) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glDepthFunc(func);
+        depthFunc = func;
+        frameStateChanges++;
+    }
+
+    public void depthMask(boolean flag) {
+        int wanted = flag ? 1 : 0;
+        if (wanted == depthMaskState) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glDepthMask(flag);
+        depthMaskState = wanted;
+        frameStateChanges++;
+    }
+
+    public void cullFace(int mode) {
+        if (mode == cullFaceMode) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glCullFace(mode);
+        cullFaceMode = mode;
+        frameStateChanges++;
+    }
+
+    /** Solo GL_FRAMEBUFFER (draw + read) se cachea; los otros targets dejan el cache en desconocido */
+    public void bindFramebuffer(int target, int framebuffer) {
+        if (target == GLES30.GL_FRAMEBUFFER && framebuffer == currentFramebuffer) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glBindFramebuffer(target, framebuffer);
+        currentFramebuffer = target == GLES30.GL_FRAMEBUFFER ? framebuffer : UNKNOWN;
+        frameStateChanges++;
+    }
+
+    public void viewport(int x, int y, int width, int height) {
+        if (x == viewportX && y == viewportY
+                && width == viewportWidth && height == viewportHeight) {
+            frameStateSkipped++;
+            return;
+        }
+        GLES30.glViewport(x, y, width, height);
+        viewportX = x;
+        viewportY = y;
+        viewportWidth = width;
+        viewportHeight = height;
+        frameStateChanges++;
+    }
+
+    // ── Draws (solo cuentan) ─────────────────────────────────────────
+
+    public void drawArrays(int mode, int first, int count) {
+        GLES30.glDrawArrays(mode, first, count);
+        countDraw(mode, count, 1);
+    }
+
+    public void drawArraysInstanced(int mode, int first, int count, int instances) {
+        GLES30.glDrawArraysInstanced(mode, first, count, instances);
+        countDraw(mode, count, instances);
+    }
+
+    public void drawElements(int mode, int count, int type, int offset) {
+        GLES30.glDrawElements(mode, count, type, offset);
+        countDraw(mode, count, 1);
+    }
+
+    public void drawElements(int mode, int count, int type, Buffer indices) {
+        GLES30.glDrawElements(mode, count, type, indices);
+        countDraw(mode, count, 1);
+    }
+
+    public void drawElementsInstanced(int mode, int count, int type, int offset, int instances) {
+        GLES30.glDrawElementsInstanced(mode, count, type, offset, instances);
+        countDraw(mode, count, instances);
+    }
+
+    private void countDraw(int mode, int count, int instances) {
+        frameDrawCalls++;
+        int triangles;
+        switch (mode) {
+            case GLES30.GL_TRIANGLES:
+                triangles = count / 3;
                 break;
+            case GLES30.GL_TRIANGLE_STRIP:
+            case GLES30.GL_TRIANGLE_FAN:
+                triangles = Math.max(0, count - 2);
+                break;
+            default:
+                triangles = 0;  // puntos / lineas
+                break;
+        }
+        frameTriangles += triangles * instances;
+    }
+
+    // ── Deletes: GL desenlaza lo borrado y el id puede reciclarse ────
+
+    public void deleteProgram(int program) {
+        GLES30.glDeleteProgram(program);
+        if (program == currentProgram) {
+            // Sigue en uso hasta el proximo glUseProgram: forzar que se emita
+            currentProgram = UNKNOWN;
+        }
+    }
+
+    public void deleteTextures(int n, int[] textures, int offset) {
+        GLES30.glDeleteTextures(n, textures, offset);
+        for (int i = offset; i < offset + n; i++) {
+            int id = textures[i];
+            if (id == 0) continue;
+            registry.release(GpuMemoryRegistry.Category.TEXTURE, id);
+            for (int unit = 0; unit < MAX_CACHED_TEXTURE_UNITS; unit++) {
+                if (boundTextures2D[unit] == id) {
+                    boundTextures2D[unit] = 0;
+                }
+            }
+        }
+    }
+
+    public void deleteBuffers(int n, int[] buffers, int offset) {
+        GLES30.glDeleteBuffers(n, buffers, offset);
+        for (int i = offset; i < offset + n; i++) {
+            if (buffers[i] == 0) continue;
+            registry.release(GpuMemoryRegistry.Category.BUFFER, buffers[i]);
+            if (buffers[i] == currentArrayBuffer) {
+                currentArrayBuffer = 0;
+            }
+            if (buffers[i] == currentElementBuffer) {
+                currentElementBuffer = 0;
+            }
+        }
+    }
+
+    public void deleteVertexArrays(int n, int[] arrays, int offset) {
+        GLES30.glDeleteVertexArrays(n, arrays, offset);
+        for (int i = offset; i < offset + n; i++) {
+            if (arrays[i] != 0 && arrays[i] == currentVertexArray) {
+                currentVertexArray = 0;
+            }
         }
     }
 
+    public void deleteFramebuffers(int n, int[] framebuffers, int offset) {
+        GLES30.glDeleteFramebuffers(n, framebuffers, offset);
+        for (int i = offset; i < offset + n; i++) {
+            registry.release(GpuMemoryRegistry.Category.FRAMEBUFFER, framebuffers[i]);
+            if (framebuffers[i] != 0 && framebuffers[i] == currentFramebuffer) {
+                // GL vuelve al default framebuffer al borrar el enlazado
+                currentFramebuffer = 0;
+            }
+        }
+    }
+
+    public void deleteRenderbuffers(int n, int[] renderbuffers, int offset) {
+        GLES30.glDeleteRenderbuffers(n, renderbuffers, offset);
+        for (int i = offset; i < offset + n; i++) {
+            registry.release(GpuMemoryRegistry.Category.RENDERBUFFER, renderbuffers[i]);
+            if (renderbuffers[i] == currentRenderbuffer) {
+                currentRenderbuffer = 0;
+            }
+        }
+    }
+
+    // ── Asignaciones: se anotan en GpuMemoryRegistry ─────────────────
+
+    /** GLUtils.texImage2D: el formato sale de la config del Bitmap */
+    public void texImage2D(int target, int level, Bitmap bitmap, int border) {
+        GLUtils.texImage2D(target, level, bitmap, border);
+        Bitmap.Config config = bitmap.getConfig();
+        int bpp;
+        String format;
+        if (config == Bitmap.Config.RGB_565) {
+            bpp = 2;
+            format = "RGB565";
+        } else if (config == Bitmap.Config.ALPHA_8) {
+            bpp = 1;
+            format = "A8";
+        } else {
+            bpp = 4;
+            format = "RGBA8";
+        }
+        recordTextureUpload(target, level, bitmap.getWidth(), bitmap.getHeight(), bpp, format);
+    }
+
+    public void texImage2D(int target, int level, int internalformat, int width, int height,
+                           int border, int format, int type, Buffer pixels) {
+        GLES30.glTexImage2D(target, level, internalformat, width, height, border, format, type, pixels);
+        recordTextureUpload(target, level, width, height,
+                GpuMemoryRegistry.bytesPerPixel(internalformat, type),
+                GpuMemoryRegistry.formatName(internalformat));
+    }
+
+    public void texStorage2D(int target, int levels, int internalformat, int width, int height) {
+        GLES30.glTexStorage2D(target, levels, internalformat, width, height);
+        if (target == GLES30.GL_TEXTURE_2D) {
+            registry.recordTexture(boundTexture2D(), width, height, levels,
+                    GpuMemoryRegistry.bytesPerPixel(internalformat, 0),
+                    GpuMemoryRegistry.formatName(internalformat));
+        }
+    }
+
+    public void generateMipmap(int target) {
+        GLES30.glGenerateMipmap(target);
+        if (target == GLES30.GL_TEXTURE_2D) {
+            registry.recordMipmaps(boundTexture2D());
+        }
+    }
+
+    public void bufferData(int target, int size, Buffer data, int usage) {
+        GLES30.glBufferData(target, size, data, usage);
+        int buffer;
+        if (target == GLES30.GL_ARRAY_BUFFER) {
+            buffer = currentArrayBuffer;
+        } else if (target == GLES30.GL_ELEMENT_ARRAY_BUFFER) {
+            buffer = currentElementBuffer;
+        } else {
+            buffer = UNKNOWN;
+        }
+        String kind = usage == GLES30.GL_STATIC_DRAW ? "STATIC"
+                : usage == GLES30.GL_DYNAMIC_DRAW ? "DYNAMIC" : "STREAM";
+        registry.recordBuffer(buffer, size, kind);
+    }
+
+    public void bindRenderbuffer(int target, int renderbuffer) {
+        GLES30.glBindRenderbuffer(target, renderbuffer);
+        currentRenderbuffer = renderbuffer;
+        frameStateChanges++;
+    }
+
+    public void renderbufferStorage(int target, int internalformat, int width, int height) {
+        GLES30.glRenderbufferStorage(target, internalformat, width, height);
+        registry.recordRenderbuffer(currentRenderbuffer, width, height,
+                GpuMemoryRegistry.bytesPerPixel(internalformat, 0),
+                GpuMemoryRegistry.formatName(internalformat));
+    }
+
+    public void genFramebuffers(int n, int[] framebuffers, int offset) {
+        GLES30.glGenFramebuffers(n, framebuffers, offset);
+        for (int i = offset; i < offset + n; i++) {
+            registry.recordFramebuffer(framebuffers[i]);
+        }
+    }
+
+    private void recordTextureUpload(int target, int level, int width, int height,
+                                     int bytesPerPixel, String format) {
+        if (target != GLES30.GL_TEXTURE_2D) return;
+        if (level == 0) {
+            registry.recordTexture(boundTexture2D(), width, height, 1,
+                    bytesPerPixel, format);
+        } else {
+            // Mips subidos a mano: se contabilizan como cadena completa
+            registry.recordMipmaps(boundTexture2D());
+        }
+    }
+
+    /** Textura 2D enlazada en la unidad activa, o UNKNOWN */
+    private int boundTexture2D() {
+        int unit = activeTextureUnit;
+        return unit >= 0 && unit < MAX_CACHED_TEXTURE_UNITS ? boundTextures2D[unit] : UNKNOWN;
+    }
+
+    /**
+     * Olvida todo el estado cacheado (contexto GL nuevo).
+     * La siguiente llamada de cada tipo se emite siempre.
+     */
+    public void invalidateStateCache() {
+        currentProgram = UNKNOWN;
+        currentVertexArray = UNKNOWN;
+        currentArrayBuffer = UNKNOWN;
+        activeTextureUnit = UNKNOWN;
+        Arrays.fill(boundTextures2D, UNKNOWN);
+        depthTestState = UNKNOWN;
+        blendState = UNKNOWN;
+        cullFaceState = UNKNOWN;
+        depthMaskState = UNKNOWN;
+        blendSrc = UNKNOWN;
+        blendDst = UNKNOWN;
+        cullFaceMode = UNKNOWN;
+        depthFunc = UNKNOWN;
+        currentFramebuffer = UNKNOWN;
+        viewportX = viewportY = viewportWidth = viewportHeight = UNKNOWN;
+        currentElementBuffer = UNKNOWN;
+        currentRenderbuffer = UNKNOWN;
+    }
+
     // ═══════════════════════════════════════════════════════════════
     // 6. CLEAR COLOR
     // ═══════════════════════════════════════════════════════════════
@@ -309,24 +804,42 @@ public class GLStateManager {
         return deltaTime;
     }
 
-    /** Retorna true si OpenGL fue inicializado */
-    public boolean isInitialized() {
-        return initialized;
+    /**
+     * Tiempo de trabajo por frame en ms (sin el sleep del limitador de FPS), suavizado.
+     * Si la GPU no da abasto, el swap bloquea y este valor sube.
+     */
+    public float getFrameWorkMs() {
+        return frameWorkMs;
     }
 
-    // ═══════════════════════════════════════════════════════════════
-    // 8. RESET
-    // ═══════════════════════════════════════════════════════════════
+    /** Presupuesto por frame en ms según el limitador (30 FPS) o 60 FPS sin límite */
+    public float getFrameBudgetMs() {
+        return fpsLimitEnabled ? 1000f / TARGET_FPS : 1000f / 60f;
+    }
 
-    /**
-     * Reset del singleton (para recreacion completa)
-     */
-    public static void reset() {
-        if (instance != null) {
-            instance.initialized = false;
-            instance = null;
-        }
-        Log.d(TAG, "GLStateManager reset");
+    /** 📊 Cambios de estado que llegaron al driver en el ultimo frame */
+    public static int getLastStateChanges() {
+        return lastStateChanges;
+    }
+
+    /** 📊 Llamadas de estado omitidas por el cache en el ultimo frame */
+    public static int getLastStateSkipped() {
+        return lastStateSkipped;
+    }
+
+    /** 📊 Draw calls del ultimo frame */
+    public static int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /** 📊 Triangulos enviados en el ultimo frame (instancias incluidas) */
+    public static int getLastTriangles() {
+        return lastTriangles;
+    }
+
+    /** Retorna true si OpenGL fue inicializado */
+    public boolean isInitialized() {
+        return initialized;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -341,9 +854,12 @@ public class GLStateManager {
         Log.d(TAG, "║   📊 GL STATE                          ║");
         Log.d(TAG, "╠════════════════════════════════════════╣");
         Log.d(TAG, "║   Initialized: " + initialized);
-        Log.d(TAG, "║   Depth Test: " + depthTestEnabled);
-        Log.d(TAG, "║   Blending: " + blendEnabled);
-        Log.d(TAG, "║   Face Culling: " + cullFaceEnabled);
+        Log.d(TAG, "║   Depth Test: " + depthTestState);
+        Log.d(TAG, "║   Blending: " + blendState);
+        Log.d(TAG, "║   Face Culling: " + cullFaceState);
+        Log.d(TAG, "║   Estado: " + lastStateChanges + " cambios / "
+                + lastStateSkipped + " omitidos");
+        Log.d(TAG, "║   Draws: " + lastDrawCalls + " (" + lastTriangles + " tris)");
         Log.d(TAG, "║   FPS: " + String.format("%.1f", currentFPS));
         Log.d(TAG, "╚════════════════════════════════════════╝");
     }
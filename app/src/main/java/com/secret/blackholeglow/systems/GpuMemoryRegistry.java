@@ -0,0 +1,462 @@
+package com.secret.blackholeglow.systems;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.opengl.GLES30;
+import android.util.Log;
+import android.util.SparseArray;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║                    GpuMemoryRegistry                             ║
+ * ║              "El Contador de Memoria GPU"                        ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  Registro de toda asignacion GPU: texturas, buffers,             ║
+ * ║  renderbuffers y FBOs, con bytes estimados, formato, tamaño      ║
+ * ║  y dueño (escena + objeto que la creo).                          ║
+ * ║                                                                  ║
+ * ║  RESPONSABILIDADES:                                              ║
+ * ║  • Totales vivos por categoria (diagnostico)                     ║
+ * ║  • Bytes vivos por escena (warm cache, preflight)                ║
+ * ║  • Fugas: lo que una escena creo y no libero en onDestroy        ║
+ * ║  • Huella medida por escena, persistida entre sesiones           ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * ALIMENTACION:
+ *   Nadie llama a este registro para asignar: GLStateManager lo hace
+ *   desde sus wrappers (texImage2D, texStorage2D, bufferData,
+ *   renderbufferStorage, genFramebuffers y los delete*), porque ahi
+ *   ya sabe que objeto esta enlazado.
+ *
+ * POR CONTEXTO:
+ *   Los ids GL solo son unicos dentro de un contexto EGL: dos engines
+ *   reparten los mismos. Cada RenderContext tiene su registro; get()
+ *   devuelve el del hilo. Los totales del proceso suman live().
+ *
+ * DUEÑO:
+ *   - SceneFactory abre el scope de escena alrededor de cada llamada
+ *     a la escena (onCreate, update, draw, onDestroy...).
+ *   - Los sistemas compartidos que asignan "dentro" de una escena
+ *     (atlas SDF, SpriteBatch, pool de FBOs, TextureManager) marcan
+ *     su propio dueño con pushOwner/popOwner: no son de la escena.
+ *   - Fuera de todo scope → compartido.
+ */
+public class GpuMemoryRegistry {
+    private static final String TAG = "GpuMemoryRegistry";
+
+    public enum Category {
+        TEXTURE,
+        BUFFER,
+        RENDERBUFFER,
+        FRAMEBUFFER
+    }
+
+    /** Dueño de lo que se asigna fuera de cualquier escena */
+    public static final String OWNER_SHARED = "shared";
+
+    private static final String PREFS_NAME = "gpu_memory_profile";
+    private static final String KEY_FOOTPRINT_PREFIX = "footprint_";
+
+    /**
+     * Una asignacion viva.
+     */
+    public static final class Allocation {
+        public final Category category;
+        public final int id;
+        public final String owner;     // Escena, sistema compartido o OWNER_SHARED
+        public final boolean sceneOwned;
+        public final String creator;   // Clase.metodo que la creo
+        public int width;
+        public int height;
+        public int levels;
+        public int bytesPerPixel;
+        public String format;
+        public long bytes;
+        boolean leaked;
+
+        Allocation(Category category, int id, String owner, boolean sceneOwned, String creator) {
+            this.category = category;
+            this.id = id;
+            this.owner = owner;
+            this.sceneOwned = sceneOwned;
+            this.creator = creator;
+        }
+
+        @Override
+        public String toString() {
+            String dims = width > 0 ? " " + width + "x" + height : "";
+            String mips = levels > 1 ? " mips=" + levels : "";
+            return category + "#" + id + dims + " " + (format != null ? format : "")
+                    + mips + " " + (bytes / 1024) + " KB (" + creator + ")";
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // POR CONTEXTO
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Registro del contexto GL del hilo actual (ver RenderContext) */
+    public static GpuMemoryRegistry get() {
+        return RenderContext.current().gpuMemory;
+    }
+
+    /** Bytes GPU vivos de todos los contextos del proceso (cualquier hilo) */
+    public static long getProcessLiveBytes() {
+        long total = 0;
+        for (RenderContext context : RenderContext.live()) {
+            total += context.gpuMemory.getTotalLiveBytes();
+        }
+        return total;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // ESTADO (mutado en GL thread, leido desde diagnostico → synchronized)
+    // ═══════════════════════════════════════════════════════════════
+    // Por categoría, indexado por id GL (int sin boxing en cada bufferData/texImage)
+    private final SparseArray<Allocation>[] allocations;
+    private final long[] liveBytes = new long[Category.values().length];
+    private final int[] liveCount = new int[Category.values().length];
+
+    private String sceneScope = null;
+    private String ownerOverride = null;
+
+    private int leakedCount = 0;
+    private long leakedBytes = 0;
+    private int untrackedUploads = 0;
+
+    private SharedPreferences prefs;
+
+    @SuppressWarnings("unchecked")
+    GpuMemoryRegistry() {
+        allocations = new SparseArray[Category.values().length];
+        for (int i = 0; i < allocations.length; i++) {
+            allocations[i] = new SparseArray<>();
+        }
+    }
+
+    /** Para persistir la huella medida de cada escena */
+    public void attachContext(Context context) {
+        if (prefs == null && context != null) {
+            prefs = context.getApplicationContext()
+                    .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 1. SCOPE DE DUEÑO
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Lo que se asigne a partir de ahora es de esta escena */
+    public synchronized void enterScene(String sceneName) {
+        sceneScope = sceneName;
+    }
+
+    public synchronized void exitScene() {
+        sceneScope = null;
+    }
+
+    /**
+     * Marca un dueño compartido (gana sobre el scope de escena).
+     * @return el dueño anterior, para popOwner
+     */
+    public synchronized String pushOwner(String owner) {
+        String previous = ownerOverride;
+        ownerOverride = owner;
+        return previous;
+    }
+
+    public synchronized void popOwner(String previous) {
+        ownerOverride = previous;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 2. ASIGNACIONES (desde GLStateManager, GL thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Textura (re)especificada. Si ya existia se actualiza en sitio.
+     * @param levels niveles de mipmap (1 = sin mips)
+     */
+    synchronized void recordTexture(int id, int width, int height, int levels,
+                                    int bytesPerPixel, String format) {
+        Allocation a = obtain(Category.TEXTURE, id);
+        if (a == null) return;
+        a.width = width;
+        a.height = height;
+        a.levels = Math.max(1, levels);
+        a.bytesPerPixel = bytesPerPixel;
+        a.format = format;
+        setBytes(a, mipChainBytes(width, height, a.levels, bytesPerPixel));
+    }
+
+    /** glGenerateMipmap: la textura pasa a tener cadena completa */
+    synchronized void recordMipmaps(int id) {
+        Allocation a = find(Category.TEXTURE, id);
+        if (a == null || a.width <= 0) return;
+        int levels = 1 + (int) (Math.log(Math.max(a.width, a.height)) / Math.log(2));
+        if (levels == a.levels) return;
+        a.levels = levels;
+        setBytes(a, mipChainBytes(a.width, a.height, levels, a.bytesPerPixel));
+    }
+
+    synchronized void recordBuffer(int id, long bytes, String usage) {
+        Allocation a = obtain(Category.BUFFER, id);
+        if (a == null) return;
+        a.format = usage;
+        setBytes(a, bytes);
+    }
+
+    synchronized void recordRenderbuffer(int id, int width, int height,
+                                         int bytesPerPixel, String format) {
+        Allocation a = obtain(Category.RENDERBUFFER, id);
+        if (a == null) return;
+        a.width = width;
+        a.height = height;
+        a.levels = 1;
+        a.bytesPerPixel = bytesPerPixel;
+        a.format = format;
+        setBytes(a, (long) width * height * bytesPerPixel);
+    }
+
+    synchronized void recordFramebuffer(int id) {
+        obtain(Category.FRAMEBUFFER, id);
+    }
+
+    synchronized void release(Category category, int id) {
+        SparseArray<Allocation> map = allocations[category.ordinal()];
+        Allocation a = map.get(id);
+        if (a == null) return;
+        map.remove(id);
+        liveBytes[category.ordinal()] -= a.bytes;
+        liveCount[category.ordinal()]--;
+        if (a.leaked) {
+            leakedCount--;
+            leakedBytes -= a.bytes;
+        }
+    }
+
+    /** Contexto GL nuevo: todo lo anterior murio con el contexto viejo */
+    public synchronized void invalidate() {
+        for (int i = 0; i < allocations.length; i++) {
+            allocations[i].clear();
+            liveBytes[i] = 0;
+            liveCount[i] = 0;
+        }
+        leakedCount = 0;
+        leakedBytes = 0;
+    }
+
+    private Allocation find(Category category, int id) {
+        return allocations[category.ordinal()].get(id);
+    }
+
+    private Allocation obtain(Category category, int id) {
+        if (id <= 0) {
+            // Binding desconocido para el cache de GLStateManager
+            if (untrackedUploads++ == 0) {
+                Log.w(TAG, "⚠️ Asignación " + category + " sin objeto conocido (no contabilizada)");
+            }
+            return null;
+        }
+        SparseArray<Allocation> map = allocations[category.ordinal()];
+        Allocation a = map.get(id);
+        if (a == null) {
+            boolean sceneOwned = ownerOverride == null && sceneScope != null;
+            String owner = ownerOverride != null ? ownerOverride
+                    : sceneScope != null ? sceneScope : OWNER_SHARED;
+            a = new Allocation(category, id, owner, sceneOwned, describeCaller());
+            map.put(id, a);
+            liveCount[category.ordinal()]++;
+        }
+        return a;
+    }
+
+    private void setBytes(Allocation a, long bytes) {
+        long delta = bytes - a.bytes;
+        a.bytes = bytes;
+        liveBytes[a.category.ordinal()] += delta;
+        if (a.leaked) {
+            leakedBytes += delta;
+        }
+    }
+
+    private static long mipChainBytes(int width, int height, int levels, int bytesPerPixel) {
+        long total = 0;
+        int w = width;
+        int h = height;
+        for (int i = 0; i < levels; i++) {
+            total += (long) w * h * bytesPerPixel;
+            w = Math.max(1, w / 2);
+            h = Math.max(1, h / 2);
+        }
+        return total;
+    }
+
+    /** Primer frame fuera del registro y de GLStateManager: quien asigno */
+    private static String describeCaller() {
+        StackTraceElement[] stack = new Throwable().getStackTrace();
+        for (StackTraceElement frame : stack) {
+            String cls = frame.getClassName();
+            if (cls.endsWith(".GpuMemoryRegistry") || cls.endsWith(".GLStateManager")) continue;
+            int dot = cls.lastIndexOf('.');
+            return cls.substring(dot + 1) + "." + frame.getMethodName();
+        }
+        return "?";
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 3. FUGAS POR ESCENA
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Llamar despues de destruir la escena: todo lo que siga vivo a su
+     * nombre es una fuga. Se loguea y queda marcado (no se re-reporta).
+     * @return numero de asignaciones fugadas
+     */
+    public synchronized int reportLeaks(String sceneName) {
+        if (sceneName == null) return 0;
+        List<Allocation> leaks = new ArrayList<>();
+        long bytes = 0;
+        for (SparseArray<Allocation> map : allocations) {
+            for (int i = 0; i < map.size(); i++) {
+                Allocation a = map.valueAt(i);
+                if (a.sceneOwned && !a.leaked && sceneName.equals(a.owner)) {
+                    leaks.add(a);
+                    bytes += a.bytes;
+                }
+            }
+        }
+        if (leaks.isEmpty()) {
+            Log.d(TAG, "✓ " + sceneName + ": sin fugas GPU");
+            return 0;
+        }
+
+        Log.w(TAG, "╔════════════════════════════════════════╗");
+        Log.w(TAG, "║   💧 FUGAS GPU: " + sceneName);
+        Log.w(TAG, "║   " + leaks.size() + " objetos, " + (bytes / 1024) + " KB");
+        Log.w(TAG, "╚════════════════════════════════════════╝");
+        for (Allocation a : leaks) {
+            Log.w(TAG, "  💧 " + a);
+            a.leaked = true;
+        }
+        leakedCount += leaks.size();
+        leakedBytes += bytes;
+        return leaks.size();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 4. HUELLA MEDIDA POR ESCENA
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Bytes vivos que pertenecen a la escena (sin contar fugas ya reportadas) */
+    public synchronized long getSceneBytes(String sceneName) {
+        long total = 0;
+        for (SparseArray<Allocation> map : allocations) {
+            for (int i = 0; i < map.size(); i++) {
+                Allocation a = map.valueAt(i);
+                if (a.sceneOwned && !a.leaked && a.owner.equals(sceneName)) {
+                    total += a.bytes;
+                }
+            }
+        }
+        return total;
+    }
+
+    /** Guarda la huella medida de la escena para el preflight de la proxima vez */
+    public void saveSceneFootprint(String sceneName, long bytes) {
+        if (prefs == null || sceneName == null || sceneName.isEmpty() || bytes <= 0) return;
+        prefs.edit().putLong(KEY_FOOTPRINT_PREFIX + sceneName, bytes).apply();
+        Log.d(TAG, "📏 Huella " + sceneName + ": " + (bytes / 1024 / 1024) + " MB");
+    }
+
+    /**
+     * Huella GPU medida en una ejecucion anterior.
+     * @return bytes, o -1 si la escena nunca se ha medido
+     */
+    public static long getSavedSceneFootprint(Context context, String sceneName) {
+        if (context == null || sceneName == null) return -1;
+        return context.getApplicationContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE)
+                .getLong(KEY_FOOTPRINT_PREFIX + sceneName, -1);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 5. TOTALES (diagnostico)
+    // ═══════════════════════════════════════════════════════════════
+
+    public synchronized long getLiveBytes(Category category) {
+        return liveBytes[category.ordinal()];
+    }
+
+    public synchronized int getLiveCount(Category category) {
+        return liveCount[category.ordinal()];
+    }
+
+    public synchronized long getTotalLiveBytes() {
+        long total = 0;
+        for (long b : liveBytes) total += b;
+        return total;
+    }
+
+    public synchronized int getLeakedCount() {
+        return leakedCount;
+    }
+
+    public synchronized long getLeakedBytes() {
+        return leakedBytes;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // FORMATOS
+    // ═══════════════════════════════════════════════════════════════
+
+    /** Bytes por pixel de un internalformat sized, o de format+type si es unsized */
+    static int bytesPerPixel(int internalFormat, int type) {
+        switch (internalFormat) {
+            case GLES30.GL_R8:
+            case GLES30.GL_ALPHA:
+            case GLES30.GL_LUMINANCE:
+                return 1;
+            case GLES30.GL_RG8:
+            case GLES30.GL_LUMINANCE_ALPHA:
+            case GLES30.GL_R16F:
+            case GLES30.GL_RGB565:
+            case GLES30.GL_RGBA4:
+            case GLES30.GL_RGB5_A1:
+            case GLES30.GL_DEPTH_COMPONENT16:
+                return 2;
+            case GLES30.GL_RGB8:
+                return 3;
+            case GLES30.GL_RGBA16F:
+                return 8;
+            case GLES30.GL_RGBA32F:
+                return 16;
+            case GLES30.GL_RGB:
+                return type == GLES30.GL_UNSIGNED_SHORT_5_6_5 ? 2 : 3;
+            case GLES30.GL_RGBA:
+                return type == GLES30.GL_UNSIGNED_SHORT_4_4_4_4
+                        || type == GLES30.GL_UNSIGNED_SHORT_5_5_5_1 ? 2 : 4;
+            default:
+                return 4;   // RGBA8, R11F_G11F_B10F, DEPTH24_STENCIL8...
+        }
+    }
+
+    static String formatName(int internalFormat) {
+        switch (internalFormat) {
+            case GLES30.GL_R8:              return "R8";
+            case GLES30.GL_RG8:             return "RG8";
+            case GLES30.GL_RGB8:            return "RGB8";
+            case GLES30.GL_RGBA8:           return "RGBA8";
+            case GLES30.GL_RGBA:            return "RGBA";
+            case GLES30.GL_RGB:             return "RGB";
+            case GLES30.GL_RGB565:          return "RGB565";
+            case GLES30.GL_RGBA16F:         return "RGBA16F";
+            case GLES30.GL_R16F:            return "R16F";
+            case GLES30.GL_DEPTH_COMPONENT16: return "DEPTH16";
+            default:                        return "0x" + Integer.toHexString(internalFormat);
+        }
+    }
+}
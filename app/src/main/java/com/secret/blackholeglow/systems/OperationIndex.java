@@ -0,0 +1,156 @@
+package com.secret.blackholeglow.systems;
+
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueuedOperation;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * OperationIndex - Cola de FirebaseQueueManager indexada por documento
+ *
+ * ESTRUCTURA:
+ * - Hash por clave (type | collection | documentId): coalescing O(1).
+ *   Una operación nueva sobre el mismo documento reemplaza a la anterior
+ *   (last-write-wins) o, si ambas son merge=true, combina sus mapas de data.
+ * - PriorityQueue para el orden de flush (prioridad mayor primero, luego FIFO).
+ *   Las entradas reemplazadas quedan en el heap y se descartan al sacarlas
+ *   (borrado perezoso); el heap se reconstruye si acumula demasiadas.
+ *
+ * NO se coalescen:
+ * - Operaciones sin documentId (auto-id: cada una crea un documento)
+ * - LIKE_INCREMENT (contador: combinar dos increment(1) perdería likes)
+ *
+ * Solo depende de QueuedOperation: se puede probar en la JVM.
+ * Thread-safe (métodos synchronized).
+ */
+public class OperationIndex {
+
+    private static final Comparator<QueuedOperation> FLUSH_ORDER = (a, b) -> {
+        int byPriority = Integer.compare(b.priority.value, a.priority.value);
+        return byPriority != 0 ? byPriority : Long.compare(a.sequence, b.sequence);
+    };
+
+    private final Map<String, QueuedOperation> byKey = new HashMap<>();
+    private final PriorityQueue<QueuedOperation> flushOrder = new PriorityQueue<>(16, FLUSH_ORDER);
+    private long nextSequence = 0;
+
+    /**
+     * Clave de coalescing de una operación
+     */
+    static String keyOf(QueuedOperation op) {
+        if (op.documentId == null || op.type == FirebaseQueueManager.OperationType.LIKE_INCREMENT) {
+            return op.id;
+        }
+        return op.type + "|" + op.collection + "|" + op.documentId;
+    }
+
+    /**
+     * Agrega una operación, coalesciendo con la pendiente del mismo documento.
+     * @return La operación reemplazada (ya no pendiente), o null
+     */
+    public synchronized QueuedOperation put(QueuedOperation op) {
+        op.key = keyOf(op);
+        op.sequence = nextSequence++;
+
+        QueuedOperation existing = byKey.get(op.key);
+        if (existing != null && existing.merge && op.merge) {
+            Map<String, Object> merged = new HashMap<>(existing.data);
+            merged.putAll(op.data);
+            op.data = merged;
+            if (existing.priority.value > op.priority.value) {
+                op.priority = existing.priority;
+            }
+        }
+
+        byKey.put(op.key, op);
+        flushOrder.add(op);
+
+        if (flushOrder.size() > 2 * byKey.size() + 64) {
+            rebuildHeap();
+        }
+        return existing;
+    }
+
+    /**
+     * Saca hasta max operaciones en orden de flush y las marca en vuelo.
+     */
+    public synchronized List<QueuedOperation> pollBatch(int max) {
+        List<QueuedOperation> batch = new ArrayList<>(Math.min(max, byKey.size()));
+        while (batch.size() < max) {
+            QueuedOperation op = flushOrder.poll();
+            if (op == null) break;
+            if (op.inFlight || byKey.get(op.key) != op) continue;  // Reemplazada o ya en vuelo
+            op.inFlight = true;
+            batch.add(op);
+        }
+        return batch;
+    }
+
+    /**
+     * ¿Sigue siendo la versión pendiente de su documento?
+     */
+    public synchronized boolean isCurrent(QueuedOperation op) {
+        return op.key != null && byKey.get(op.key) == op;
+    }
+
+    /**
+     * Commit exitoso o descarte definitivo.
+     * @return true si se quitó de la cola (false si ya había sido reemplazada)
+     */
+    public synchronized boolean remove(QueuedOperation op) {
+        op.inFlight = false;
+        if (isCurrent(op)) {
+            byKey.remove(op.key);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Vuelve a programar una operación en vuelo (commit fallido, quedan reintentos).
+     */
+    public synchronized void requeue(QueuedOperation op) {
+        op.inFlight = false;
+        if (isCurrent(op)) {
+            flushOrder.add(op);
+        }
+    }
+
+    public synchronized int size() {
+        return byKey.size();
+    }
+
+    public synchronized boolean isEmpty() {
+        return byKey.isEmpty();
+    }
+
+    /**
+     * Operaciones pendientes por id, en orden de encolado (para compactar el journal).
+     */
+    public synchronized Map<String, QueuedOperation> snapshotById() {
+        List<QueuedOperation> ops = new ArrayList<>(byKey.values());
+        ops.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        Map<String, QueuedOperation> result = new LinkedHashMap<>();
+        for (QueuedOperation op : ops) {
+            result.put(op.id, op);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        byKey.clear();
+        flushOrder.clear();
+    }
+
+    private void rebuildHeap() {
+        flushOrder.clear();
+        for (QueuedOperation op : byKey.values()) {
+            if (!op.inFlight) flushOrder.add(op);
+        }
+    }
+}
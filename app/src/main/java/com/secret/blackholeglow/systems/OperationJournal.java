@@ -0,0 +1,285 @@
+package com.secret.blackholeglow.systems;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * OperationJournal - Persistencia append-only para FirebaseQueueManager
+ *
+ * En vez de re-serializar toda la cola en cada cambio, cada evento se agrega
+ * al final del archivo como un registro pequeño:
+ * - ENQUEUE: id + payload (la operación serializada). Un ENQUEUE con un id
+ *   existente reemplaza al anterior (ej: retryCount actualizado).
+ * - ACK: solo el id (tombstone). La operación ya no está pendiente.
+ *
+ * FORMATO (big-endian):
+ *   Cabecera:  "FQJ1"
+ *   Registro:  [tipo:1][idLen:2][id][payloadLen:4][payload][crc32:4]
+ *   El CRC cubre tipo..payload.
+ *
+ * CRASH-SAFE:
+ * - Un registro cortado al final (proceso muerto a mitad de write) o con CRC
+ *   inválido termina el replay; el archivo se trunca al último registro válido.
+ * - compact() escribe el estado vivo en un .tmp y lo renombra (atómico).
+ * - Cabecera inválida: el archivo se aparta como .corrupt y se empieza un
+ *   journal vacío, para que los appends sigan funcionando.
+ *
+ * Solo usa java.io: se puede probar en la JVM con un directorio temporal.
+ * Thread-safe (métodos synchronized).
+ */
+public class OperationJournal {
+
+    private static final byte[] MAGIC = {'F', 'Q', 'J', '1'};
+    private static final byte TYPE_ENQUEUE = 1;
+    private static final byte TYPE_ACK = 2;
+    private static final String CORRUPT_SUFFIX = ".corrupt";
+
+    // Compactar cuando hay más registros muertos que vivos y el archivo pesa algo
+    private static final long COMPACT_MIN_BYTES = 32 * 1024;
+
+    private final File file;
+    private FileOutputStream out;
+
+    // Ids vivos y total de registros en el archivo (para decidir compactación)
+    private final Set<String> liveIds = new HashSet<>();
+    private int totalRecords = 0;
+
+    public OperationJournal(File file) {
+        this.file = file;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // REPLAY
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Reconstruye las operaciones pendientes leyendo el journal completo.
+     * Debe llamarse una vez antes de cualquier append.
+     * @return id → payload, en orden de encolado
+     */
+    public synchronized Map<String, byte[]> replay() throws IOException {
+        Map<String, byte[]> live = new LinkedHashMap<>();
+        liveIds.clear();
+        totalRecords = 0;
+
+        if (!file.exists() || file.length() < MAGIC.length) {
+            writeFresh(live);
+            return live;
+        }
+
+        long validLength = MAGIC.length;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] magic = new byte[MAGIC.length];
+            in.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                in.close();
+                resetCorrupt();
+                return live;
+            }
+
+            CRC32 crc = new CRC32();
+            while (true) {
+                byte type;
+                try {
+                    type = in.readByte();
+                } catch (EOFException e) {
+                    break;  // Fin limpio
+                }
+                try {
+                    int idLen = in.readUnsignedShort();
+                    byte[] id = new byte[idLen];
+                    in.readFully(id);
+                    int payloadLen = in.readInt();
+                    if (payloadLen < 0 || payloadLen > file.length()) break;  // Basura
+                    byte[] payload = new byte[payloadLen];
+                    in.readFully(payload);
+                    int storedCrc = in.readInt();
+
+                    crc.reset();
+                    updateCrc(crc, type, id, payload);
+                    if ((int) crc.getValue() != storedCrc) break;  // Registro corrupto
+
+                    String key = new String(id, StandardCharsets.UTF_8);
+                    if (type == TYPE_ENQUEUE) {
+                        live.put(key, payload);
+                    } else if (type == TYPE_ACK) {
+                        live.remove(key);
+                    } else {
+                        break;
+                    }
+                    totalRecords++;
+                    validLength += recordLength(idLen, payloadLen);
+                } catch (EOFException e) {
+                    break;  // Registro cortado al final
+                }
+            }
+        }
+
+        // Descartar cola rota para que los próximos appends queden alineados
+        if (validLength < file.length()) {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(validLength);
+            }
+        }
+
+        liveIds.addAll(live.keySet());
+        openForAppend();
+        return live;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // APPEND
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Registra una operación pendiente (o reemplaza una con el mismo id).
+     */
+    public synchronized void appendEnqueue(String id, byte[] payload) throws IOException {
+        writeRecord(TYPE_ENQUEUE, id, payload);
+        liveIds.add(id);
+    }
+
+    /**
+     * Tombstone: la operación ya no está pendiente (completada o descartada).
+     */
+    public synchronized void appendAck(String id) throws IOException {
+        if (!liveIds.remove(id)) return;  // Nada que anular
+        writeRecord(TYPE_ACK, id, new byte[0]);
+    }
+
+    /**
+     * ¿Conviene compactar? (más registros muertos que vivos y archivo no trivial)
+     */
+    public synchronized boolean needsCompaction() {
+        int dead = totalRecords - liveIds.size();
+        return dead > liveIds.size() && file.length() > COMPACT_MIN_BYTES;
+    }
+
+    /**
+     * Reescribe el journal solo con las operaciones vivas (tmp + rename).
+     */
+    public synchronized void compact(Map<String, byte[]> live) throws IOException {
+        closeQuietly();
+        writeFresh(live);
+    }
+
+    /**
+     * Aparta el archivo actual como .corrupt (se pisa el anterior) y empieza
+     * un journal vacío ya abierto para append. Para cuando replay() no puede
+     * leer el archivo: mejor perder la cola que dejar la persistencia apagada.
+     */
+    public synchronized void resetCorrupt() throws IOException {
+        closeQuietly();
+        if (file.exists()) {
+            File quarantine = new File(file.getPath() + CORRUPT_SUFFIX);
+            if (quarantine.exists()) quarantine.delete();
+            if (!file.renameTo(quarantine)) {
+                file.delete();
+            }
+        }
+        writeFresh(new LinkedHashMap<>());
+    }
+
+    public synchronized long sizeBytes() {
+        return file.length();
+    }
+
+    public synchronized void close() {
+        closeQuietly();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INTERNOS
+    // ═══════════════════════════════════════════════════════════════
+
+    private void writeFresh(Map<String, byte[]> live) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream fos = new FileOutputStream(tmp)) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            buffer.write(MAGIC);
+            for (Map.Entry<String, byte[]> entry : live.entrySet()) {
+                encodeRecord(buffer, TYPE_ENQUEUE, entry.getKey(), entry.getValue());
+            }
+            fos.write(buffer.toByteArray());
+            fos.getFD().sync();
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("No se pudo reemplazar " + file);
+        }
+        liveIds.clear();
+        liveIds.addAll(live.keySet());
+        totalRecords = live.size();
+        openForAppend();
+    }
+
+    private void openForAppend() throws IOException {
+        closeQuietly();
+        out = new FileOutputStream(file, true);
+    }
+
+    private void writeRecord(byte type, String id, byte[] payload) throws IOException {
+        if (out == null) {
+            throw new IOException("Journal no abierto (falta replay())");
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(16 + payload.length);
+        encodeRecord(buffer, type, id, payload);
+        // Un solo write(): si el proceso muere, a lo sumo queda un registro cortado al final
+        out.write(buffer.toByteArray());
+        totalRecords++;
+    }
+
+    private static void encodeRecord(ByteArrayOutputStream buffer, byte type, String id, byte[] payload)
+            throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > 0xFFFF) {
+            throw new IOException("Id demasiado largo: " + idBytes.length);
+        }
+        CRC32 crc = new CRC32();
+        updateCrc(crc, type, idBytes, payload);
+
+        DataOutputStream data = new DataOutputStream(buffer);
+        data.writeByte(type);
+        data.writeShort(idBytes.length);
+        data.write(idBytes);
+        data.writeInt(payload.length);
+        data.write(payload);
+        data.writeInt((int) crc.getValue());
+        data.flush();
+    }
+
+    private static void updateCrc(CRC32 crc, byte type, byte[] id, byte[] payload) {
+        crc.update(type);
+        crc.update(id, 0, id.length);
+        crc.update(payload, 0, payload.length);
+    }
+
+    private static long recordLength(int idLen, int payloadLen) {
+        return 1 + 2 + idLen + 4 + payloadLen + 4;
+    }
+
+    private void closeQuietly() {
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.secret.blackholeglow.systems;
+
+import com.secret.blackholeglow.effects.RenderTargetPool;
+import com.secret.blackholeglow.gl3.SpriteBatch;
+import com.secret.blackholeglow.text.SdfFont;
+import com.secret.blackholeglow.text.SdfTextRenderer;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║                       RenderContext                              ║
+ * ║              "El estado GL de UN contexto EGL"                   ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  Cada engine (preview del sistema + home, Daydream) tiene su     ║
+ * ║  propio GL thread y su propio contexto EGL: ids, bindings y      ║
+ * ║  caches de uno no valen en el otro.                              ║
+ * ║                                                                  ║
+ * ║  • WallpaperDirector crea uno y lo enlaza a su GL thread         ║
+ * ║  • Los get() de los sistemas por-contexto (GLStateManager...)    ║
+ * ║    resuelven el del hilo actual: las llamadas no cambian         ║
+ * ║  • live(): los contextos de los directores vivos, para totales   ║
+ * ║    del proceso leídos desde otros hilos (diagnóstico, memoria)   ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * USO (WallpaperDirector):
+ *   private final RenderContext renderContext = new RenderContext();
+ *   onSurfaceCreated():  renderContext.bind();          // GL thread
+ *   release():           renderContext.bind(); ... renderContext.dispose();
+ *
+ * Un hilo sin contexto enlazado (tests, un renderer sin director) recibe
+ * uno propio la primera vez que lo pide.
+ */
+public final class RenderContext {
+
+    private static final ThreadLocal<RenderContext> current = new ThreadLocal<>();
+    // Enlazados con bind() y aún sin dispose() (los de respaldo no cuentan)
+    private static final CopyOnWriteArrayList<RenderContext> live = new CopyOnWriteArrayList<>();
+
+    final GpuMemoryRegistry gpuMemory = new GpuMemoryRegistry();
+    final GLStateManager glState = new GLStateManager(gpuMemory);
+    private final RenderTargetPool renderTargets = new RenderTargetPool();
+    private final SdfFont.Textures sdfTextures = new SdfFont.Textures();
+    private final SdfTextRenderer textRenderer = new SdfTextRenderer();
+    private final SpriteBatch spriteBatch = new SpriteBatch();
+
+    /**
+     * Contexto enlazado al hilo actual (se crea uno si no hay).
+     */
+    public static RenderContext current() {
+        RenderContext context = current.get();
+        if (context == null) {
+            context = new RenderContext();
+            current.set(context);
+        }
+        return context;
+    }
+
+    /** Enlaza este contexto al hilo actual (GL thread, en onSurfaceCreated) */
+    public void bind() {
+        current.set(this);
+        live.addIfAbsent(this);
+    }
+
+    /**
+     * Fin del director: se desenlaza del hilo actual y deja de contar en live().
+     */
+    public void dispose() {
+        if (current.get() == this) {
+            current.remove();
+        }
+        live.remove(this);
+    }
+
+    /** Contextos de los directores vivos (cualquier hilo) */
+    public static List<RenderContext> live() {
+        return Collections.unmodifiableList(live);
+    }
+
+    public GLStateManager getGLState() {
+        return glState;
+    }
+
+    public GpuMemoryRegistry getGpuMemory() {
+        return gpuMemory;
+    }
+
+    public RenderTargetPool getRenderTargets() {
+        return renderTargets;
+    }
+
+    public SdfFont.Textures getSdfTextures() {
+        return sdfTextures;
+    }
+
+    public SdfTextRenderer getTextRenderer() {
+        return textRenderer;
+    }
+
+    public SpriteBatch getSpriteBatch() {
+        return spriteBatch;
+    }
+}
@@ -4,7 +4,6 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
 import com.secret.blackholeglow.TextureLoader;
@@ -169,7 +168,7 @@ public class ResourceManager implements TextureLoader {
     public void releaseTexture(int resourceId) {
         Integer textureId = textureCache.remove(resourceId);
         if (textureId != null && textureId != 0) {
-            GLES30.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             Log.d(TAG, "🗑️ Textura liberada: " + resourceId);
         }
     }
@@ -206,15 +205,18 @@ public class ResourceManager implements TextureLoader {
         totalTextureMemory += bmp.getByteCount();
 
         // Subir a GPU
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, handle[0]);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bmp, 0);
+        // Cache propio: la libera ResourceManager, no la escena que la pidió
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, handle[0]);
+        String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bmp, 0);
+        GpuMemoryRegistry.get().popOwner(previousOwner);
 
         int width = bmp.getWidth();
         int height = bmp.getHeight();
         bmp.recycle();
 
         // Generar mipmaps
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
 
         // Configurar filtros
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
@@ -302,7 +304,7 @@ public class ResourceManager implements TextureLoader {
         if (status[0] == 0) {
             String error = GLES30.glGetProgramInfoLog(program);
             Log.e(TAG, "❌ Error enlazando programa: " + error);
-            GLES30.glDeleteProgram(program);
+            GLStateManager.get().deleteProgram(program);
             return 0;
         }
 
@@ -350,7 +352,7 @@ public class ResourceManager implements TextureLoader {
         String cacheKey = vertexAssetPath + "|" + fragmentAssetPath;
         Integer programId = programCache.remove(cacheKey);
         if (programId != null && programId != 0) {
-            GLES30.glDeleteProgram(programId);
+            GLStateManager.get().deleteProgram(programId);
             Log.d(TAG, "🗑️ Programa liberado: " + cacheKey);
         }
     }
@@ -443,7 +445,7 @@ public class ResourceManager implements TextureLoader {
         // Liberar texturas
         for (Integer textureId : textureCache.values()) {
             if (textureId != 0) {
-                GLES30.glDeleteTextures(1, new int[]{textureId}, 0);
+                GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             }
         }
         textureCache.clear();
@@ -451,7 +453,7 @@ public class ResourceManager implements TextureLoader {
         // Liberar programas
         for (Integer programId : programCache.values()) {
             if (programId != 0) {
-                GLES30.glDeleteProgram(programId);
+                GLStateManager.get().deleteProgram(programId);
             }
         }
         programCache.clear();
@@ -1,21 +1,18 @@
 package com.secret.blackholeglow.systems;
 
-import com.secret.blackholeglow.ShaderUtils;
+import com.secret.blackholeglow.effects.ScreenOverlay;
 
 import android.opengl.GLES30;
 import android.util.Log;
 
-import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
-import java.nio.FloatBuffer;
-
 /**
  * ╔══════════════════════════════════════════════════════════════════╗
  * ║ 💥 ScreenEffectsManager - Efectos de Impacto en Pantalla         ║
  * ╠══════════════════════════════════════════════════════════════════╣
  * ║  • Flash blanco de impacto                                       ║
  * ║  • Grietas procedurales animadas                                 ║
- * ║  • Optimizado con shaders lazy-loaded                            ║
+ * ║  • Se dibujan como ScreenOverlay: RenderGraph los fusiona con    ║
+ * ║    el composite en un solo pase full-screen                      ║
  * ╚══════════════════════════════════════════════════════════════════╝
  */
 public class ScreenEffectsManager {
@@ -24,67 +21,17 @@ public class ScreenEffectsManager {
     // ===== 💥 SISTEMA DE IMPACTO EN PANTALLA (FLASH) 💥 =====
     private float impactFlashAlpha = 0f;
     private float impactFlashTimer = 0f;
-    private int flashShaderProgramId = 0;
-    private int flashAPositionLoc = -1;
-    private int flashAColorLoc = -1;
 
     // ===== 💥 SISTEMA DE PANTALLA ROTA (GRIETAS) 💥 =====
     private float crackAlpha = 0f;
     private float crackTimer = 0f;
     private float crackX = 0.5f;
     private float crackY = 0.5f;
-    private int crackShaderProgramId = 0;
-    private int crackAPositionLoc = -1;
-    private int crackATexCoordLoc = -1;
-    private int crackUTimeLoc = -1;
-    private int crackUImpactPosLoc = -1;
-    private int crackUAlphaLoc = -1;
-
-    // Buffers reutilizables (evita allocations en runtime)
-    private FloatBuffer vertexBuffer;
-    private FloatBuffer colorBuffer;
-    private FloatBuffer uvBuffer;
 
-    // 🔧 FIX: Array cacheado para evitar allocations cada frame
-    private final float[] cachedColors = new float[16];
+    // Orden = orden de composición (flash debajo, grietas encima)
+    private final ScreenOverlay[] overlays = {new FlashOverlay(), new CrackOverlay()};
 
     public ScreenEffectsManager() {
-        initBuffers();
-    }
-
-    private void initBuffers() {
-        // Vértices en NDC que cubren toda la pantalla
-        float[] vertices = {
-            -1.0f, -1.0f,
-             1.0f, -1.0f,
-            -1.0f,  1.0f,
-             1.0f,  1.0f
-        };
-
-        ByteBuffer vbb = ByteBuffer.allocateDirect(vertices.length * 4);
-        vbb.order(ByteOrder.nativeOrder());
-        vertexBuffer = vbb.asFloatBuffer();
-        vertexBuffer.put(vertices);
-        vertexBuffer.position(0);
-
-        // Buffer de colores (4 vértices x 4 componentes RGBA)
-        ByteBuffer cbb = ByteBuffer.allocateDirect(16 * 4);
-        cbb.order(ByteOrder.nativeOrder());
-        colorBuffer = cbb.asFloatBuffer();
-
-        // UV coordinates
-        float[] uvs = {
-            0.0f, 0.0f,
-            1.0f, 0.0f,
-            0.0f, 1.0f,
-            1.0f, 1.0f
-        };
-
-        ByteBuffer ubb = ByteBuffer.allocateDirect(uvs.length * 4);
-        ubb.order(ByteOrder.nativeOrder());
-        uvBuffer = ubb.asFloatBuffer();
-        uvBuffer.put(uvs);
-        uvBuffer.position(0);
     }
 
     /**
@@ -142,291 +89,181 @@ public class ScreenEffectsManager {
     }
 
     /**
-     * Dibuja los efectos activos
+     * Overlays para RenderGraph.addOverlays() (solo se dibujan los activos)
      */
-    public void draw() {
-        if (impactFlashAlpha > 0.01f) {
-            drawImpactFlash();
-        }
-
-        if (crackAlpha > 0.01f) {
-            drawScreenCracks();
-        }
+    public ScreenOverlay[] getOverlays() {
+        return overlays;
     }
 
+    // ═══════════════════════════════════════════════════════════════
+    // OVERLAYS
+    // ═══════════════════════════════════════════════════════════════
+
     /**
-     * Dibuja un flash blanco semi-transparente en toda la pantalla
+     * Flash blanco semi-transparente en toda la pantalla
      */
-    private void drawImpactFlash() {
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+    private final class FlashOverlay implements ScreenOverlay {
+        private final String[] uniforms = {"uFlashAlpha"};
 
-        // Inicialización lazy del shader
-        if (flashShaderProgramId == 0) {
-            initFlashShader();
-            if (flashShaderProgramId == 0) {
-                GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-                return;
-            }
+        @Override
+        public String getGlslSource() {
+            return FLASH_GLSL;
         }
 
-        if (flashShaderProgramId > 0 && GLES30.glIsProgram(flashShaderProgramId)) {
-            GLES30.glUseProgram(flashShaderProgramId);
-
-            // 🔧 FIX: Usar array cacheado en lugar de new float[16] cada frame
-            for (int i = 0; i < 4; i++) {
-                cachedColors[i * 4] = 1.0f;      // R
-                cachedColors[i * 4 + 1] = 1.0f;  // G
-                cachedColors[i * 4 + 2] = 1.0f;  // B
-                cachedColors[i * 4 + 3] = impactFlashAlpha;  // A
-            }
-            colorBuffer.clear();
-            colorBuffer.put(cachedColors);
-            colorBuffer.position(0);
-
-            // Configurar atributos
-            GLES30.glEnableVertexAttribArray(flashAPositionLoc);
-            GLES30.glVertexAttribPointer(flashAPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-
-            GLES30.glEnableVertexAttribArray(flashAColorLoc);
-            GLES30.glVertexAttribPointer(flashAColorLoc, 4, GLES30.GL_FLOAT, false, 0, colorBuffer);
-
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-
-            GLES30.glDisableVertexAttribArray(flashAPositionLoc);
-            GLES30.glDisableVertexAttribArray(flashAColorLoc);
+        @Override
+        public String getFunctionName() {
+            return "flashOverlay";
         }
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-    }
-
-    private void initFlashShader() {
-        String vertexShader =
-            "attribute vec2 a_Position;\n" +
-            "attribute vec4 a_Color;\n" +
-            "varying vec4 v_Color;\n" +
-            "void main() {\n" +
-            "    v_Color = a_Color;\n" +
-            "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
-            "}\n";
-
-        String fragmentShader =
-            "#ifdef GL_ES\n" +
-            "precision mediump float;\n" +
-            "#endif\n" +
-            "varying vec4 v_Color;\n" +
-            "void main() {\n" +
-            "    gl_FragColor = v_Color;\n" +
-            "}\n";
-
-        int vShader = ShaderUtils.compileShader(GLES30.GL_VERTEX_SHADER, vertexShader);
-        int fShader = ShaderUtils.compileShader(GLES30.GL_FRAGMENT_SHADER, fragmentShader);
-
-        flashShaderProgramId = GLES30.glCreateProgram();
-        GLES30.glAttachShader(flashShaderProgramId, vShader);
-        GLES30.glAttachShader(flashShaderProgramId, fShader);
-        GLES30.glLinkProgram(flashShaderProgramId);
-
-        int[] linkStatus = new int[1];
-        GLES30.glGetProgramiv(flashShaderProgramId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-        if (linkStatus[0] == 0) {
-            Log.e(TAG, "💥 Flash shader link failed: " + GLES30.glGetProgramInfoLog(flashShaderProgramId));
-            flashShaderProgramId = 0;
-            return;
+        @Override
+        public String[] getUniformNames() {
+            return uniforms;
         }
 
-        GLES30.glDeleteShader(vShader);
-        GLES30.glDeleteShader(fShader);
-
-        flashAPositionLoc = GLES30.glGetAttribLocation(flashShaderProgramId, "a_Position");
-        flashAColorLoc = GLES30.glGetAttribLocation(flashShaderProgramId, "a_Color");
+        @Override
+        public boolean isActive() {
+            return impactFlashAlpha > 0.01f;
+        }
 
-        Log.d(TAG, "💥 Flash shader creado - ID: " + flashShaderProgramId);
+        @Override
+        public void applyUniforms(int[] locations) {
+            GLES30.glUniform1f(locations[0], impactFlashAlpha);
+        }
     }
 
     /**
-     * 💥💥 Dibuja grietas procedurales en la pantalla
+     * 💥💥 Grietas procedurales desde el punto de impacto
      */
-    private void drawScreenCracks() {
-        GLES30.glDisable(GLES30.GL_DEPTH_TEST);
-        GLES30.glEnable(GLES30.GL_BLEND);
-        GLES30.glBlendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+    private final class CrackOverlay implements ScreenOverlay {
+        private final String[] uniforms = {"uCrackTime", "uCrackImpactPos", "uCrackAlpha"};
 
-        // Inicialización lazy del shader
-        if (crackShaderProgramId == 0) {
-            initCrackShader();
-            if (crackShaderProgramId == 0) {
-                GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-                return;
-            }
+        @Override
+        public String getGlslSource() {
+            return CRACK_GLSL;
         }
 
-        if (crackShaderProgramId > 0 && GLES30.glIsProgram(crackShaderProgramId)) {
-            GLES30.glUseProgram(crackShaderProgramId);
-
-            // Configurar uniforms
-            GLES30.glUniform1f(crackUTimeLoc, crackTimer);
-            GLES30.glUniform2f(crackUImpactPosLoc, crackX, crackY);
-            GLES30.glUniform1f(crackUAlphaLoc, crackAlpha);
-
-            // Configurar atributos
-            GLES30.glEnableVertexAttribArray(crackAPositionLoc);
-            GLES30.glVertexAttribPointer(crackAPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
-
-            GLES30.glEnableVertexAttribArray(crackATexCoordLoc);
-            GLES30.glVertexAttribPointer(crackATexCoordLoc, 2, GLES30.GL_FLOAT, false, 0, uvBuffer);
-
-            GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
-
-            GLES30.glDisableVertexAttribArray(crackAPositionLoc);
-            GLES30.glDisableVertexAttribArray(crackATexCoordLoc);
+        @Override
+        public String getFunctionName() {
+            return "crackOverlay";
         }
 
-        GLES30.glEnable(GLES30.GL_DEPTH_TEST);
-    }
-
-    private void initCrackShader() {
-        String vertexShader =
-            "attribute vec2 a_Position;\n" +
-            "attribute vec2 a_TexCoord;\n" +
-            "varying vec2 v_TexCoord;\n" +
-            "void main() {\n" +
-            "    v_TexCoord = a_TexCoord;\n" +
-            "    gl_Position = vec4(a_Position, 0.0, 1.0);\n" +
-            "}\n";
-
-        String fragmentShader =
-            "#ifdef GL_ES\n" +
-            "precision mediump float;\n" +
-            "#endif\n" +
-            "varying vec2 v_TexCoord;\n" +
-            "uniform float u_Time;\n" +
-            "uniform vec2 u_ImpactPos;\n" +
-            "uniform float u_Alpha;\n" +
-            "\n" +
-            "float hash(float n) {\n" +
-            "    return fract(sin(n) * 43758.5453);\n" +
-            "}\n" +
-            "\n" +
-            "float noise(vec2 p) {\n" +
-            "    vec2 i = floor(p);\n" +
-            "    vec2 f = fract(p);\n" +
-            "    f = f * f * (3.0 - 2.0 * f);\n" +
-            "    float n = i.x + i.y * 57.0;\n" +
-            "    return mix(mix(hash(n), hash(n + 1.0), f.x),\n" +
-            "               mix(hash(n + 57.0), hash(n + 58.0), f.x), f.y);\n" +
-            "}\n" +
-            "\n" +
-            "void main() {\n" +
-            "    vec2 uv = v_TexCoord;\n" +
-            "    vec2 toImpact = uv - u_ImpactPos;\n" +
-            "    float dist = length(toImpact);\n" +
-            "    float angle = atan(toImpact.y, toImpact.x);\n" +
-            "    \n" +
-            "    // GRIETAS PRINCIPALES (8 rayos)\n" +
-            "    float numCracks = 8.0;\n" +
-            "    float crackPattern = 0.0;\n" +
-            "    \n" +
-            "    for (float i = 0.0; i < numCracks; i++) {\n" +
-            "        float crackAngle = (i / numCracks) * 6.28318 + hash(i) * 0.3;\n" +
-            "        float angleDiff = abs(mod(angle - crackAngle + 3.14159, 6.28318) - 3.14159);\n" +
-            "        \n" +
-            "        float crackNoise = noise(vec2(dist * 30.0, i)) * 0.5 + 0.5;\n" +
-            "        float crackWidth = 0.004 + crackNoise * 0.003;\n" +
-            "        float crack = smoothstep(crackWidth, 0.0, angleDiff);\n" +
-            "        \n" +
-            "        float branch = noise(vec2(dist * 15.0 + i, angle * 8.0));\n" +
-            "        crack *= (0.7 + branch * 0.3);\n" +
-            "        \n" +
-            "        float distFade = smoothstep(1.0, 0.0, dist);\n" +
-            "        crack *= distFade;\n" +
-            "        \n" +
-            "        float expansion = smoothstep(dist * 2.0, dist * 2.0 + 0.15, u_Time * 3.0);\n" +
-            "        crack *= expansion;\n" +
-            "        \n" +
-            "        crackPattern = max(crackPattern, crack);\n" +
-            "    }\n" +
-            "    \n" +
-            "    // GRIETAS SECUNDARIAS (3 rayos sutiles)\n" +
-            "    float secondaryCracks = 0.0;\n" +
-            "    for (float i = 0.0; i < 3.0; i++) {\n" +
-            "        float offset = hash(i + 10.0) * 6.28318;\n" +
-            "        float crackAngle = (i / 3.0) * 6.28318 + offset;\n" +
-            "        float angleDiff = abs(mod(angle - crackAngle + 3.14159, 6.28318) - 3.14159);\n" +
-            "        \n" +
-            "        float crack = smoothstep(0.003, 0.0, angleDiff);\n" +
-            "        float distFade = smoothstep(0.6, 0.0, dist);\n" +
-            "        crack *= distFade;\n" +
-            "        \n" +
-            "        float expansion = smoothstep(dist * 2.0, dist * 2.0 + 0.15, u_Time * 3.0);\n" +
-            "        crack *= expansion * 0.4;\n" +
-            "        \n" +
-            "        secondaryCracks = max(secondaryCracks, crack);\n" +
-            "    }\n" +
-            "    \n" +
-            "    crackPattern = max(crackPattern, secondaryCracks);\n" +
-            "    \n" +
-            "    // DESTELLO EN PUNTO DE IMPACTO\n" +
-            "    float impactGlow = 0.0;\n" +
-            "    if (dist < 0.15) {\n" +
-            "        impactGlow = (1.0 - dist / 0.15) * smoothstep(0.3, 0.0, u_Time);\n" +
-            "        impactGlow = pow(impactGlow, 2.0);\n" +
-            "    }\n" +
-            "    \n" +
-            "    // COLOR ENERGÉTICO (azul eléctrico/cyan)\n" +
-            "    vec3 crackColor = mix(\n" +
-            "        vec3(0.3, 0.8, 1.0),\n" +
-            "        vec3(0.9, 0.95, 1.0),\n" +
-            "        crackPattern * 0.6\n" +
-            "    );\n" +
-            "    \n" +
-            "    crackColor = mix(crackColor, vec3(1.0, 0.7, 0.3), impactGlow * 0.8);\n" +
-            "    \n" +
-            "    float finalAlpha = (crackPattern + impactGlow) * u_Alpha * 0.7;\n" +
-            "    gl_FragColor = vec4(crackColor, finalAlpha);\n" +
-            "}\n";
-
-        int vShader = ShaderUtils.compileShader(GLES30.GL_VERTEX_SHADER, vertexShader);
-        int fShader = ShaderUtils.compileShader(GLES30.GL_FRAGMENT_SHADER, fragmentShader);
-
-        crackShaderProgramId = GLES30.glCreateProgram();
-        GLES30.glAttachShader(crackShaderProgramId, vShader);
-        GLES30.glAttachShader(crackShaderProgramId, fShader);
-        GLES30.glLinkProgram(crackShaderProgramId);
-
-        int[] linkStatus = new int[1];
-        GLES30.glGetProgramiv(crackShaderProgramId, GLES30.GL_LINK_STATUS, linkStatus, 0);
-        if (linkStatus[0] == 0) {
-            Log.e(TAG, "💥 Crack shader link failed: " + GLES30.glGetProgramInfoLog(crackShaderProgramId));
-            crackShaderProgramId = 0;
-            return;
+        @Override
+        public String[] getUniformNames() {
+            return uniforms;
         }
 
-        GLES30.glDeleteShader(vShader);
-        GLES30.glDeleteShader(fShader);
-
-        crackAPositionLoc = GLES30.glGetAttribLocation(crackShaderProgramId, "a_Position");
-        crackATexCoordLoc = GLES30.glGetAttribLocation(crackShaderProgramId, "a_TexCoord");
-        crackUTimeLoc = GLES30.glGetUniformLocation(crackShaderProgramId, "u_Time");
-        crackUImpactPosLoc = GLES30.glGetUniformLocation(crackShaderProgramId, "u_ImpactPos");
-        crackUAlphaLoc = GLES30.glGetUniformLocation(crackShaderProgramId, "u_Alpha");
+        @Override
+        public boolean isActive() {
+            return crackAlpha > 0.01f;
+        }
 
-        Log.d(TAG, "💥 Crack shader creado - ID: " + crackShaderProgramId);
+        @Override
+        public void applyUniforms(int[] locations) {
+            GLES30.glUniform1f(locations[0], crackTimer);
+            GLES30.glUniform2f(locations[1], crackX, crackY);
+            GLES30.glUniform1f(locations[2], crackAlpha);
+        }
     }
 
+    private static final String FLASH_GLSL =
+        "uniform float uFlashAlpha;\n" +
+        "vec4 flashOverlay(vec2 uv) {\n" +
+        "    return vec4(1.0, 1.0, 1.0, uFlashAlpha);\n" +
+        "}\n";
+
+    private static final String CRACK_GLSL =
+        "uniform float uCrackTime;\n" +
+        "uniform vec2 uCrackImpactPos;\n" +
+        "uniform float uCrackAlpha;\n" +
+        "\n" +
+        "float crackHash(float n) {\n" +
+        "    return fract(sin(n) * 43758.5453);\n" +
+        "}\n" +
+        "\n" +
+        "float crackNoise(vec2 p) {\n" +
+        "    vec2 i = floor(p);\n" +
+        "    vec2 f = fract(p);\n" +
+        "    f = f * f * (3.0 - 2.0 * f);\n" +
+        "    float n = i.x + i.y * 57.0;\n" +
+        "    return mix(mix(crackHash(n), crackHash(n + 1.0), f.x),\n" +
+        "               mix(crackHash(n + 57.0), crackHash(n + 58.0), f.x), f.y);\n" +
+        "}\n" +
+        "\n" +
+        "vec4 crackOverlay(vec2 uv) {\n" +
+        "    vec2 toImpact = uv - uCrackImpactPos;\n" +
+        "    float dist = length(toImpact);\n" +
+        "    float angle = atan(toImpact.y, toImpact.x);\n" +
+        "    \n" +
+        "    // GRIETAS PRINCIPALES (8 rayos)\n" +
+        "    float numCracks = 8.0;\n" +
+        "    float crackPattern = 0.0;\n" +
+        "    \n" +
+        "    for (float i = 0.0; i < numCracks; i++) {\n" +
+        "        float crackAngle = (i / numCracks) * 6.28318 + crackHash(i) * 0.3;\n" +
+        "        float angleDiff = abs(mod(angle - crackAngle + 3.14159, 6.28318) - 3.14159);\n" +
+        "        \n" +
+        "        float widthNoise = crackNoise(vec2(dist * 30.0, i)) * 0.5 + 0.5;\n" +
+        "        float crackWidth = 0.004 + widthNoise * 0.003;\n" +
+        "        float crack = smoothstep(crackWidth, 0.0, angleDiff);\n" +
+        "        \n" +
+        "        float branch = crackNoise(vec2(dist * 15.0 + i, angle * 8.0));\n" +
+        "        crack *= (0.7 + branch * 0.3);\n" +
+        "        \n" +
+        "        float distFade = smoothstep(1.0, 0.0, dist);\n" +
+        "        crack *= distFade;\n" +
+        "        \n" +
+        "        float expansion = smoothstep(dist * 2.0, dist * 2.0 + 0.15, uCrackTime * 3.0);\n" +
+        "        crack *= expansion;\n" +
+        "        \n" +
+        "        crackPattern = max(crackPattern, crack);\n" +
+        "    }\n" +
+        "    \n" +
+        "    // GRIETAS SECUNDARIAS (3 rayos sutiles)\n" +
+        "    float secondaryCracks = 0.0;\n" +
+        "    for (float i = 0.0; i < 3.0; i++) {\n" +
+        "        float offset = crackHash(i + 10.0) * 6.28318;\n" +
+        "        float crackAngle = (i / 3.0) * 6.28318 + offset;\n" +
+        "        float angleDiff = abs(mod(angle - crackAngle + 3.14159, 6.28318) - 3.14159);\n" +
+        "        \n" +
+        "        float crack = smoothstep(0.003, 0.0, angleDiff);\n" +
+        "        float distFade = smoothstep(0.6, 0.0, dist);\n" +
+        "        crack *= distFade;\n" +
+        "        \n" +
+        "        float expansion = smoothstep(dist * 2.0, dist * 2.0 + 0.15, uCrackTime * 3.0);\n" +
+        "        crack *= expansion * 0.4;\n" +
+        "        \n" +
+        "        secondaryCracks = max(secondaryCracks, crack);\n" +
+        "    }\n" +
+        "    \n" +
+        "    crackPattern = max(crackPattern, secondaryCracks);\n" +
+        "    \n" +
+        "    // DESTELLO EN PUNTO DE IMPACTO\n" +
+        "    float impactGlow = 0.0;\n" +
+        "    if (dist < 0.15) {\n" +
+        "        impactGlow = (1.0 - dist / 0.15) * smoothstep(0.3, 0.0, uCrackTime);\n" +
+        "        impactGlow = pow(impactGlow, 2.0);\n" +
+        "    }\n" +
+        "    \n" +
+        "    // COLOR ENERGÉTICO (azul eléctrico/cyan)\n" +
+        "    vec3 crackColor = mix(\n" +
+        "        vec3(0.3, 0.8, 1.0),\n" +
+        "        vec3(0.9, 0.95, 1.0),\n" +
+        "        crackPattern * 0.6\n" +
+        "    );\n" +
+        "    \n" +
+        "    crackColor = mix(crackColor, vec3(1.0, 0.7, 0.3), impactGlow * 0.8);\n" +
+        "    \n" +
+        "    float finalAlpha = (crackPattern + impactGlow) * uCrackAlpha * 0.7;\n" +
+        "    return vec4(crackColor, finalAlpha);\n" +
+        "}\n";
+
     /**
-     * Libera recursos OpenGL
+     * Libera recursos OpenGL (los shaders ahora son del RenderGraph)
      */
     public void release() {
-        if (flashShaderProgramId != 0) {
-            GLES30.glDeleteProgram(flashShaderProgramId);
-            flashShaderProgramId = 0;
-        }
-        if (crackShaderProgramId != 0) {
-            GLES30.glDeleteProgram(crackShaderProgramId);
-            crackShaderProgramId = 0;
-        }
+        impactFlashAlpha = 0f;
+        crackAlpha = 0f;
+        crackTimer = 0f;
         Log.d(TAG, "💥 ScreenEffectsManager liberado");
     }
 
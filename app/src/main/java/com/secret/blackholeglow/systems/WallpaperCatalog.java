@@ -12,7 +12,11 @@ import android.content.Context;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 /**
  * ╔══════════════════════════════════════════════════════════════════╗
@@ -26,6 +30,8 @@ import java.util.List;
  * ║  • Filtrar por tier (FREE, PREMIUM, VIP, COMING_SOON)             ║
  * ║  • Filtrar por acceso del usuario (consulta SubscriptionManager)  ║
  * ║  • Obtener wallpapers destacados (featured)                       ║
+ * ║  • Índices inmutables (Snapshot) publicados atómicamente:         ║
+ * ║    lecturas sin locks ni allocations desde cualquier hilo         ║
  * ║  • Buscar wallpapers por nombre                                   ║
  * ║                                                                   ║
  * ║  PRINCIPIOS:                                                      ║
@@ -53,7 +59,7 @@ public class WallpaperCatalog {
 
     private static WallpaperCatalog instance;
 
-    public static WallpaperCatalog get() {
+    public static synchronized WallpaperCatalog get() {
         if (instance == null) {
             instance = new WallpaperCatalog();
         }
@@ -66,8 +72,114 @@ public class WallpaperCatalog {
 
     private final List<WallpaperItem> catalog = new ArrayList<>();
 
+    // ═══════════════════════════════════════════════════════════════
+    // 📇 ÍNDICES (snapshot inmutable)
+    // ═══════════════════════════════════════════════════════════════
+
+    // Nivel de usuario máximo precalculado (0=FREE, 1=PREMIUM, 2=VIP)
+    private static final int MAX_USER_LEVEL = 2;
+
+    /**
+     * Índices precalculados del catálogo. Nunca se modifica tras construirse:
+     * loadDynamicEntries() crea uno nuevo y lo publica en el campo volatile.
+     */
+    private static final class Snapshot {
+        final List<WallpaperItem> all;
+        final Map<String, WallpaperItem> byName;        // clave en minúsculas
+        final Map<String, WallpaperItem> bySceneName;   // clave en minúsculas
+        final Map<WallpaperCategory, List<WallpaperItem>> byCategory;
+        final Map<WallpaperTier, List<WallpaperItem>> byTier;
+        final List<List<WallpaperItem>> accessibleByLevel;  // índice = userLevel
+        final List<WallpaperItem> featured;
+        final List<WallpaperCategory> availableCategories;
+
+        Snapshot(List<WallpaperItem> items) {
+            all = Collections.unmodifiableList(new ArrayList<>(items));
+
+            Map<String, WallpaperItem> names = new HashMap<>();
+            Map<String, WallpaperItem> scenes = new HashMap<>();
+            Map<WallpaperCategory, List<WallpaperItem>> categories = new EnumMap<>(WallpaperCategory.class);
+            Map<WallpaperTier, List<WallpaperItem>> tiers = new EnumMap<>(WallpaperTier.class);
+            List<WallpaperItem> featuredItems = new ArrayList<>();
+
+            for (WallpaperItem item : all) {
+                // putIfAbsent: ante duplicados gana el primero (igual que el escaneo lineal)
+                if (item.getNombre() != null) {
+                    names.putIfAbsent(key(item.getNombre()), item);
+                }
+                if (item.getSceneName() != null) {
+                    scenes.putIfAbsent(key(item.getSceneName()), item);
+                }
+                if (item.getCategory() != null) {
+                    listFor(categories, item.getCategory()).add(item);
+                }
+                if (item.getTier() != null) {
+                    listFor(tiers, item.getTier()).add(item);
+                }
+                if (item.isFeatured()) featuredItems.add(item);
+            }
+
+            for (Map.Entry<WallpaperCategory, List<WallpaperItem>> e : categories.entrySet()) {
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+            }
+            for (Map.Entry<WallpaperTier, List<WallpaperItem>> e : tiers.entrySet()) {
+                e.setValue(Collections.unmodifiableList(e.getValue()));
+            }
+
+            List<List<WallpaperItem>> accessible = new ArrayList<>(MAX_USER_LEVEL + 1);
+            for (int level = 0; level <= MAX_USER_LEVEL; level++) {
+                accessible.add(filterAccessible(all, level));
+            }
+
+            List<WallpaperCategory> available = new ArrayList<>();
+            available.add(WallpaperCategory.ALL);
+            for (WallpaperCategory cat : WallpaperCategory.values()) {
+                if (cat != WallpaperCategory.ALL && categories.containsKey(cat)) {
+                    available.add(cat);
+                }
+            }
+
+            byName = names;
+            bySceneName = scenes;
+            byCategory = categories;
+            byTier = tiers;
+            // Destacados por sortOrder; sort estable: empates conservan el orden del catálogo
+            featuredItems.sort((a, b) -> Integer.compare(a.getSortOrder(), b.getSortOrder()));
+
+            accessibleByLevel = Collections.unmodifiableList(accessible);
+            featured = Collections.unmodifiableList(featuredItems);
+            availableCategories = Collections.unmodifiableList(available);
+        }
+
+        private static <K> List<WallpaperItem> listFor(Map<K, List<WallpaperItem>> map, K key) {
+            List<WallpaperItem> list = map.get(key);
+            if (list == null) {
+                list = new ArrayList<>();
+                map.put(key, list);
+            }
+            return list;
+        }
+
+        static List<WallpaperItem> filterAccessible(List<WallpaperItem> items, int userLevel) {
+            List<WallpaperItem> result = new ArrayList<>();
+            for (WallpaperItem item : items) {
+                if (item.isAccessibleBy(userLevel)) {
+                    result.add(item);
+                }
+            }
+            return Collections.unmodifiableList(result);
+        }
+
+        static String key(String value) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private volatile Snapshot snapshot;
+
     private WallpaperCatalog() {
         initializeCatalog();
+        snapshot = new Snapshot(catalog);
         Log.d(TAG, "╔════════════════════════════════════════╗");
         Log.d(TAG, "║   📚 WallpaperCatalog Inicializado     ║");
         Log.d(TAG, "║   Total: " + catalog.size() + " wallpapers              ║");
@@ -84,7 +196,7 @@ public class WallpaperCatalog {
      * Loads dynamic wallpapers from DynamicCatalog cache and appends to catalog.
      * Call after DynamicCatalog.refresh() or on app startup.
      */
-    public void loadDynamicEntries(Context context) {
+    public synchronized void loadDynamicEntries(Context context) {
         // Remove previous dynamic entries
         catalog.removeAll(dynamicItems);
         dynamicItems.clear();
@@ -93,6 +205,9 @@ public class WallpaperCatalog {
         dynamicItems.addAll(items);
         catalog.addAll(items);
 
+        // Publicar índices nuevos (los lectores ven el viejo o el nuevo, nunca uno a medias)
+        snapshot = new Snapshot(catalog);
+
         Log.d(TAG, "Dynamic entries loaded: " + items.size());
     }
 
@@ -105,7 +220,7 @@ public class WallpaperCatalog {
      * @return Lista inmutable de todos los wallpapers
      */
     public List<WallpaperItem> getAll() {
-        return Collections.unmodifiableList(catalog);
+        return snapshot.all;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -115,18 +230,15 @@ public class WallpaperCatalog {
     /**
      * Obtiene wallpapers de una categoría específica.
      * Si la categoría es ALL, retorna todos.
+     * @return Lista inmutable (compartida, no copiar para leer)
      */
     public List<WallpaperItem> getByCategory(WallpaperCategory category) {
+        Snapshot snap = snapshot;
         if (category == WallpaperCategory.ALL) {
-            return Collections.unmodifiableList(catalog);
+            return snap.all;
         }
-        List<WallpaperItem> result = new ArrayList<>();
-        for (WallpaperItem item : catalog) {
-            if (item.getCategory() == category) {
-                result.add(item);
-            }
-        }
-        return result;
+        List<WallpaperItem> result = snap.byCategory.get(category);
+        return result != null ? result : Collections.emptyList();
     }
 
     /**
@@ -134,18 +246,7 @@ public class WallpaperCatalog {
      * Siempre incluye ALL como primera entrada.
      */
     public List<WallpaperCategory> getAvailableCategories() {
-        List<WallpaperCategory> available = new ArrayList<>();
-        available.add(WallpaperCategory.ALL);
-        for (WallpaperCategory cat : WallpaperCategory.values()) {
-            if (cat == WallpaperCategory.ALL) continue;
-            for (WallpaperItem item : catalog) {
-                if (item.getCategory() == cat) {
-                    available.add(cat);
-                    break;
-                }
-            }
-        }
-        return available;
+        return snapshot.availableCategories;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -155,16 +256,11 @@ public class WallpaperCatalog {
     /**
      * Obtiene wallpapers de un tier específico
      * @param tier El nivel de acceso a filtrar
-     * @return Lista de wallpapers de ese tier
+     * @return Lista inmutable de wallpapers de ese tier
      */
     public List<WallpaperItem> getByTier(WallpaperTier tier) {
-        List<WallpaperItem> result = new ArrayList<>();
-        for (WallpaperItem item : catalog) {
-            if (item.getTier() == tier) {
-                result.add(item);
-            }
-        }
-        return result;
+        List<WallpaperItem> result = snapshot.byTier.get(tier);
+        return result != null ? result : Collections.emptyList();
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -174,16 +270,15 @@ public class WallpaperCatalog {
     /**
      * Obtiene wallpapers accesibles para el nivel del usuario
      * @param userLevel Nivel del usuario (0=FREE, 1=PREMIUM, 2=VIP)
-     * @return Lista de wallpapers que el usuario puede usar
+     * @return Lista inmutable de wallpapers que el usuario puede usar
      */
     public List<WallpaperItem> getAccessibleFor(int userLevel) {
-        List<WallpaperItem> result = new ArrayList<>();
-        for (WallpaperItem item : catalog) {
-            if (item.isAccessibleBy(userLevel)) {
-                result.add(item);
-            }
+        Snapshot snap = snapshot;
+        if (userLevel >= 0 && userLevel <= MAX_USER_LEVEL) {
+            return snap.accessibleByLevel.get(userLevel);
         }
-        return result;
+        // Nivel fuera de rango: calcular al vuelo
+        return Snapshot.filterAccessible(snap.all, userLevel);
     }
 
     /**
@@ -200,17 +295,12 @@ public class WallpaperCatalog {
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Obtiene wallpapers marcados como destacados (featured)
-     * @return Lista de wallpapers destacados
+     * Obtiene wallpapers marcados como destacados (featured), ordenados por sortOrder
+     * (el catálogo local primero; empates en orden del catálogo)
+     * @return Lista inmutable de wallpapers destacados
      */
     public List<WallpaperItem> getFeatured() {
-        List<WallpaperItem> result = new ArrayList<>();
-        for (WallpaperItem item : catalog) {
-            if (item.isFeatured()) {
-                result.add(item);
-            }
-        }
-        return result;
+        return snapshot.featured;
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -218,31 +308,23 @@ public class WallpaperCatalog {
     // ═══════════════════════════════════════════════════════════════
 
     /**
-     * Busca un wallpaper por su nombre
+     * Busca un wallpaper por su nombre (sin distinguir mayúsculas)
      * @param nombre Nombre del wallpaper
      * @return WallpaperItem o null si no existe
      */
     public WallpaperItem getByName(String nombre) {
-        for (WallpaperItem item : catalog) {
-            if (item.getNombre().equalsIgnoreCase(nombre)) {
-                return item;
-            }
-        }
-        return null;
+        if (nombre == null) return null;
+        return snapshot.byName.get(Snapshot.key(nombre));
     }
 
     /**
-     * Busca un wallpaper por el nombre de su escena
+     * Busca un wallpaper por el nombre de su escena (sin distinguir mayúsculas)
      * @param sceneName Nombre de la escena (para SceneFactory)
      * @return WallpaperItem o null si no existe
      */
     public WallpaperItem getBySceneName(String sceneName) {
-        for (WallpaperItem item : catalog) {
-            if (item.getSceneName().equalsIgnoreCase(sceneName)) {
-                return item;
-            }
-        }
-        return null;
+        if (sceneName == null) return null;
+        return snapshot.bySceneName.get(Snapshot.key(sceneName));
     }
 
     // ═══════════════════════════════════════════════════════════════
@@ -270,7 +352,7 @@ public class WallpaperCatalog {
      * Obtiene el número total de wallpapers
      */
     public int getCount() {
-        return catalog.size();
+        return snapshot.all.size();
     }
 
     /**
@@ -287,7 +369,7 @@ public class WallpaperCatalog {
     /**
      * Reset del singleton (para recreación completa)
      */
-    public static void reset() {
+    public static synchronized void reset() {
         instance = null;
         Log.d(TAG, "WallpaperCatalog reset");
     }
@@ -0,0 +1,198 @@
+package com.secret.blackholeglow.text;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.LinearGradient;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.Typeface;
+import android.opengl.GLES30;
+
+import com.secret.blackholeglow.systems.GLStateManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+/**
+ * Línea de texto que el atlas SDF no cubre (ç, ã, CJK, emoji de color...).
+ * Se rasteriza con Canvas a una textura propia como hacían los renderers
+ * antes del atlas, y se dibuja como un quad dentro del mismo TextMesh.
+ *
+ * Es la excepción: solo se crea cuando un string trae glifos fuera del
+ * CHARSET, y la textura se reutiliza mientras el texto y el estilo no cambien.
+ * La subida y el borrado ocurren en el GL thread (SdfTextRenderer.draw).
+ */
+final class FallbackText {
+
+    // Resolución de rasterizado (la misma que usaban los renderers Canvas)
+    private static final int TEXT_PX = 64;
+
+    private static final Paint measurePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private static final Typeface[] typefaces = new Typeface[SdfFont.Face.values().length];
+
+    // Contenido y estilo (clave de reutilización)
+    private final String text;
+    private final SdfFont.Face face;
+    private final int[] colors;
+    private final int outlineColor;
+    private final float outlineEm;
+    private final int glowColor;
+    private final float glowEm;
+
+    // Quad en NDC: x, y, u, v por vértice (BL, BR, TL, TR)
+    private final FloatBuffer quad;
+    private final int pad;
+    private final float widthEm;
+
+    private int textureId = 0;
+    private int textureGeneration = -1;
+
+    FallbackText(String text, SdfFont.Face face, int[] colors, int outlineColor, float outlineEm,
+                 int glowColor, float glowEm) {
+        this.text = text;
+        this.face = face;
+        this.colors = colors.clone();
+        this.outlineColor = outlineColor;
+        this.outlineEm = outlineEm;
+        this.glowColor = glowColor;
+        this.glowEm = glowEm;
+        this.widthEm = measureEm(face, text, 0, text.length());
+        this.pad = (int) Math.ceil(Math.max(glowEm, outlineEm) * TEXT_PX) + 2;
+        ByteBuffer bb = ByteBuffer.allocateDirect(4 * 4 * 4);
+        bb.order(ByteOrder.nativeOrder());
+        this.quad = bb.asFloatBuffer();
+    }
+
+    /**
+     * Ancho en em medido con Paint (emoji y surrogates incluidos).
+     */
+    static float measureEm(SdfFont.Face face, CharSequence text, int start, int end) {
+        synchronized (measurePaint) {
+            configure(measurePaint, face);
+            return measurePaint.measureText(text, start, end) / TEXT_PX;
+        }
+    }
+
+    float getWidthEm() {
+        return widthEm;
+    }
+
+    boolean matches(CharSequence other, int start, int end, SdfFont.Face otherFace, int[] otherColors,
+                    int otherOutlineColor, float otherOutlineEm, int otherGlowColor, float otherGlowEm) {
+        if (face != otherFace || text.length() != end - start) return false;
+        if (outlineColor != otherOutlineColor || outlineEm != otherOutlineEm) return false;
+        if (glowColor != otherGlowColor || glowEm != otherGlowEm) return false;
+        if (!Arrays.equals(colors, otherColors)) return false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) != other.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Ubica el quad: left = inicio del texto, baseline en NDC, sx/sy = NDC por em.
+     */
+    void layout(float left, float baseline, float sx, float sy) {
+        Paint.FontMetrics fm = fontMetrics();
+        float padEm = pad / (float) TEXT_PX;
+        float x0 = left - padEm * sx;
+        float x1 = left + (widthEm + padEm) * sx;
+        float y1 = baseline + (pad - fm.ascent) / TEXT_PX * sy;
+        float y0 = baseline - (fm.descent + pad) / TEXT_PX * sy;
+
+        quad.position(0);
+        quad.put(x0).put(y0).put(0f).put(1f);
+        quad.put(x1).put(y0).put(1f).put(1f);
+        quad.put(x0).put(y1).put(0f).put(0f);
+        quad.put(x1).put(y1).put(1f).put(0f);
+        quad.position(0);
+    }
+
+    FloatBuffer getQuad() {
+        return quad;
+    }
+
+    /**
+     * Textura de la línea (GL thread). Se re-rasteriza tras perder el contexto.
+     */
+    int getTexture() {
+        if (textureId != 0 && textureGeneration == SdfFont.getGeneration()) {
+            return textureId;
+        }
+        textureId = 0;
+
+        Paint.FontMetrics fm = fontMetrics();
+        int width = Math.max(1, (int) Math.ceil(widthEm * TEXT_PX) + pad * 2);
+        int height = Math.max(1, (int) Math.ceil(fm.descent - fm.ascent) + pad * 2);
+        float baseline = pad - fm.ascent;
+
+        Bitmap bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        configure(paint, face);
+
+        if (glowEm > 0f && (glowColor >>> 24) != 0) {
+            paint.setColor(glowColor);
+            paint.setShadowLayer(glowEm * TEXT_PX, 0f, 0f, glowColor);
+            canvas.drawText(text, pad, baseline, paint);
+            paint.clearShadowLayer();
+        }
+        if (outlineEm > 0f && (outlineColor >>> 24) != 0) {
+            paint.setStyle(Paint.Style.STROKE);
+            paint.setStrokeWidth(outlineEm * TEXT_PX * 2f);
+            paint.setColor(outlineColor);
+            canvas.drawText(text, pad, baseline, paint);
+            paint.setStyle(Paint.Style.FILL);
+        }
+        if (colors.length > 1) {
+            paint.setColor(0xFFFFFFFF);
+            paint.setShader(new LinearGradient(pad, 0f, width - pad, 0f, colors, null,
+                    Shader.TileMode.CLAMP));
+        } else {
+            paint.setColor(colors[0]);
+        }
+        canvas.drawText(text, pad, baseline, paint);
+
+        int[] tex = new int[1];
+        GLES30.glGenTextures(1, tex, 0);
+        textureId = tex[0];
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
+        GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
+        // Bitmap premultiplicado: encaja con el blend ONE, ONE_MINUS_SRC_ALPHA del renderer
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        bitmap.recycle();
+
+        textureGeneration = SdfFont.getGeneration();
+        return textureId;
+    }
+
+    /** Borra la textura (GL thread). */
+    void release() {
+        if (textureId != 0 && textureGeneration == SdfFont.getGeneration()) {
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
+        }
+        textureId = 0;
+    }
+
+    private Paint.FontMetrics fontMetrics() {
+        synchronized (measurePaint) {
+            configure(measurePaint, face);
+            return measurePaint.getFontMetrics();
+        }
+    }
+
+    private static void configure(Paint paint, SdfFont.Face face) {
+        Typeface typeface = typefaces[face.ordinal()];
+        if (typeface == null) {
+            typeface = Typeface.create(face.family, face.style);
+            typefaces[face.ordinal()] = typeface;
+        }
+        paint.setTextSize(TEXT_PX);
+        paint.setTypeface(typeface);
+    }
+}
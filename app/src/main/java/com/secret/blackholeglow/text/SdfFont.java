@@ -0,0 +1,667 @@
+package com.secret.blackholeglow.text;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Typeface;
+import android.opengl.GLES30;
+import android.util.Log;
+
+import com.secret.blackholeglow.BackgroundWorker;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.GpuMemoryRegistry;
+import com.secret.blackholeglow.systems.RenderContext;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ 🔤 SdfFont - Atlas de glifos SDF compartido                      ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • Un atlas R8 por (fuente, clase de tamaño) para toda la app    ║
+ * ║  • Distance field: escala nítida, outline y glow en el shader    ║
+ * ║  • Se genera una vez (BackgroundWorker) y se cachea en disco     ║
+ * ║  • Cambiar texto = reescribir vértices (TextMesh), sin bitmaps   ║
+ * ║    ni texImage2D                                                 ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Las métricas están en "em" (1.0 = tamaño de fuente). La textura se
+ * sube perezosamente en el GL thread la primera vez que se dibuja, una
+ * vez por contexto GL: los datos CPU son del proceso, las texturas de
+ * cada RenderContext (SdfFont.Textures).
+ */
+public final class SdfFont {
+    private static final String TAG = "SdfFont";
+
+    private static final int CACHE_VERSION = 1;
+    private static final int CACHE_MAGIC = 0x53444631;  // "SDF1"
+    private static final String CACHE_DIR = "sdf_fonts";
+    private static final int ATLAS_WIDTH = 512;
+
+    // ASCII imprimible + español
+    private static final String CHARSET = buildCharset();
+
+    /** Tipografías usadas por los renderers de texto en GL */
+    public enum Face {
+        SANS_BOLD("sans-serif", Typeface.BOLD),
+        SANS_LIGHT_BOLD("sans-serif-light", Typeface.BOLD);
+
+        final String family;
+        final int style;
+
+        Face(String family, int style) {
+            this.family = family;
+            this.style = style;
+        }
+    }
+
+    /**
+     * Resolución de rasterizado. UI basta para texto chico (batería, mensajes);
+     * DISPLAY mantiene esquinas limpias en textos grandes (reloj, títulos).
+     */
+    public enum SizeClass {
+        UI(32),
+        DISPLAY(64);
+
+        final int pixelSize;
+
+        SizeClass(int pixelSize) {
+            this.pixelSize = pixelSize;
+        }
+    }
+
+    private static final int FONT_COUNT = Face.values().length * SizeClass.values().length;
+    private static final SdfFont[] fonts = new SdfFont[FONT_COUNT];
+    private static File cacheDir;
+
+    // ═══════════════════════════════════════════════════════════════
+    // DATOS DEL ATLAS (CPU)
+    // ═══════════════════════════════════════════════════════════════
+    private final Face face;
+    private final SizeClass sizeClass;
+    private final int index;  // Slot en fonts[] y en SdfFont.Textures
+
+    private int atlasWidth;
+    private int atlasHeight;
+    private byte[] pixels;  // Se suelta tras la primera subida a GPU
+
+    private char[] chars;          // Ordenado (binarySearch)
+    private float[] glyphUv;       // u0, v0, u1, v1 por glifo
+    private float[] glyphQuad;     // x0, y0, x1, y1 en em (y hacia arriba, baseline = 0)
+    private float[] glyphAdvance;  // em
+    private float ascent;          // em (positivo)
+    private float descent;         // em (positivo)
+
+    private SdfFont(Face face, SizeClass sizeClass) {
+        this.face = face;
+        this.sizeClass = sizeClass;
+        this.index = indexOf(face, sizeClass);
+    }
+
+    private static int indexOf(Face face, SizeClass sizeClass) {
+        return face.ordinal() * SizeClass.values().length + sizeClass.ordinal();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // GPU (por contexto GL)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Texturas de los atlas en UN contexto GL. Las crea RenderContext;
+     * WallpaperDirector las invalida en onSurfaceCreated y las libera en release().
+     */
+    public static final class Textures {
+        private final int[] ids = new int[FONT_COUNT];
+        private final boolean[] failed = new boolean[FONT_COUNT];
+        // Sube en cada contexto GL nuevo: las texturas de FallbackText con otra generación ya no existen
+        private volatile int generation = 0;
+
+        /**
+         * Contexto GL nuevo: las texturas viejas ya no existen.
+         * Los píxeles se recargan de disco en la próxima subida.
+         */
+        public void invalidate() {
+            generation++;
+            Arrays.fill(ids, 0);
+            Arrays.fill(failed, false);
+        }
+
+        /** Libera las texturas de este contexto */
+        public void release() {
+            int[] id = new int[1];
+            for (int i = 0; i < FONT_COUNT; i++) {
+                if (ids[i] != 0) {
+                    id[0] = ids[i];
+                    GLStateManager.get().deleteTextures(1, id, 0);
+                    ids[i] = 0;
+                }
+            }
+        }
+
+        /** Memoria GPU de los atlas subidos a este contexto */
+        public long getBytes() {
+            long total = 0;
+            synchronized (fonts) {
+                for (SdfFont font : fonts) {
+                    if (font != null && ids[font.index] != 0) {
+                        total += (long) font.atlasWidth * font.atlasHeight;
+                    }
+                }
+            }
+            return total;
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // REGISTRO
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Guarda el directorio de caché. Llamar una vez al inicio.
+     */
+    public static synchronized void init(Context context) {
+        if (cacheDir == null) {
+            cacheDir = new File(context.getApplicationContext().getCacheDir(), CACHE_DIR);
+        }
+    }
+
+    /**
+     * Genera (o carga de disco) los atlas usados por la UI en el worker,
+     * para que el primer draw no pague la rasterización.
+     */
+    public static void preload(Context context) {
+        init(context);
+        BackgroundWorker.post(() -> {
+            long start = System.currentTimeMillis();
+            get(Face.SANS_BOLD, SizeClass.UI);
+            get(Face.SANS_BOLD, SizeClass.DISPLAY);
+            get(Face.SANS_LIGHT_BOLD, SizeClass.DISPLAY);
+            Log.d(TAG, "🔤 Atlas SDF listos en " + (System.currentTimeMillis() - start) + "ms");
+        });
+    }
+
+    /**
+     * Atlas compartido para la fuente y clase de tamaño pedidas.
+     * Bloquea si se está generando en otro hilo (solo la primera vez).
+     */
+    public static SdfFont get(Face face, SizeClass sizeClass) {
+        int index = indexOf(face, sizeClass);
+        synchronized (fonts) {
+            SdfFont font = fonts[index];
+            if (font == null) {
+                font = new SdfFont(face, sizeClass);
+                font.load();
+                fonts[index] = font;
+            }
+            return font;
+        }
+    }
+
+    /** Generación de texturas del contexto GL del hilo actual (FallbackText) */
+    static int getGeneration() {
+        return RenderContext.current().getSdfTextures().generation;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // MÉTRICAS
+    // ═══════════════════════════════════════════════════════════════
+
+    Face getFace() {
+        return face;
+    }
+
+    /**
+     * true si todos los caracteres del rango están en el atlas. Si no, TextMesh
+     * dibuja esa línea con FallbackText (Canvas) para no dejar huecos.
+     */
+    public boolean covers(CharSequence text, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (glyphIndex(text.charAt(i)) < 0) return false;
+        }
+        return true;
+    }
+
+    /** Índice del glifo, o -1 si el carácter no está en el atlas */
+    int glyphIndex(char c) {
+        int index = Arrays.binarySearch(chars, c);
+        return index >= 0 ? index : -1;
+    }
+
+    float getAdvance(int glyph) {
+        return glyphAdvance[glyph];
+    }
+
+    /** x0, y0, x1, y1 del quad del glifo en em */
+    float[] getGlyphQuads() {
+        return glyphQuad;
+    }
+
+    /** u0, v0, u1, v1 del glifo en el atlas */
+    float[] getGlyphUvs() {
+        return glyphUv;
+    }
+
+    public float getAscent() {
+        return ascent;
+    }
+
+    public float getDescent() {
+        return descent;
+    }
+
+    /**
+     * Ancho de un rango de texto en em. Si el atlas no lo cubre, se mide
+     * con Paint (igual que lo dibujará FallbackText).
+     */
+    public float measure(CharSequence text, int start, int end) {
+        if (!covers(text, start, end)) {
+            return FallbackText.measureEm(face, text, start, end);
+        }
+        float width = 0f;
+        float space = spaceAdvance();
+        for (int i = start; i < end; i++) {
+            int glyph = glyphIndex(text.charAt(i));
+            width += glyph >= 0 ? glyphAdvance[glyph] : space;
+        }
+        return width;
+    }
+
+    public float measure(char[] text, int count) {
+        float width = 0f;
+        float space = spaceAdvance();
+        for (int i = 0; i < count; i++) {
+            int glyph = glyphIndex(text[i]);
+            width += glyph >= 0 ? glyphAdvance[glyph] : space;
+        }
+        return width;
+    }
+
+    float spaceAdvance() {
+        int space = glyphIndex(' ');
+        return space >= 0 ? glyphAdvance[space] : 0.25f;
+    }
+
+    /**
+     * Ancho del campo de distancia en unidades de textura normalizada (0.5 = borde).
+     * Sirve para convertir grosores de outline/glow en em.
+     */
+    public float getSpreadEm() {
+        return spreadPixels() / (float) sizeClass.pixelSize;
+    }
+
+    private int spreadPixels() {
+        return Math.max(4, sizeClass.pixelSize / 8);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // TEXTURA (GL thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * @return id de textura del atlas en el contexto GL actual, subiéndolo si hace falta (0 si falla)
+     */
+    public int getTexture() {
+        Textures textures = RenderContext.current().getSdfTextures();
+        int textureId = textures.ids[index];
+        if (textureId != 0 || textures.failed[index]) return textureId;
+
+        synchronized (fonts) {
+            byte[] px = pixels != null ? pixels : reloadPixels();
+            if (px == null) {
+                textures.failed[index] = true;
+                return 0;
+            }
+
+            int[] tex = new int[1];
+            GLES30.glGenTextures(1, tex, 0);
+            textureId = tex[0];
+            textures.ids[index] = textureId;
+
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
+            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
+            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
+            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
+            GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
+
+            // Atlas compartido: se sube en el primer draw, que suele caer dentro de una escena
+            String previousOwner = GpuMemoryRegistry.get().pushOwner(TAG);
+            GLES30.glPixelStorei(GLES30.GL_UNPACK_ALIGNMENT, 1);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, GLES30.GL_R8, atlasWidth, atlasHeight, 0,
+                    GLES30.GL_RED, GLES30.GL_UNSIGNED_BYTE, ByteBuffer.wrap(px));
+            GpuMemoryRegistry.get().popOwner(previousOwner);
+            GLES30.glPixelStorei(GLES30.GL_UNPACK_ALIGNMENT, 4);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, 0);
+
+            // La copia CPU ya no hace falta (se relee de disco para otro contexto)
+            pixels = null;
+
+            Log.d(TAG, "🔤 Atlas " + face + "/" + sizeClass + " subido: "
+                    + atlasWidth + "x" + atlasHeight + " R8 (" + (atlasWidth * atlasHeight / 1024) + " KB)");
+        }
+        return textureId;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CARGA / GENERACIÓN
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Píxeles para subir a otro contexto (o tras perder uno). Se cargan en un
+     * atlas temporal: las métricas de este las está leyendo otro GL thread.
+     */
+    private byte[] reloadPixels() {
+        SdfFont copy = new SdfFont(face, sizeClass);
+        return copy.load() ? copy.pixels : null;
+    }
+
+    private boolean load() {
+        File file = cacheFile();
+        if (file != null && file.exists()) {
+            try {
+                readCache(file);
+                return true;
+            } catch (IOException e) {
+                Log.w(TAG, "Caché SDF inválida, regenerando: " + e.getMessage());
+                file.delete();
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        generate();
+        Log.d(TAG, "🔤 Atlas " + face + "/" + sizeClass + " generado en "
+                + (System.currentTimeMillis() - start) + "ms");
+
+        if (file != null) {
+            try {
+                writeCache(file);
+            } catch (IOException e) {
+                Log.w(TAG, "No se pudo guardar caché SDF: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    private File cacheFile() {
+        synchronized (SdfFont.class) {
+            if (cacheDir == null) return null;
+            return new File(cacheDir, face.name().toLowerCase() + "_" + sizeClass.pixelSize
+                    + "_v" + CACHE_VERSION + ".bin");
+        }
+    }
+
+    /**
+     * Rasteriza cada glifo con Paint, calcula su campo de distancia (8SSEDT)
+     * y lo empaca por filas en un atlas de ATLAS_WIDTH de ancho.
+     */
+    private void generate() {
+        int size = sizeClass.pixelSize;
+        int spread = spreadPixels();
+
+        Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(size);
+        paint.setTypeface(Typeface.create(face.family, face.style));
+
+        Paint.FontMetrics fm = paint.getFontMetrics();
+        ascent = -fm.ascent / size;
+        descent = fm.descent / size;
+
+        int count = CHARSET.length();
+        chars = CHARSET.toCharArray();
+        glyphUv = new float[count * 4];
+        glyphQuad = new float[count * 4];
+        glyphAdvance = new float[count];
+
+        // Celda máxima para el bitmap de rasterizado (reutilizado)
+        int cellHeight = (int) Math.ceil(fm.descent - fm.ascent) + spread * 2;
+        int maxCellWidth = size * 2 + spread * 2;
+        Bitmap cell = Bitmap.createBitmap(maxCellWidth, cellHeight, Bitmap.Config.ALPHA_8);
+        Canvas canvas = new Canvas(cell);
+        int[] argb = new int[maxCellWidth * cellHeight];
+
+        // Primera pasada: medir para conocer el alto del atlas
+        int[] cellWidths = new int[count];
+        int x = 0;
+        int rows = 1;
+        for (int i = 0; i < count; i++) {
+            float advance = paint.measureText(chars, i, 1);
+            glyphAdvance[i] = advance / size;
+            cellWidths[i] = Math.min(maxCellWidth, (int) Math.ceil(advance) + spread * 2);
+            if (x + cellWidths[i] > ATLAS_WIDTH) {
+                x = 0;
+                rows++;
+            }
+            x += cellWidths[i];
+        }
+        atlasWidth = ATLAS_WIDTH;
+        atlasHeight = nextPowerOfTwo(rows * cellHeight);
+        pixels = new byte[atlasWidth * atlasHeight];
+
+        float baseline = spread - fm.ascent;
+        SdfGenerator sdf = new SdfGenerator(maxCellWidth, cellHeight);
+
+        x = 0;
+        int y = 0;
+        for (int i = 0; i < count; i++) {
+            int w = cellWidths[i];
+            if (x + w > ATLAS_WIDTH) {
+                x = 0;
+                y += cellHeight;
+            }
+
+            cell.eraseColor(Color.TRANSPARENT);
+            canvas.drawText(chars, i, 1, spread, baseline, paint);
+            cell.getPixels(argb, 0, maxCellWidth, 0, 0, w, cellHeight);
+            sdf.compute(argb, maxCellWidth, w, cellHeight, spread, pixels, atlasWidth, x, y);
+
+            int q = i * 4;
+            glyphUv[q] = x / (float) atlasWidth;
+            glyphUv[q + 1] = y / (float) atlasHeight;
+            glyphUv[q + 2] = (x + w) / (float) atlasWidth;
+            glyphUv[q + 3] = (y + cellHeight) / (float) atlasHeight;
+
+            glyphQuad[q] = -spread / (float) size;
+            glyphQuad[q + 1] = -(cellHeight - baseline) / size;
+            glyphQuad[q + 2] = (w - spread) / (float) size;
+            glyphQuad[q + 3] = baseline / size;
+
+            x += w;
+        }
+        cell.recycle();
+    }
+
+    private void writeCache(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null && !dir.exists() && !dir.mkdirs()) {
+            throw new IOException("mkdirs " + dir);
+        }
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(CACHE_MAGIC);
+            out.writeInt(atlasWidth);
+            out.writeInt(atlasHeight);
+            out.writeFloat(ascent);
+            out.writeFloat(descent);
+            out.writeInt(chars.length);
+            for (int i = 0; i < chars.length; i++) {
+                out.writeChar(chars[i]);
+                out.writeFloat(glyphAdvance[i]);
+                for (int k = 0; k < 4; k++) {
+                    out.writeFloat(glyphUv[i * 4 + k]);
+                    out.writeFloat(glyphQuad[i * 4 + k]);
+                }
+            }
+            out.write(pixels);
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+            throw new IOException("rename " + tmp);
+        }
+    }
+
+    private void readCache(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != CACHE_MAGIC) throw new IOException("magic");
+            int w = in.readInt();
+            int h = in.readInt();
+            float asc = in.readFloat();
+            float desc = in.readFloat();
+            int count = in.readInt();
+            if (w <= 0 || h <= 0 || count <= 0 || count > 1024) throw new IOException("header");
+
+            char[] c = new char[count];
+            float[] adv = new float[count];
+            float[] uv = new float[count * 4];
+            float[] quad = new float[count * 4];
+            for (int i = 0; i < count; i++) {
+                c[i] = in.readChar();
+                adv[i] = in.readFloat();
+                for (int k = 0; k < 4; k++) {
+                    uv[i * 4 + k] = in.readFloat();
+                    quad[i * 4 + k] = in.readFloat();
+                }
+            }
+            byte[] px = new byte[w * h];
+            in.readFully(px);
+
+            atlasWidth = w;
+            atlasHeight = h;
+            ascent = asc;
+            descent = desc;
+            chars = c;
+            glyphAdvance = adv;
+            glyphUv = uv;
+            glyphQuad = quad;
+            pixels = px;
+        }
+    }
+
+    private static String buildCharset() {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 32; c < 127; c++) sb.append(c);
+        sb.append("¡°¿ÁÉÍÑÓÚÜáéíñóúü");
+        char[] sorted = sb.toString().toCharArray();
+        Arrays.sort(sorted);
+        return new String(sorted);
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        int result = 1;
+        while (result < value) {
+            result *= 2;
+        }
+        return result;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 8SSEDT (distance transform en dos pasadas)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Distancia euclídea aproximada al borde para cada píxel de la celda.
+     * Buffers reutilizados entre glifos.
+     */
+    private static final class SdfGenerator {
+        private static final int FAR = 9999;
+
+        private final int[] insideDx, insideDy, outsideDx, outsideDy;
+        private int w, h;
+
+        SdfGenerator(int maxWidth, int maxHeight) {
+            int n = maxWidth * maxHeight;
+            insideDx = new int[n];
+            insideDy = new int[n];
+            outsideDx = new int[n];
+            outsideDy = new int[n];
+        }
+
+        void compute(int[] argb, int stride, int width, int height, int spread,
+                     byte[] out, int outStride, int outX, int outY) {
+            w = width;
+            h = height;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    boolean inside = (argb[y * stride + x] >>> 24) >= 128;
+                    int i = y * w + x;
+                    // inside*: vector al píxel "dentro" más cercano (para píxeles fuera)
+                    insideDx[i] = inside ? 0 : FAR;
+                    insideDy[i] = inside ? 0 : FAR;
+                    outsideDx[i] = inside ? FAR : 0;
+                    outsideDy[i] = inside ? FAR : 0;
+                }
+            }
+            sweep(insideDx, insideDy);
+            sweep(outsideDx, outsideDy);
+
+            float scale = 0.5f / spread;
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    int i = y * w + x;
+                    float toInside = length(insideDx[i], insideDy[i]);
+                    float toOutside = length(outsideDx[i], outsideDy[i]);
+                    // >0.5 dentro, 0.5 en el borde, <0.5 fuera
+                    float value = 0.5f + (toOutside - toInside) * scale;
+                    int v = Math.round(Math.max(0f, Math.min(1f, value)) * 255f);
+                    out[(outY + y) * outStride + outX + x] = (byte) v;
+                }
+            }
+        }
+
+        private static float length(int dx, int dy) {
+            return (float) Math.sqrt((double) dx * dx + (double) dy * dy);
+        }
+
+        private void sweep(int[] dx, int[] dy) {
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    compare(dx, dy, x, y, -1, 0);
+                    compare(dx, dy, x, y, 0, -1);
+                    compare(dx, dy, x, y, -1, -1);
+                    compare(dx, dy, x, y, 1, -1);
+                }
+                for (int x = w - 1; x >= 0; x--) {
+                    compare(dx, dy, x, y, 1, 0);
+                }
+            }
+            for (int y = h - 1; y >= 0; y--) {
+                for (int x = w - 1; x >= 0; x--) {
+                    compare(dx, dy, x, y, 1, 0);
+                    compare(dx, dy, x, y, 0, 1);
+                    compare(dx, dy, x, y, -1, 1);
+                    compare(dx, dy, x, y, 1, 1);
+                }
+                for (int x = 0; x < w; x++) {
+                    compare(dx, dy, x, y, -1, 0);
+                }
+            }
+        }
+
+        private void compare(int[] dx, int[] dy, int x, int y, int ox, int oy) {
+            int nx = x + ox;
+            int ny = y + oy;
+            if (nx < 0 || ny < 0 || nx >= w || ny >= h) return;
+            int n = ny * w + nx;
+            if (dx[n] == FAR) return;
+            int cx = dx[n] + ox;
+            int cy = dy[n] + oy;
+            int i = y * w + x;
+            if (dx[i] == FAR || cx * cx + cy * cy < dx[i] * dx[i] + dy[i] * dy[i]) {
+                dx[i] = cx;
+                dy[i] = cy;
+            }
+        }
+    }
+}
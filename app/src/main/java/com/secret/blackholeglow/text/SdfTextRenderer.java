@@ -0,0 +1,327 @@
+package com.secret.blackholeglow.text;
+
+import android.opengl.GLES30;
+import android.util.Log;
+
+import com.secret.blackholeglow.ShaderUtils;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.systems.RenderContext;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ ✒️ SdfTextRenderer - Programa compartido para texto SDF          ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • Un solo shader para todos los TextMesh de la app              ║
+ * ║  • Relleno + outline + glow calculados desde el campo distancia  ║
+ * ║  • Un draw call por malla (glDrawElements, índices compartidos)  ║
+ * ║  • Líneas fuera del atlas: un quad Canvas extra (FallbackText)   ║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Salida premultiplicada: blend ONE, ONE_MINUS_SRC_ALPHA. Solo GL thread.
+ * Uno por contexto GL (RenderContext): los programas no se comparten.
+ */
+public final class SdfTextRenderer {
+    private static final String TAG = "SdfTextRenderer";
+
+    private static final String VERTEX_SHADER =
+        "#version 300 es\n" +
+        "in vec2 a_Position;\n" +
+        "in vec2 a_TexCoord;\n" +
+        "in vec4 a_Color;\n" +
+        "uniform vec3 u_Transform;\n" +   // scale, offsetX, offsetY
+        "uniform vec2 u_ScanSpan;\n" +    // inicio X, 1/ancho del texto
+        "out vec2 v_TexCoord;\n" +
+        "out vec4 v_Color;\n" +
+        "out float v_ScanX;\n" +
+        "void main() {\n" +
+        "    v_TexCoord = a_TexCoord;\n" +
+        "    v_Color = a_Color;\n" +
+        "    v_ScanX = (a_Position.x - u_ScanSpan.x) * u_ScanSpan.y;\n" +
+        "    gl_Position = vec4(a_Position * u_Transform.x + u_Transform.yz, 0.0, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#version 300 es\n" +
+        "precision mediump float;\n" +
+        "in vec2 v_TexCoord;\n" +
+        "in vec4 v_Color;\n" +
+        "in float v_ScanX;\n" +
+        "out vec4 fragColor;\n" +
+        "uniform sampler2D u_Atlas;\n" +
+        "uniform vec2 u_Scan;\n" +        // posición 0..1, intensidad
+        "uniform float u_Alpha;\n" +
+        "uniform vec4 u_OutlineColor;\n" +
+        "uniform float u_OutlineWidth;\n" +
+        "uniform vec4 u_GlowColor;\n" +
+        "uniform float u_GlowWidth;\n" +
+        "void main() {\n" +
+        "    float d = texture(u_Atlas, v_TexCoord).r;\n" +
+        "    float aa = max(fwidth(d) * 0.75, 0.001);\n" +
+        "    float fill = smoothstep(0.5 - aa, 0.5 + aa, d);\n" +
+        "    vec4 color = vec4(v_Color.rgb, 1.0) * v_Color.a;\n" +
+        "    if (u_OutlineWidth > 0.0) {\n" +
+        "        float edge = 0.5 - u_OutlineWidth;\n" +
+        "        float outline = smoothstep(edge - aa, edge + aa, d);\n" +
+        "        vec4 outlineColor = vec4(u_OutlineColor.rgb, 1.0) * u_OutlineColor.a * v_Color.a;\n" +
+        "        color = mix(outlineColor * outline, color, fill);\n" +
+        "    } else {\n" +
+        "        color *= fill;\n" +
+        "    }\n" +
+        "    if (u_GlowWidth > 0.0) {\n" +
+        "        float glow = smoothstep(0.5 - u_GlowWidth, 0.5, d);\n" +
+        "        glow *= glow * u_GlowColor.a * v_Color.a;\n" +
+        "        color += vec4(u_GlowColor.rgb, 1.0) * glow * (1.0 - color.a);\n" +
+        "    }\n" +
+        "    if (u_Scan.y > 0.0) {\n" +
+        "        float scan = smoothstep(u_Scan.x - 0.05, u_Scan.x, v_ScanX)\n" +
+        "                   - smoothstep(u_Scan.x, u_Scan.x + 0.05, v_ScanX);\n" +
+        "        color.rgb += vec3(scan * u_Scan.y * fill * v_Color.a);\n" +
+        "    }\n" +
+        "    fragColor = color * u_Alpha;\n" +
+        "}\n";
+
+    // Quads de FallbackText: la textura Canvas ya viene premultiplicada
+    private static final String FALLBACK_VERTEX_SHADER =
+        "#version 300 es\n" +
+        "in vec2 a_Position;\n" +
+        "in vec2 a_TexCoord;\n" +
+        "uniform vec3 u_Transform;\n" +
+        "uniform vec2 u_ScanSpan;\n" +
+        "out vec2 v_TexCoord;\n" +
+        "out float v_ScanX;\n" +
+        "void main() {\n" +
+        "    v_TexCoord = a_TexCoord;\n" +
+        "    v_ScanX = (a_Position.x - u_ScanSpan.x) * u_ScanSpan.y;\n" +
+        "    gl_Position = vec4(a_Position * u_Transform.x + u_Transform.yz, 0.0, 1.0);\n" +
+        "}\n";
+
+    private static final String FALLBACK_FRAGMENT_SHADER =
+        "#version 300 es\n" +
+        "precision mediump float;\n" +
+        "in vec2 v_TexCoord;\n" +
+        "in float v_ScanX;\n" +
+        "out vec4 fragColor;\n" +
+        "uniform sampler2D u_Texture;\n" +
+        "uniform float u_Alpha;\n" +
+        "uniform vec2 u_Scan;\n" +
+        "void main() {\n" +
+        "    vec4 color = texture(u_Texture, v_TexCoord);\n" +
+        "    if (u_Scan.y > 0.0) {\n" +
+        "        float scan = smoothstep(u_Scan.x - 0.05, u_Scan.x, v_ScanX)\n" +
+        "                   - smoothstep(u_Scan.x, u_Scan.x + 0.05, v_ScanX);\n" +
+        "        color.rgb += vec3(scan * u_Scan.y * color.a);\n" +
+        "    }\n" +
+        "    fragColor = color * u_Alpha;\n" +
+        "}\n";
+
+    private static final int FALLBACK_STRIDE_BYTES = 4 * 4;
+
+    private int programId = 0;
+    private int aPositionLoc, aTexCoordLoc, aColorLoc;
+    private int uTransformLoc, uAtlasLoc, uAlphaLoc;
+    private int uOutlineColorLoc, uOutlineWidthLoc, uGlowColorLoc, uGlowWidthLoc;
+    private int uScanLoc, uScanSpanLoc;
+    private boolean failed = false;
+
+    private int fallbackProgramId = 0;
+    private int fbPositionLoc, fbTexCoordLoc;
+    private int fbTransformLoc, fbTextureLoc, fbAlphaLoc, fbScanLoc, fbScanSpanLoc;
+    private boolean fallbackFailed = false;
+
+    // Índices compartidos por todas las mallas (6 por glifo)
+    private final ShortBuffer indexBuffer;
+
+    /** Lo crea RenderContext; el resto usa get() */
+    public SdfTextRenderer() {
+        short[] indices = new short[TextMesh.MAX_GLYPHS * 6];
+        for (int i = 0; i < TextMesh.MAX_GLYPHS; i++) {
+            int vi = i * 4;
+            int ii = i * 6;
+            indices[ii]     = (short) vi;
+            indices[ii + 1] = (short) (vi + 1);
+            indices[ii + 2] = (short) (vi + 2);
+            indices[ii + 3] = (short) (vi + 2);
+            indices[ii + 4] = (short) (vi + 1);
+            indices[ii + 5] = (short) (vi + 3);
+        }
+        ByteBuffer ibb = ByteBuffer.allocateDirect(indices.length * 2);
+        ibb.order(ByteOrder.nativeOrder());
+        indexBuffer = ibb.asShortBuffer();
+        indexBuffer.put(indices);
+        indexBuffer.position(0);
+    }
+
+    /** Renderer del contexto GL del hilo actual (ver RenderContext) */
+    public static SdfTextRenderer get() {
+        return RenderContext.current().getTextRenderer();
+    }
+
+    private boolean ensureProgram() {
+        if (programId != 0) return true;
+        if (failed) return false;
+
+        programId = ShaderUtils.createProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (programId == 0) {
+            Log.e(TAG, "✗ Error creando shader de texto SDF");
+            failed = true;
+            return false;
+        }
+
+        aPositionLoc = GLES30.glGetAttribLocation(programId, "a_Position");
+        aTexCoordLoc = GLES30.glGetAttribLocation(programId, "a_TexCoord");
+        aColorLoc = GLES30.glGetAttribLocation(programId, "a_Color");
+        uTransformLoc = GLES30.glGetUniformLocation(programId, "u_Transform");
+        uAtlasLoc = GLES30.glGetUniformLocation(programId, "u_Atlas");
+        uAlphaLoc = GLES30.glGetUniformLocation(programId, "u_Alpha");
+        uOutlineColorLoc = GLES30.glGetUniformLocation(programId, "u_OutlineColor");
+        uOutlineWidthLoc = GLES30.glGetUniformLocation(programId, "u_OutlineWidth");
+        uGlowColorLoc = GLES30.glGetUniformLocation(programId, "u_GlowColor");
+        uGlowWidthLoc = GLES30.glGetUniformLocation(programId, "u_GlowWidth");
+        uScanLoc = GLES30.glGetUniformLocation(programId, "u_Scan");
+        uScanSpanLoc = GLES30.glGetUniformLocation(programId, "u_ScanSpan");
+
+        Log.d(TAG, "✓ Shader de texto SDF inicializado");
+        return true;
+    }
+
+    private boolean ensureFallbackProgram() {
+        if (fallbackProgramId != 0) return true;
+        if (fallbackFailed) return false;
+
+        fallbackProgramId = ShaderUtils.createProgram(FALLBACK_VERTEX_SHADER, FALLBACK_FRAGMENT_SHADER);
+        if (fallbackProgramId == 0) {
+            Log.e(TAG, "✗ Error creando shader de texto fallback");
+            fallbackFailed = true;
+            return false;
+        }
+
+        fbPositionLoc = GLES30.glGetAttribLocation(fallbackProgramId, "a_Position");
+        fbTexCoordLoc = GLES30.glGetAttribLocation(fallbackProgramId, "a_TexCoord");
+        fbTransformLoc = GLES30.glGetUniformLocation(fallbackProgramId, "u_Transform");
+        fbTextureLoc = GLES30.glGetUniformLocation(fallbackProgramId, "u_Texture");
+        fbAlphaLoc = GLES30.glGetUniformLocation(fallbackProgramId, "u_Alpha");
+        fbScanLoc = GLES30.glGetUniformLocation(fallbackProgramId, "u_Scan");
+        fbScanSpanLoc = GLES30.glGetUniformLocation(fallbackProgramId, "u_ScanSpan");
+        return true;
+    }
+
+    /**
+     * Dibuja la malla completa: un draw call para los glifos del atlas y
+     * uno por cada línea de fallback (normalmente ninguna).
+     *
+     * @param alpha opacidad global (fades)
+     */
+    public void draw(TextMesh mesh, float alpha) {
+        if (mesh == null) return;
+        mesh.releaseStaleFallbacks();
+        if (mesh.isEmpty() || alpha <= 0.001f) return;
+
+        GLStateManager.get().disable(GLES30.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES30.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES30.GL_ONE, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+
+        if (mesh.getGlyphCount() > 0) {
+            drawGlyphs(mesh, alpha);
+        }
+        if (mesh.getFallbackCount() > 0) {
+            drawFallbacks(mesh, alpha);
+        }
+
+        // Restaurar blend estándar que esperan los demás SceneObjects
+        GLStateManager.get().blendFunc(GLES30.GL_SRC_ALPHA, GLES30.GL_ONE_MINUS_SRC_ALPHA);
+    }
+
+    private void drawGlyphs(TextMesh mesh, float alpha) {
+        if (!ensureProgram()) return;
+
+        int texture = mesh.getFont().getTexture();
+        if (texture == 0) return;
+
+        GLStateManager.get().useProgram(programId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texture);
+        GLES30.glUniform1i(uAtlasLoc, 0);
+        GLES30.glUniform1f(uAlphaLoc, alpha);
+        GLES30.glUniform3f(uTransformLoc, mesh.scale, mesh.offsetX, mesh.offsetY);
+        GLES30.glUniform4f(uOutlineColorLoc, mesh.outlineR, mesh.outlineG, mesh.outlineB, mesh.outlineA);
+        GLES30.glUniform1f(uOutlineWidthLoc, mesh.outlineWidth);
+        GLES30.glUniform4f(uGlowColorLoc, mesh.glowR, mesh.glowG, mesh.glowB, mesh.glowA);
+        GLES30.glUniform1f(uGlowWidthLoc, mesh.glowWidth);
+        GLES30.glUniform2f(uScanLoc, mesh.scanPosition, mesh.scanIntensity);
+        GLES30.glUniform2f(uScanSpanLoc, mesh.getScanStart(), mesh.getScanInvWidth());
+
+        FloatBuffer vertices = mesh.getBuffer();
+        vertices.position(0);
+        GLES30.glEnableVertexAttribArray(aPositionLoc);
+        GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, TextMesh.STRIDE_BYTES, vertices);
+        vertices.position(2);
+        GLES30.glEnableVertexAttribArray(aTexCoordLoc);
+        GLES30.glVertexAttribPointer(aTexCoordLoc, 2, GLES30.GL_FLOAT, false, TextMesh.STRIDE_BYTES, vertices);
+        vertices.position(4);
+        GLES30.glEnableVertexAttribArray(aColorLoc);
+        GLES30.glVertexAttribPointer(aColorLoc, 4, GLES30.GL_FLOAT, false, TextMesh.STRIDE_BYTES, vertices);
+        vertices.position(0);
+
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, mesh.getGlyphCount() * 6,
+                GLES30.GL_UNSIGNED_SHORT, indexBuffer);
+
+        GLES30.glDisableVertexAttribArray(aPositionLoc);
+        GLES30.glDisableVertexAttribArray(aTexCoordLoc);
+        GLES30.glDisableVertexAttribArray(aColorLoc);
+    }
+
+    private void drawFallbacks(TextMesh mesh, float alpha) {
+        if (!ensureFallbackProgram()) return;
+
+        GLStateManager.get().useProgram(fallbackProgramId);
+        GLES30.glUniform1i(fbTextureLoc, 0);
+        GLES30.glUniform1f(fbAlphaLoc, alpha);
+        GLES30.glUniform3f(fbTransformLoc, mesh.scale, mesh.offsetX, mesh.offsetY);
+        GLES30.glUniform2f(fbScanLoc, mesh.scanPosition, mesh.scanIntensity);
+        GLES30.glUniform2f(fbScanSpanLoc, mesh.getScanStart(), mesh.getScanInvWidth());
+        GLES30.glEnableVertexAttribArray(fbPositionLoc);
+        GLES30.glEnableVertexAttribArray(fbTexCoordLoc);
+
+        for (int i = 0; i < mesh.getFallbackCount(); i++) {
+            FallbackText line = mesh.getFallback(i);
+            int texture = line.getTexture();
+            if (texture == 0) continue;
+
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texture);
+            FloatBuffer quad = line.getQuad();
+            quad.position(0);
+            GLES30.glVertexAttribPointer(fbPositionLoc, 2, GLES30.GL_FLOAT, false, FALLBACK_STRIDE_BYTES, quad);
+            quad.position(2);
+            GLES30.glVertexAttribPointer(fbTexCoordLoc, 2, GLES30.GL_FLOAT, false, FALLBACK_STRIDE_BYTES, quad);
+            quad.position(0);
+            GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, 6, GLES30.GL_UNSIGNED_SHORT, indexBuffer);
+        }
+
+        GLES30.glDisableVertexAttribArray(fbPositionLoc);
+        GLES30.glDisableVertexAttribArray(fbTexCoordLoc);
+    }
+
+    /** Contexto GL nuevo: los programas viejos ya no existen */
+    public void invalidate() {
+        programId = 0;
+        failed = false;
+        fallbackProgramId = 0;
+        fallbackFailed = false;
+    }
+
+    public void release() {
+        if (programId != 0) {
+            GLStateManager.get().deleteProgram(programId);
+            programId = 0;
+        }
+        if (fallbackProgramId != 0) {
+            GLStateManager.get().deleteProgram(fallbackProgramId);
+            fallbackProgramId = 0;
+        }
+    }
+}
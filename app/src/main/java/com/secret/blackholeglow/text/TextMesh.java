@@ -0,0 +1,421 @@
+package com.secret.blackholeglow.text;
+
+import com.secret.blackholeglow.systems.ScreenManager;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+
+/**
+ * ╔══════════════════════════════════════════════════════════════════╗
+ * ║ 🧱 TextMesh - Quads de texto sobre el atlas SDF compartido       ║
+ * ╠══════════════════════════════════════════════════════════════════╣
+ * ║  • Arrays pre-alocados: clear() + add() no crean objetos         ║
+ * ║  • Todas las líneas de la malla se dibujan en un solo draw call  ║
+ * ║  • Estilo (outline, glow, transform) por malla, color por vértice║
+ * ╚══════════════════════════════════════════════════════════════════╝
+ *
+ * Coordenadas en NDC. El tamaño es la altura del em en unidades NDC de Y;
+ * el ancho se corrige con el aspect ratio de pantalla para que los glifos
+ * no se deformen. Si el aspect cambia, needsRebuild() avisa al dueño.
+ *
+ * Las líneas con caracteres fuera del atlas (emoji, ç, CJK...) se dibujan
+ * como un quad rasterizado con Canvas (FallbackText), con el estilo vigente
+ * al momento del add(). Quien deja de usar la malla llama release().
+ */
+public final class TextMesh {
+    public static final int ALIGN_LEFT = 0;
+    public static final int ALIGN_CENTER = 1;
+    public static final int ALIGN_RIGHT = 2;
+
+    // Por vértice: posición (2) + uv (2) + color rgba (4)
+    static final int FLOATS_PER_VERTEX = 8;
+    static final int STRIDE_BYTES = FLOATS_PER_VERTEX * 4;
+    static final int MAX_GLYPHS = 256;
+
+    private final SdfFont font;
+    private final int capacity;
+    private final float[] data;
+    private final FloatBuffer buffer;
+    private int glyphCount = 0;
+    private boolean uploaded = false;
+    private float builtAspect = 0f;
+
+    // Estilo (lo aplica SdfTextRenderer)
+    float outlineR, outlineG, outlineB, outlineA;
+    float outlineWidth = 0f;
+    float glowR, glowG, glowB, glowA;
+    float glowWidth = 0f;
+    float scale = 1f;
+    float offsetX = 0f;
+    float offsetY = 0f;
+
+    // Estilo crudo para FallbackText (ARGB + ancho en em)
+    private int outlineArgb = 0;
+    private float outlineEm = 0f;
+    private int glowArgb = 0;
+    private float glowEm = 0f;
+
+    // Línea de escaneo: posición 0..1 a lo ancho del texto, intensidad 0 = apagada
+    float scanPosition = 0f;
+    float scanIntensity = 0f;
+    private float minX = Float.MAX_VALUE;
+    private float maxX = -Float.MAX_VALUE;
+
+    // Líneas fuera del atlas. Las del build anterior se reutilizan si coinciden
+    private final ArrayList<FallbackText> fallbacks = new ArrayList<>(2);
+    private final ArrayList<FallbackText> staleFallbacks = new ArrayList<>(2);
+
+    private final int[] solidColor = new int[1];
+
+    public TextMesh(SdfFont font, int maxGlyphs) {
+        this.font = font;
+        this.capacity = Math.min(MAX_GLYPHS, Math.max(1, maxGlyphs));
+        this.data = new float[capacity * 4 * FLOATS_PER_VERTEX];
+        ByteBuffer bb = ByteBuffer.allocateDirect(data.length * 4);
+        bb.order(ByteOrder.nativeOrder());
+        this.buffer = bb.asFloatBuffer();
+    }
+
+    public SdfFont getFont() {
+        return font;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // CONSTRUCCIÓN
+    // ═══════════════════════════════════════════════════════════════
+
+    public void clear() {
+        glyphCount = 0;
+        uploaded = false;
+        builtAspect = ScreenManager.getAspectRatio();
+        minX = Float.MAX_VALUE;
+        maxX = -Float.MAX_VALUE;
+        if (!fallbacks.isEmpty()) {
+            staleFallbacks.addAll(fallbacks);
+            fallbacks.clear();
+        }
+    }
+
+    /**
+     * Vacía la malla y borra las texturas de fallback. GL thread.
+     */
+    public void release() {
+        clear();
+        releaseStaleFallbacks();
+    }
+
+    /** true si la pantalla cambió de aspect desde el último clear() */
+    public boolean needsRebuild() {
+        return builtAspect != ScreenManager.getAspectRatio();
+    }
+
+    public boolean isEmpty() {
+        return glyphCount == 0 && fallbacks.isEmpty();
+    }
+
+    /**
+     * Ancho en NDC X que ocuparía el texto con ese tamaño.
+     */
+    public float measure(CharSequence text, int start, int end, float size) {
+        return font.measure(text, start, end) * size / aspect();
+    }
+
+    public float measure(CharSequence text, float size) {
+        return measure(text, 0, text.length(), size);
+    }
+
+    /**
+     * Agrega una línea de color sólido.
+     *
+     * @param x        ancla horizontal (NDC) según align
+     * @param y        centro vertical de la línea (NDC)
+     * @param size     altura del em (NDC Y)
+     * @param maxWidth ancho máximo (NDC X); si no cabe se reduce el tamaño. 0 = sin límite
+     * @return ancho final de la línea en NDC X
+     */
+    public float add(CharSequence text, float x, float y, float size, int align,
+                     float maxWidth, int color) {
+        solidColor[0] = color;
+        return add(text, 0, text.length(), x, y, size, align, maxWidth, solidColor);
+    }
+
+    /**
+     * Agrega text[start, end) con un gradiente horizontal de colores ARGB
+     * (un solo color = sólido).
+     */
+    public float add(CharSequence text, int start, int end, float x, float y, float size,
+                     int align, float maxWidth, int[] colors) {
+        float aspect = aspect();
+        float emWidth = font.measure(text, start, end);
+        size = fitSize(emWidth, size, maxWidth, aspect);
+
+        float sx = size / aspect;
+        float width = emWidth * sx;
+        float cursor = startX(x, width, align);
+        float baseline = baseline(y, size);
+
+        if (!font.covers(text, start, end)) {
+            addFallback(text, start, end, cursor, baseline, sx, size, width, colors);
+            return width;
+        }
+
+        float space = font.spaceAdvance();
+        for (int i = start; i < end; i++) {
+            int glyph = font.glyphIndex(text.charAt(i));
+            if (glyph < 0) {
+                cursor += space * sx;
+                continue;
+            }
+            if (text.charAt(i) != ' ') {
+                if (!appendGlyph(glyph, cursor, baseline, sx, size, x, width, align, colors)) break;
+            }
+            cursor += font.getAdvance(glyph) * sx;
+        }
+        return width;
+    }
+
+    /**
+     * Variante sin CharSequence para textos formateados en char[] (reloj).
+     */
+    public float add(char[] text, int count, float x, float y, float size, int align,
+                     float maxWidth, int color) {
+        float aspect = aspect();
+        float emWidth = font.measure(text, count);
+        size = fitSize(emWidth, size, maxWidth, aspect);
+
+        float sx = size / aspect;
+        float width = emWidth * sx;
+        float cursor = startX(x, width, align);
+        float baseline = baseline(y, size);
+        float space = font.spaceAdvance();
+        solidColor[0] = color;
+
+        for (int i = 0; i < count; i++) {
+            int glyph = font.glyphIndex(text[i]);
+            if (glyph < 0) {
+                cursor += space * sx;
+                continue;
+            }
+            if (text[i] != ' ') {
+                if (!appendGlyph(glyph, cursor, baseline, sx, size, x, width, align, solidColor)) break;
+            }
+            cursor += font.getAdvance(glyph) * sx;
+        }
+        return width;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // ESTILO
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Contorno alrededor del glifo.
+     * @param width grosor en em (limitado por el spread del atlas)
+     */
+    public void setOutline(int color, float width) {
+        outlineR = ((color >> 16) & 0xFF) / 255f;
+        outlineG = ((color >> 8) & 0xFF) / 255f;
+        outlineB = (color & 0xFF) / 255f;
+        outlineA = ((color >>> 24) & 0xFF) / 255f;
+        outlineWidth = toFieldUnits(width);
+        outlineArgb = color;
+        outlineEm = width;
+    }
+
+    /**
+     * Resplandor suave hacia afuera.
+     * @param width alcance en em (limitado por el spread del atlas)
+     */
+    public void setGlow(int color, float width) {
+        glowR = ((color >> 16) & 0xFF) / 255f;
+        glowG = ((color >> 8) & 0xFF) / 255f;
+        glowB = (color & 0xFF) / 255f;
+        glowA = ((color >>> 24) & 0xFF) / 255f;
+        glowWidth = toFieldUnits(width);
+        glowArgb = color;
+        glowEm = width;
+    }
+
+    /**
+     * Línea de escaneo que recorre el texto (brillo blanco sobre el relleno).
+     * @param position  0..1 a lo ancho de todo el texto de la malla
+     * @param intensity 0 = apagada
+     */
+    public void setScanLine(float position, float intensity) {
+        scanPosition = position;
+        scanIntensity = intensity;
+    }
+
+    /** Intensidad del glow sin tocar su color (animaciones de pulso) */
+    public void setGlowAlpha(float alpha) {
+        glowA = alpha;
+    }
+
+    /**
+     * Transform aplicado en el vertex shader: pos * scale + offset.
+     * Permite animar (respiración, desplazamiento) sin reconstruir la malla.
+     */
+    public void setTransform(float scale, float offsetX, float offsetY) {
+        this.scale = scale;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INTERNOS
+    // ═══════════════════════════════════════════════════════════════
+
+    int getGlyphCount() {
+        return glyphCount;
+    }
+
+    int getFallbackCount() {
+        return fallbacks.size();
+    }
+
+    FallbackText getFallback(int index) {
+        return fallbacks.get(index);
+    }
+
+    /** Inicio (NDC X) del texto para la línea de escaneo */
+    float getScanStart() {
+        return minX;
+    }
+
+    /** 1 / ancho (NDC X) del texto para la línea de escaneo */
+    float getScanInvWidth() {
+        float width = maxX - minX;
+        return width > 0f ? 1f / width : 0f;
+    }
+
+    /** Borra las texturas de fallback que el último build ya no usa. GL thread. */
+    void releaseStaleFallbacks() {
+        for (int i = 0; i < staleFallbacks.size(); i++) {
+            staleFallbacks.get(i).release();
+        }
+        staleFallbacks.clear();
+    }
+
+    /** Buffer listo para glVertexAttribPointer (copia solo si cambió) */
+    FloatBuffer getBuffer() {
+        if (!uploaded) {
+            buffer.position(0);
+            buffer.put(data, 0, glyphCount * 4 * FLOATS_PER_VERTEX);
+            buffer.position(0);
+            uploaded = true;
+        }
+        return buffer;
+    }
+
+    private void addFallback(CharSequence text, int start, int end, float left, float baseline,
+                             float sx, float sy, float width, int[] colors) {
+        FallbackText line = null;
+        for (int i = 0; i < staleFallbacks.size(); i++) {
+            FallbackText candidate = staleFallbacks.get(i);
+            if (candidate.matches(text, start, end, font.getFace(), colors,
+                    outlineArgb, outlineEm, glowArgb, glowEm)) {
+                line = staleFallbacks.remove(i);
+                break;
+            }
+        }
+        if (line == null) {
+            line = new FallbackText(text.subSequence(start, end).toString(), font.getFace(), colors,
+                    outlineArgb, outlineEm, glowArgb, glowEm);
+        }
+        line.layout(left, baseline, sx, sy);
+        fallbacks.add(line);
+        minX = Math.min(minX, left);
+        maxX = Math.max(maxX, left + width);
+    }
+
+    private float toFieldUnits(float widthEm) {
+        // 0.5 en el campo = spread completo
+        return Math.max(0f, Math.min(0.49f, widthEm / font.getSpreadEm() * 0.5f));
+    }
+
+    private static float aspect() {
+        float aspect = ScreenManager.getAspectRatio();
+        return aspect > 0f ? aspect : 1f;
+    }
+
+    private static float fitSize(float emWidth, float size, float maxWidth, float aspect) {
+        if (maxWidth > 0f && emWidth > 0f) {
+            float width = emWidth * size / aspect;
+            if (width > maxWidth) {
+                return size * maxWidth / width;
+            }
+        }
+        return size;
+    }
+
+    private static float startX(float x, float width, int align) {
+        if (align == ALIGN_CENTER) return x - width / 2f;
+        if (align == ALIGN_RIGHT) return x - width;
+        return x;
+    }
+
+    private float baseline(float centerY, float size) {
+        // Centrar la caja ascent/descent en y
+        return centerY - (font.getAscent() - font.getDescent()) * size / 2f;
+    }
+
+    private boolean appendGlyph(int glyph, float cursor, float baseline, float sx, float sy,
+                                float anchorX, float lineWidth, int align, int[] colors) {
+        if (glyphCount >= capacity) return false;
+
+        float[] quads = font.getGlyphQuads();
+        float[] uvs = font.getGlyphUvs();
+        int q = glyph * 4;
+
+        float left = cursor + quads[q] * sx;
+        float right = cursor + quads[q + 2] * sx;
+        float bottom = baseline + quads[q + 1] * sy;
+        float top = baseline + quads[q + 3] * sy;
+        minX = Math.min(minX, left);
+        maxX = Math.max(maxX, right);
+
+        float lineStart = startX(anchorX, lineWidth, align);
+        int v = glyphCount * 4 * FLOATS_PER_VERTEX;
+        // Orden: BL, BR, TL, TR (v0 = fila superior del atlas)
+        v = putVertex(v, left, bottom, uvs[q], uvs[q + 3], colors, left, lineStart, lineWidth);
+        v = putVertex(v, right, bottom, uvs[q + 2], uvs[q + 3], colors, right, lineStart, lineWidth);
+        v = putVertex(v, left, top, uvs[q], uvs[q + 1], colors, left, lineStart, lineWidth);
+        putVertex(v, right, top, uvs[q + 2], uvs[q + 1], colors, right, lineStart, lineWidth);
+
+        glyphCount++;
+        uploaded = false;
+        return true;
+    }
+
+    private int putVertex(int v, float x, float y, float u, float t, int[] colors,
+                          float px, float lineStart, float lineWidth) {
+        int color;
+        if (colors.length == 1 || lineWidth <= 0f) {
+            color = colors[0];
+        } else {
+            float f = Math.max(0f, Math.min(1f, (px - lineStart) / lineWidth)) * (colors.length - 1);
+            int i = Math.min(colors.length - 2, (int) f);
+            color = lerpColor(colors[i], colors[i + 1], f - i);
+        }
+        data[v] = x;
+        data[v + 1] = y;
+        data[v + 2] = u;
+        data[v + 3] = t;
+        data[v + 4] = ((color >> 16) & 0xFF) / 255f;
+        data[v + 5] = ((color >> 8) & 0xFF) / 255f;
+        data[v + 6] = (color & 0xFF) / 255f;
+        data[v + 7] = ((color >>> 24) & 0xFF) / 255f;
+        return v + FLOATS_PER_VERTEX;
+    }
+
+    private static int lerpColor(int a, int b, float t) {
+        int aa = (a >>> 24) & 0xFF, ar = (a >> 16) & 0xFF, ag = (a >> 8) & 0xFF, ab = a & 0xFF;
+        int ba = (b >>> 24) & 0xFF, br = (b >> 16) & 0xFF, bg = (b >> 8) & 0xFF, bb = b & 0xFF;
+        return ((int) (aa + (ba - aa) * t) << 24)
+                | ((int) (ar + (br - ar) * t) << 16)
+                | ((int) (ag + (bg - ag) * t) << 8)
+                | (int) (ab + (bb - ab) * t);
+    }
+}
@@ -3,6 +3,8 @@ package com.secret.blackholeglow.util;
 import android.opengl.GLES30;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 /**
  * TextureConfig - Sistema centralizado de configuración de texturas OpenGL
  *
@@ -86,7 +88,7 @@ public class TextureConfig {
             return;
         }
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
 
         switch (type) {
             case AVATAR:
@@ -110,7 +112,7 @@ public class TextureConfig {
                 break;
         }
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, 0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, 0);
     }
 
     /**
@@ -143,7 +145,7 @@ public class TextureConfig {
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
         // Generar mipmaps
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
     }
 
     /**
@@ -161,7 +163,7 @@ public class TextureConfig {
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
 
         // Generar mipmaps
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
     }
 
     /**
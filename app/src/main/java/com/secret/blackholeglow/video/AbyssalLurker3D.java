@@ -2,7 +2,6 @@ package com.secret.blackholeglow.video;
 
 import android.content.Context;
 import android.opengl.GLES20;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
@@ -11,6 +10,7 @@ import android.util.Log;
 import com.secret.blackholeglow.R;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 
 import java.io.IOException;
@@ -303,7 +303,7 @@ public class AbyssalLurker3D {
         GLES20.glGenTextures(1, tex, 0);
         textureId = tex[0];
 
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textureId);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
@@ -326,7 +326,7 @@ public class AbyssalLurker3D {
         }
 
         if (bitmap != null) {
-            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
             bitmap.recycle();
             Log.d(TAG, "✅ Textura cargada");
         }
@@ -693,10 +693,10 @@ public class AbyssalLurker3D {
     public void draw() {
         if (!initialized || !modelLoaded) return;
 
-        GLES20.glEnable(GLES20.GL_DEPTH_TEST);
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().enable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Matriz de modelo (posición, rotación, escala)
         Matrix.setIdentityM(modelMatrix, 0);
@@ -713,8 +713,8 @@ public class AbyssalLurker3D {
         GLES20.glUniformMatrix4fv(uMVPLoc, 1, false, mvpMatrix, 0);
         GLES20.glUniform1f(uTimeLoc, time);
 
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES20.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textureId);
         GLES20.glUniform1i(uTextureLoc, 0);
 
         vertexBuffer.position(0);
@@ -726,11 +726,11 @@ public class AbyssalLurker3D {
         GLES20.glVertexAttribPointer(aTexLoc, 2, GLES20.GL_FLOAT, false, 0, uvBuffer);
 
         indexBuffer.position(0);
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
 
         GLES20.glDisableVertexAttribArray(aPosLoc);
         GLES20.glDisableVertexAttribArray(aTexLoc);
-        GLES20.glDisable(GLES20.GL_DEPTH_TEST);
+        GLStateManager.get().disable(GLES20.GL_DEPTH_TEST);
     }
 
     private int compileShader(int type, String source) {
@@ -828,11 +828,11 @@ public class AbyssalLurker3D {
 
     public void release() {
         if (textureId != -1) {
-            GLES20.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             textureId = -1;
         }
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         initialized = false;
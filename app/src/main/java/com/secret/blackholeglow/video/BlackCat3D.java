@@ -4,10 +4,10 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
@@ -230,13 +230,13 @@ public class BlackCat3D {
     private int uploadBitmapToGL(Bitmap bitmap) {
         int[] textures = new int[1];
         GLES30.glGenTextures(1, textures, 0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textures[0]);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textures[0]);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
         return textures[0];
     }
 
@@ -254,7 +254,7 @@ public class BlackCat3D {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Shader link error: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             GLES30.glDeleteShader(vs);
             GLES30.glDeleteShader(fs);
@@ -340,7 +340,7 @@ public class BlackCat3D {
     public void draw() {
         if (!modelLoaded || shaderProgram == 0) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // MVP cacheado: solo recalcular cuando cambia posicion/escala/rotacion
         if (mvpDirty) {
@@ -364,8 +364,8 @@ public class BlackCat3D {
         GLES30.glUniform1f(uTimeLoc, time);
 
         // Bind current atlas texture (swapped for blink)
-        GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, currentTexture);
+        GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, currentTexture);
         GLES30.glUniform1i(uTextureLoc, 0);
 
         // Draw single mesh
@@ -380,7 +380,7 @@ public class BlackCat3D {
         }
 
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionLoc);
         GLES30.glDisableVertexAttribArray(aTexCoordLoc);
@@ -413,14 +413,14 @@ public class BlackCat3D {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         // Delete unique texture IDs (avoid double-delete if fallback shares ID)
         int lastDeleted = 0;
         for (int i = 0; i < atlasTextureIds.length; i++) {
             if (atlasTextureIds[i] != 0 && atlasTextureIds[i] != lastDeleted) {
-                GLES30.glDeleteTextures(1, new int[]{atlasTextureIds[i]}, 0);
+                GLStateManager.get().deleteTextures(1, new int[]{atlasTextureIds[i]}, 0);
                 lastDeleted = atlasTextureIds[i];
                 atlasTextureIds[i] = 0;
             }
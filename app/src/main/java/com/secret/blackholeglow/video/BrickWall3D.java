@@ -4,11 +4,11 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
@@ -210,13 +210,13 @@ public class BrickWall3D {
         GLES30.glGenTextures(1, textures, 0);
         int texId = textures[0];
 
-        GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, texId);
+        GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, texId);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR_MIPMAP_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
         GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-        GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
-        GLES30.glGenerateMipmap(GLES30.GL_TEXTURE_2D);
+        GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+        GLStateManager.get().generateMipmap(GLES30.GL_TEXTURE_2D);
 
         return texId;
     }
@@ -235,7 +235,7 @@ public class BrickWall3D {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "❌ Link error: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             GLES30.glDeleteShader(vs);
             GLES30.glDeleteShader(fs);
@@ -277,7 +277,7 @@ public class BrickWall3D {
     public void draw() {
         if (!modelLoaded || shaderProgram == 0 || vertexBuffer == null || indexBuffer == null) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // MVP cacheado: solo recalcular cuando cambia posicion/escala/rotacion
         if (mvpDirty) {
@@ -300,8 +300,8 @@ public class BrickWall3D {
 
         // Texture
         if (textureId != 0) {
-            GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, textureId);
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, textureId);
             GLES30.glUniform1i(uTextureLoc, 0);
         }
 
@@ -319,7 +319,7 @@ public class BrickWall3D {
 
         // Draw
         indexBuffer.position(0);
-        GLES30.glDrawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES30.GL_TRIANGLES, indexCount, GLES30.GL_UNSIGNED_INT, indexBuffer);
 
         GLES30.glDisableVertexAttribArray(aPositionLoc);
         if (uvBuffer != null) GLES30.glDisableVertexAttribArray(aTexCoordLoc);
@@ -361,11 +361,11 @@ public class BrickWall3D {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (textureId != 0) {
-            GLES30.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             textureId = 0;
         }
         modelLoaded = false;
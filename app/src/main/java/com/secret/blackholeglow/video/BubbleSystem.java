@@ -4,6 +4,8 @@ import android.opengl.GLES20;
 import android.opengl.Matrix;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -261,13 +263,13 @@ public class BubbleSystem {
     public void draw(float aspectRatio) {
         if (!initialized || bubbleCount == 0) return;
 
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Matriz de proyección ortográfica
         Matrix.orthoM(projMatrix, 0, -aspectRatio, aspectRatio, -1f, 1f, -1f, 1f);
 
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
 
         vertexBuffer.position(0);
         GLES20.glEnableVertexAttribArray(aPosLoc);
@@ -301,12 +303,12 @@ public class BubbleSystem {
                 alpha);
 
             // Dibujar círculo relleno
-            GLES20.glDrawArrays(GLES20.GL_TRIANGLE_FAN, 0, CIRCLE_SEGMENTS + 2);
+            GLStateManager.get().drawArrays(GLES20.GL_TRIANGLE_FAN, 0, CIRCLE_SEGMENTS + 2);
 
             // Dibujar borde más brillante
             GLES20.glUniform4f(uColorLoc, 0.7f, 1.0f, 1.0f, alpha * 0.8f);
             GLES20.glLineWidth(1.5f);
-            GLES20.glDrawArrays(GLES20.GL_LINE_LOOP, 1, CIRCLE_SEGMENTS);
+            GLStateManager.get().drawArrays(GLES20.GL_LINE_LOOP, 1, CIRCLE_SEGMENTS);
         }
 
         GLES20.glDisableVertexAttribArray(aPosLoc);
@@ -325,7 +327,7 @@ public class BubbleSystem {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         initialized = false;
@@ -5,6 +5,7 @@ import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
@@ -255,12 +256,12 @@ public class DeathBeamFX {
         GLES20.glGenBuffers(2, bufs, 0);
         sphereVBO = bufs[0];
         sphereIBO = bufs[1];
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, sphereVBO);
-        GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, verts.length * 4, vertBuf, GLES20.GL_STATIC_DRAW);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, sphereIBO);
-        GLES20.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, idx.length * 2, idxBuf, GLES20.GL_STATIC_DRAW);
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, sphereVBO);
+        GLStateManager.get().bufferData(GLES20.GL_ARRAY_BUFFER, verts.length * 4, vertBuf, GLES20.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, sphereIBO);
+        GLStateManager.get().bufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, idx.length * 2, idxBuf, GLES20.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     private void generateCone(int segments, float length) {
@@ -302,12 +303,12 @@ public class DeathBeamFX {
         GLES20.glGenBuffers(2, bufs, 0);
         beamVBO = bufs[0];
         beamIBO = bufs[1];
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, beamVBO);
-        GLES20.glBufferData(GLES20.GL_ARRAY_BUFFER, verts.length * 4, vertBuf, GLES20.GL_STATIC_DRAW);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, beamIBO);
-        GLES20.glBufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, idx.length * 2, idxBuf, GLES20.GL_STATIC_DRAW);
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, beamVBO);
+        GLStateManager.get().bufferData(GLES20.GL_ARRAY_BUFFER, verts.length * 4, vertBuf, GLES20.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, beamIBO);
+        GLStateManager.get().bufferData(GLES20.GL_ELEMENT_ARRAY_BUFFER, idx.length * 2, idxBuf, GLES20.GL_STATIC_DRAW);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     // ==========================================
@@ -325,18 +326,18 @@ public class DeathBeamFX {
         Matrix.perspectiveM(projectionMatrix, 0, 45f, aspect, 0.1f, 100f);
         Matrix.setLookAtM(viewMatrix, 0, 0f, 0f, 3f, 0f, 0f, 0f, 0f, 1f, 0f);
 
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE); // Additive
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE); // Additive
 
         drawBeam();
         drawSphere();
 
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
     }
 
     private void drawSphere() {
         if (sphereProgram == 0) return;
-        GLES20.glUseProgram(sphereProgram);
+        GLStateManager.get().useProgram(sphereProgram);
 
         Matrix.setIdentityM(modelMatrix, 0);
         Matrix.translateM(modelMatrix, 0, sphereX, sphereY, sphereZ);
@@ -348,19 +349,19 @@ public class DeathBeamFX {
         GLES20.glUniformMatrix4fv(sphereMVPLoc, 1, false, mvpMatrix, 0);
         GLES20.glUniform1f(sphereTimeLoc, time);
 
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, sphereVBO);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, sphereVBO);
         GLES20.glEnableVertexAttribArray(spherePosLoc);
         GLES20.glVertexAttribPointer(spherePosLoc, 3, GLES20.GL_FLOAT, false, 0, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, sphereIBO);
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, sphereIndexCount, GLES20.GL_UNSIGNED_SHORT, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, sphereIBO);
+        GLStateManager.get().drawElements(GLES20.GL_TRIANGLES, sphereIndexCount, GLES20.GL_UNSIGNED_SHORT, 0);
         GLES20.glDisableVertexAttribArray(spherePosLoc);
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     private void drawBeam() {
         if (beamProgram == 0) return;
-        GLES20.glUseProgram(beamProgram);
+        GLStateManager.get().useProgram(beamProgram);
 
         Matrix.setIdentityM(modelMatrix, 0);
         Matrix.translateM(modelMatrix, 0, sphereX, sphereY, sphereZ);
@@ -381,14 +382,14 @@ public class DeathBeamFX {
         GLES20.glUniformMatrix4fv(beamMVPLoc, 1, false, mvpMatrix, 0);
         GLES20.glUniform1f(beamTimeLoc, time);
 
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, beamVBO);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, beamVBO);
         GLES20.glEnableVertexAttribArray(beamPosLoc);
         GLES20.glVertexAttribPointer(beamPosLoc, 3, GLES20.GL_FLOAT, false, 0, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, beamIBO);
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, beamIndexCount, GLES20.GL_UNSIGNED_SHORT, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, beamIBO);
+        GLStateManager.get().drawElements(GLES20.GL_TRIANGLES, beamIndexCount, GLES20.GL_UNSIGNED_SHORT, 0);
         GLES20.glDisableVertexAttribArray(beamPosLoc);
-        GLES20.glBindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
-        GLES20.glBindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ARRAY_BUFFER, 0);
+        GLStateManager.get().bindBuffer(GLES20.GL_ELEMENT_ARRAY_BUFFER, 0);
     }
 
     // ==========================================
@@ -429,7 +430,7 @@ public class DeathBeamFX {
         GLES20.glGetProgramiv(prog, GLES20.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Program link error: " + GLES20.glGetProgramInfoLog(prog));
-            GLES20.glDeleteProgram(prog);
+            GLStateManager.get().deleteProgram(prog);
             return 0;
         }
         GLES20.glDeleteShader(vs);
@@ -484,11 +485,11 @@ public class DeathBeamFX {
     public void setScreenSize(int w, int h) { screenWidth = w; screenHeight = h; }
 
     public void release() {
-        if (sphereProgram != 0) GLES20.glDeleteProgram(sphereProgram);
-        if (beamProgram != 0) GLES20.glDeleteProgram(beamProgram);
+        if (sphereProgram != 0) GLStateManager.get().deleteProgram(sphereProgram);
+        if (beamProgram != 0) GLStateManager.get().deleteProgram(beamProgram);
         sphereProgram = beamProgram = 0;
         int[] bufs = {sphereVBO, sphereIBO, beamVBO, beamIBO};
-        GLES20.glDeleteBuffers(4, bufs, 0);
+        GLStateManager.get().deleteBuffers(4, bufs, 0);
         sphereVBO = sphereIBO = beamVBO = beamIBO = 0;
     }
 }
@@ -4,9 +4,10 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES20;
-import android.opengl.GLUtils;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -111,7 +112,7 @@ public class DecorationSprite {
         GLES20.glGetProgramiv(shaderProgram, GLES20.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e("DecorationSprite", "❌ Link error: " + GLES20.glGetProgramInfoLog(shaderProgram));
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             GLES20.glDeleteShader(vs);
             GLES20.glDeleteShader(fs);
@@ -137,7 +138,7 @@ public class DecorationSprite {
         GLES20.glGenTextures(1, tex, 0);
         textureId = tex[0];
 
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textureId);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
@@ -159,7 +160,7 @@ public class DecorationSprite {
         Bitmap bitmap = BitmapFactory.decodeResource(context.getResources(), resourceId, opts);
 
         if (bitmap != null) {
-            GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
             bitmap.recycle();
         }
     }
@@ -170,16 +171,16 @@ public class DecorationSprite {
         time += deltaTime;
         if (time > 628f) time -= 628f;
 
-        GLES20.glEnable(GLES20.GL_BLEND);
-        GLES20.glBlendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().enable(GLES20.GL_BLEND);
+        GLStateManager.get().blendFunc(GLES20.GL_SRC_ALPHA, GLES20.GL_ONE_MINUS_SRC_ALPHA);
+        GLStateManager.get().useProgram(shaderProgram);
 
         GLES20.glUniform2f(uPosLoc, posX, posY);
         GLES20.glUniform2f(uScaleLoc, scaleX, scaleY);
         GLES20.glUniform1f(uTimeLoc, time);
 
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES20.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textureId);
         GLES20.glUniform1i(uTextureLoc, 0);
 
         GLES20.glEnableVertexAttribArray(aPositionLoc);
@@ -188,7 +189,7 @@ public class DecorationSprite {
         GLES20.glEnableVertexAttribArray(aTexCoordLoc);
         GLES20.glVertexAttribPointer(aTexCoordLoc, 2, GLES20.GL_FLOAT, false, 0, texCoordBuffer);
 
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES20.glDisableVertexAttribArray(aPositionLoc);
         GLES20.glDisableVertexAttribArray(aTexCoordLoc);
@@ -212,11 +213,11 @@ public class DecorationSprite {
 
     public void release() {
         if (textureId != -1) {
-            GLES20.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             textureId = -1;
         }
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         initialized = false;
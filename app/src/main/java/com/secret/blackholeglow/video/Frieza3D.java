@@ -4,11 +4,11 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES20;
-import android.opengl.GLUtils;
 import android.opengl.Matrix;
 import android.util.Log;
 
 import com.secret.blackholeglow.core.DeviceProfile;
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 import com.secret.blackholeglow.image.ImageDownloadManager;
 import com.secret.blackholeglow.model.ModelDownloadManager;
@@ -190,13 +190,13 @@ public class Frieza3D {
     private int uploadBitmapToGL(Bitmap bitmap) {
         int[] textures = new int[1];
         GLES20.glGenTextures(1, textures, 0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textures[0]);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textures[0]);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR_MIPMAP_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_S, GLES20.GL_CLAMP_TO_EDGE);
         GLES20.glTexParameteri(GLES20.GL_TEXTURE_2D, GLES20.GL_TEXTURE_WRAP_T, GLES20.GL_CLAMP_TO_EDGE);
-        GLUtils.texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
-        GLES20.glGenerateMipmap(GLES20.GL_TEXTURE_2D);
+        GLStateManager.get().texImage2D(GLES20.GL_TEXTURE_2D, 0, bitmap, 0);
+        GLStateManager.get().generateMipmap(GLES20.GL_TEXTURE_2D);
         return textures[0];
     }
 
@@ -214,7 +214,7 @@ public class Frieza3D {
         GLES20.glGetProgramiv(shaderProgram, GLES20.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Shader link error: " + GLES20.glGetProgramInfoLog(shaderProgram));
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             GLES20.glDeleteShader(vs);
             GLES20.glDeleteShader(fs);
@@ -254,7 +254,7 @@ public class Frieza3D {
     public void draw() {
         if (!modelLoaded || shaderProgram == 0 || textureId == 0) return;
 
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         float aspect = (float) screenWidth / screenHeight;
         Matrix.perspectiveM(projectionMatrix, 0, 45f, aspect, 0.1f, 100f);
@@ -273,8 +273,8 @@ public class Frieza3D {
         GLES20.glUniformMatrix4fv(uMVPMatrixLoc, 1, false, mvpMatrix, 0);
         GLES20.glUniform1f(uTimeLoc, time);
 
-        GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-        GLES20.glBindTexture(GLES20.GL_TEXTURE_2D, textureId);
+        GLStateManager.get().activeTexture(GLES20.GL_TEXTURE0);
+        GLStateManager.get().bindTexture(GLES20.GL_TEXTURE_2D, textureId);
         GLES20.glUniform1i(uTextureLoc, 0);
 
         vertexBuffer.position(0);
@@ -288,7 +288,7 @@ public class Frieza3D {
         }
 
         indexBuffer.position(0);
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
 
         GLES20.glDisableVertexAttribArray(aPositionLoc);
         GLES20.glDisableVertexAttribArray(aTexCoordLoc);
@@ -311,11 +311,11 @@ public class Frieza3D {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (textureId != 0) {
-            GLES20.glDeleteTextures(1, new int[]{textureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{textureId}, 0);
             textureId = 0;
         }
         modelLoaded = false;
@@ -3,6 +3,8 @@ package com.secret.blackholeglow.video;
 import android.opengl.GLES20;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
+
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
@@ -145,7 +147,7 @@ public class FriezaBackground {
     public void draw() {
         if (shaderProgram == 0) return;
 
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         GLES20.glUniform1f(timeLoc, time);
         GLES20.glUniform2f(resLoc, screenWidth, screenHeight);
@@ -161,7 +163,7 @@ public class FriezaBackground {
         GLES20.glEnableVertexAttribArray(uvLoc);
         GLES20.glVertexAttribPointer(uvLoc, 2, GLES20.GL_FLOAT, false, 16, quadVertices);
 
-        GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
 
         GLES20.glDisableVertexAttribArray(posLoc);
         GLES20.glDisableVertexAttribArray(uvLoc);
@@ -193,7 +195,7 @@ public class FriezaBackground {
         GLES20.glGetProgramiv(prog, GLES20.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Shader link error: " + GLES20.glGetProgramInfoLog(prog));
-            GLES20.glDeleteProgram(prog);
+            GLStateManager.get().deleteProgram(prog);
             return 0;
         }
         GLES20.glDeleteShader(vs);
@@ -217,7 +219,7 @@ public class FriezaBackground {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         Log.d(TAG, "FriezaBackground released");
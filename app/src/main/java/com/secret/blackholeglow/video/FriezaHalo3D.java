@@ -5,6 +5,7 @@ import android.opengl.GLES20;
 import android.opengl.Matrix;
 import android.util.Log;
 
+import com.secret.blackholeglow.systems.GLStateManager;
 import com.secret.blackholeglow.util.ObjLoader;
 import com.secret.blackholeglow.model.ModelDownloadManager;
 
@@ -131,7 +132,7 @@ public class FriezaHalo3D {
         GLES20.glGetProgramiv(shaderProgram, GLES20.GL_LINK_STATUS, linked, 0);
         if (linked[0] == 0) {
             Log.e(TAG, "Shader link error: " + GLES20.glGetProgramInfoLog(shaderProgram));
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             GLES20.glDeleteShader(vs);
             GLES20.glDeleteShader(fs);
@@ -169,7 +170,7 @@ public class FriezaHalo3D {
     public void draw() {
         if (!modelLoaded || shaderProgram == 0) return;
 
-        GLES20.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         float aspect = (float) screenWidth / screenHeight;
         Matrix.perspectiveM(projectionMatrix, 0, 45f, aspect, 0.1f, 100f);
@@ -190,7 +191,7 @@ public class FriezaHalo3D {
         GLES20.glVertexAttribPointer(aPositionLoc, 3, GLES20.GL_FLOAT, false, 0, vertexBuffer);
 
         indexBuffer.position(0);
-        GLES20.glDrawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
+        GLStateManager.get().drawElements(GLES20.GL_TRIANGLES, indexCount, GLES20.GL_UNSIGNED_INT, indexBuffer);
 
         GLES20.glDisableVertexAttribArray(aPositionLoc);
     }
@@ -202,7 +203,7 @@ public class FriezaHalo3D {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         modelLoaded = false;
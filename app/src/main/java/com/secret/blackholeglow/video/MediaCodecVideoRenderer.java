@@ -3,6 +3,7 @@ package com.secret.blackholeglow.video;
 import android.content.Context;
 import android.content.res.AssetFileDescriptor;
 import android.graphics.SurfaceTexture;
+import android.hardware.display.DisplayManager;
 import android.media.MediaCodec;
 import android.media.MediaCodecInfo;
 import android.media.MediaCodecList;
@@ -11,10 +12,19 @@ import android.media.MediaFormat;
 import android.opengl.GLES11Ext;
 import android.opengl.GLES20;
 import android.opengl.Matrix;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
 import android.util.Log;
+import android.view.Choreographer;
+import android.view.Display;
 import android.view.Surface;
 import android.os.Process;
 
+import com.secret.blackholeglow.download.AbstractDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
+import com.secret.blackholeglow.util.ThreadUtils;
+
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -29,6 +39,19 @@ import java.nio.FloatBuffer;
  * - Podemos reiniciar el decoder cuando queramos
  * - No dependemos de abstracciones que pueden fallar
  *
+ * Decodificación asíncrona (MediaCodec.Callback en su propio HandlerThread):
+ * - Sin polling: el codec avisa cuando hay buffers de entrada/salida
+ * - Cada frame se libera con releaseOutputBuffer(index, renderTimestampNs)
+ *   sobre un reloj de presentación continuo, alineado al vsync del display
+ * - Loop seamless: al terminar el archivo se vuelve a seekTo(0) sin flush()
+ *   y los timestamps siguen creciendo (sin saltos en el reloj)
+ *
+ * Pausa en dos modos (decide el llamador según memoria):
+ * - suspend(): codec configurado pero detenido, Surface/textura intactas;
+ *   resume() hace un seek corto a la última posición
+ * - releaseForPause(): libera todo; reinitializeAfterPause() lo recrea
+ * El TTFF de cada camino se reporta a VideoResumeStats.
+ *
  * Basado en: https://bigflake.com/mediacodec/
  * y https://github.com/PhilLab/Android-MediaCodec-Examples
  */
@@ -37,13 +60,16 @@ public class MediaCodecVideoRenderer {
 
     private final Context context;
     private final String videoFileName;
-    private String localFilePath = null;  // Path a archivo local (cache)
+    private volatile String localFilePath = null;  // Path a archivo local (cache)
 
     // MediaCodec components
     private MediaExtractor extractor;
-    private MediaCodec decoder;
+    private volatile MediaCodec decoder;
     private int videoTrackIndex = -1;
 
+    // Qué se está reproduciendo: rendition + formato real + decoder (para logs/diagnóstico)
+    private volatile String playbackInfo = null;
+
     // Surface para recibir frames decodificados
     private SurfaceTexture surfaceTexture;
     private Surface surface;
@@ -52,7 +78,63 @@ public class MediaCodecVideoRenderer {
     // Estado (volatile para thread-safety)
     private volatile boolean isInitialized = false;
     private volatile boolean isRunning = false;
-    private Thread decoderThread;
+    private HandlerThread decoderThread;
+    private Handler decoderHandler;
+
+    // ═══════════════════════════════════════════════════════════════
+    // ⏱️ RELOJ DE PRESENTACIÓN (solo se toca en el decoder thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    // Frame tardío más de esto → re-anclar el reloj en vez de descartar todo
+    private static final long MAX_LATE_NS = 100_000_000L;
+    // Liberar cada frame al codec este número de vsyncs antes de su turno
+    private static final int RELEASE_LEAD_VSYNCS = 2;
+    private static final long DEFAULT_FRAME_DURATION_US = 33_333;
+
+    private long clockBaseNs = -1;          // nanoTime que corresponde a PTS 0
+    private long loopOffsetUs = 0;          // PTS acumulado por vueltas del loop
+    private long maxSampleTimeUs = 0;       // Mayor PTS leído en la vuelta actual
+    private int samplesThisLoop = 0;
+    private long frameDurationUs = DEFAULT_FRAME_DURATION_US;
+
+    // Salidas decodificadas esperando su vsync (FIFO en orden de presentación)
+    private int[] pendingIndex = new int[16];
+    private long[] pendingPtsUs = new long[16];
+    private int pendingHead = 0;
+    private int pendingCount = 0;
+
+    private long framesRendered = 0;
+    private long framesDropped = 0;
+
+    // ═══════════════════════════════════════════════════════════════
+    // 💤 SUSPEND (pausa rápida)
+    // ═══════════════════════════════════════════════════════════════
+
+    private volatile boolean isSuspended = false;
+    private long loopDurationUs = 0;        // Largo del clip (conocido tras la 1ª vuelta)
+    private long lastRenderedPtsUs = -1;
+    private long resumePositionUs = 0;      // Posición de media a retomar
+    private long skipUntilUs = -1;          // Decodificar sin mostrar hasta aquí (seek preciso)
+
+    // ⏱️ TTFF: inicio del resume en curso (0 = ninguno)
+    private volatile long resumeStartMs = 0;
+    private volatile VideoResumeStats.Path resumePath;
+
+    private final VsyncClock vsyncClock;
+    private final Runnable suspendSessionTask = this::suspendSession;
+    private final Runnable resumeSessionTask = this::resumeSession;
+    private final Runnable trimSuspendedTask = () -> {
+        if (isSuspended) {
+            releaseDecoder();
+            Log.d(TAG, "🧹 Sesión suspendida liberada (presión de memoria)");
+        }
+    };
+    private final Runnable releaseDueFramesTask = this::releaseDueFrames;
+    private final Runnable startSessionTask = this::startSession;
+    private final Runnable restartSessionTask = () -> {
+        releaseDecoder();
+        startSession();
+    };
 
     // OpenGL
     private int shaderProgram;
@@ -87,6 +169,7 @@ public class MediaCodecVideoRenderer {
     public MediaCodecVideoRenderer(Context context, String videoFileName) {
         this.context = context;
         this.videoFileName = videoFileName;
+        this.vsyncClock = new VsyncClock(context);
         Matrix.setIdentityM(mvpMatrix, 0);
         Matrix.setIdentityM(stMatrix, 0);
     }
@@ -98,6 +181,7 @@ public class MediaCodecVideoRenderer {
         this.context = context;
         this.videoFileName = videoFileName;
         this.localFilePath = localFilePath;
+        this.vsyncClock = new VsyncClock(context);
         Matrix.setIdentityM(mvpMatrix, 0);
         Matrix.setIdentityM(stMatrix, 0);
     }
@@ -141,22 +225,13 @@ public class MediaCodecVideoRenderer {
         int[] tex = new int[1];
         GLES20.glGenTextures(1, tex, 0);
         videoTextureId = tex[0];
-        GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
+        GLStateManager.get().bindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
         GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
         GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
 
         // SurfaceTexture + Surface con listener de frame
         surfaceTexture = new SurfaceTexture(videoTextureId);
-        surfaceTexture.setOnFrameAvailableListener(st -> {
-            synchronized (frameLock) {
-                frameAvailable = true;
-                // 🔧 FIX FREEZE: Marcar que ya tenemos al menos un frame
-                if (!hasReceivedFirstFrame) {
-                    hasReceivedFirstFrame = true;
-                    Log.d(TAG, "🎬 ¡Primer frame recibido! Video listo para mostrar");
-                }
-            }
-        });
+        surfaceTexture.setOnFrameAvailableListener(frameListener);
         surface = new Surface(surfaceTexture);
 
         // Iniciar decoder
@@ -168,73 +243,68 @@ public class MediaCodecVideoRenderer {
 
     private void startDecoder() {
         // 🔧 FIX THREAD LEAK: Ensure previous thread is fully stopped before starting new one.
-        // Without this, pause() → resume() could leave an orphan thread that sees isRunning=true
-        // and races on the MediaCodec decoder with the new thread.
+        // Without this, pause() → resume() could leave an orphan thread that races
+        // on the MediaCodec decoder with the new thread.
         if (decoderThread != null && decoderThread.isAlive()) {
             Log.w(TAG, "⚠️ Previous decoder thread still alive, waiting...");
-            isRunning = false;
-            decoderThread.interrupt();
-            try { decoderThread.join(5000); } catch (InterruptedException ignored) {}
-            if (decoderThread.isAlive()) {
-                Log.e(TAG, "❌ Decoder thread orphaned after 5s timeout");
-            }
+            stopDecoder(5000);
         }
         isRunning = true;
-        decoderThread = new Thread(this::decoderLoop, "MediaCodecDecoder");
+
+        // 🚀 Prioridad alta para playback suave (menos stuttering)
+        decoderThread = new HandlerThread("MediaCodecDecoder", Process.THREAD_PRIORITY_VIDEO);
         decoderThread.start();
+        decoderHandler = new Handler(decoderThread.getLooper());
+        decoderHandler.post(startSessionTask);
     }
 
     /**
-     * Thread principal de decodificación
-     * Ahora decodeLoop() maneja el looping interno con seekTo(0)
-     * Este método solo inicializa una vez y maneja errores
+     * Detiene el decoder thread: libera el codec EN su thread y espera a que termine.
      */
-    private void decoderLoop() {
-        Log.d(TAG, "🔄 Iniciando loop de decodificación");
-
-        // 🚀 Prioridad alta para playback suave (menos stuttering)
-        Process.setThreadPriority(Process.THREAD_PRIORITY_VIDEO);
-
-        while (isRunning) {
-            try {
-                // Inicializar extractor y decoder (solo una vez por sesión)
-                if (!initializeMediaCodec()) {
-                    Log.e(TAG, "Error inicializando MediaCodec, reintentando en 1s...");
-                    Thread.sleep(1000);
-                    continue;
-                }
-
-                // Loop de decodificación con seamless looping interno
-                // Solo sale cuando isRunning = false (pause/stop)
-                decodeLoop();
-
-                // Si llegamos aquí, fue pause/stop, no loop
-                break;
+    private void stopDecoder(long timeoutMs) {
+        isRunning = false;
+        isSuspended = false;
+        HandlerThread thread = decoderThread;
+        Handler handler = decoderHandler;
+        decoderThread = null;
+        decoderHandler = null;
+        if (thread == null) return;
+
+        handler.removeCallbacksAndMessages(null);
+        handler.post(() -> {
+            vsyncClock.stop();
+            releaseDecoder();
+            Log.d(TAG, "🛑 Decoder detenido (renderizados=" + framesRendered +
+                ", descartados=" + framesDropped + ")");
+        });
+        thread.quitSafely();
+        ThreadUtils.joinThread(thread, timeoutMs, TAG);
+    }
 
-            } catch (InterruptedException e) {
-                Log.d(TAG, "Decoder thread interrumpido");
-                break;
-            } catch (Exception e) {
-                Log.e(TAG, "Error en decoder loop: " + e.getMessage());
-                releaseDecoder();
-                try {
-                    Thread.sleep(500);
-                } catch (InterruptedException ie) {
-                    break;
-                }
-            }
+    /**
+     * Abre extractor + decoder en el decoder thread. A partir de aquí todo lo
+     * maneja codecCallback; si falla se reintenta en 1s.
+     */
+    private void startSession() {
+        if (!isRunning) return;
+        Log.d(TAG, "🔄 Iniciando sesión de decodificación");
+
+        vsyncClock.start();
+        if (!initializeMediaCodec()) {
+            Log.e(TAG, "Error inicializando MediaCodec, reintentando en 1s...");
+            releaseDecoder();
+            Handler handler = decoderHandler;
+            if (handler != null) handler.postDelayed(startSessionTask, 1000);
         }
-
-        releaseDecoder();
-        Log.d(TAG, "🛑 Decoder loop terminado");
     }
 
     private boolean initializeMediaCodec() {
+        boolean fromCache = localFilePath != null && new File(localFilePath).exists();
         try {
             extractor = new MediaExtractor();
 
             // Intentar archivo local primero (cache de Supabase)
-            if (localFilePath != null && new File(localFilePath).exists()) {
+            if (fromCache) {
                 Log.d(TAG, "Abriendo video desde cache: " + localFilePath);
                 extractor.setDataSource(localFilePath);
             } else {
@@ -258,6 +328,7 @@ public class MediaCodecVideoRenderer {
 
             if (videoTrackIndex < 0) {
                 Log.e(TAG, "No se encontró track de video");
+                if (fromCache) onCachedFileUndecodable();
                 return false;
             }
 
@@ -269,15 +340,18 @@ public class MediaCodecVideoRenderer {
                 format.getInteger(MediaFormat.KEY_WIDTH) + "x" +
                 format.getInteger(MediaFormat.KEY_HEIGHT));
 
+            // Reloj nuevo por sesión
+            resetPresentationClock(format);
+            String renditionLabel = describeRendition();
+
             // 🔧 FIX: Crear decoder con fallback si el primario falla
             try {
-                decoder = MediaCodec.createDecoderByType(mime);
-                decoder.configure(format, surface, null, 0);
-                decoder.start();
+                startCodec(MediaCodec.createDecoderByType(mime), format);
                 Log.d(TAG, "✅ MediaCodec configurado (by type: " + mime + ")");
+                reportPlayback(renditionLabel, format, mime);
             } catch (Exception codecEx) {
                 Log.w(TAG, "⚠️ Codec por tipo falló: " + codecEx.getMessage() + ", buscando alternativo...");
-                decoder = null;
+                releaseCodecQuietly();
                 // Fallback: buscar codec específico por nombre
                 int codecCount = MediaCodecList.getCodecCount();
                 for (int ci = 0; ci < codecCount; ci++) {
@@ -286,17 +360,13 @@ public class MediaCodecVideoRenderer {
                     for (String type : info.getSupportedTypes()) {
                         if (type.equalsIgnoreCase(mime)) {
                             try {
-                                decoder = MediaCodec.createByCodecName(info.getName());
-                                decoder.configure(format, surface, null, 0);
-                                decoder.start();
+                                startCodec(MediaCodec.createByCodecName(info.getName()), format);
                                 Log.d(TAG, "✅ MediaCodec fallback: " + info.getName());
+                                reportPlayback(renditionLabel, format, mime);
                                 break;
                             } catch (Exception e2) {
                                 Log.w(TAG, "⚠️ Codec " + info.getName() + " falló: " + e2.getMessage());
-                                if (decoder != null) {
-                                    try { decoder.release(); } catch (Exception ignored) {}
-                                    decoder = null;
-                                }
+                                releaseCodecQuietly();
                             }
                         }
                     }
@@ -304,6 +374,7 @@ public class MediaCodecVideoRenderer {
                 }
                 if (decoder == null) {
                     Log.e(TAG, "❌ No se encontró ningún codec compatible para " + mime);
+                    if (fromCache) onCachedFileUndecodable();
                     return false;
                 }
             }
@@ -311,82 +382,294 @@ public class MediaCodecVideoRenderer {
 
         } catch (IOException e) {
             Log.e(TAG, "Error abriendo video: " + e.getMessage());
+            if (fromCache) onCachedFileUndecodable();
             return false;
         }
     }
 
     /**
-     * Loop de decodificación con SEAMLESS LOOPING
-     * Usa seekTo(0) + flush() en vez de recrear decoder (ahorra ~100ms por loop)
+     * El archivo en cache no es decodificable en este dispositivo (contenedor o
+     * codec): se pide otra rendition y, al terminar su descarga, el reintento
+     * de startSession la abre.
      */
-    private void decodeLoop() {
-        MediaCodec.BufferInfo bufferInfo = new MediaCodec.BufferInfo();
-        boolean inputDone = false;
-        long startTime = System.nanoTime();
-
-        // Loop continuo hasta que isRunning = false
-        while (isRunning) {
-            // Enviar datos al decoder
-            if (!inputDone) {
-                int inputIndex = decoder.dequeueInputBuffer(5000);
-                if (inputIndex >= 0) {
-                    ByteBuffer inputBuffer = decoder.getInputBuffer(inputIndex);
-                    int sampleSize = extractor.readSampleData(inputBuffer, 0);
-
-                    if (sampleSize < 0) {
-                        // Fin del archivo - enviar EOS
-                        decoder.queueInputBuffer(inputIndex, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
-                        inputDone = true;
-                    } else {
-                        long presentationTimeUs = extractor.getSampleTime();
-                        decoder.queueInputBuffer(inputIndex, 0, sampleSize, presentationTimeUs, 0);
-                        extractor.advance();
-                    }
-                }
+    private void onCachedFileUndecodable() {
+        VideoDownloadManager downloads = VideoDownloadManager.getInstance(context);
+        if (!downloads.onDecodeFailure(videoFileName)) return;
+        localFilePath = null;
+        downloads.downloadVideo(videoFileName, new AbstractDownloadManager.DownloadCallback() {
+            @Override
+            public void onProgress(int percent, long downloadedBytes, long totalBytes) {}
+
+            @Override
+            public void onComplete(String filePath) {
+                Log.d(TAG, "🎞️ Rendition alternativa lista: " + filePath);
+                localFilePath = filePath;
             }
 
-            // Obtener frames decodificados (reduced timeout: 5ms instead of 10ms)
-            int outputIndex = decoder.dequeueOutputBuffer(bufferInfo, 5000);
-            if (outputIndex < 0) {
-                // No output ready - yield CPU instead of busy-waiting
-                try { Thread.sleep(2); } catch (InterruptedException e) { break; }
-            } else if (outputIndex >= 0) {
-                // Sincronización de tiempo para playback suave
-                long presentationTimeNs = bufferInfo.presentationTimeUs * 1000;
-                long elapsed = System.nanoTime() - startTime;
-                long sleepTime = (presentationTimeNs - elapsed) / 1000000;
-
-                if (sleepTime > 0 && sleepTime < 100) {
-                    try {
-                        Thread.sleep(sleepTime);
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
+            @Override
+            public void onError(String message) {
+                Log.e(TAG, "Rendition alternativa falló: " + message);
+            }
+        });
+    }
+
+    /**
+     * Rendition elegida por VideoDownloadManager si el video viene de cache, o "assets".
+     */
+    private String describeRendition() {
+        if (localFilePath == null || !new File(localFilePath).exists()) {
+            return "assets";
+        }
+        VideoRendition rendition = VideoDownloadManager.getInstance(context).getSelectedRendition(videoFileName);
+        return rendition != null ? rendition.getLabel() : "cache";
+    }
+
+    private void reportPlayback(String renditionLabel, MediaFormat format, String mime) {
+        String codecName = "?";
+        try {
+            codecName = decoder.getName();
+        } catch (Exception ignored) {}
+        playbackInfo = renditionLabel + " | " + mime + " " +
+            format.getInteger(MediaFormat.KEY_WIDTH) + "x" + format.getInteger(MediaFormat.KEY_HEIGHT) +
+            " | " + codecName;
+        Log.i(TAG, "🎞️ Reproduciendo " + videoFileName + ": " + playbackInfo);
+    }
+
+    /**
+     * Rendition y decoder en uso ("AVC 540x800 v2 | video/avc 540x800 | c2.qti.avc.decoder"),
+     * o null si el decoder aún no arrancó.
+     */
+    public String getPlaybackInfo() {
+        return playbackInfo;
+    }
+
+    /**
+     * Modo asíncrono: el callback se registra ANTES de configure().
+     * Se publica en {@code decoder} antes de start() para que codecCallback lo reconozca.
+     */
+    private void startCodec(MediaCodec codec, MediaFormat format) {
+        decoder = codec;
+        codec.setCallback(codecCallback, decoderHandler);
+        codec.configure(format, surface, null, 0);
+        codec.start();
+    }
+
+    private void releaseCodecQuietly() {
+        MediaCodec codec = decoder;
+        decoder = null;
+        if (codec != null) {
+            try { codec.release(); } catch (Exception ignored) {}
+        }
+    }
+
+    private void resetPresentationClock(MediaFormat format) {
+        resetLoopState();
+        loopDurationUs = 0;
+        lastRenderedPtsUs = -1;
+        skipUntilUs = -1;
+        frameDurationUs = DEFAULT_FRAME_DURATION_US;
+        if (format.containsKey(MediaFormat.KEY_FRAME_RATE)) {
+            try {
+                int fps = format.getInteger(MediaFormat.KEY_FRAME_RATE);
+                if (fps > 0) frameDurationUs = 1_000_000L / fps;
+            } catch (ClassCastException ignored) {
+                // Algunos muxers lo guardan como float
+            }
+        }
+    }
+
+    private void resetLoopState() {
+        clockBaseNs = -1;
+        loopOffsetUs = 0;
+        maxSampleTimeUs = 0;
+        samplesThisLoop = 0;
+        pendingHead = 0;
+        pendingCount = 0;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 🔔 CALLBACKS DEL CODEC (decoder thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    private final MediaCodec.Callback codecCallback = new MediaCodec.Callback() {
+        @Override
+        public void onInputBufferAvailable(MediaCodec codec, int index) {
+            if (!isRunning || codec != decoder) return;
+            try {
+                queueInput(codec, index);
+            } catch (Exception e) {
+                Log.e(TAG, "Error enviando input: " + e.getMessage());
+                scheduleRestart();
+            }
+        }
+
+        @Override
+        public void onOutputBufferAvailable(MediaCodec codec, int index, MediaCodec.BufferInfo info) {
+            if (!isRunning || codec != decoder) return;
+            if (info.size == 0 && (info.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
+                codec.releaseOutputBuffer(index, false);
+                return;
+            }
+            if (skipUntilUs >= 0) {
+                // Tras un resume desde suspensión: decodificar desde el keyframe sin mostrar
+                if (info.presentationTimeUs < skipUntilUs) {
+                    codec.releaseOutputBuffer(index, false);
+                    return;
                 }
+                skipUntilUs = -1;
+            }
+            boolean wasIdle = pendingCount == 0;
+            pushPending(index, info.presentationTimeUs);
+            // Si ya había frames en espera, su release ya está programado
+            if (wasIdle) releaseDueFrames();
+        }
+
+        @Override
+        public void onError(MediaCodec codec, MediaCodec.CodecException e) {
+            if (codec != decoder) return;
+            Log.e(TAG, "Error en decoder: " + e.getMessage());
+            scheduleRestart();
+        }
+
+        @Override
+        public void onOutputFormatChanged(MediaCodec codec, MediaFormat format) {
+            Log.d(TAG, "📹 Formato de salida: " + format);
+        }
+    };
+
+    /**
+     * Envía la siguiente muestra al decoder.
+     * ✅ SEAMLESS LOOP: al llegar al final se hace seekTo(0) SIN enviar EOS ni flush();
+     * los timestamps de la nueva vuelta se desplazan para que el reloj siga continuo.
+     */
+    private void queueInput(MediaCodec codec, int index) {
+        ByteBuffer inputBuffer = codec.getInputBuffer(index);
+        if (inputBuffer == null) return;
+
+        int sampleSize = extractor.readSampleData(inputBuffer, 0);
+        if (sampleSize < 0) {
+            if (samplesThisLoop == 0) {
+                // Track vacío: no hay nada que repetir
+                codec.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                return;
+            }
+            loopDurationUs = maxSampleTimeUs + frameDurationUs;
+            loopOffsetUs += loopDurationUs;
+            maxSampleTimeUs = 0;
+            samplesThisLoop = 0;
+            extractor.seekTo(0, MediaExtractor.SEEK_TO_CLOSEST_SYNC);
+            Log.d(TAG, "🔄 Seamless loop: seekTo(0), offset=" + loopOffsetUs / 1000 + "ms");
+
+            sampleSize = extractor.readSampleData(inputBuffer, 0);
+            if (sampleSize < 0) {
+                codec.queueInputBuffer(index, 0, 0, 0, MediaCodec.BUFFER_FLAG_END_OF_STREAM);
+                return;
+            }
+        }
+
+        long sampleTimeUs = extractor.getSampleTime();
+        if (sampleTimeUs > maxSampleTimeUs) maxSampleTimeUs = sampleTimeUs;
+        samplesThisLoop++;
+        codec.queueInputBuffer(index, 0, sampleSize, sampleTimeUs + loopOffsetUs, 0);
+        extractor.advance();
+    }
+
+    private void scheduleRestart() {
+        Handler handler = decoderHandler;
+        if (handler == null || !isRunning) return;
+        handler.removeCallbacks(restartSessionTask);
+        handler.postDelayed(restartSessionTask, 500);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 🎞️ RELEASE DE FRAMES (decoder thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Entrega al Surface los frames cuyo turno llegó, con timestamp alineado al vsync.
+     * Si el siguiente aún no toca, programa UN solo wakeup para ese momento.
+     */
+    private void releaseDueFrames() {
+        MediaCodec codec = decoder;
+        Handler handler = decoderHandler;
+        if (!isRunning || codec == null || handler == null) return;
+        handler.removeCallbacks(releaseDueFramesTask);
+
+        long now = System.nanoTime();
+        long periodNs = vsyncClock.getPeriodNs();
+        while (pendingCount > 0) {
+            int index = pendingIndex[pendingHead];
+            long ptsUs = pendingPtsUs[pendingHead];
+
+            // Primer frame de la sesión (o atraso grande): anclar el reloj a "ahora"
+            if (clockBaseNs < 0 || now - (clockBaseNs + ptsUs * 1000) > MAX_LATE_NS) {
+                clockBaseNs = now - ptsUs * 1000;
+            }
+            long targetNs = clockBaseNs + ptsUs * 1000;
+            long renderNs = vsyncClock.snap(targetNs);
 
-                // Liberar buffer y renderizar al Surface
-                decoder.releaseOutputBuffer(outputIndex, true);
+            long waitNs = renderNs - now - RELEASE_LEAD_VSYNCS * periodNs;
+            if (waitNs > 0) {
+                handler.postDelayed(releaseDueFramesTask, Math.max(1, waitNs / 1_000_000));
+                return;
+            }
 
-                // ✅ SEAMLESS LOOP: Cuando llega al final, seek al inicio
-                if ((bufferInfo.flags & MediaCodec.BUFFER_FLAG_END_OF_STREAM) != 0) {
-                    Log.d(TAG, "🔄 Seamless loop: seekTo(0) + flush()");
-                    extractor.seekTo(0, MediaExtractor.SEEK_TO_CLOSEST_SYNC);
-                    decoder.flush();
-                    inputDone = false;  // Reset para recibir nuevos datos
-                    startTime = System.nanoTime();  // Reset timing
+            popPending();
+            try {
+                if (now - targetNs > 2 * periodNs && hasReceivedFirstFrame) {
+                    // Llegó tarde: mostrarlo solo causaría judder
+                    codec.releaseOutputBuffer(index, false);
+                    framesDropped++;
+                } else {
+                    codec.releaseOutputBuffer(index, renderNs);
+                    lastRenderedPtsUs = ptsUs;
+                    framesRendered++;
                 }
+            } catch (IllegalStateException e) {
+                // Codec detenido/reiniciado mientras esperábamos
+                Log.w(TAG, "⚠️ releaseOutputBuffer falló: " + e.getMessage());
+                pendingCount = 0;
+                return;
+            }
+        }
+    }
+
+    private void pushPending(int index, long ptsUs) {
+        if (pendingCount == pendingIndex.length) {
+            int[] newIndex = new int[pendingCount * 2];
+            long[] newPts = new long[pendingCount * 2];
+            for (int i = 0; i < pendingCount; i++) {
+                int src = (pendingHead + i) % pendingCount;
+                newIndex[i] = pendingIndex[src];
+                newPts[i] = pendingPtsUs[src];
             }
+            pendingIndex = newIndex;
+            pendingPtsUs = newPts;
+            pendingHead = 0;
         }
+        int tail = (pendingHead + pendingCount) % pendingIndex.length;
+        pendingIndex[tail] = index;
+        pendingPtsUs[tail] = ptsUs;
+        pendingCount++;
+    }
+
+    private void popPending() {
+        pendingHead = (pendingHead + 1) % pendingIndex.length;
+        pendingCount--;
     }
 
     private void releaseDecoder() {
-        if (decoder != null) {
+        // Los índices pendientes mueren con el codec
+        pendingHead = 0;
+        pendingCount = 0;
+
+        MediaCodec codec = decoder;
+        decoder = null;
+        if (codec != null) {
             try {
-                decoder.stop();
-                decoder.release();
+                codec.stop();
+                codec.release();
             } catch (Exception ignored) {}
-            decoder = null;
         }
 
         if (extractor != null) {
@@ -397,6 +680,137 @@ public class MediaCodecVideoRenderer {
         }
     }
 
+    // ═══════════════════════════════════════════════════════════════
+    // 💤 SUSPEND / RESUME DE SESIÓN (decoder thread)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Deja el codec en estado Flushed (configurado, sin start): no hay callbacks
+     * ni trabajo hasta resumeSession(). Recuerda la posición del último frame mostrado.
+     */
+    private void suspendSession() {
+        Handler handler = decoderHandler;
+        if (handler != null) {
+            handler.removeCallbacks(releaseDueFramesTask);
+            handler.removeCallbacks(restartSessionTask);
+            handler.removeCallbacks(startSessionTask);
+        }
+        vsyncClock.stop();
+        pendingHead = 0;
+        pendingCount = 0;
+
+        // El reloj es continuo entre vueltas: volver a tiempo de media
+        long pts = Math.max(0, lastRenderedPtsUs);
+        resumePositionUs = loopDurationUs > 0 ? pts % loopDurationUs : pts;
+
+        MediaCodec codec = decoder;
+        if (codec == null) return;  // resume() hará arranque completo
+        try {
+            codec.flush();
+            Log.d(TAG, "💤 Decoder suspendido en " + resumePositionUs / 1000 + " ms");
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ flush() falló al suspender: " + e.getMessage());
+            releaseDecoder();
+        }
+    }
+
+    /**
+     * Retoma una sesión suspendida: seek al keyframe previo, start() y se descartan
+     * (sin mostrar) los frames anteriores a la posición guardada.
+     */
+    private void resumeSession() {
+        if (!isRunning) return;
+        MediaCodec codec = decoder;
+        if (codec == null || extractor == null) {
+            // Codec soltado por presión de memoria: arranque completo (la Surface sigue viva)
+            resumePath = VideoResumeStats.Path.RELEASE;
+            releaseDecoder();
+            startSession();
+            return;
+        }
+
+        vsyncClock.start();
+        resetLoopState();
+        lastRenderedPtsUs = resumePositionUs;
+
+        extractor.seekTo(resumePositionUs, MediaExtractor.SEEK_TO_PREVIOUS_SYNC);
+        long syncUs = extractor.getSampleTime();
+        skipUntilUs = (syncUs >= 0 && syncUs < resumePositionUs) ? resumePositionUs : -1;
+
+        try {
+            codec.start();
+            Log.d(TAG, "▶️💤 Sesión retomada en " + resumePositionUs / 1000 + " ms");
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ start() tras suspensión falló: " + e.getMessage());
+            resumePath = VideoResumeStats.Path.RELEASE;
+            releaseDecoder();
+            startSession();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // 📺 VSYNC
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Fase y período del vsync del display. Toma una muestra de Choreographer
+     * por segundo (no en cada vsync) en el decoder thread, que tiene Looper.
+     */
+    private static final class VsyncClock implements Choreographer.FrameCallback {
+        private static final long RESAMPLE_MS = 1000;
+        // El frame se entrega un poco antes del vsync objetivo para que alcance a latcharse
+        private static final int VSYNC_OFFSET_PERCENT = 80;
+
+        private final long periodNs;
+        private long lastVsyncNs = -1;
+        private Choreographer choreographer;
+        private boolean sampling = false;
+
+        VsyncClock(Context context) {
+            float refreshRate = 60f;
+            DisplayManager dm = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+            Display display = dm != null ? dm.getDisplay(Display.DEFAULT_DISPLAY) : null;
+            if (display != null && display.getRefreshRate() >= 10f) {
+                refreshRate = display.getRefreshRate();
+            }
+            periodNs = (long) (1_000_000_000L / refreshRate);
+        }
+
+        void start() {
+            // Choreographer es por-thread: tomar el del decoder thread actual
+            if (choreographer != null) choreographer.removeFrameCallback(this);
+            choreographer = Choreographer.getInstance();
+            sampling = true;
+            choreographer.postFrameCallback(this);
+        }
+
+        void stop() {
+            sampling = false;
+            if (choreographer != null) choreographer.removeFrameCallback(this);
+            choreographer = null;
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            lastVsyncNs = frameTimeNanos;
+            if (sampling) choreographer.postFrameCallbackDelayed(this, RESAMPLE_MS);
+        }
+
+        long getPeriodNs() {
+            return periodNs;
+        }
+
+        /**
+         * Vsync más cercano a targetNs, adelantado VSYNC_OFFSET_PERCENT del período.
+         */
+        long snap(long targetNs) {
+            if (lastVsyncNs < 0) return targetNs;
+            long n = Math.floorDiv(targetNs - lastVsyncNs + periodNs / 2, periodNs);
+            long vsyncNs = lastVsyncNs + n * periodNs;
+            return vsyncNs - periodNs * VSYNC_OFFSET_PERCENT / 100;
+        }
+    }
+
     // Flag para saber si hay frame disponible
     private volatile boolean frameAvailable = false;
     private final Object frameLock = new Object();
@@ -405,6 +819,36 @@ public class MediaCodecVideoRenderer {
     // Esto evita dibujar texturas vacías que causan congelamiento visual
     private volatile boolean hasReceivedFirstFrame = false;
 
+    private final SurfaceTexture.OnFrameAvailableListener frameListener = st -> {
+        synchronized (frameLock) {
+            frameAvailable = true;
+            // 🔧 FIX FREEZE: Marcar que ya tenemos al menos un frame
+            if (!hasReceivedFirstFrame) {
+                hasReceivedFirstFrame = true;
+                Log.d(TAG, "🎬 ¡Primer frame recibido! Video listo para mostrar");
+            }
+        }
+        if (resumeStartMs != 0) {
+            reportTimeToFirstFrame();
+        }
+    };
+
+    private void markResumeStart(VideoResumeStats.Path path) {
+        resumePath = path;
+        resumeStartMs = SystemClock.elapsedRealtime();
+    }
+
+    private void reportTimeToFirstFrame() {
+        long start = resumeStartMs;
+        VideoResumeStats.Path path = resumePath;
+        resumeStartMs = 0;
+        if (start == 0 || path == null) return;
+
+        long ttffMs = SystemClock.elapsedRealtime() - start;
+        VideoResumeStats.record(path, ttffMs);
+        Log.d(TAG, "⏱️ TTFF tras resume (" + path + "): " + ttffMs + " ms");
+    }
+
     public void draw() {
         if (!isInitialized || videoTextureId == -1 || surfaceTexture == null) return;
 
@@ -425,9 +869,9 @@ public class MediaCodecVideoRenderer {
                 }
             }
 
-            GLES20.glUseProgram(shaderProgram);
-            GLES20.glActiveTexture(GLES20.GL_TEXTURE0);
-            GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
+            GLStateManager.get().useProgram(shaderProgram);
+            GLStateManager.get().activeTexture(GLES20.GL_TEXTURE0);
+            GLStateManager.get().bindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
 
             GLES20.glUniformMatrix4fv(uMVPLoc, 1, false, mvpMatrix, 0);
             GLES20.glUniformMatrix4fv(uSTLoc, 1, false, stMatrix, 0);
@@ -437,7 +881,7 @@ public class MediaCodecVideoRenderer {
             GLES20.glEnableVertexAttribArray(aTexCoordLoc);
             GLES20.glVertexAttribPointer(aTexCoordLoc, 2, GLES20.GL_FLOAT, false, 0, texCoordBuffer);
 
-            GLES20.glDrawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
+            GLStateManager.get().drawArrays(GLES20.GL_TRIANGLE_STRIP, 0, 4);
 
             GLES20.glDisableVertexAttribArray(aPositionLoc);
             GLES20.glDisableVertexAttribArray(aTexCoordLoc);
@@ -458,25 +902,45 @@ public class MediaCodecVideoRenderer {
         }
 
         Log.d(TAG, "⏸️ PAUSANDO decodificación de video...");
-        isRunning = false;
 
-        // Esperar a que el thread termine limpiamente
-        if (decoderThread != null && decoderThread.isAlive()) {
-            decoderThread.interrupt();
-            try {
-                decoderThread.join(1000); // Máximo 1s (was 500ms)
-            } catch (InterruptedException ignored) {}
-            if (decoderThread.isAlive()) {
-                Log.w(TAG, "⚠️ Decoder thread still alive after pause join timeout");
-            }
+        // Liberar decoder (en su thread) pero mantener textura/surface
+        stopDecoder(1000);
+        Log.d(TAG, "⏸️ Video PAUSADO - recursos liberados");
+    }
+
+    /**
+     * ⏸️💤 SUSPEND - Pausa rápida para el próximo unlock
+     * El codec queda configurado pero detenido (flush, sin callbacks), el extractor
+     * abierto y Surface/SurfaceTexture/textura OES intactas: el último frame sigue
+     * visible y resume() retoma con un seek corto. Retiene ~40-60 MB más que
+     * releaseForPause(); el llamador decide según DeviceProfile y presión de memoria.
+     */
+    public void suspend() {
+        Handler handler = decoderHandler;
+        if (!isRunning || handler == null || isSuspended) {
+            if (!isSuspended) releaseForPause();  // Nada que suspender
+            return;
         }
-        decoderThread = null;  // 🔧 FIX: Always null out to prevent orphan on next startDecoder()
 
-        // Liberar decoder pero mantener textura/surface
-        releaseDecoder();
-        Log.d(TAG, "⏸️ Video PAUSADO - recursos liberados");
+        Log.d(TAG, "⏸️💤 SUSPENDIENDO decodificación de video...");
+        isRunning = false;  // Los callbacks pendientes se ignoran; flush() recupera sus buffers
+        isSuspended = true;
+        resumeStartMs = 0;
+        handler.post(suspendSessionTask);
+    }
+
+    /**
+     * 🧹 Bajo presión de memoria: soltar codec y extractor de una sesión suspendida.
+     * La Surface y el último frame se mantienen; resume() arrancará un codec nuevo.
+     */
+    public void trimSuspended() {
+        Handler handler = decoderHandler;
+        if (!isSuspended || handler == null) return;
+        handler.post(trimSuspendedTask);
     }
 
+    public boolean isSuspended() { return isSuspended; }
+
     /**
      * ⏸️🧹 RELEASE FOR PAUSE - Libera Surface, SurfaceTexture, decoder y textura OES
      * Mantiene shader program y vertex/texCoord buffers (son baratos ~1KB).
@@ -486,17 +950,9 @@ public class MediaCodecVideoRenderer {
      */
     public void releaseForPause() {
         Log.d(TAG, "⏸️🧹 releaseForPause: Liberando Surface+Texture+Decoder...");
-        isRunning = false;
-
-        // Detener thread de decodificación
-        if (decoderThread != null) {
-            decoderThread.interrupt();
-            try { decoderThread.join(500); } catch (InterruptedException ignored) {}
-            decoderThread = null;
-        }
 
-        // Liberar decoder y extractor
-        releaseDecoder();
+        // Detener thread de decodificación (libera decoder y extractor)
+        stopDecoder(500);
 
         // Liberar Surface y SurfaceTexture (los consumidores principales de memoria)
         if (surface != null) {
@@ -511,7 +967,7 @@ public class MediaCodecVideoRenderer {
 
         // Liberar textura OES de video
         if (videoTextureId != -1) {
-            GLES20.glDeleteTextures(1, new int[]{videoTextureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{videoTextureId}, 0);
             videoTextureId = -1;
         }
 
@@ -530,7 +986,13 @@ public class MediaCodecVideoRenderer {
      * @return true si la reinicialización fue exitosa
      */
     public boolean reinitializeAfterPause() {
+        if (isSuspended) {
+            // Surface y codec siguen vivos: no hay nada que recrear
+            resume();
+            return true;
+        }
         Log.d(TAG, "▶️🔄 reinitializeAfterPause: Recreando recursos de video...");
+        markResumeStart(VideoResumeStats.Path.RELEASE);
 
         // Si no hay shader, hacer initialize() completo
         if (shaderProgram == 0) {
@@ -544,21 +1006,13 @@ public class MediaCodecVideoRenderer {
             int[] tex = new int[1];
             GLES20.glGenTextures(1, tex, 0);
             videoTextureId = tex[0];
-            GLES20.glBindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
+            GLStateManager.get().bindTexture(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, videoTextureId);
             GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MIN_FILTER, GLES20.GL_LINEAR);
             GLES20.glTexParameteri(GLES11Ext.GL_TEXTURE_EXTERNAL_OES, GLES20.GL_TEXTURE_MAG_FILTER, GLES20.GL_LINEAR);
 
             // Recrear SurfaceTexture + Surface con listener de frame
             surfaceTexture = new SurfaceTexture(videoTextureId);
-            surfaceTexture.setOnFrameAvailableListener(st -> {
-                synchronized (frameLock) {
-                    frameAvailable = true;
-                    if (!hasReceivedFirstFrame) {
-                        hasReceivedFirstFrame = true;
-                        Log.d(TAG, "🎬 ¡Primer frame recibido! Video listo para mostrar (post-reinit)");
-                    }
-                }
-            });
+            surfaceTexture.setOnFrameAvailableListener(frameListener);
             surface = new Surface(surfaceTexture);
 
             // Reiniciar decoder
@@ -578,7 +1032,7 @@ public class MediaCodecVideoRenderer {
                 surfaceTexture = null;
             }
             if (videoTextureId != -1) {
-                GLES20.glDeleteTextures(1, new int[]{videoTextureId}, 0);
+                GLStateManager.get().deleteTextures(1, new int[]{videoTextureId}, 0);
                 videoTextureId = -1;
             }
             isInitialized = false;
@@ -600,6 +1054,18 @@ public class MediaCodecVideoRenderer {
             return;
         }
 
+        if (isSuspended) {
+            isSuspended = false;
+            Handler handler = decoderHandler;
+            if (handler != null && decoderThread != null && decoderThread.isAlive()) {
+                Log.d(TAG, "▶️💤 REANUDANDO desde suspensión...");
+                markResumeStart(VideoResumeStats.Path.SUSPEND);
+                isRunning = true;
+                handler.post(resumeSessionTask);
+                return;
+            }
+        }
+
         Log.d(TAG, "▶️ REANUDANDO decodificación de video...");
         startDecoder();
         Log.d(TAG, "▶️ Video REANUDADO");
@@ -608,18 +1074,9 @@ public class MediaCodecVideoRenderer {
     public void release() {
         Log.d(TAG, "🗑️ Liberando recursos MediaCodec");
         isInitialized = false;
-        isRunning = false;
 
-        // Detener thread
-        if (decoderThread != null) {
-            decoderThread.interrupt();
-            try {
-                decoderThread.join(1000);
-            } catch (InterruptedException ignored) {}
-            decoderThread = null;
-        }
-
-        releaseDecoder();
+        // Detener thread (libera decoder y extractor)
+        stopDecoder(1000);
 
         if (surface != null) {
             surface.release();
@@ -634,18 +1091,19 @@ public class MediaCodecVideoRenderer {
         }
 
         if (videoTextureId != -1) {
-            GLES20.glDeleteTextures(1, new int[]{videoTextureId}, 0);
+            GLStateManager.get().deleteTextures(1, new int[]{videoTextureId}, 0);
             videoTextureId = -1;
         }
 
         if (shaderProgram != 0) {
-            GLES20.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
     }
 
     public void setScreenSize(int w, int h) {
-        // No necesitamos hacer nada especial
+        // Tamaño real de la superficie: guía la elección de rendition en próximas descargas
+        VideoRenditionSelector.setSurfaceSize(w, h);
     }
 
     private int createProgram() {
@@ -661,7 +1119,7 @@ public class MediaCodecVideoRenderer {
         int[] status = new int[1];
         GLES20.glGetProgramiv(prog, GLES20.GL_LINK_STATUS, status, 0);
         if (status[0] == 0) {
-            GLES20.glDeleteProgram(prog);
+            GLStateManager.get().deleteProgram(prog);
             return 0;
         }
 
@@ -4,10 +4,11 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.opengl.GLES30;
-import android.opengl.GLUtils;
 import android.util.Log;
 
+import com.secret.blackholeglow.effects.DynamicResolutionController;
 import com.secret.blackholeglow.image.ImageDownloadManager;
+import com.secret.blackholeglow.systems.GLStateManager;
 
 import java.io.File;
 import java.io.IOException;
@@ -248,7 +249,7 @@ public class NightSkyRenderer {
         GLES30.glGetProgramiv(shaderProgram, GLES30.GL_LINK_STATUS, linkStatus, 0);
         if (linkStatus[0] == 0) {
             Log.e(TAG, "❌ Shader link error: " + GLES30.glGetProgramInfoLog(shaderProgram));
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
             return;
         }
@@ -316,12 +317,12 @@ public class NightSkyRenderer {
             GLES30.glGenTextures(1, textures, 0);
             moonTextureId = textures[0];
 
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, moonTextureId);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, moonTextureId);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MIN_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_MAG_FILTER, GLES30.GL_LINEAR);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_S, GLES30.GL_CLAMP_TO_EDGE);
             GLES30.glTexParameteri(GLES30.GL_TEXTURE_2D, GLES30.GL_TEXTURE_WRAP_T, GLES30.GL_CLAMP_TO_EDGE);
-            GLUtils.texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
+            GLStateManager.get().texImage2D(GLES30.GL_TEXTURE_2D, 0, bitmap, 0);
             bitmap.recycle();
             Log.d(TAG, "🌕 Moon texture loaded: " + moonTextureId);
         }
@@ -343,18 +344,20 @@ public class NightSkyRenderer {
     public void draw() {
         if (!initialized || shaderProgram == 0) return;
 
-        GLES30.glUseProgram(shaderProgram);
+        GLStateManager.get().useProgram(shaderProgram);
 
         // Set uniforms
         GLES30.glUniform1f(uTimeLoc, time);
-        GLES30.glUniform2f(uResolutionLoc, (float) screenWidth, (float) screenHeight);
+        // gl_FragCoord is in target pixels: scale with dynamic resolution
+        float renderScale = DynamicResolutionController.getActiveScale();
+        GLES30.glUniform2f(uResolutionLoc, screenWidth * renderScale, screenHeight * renderScale);
         GLES30.glUniform2f(uMoonPosLoc, moonPosX, moonPosY);
         GLES30.glUniform1f(uMoonRadiusLoc, moonRadius);
 
         // Bind moon texture to texture unit 0
         if (moonTextureId != 0) {
-            GLES30.glActiveTexture(GLES30.GL_TEXTURE0);
-            GLES30.glBindTexture(GLES30.GL_TEXTURE_2D, moonTextureId);
+            GLStateManager.get().activeTexture(GLES30.GL_TEXTURE0);
+            GLStateManager.get().bindTexture(GLES30.GL_TEXTURE_2D, moonTextureId);
             GLES30.glUniform1i(uMoonTextureLoc, 0);
         }
 
@@ -364,7 +367,7 @@ public class NightSkyRenderer {
         GLES30.glVertexAttribPointer(aPositionLoc, 2, GLES30.GL_FLOAT, false, 0, vertexBuffer);
 
         // Draw fullscreen quad
-        GLES30.glDrawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
+        GLStateManager.get().drawArrays(GLES30.GL_TRIANGLE_STRIP, 0, 4);
 
         // Cleanup
         GLES30.glDisableVertexAttribArray(aPositionLoc);
@@ -398,12 +401,12 @@ public class NightSkyRenderer {
 
     public void release() {
         if (shaderProgram != 0) {
-            GLES30.glDeleteProgram(shaderProgram);
+            GLStateManager.get().deleteProgram(shaderProgram);
             shaderProgram = 0;
         }
         if (moonTextureId != 0) {
             int[] textures = {moonTextureId};
-            GLES30.glDeleteTextures(1, textures, 0);
+            GLStateManager.get().deleteTextures(1, textures, 0);
             moonTextureId = 0;
         }
         initialized = false;
@@ -1,8 +1,9 @@
 package com.secret.blackholeglow.video;
 
-import com.secret.blackholeglow.download.ResourceInfo;
-
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,6 +20,13 @@ import java.util.Map;
  *      - tamaño en bytes
  *      - descripción
  *      - versión (incrementar si reemplazas el video)
+ *      - resolución, bitrate (kbps) y codec
+ *
+ * RENDITIONS:
+ *   Un video puede tener varias codificaciones (ej: 360p AVC, 720p HEVC).
+ *   Llamar addRendition() varias veces con el mismo nombre de archivo;
+ *   la PRIMERA es la default. VideoDownloadManager elige una por dispositivo
+ *   (VideoRenditionSelector) y la guarda en cache con el nombre lógico.
  *
  * ============================================================================
  */
@@ -27,151 +35,179 @@ public class VideoConfig {
     private static final String SUPABASE_VIDEOS_URL =
         "https://vzuwvsmlyigjtsearxym.supabase.co/storage/v1/object/public/wallpaper-videos/";
 
-    private static final Map<String, ResourceInfo> VIDEOS = new HashMap<>();
+    // Nombre lógico → renditions (la primera es la default)
+    private static final Map<String, List<VideoRendition>> VIDEOS = new HashMap<>();
+
+    private static void addRendition(String fileName, VideoRendition rendition) {
+        List<VideoRendition> list = VIDEOS.get(fileName);
+        if (list == null) {
+            list = new ArrayList<>(1);
+            VIDEOS.put(fileName, list);
+        }
+        list.add(rendition);
+    }
 
     static {
         // LabScene - Portal cósmico (v2: 360x360 optimizado, era 480x480)
-        VIDEOS.put("cielovolando.mp4", new ResourceInfo(
+        addRendition("cielovolando.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "cielovolando.mp4",
             9_903_257L,  // ~9.9 MB (360x360 @ 1.5Mbps)
             "Portal Cosmico",
-            2  // v2: Re-encoded 360p para reducir RAM
+            2,  // v2: Re-encoded 360p para reducir RAM
+            360, 360, 1500, VideoRendition.MIME_AVC
         ));
 
         // OceanFloorScene - Abyssia (v2: 360x360 optimizado, era 480x480)
-        VIDEOS.put("marZerg.mp4", new ResourceInfo(
+        addRendition("marZerg.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "marZerg.mp4",
             9_488_423L,  // ~9.5 MB (360x360 @ 1.5Mbps)
             "Abyssia",
-            2  // v2: Re-encoded 360p para reducir RAM
+            2,  // v2: Re-encoded 360p para reducir RAM
+            360, 360, 1500, VideoRendition.MIME_AVC
         ));
 
         // GokuScene - Kamehameha Final (v2: 540x800 optimizado, era 1080x1602)
-        VIDEOS.put("gokufinalkamehamehaHD.mp4", new ResourceInfo(
+        addRendition("gokufinalkamehamehaHD.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "gokufinalkamehamehaHD.mp4",
             11_372_197L,  // ~11.4 MB (540x800 @ 2.5Mbps, antes 55.8 MB!)
             "Goku Kamehameha Final HD",
-            2  // v2: Re-encoded 540p (-80% tamaño, -20MB RAM decoder)
+            2,  // v2: Re-encoded 540p (-80% tamaño, -20MB RAM decoder)
+            540, 800, 2500, VideoRendition.MIME_AVC
         ));
 
         // AdventureTimeScene - Hora de Aventura (v2: 360x534, era 480x712)
-        VIDEOS.put("escenaHDA.mp4", new ResourceInfo(
+        addRendition("escenaHDA.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "escenaHDA.mp4",
             11_262_319L,  // ~11.3 MB (360x534 @ 1.5Mbps)
             "Adventure Time Fogata",
-            2  // v2: Re-encoded 360p para reducir RAM
+            2,  // v2: Re-encoded 360p para reducir RAM
+            360, 534, 1500, VideoRendition.MIME_AVC
         ));
 
         // NeonCityScene - Synthwave (v2: 360x360, era 480x480)
-        VIDEOS.put("neoncityScene.mp4", new ResourceInfo(
+        addRendition("neoncityScene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "neoncityScene.mp4",
             11_447_391L,  // ~11.4 MB (360x360 @ 1.5Mbps)
             "Neon City Synthwave",
-            2  // v2: Re-encoded 360p para reducir RAM
+            2,  // v2: Re-encoded 360p para reducir RAM
+            360, 360, 1500, VideoRendition.MIME_AVC
         ));
 
         // WalkingDeadScene - Cementerio Zombie (v3: 540x956, era 1080x1912)
-        VIDEOS.put("walkingdeathscene.mp4", new ResourceInfo(
+        addRendition("walkingdeathscene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "walkingdeathscene.mp4",
             6_036_028L,  // ~6.0 MB (540x956 @ 2.5Mbps, antes 30.4 MB!)
             "The Walking Dead",
-            3  // v3: Re-encoded 540p (-80% tamaño, -20MB RAM decoder)
+            3,  // v3: Re-encoded 540p (-80% tamaño, -20MB RAM decoder)
+            540, 956, 2500, VideoRendition.MIME_AVC
         ));
 
         // SupermanScene - Man of Steel (v3: 540x800, era 720x1068)
-        VIDEOS.put("superman_scene.mp4", new ResourceInfo(
+        addRendition("superman_scene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "superman_scene_720p.mp4",
             7_548_912L,  // ~7.5 MB (540x800 @ 2.5Mbps, antes 12 MB)
             "Superman Man of Steel",
-            3  // v3: Re-encoded 540p para reducir RAM
+            3,  // v3: Re-encoded 540p para reducir RAM
+            540, 800, 2500, VideoRendition.MIME_AVC
         ));
 
         // AOTScene - Attack on Titan (v2: 540x800, era 720x1068)
-        VIDEOS.put("erenEscena01.mp4", new ResourceInfo(
+        addRendition("erenEscena01.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "erenEscena01_720p.mp4",
             3_202_424L,  // ~3.2 MB (540x800 @ 2.5Mbps)
             "Attack on Titan - Eren",
-            2  // v2: Re-encoded 540p para reducir RAM
+            2,  // v2: Re-encoded 540p para reducir RAM
+            540, 800, 2500, VideoRendition.MIME_AVC
         ));
 
         // SpiderScene - Black Spider (v2: 540x800, era 1080x1600)
-        VIDEOS.put("spiderscene.mp4", new ResourceInfo(
+        addRendition("spiderscene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "spiderscene.mp4",
             3_183_074L,  // ~3.2 MB (540x800 @ 2.5Mbps, antes 15.4 MB!)
             "Black Spider",
-            2  // v2: Re-encoded 540p (-79% tamaño, -20MB RAM decoder)
+            2,  // v2: Re-encoded 540p (-79% tamaño, -20MB RAM decoder)
+            540, 800, 2500, VideoRendition.MIME_AVC
         ));
 
         // LostAtlantisScene - Templo sumergido (v2: 540x800, era 1080x1600)
-        VIDEOS.put("lostatlanstis.mp4", new ResourceInfo(
+        addRendition("lostatlanstis.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "lostatlanstis.mp4",
             3_302_401L,  // ~3.1 MB (540x800 @ 2.5Mbps, antes 14.83 MB)
             "Lost Atlantis",
-            2  // v2: Re-encoded 540p para reducir RAM del decoder
+            2,  // v2: Re-encoded 540p para reducir RAM del decoder
+            540, 800, 2500, VideoRendition.MIME_AVC
         ));
 
         // TheHumanPredatorScene - Guerrero vs León
-        VIDEOS.put("guerrerovsleon.mp4", new ResourceInfo(
+        addRendition("guerrerovsleon.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "guerrerovsleon.mp4",
             15_672_871L,  // ~15.6 MB
             "The Human Predator",
-            1  // v1: Initial version
+            1,  // v1: Initial version
+            0, 0, 0, VideoRendition.MIME_AVC
         ));
 
         // FriezaDeathBeamScene - Fondo anime speed lines morado (v2: 540x960, 3s loop)
-        VIDEOS.put("frieza_deathbeam_bg.mp4", new ResourceInfo(
+        addRendition("frieza_deathbeam_bg.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "frieza_deathbeam_bg.mp4",
             440_255L,  // ~440 KB (540x960 @ 1.2Mbps)
             "Frieza Death Beam BG",
-            2  // v2: Purple version
+            2,  // v2: Purple version
+            540, 960, 1200, VideoRendition.MIME_AVC
         ));
 
         // ScorpionScene - Mortal Kombat Scorpion
-        VIDEOS.put("scorpion_scene.mp4", new ResourceInfo(
+        addRendition("scorpion_scene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "scorpion_scene.mp4",
             9_047_158L,  // ~8.6 MB
             "Scorpion MK",
-            1
+            1,
+            0, 0, 0, VideoRendition.MIME_AVC
         ));
 
         // TrenNocturnoScene - Pixel art night train
-        VIDEOS.put("tren_nocturno.mp4", new ResourceInfo(
+        addRendition("tren_nocturno.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "tren_nocturno.mp4",
             9_503_657L,  // ~9.1 MB
             "Tren Nocturno",
-            1
+            1,
+            0, 0, 0, VideoRendition.MIME_AVC
         ));
 
         // TheEyeScene - Ojo misterioso
-        VIDEOS.put("theeye_scene.mp4", new ResourceInfo(
+        addRendition("theeye_scene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "theeye_scene.mp4",
             9_412_534L,  // ~9.0 MB
             "The Eye",
-            1
+            1,
+            0, 0, 0, VideoRendition.MIME_AVC
         ));
 
         // GatitoDJScene - Gatito DJ bailando (v2: 540x960, sin audio)
-        VIDEOS.put("gatito_dance.mp4", new ResourceInfo(
+        addRendition("gatito_dance.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "gatito_dance.mp4",
             1_635_458L,  // ~1.6 MB (540x960 @ 2Mbps, sin audio)
             "Gatito DJ Dance",
-            2  // v2: Re-encoded 540p, -81% tamaño
+            2,  // v2: Re-encoded 540p, -81% tamaño
+            540, 960, 2000, VideoRendition.MIME_AVC
         ));
 
         // GatitoScene - Gatito animado
-        VIDEOS.put("gatito_scene_final.mp4", new ResourceInfo(
+        addRendition("gatito_scene_final.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "gatito_scene_final.mp4",
             9_513_973L,  // ~9.1 MB
             "Gatito",
-            1
+            1,
+            0, 0, 0, VideoRendition.MIME_AVC
         ));
 
         // PixelCityScene - Ciudad pixel art (v1: 540x960 optimizado, era 1080x1920)
-        VIDEOS.put("pixel_city_scene.mp4", new ResourceInfo(
+        addRendition("pixel_city_scene.mp4", new VideoRendition(
             SUPABASE_VIDEOS_URL + "pixel_city_scene.mp4",
             682_683L,  // ~683 KB (540x960 @ 900kbps, sin audio)
             "Pixel City",
-            1
+            1,
+            540, 960, 900, VideoRendition.MIME_AVC
         ));
     }
 
@@ -180,25 +216,44 @@ public class VideoConfig {
     // =========================================================================
 
     public static void registerDynamic(String fileName, String url, long sizeBytes) {
-        VIDEOS.put(fileName, new ResourceInfo(url, sizeBytes, "Dynamic: " + fileName, 1));
+        List<VideoRendition> list = new ArrayList<>(1);
+        list.add(new VideoRendition(url, sizeBytes, "Dynamic: " + fileName, 1, 0, 0, 0, null));
+        VIDEOS.put(fileName, list);
     }
 
     // =========================================================================
     // MÉTODOS PÚBLICOS
     // =========================================================================
 
+    /**
+     * Todas las renditions de un video (vacía si no es remoto).
+     */
+    public static List<VideoRendition> getRenditions(String fileName) {
+        List<VideoRendition> list = VIDEOS.get(fileName);
+        return list != null ? Collections.unmodifiableList(list) : Collections.<VideoRendition>emptyList();
+    }
+
+    /**
+     * Rendition default (la primera registrada), o null.
+     * VideoDownloadManager usa la elegida para el dispositivo en su lugar.
+     */
+    public static VideoRendition getDefaultRendition(String fileName) {
+        List<VideoRendition> list = VIDEOS.get(fileName);
+        return list != null && !list.isEmpty() ? list.get(0) : null;
+    }
+
     public static String getRemoteUrl(String fileName) {
-        ResourceInfo info = VIDEOS.get(fileName);
+        VideoRendition info = getDefaultRendition(fileName);
         return info != null ? info.url : null;
     }
 
     public static long getExpectedSize(String fileName) {
-        ResourceInfo info = VIDEOS.get(fileName);
+        VideoRendition info = getDefaultRendition(fileName);
         return info != null ? info.sizeBytes : 0;
     }
 
     public static String getDisplayName(String fileName) {
-        ResourceInfo info = VIDEOS.get(fileName);
+        VideoRendition info = getDefaultRendition(fileName);
         return info != null ? info.displayName : fileName;
     }
 
@@ -207,7 +262,7 @@ public class VideoConfig {
     }
 
     public static int getVideoVersion(String fileName) {
-        ResourceInfo info = VIDEOS.get(fileName);
+        VideoRendition info = getDefaultRendition(fileName);
         return info != null ? info.version : 1;
     }
 }
@@ -1,11 +1,18 @@
 package com.secret.blackholeglow.video;
 
 import android.content.Context;
+import android.util.Log;
 
+import com.secret.blackholeglow.core.DeviceProfile;
 import com.secret.blackholeglow.download.AbstractDownloadManager;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * ============================================================================
@@ -16,6 +23,13 @@ import java.util.List;
  * Extiende AbstractDownloadManager para reutilizar lógica común de descarga.
  * Solo implementa métodos específicos para videos (Config lookup).
  *
+ * RENDITIONS: si VideoConfig tiene varias para un video, se elige una por
+ * dispositivo (VideoRenditionSelector) y se recuerda en prefs para que el
+ * archivo en cache y su versión/tamaño esperados no cambien entre sesiones.
+ * Si el servidor rechaza la elegida (4xx) o el decoder no puede con ella, se
+ * pasa a la siguiente mejor solo por esta sesión: un fallo de red no cambia
+ * de rendition, y la siguiente sesión vuelve a intentar la elegida.
+ *
  * USO:
  *   VideoDownloadManager mgr = VideoDownloadManager.getInstance(context);
  *   if (mgr.isVideoAvailable("cielovolando.mp4")) {
@@ -31,11 +45,18 @@ public class VideoDownloadManager extends AbstractDownloadManager {
     private static final String TAG = "VideoDownload";
     private static final String VIDEO_DIR = "wallpaper_videos";
     private static final String PREFS_NAME = "resource_versions";
+    private static final String RENDITION_PREFIX = "rendition_";
+    // El archivo en cache es de una rendition de fallback: se descarta al abrir otra sesión
+    private static final String FALLBACK_PREFIX = "fallback_rendition_";
 
     // Singleton con double-checked locking thread-safe
     private static volatile VideoDownloadManager instance;
     private static final Object LOCK = new Object();
 
+    // Rendition elegida y las que fallaron en esta sesión, por nombre lógico
+    private final Map<String, VideoRendition> selectedRenditions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> failedRenditions = new ConcurrentHashMap<>();
+
     // =========================================================================
     // SINGLETON
     // =========================================================================
@@ -76,17 +97,20 @@ public class VideoDownloadManager extends AbstractDownloadManager {
 
     @Override
     protected String getRemoteUrl(String fileName) {
-        return VideoConfig.getRemoteUrl(fileName);
+        VideoRendition rendition = getSelectedRendition(fileName);
+        return rendition != null ? rendition.url : null;
     }
 
     @Override
     protected long getExpectedSize(String fileName) {
-        return VideoConfig.getExpectedSize(fileName);
+        VideoRendition rendition = getSelectedRendition(fileName);
+        return rendition != null ? rendition.sizeBytes : 0;
     }
 
     @Override
     protected int getResourceVersion(String fileName) {
-        return VideoConfig.getVideoVersion(fileName);
+        VideoRendition rendition = getSelectedRendition(fileName);
+        return rendition != null ? rendition.version : 1;
     }
 
     @Override
@@ -108,14 +132,37 @@ public class VideoDownloadManager extends AbstractDownloadManager {
         return getResourcePath(fileName);
     }
 
-    /** Descarga un video en background. */
+    /** Descarga un video en background (con fallback a otra rendition si el servidor la rechaza). */
     public void downloadVideo(String fileName, DownloadCallback callback) {
-        downloadResource(fileName, callback);
+        downloadResource(fileName, new DownloadCallback() {
+            @Override
+            public void onProgress(int percent, long downloadedBytes, long totalBytes) {
+                if (callback != null) callback.onProgress(percent, downloadedBytes, totalBytes);
+            }
+
+            @Override
+            public void onComplete(String filePath) {
+                if (callback != null) callback.onComplete(filePath);
+            }
+
+            @Override
+            public void onError(String message) {
+                if (wasRejectedByServer(fileName) && fallbackToNextRendition(fileName)) {
+                    downloadVideo(fileName, callback);
+                } else if (callback != null) {
+                    callback.onError(message);
+                }
+            }
+        });
     }
 
-    /** Descarga un video de forma síncrona. */
+    /** Descarga un video de forma síncrona (con fallback a otra rendition si el servidor la rechaza). */
     public boolean downloadVideoSync(String fileName, SyncProgressCallback callback) {
-        return downloadResourceSync(fileName, callback);
+        boolean ok = downloadResourceSync(fileName, callback);
+        while (!ok && wasRejectedByServer(fileName) && fallbackToNextRendition(fileName)) {
+            ok = downloadResourceSync(fileName, callback);
+        }
+        return ok;
     }
 
     /** Obtiene el directorio de videos. */
@@ -132,4 +179,113 @@ public class VideoDownloadManager extends AbstractDownloadManager {
     public int getCachedVideoCount() {
         return getCachedResourceCount();
     }
+
+    // =========================================================================
+    // RENDITIONS
+    // =========================================================================
+
+    /**
+     * Rendition elegida para este dispositivo (null si el video no es remoto).
+     * La elección se persiste: el mismo archivo en cache se sigue usando
+     * aunque cambie el tamaño de superficie reportado.
+     */
+    public VideoRendition getSelectedRendition(String fileName) {
+        VideoRendition cached = selectedRenditions.get(fileName);
+        if (cached != null) return cached;
+
+        List<VideoRendition> renditions = VideoConfig.getRenditions(fileName);
+        if (renditions.isEmpty()) return null;
+        if (renditions.size() == 1) {
+            // Caso común: nada que elegir ni persistir (sin cache: registerDynamic puede reemplazarla)
+            return renditions.get(0);
+        }
+
+        synchronized (selectedRenditions) {
+            cached = selectedRenditions.get(fileName);
+            if (cached != null) return cached;
+
+            if (versionPrefs.getBoolean(FALLBACK_PREFIX + fileName, false)) {
+                // Sesión nueva: el fallback de la anterior expira, se reintenta la elegida
+                Log.d(TAG, "Fallback de rendition expirado para " + fileName);
+                deleteResource(fileName);
+                new File(resourceDir, fileName + PARTIAL_SUFFIX).delete();
+                versionPrefs.edit().remove(FALLBACK_PREFIX + fileName).apply();
+            }
+
+            String stored = versionPrefs.getString(RENDITION_PREFIX + fileName, null);
+            VideoRendition choice = findByLabel(renditions, stored);
+            if (choice == null) {
+                if (stored != null) {
+                    // La rendition guardada ya no existe: el archivo en cache es de otra codificación
+                    Log.w(TAG, "Rendition " + stored + " ya no existe para " + fileName);
+                    deleteResource(fileName);
+                }
+                choice = VideoRenditionSelector.select(renditions,
+                        DeviceProfile.get().getMemoryTier(),
+                        VideoRenditionSelector.getSurfaceShortSide(context));
+                versionPrefs.edit().putString(RENDITION_PREFIX + fileName, choice.getLabel()).apply();
+            }
+            selectedRenditions.put(fileName, choice);
+            Log.d(TAG, "🎞️ " + fileName + " → " + choice.getLabel());
+            return choice;
+        }
+    }
+
+    /**
+     * El decoder no pudo abrir/decodificar el archivo en cache (formato o codec no
+     * soportado): la rendition actual no sirve en este dispositivo.
+     * @return true si se eligió otra rendition (el archivo en cache se borró)
+     */
+    public boolean onDecodeFailure(String fileName) {
+        Log.w(TAG, "⚠️ Decoder falló con " + fileName);
+        return fallbackToNextRendition(fileName);
+    }
+
+    /**
+     * Marca la rendition actual como fallida y elige la mejor de las restantes.
+     * Solo para fallos permanentes (4xx, formato); la elegida en prefs no cambia.
+     * @return true si hay otra rendition para intentar
+     */
+    private boolean fallbackToNextRendition(String fileName) {
+        List<VideoRendition> renditions = VideoConfig.getRenditions(fileName);
+        if (renditions.size() <= 1) return false;
+
+        synchronized (selectedRenditions) {
+            VideoRendition current = getSelectedRendition(fileName);
+            Set<String> failed = failedRenditions.get(fileName);
+            if (failed == null) {
+                failed = new HashSet<>();
+                failedRenditions.put(fileName, failed);
+            }
+            if (current != null) failed.add(current.getLabel());
+
+            List<VideoRendition> remaining = new ArrayList<>(renditions.size());
+            for (VideoRendition r : renditions) {
+                if (!failed.contains(r.getLabel())) remaining.add(r);
+            }
+            if (remaining.isEmpty()) return false;
+
+            VideoRendition next = VideoRenditionSelector.select(remaining,
+                    DeviceProfile.get().getMemoryTier(),
+                    VideoRenditionSelector.getSurfaceShortSide(context));
+            Log.w(TAG, "⚠️ Descarga de " + (current != null ? current.getLabel() : "?") +
+                    " falló, probando " + next.getLabel());
+
+            // El parcial pertenece a la rendition anterior
+            deleteResource(fileName);
+            new File(resourceDir, fileName + PARTIAL_SUFFIX).delete();
+
+            selectedRenditions.put(fileName, next);
+            versionPrefs.edit().putBoolean(FALLBACK_PREFIX + fileName, true).apply();
+            return true;
+        }
+    }
+
+    private static VideoRendition findByLabel(List<VideoRendition> renditions, String label) {
+        if (label == null) return null;
+        for (VideoRendition r : renditions) {
+            if (r.getLabel().equals(label)) return r;
+        }
+        return null;
+    }
 }
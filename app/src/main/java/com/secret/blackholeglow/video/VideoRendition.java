@@ -0,0 +1,69 @@
+package com.secret.blackholeglow.video;
+
+import com.secret.blackholeglow.download.ResourceInfo;
+
+/**
+ * ============================================================================
+ *                           VideoRendition
+ *        Una codificación concreta de un video (resolución/bitrate/codec)
+ * ============================================================================
+ *
+ * Un mismo video lógico (ej: "gokufinalkamehamehaHD.mp4") puede tener varias
+ * renditions en Supabase. VideoDownloadManager elige una por dispositivo y la
+ * guarda en cache con el nombre lógico, así el resto de la app no cambia.
+ *
+ * width/height = 0 → resolución desconocida (ej: entradas dinámicas).
+ *
+ * ============================================================================
+ */
+public class VideoRendition extends ResourceInfo {
+
+    public static final String MIME_AVC = "video/avc";
+    public static final String MIME_HEVC = "video/hevc";
+
+    public final int width;
+    public final int height;
+    public final int bitrateKbps;
+    public final String mime;
+
+    /**
+     * @param width       Ancho en px (0 si se desconoce)
+     * @param height      Alto en px (0 si se desconoce)
+     * @param bitrateKbps Bitrate de video en kbps (0 si se desconoce)
+     * @param mime        MIME del codec (MIME_AVC, MIME_HEVC)
+     */
+    public VideoRendition(String url, long sizeBytes, String displayName, int version,
+                          int width, int height, int bitrateKbps, String mime) {
+        super(url, sizeBytes, displayName, version);
+        this.width = width;
+        this.height = height;
+        this.bitrateKbps = bitrateKbps;
+        this.mime = mime;
+    }
+
+    /** Lado corto en px (0 si se desconoce) */
+    public int getShortSide() {
+        return Math.min(width, height);
+    }
+
+    public boolean hasKnownSize() {
+        return width > 0 && height > 0;
+    }
+
+    /**
+     * Identificador estable (se persiste para recordar la elección).
+     * Ej: "AVC 540x800 v2"
+     */
+    public String getLabel() {
+        String codec = MIME_HEVC.equals(mime) ? "HEVC" : "AVC";
+        return codec + " " + width + "x" + height + " v" + version;
+    }
+
+    @Override
+    public String toString() {
+        return "VideoRendition{" + getLabel() +
+                ", " + bitrateKbps + "kbps" +
+                ", size=" + (sizeBytes / 1024) + "KB" +
+                '}';
+    }
+}
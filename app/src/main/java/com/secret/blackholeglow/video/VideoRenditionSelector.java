@@ -0,0 +1,176 @@
+package com.secret.blackholeglow.video;
+
+import android.content.Context;
+import android.hardware.display.DisplayManager;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.Log;
+import android.view.Display;
+
+import com.secret.blackholeglow.TextureManager.MemoryTier;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ============================================================================
+ *                       VideoRenditionSelector
+ *       Elige la rendition de video adecuada para este dispositivo
+ * ============================================================================
+ *
+ * CRITERIOS (en orden):
+ *   1. Decodificable: MediaCodecList tiene un decoder para el MIME que
+ *      soporta la resolución. Codecs distintos de AVC solo con decoder
+ *      por hardware (HEVC por software gasta más batería de la que ahorra).
+ *   2. Lado corto objetivo = min(lado corto de la superficie, tope del tier):
+ *      LOW 540 · MEDIUM 720 · HIGH 1080. Decodificar más píxeles de los que
+ *      se muestran solo gasta batería y ancho de banda de textura.
+ *   3. La más chica que cubra el objetivo; si ninguna lo cubre, la más grande.
+ *      Empate de resolución → menor tamaño de descarga (típicamente HEVC).
+ *
+ * Si ninguna pasa el filtro de codec se usa la primera (la default de siempre).
+ *
+ * ============================================================================
+ */
+public final class VideoRenditionSelector {
+
+    private static final String TAG = "VideoRendition";
+
+    private static final int MAX_SHORT_SIDE_LOW = 540;
+    private static final int MAX_SHORT_SIDE_MEDIUM = 720;
+    private static final int MAX_SHORT_SIDE_HIGH = 1080;
+
+    // Resultado de isDecodable() por "mime WxH" (MediaCodecList es caro de recorrer)
+    private static final Map<String, Boolean> decodableCache = new HashMap<>();
+    private static MediaCodecInfo[] decoderInfos;
+
+    // Tamaño real de la superficie del wallpaper (lo reporta el renderer)
+    private static volatile int surfaceShortSide = 0;
+
+    private VideoRenditionSelector() {}
+
+    /**
+     * Registra el tamaño real de la superficie (MediaCodecVideoRenderer.setScreenSize).
+     */
+    public static void setSurfaceSize(int width, int height) {
+        int shortSide = Math.min(width, height);
+        if (shortSide > 0) surfaceShortSide = shortSide;
+    }
+
+    /**
+     * Lado corto de la superficie: el reportado por el renderer, o el del display.
+     */
+    public static int getSurfaceShortSide(Context context) {
+        int reported = surfaceShortSide;
+        if (reported > 0) return reported;
+
+        DisplayManager dm = (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+        Display display = dm != null ? dm.getDisplay(Display.DEFAULT_DISPLAY) : null;
+        if (display == null) return 0;
+        DisplayMetrics metrics = new DisplayMetrics();
+        display.getRealMetrics(metrics);
+        return Math.min(metrics.widthPixels, metrics.heightPixels);
+    }
+
+    /**
+     * Elige una rendition de la lista (no vacía).
+     */
+    public static VideoRendition select(List<VideoRendition> renditions, MemoryTier tier,
+                                        int surfaceShort) {
+        if (renditions.size() == 1) return renditions.get(0);
+
+        int cap = maxShortSideFor(tier);
+        int target = surfaceShort > 0 ? Math.min(surfaceShort, cap) : cap;
+
+        VideoRendition bestCovering = null;
+        VideoRendition bestBelow = null;
+        for (VideoRendition r : renditions) {
+            if (!isDecodable(r)) continue;
+            int side = r.getShortSide();
+            if (side >= target) {
+                if (bestCovering == null || side < bestCovering.getShortSide()
+                        || (side == bestCovering.getShortSide() && r.sizeBytes < bestCovering.sizeBytes)) {
+                    bestCovering = r;
+                }
+            } else {
+                if (bestBelow == null || side > bestBelow.getShortSide()
+                        || (side == bestBelow.getShortSide() && r.sizeBytes < bestBelow.sizeBytes)) {
+                    bestBelow = r;
+                }
+            }
+        }
+
+        VideoRendition choice = bestCovering != null ? bestCovering
+                : bestBelow != null ? bestBelow
+                : renditions.get(0);
+        Log.d(TAG, "🎞️ Elegida " + choice.getLabel() + " (tier " + tier +
+                ", objetivo " + target + "px, " + renditions.size() + " opciones)");
+        return choice;
+    }
+
+    private static int maxShortSideFor(MemoryTier tier) {
+        switch (tier) {
+            case LOW:
+                return MAX_SHORT_SIDE_LOW;
+            case HIGH:
+                return MAX_SHORT_SIDE_HIGH;
+            default:
+                return MAX_SHORT_SIDE_MEDIUM;
+        }
+    }
+
+    /**
+     * ¿Hay un decoder para el MIME que soporte la resolución?
+     */
+    static synchronized boolean isDecodable(VideoRendition r) {
+        if (r.mime == null) return true;  // Desconocido: que decida el renderer
+        String key = r.mime + " " + r.width + "x" + r.height;
+        Boolean cached = decodableCache.get(key);
+        if (cached != null) return cached;
+
+        boolean requireHardware = !VideoRendition.MIME_AVC.equals(r.mime);
+        boolean result = false;
+        try {
+            if (decoderInfos == null) {
+                decoderInfos = new MediaCodecList(MediaCodecList.REGULAR_CODECS).getCodecInfos();
+            }
+            for (MediaCodecInfo info : decoderInfos) {
+                if (info.isEncoder()) continue;
+                if (requireHardware && !isHardware(info)) continue;
+                if (supports(info, r)) {
+                    result = true;
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "⚠️ No se pudo consultar MediaCodecList: " + e.getMessage());
+            result = !requireHardware;
+        }
+
+        decodableCache.put(key, result);
+        return result;
+    }
+
+    private static boolean supports(MediaCodecInfo info, VideoRendition r) {
+        for (String type : info.getSupportedTypes()) {
+            if (!type.equalsIgnoreCase(r.mime)) continue;
+            if (!r.hasKnownSize()) return true;
+            MediaCodecInfo.VideoCapabilities caps =
+                    info.getCapabilitiesForType(type).getVideoCapabilities();
+            return caps != null && (caps.isSizeSupported(r.width, r.height)
+                    || caps.isSizeSupported(r.height, r.width));
+        }
+        return false;
+    }
+
+    private static boolean isHardware(MediaCodecInfo info) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.Q) {
+            return info.isHardwareAccelerated();
+        }
+        String name = info.getName();
+        return !name.startsWith("OMX.google.") && !name.startsWith("c2.android.");
+    }
+}
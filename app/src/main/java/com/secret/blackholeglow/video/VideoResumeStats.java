@@ -0,0 +1,53 @@
+package com.secret.blackholeglow.video;
+
+/**
+ * VideoResumeStats - Tiempo hasta el primer frame (TTFF) al reanudar un video
+ *
+ * MediaCodecVideoRenderer registra cada resume según el camino usado:
+ * - SUSPEND: codec suspendido (flush) → seek corto + start()
+ * - RELEASE: todo liberado en la pausa → textura, Surface y codec nuevos
+ *
+ * Lo consume DiagnosticData (mismo proceso que el wallpaper service).
+ */
+public final class VideoResumeStats {
+
+    public enum Path {
+        SUSPEND,
+        RELEASE
+    }
+
+    private static final long[] counts = new long[Path.values().length];
+    private static final long[] totalMs = new long[Path.values().length];
+    private static final long[] lastMs = new long[Path.values().length];
+
+    private VideoResumeStats() {}
+
+    public static synchronized void record(Path path, long ttffMs) {
+        int i = path.ordinal();
+        counts[i]++;
+        totalMs[i] += ttffMs;
+        lastMs[i] = ttffMs;
+    }
+
+    public static synchronized long getCount(Path path) {
+        return counts[path.ordinal()];
+    }
+
+    public static synchronized long getLastMs(Path path) {
+        return lastMs[path.ordinal()];
+    }
+
+    public static synchronized long getAverageMs(Path path) {
+        int i = path.ordinal();
+        return counts[i] > 0 ? totalMs[i] / counts[i] : 0;
+    }
+
+    /** Para testing */
+    public static synchronized void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+            totalMs[i] = 0;
+            lastMs[i] = 0;
+        }
+    }
+}
@@ -0,0 +1,293 @@
+package com.secret.blackholeglow.download;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * ChunkedDownloader contra un servidor HTTP local con soporte de Range,
+ * latencia por petición, ancho de banda limitado por conexión y fallos
+ * inyectados.
+ */
+public class ChunkedDownloaderTest {
+
+    private static final int TOTAL_BYTES = 9 * 1024 * 1024;   // > MIN_CHUNKED_BYTES → 4 partes
+    private static final int PART_BYTES = TOTAL_BYTES / 4;
+    private static final long LATENCY_MS = 40;
+    private static final int THROTTLE_SLICE_BYTES = 32 * 1024;
+
+    private static byte[] content;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String url;
+    private File dir;
+
+    // Configuración del servidor por test
+    private volatile boolean rangeSupported = true;
+    private volatile boolean sendContentRange = true;
+    private volatile long truncateRangeStart = -1;   // Primer pedido de esta parte se corta
+    private volatile int truncateAfterBytes = 0;
+    private volatile long bytesPerSecondPerConnection = 0;   // 0 = sin límite
+    private final List<long[]> requestedRanges = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        if (content == null) {
+            content = new byte[TOTAL_BYTES];
+            new Random(42).nextBytes(content);
+        }
+        dir = Files.createTempDirectory("chunked").toFile();
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/file.bin", this::serve);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/file.bin";
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void parallelRangesProduceByteIdenticalFile() throws IOException {
+        File dest = new File(dir, "out.bin");
+        long[] lastProgress = {0, 0};
+
+        boolean chunked = ChunkedDownloader.download(url, dest, (done, total) -> {
+            lastProgress[0] = done;
+            lastProgress[1] = total;
+        }, "test");
+
+        assertTrue(chunked);
+        assertArrayEquals(content, Files.readAllBytes(dest.toPath()));
+        assertEquals(TOTAL_BYTES, lastProgress[0]);
+        assertEquals(TOTAL_BYTES, lastProgress[1]);
+        // Sondeo + una petición por parte
+        assertEquals(5, requestCount());
+        for (int i = 0; i < 4; i++) {
+            assertEquals(1, requestsStartingAt((long) i * PART_BYTES));
+        }
+    }
+
+    /**
+     * Con el ancho de banda limitado por conexión (CDN que reparte por flujo)
+     * las 4 partes en paralelo deben bajar el archivo bastante más rápido
+     * que un solo flujo. Ideal 4x; se exige al menos 1.6x.
+     */
+    @Test
+    public void parallelRangesBeatSingleStreamUnderPerConnectionThrottle() throws IOException {
+        bytesPerSecondPerConnection = 6L * 1024 * 1024;   // ~1.5 s para el archivo completo
+
+        File single = new File(dir, "single.bin");
+        long start = System.nanoTime();
+        downloadSingleStream(single);
+        long singleNanos = System.nanoTime() - start;
+
+        File chunked = new File(dir, "chunked.bin");
+        start = System.nanoTime();
+        assertTrue(ChunkedDownloader.download(url, chunked, null, "test"));
+        long chunkedNanos = System.nanoTime() - start;
+
+        assertArrayEquals(content, Files.readAllBytes(single.toPath()));
+        assertArrayEquals(content, Files.readAllBytes(chunked.toPath()));
+        double speedup = (double) singleNanos / chunkedNanos;
+        assertTrue(String.format("speedup %.2fx (un flujo %d ms, por partes %d ms)",
+                        speedup, singleNanos / 1_000_000, chunkedNanos / 1_000_000),
+                speedup >= 1.6);
+    }
+
+    @Test
+    public void brokenPartRetriesAloneFromLastWrittenByte() throws IOException {
+        truncateRangeStart = PART_BYTES;          // Segunda parte
+        truncateAfterBytes = 100_000;
+        File dest = new File(dir, "out.bin");
+
+        assertTrue(ChunkedDownloader.download(url, dest, null, "test"));
+
+        assertArrayEquals(content, Files.readAllBytes(dest.toPath()));
+        // La parte rota se pidió de nuevo desde donde quedó, no desde su inicio
+        assertEquals(1, requestsStartingAt(PART_BYTES));
+        assertEquals(1, requestsStartingAt(PART_BYTES + truncateAfterBytes));
+        // Las demás partes no se repitieron
+        assertEquals(1, requestsStartingAt(2L * PART_BYTES));
+        assertEquals(1, requestsStartingAt(3L * PART_BYTES));
+        assertEquals(6, requestCount());
+    }
+
+    @Test
+    public void serverWithoutRangeFallsBackToSingleStream() throws IOException {
+        rangeSupported = false;
+        File dest = new File(dir, "out.bin");
+
+        assertFalse(ChunkedDownloader.download(url, dest, null, "test"));
+
+        assertFalse(dest.exists());
+        assertEquals(1, requestCount());          // Solo el sondeo
+    }
+
+    @Test
+    public void partialResponseWithoutContentRangeFallsBackToSingleStream() throws IOException {
+        sendContentRange = false;
+        File dest = new File(dir, "out.bin");
+
+        assertFalse(ChunkedDownloader.download(url, dest, null, "test"));
+
+        assertFalse(dest.exists());
+        assertEquals(1, requestCount());
+    }
+
+    // =========================================================================
+    // SERVIDOR
+    // =========================================================================
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            Thread.sleep(LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        long start = 0;
+        long end = TOTAL_BYTES - 1;
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        if (range != null && range.startsWith("bytes=")) {
+            String[] bounds = range.substring("bytes=".length()).split("-");
+            start = Long.parseLong(bounds[0]);
+            if (bounds.length > 1 && !bounds[1].isEmpty()) {
+                end = Math.min(end, Long.parseLong(bounds[1]));
+            }
+        }
+
+        boolean truncate;
+        synchronized (requestedRanges) {
+            truncate = start == truncateRangeStart && requestsStartingAt(start) == 0;
+            requestedRanges.add(new long[]{start, end});
+        }
+
+        OutputStream body = null;
+        try {
+            if (!rangeSupported) {
+                exchange.sendResponseHeaders(200, TOTAL_BYTES);
+                body = exchange.getResponseBody();
+                body.write(content);
+                return;
+            }
+
+            int length = (int) (end - start + 1);
+            exchange.getResponseHeaders().set("Accept-Ranges", "bytes");
+            if (sendContentRange) {
+                exchange.getResponseHeaders().set("Content-Range",
+                        "bytes " + start + "-" + end + "/" + TOTAL_BYTES);
+            }
+            exchange.sendResponseHeaders(206, length);
+            body = exchange.getResponseBody();
+            if (truncate) {
+                // Conexión cortada a mitad del rango
+                body.write(content, (int) start, truncateAfterBytes);
+                body.flush();
+                return;
+            }
+            writeThrottled(body, (int) start, length);
+        } catch (IOException e) {
+            // El cliente cortó (sondeo sin Range o parte cancelada)
+        } finally {
+            try {
+                exchange.close();
+            } catch (RuntimeException ignored) {
+                // Cierre de un rango truncado
+            }
+        }
+    }
+
+    /** Escribe a bytesPerSecondPerConnection como máximo (sin límite si es 0) */
+    private void writeThrottled(OutputStream body, int offset, int length) throws IOException {
+        long rate = bytesPerSecondPerConnection;
+        if (rate <= 0) {
+            body.write(content, offset, length);
+            return;
+        }
+        long start = System.nanoTime();
+        int sent = 0;
+        while (sent < length) {
+            int n = Math.min(THROTTLE_SLICE_BYTES, length - sent);
+            body.write(content, offset + sent, n);
+            body.flush();
+            sent += n;
+            long aheadNanos = sent * 1_000_000_000L / rate - (System.nanoTime() - start);
+            if (aheadNanos > 0) {
+                try {
+                    Thread.sleep(aheadNanos / 1_000_000, (int) (aheadNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrumpido", e);
+                }
+            }
+        }
+    }
+
+    /** Referencia: un solo GET sin Range, como el camino de un flujo del manager */
+    private void downloadSingleStream(File dest) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try (InputStream in = connection.getInputStream();
+             FileOutputStream out = new FileOutputStream(dest)) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private int requestCount() {
+        synchronized (requestedRanges) {
+            return requestedRanges.size();
+        }
+    }
+
+    private int requestsStartingAt(long start) {
+        synchronized (requestedRanges) {
+            int count = 0;
+            for (long[] r : requestedRanges) {
+                // El sondeo (0-0) no cuenta como pedido de la primera parte
+                if (r[0] == start && !(r[0] == 0 && r[1] == 0)) count++;
+            }
+            return count;
+        }
+    }
+}
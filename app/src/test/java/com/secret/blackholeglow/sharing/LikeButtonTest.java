@@ -0,0 +1,79 @@
+package com.secret.blackholeglow.sharing;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * El draw() por frame de LikeButton (animación + llamadas GL) no debe alocar:
+ * se mide con ThreadMXBean.getThreadAllocatedBytes sobre muchos frames.
+ * GLES30 es el stub de android.jar (isReturnDefaultValues): las llamadas GL
+ * no hacen nada, pero sí se ejecuta todo el código Java del frame.
+ */
+public class LikeButtonTest {
+
+    private static final int WARMUP_FRAMES = 20_000;
+    private static final int MEASURED_FRAMES = 10_000;
+
+    private final float[] mvp = new float[16];
+    private com.sun.management.ThreadMXBean threads;
+
+    @Before
+    public void setUp() {
+        threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assertTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+        mvp[0] = mvp[5] = mvp[10] = mvp[15] = 1f;
+    }
+
+    @Test
+    public void drawDoesNotAllocateForAnyTheme() {
+        LikeButton button = initializedButton();
+        for (LikeButton.Theme theme : LikeButton.Theme.values()) {
+            button.setTheme(theme);
+            assertEquals(theme + " alocó en draw", 0, allocatedOverFrames(button));
+        }
+    }
+
+    @Test
+    public void drawDoesNotAllocateWhilePressedOrOnCooldown() {
+        LikeButton button = initializedButton();
+        button.setTheme(LikeButton.Theme.SPIDER);
+
+        button.onPress();
+        assertEquals(0, allocatedOverFrames(button));
+        button.onRelease();
+
+        button.setCooldown(true);
+        assertEquals(0, allocatedOverFrames(button));
+    }
+
+    private static LikeButton initializedButton() {
+        LikeButton button = new LikeButton(null);
+        button.init(1, 2);   // Ids de textura válidos: ABYSSIA/PYRALIS también dibujan
+        return button;
+    }
+
+    /**
+     * Bytes alocados por este hilo durante MEASURED_FRAMES llamadas a draw().
+     */
+    private long allocatedOverFrames(LikeButton button) {
+        float time = 0f;
+        for (int i = 0; i < WARMUP_FRAMES; i++) {
+            button.draw(mvp, time);
+            time += 0.016f;
+        }
+
+        long tid = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            button.draw(mvp, time);
+            time += 0.016f;
+        }
+        return threads.getThreadAllocatedBytes(tid) - before;
+    }
+}
@@ -0,0 +1,360 @@
+package com.secret.blackholeglow.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.secret.blackholeglow.systems.FirebaseQueueManager.OperationType;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.Priority;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueueListener;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueuedOperation;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * FirebaseQueueManager real (cola + journal en un directorio temporal) contra
+ * un BatchCommitter falso: enqueue → coalescing → flush → fallo/reintento.
+ * Sin background thread: cada flush se llama a mano.
+ */
+public class FirebaseQueueManagerTest {
+
+    private static final String UID = "uid-test";
+
+    private File dir;
+    private FakeCommitter committer;
+    private FirebaseQueueManager queue;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("queue").toFile();
+        committer = new FakeCommitter();
+        queue = open();
+    }
+
+    @After
+    public void tearDown() {
+        committer.deferred = true;  // El flush final de release() no debe tocar la cola
+        queue.release();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void enqueueAssignsUidAndCoalescesPerDocument() {
+        queue.enqueue(stats("user1", Priority.HIGH).putData("planetsDestroyed", 3).putData("health", 80));
+        QueuedOperation second = queue.enqueue(stats("user1", Priority.NORMAL).putData("planetsDestroyed", 5));
+
+        assertEquals(1, queue.getPendingCount());
+        assertEquals(2, queue.getTotalQueued());
+        assertEquals(UID, second.userId);
+
+        queue.flush();
+
+        assertEquals(1, committer.batches.size());
+        List<QueuedOperation> batch = committer.batches.get(0);
+        assertEquals(1, batch.size());
+        QueuedOperation sent = batch.get(0);
+        assertSame(second, sent);
+        assertEquals(5, sent.data.get("planetsDestroyed"));
+        assertEquals(80, sent.data.get("health"));
+        assertEquals(Priority.HIGH, sent.priority);
+        assertEquals(1, queue.getTotalFlushed());
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void reachingTheBatchSizeLimitFlushesAutomatically() {
+        for (int i = 0; i < 50; i++) {
+            queue.enqueue(stats("user" + i, Priority.NORMAL));
+        }
+
+        assertEquals(1, committer.batches.size());
+        assertEquals(50, committer.batches.get(0).size());
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void failedBatchIsRetriedWithItsRetryCount() {
+        committer.failing = true;
+        QueuedOperation op = queue.enqueue(stats("user1", Priority.NORMAL));
+
+        queue.flush();
+        assertEquals(1, op.retryCount);
+        assertFalse(op.inFlight);
+        assertEquals(1, queue.getPendingCount());
+
+        queue.flush();
+        assertEquals(2, op.retryCount);
+
+        committer.failing = false;
+        queue.flush();
+        assertEquals(3, committer.batches.size());
+        assertSame(op, committer.batches.get(2).get(0));
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void operationIsDroppedAfterMaxRetries() {
+        RecordingListener listener = new RecordingListener();
+        queue.addListener(listener);
+        committer.failing = true;
+        QueuedOperation op = queue.enqueue(stats("user1", Priority.NORMAL).setMaxRetries(2));
+
+        queue.flush();
+        assertEquals(1, queue.getPendingCount());
+        queue.flush();
+
+        assertEquals(0, queue.getPendingCount());
+        assertEquals(1, listener.failed.size());
+        assertSame(op, listener.failed.get(0));
+
+        queue.flush();
+        assertEquals(2, committer.batches.size());  // Nada más que enviar
+
+        // El descarte quedó en el journal
+        reopen();
+        assertEquals(0, queue.getPendingCount());
+    }
+
+    @Test
+    public void retryCountSurvivesARestart() {
+        committer.failing = true;
+        queue.enqueue(stats("user1", Priority.NORMAL));
+        queue.flush();
+
+        reopen();
+        assertEquals(1, queue.getPendingCount());
+
+        committer.failing = false;
+        queue.flush();
+        QueuedOperation replayed = committer.batches.get(committer.batches.size() - 1).get(0);
+        assertEquals(1, replayed.retryCount);
+        assertEquals("user1", replayed.documentId);
+    }
+
+    @Test
+    public void committedOperationsAreAckedInTheJournal() {
+        queue.enqueue(stats("user1", Priority.NORMAL));
+        queue.enqueue(stats("user2", Priority.NORMAL));
+        queue.flush();
+
+        queue.enqueue(stats("user3", Priority.NORMAL));
+
+        reopen();
+        assertEquals(1, queue.getPendingCount());
+    }
+
+    @Test
+    public void failureOfAReplacedInFlightOperationKeepsTheNewVersion() {
+        committer.deferred = true;
+        QueuedOperation inFlight = queue.enqueue(stats("user1", Priority.NORMAL).putData("planetsDestroyed", 1));
+        queue.flush();
+        assertTrue(inFlight.inFlight);
+
+        QueuedOperation newer = queue.enqueue(stats("user1", Priority.NORMAL).putData("planetsDestroyed", 2));
+        committer.failPending();
+
+        assertEquals(0, inFlight.retryCount);   // Reemplazada: no cuenta como intento
+        assertFalse(inFlight.inFlight);
+        assertEquals(1, queue.getPendingCount());
+
+        committer.deferred = false;
+        queue.flush();
+        List<QueuedOperation> retry = committer.batches.get(1);
+        assertEquals(1, retry.size());
+        assertSame(newer, retry.get(0));
+        assertEquals(0, newer.retryCount);
+        assertTrue(queue.isIdle());
+    }
+
+    @Test
+    public void successOfAReplacedInFlightOperationKeepsTheNewVersionPending() {
+        committer.deferred = true;
+        queue.enqueue(stats("user1", Priority.NORMAL));
+        queue.flush();
+
+        QueuedOperation newer = queue.enqueue(stats("user1", Priority.NORMAL));
+        committer.succeedPending();
+
+        assertEquals(1, queue.getPendingCount());
+        reopen();
+        assertEquals(1, queue.getPendingCount());
+
+        committer.deferred = false;
+        queue.flush();
+        assertEquals(newer.id, committer.batches.get(committer.batches.size() - 1).get(0).id);
+    }
+
+    // =========================================================================
+    // MEDICIÓN (miles de operaciones)
+    // =========================================================================
+
+    /**
+     * 20.000 actualizaciones sobre 40 documentos (bajo el límite de auto-flush):
+     * un solo batch con una escritura por documento y el journal compactado.
+     */
+    @Test
+    public void thousandsOfCoalescedOperationsCommitOneWritePerDocument() {
+        final int documents = 40;
+        final int operations = 20_000;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            queue.enqueue(stats("user" + (i % documents), Priority.NORMAL).putData("planetsDestroyed", i));
+        }
+        long enqueueNanos = System.nanoTime() - start;
+
+        assertEquals(documents, queue.getPendingCount());
+        assertTrue(committer.batches.isEmpty());
+
+        start = System.nanoTime();
+        queue.flush();
+        long flushNanos = System.nanoTime() - start;
+
+        assertEquals(1, committer.batches.size());
+        List<QueuedOperation> batch = committer.batches.get(0);
+        assertEquals(documents, batch.size());
+        for (QueuedOperation op : batch) {
+            int doc = Integer.parseInt(op.documentId.substring("user".length()));
+            assertEquals(operations - documents + doc, op.data.get("planetsDestroyed"));
+        }
+        assertTrue(queue.isIdle());
+        assertTrue("journal sin compactar", new File(dir, "firebase_queue.journal").length() < 1024);
+
+        System.out.printf("coalescing: %d ops → %d escrituras, enqueue %.2f µs/op, flush %.2f ms%n",
+                operations, batch.size(), enqueueNanos / 1000.0 / operations, flushNanos / 1e6);
+    }
+
+    /**
+     * 5.000 documentos distintos encolados mientras el primer batch está en
+     * vuelo: se vacían en batches de a lo más 500 (límite de Firestore).
+     */
+    @Test
+    public void thousandsOfPendingOperationsDrainInFirestoreSizedBatches() {
+        final int documents = 5_000;
+        committer.deferred = true;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < documents; i++) {
+            queue.enqueue(stats("user" + i, Priority.values()[i % 4]));
+        }
+        long enqueueNanos = System.nanoTime() - start;
+
+        assertEquals(1, committer.batches.size());         // Auto-flush al llegar a 50
+        assertEquals(50, committer.batches.get(0).size());
+        committer.succeedPending();
+        committer.deferred = false;
+
+        start = System.nanoTime();
+        int flushes = 0;
+        while (!queue.isIdle()) {
+            queue.flush();
+            flushes++;
+        }
+        long drainNanos = System.nanoTime() - start;
+
+        int sent = 0;
+        for (int b = 1; b < committer.batches.size(); b++) {
+            List<QueuedOperation> batch = committer.batches.get(b);
+            assertTrue(batch.size() <= 500);
+            for (int i = 1; i < batch.size(); i++) {
+                assertTrue(batch.get(i - 1).priority.value >= batch.get(i).priority.value);
+            }
+            sent += batch.size();
+        }
+        assertEquals(documents - 50, sent);
+        assertEquals(10, flushes);
+        assertEquals(documents, queue.getTotalFlushed());
+
+        System.out.printf("drain: %d docs, enqueue %.2f µs/op, %d flushes en %.2f ms%n",
+                documents, enqueueNanos / 1000.0 / documents, flushes, drainNanos / 1e6);
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private FirebaseQueueManager open() {
+        return new FirebaseQueueManager(committer, dir, () -> UID);
+    }
+
+    /** Reinicio del proceso: se cierra (sin que el flush final llegue) y se relee el journal */
+    private void reopen() {
+        boolean deferred = committer.deferred;
+        committer.deferred = true;
+        queue.release();
+        committer.dropPending();
+        committer.deferred = deferred;
+        queue = open();
+    }
+
+    private static QueuedOperation stats(String docId, Priority priority) {
+        return new QueuedOperation()
+                .setType(OperationType.STATS_UPDATE)
+                .setPriority(priority)
+                .setCollection("player_stats")
+                .setDocumentId(docId);
+    }
+
+    /**
+     * Registra cada batch. deferred = el resultado llega después (commit en vuelo);
+     * failing = el batch falla completo.
+     */
+    private static final class FakeCommitter implements BatchCommitter {
+        final List<List<QueuedOperation>> batches = new ArrayList<>();
+        boolean deferred = false;
+        boolean failing = false;
+        private List<QueuedOperation> pending;
+        private Callback pendingCallback;
+
+        @Override
+        public void commit(List<QueuedOperation> operations, Callback callback) {
+            batches.add(new ArrayList<>(operations));
+            if (deferred) {
+                pending = operations;
+                pendingCallback = callback;
+            } else if (failing) {
+                callback.onFailure(operations, "fake failure");
+            } else {
+                callback.onSuccess(operations);
+            }
+        }
+
+        void succeedPending() {
+            pendingCallback.onSuccess(pending);
+            pending = null;
+        }
+
+        void failPending() {
+            pendingCallback.onFailure(pending, "fake failure");
+            pending = null;
+        }
+
+        void dropPending() {
+            pending = null;
+            pendingCallback = null;
+        }
+    }
+
+    private static final class RecordingListener implements QueueListener {
+        final List<QueuedOperation> failed = new ArrayList<>();
+
+        @Override public void onOperationQueued(QueuedOperation op) { }
+        @Override public void onFlushStarted(int operationCount) { }
+        @Override public void onFlushCompleted(int successCount, int failedCount) { }
+        @Override public void onOperationFailed(QueuedOperation op, String error) { failed.add(op); }
+        @Override public void onQueueCleared() { }
+    }
+}
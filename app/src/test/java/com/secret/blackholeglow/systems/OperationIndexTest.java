@@ -0,0 +1,187 @@
+package com.secret.blackholeglow.systems;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.secret.blackholeglow.systems.FirebaseQueueManager.OperationType;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.Priority;
+import com.secret.blackholeglow.systems.FirebaseQueueManager.QueuedOperation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Coalescing y orden de flush de OperationIndex, sin manager ni committer.
+ * El ciclo completo enqueue → flush → fallo/reintento contra el
+ * FirebaseQueueManager real está en FirebaseQueueManagerTest.
+ */
+public class OperationIndexTest {
+
+    private OperationIndex index;
+
+    @Before
+    public void setUp() {
+        index = new OperationIndex();
+    }
+
+    @Test
+    public void sameDocumentIsCoalescedAndMergeCombinesFields() {
+        QueuedOperation first = stats("user1", Priority.HIGH).putData("planetsDestroyed", 3).putData("health", 80);
+        QueuedOperation second = stats("user1", Priority.NORMAL).putData("planetsDestroyed", 5);
+
+        assertNull(index.put(first));
+        assertSame(first, index.put(second));
+        assertEquals(1, index.size());
+
+        List<QueuedOperation> batch = index.pollBatch(500);
+        assertEquals(1, batch.size());
+        QueuedOperation sent = batch.get(0);
+        assertSame(second, sent);
+        assertEquals(5, sent.data.get("planetsDestroyed"));   // El último valor gana
+        assertEquals(80, sent.data.get("health"));            // Campo del anterior conservado
+        assertEquals(Priority.HIGH, sent.priority);           // Conserva la prioridad mayor
+    }
+
+    @Test
+    public void overwriteReplacesWithoutMerging() {
+        index.put(stats("user1", Priority.NORMAL).putData("health", 80));
+        index.put(stats("user1", Priority.NORMAL).setMerge(false).putData("planetsDestroyed", 7));
+
+        QueuedOperation sent = index.pollBatch(500).get(0);
+        assertEquals(7, sent.data.get("planetsDestroyed"));
+        assertFalse(sent.data.containsKey("health"));
+    }
+
+    @Test
+    public void flushOrderIsPriorityThenFifo() {
+        QueuedOperation low = stats("a", Priority.LOW);
+        QueuedOperation high1 = stats("b", Priority.HIGH);
+        QueuedOperation normal = stats("c", Priority.NORMAL);
+        QueuedOperation critical = stats("d", Priority.CRITICAL);
+        QueuedOperation high2 = stats("e", Priority.HIGH);
+        index.put(low);
+        index.put(high1);
+        index.put(normal);
+        index.put(critical);
+        index.put(high2);
+
+        List<QueuedOperation> batch = index.pollBatch(500);
+        assertEquals(5, batch.size());
+        assertSame(critical, batch.get(0));
+        assertSame(high1, batch.get(1));
+        assertSame(high2, batch.get(2));
+        assertSame(normal, batch.get(3));
+        assertSame(low, batch.get(4));
+    }
+
+    @Test
+    public void batchLimitLeavesTheRestForTheNextPoll() {
+        for (int i = 0; i < 5; i++) {
+            index.put(stats("user" + i, Priority.NORMAL));
+        }
+
+        List<QueuedOperation> first = index.pollBatch(3);
+        assertEquals(3, first.size());
+        for (QueuedOperation op : first) {
+            assertTrue(index.remove(op));
+        }
+        assertEquals(2, index.size());
+
+        List<QueuedOperation> second = index.pollBatch(3);
+        assertEquals(2, second.size());
+        for (QueuedOperation op : second) {
+            assertTrue(index.remove(op));
+        }
+        assertTrue(index.isEmpty());
+    }
+
+    @Test
+    public void inFlightOperationIsNotPolledTwice() {
+        QueuedOperation op = stats("user1", Priority.NORMAL);
+        index.put(op);
+
+        assertEquals(1, index.pollBatch(500).size());
+        assertTrue(op.inFlight);
+        assertTrue(index.pollBatch(500).isEmpty());
+
+        index.requeue(op);
+        assertFalse(op.inFlight);
+        assertSame(op, index.pollBatch(500).get(0));
+    }
+
+    @Test
+    public void replacementWhileInFlightKeepsTheNewVersionPending() {
+        QueuedOperation inFlight = stats("user1", Priority.NORMAL).putData("planetsDestroyed", 1);
+        index.put(inFlight);
+        index.pollBatch(500);
+
+        // Llega una versión nueva del mismo documento antes del ack
+        QueuedOperation newer = stats("user1", Priority.NORMAL).putData("planetsDestroyed", 2);
+        assertSame(inFlight, index.put(newer));
+
+        assertFalse(index.isCurrent(inFlight));
+        assertFalse(index.remove(inFlight));      // El ack de la vieja no borra la nueva
+        assertFalse(inFlight.inFlight);
+        assertEquals(1, index.size());
+        assertTrue(index.isCurrent(newer));
+        assertSame(newer, index.pollBatch(500).get(0));
+    }
+
+    @Test
+    public void requeueOfAReplacedOperationIsIgnored() {
+        QueuedOperation inFlight = stats("user1", Priority.NORMAL);
+        index.put(inFlight);
+        index.pollBatch(500);
+
+        QueuedOperation newer = stats("user1", Priority.NORMAL);
+        index.put(newer);
+        index.requeue(inFlight);
+
+        List<QueuedOperation> batch = index.pollBatch(500);
+        assertEquals(1, batch.size());
+        assertSame(newer, batch.get(0));
+    }
+
+    @Test
+    public void likeIncrementsAreNeverCoalesced() {
+        for (int i = 0; i < 3; i++) {
+            assertNull(index.put(like("song_shard_1")));
+        }
+        assertEquals(3, index.size());
+        assertEquals(3, index.pollBatch(500).size());
+    }
+
+    @Test
+    public void operationsWithoutDocumentIdAreNeverCoalesced() {
+        index.put(new QueuedOperation().setType(OperationType.SONG_SHARE).setCollection("shared_songs"));
+        index.put(new QueuedOperation().setType(OperationType.SONG_SHARE).setCollection("shared_songs"));
+
+        assertEquals(2, index.size());
+    }
+
+    // =========================================================================
+    // HELPERS
+    // =========================================================================
+
+    private static QueuedOperation stats(String userId, Priority priority) {
+        return new QueuedOperation()
+                .setType(OperationType.STATS_UPDATE)
+                .setPriority(priority)
+                .setCollection("player_stats")
+                .setDocumentId(userId)
+                .setUserId(userId);
+    }
+
+    private static QueuedOperation like(String shardDocId) {
+        return new QueuedOperation()
+                .setType(OperationType.LIKE_INCREMENT)
+                .setCollection("song_likes_shards")
+                .setDocumentId(shardDocId)
+                .putData("count", 1);
+    }
+}
@@ -0,0 +1,167 @@
+package com.secret.blackholeglow.systems;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * OperationJournal en la JVM con un directorio temporal.
+ */
+public class OperationJournalTest {
+
+    private File dir;
+    private File file;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("journal").toFile();
+        file = new File(dir, "queue.journal");
+    }
+
+    @After
+    public void tearDown() {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.delete();
+    }
+
+    @Test
+    public void replayRestoresLiveOperationsInOrder() throws IOException {
+        OperationJournal journal = new OperationJournal(file);
+        assertTrue(journal.replay().isEmpty());
+        journal.appendEnqueue("a", bytes("a1"));
+        journal.appendEnqueue("b", bytes("b1"));
+        journal.appendEnqueue("c", bytes("c1"));
+        journal.appendAck("b");
+        journal.appendEnqueue("a", bytes("a2"));  // Reemplazo (ej: retryCount)
+        journal.close();
+
+        Map<String, byte[]> live = new OperationJournal(file).replay();
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(live.keySet()));
+        assertArrayEquals(bytes("a2"), live.get("a"));
+        assertArrayEquals(bytes("c1"), live.get("c"));
+    }
+
+    @Test
+    public void tornTailIsTruncatedAndAppendsStayAligned() throws IOException {
+        OperationJournal journal = new OperationJournal(file);
+        journal.replay();
+        journal.appendEnqueue("a", bytes("payload-a"));
+        long afterFirst = file.length();
+        journal.appendEnqueue("b", bytes("payload-b"));
+        journal.close();
+
+        // Proceso muerto a mitad del segundo write
+        truncate(file.length() - 3);
+
+        OperationJournal reopened = new OperationJournal(file);
+        Map<String, byte[]> live = reopened.replay();
+        assertEquals(Arrays.asList("a"), new ArrayList<>(live.keySet()));
+        assertEquals(afterFirst, file.length());
+
+        reopened.appendEnqueue("c", bytes("payload-c"));
+        reopened.close();
+        assertEquals(Arrays.asList("a", "c"), new ArrayList<>(new OperationJournal(file).replay().keySet()));
+    }
+
+    @Test
+    public void crcMismatchStopsReplayAtLastValidRecord() throws IOException {
+        OperationJournal journal = new OperationJournal(file);
+        journal.replay();
+        journal.appendEnqueue("a", bytes("first"));
+        long afterFirst = file.length();
+        journal.appendEnqueue("b", bytes("second"));
+        journal.appendEnqueue("c", bytes("third"));
+        journal.close();
+
+        // Un bit del payload de "b" cambiado: su CRC ya no coincide
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long pos = afterFirst + 1 + 2 + 1 + 4;
+            raf.seek(pos);
+            int b = raf.read();
+            raf.seek(pos);
+            raf.write(b ^ 0x01);
+        }
+
+        Map<String, byte[]> live = new OperationJournal(file).replay();
+        assertEquals(Arrays.asList("a"), new ArrayList<>(live.keySet()));
+        assertEquals(afterFirst, file.length());
+    }
+
+    @Test
+    public void compactionKeepsOnlyLiveOperations() throws IOException {
+        OperationJournal journal = new OperationJournal(file);
+        journal.replay();
+        byte[] payload = new byte[512];
+        Map<String, byte[]> live = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            String id = "op" + i;
+            journal.appendEnqueue(id, payload);
+            if (i % 10 == 0) {
+                live.put(id, payload);
+            } else {
+                journal.appendAck(id);
+            }
+        }
+        assertTrue(journal.needsCompaction());
+        long before = journal.sizeBytes();
+
+        journal.compact(live);
+        assertTrue(journal.sizeBytes() < before);
+        assertFalse(journal.needsCompaction());
+
+        journal.appendEnqueue("after", bytes("x"));
+        journal.close();
+        Map<String, byte[]> replayed = new OperationJournal(file).replay();
+        assertEquals(live.size() + 1, replayed.size());
+        assertTrue(replayed.keySet().containsAll(live.keySet()));
+        assertTrue(replayed.containsKey("after"));
+        assertFalse(new File(file.getPath() + ".tmp").exists());
+    }
+
+    @Test
+    public void badHeaderIsQuarantinedAndJournalKeepsWorking() throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(bytes("NOPE and some garbage after the header"));
+        }
+
+        OperationJournal journal = new OperationJournal(file);
+        assertTrue(journal.replay().isEmpty());
+        assertTrue(new File(file.getPath() + ".corrupt").exists());
+
+        // Antes: "Journal no abierto (falta replay())" en cada append
+        journal.appendEnqueue("a", bytes("ok"));
+        journal.close();
+
+        Map<String, byte[]> live = new OperationJournal(file).replay();
+        assertEquals(Arrays.asList("a"), new ArrayList<>(live.keySet()));
+    }
+
+    private void truncate(long length) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length);
+        }
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+}